@@ -0,0 +1,44 @@
+package com.mixer.interactive.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the standard JMH command line options, and additionally enables the
+ * allocation profiler and writes JSON results unless told otherwise.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * File results are written to when no result file is given on the command line
+     */
+    private static final String DEFAULT_RESULT_FILE = "results/latest.json";
+
+    /**
+     * Private constructor to prevent instantiation of an utility class.
+     *
+     * @since   3.3.0
+     */
+    private BenchmarkRunner() {
+        // NO-OP
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILE))
+                .build();
+        new Runner(options).run();
+    }
+}
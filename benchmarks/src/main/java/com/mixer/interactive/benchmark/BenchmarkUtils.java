@@ -0,0 +1,201 @@
+package com.mixer.interactive.benchmark;
+
+import com.google.common.io.Resources;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveCanvasSize;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.control.InteractiveControlPosition;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.ws.InteractiveWebSocketClient;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixtures shared by the benchmarks in this module.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public final class BenchmarkUtils {
+
+    /**
+     * Project version ID used by benchmark game clients
+     */
+    public static final int PROJECT_VERSION_ID = 1234;
+
+    /**
+     * Host URI given to benchmark websocket clients. No connection is ever made to it.
+     */
+    private static final URI BENCHMARK_HOST = URI.create("ws://localhost:3000/gameClient");
+
+    /**
+     * Private constructor to prevent instantiation of an utility class.
+     *
+     * @since   3.3.0
+     */
+    private BenchmarkUtils() {
+        // NO-OP
+    }
+
+    /**
+     * Reads a recorded frame from the <code>frames</code> resource directory.
+     *
+     * @param   name
+     *          Name of the frame (without the <code>.json</code> extension)
+     *
+     * @return  The contents of the frame
+     *
+     * @since   3.3.0
+     */
+    public static String readFrame(String name) {
+        try {
+            return Resources.toString(Resources.getResource("frames/" + name + ".json"), StandardCharsets.UTF_8).trim();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to read frame " + name, e);
+        }
+    }
+
+    /**
+     * Creates a <code>GameClient</code> with an attached websocket client that captures outbound frames instead of
+     * sending them.
+     *
+     * @return  A <code>CapturingWebSocketClient</code> attached to a new <code>GameClient</code>
+     *
+     * @since   3.3.0
+     */
+    public static CapturingWebSocketClient newCapturingClient() {
+        GameClient gameClient = new GameClient(PROJECT_VERSION_ID, "benchmark");
+        CapturingWebSocketClient webSocketClient = new CapturingWebSocketClient(gameClient);
+        try {
+            Field field = GameClient.class.getDeclaredField("webSocketClient");
+            field.setAccessible(true);
+            field.set(gameClient, webSocketClient);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to attach websocket client", e);
+        }
+        return webSocketClient;
+    }
+
+    /**
+     * Creates buttons in the default scene, each with a position for every canvas size.
+     *
+     * @param   count
+     *          Number of buttons to create
+     *
+     * @return  <code>List</code> of buttons
+     *
+     * @since   3.3.0
+     */
+    public static List<InteractiveControl> buttons(int count) {
+        List<InteractiveControl> controls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            controls.add(new ButtonControl("button-" + i, "default",
+                    new InteractiveControlPosition(InteractiveCanvasSize.LARGE, 10, 9, i * 10 % 80, 0),
+                    new InteractiveControlPosition(InteractiveCanvasSize.MEDIUM, 10, 9, i * 10 % 30, 0),
+                    new InteractiveControlPosition(InteractiveCanvasSize.SMALL, 10, 9, i * 10 % 30, 0))
+                    .setText("Button " + i)
+                    .setCost(10)
+                    .setProgress(0.5f)
+                    .setCooldown(1508357000000L)
+                    .setKeyCode(65 + i % 26)
+                    .addMetaProperty("index", i));
+        }
+        return controls;
+    }
+
+    /**
+     * Creates participants in the default group.
+     *
+     * @param   count
+     *          Number of participants to create
+     *
+     * @return  <code>List</code> of participants
+     *
+     * @since   3.3.0
+     */
+    public static List<InteractiveParticipant> participants(int count) {
+        List<InteractiveParticipant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(new InteractiveParticipant(String.format("f3a1c2d4-%04d-4e4b-9b1a-7c2a5e0d%04d", i, i),
+                    100000 + i, "Viewer" + i, i * 7 % 100, 1508357000000L + i * 13, 1508356000000L + i * 17, false, "default"));
+        }
+        return participants;
+    }
+
+    /**
+     * A websocket client that captures outbound frames instead of sending them over the network.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    public static final class CapturingWebSocketClient extends InteractiveWebSocketClient {
+
+        /**
+         * The <code>GameClient</code> this websocket client is attached to
+         */
+        private final GameClient gameClient;
+
+        /**
+         * The most recently sent frame
+         */
+        private String lastFrame;
+
+        /**
+         * Initializes a new <code>CapturingWebSocketClient</code>.
+         *
+         * @param   gameClient
+         *          The <code>GameClient</code> this websocket client is attached to
+         *
+         * @since   3.3.0
+         */
+        CapturingWebSocketClient(GameClient gameClient) {
+            super(gameClient, BENCHMARK_HOST, "benchmark", PROJECT_VERSION_ID);
+            this.gameClient = gameClient;
+        }
+
+        /**
+         * Returns the <code>GameClient</code> this websocket client is attached to.
+         *
+         * @return  The <code>GameClient</code> this websocket client is attached to
+         *
+         * @since   3.3.0
+         */
+        public GameClient getGameClient() {
+            return gameClient;
+        }
+
+        /**
+         * Returns the most recently sent frame.
+         *
+         * @return  The most recently sent frame
+         *
+         * @since   3.3.0
+         */
+        public String getLastFrame() {
+            return lastFrame;
+        }
+
+        /**
+         * Captures the frame instead of sending it.
+         *
+         * @param   message
+         *          The frame to send
+         *
+         * @since   3.3.0
+         */
+        @Override
+        public void send(String message) {
+            lastFrame = message;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.mixer.interactive.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.GSON;
+
+/**
+ * Measures <code>ControlInputEventAdapter</code> deserializing <code>giveInput</code> parameters, both from an already
+ * parsed tree (as <code>InteractiveWebSocketClient</code> does) and from a string.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlInputEventAdapterBenchmark {
+
+    /**
+     * The input event being deserialized
+     */
+    @Param({ "mousedown", "move" })
+    public String event;
+
+    /**
+     * <code>giveInput</code> parameters as a string
+     */
+    private String params;
+
+    /**
+     * <code>giveInput</code> parameters as a tree
+     */
+    private JsonElement paramsTree;
+
+    @Setup
+    public void setup() {
+        params = "move".equals(event)
+                ? "{\"participantID\":\"f3a1c2d4-0001-4e4b-9b1a-7c2a5e0d0001\",\"transactionID\":\"0b3fb1a7-1e6c-4c89-9a36-4e9a61d1b0a2\",\"input\":{\"controlID\":\"joystick-1\",\"event\":\"move\",\"x\":0.42,\"y\":-0.87}}"
+                : "{\"participantID\":\"f3a1c2d4-0001-4e4b-9b1a-7c2a5e0d0001\",\"transactionID\":\"0b3fb1a7-1e6c-4c89-9a36-4e9a61d1b0a2\",\"input\":{\"controlID\":\"button-1\",\"event\":\"mousedown\",\"button\":0}}";
+        paramsTree = new JsonParser().parse(params);
+    }
+
+    @Benchmark
+    public ControlInputEvent fromTree() {
+        return GSON.fromJson(paramsTree, ControlInputEvent.class);
+    }
+
+    @Benchmark
+    public ControlInputEvent fromString() {
+        return GSON.fromJson(params, ControlInputEvent.class);
+    }
+}
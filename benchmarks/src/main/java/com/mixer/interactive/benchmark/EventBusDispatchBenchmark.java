@@ -0,0 +1,98 @@
+package com.mixer.interactive.benchmark;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.control.input.ControlMouseDownInputEvent;
+import com.mixer.interactive.resources.control.InteractiveControlInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures posting control input events to a Guava <code>EventBus</code>, as done for every inbound event. The case
+ * with no subscribers exercises the <code>DeadEvent</code> path.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusDispatchBenchmark {
+
+    /**
+     * Number of registered subscribers
+     */
+    @Param({ "0", "1", "8" })
+    public int subscribers;
+
+    /**
+     * Event bus the events are posted to
+     */
+    private EventBus eventBus;
+
+    /**
+     * Event posted in each invocation
+     */
+    private ControlInputEvent event;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        eventBus = new EventBus("benchmark");
+        for (int i = 0; i < subscribers; i++) {
+            eventBus.register(new InputSubscriber(blackhole));
+        }
+        Map<String, JsonElement> input = Collections.singletonMap("button", new JsonPrimitive(0));
+        event = new ControlMouseDownInputEvent("f3a1c2d4-0001-4e4b-9b1a-7c2a5e0d0001", null,
+                new InteractiveControlInput("button-1", "mousedown", input));
+    }
+
+    @Benchmark
+    public void post() {
+        eventBus.post(event);
+    }
+
+    /**
+     * Subscriber consuming control input events.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    public static class InputSubscriber {
+
+        /**
+         * Sink for received events
+         */
+        private final Blackhole blackhole;
+
+        InputSubscriber(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Subscribe
+        public void onInput(ControlInputEvent event) {
+            blackhole.consume(event);
+        }
+    }
+}
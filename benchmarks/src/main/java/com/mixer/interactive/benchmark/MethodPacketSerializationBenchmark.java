@@ -0,0 +1,127 @@
+package com.mixer.interactive.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.services.RemoteProcedureCallServiceProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.GSON;
+import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
+
+/**
+ * Measures the cost of serializing outbound method packets through
+ * <code>RemoteProcedureCallServiceProvider.send</code>. Packets are sent with <code>discard</code> set so that no
+ * reply promises are left waiting.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodPacketSerializationBenchmark {
+
+    /**
+     * Number of controls in each <code>updateControls</code> request
+     */
+    @Param({ "1", "10", "100" })
+    public int controlCount;
+
+    /**
+     * Websocket client capturing the serialized frames
+     */
+    private BenchmarkUtils.CapturingWebSocketClient webSocketClient;
+
+    /**
+     * RPC service provider sending the packets
+     */
+    private RemoteProcedureCallServiceProvider rpc;
+
+    /**
+     * Controls sent in each request
+     */
+    private List<InteractiveControl> controls;
+
+    /**
+     * Pre-built <code>updateControls</code> parameters
+     */
+    private JsonElement params;
+
+    /**
+     * Batch of ten pre-built <code>updateControls</code> packets
+     */
+    private List<MethodPacket> batch;
+
+    @Setup
+    public void setup() {
+        webSocketClient = BenchmarkUtils.newCapturingClient();
+        rpc = webSocketClient.getGameClient().using(RPC_SERVICE_PROVIDER);
+        controls = BenchmarkUtils.buttons(controlCount);
+        params = updateControlsParams();
+        batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new MethodPacket(rpc.claimNextPacketId(), InteractiveMethod.UPDATE_CONTROLS, params, true));
+        }
+    }
+
+    /**
+     * Serializes a single packet whose parameters were built ahead of time.
+     */
+    @Benchmark
+    public String sendPrebuiltParams() {
+        rpc.send(new MethodPacket(rpc.claimNextPacketId(), InteractiveMethod.UPDATE_CONTROLS, params, true));
+        return webSocketClient.getLastFrame();
+    }
+
+    /**
+     * Builds the parameters from the control objects and serializes the packet, as <code>ControlServiceProvider</code>
+     * does.
+     */
+    @Benchmark
+    public String buildAndSend() {
+        rpc.send(new MethodPacket(rpc.claimNextPacketId(), InteractiveMethod.UPDATE_CONTROLS, updateControlsParams(), true));
+        return webSocketClient.getLastFrame();
+    }
+
+    /**
+     * Serializes a batch of ten packets in a single frame.
+     */
+    @Benchmark
+    public String sendBatch() {
+        rpc.send(batch);
+        return webSocketClient.getLastFrame();
+    }
+
+    /**
+     * Builds the parameters for an <code>updateControls</code> request.
+     *
+     * @return  The parameters for an <code>updateControls</code> request
+     */
+    private JsonElement updateControlsParams() {
+        JsonObject jsonParams = new JsonObject();
+        jsonParams.addProperty("sceneID", "default");
+        jsonParams.add("controls", GSON.toJsonTree(controls));
+        return jsonParams;
+    }
+}
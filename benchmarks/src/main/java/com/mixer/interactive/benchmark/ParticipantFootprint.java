@@ -0,0 +1,99 @@
+package com.mixer.interactive.benchmark;
+
+import com.mixer.interactive.resources.participant.CompactParticipantStore;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Measures the heap retained by an audience of participants held in a <code>HashSet</code> of
+ * <code>InteractiveParticipants</code>, and by the same audience held in a <code>CompactParticipantStore</code>.
+ *
+ * <p>Usage: <code>java -cp target/benchmarks.jar com.mixer.interactive.benchmark.ParticipantFootprint
+ * [participants]</code>. For stable results run with a fixed heap, for example <code>-Xms2g -Xmx2g</code>.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public final class ParticipantFootprint {
+
+    /**
+     * Number of times the garbage collector is requested before measuring the heap
+     */
+    private static final int GC_PASSES = 5;
+
+    /**
+     * Private constructor to prevent instantiation of an utility class.
+     *
+     * @since   3.3.0
+     */
+    private ParticipantFootprint() {
+        // NO-OP
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+
+        long baseline = usedHeap();
+        Set<InteractiveParticipant> participantSet = new HashSet<>(participants(count));
+        long setBytes = usedHeap() - baseline;
+        int setSize = participantSet.size();
+        participantSet = null;
+
+        baseline = usedHeap();
+        CompactParticipantStore store = new CompactParticipantStore();
+        List<InteractiveParticipant> participants = participants(count);
+        store.putAll(participants);
+        participants = null;
+        long storeBytes = usedHeap() - baseline;
+
+        System.out.println(String.format("HashSet<InteractiveParticipant>: %,d participants, %,d bytes, %.1f bytes/participant", setSize, setBytes, (double) setBytes / setSize));
+        System.out.println(String.format("CompactParticipantStore:         %,d participants, %,d bytes, %.1f bytes/participant", store.size(), storeBytes, (double) storeBytes / store.size()));
+        System.out.println(String.format("Reduction: %.1f%%", 100.0 * (setBytes - storeBytes) / setBytes));
+    }
+
+    /**
+     * Creates participants with UUID session identifiers, as assigned by the Interactive service.
+     *
+     * @param   count
+     *          Number of participants to create
+     *
+     * @return  <code>List</code> of participants
+     *
+     * @since   3.3.0
+     */
+    private static List<InteractiveParticipant> participants(int count) {
+        Random random = new Random(count);
+        List<InteractiveParticipant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(new InteractiveParticipant(new UUID(random.nextLong(), random.nextLong()).toString(),
+                    100000 + i, "Viewer" + i, i * 7 % 100, 1508357000000L + i * 13, 1508356000000L + i * 17, false, "default"));
+        }
+        return participants;
+    }
+
+    /**
+     * Returns the heap in use after requesting garbage collection.
+     *
+     * @return  The number of bytes of heap in use
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting for garbage collection
+     *
+     * @since   3.3.0
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
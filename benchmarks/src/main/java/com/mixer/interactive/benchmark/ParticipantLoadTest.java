@@ -0,0 +1,89 @@
+package com.mixer.interactive.benchmark;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.JoystickControl;
+import com.mixer.interactive.resources.control.TextboxControl;
+import com.mixer.interactive.test.load.ButtonMashProfile;
+import com.mixer.interactive.test.load.IInputProfile;
+import com.mixer.interactive.test.load.InputLatencyRecorder;
+import com.mixer.interactive.test.load.JoystickStreamProfile;
+import com.mixer.interactive.test.load.LoadReport;
+import com.mixer.interactive.test.load.ParticipantLoadGenerator;
+import com.mixer.interactive.test.load.TextboxSubmitProfile;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+
+/**
+ * Runs a <code>ParticipantLoadGenerator</code> against an in-process <code>InteractiveStandInServer</code> with a
+ * connected <code>GameClient</code>, and prints the achieved input rate and input-to-handler latency.
+ *
+ * <p>Usage: <code>java -cp target/benchmarks.jar com.mixer.interactive.benchmark.ParticipantLoadTest
+ * [participants] [seconds] [button|joystick|textbox] [rate]</code>, where <code>rate</code> is the number of inputs
+ * per second given by each participant.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public final class ParticipantLoadTest {
+
+    /**
+     * Private constructor to prevent instantiation of an utility class.
+     *
+     * @since   3.3.0
+     */
+    private ParticipantLoadTest() {
+        // NO-OP
+    }
+
+    public static void main(String[] args) throws Exception {
+        int participants = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        String profileName = args.length > 2 ? args[2] : "button";
+        double rate = args.length > 3 ? Double.parseDouble(args[3]) : 1;
+
+        IInputProfile profile;
+        switch (profileName) {
+            case "button":
+                profile = new ButtonMashProfile("button", rate);
+                break;
+            case "joystick":
+                profile = new JoystickStreamProfile("joystick", rate);
+                break;
+            case "textbox":
+                profile = new TextboxSubmitProfile("textbox", rate, "gg", "left", "right", "jump");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown input profile " + profileName);
+        }
+
+        InteractiveStandInServer server = new InteractiveStandInServer().startAndWait();
+        GameClient gameClient = new GameClient(BenchmarkUtils.PROJECT_VERSION_ID, "benchmark");
+        InputLatencyRecorder recorder = new InputLatencyRecorder().register(gameClient);
+        try {
+            gameClient.connectTo("token", server.getGameClientURI()).get(10, TimeUnit.SECONDS);
+            gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("button", "default"), new JoystickControl("joystick", "default"), new TextboxControl("textbox", "default")).get(10, TimeUnit.SECONDS);
+
+            ParticipantLoadGenerator generator = new ParticipantLoadGenerator(server.getParticipantURI(), profile)
+                    .setParticipantCount(participants)
+                    .start();
+            for (int i = 0; i < seconds; i++) {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+                LoadReport report = generator.getReport(recorder);
+                System.out.println(String.format("%3ds: %d participants, %.1f inputs/s sent, %.1f inputs/s handled, p99 %.3f ms",
+                        i + 1, report.getParticipantsConnected(), report.getSendRate(), report.getHandledRate(), report.getLatencyPercentile(99)));
+            }
+            generator.stop();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+            System.out.println(generator.getReport(recorder));
+        }
+        finally {
+            gameClient.disconnect().get(10, TimeUnit.SECONDS);
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mixer.interactive.benchmark;
+
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>hashCode</code> and <code>equals</code> on Interactive resources, which are exercised whenever
+ * resources are stored in hash based collections.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceHashingBenchmark {
+
+    /**
+     * Controls used by the benchmarks
+     */
+    private List<InteractiveControl> controls;
+
+    /**
+     * Control used by the single resource benchmarks
+     */
+    private InteractiveControl control;
+
+    /**
+     * Control equal to, but not the same instance as, <code>control</code>
+     */
+    private InteractiveControl equalControl;
+
+    /**
+     * Scene containing all the controls
+     */
+    private InteractiveScene scene;
+
+    /**
+     * Participant used by the single resource benchmarks
+     */
+    private InteractiveParticipant participant;
+
+    @Setup
+    public void setup() {
+        controls = BenchmarkUtils.buttons(100);
+        control = controls.get(0);
+        equalControl = BenchmarkUtils.buttons(1).get(0);
+        scene = new InteractiveScene("default", Collections.emptySet(), controls);
+        participant = BenchmarkUtils.participants(1).get(0);
+    }
+
+    @Benchmark
+    public int controlHashCode() {
+        return control.hashCode();
+    }
+
+    @Benchmark
+    public boolean controlEquals() {
+        return control.equals(equalControl);
+    }
+
+    @Benchmark
+    public int sceneHashCode() {
+        return scene.hashCode();
+    }
+
+    @Benchmark
+    public int participantHashCode() {
+        return participant.hashCode();
+    }
+
+    @Benchmark
+    public Set<InteractiveControl> hashSetOfControls() {
+        return new HashSet<>(controls);
+    }
+}
@@ -0,0 +1,91 @@
+package com.mixer.interactive.benchmark;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.NetworkConditions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+
+/**
+ * Measures request round trips between a <code>GameClient</code> and an in-process
+ * <code>InteractiveStandInServer</code> under simulated network latency.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StandInRoundTripBenchmark {
+
+    /**
+     * One-way latency applied by the stand-in server, in milliseconds
+     */
+    @Param({ "0", "5" })
+    public int latencyMillis;
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * Game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Controls updated by <code>updateControls</code>
+     */
+    private List<InteractiveControl> controls;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        server.setNetworkConditions(NetworkConditions.NONE.withLatency(latencyMillis, TimeUnit.MILLISECONDS));
+        gameClient = new GameClient(BenchmarkUtils.PROJECT_VERSION_ID, "benchmark");
+        gameClient.connectTo("benchmark", server.getGameClientURI()).get(15, TimeUnit.SECONDS);
+        controls = BenchmarkUtils.buttons(10);
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(controls).get(15, TimeUnit.SECONDS);
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        gameClient.disconnect().get(15, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Benchmark
+    public Long getTime() throws Exception {
+        return gameClient.getTime().get(15, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Set<InteractiveControl> updateControls() throws Exception {
+        Map<InteractiveControl, CompletableFuture<Set<InteractiveControl>>> replies = gameClient.using(CONTROL_SERVICE_PROVIDER).update(controls).get(15, TimeUnit.SECONDS);
+        return replies.values().iterator().next().get(15, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,60 @@
+package com.mixer.interactive.benchmark;
+
+import com.mixer.interactive.ws.InteractiveWebSocketClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of decoding recorded inbound frames in <code>InteractiveWebSocketClient.onMessage</code>,
+ * including parsing, event construction and posting to the <code>EventBus</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketClientDecodeBenchmark {
+
+    /**
+     * Name of the recorded frame to decode
+     */
+    @Param({ "give-input", "give-input-batch", "participant-join", "control-update-batch" })
+    public String frame;
+
+    /**
+     * Websocket client decoding the frame
+     */
+    private InteractiveWebSocketClient webSocketClient;
+
+    /**
+     * Contents of the recorded frame
+     */
+    private String message;
+
+    @Setup
+    public void setup() {
+        webSocketClient = BenchmarkUtils.newCapturingClient();
+        message = BenchmarkUtils.readFrame(frame);
+    }
+
+    @Benchmark
+    public void onMessage() {
+        webSocketClient.onMessage(message);
+    }
+}
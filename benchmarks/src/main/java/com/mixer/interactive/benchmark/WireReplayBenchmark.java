@@ -0,0 +1,110 @@
+package com.mixer.interactive.benchmark;
+
+import com.mixer.interactive.recording.FrameDirection;
+import com.mixer.interactive.recording.SegmentedWireRecorder;
+import com.mixer.interactive.recording.WireRecording;
+import com.mixer.interactive.recording.WireReplayer;
+import com.mixer.interactive.resources.core.CompressionScheme;
+import com.mixer.interactive.ws.InteractiveWebSocketClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding and dispatch of a whole recording, replayed at maximum speed through
+ * <code>InteractiveWebSocketClient.onMessage</code>.
+ *
+ * <p>Pass the directory of a recording made with <code>SegmentedWireRecorder</code> as the <code>recording</code>
+ * parameter (for example <code>-p recording=/tmp/session</code>) to benchmark against captured production traffic.
+ * When no recording is given, one is synthesized from the recorded frames in the <code>frames</code> resource
+ * directory.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireReplayBenchmark {
+
+    /**
+     * Frames the synthesized recording cycles through
+     */
+    private static final String[] SYNTHESIZED_FRAMES = { "participant-join", "give-input", "give-input-batch", "control-update-batch" };
+
+    /**
+     * Number of frames in the synthesized recording
+     */
+    private static final int SYNTHESIZED_FRAME_COUNT = 1000;
+
+    /**
+     * Directory of the recording to replay, or empty to synthesize one
+     */
+    @Param({ "" })
+    public String recording;
+
+    /**
+     * Replayer of the recording
+     */
+    private WireReplayer replayer;
+
+    /**
+     * Websocket client the recording is replayed through
+     */
+    private InteractiveWebSocketClient webSocketClient;
+
+    @Setup
+    public void setup() throws IOException {
+        Path directory = recording.isEmpty() ? synthesizeRecording() : Paths.get(recording);
+        replayer = new WireReplayer(WireRecording.load(directory));
+        webSocketClient = BenchmarkUtils.newCapturingClient();
+    }
+
+    @Benchmark
+    public int replay() {
+        return replayer.replay(webSocketClient, WireReplayer.MAXIMUM_SPEED);
+    }
+
+    /**
+     * Writes a recording cycling through the recorded frames to a temporary directory.
+     *
+     * @return  The directory of the recording
+     *
+     * @throws  IOException
+     *          If the recording cannot be written
+     *
+     * @since   3.3.0
+     */
+    private static Path synthesizeRecording() throws IOException {
+        Path directory = Files.createTempDirectory("wire-replay-benchmark");
+        byte[][] frames = new byte[SYNTHESIZED_FRAMES.length][];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = BenchmarkUtils.readFrame(SYNTHESIZED_FRAMES[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        try (SegmentedWireRecorder recorder = new SegmentedWireRecorder(directory, 1024 * 1024)) {
+            for (int i = 0; i < SYNTHESIZED_FRAME_COUNT; i++) {
+                recorder.record(FrameDirection.INBOUND, CompressionScheme.NONE, false, frames[i % frames.length]);
+            }
+        }
+        return directory;
+    }
+}
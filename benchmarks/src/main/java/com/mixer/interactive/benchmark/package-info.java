@@ -0,0 +1,8 @@
+/**
+ * Contains JMH benchmarks for the hot paths of the Interactive protocol implementation.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.benchmark;
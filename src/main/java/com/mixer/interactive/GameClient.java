@@ -4,20 +4,30 @@ import com.google.common.eventbus.EventBus;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.*;
+import com.mixer.interactive.event.EchoPolicy;
+import com.mixer.interactive.event.EchoSuppressor;
+import com.mixer.interactive.event.InteractiveEventBus;
 import com.mixer.interactive.event.UndefinedInteractiveEvent;
 import com.mixer.interactive.event.connection.ConnectionEstablishedEvent;
 import com.mixer.interactive.event.control.ControlDeleteEvent;
 import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.stream.EventStreams;
 import com.mixer.interactive.exception.InteractiveConnectionException;
 import com.mixer.interactive.exception.InteractiveNoHostsFoundException;
 import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
 import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
 import com.mixer.interactive.gson.*;
 import com.mixer.interactive.manager.StateManager;
+import com.mixer.interactive.memory.MemoryAccountant;
+import com.mixer.interactive.metrics.IMetricsRegistry;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.metrics.NoOpMetricsRegistry;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.protocol.InteractivePacket;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.recording.IWireRecorder;
+import com.mixer.interactive.recording.SegmentedWireRecorder;
 import com.mixer.interactive.resources.control.InteractiveCanvasSize;
-import com.mixer.interactive.resources.control.InteractiveControl;
 import com.mixer.interactive.resources.control.InteractiveControlInput;
 import com.mixer.interactive.resources.control.InteractiveControlType;
 import com.mixer.interactive.resources.core.*;
@@ -25,6 +35,7 @@ import com.mixer.interactive.resources.scene.InteractiveScene;
 import com.mixer.interactive.services.*;
 import com.mixer.interactive.util.EndpointUtil;
 import com.mixer.interactive.ws.InteractiveWebSocketClient;
+import com.mixer.interactive.ws.OutboundBufferLimits;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -36,8 +47,11 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -60,13 +74,14 @@ public class GameClient {
     public static final Gson GSON = new GsonBuilder()
             .registerTypeAdapter(InteractivePacket.class, new InteractivePacketAdapter())
             .registerTypeAdapter(InteractiveScene.class, new InteractiveSceneAdapter())
-            .registerTypeAdapter(InteractiveControl.class, new InteractiveControlAdapter())
             .registerTypeAdapter(InteractiveCanvasSize.class, new InteractiveCanvasSizeAdapter())
             .registerTypeAdapter(InteractiveControlType.class, new InteractiveControlTypeAdapter())
+            .registerTypeAdapter(InteractiveMethod.class, new InteractiveMethodAdapter())
             .registerTypeAdapter(InteractiveControlInput.class, new InteractiveControlInputAdapter())
             .registerTypeAdapter(UndefinedInteractiveEvent.class, new UndefinedInteractiveEventAdapter())
             .registerTypeAdapter(ControlInputEvent.class, new ControlInputEventAdapter())
             .registerTypeAdapter(ControlDeleteEvent.class, new ControlDeleteEventAdapter())
+            .registerTypeAdapterFactory(new GeneratedTypeAdapterFactory())
             .serializeNulls()
             .create();
 
@@ -172,7 +187,32 @@ public class GameClient {
     /**
      * Event bus where incoming events from the Interactive service are posted to
      */
-    private final EventBus eventBus;
+    private final InteractiveEventBus eventBus;
+
+    /**
+     * Streams of the events posted to the event bus, delivered as fast as their subscribers request them
+     */
+    private final EventStreams eventStreams;
+
+    /**
+     * Shares the results of read requests between the callers making them at the same time
+     */
+    private final ReadRequestCache readRequestCache;
+
+    /**
+     * Recognizes the update events that echo updates made by this client
+     */
+    private final EchoSuppressor echoSuppressor;
+
+    /**
+     * Shadow of the last acknowledged state of the resources this client updates
+     */
+    private final UpdateShadow updateShadow;
+
+    /**
+     * Timeouts of requests adapted to the round trips observed for each method
+     */
+    private final AdaptiveTimeouts adaptiveTimeouts = new AdaptiveTimeouts();
 
     /**
      * Thread executor service for creating <code>CompletableFutures</code>
@@ -189,6 +229,43 @@ public class GameClient {
      */
     private StateManager stateManager;
 
+    /**
+     * Registry that method requests and replies are recorded with
+     */
+    private volatile IMetricsRegistry metricsRegistry = NoOpMetricsRegistry.INSTANCE;
+
+    /**
+     * Recorder that frames sent to and received from the Interactive service are recorded with, if any
+     */
+    private volatile IWireRecorder wireRecorder;
+
+    /**
+     * Accountant estimating the memory the requests of this client use on the Interactive service, if any
+     */
+    private volatile MemoryAccountant memoryAccountant;
+
+    /**
+     * Limits on how bulk operations are split into requests
+     */
+    private volatile BulkRequestLimits bulkRequestLimits = BulkRequestLimits.DEFAULT;
+
+    /**
+     * Executor the promises for replies from the Interactive service are completed on, or <code>null</code> to
+     * complete them on the default reply completion executor
+     */
+    private volatile Executor replyCompletionExecutor;
+
+    /**
+     * Single thread the promises for replies are completed on by default, apart from the thread executor service so
+     * that slow continuations cannot hold up request timeouts
+     */
+    private final ThreadPoolExecutor defaultReplyCompletionExecutor;
+
+    /**
+     * Limits on the frames waiting to be written to the Interactive service
+     */
+    private volatile OutboundBufferLimits outboundBufferLimits = OutboundBufferLimits.DEFAULT;
+
     /**
      * Initializes a new <code>GameClient</code>.
      *
@@ -223,14 +300,34 @@ public class GameClient {
         registerServiceProviders();
 
         stateManager = new StateManager(this);
-        eventBus = new EventBus(projectVersionId.toString());
+        eventBus = new InteractiveEventBus(projectVersionId.toString());
         if (useStateManager) {
             eventBus.register(stateManager);
         }
-        executor = Executors.newScheduledThreadPool(THREAD_POOL_SIZE, new ThreadFactoryBuilder()
+        ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(THREAD_POOL_SIZE, new ThreadFactoryBuilder()
                 .setNameFormat("interactive-project-" + this.projectVersionId + "-thread-%d")
                 .setDaemon(true)
                 .build());
+        // Request timeouts are cancelled as soon as their replies arrive, so drop them rather than let them pile up
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        executor = scheduledExecutor;
+        defaultReplyCompletionExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+                .setNameFormat("interactive-project-" + this.projectVersionId + "-replies-%d")
+                .setDaemon(true)
+                .build());
+        defaultReplyCompletionExecutor.allowCoreThreadTimeOut(true);
+
+        eventStreams = new EventStreams(executor);
+        eventBus.register(eventStreams);
+
+        readRequestCache = new ReadRequestCache();
+        eventBus.register(readRequestCache);
+
+        echoSuppressor = new EchoSuppressor();
+        eventBus.register(echoSuppressor);
+
+        updateShadow = new UpdateShadow(this);
+        eventBus.register(updateShadow);
     }
 
     /**
@@ -267,7 +364,8 @@ public class GameClient {
     }
 
     /**
-     * Returns the <code>EventBus</code> associated with the client.
+     * Returns the <code>EventBus</code> associated with the client. The bus is an <code>InteractiveEventBus</code>,
+     * which can also report whether events of a type would currently be received.
      *
      * @return  The <code>EventBus</code> associated with the client
      *
@@ -277,6 +375,19 @@ public class GameClient {
         return eventBus;
     }
 
+    /**
+     * Returns the streams of the events posted to the <code>EventBus</code> of the client. Subscribers to a stream are
+     * delivered events only as fast as they request them, on the thread executor service of the client, so that slow
+     * consumers do not hold up the thread events are received on.
+     *
+     * @return  The <code>EventStreams</code> associated with the client
+     *
+     * @since   3.3.0
+     */
+    public EventStreams getEventStreams() {
+        return eventStreams;
+    }
+
     /**
      * Returns the web socket client that this game client uses to communicate with the Interactive service.
      *
@@ -299,6 +410,254 @@ public class GameClient {
         return executor;
     }
 
+    /**
+     * Returns the registry that method requests made by this client, and the replies to them, are recorded with. By
+     * default this is a {@link NoOpMetricsRegistry} which records nothing.
+     *
+     * @return  The <code>IMetricsRegistry</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public IMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Sets the registry that method requests made by this client, and the replies to them, are recorded with.
+     *
+     * @param   metricsRegistry
+     *          The <code>IMetricsRegistry</code> to be used by this client. If <code>null</code>, metrics are no
+     *          longer recorded.
+     *
+     * @see     InteractiveMetricsRegistry
+     *
+     * @since   3.3.0
+     */
+    public void setMetricsRegistry(IMetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry != null ? metricsRegistry : NoOpMetricsRegistry.INSTANCE;
+    }
+
+    /**
+     * Returns the recorder that frames sent to and received from the Interactive service are recorded with. By
+     * default no frames are recorded.
+     *
+     * @return  The <code>IWireRecorder</code> used by this client, or <code>null</code> if frames are not recorded
+     *
+     * @since   3.3.0
+     */
+    public IWireRecorder getWireRecorder() {
+        return wireRecorder;
+    }
+
+    /**
+     * Sets the recorder that frames sent to and received from the Interactive service are recorded with.
+     *
+     * @param   wireRecorder
+     *          The <code>IWireRecorder</code> to be used by this client. If <code>null</code>, frames are no longer
+     *          recorded.
+     *
+     * @see     SegmentedWireRecorder
+     *
+     * @since   3.3.0
+     */
+    public void setWireRecorder(IWireRecorder wireRecorder) {
+        this.wireRecorder = wireRecorder;
+    }
+
+    /**
+     * Returns the cache that read requests, such as retrieving the scenes, groups or throttle state, are made through.
+     * Identical read requests made at the same time share one request, and results are not cached unless a time to live
+     * is set with {@link ReadRequestCache#setTimeToLive(InteractiveMethod, long, java.util.concurrent.TimeUnit)}.
+     *
+     * @return  The <code>ReadRequestCache</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public ReadRequestCache getReadRequestCache() {
+        return readRequestCache;
+    }
+
+    /**
+     * Returns the suppressor recognizing the update events the Interactive service sends back after this client's own
+     * updates to controls, groups or scenes. By default echoes are delivered like any other event; this is changed
+     * with {@link EchoSuppressor#setPolicy(EchoPolicy)}.
+     *
+     * @return  The <code>EchoSuppressor</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public EchoSuppressor getEchoSuppressor() {
+        return echoSuppressor;
+    }
+
+    /**
+     * Returns the shadow of the last state the Interactive service acknowledged for the controls, groups and
+     * participants this client updates. While it is enabled, updates that would not change anything complete without
+     * being sent. It is disabled by default, and enabled with {@link UpdateShadow#setEnabled(boolean)}.
+     *
+     * @return  The <code>UpdateShadow</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public UpdateShadow getUpdateShadow() {
+        return updateShadow;
+    }
+
+    /**
+     * Returns the timeouts of requests adapted to the round trips observed for each method. Requests made without a
+     * timeout or deadline of their own wait for the adapted timeout of their method. They are off by default, and
+     * turned on with {@link AdaptiveTimeouts#setPolicy(AdaptiveTimeoutPolicy)}.
+     *
+     * @return  The <code>AdaptiveTimeouts</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public AdaptiveTimeouts getAdaptiveTimeouts() {
+        return adaptiveTimeouts;
+    }
+
+    /**
+     * Returns the accountant estimating the memory the requests made by this client use on the Interactive service. By
+     * default there is none.
+     *
+     * @return  The <code>MemoryAccountant</code> used by this client, or <code>null</code> if memory is not accounted
+     *          for
+     *
+     * @since   3.3.0
+     */
+    public MemoryAccountant getMemoryAccountant() {
+        return memoryAccountant;
+    }
+
+    /**
+     * Sets the accountant estimating the memory the requests made by this client use on the Interactive service. This
+     * is done by {@link MemoryAccountant#start()}.
+     *
+     * @param   memoryAccountant
+     *          The <code>MemoryAccountant</code> to be used by this client. If <code>null</code>, memory is no longer
+     *          accounted for.
+     *
+     * @since   3.3.0
+     */
+    public void setMemoryAccountant(MemoryAccountant memoryAccountant) {
+        this.memoryAccountant = memoryAccountant;
+    }
+
+    /**
+     * Returns the limits on how bulk operations, such as updating many participants or creating many controls, are
+     * split into requests. By default these are {@link BulkRequestLimits#DEFAULT}.
+     *
+     * @return  The <code>BulkRequestLimits</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public BulkRequestLimits getBulkRequestLimits() {
+        return bulkRequestLimits;
+    }
+
+    /**
+     * Sets the limits on how bulk operations, such as updating many participants or creating many controls, are split
+     * into requests.
+     *
+     * @param   bulkRequestLimits
+     *          The <code>BulkRequestLimits</code> to be used by this client. If <code>null</code>,
+     *          {@link BulkRequestLimits#DEFAULT} is used.
+     *
+     * @since   3.3.0
+     */
+    public void setBulkRequestLimits(BulkRequestLimits bulkRequestLimits) {
+        this.bulkRequestLimits = bulkRequestLimits != null ? bulkRequestLimits : BulkRequestLimits.DEFAULT;
+    }
+
+    /**
+     * Returns the executor the promises for replies from the Interactive service are completed on, and so the executor
+     * the continuations of those promises run on unless they specify their own. By default this is a single thread
+     * dedicated to this client, separate from the thread executor service that request timeouts are scheduled on.
+     *
+     * @return  The <code>Executor</code> replies are completed on
+     *
+     * @since   3.3.0
+     */
+    public Executor getReplyCompletionExecutor() {
+        Executor completionExecutor = replyCompletionExecutor;
+        return completionExecutor != null ? completionExecutor : defaultReplyCompletionExecutor;
+    }
+
+    /**
+     * <p>Sets the executor the promises for replies from the Interactive service are completed on. The replies in a
+     * frame received from the Interactive service are handed off to the executor together, as a single task, so that
+     * continuations of the promises never run on the websocket read thread and cannot hold up inbound traffic.</p>
+     *
+     * <p>With the default executor, replies are completed one at a time in the order they were received. Events are
+     * still posted on the read thread as they are received, so a continuation of a reply may run after events received
+     * later than the reply have been posted. An executor running several tasks at once may also complete replies out
+     * of order. Passing <code>Runnable::run</code> completes every promise on the read thread, interleaved with events
+     * in the order they were received. Individual requests can be completed on the read thread through
+     * {@link MethodPacket#setCompleteInline(boolean)}.</p>
+     *
+     * @param   replyCompletionExecutor
+     *          The <code>Executor</code> to complete replies on. If <code>null</code>, the default single thread of
+     *          this client is used.
+     *
+     * @since   3.3.0
+     */
+    public void setReplyCompletionExecutor(Executor replyCompletionExecutor) {
+        this.replyCompletionExecutor = replyCompletionExecutor;
+    }
+
+    /**
+     * Returns the limits on the frames waiting to be written to the Interactive service. By default these are
+     * {@link OutboundBufferLimits#DEFAULT}.
+     *
+     * @return  The <code>OutboundBufferLimits</code> used by this client
+     *
+     * @since   3.3.0
+     */
+    public OutboundBufferLimits getOutboundBufferLimits() {
+        return outboundBufferLimits;
+    }
+
+    /**
+     * Sets the limits on the frames waiting to be written to the Interactive service, and what is done with a frame
+     * that does not fit.
+     *
+     * @param   outboundBufferLimits
+     *          The <code>OutboundBufferLimits</code> to be used by this client. If <code>null</code>,
+     *          {@link OutboundBufferLimits#DEFAULT} is used.
+     *
+     * @since   3.3.0
+     */
+    public void setOutboundBufferLimits(OutboundBufferLimits outboundBufferLimits) {
+        this.outboundBufferLimits = outboundBufferLimits != null ? outboundBufferLimits : OutboundBufferLimits.DEFAULT;
+    }
+
+    /**
+     * Returns whether requests can be sent to the Interactive service without adding to a backlog of frames waiting to
+     * be written. Changes are also posted as {@link com.mixer.interactive.event.connection.OutboundWritabilityEvent}.
+     *
+     * @return  <code>true</code> if connected and the outbound buffer is writable, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isWritable() {
+        InteractiveWebSocketClient client = webSocketClient;
+        return client != null && client.getOutboundBuffer().isWritable();
+    }
+
+    /**
+     * Returns a new batch, which holds the requests made through the service providers it returns and sends them
+     * together, each stage of it in one frame.
+     *
+     * @return  A new <code>RequestBatch</code> whose requests are sent with the default options
+     *
+     * @see     RequestBatch
+     *
+     * @since   3.3.0
+     */
+    public RequestBatch batch() {
+        return new RequestBatch(this, CallOptions.DEFAULT);
+    }
+
     /**
      * Retrieves the service provider specified by the provided class from the service manager. If there does not exist
      * a service provider instance for the provided class, <code>null</code> is returned.
@@ -714,7 +1073,7 @@ public class GameClient {
      * @since   1.0.0
      */
     public CompletableFuture<Map<InteractiveMethod, ThrottleState>> getThrottleState() {
-        return using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.GET_THROTTLE_STATE, JsonNull.INSTANCE, THROTTLE_STATE_MAP_TYPE);
+        return readRequestCache.get(InteractiveMethod.GET_THROTTLE_STATE, () -> using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.GET_THROTTLE_STATE, JsonNull.INSTANCE, JsonElement.class), THROTTLE_STATE_MAP_TYPE);
     }
 
     /**
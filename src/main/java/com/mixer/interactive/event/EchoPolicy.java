@@ -0,0 +1,29 @@
+package com.mixer.interactive.event;
+
+/**
+ * What is done with an update event the Interactive service sends back to the client after one of its own updates to
+ * controls, groups or scenes has been applied.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         EchoSuppressor
+ *
+ * @since       3.3.0
+ */
+public enum EchoPolicy {
+
+    /**
+     * Echoes are delivered like any other event, and updates are not tracked
+     */
+    DELIVER,
+
+    /**
+     * Events made up only of echoes are delivered marked as {@link InteractiveEvent#isSelfOriginated() self-originated}
+     */
+    MARK,
+
+    /**
+     * Echoed resources are removed from events, and events made up only of echoes are not delivered at all
+     */
+    SUPPRESS
+}
@@ -0,0 +1,577 @@
+package com.mixer.interactive.event;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.event.connection.ConnectionClosedEvent;
+import com.mixer.interactive.protocol.EncodedMethodPacket;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Recognizes the update events the Interactive service sends back to the client after applying the client's own
+ * updates to controls, groups or scenes, so that handlers do not process each update twice.</p>
+ *
+ * <p>When an update request is sent, the identifier and a digest of the properties of each resource in it are
+ * remembered until shortly after the request completes. A resource in an <code>onControlUpdate</code>,
+ * <code>onGroupUpdate</code> or <code>onSceneUpdate</code> event is an echo if it has the same identifier, and the same
+ * values for the properties that were sent, as a remembered update. The etag is left out of the digest, as the service
+ * assigns a new one. Each remembered update is matched by at most one echo, and updates that fail are forgotten.</p>
+ *
+ * <p>What is done with echoes is decided by the {@link EchoPolicy}. By default they are delivered like any other event
+ * and updates are not tracked.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.GameClient#getEchoSuppressor()
+ *
+ * @since       3.3.0
+ */
+public class EchoSuppressor {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default time, in milliseconds, an update is remembered for after it completes
+     */
+    public static final long DEFAULT_ECHO_WINDOW_MILLIS = 5000;
+
+    /**
+     * Parameter keys of the resources in update requests and events
+     */
+    private static final String PARAM_KEY_CONTROLS = "controls";
+    private static final String PARAM_KEY_GROUPS = "groups";
+    private static final String PARAM_KEY_SCENES = "scenes";
+    private static final String PARAM_KEY_CONTROL_ID = "controlID";
+    private static final String PARAM_KEY_GROUP_ID = "groupID";
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+    private static final String PARAM_KEY_ETAG = "etag";
+
+    /**
+     * What is done with echoes
+     */
+    private volatile EchoPolicy policy = EchoPolicy.DELIVER;
+
+    /**
+     * Time, in nanoseconds, an update is remembered for after it completes
+     */
+    private volatile long echoWindowNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_ECHO_WINDOW_MILLIS);
+
+    /**
+     * Updates awaiting their echoes by resource, in the order they were sent, guarded by this map
+     */
+    private final Map<String, Deque<ExpectedEcho>> expectedEchoes = new HashMap<>();
+
+    /**
+     * Number of echoed resources recognized
+     */
+    private final AtomicLong echoCount = new AtomicLong();
+
+    /**
+     * Returns what is done with echoes.
+     *
+     * @return  The <code>EchoPolicy</code>
+     *
+     * @since   3.3.0
+     */
+    public EchoPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets what is done with echoes. Setting {@link EchoPolicy#DELIVER} forgets the updates awaiting their echoes.
+     *
+     * @param   policy
+     *          The <code>EchoPolicy</code>. If <code>null</code>, echoes are delivered.
+     *
+     * @since   3.3.0
+     */
+    public void setPolicy(EchoPolicy policy) {
+        this.policy = policy != null ? policy : EchoPolicy.DELIVER;
+        if (this.policy == EchoPolicy.DELIVER) {
+            clear();
+        }
+    }
+
+    /**
+     * Sets the time an update is remembered for after it completes. Echoes arriving later are delivered as events.
+     *
+     * @param   echoWindow
+     *          Time an update is remembered for after it completes
+     * @param   timeUnit
+     *          Unit of the echo window
+     *
+     * @since   3.3.0
+     */
+    public void setEchoWindow(long echoWindow, TimeUnit timeUnit) {
+        if (echoWindow < 0 || timeUnit == null) {
+            LOG.fatal("A non-negative echo window and its unit are required");
+            throw new IllegalArgumentException("A non-negative echo window and its unit are required");
+        }
+        this.echoWindowNanos = timeUnit.toNanos(echoWindow);
+    }
+
+    /**
+     * Returns the number of echoed resources recognized.
+     *
+     * @return  The number of echoed resources recognized
+     *
+     * @since   3.3.0
+     */
+    public long getEchoCount() {
+        return echoCount.get();
+    }
+
+    /**
+     * Returns whether update requests are tracked, which is the case unless echoes are delivered.
+     *
+     * @return  <code>true</code> if update requests are tracked, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isTracking() {
+        return policy != EchoPolicy.DELIVER;
+    }
+
+    /**
+     * Remembers the resources in an update request, if it is one, until shortly after it completes. Called by the
+     * <code>RemoteProcedureCallServiceProvider</code> before the request is written, so that its echo cannot arrive
+     * first.
+     *
+     * @param   requestPacket
+     *          The request
+     * @param   replyPromise
+     *          Promise for the reply to the request
+     *
+     * @since   3.3.0
+     */
+    public void expect(MethodPacket requestPacket, CompletableFuture<ReplyPacket> replyPromise) {
+        String payloadName = getPayloadName(requestPacket.getMethod(), false);
+        if (!isTracking() || payloadName == null || replyPromise == null) {
+            return;
+        }
+        JsonObject params = getParams(requestPacket);
+        if (params == null || !params.has(payloadName) || !params.get(payloadName).isJsonArray()) {
+            return;
+        }
+
+        String sceneID = getString(params, PARAM_KEY_SCENE_ID);
+        List<ExpectedEcho> expected = new ArrayList<>();
+        for (JsonElement resource : params.getAsJsonArray(payloadName)) {
+            String key = getKey(requestPacket.getMethod(), sceneID, resource);
+            if (key != null) {
+                List<String> properties = new ArrayList<>();
+                for (Map.Entry<String, JsonElement> property : resource.getAsJsonObject().entrySet()) {
+                    if (!PARAM_KEY_ETAG.equals(property.getKey())) {
+                        properties.add(property.getKey());
+                    }
+                }
+                Collections.sort(properties);
+                expected.add(new ExpectedEcho(key, properties, digest(resource.getAsJsonObject(), properties)));
+            }
+        }
+        if (expected.isEmpty()) {
+            return;
+        }
+
+        synchronized (expectedEchoes) {
+            purgeExpired(System.nanoTime());
+            for (ExpectedEcho echo : expected) {
+                expectedEchoes.computeIfAbsent(echo.key, key -> new ArrayDeque<>()).add(echo);
+            }
+        }
+        replyPromise.whenComplete((replyPacket, throwable) -> {
+            if (throwable != null || (replyPacket != null && replyPacket.hasError())) {
+                forget(expected);
+            }
+            else {
+                long expiresAt = System.nanoTime() + echoWindowNanos;
+                synchronized (expectedEchoes) {
+                    for (ExpectedEcho echo : expected) {
+                        echo.expiresAt = expiresAt;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the resources of an update event that are not echoes of updates made by this client. Each echo
+     * recognized is consumed.
+     *
+     * @param   method
+     *          Method of the event
+     * @param   params
+     *          Parameters of the event
+     *
+     * @return  The resources that are not echoes, which is the array in the parameters if none are, or
+     *          <code>null</code> if the event is not an update event or has no resources
+     *
+     * @since   3.3.0
+     */
+    public JsonArray withoutEchoes(InteractiveMethod method, JsonObject params) {
+        String payloadName = getPayloadName(method, true);
+        if (!isTracking() || payloadName == null || params == null || !params.has(payloadName) || !params.get(payloadName).isJsonArray()) {
+            return null;
+        }
+
+        JsonArray resources = params.getAsJsonArray(payloadName);
+        String sceneID = getString(params, PARAM_KEY_SCENE_ID);
+        JsonArray remaining = null;
+        int index = 0;
+        synchronized (expectedEchoes) {
+            if (expectedEchoes.isEmpty()) {
+                return resources;
+            }
+            purgeExpired(System.nanoTime());
+            for (JsonElement resource : resources) {
+                if (consumeEcho(getKey(method, sceneID, resource), resource)) {
+                    if (remaining == null) {
+                        remaining = new JsonArray();
+                        for (int i = 0; i < index; i++) {
+                            remaining.add(resources.get(i));
+                        }
+                    }
+                    echoCount.incrementAndGet();
+                }
+                else if (remaining != null) {
+                    remaining.add(resource);
+                }
+                index++;
+            }
+        }
+        return remaining != null ? remaining : resources;
+    }
+
+    /**
+     * Forgets the updates awaiting their echoes when the connection closes, as their echoes will not arrive.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onConnectionClosed(ConnectionClosedEvent event) {
+        clear();
+    }
+
+    /**
+     * Forgets every update awaiting its echo.
+     *
+     * @since   3.3.0
+     */
+    public void clear() {
+        synchronized (expectedEchoes) {
+            expectedEchoes.clear();
+        }
+    }
+
+    /**
+     * Consumes the first remembered update of a resource that the resource in an event echoes, if there is one.
+     * Called while holding the lock of the map of expected echoes.
+     *
+     * @param   key
+     *          Key of the resource
+     * @param   resource
+     *          The resource in the event
+     *
+     * @return  <code>true</code> if the resource is an echo, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private boolean consumeEcho(String key, JsonElement resource) {
+        Deque<ExpectedEcho> echoes = key != null ? expectedEchoes.get(key) : null;
+        if (echoes == null) {
+            return false;
+        }
+        Iterator<ExpectedEcho> iterator = echoes.iterator();
+        while (iterator.hasNext()) {
+            ExpectedEcho echo = iterator.next();
+            if (echo.digest == digest(resource.getAsJsonObject(), echo.properties)) {
+                iterator.remove();
+                if (echoes.isEmpty()) {
+                    expectedEchoes.remove(key);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets remembered updates.
+     *
+     * @param   echoes
+     *          The updates to forget
+     *
+     * @since   3.3.0
+     */
+    private void forget(List<ExpectedEcho> echoes) {
+        synchronized (expectedEchoes) {
+            for (ExpectedEcho echo : echoes) {
+                Deque<ExpectedEcho> keyEchoes = expectedEchoes.get(echo.key);
+                if (keyEchoes != null) {
+                    keyEchoes.remove(echo);
+                    if (keyEchoes.isEmpty()) {
+                        expectedEchoes.remove(echo.key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the updates whose echo window has passed. Called while holding the lock of the map of expected echoes.
+     *
+     * @param   now
+     *          The current time, in nanoseconds
+     *
+     * @since   3.3.0
+     */
+    private void purgeExpired(long now) {
+        Iterator<Deque<ExpectedEcho>> iterator = expectedEchoes.values().iterator();
+        while (iterator.hasNext()) {
+            Deque<ExpectedEcho> echoes = iterator.next();
+            echoes.removeIf(echo -> echo.expiresAt != Long.MAX_VALUE && now - echo.expiresAt > 0);
+            if (echoes.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the parameter holding the resources of an update request or event.
+     *
+     * @param   method
+     *          The method
+     * @param   inbound
+     *          Whether to look for the method of the event rather than of the request
+     *
+     * @return  The name of the parameter, or <code>null</code> if the method is not an update
+     *
+     * @since   3.3.0
+     */
+    private static String getPayloadName(InteractiveMethod method, boolean inbound) {
+        if (method == null) {
+            return null;
+        }
+        switch (method) {
+            case UPDATE_CONTROLS:
+                return inbound ? null : PARAM_KEY_CONTROLS;
+            case UPDATE_GROUPS:
+                return inbound ? null : PARAM_KEY_GROUPS;
+            case UPDATE_SCENES:
+                return inbound ? null : PARAM_KEY_SCENES;
+            case ON_CONTROL_UPDATE:
+                return inbound ? PARAM_KEY_CONTROLS : null;
+            case ON_GROUP_UPDATE:
+                return inbound ? PARAM_KEY_GROUPS : null;
+            case ON_SCENE_UPDATE:
+                return inbound ? PARAM_KEY_SCENES : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the key a resource in an update request or event is remembered by.
+     *
+     * @param   method
+     *          Method of the request or event
+     * @param   sceneID
+     *          Identifier of the scene of the controls, if the resources are controls
+     * @param   resource
+     *          The resource
+     *
+     * @return  The key of the resource, or <code>null</code> if it has no identifier
+     *
+     * @since   3.3.0
+     */
+    private static String getKey(InteractiveMethod method, String sceneID, JsonElement resource) {
+        if (resource == null || !resource.isJsonObject()) {
+            return null;
+        }
+        JsonObject object = resource.getAsJsonObject();
+        switch (method) {
+            case UPDATE_CONTROLS:
+            case ON_CONTROL_UPDATE: {
+                String controlID = getString(object, PARAM_KEY_CONTROL_ID);
+                return controlID != null ? "control:" + sceneID + ":" + controlID : null;
+            }
+            case UPDATE_GROUPS:
+            case ON_GROUP_UPDATE: {
+                String groupID = getString(object, PARAM_KEY_GROUP_ID);
+                return groupID != null ? "group:" + groupID : null;
+            }
+            default: {
+                String resourceSceneID = getString(object, PARAM_KEY_SCENE_ID);
+                return resourceSceneID != null ? "scene:" + resourceSceneID : null;
+            }
+        }
+    }
+
+    /**
+     * Returns a digest of the values of some properties of a resource, independent of the order of the members of
+     * any objects among them.
+     *
+     * @param   resource
+     *          The resource
+     * @param   properties
+     *          Names of the properties, sorted
+     *
+     * @return  The digest of the properties
+     *
+     * @since   3.3.0
+     */
+    private static long digest(JsonObject resource, List<String> properties) {
+        StringBuilder builder = new StringBuilder();
+        for (String property : properties) {
+            builder.append(property).append('=');
+            appendCanonical(builder, resource.get(property));
+            builder.append(';');
+        }
+        return Hashing.murmur3_128().hashString(builder, StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * Appends a JSON value with the members of its objects sorted by name.
+     *
+     * @param   builder
+     *          The builder to append to
+     * @param   value
+     *          The value, or <code>null</code> if absent
+     *
+     * @since   3.3.0
+     */
+    private static void appendCanonical(StringBuilder builder, JsonElement value) {
+        if (value == null) {
+            builder.append("undefined");
+        }
+        else if (value.isJsonObject()) {
+            List<Map.Entry<String, JsonElement>> members = new ArrayList<>(value.getAsJsonObject().entrySet());
+            members.sort(Map.Entry.comparingByKey());
+            builder.append('{');
+            for (Map.Entry<String, JsonElement> member : members) {
+                builder.append(member.getKey()).append(':');
+                appendCanonical(builder, member.getValue());
+                builder.append(',');
+            }
+            builder.append('}');
+        }
+        else if (value.isJsonArray()) {
+            builder.append('[');
+            for (JsonElement element : value.getAsJsonArray()) {
+                appendCanonical(builder, element);
+                builder.append(',');
+            }
+            builder.append(']');
+        }
+        else {
+            builder.append(value.toString());
+        }
+    }
+
+    /**
+     * Returns the parameters of a request, including an encoded parameter if it has one.
+     *
+     * @param   requestPacket
+     *          The request
+     *
+     * @return  The parameters of the request, or <code>null</code> if it has none
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject getParams(MethodPacket requestPacket) {
+        if (requestPacket instanceof EncodedMethodPacket) {
+            return ((EncodedMethodPacket) requestPacket).getDecodedParameters();
+        }
+        JsonElement params = requestPacket.getRequestParameters();
+        return params != null && params.isJsonObject() ? params.getAsJsonObject() : null;
+    }
+
+    /**
+     * Returns a string property of an object.
+     *
+     * @param   object
+     *          The object
+     * @param   name
+     *          Name of the property
+     *
+     * @return  The value of the property, or <code>null</code> if it is absent or not a string
+     *
+     * @since   3.3.0
+     */
+    private static String getString(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    /**
+     * An update of a resource awaiting its echo.
+     *
+     * @since   3.3.0
+     */
+    private static final class ExpectedEcho {
+
+        /**
+         * Key of the resource
+         */
+        private final String key;
+
+        /**
+         * Names of the properties sent, sorted
+         */
+        private final List<String> properties;
+
+        /**
+         * Digest of the values of the properties sent
+         */
+        private final long digest;
+
+        /**
+         * Time, in nanoseconds, the update is forgotten at, guarded by the map of expected echoes. This is
+         * <code>Long.MAX_VALUE</code> until the request completes.
+         */
+        private long expiresAt = Long.MAX_VALUE;
+
+        /**
+         * Initializes a new <code>ExpectedEcho</code>.
+         *
+         * @param   key
+         *          Key of the resource
+         * @param   properties
+         *          Names of the properties sent, sorted
+         * @param   digest
+         *          Digest of the values of the properties sent
+         *
+         * @since   3.3.0
+         */
+        private ExpectedEcho(String key, List<String> properties, long digest) {
+            this.key = key;
+            this.properties = properties;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mixer.interactive.event;
+
+/**
+ * Implemented by objects registered with an {@link InteractiveEventBus} whose interest in events changes while they
+ * are registered, such as a stream that is only interested in events while it has subscribers. Objects that do not
+ * implement it are interested in the events their <code>@Subscribe</code> methods accept for as long as they are
+ * registered.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveEventBus#hasSubscribers(Class)
+ *
+ * @since       3.3.0
+ */
+@FunctionalInterface
+public interface IEventInterest {
+
+    /**
+     * Returns whether events of the provided type are currently of interest.
+     *
+     * @param   eventType
+     *          Type of event
+     *
+     * @return  <code>true</code> if events of the provided type are currently of interest, <code>false</code>
+     *          otherwise
+     *
+     * @since   3.3.0
+     */
+    boolean isInterestedIn(Class<?> eventType);
+}
@@ -1,5 +1,8 @@
 package com.mixer.interactive.event;
 
+import com.google.gson.JsonElement;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+
 /**
  * The abstract class <code>InteractiveEvent</code> is the superclass of all classes relating to events sent
  * from the Interactive service to the <code>GameClient</code>.
@@ -8,13 +11,25 @@ package com.mixer.interactive.event;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public abstract class InteractiveEvent {
 
     /**
      * Unique numeric identifier for the packet the resulted in this event
      */
+    @GenerateTypeAdapter.Accessors(getter = "getRequestID", setter = "setRequestID")
     private int id;
 
+    /**
+     * Raw payload of the event, bound when an accessor for it is first called, or <code>null</code> once bound
+     */
+    private transient volatile JsonElement unboundPayload;
+
+    /**
+     * Whether the event echoes a change made by this client
+     */
+    private transient volatile boolean selfOriginated;
+
     /**
      * Returns the identifier for the packet the resulted in this event.
      *
@@ -37,4 +52,81 @@ public abstract class InteractiveEvent {
     public void setRequestID(int id) {
         this.id = id;
     }
+
+    /**
+     * Returns whether the event echoes a change made by this client, such as the <code>onControlUpdate</code> sent back
+     * after the client updated those controls. Events are only marked under {@link EchoPolicy#MARK}.
+     *
+     * @return  <code>true</code> if the event echoes a change made by this client, <code>false</code> otherwise
+     *
+     * @see     EchoSuppressor
+     *
+     * @since   3.3.0
+     */
+    public boolean isSelfOriginated() {
+        return selfOriginated;
+    }
+
+    /**
+     * Marks the event as echoing a change made by this client.
+     *
+     * @since   3.3.0
+     */
+    public void markSelfOriginated() {
+        this.selfOriginated = true;
+    }
+
+    /**
+     * Defers binding the payload of the event until an accessor for it is first called, so that events nobody looks
+     * into are never bound. Only events with a collection payload bind it lazily; for the others the payload is
+     * ignored.
+     *
+     * @param   payload
+     *          Raw payload of the event
+     *
+     * @since   3.3.0
+     */
+    public void deferPayload(JsonElement payload) {
+        this.unboundPayload = payload;
+    }
+
+    /**
+     * Returns whether the payload of the event has been bound.
+     *
+     * @return  <code>true</code> if the payload has been bound or was never deferred, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isPayloadBound() {
+        return unboundPayload == null;
+    }
+
+    /**
+     * Binds the deferred payload of the event, if it has not been bound yet. Called by the accessors for the payload.
+     *
+     * @since   3.3.0
+     */
+    protected final void bindPayload() {
+        if (unboundPayload != null) {
+            synchronized (this) {
+                JsonElement payload = unboundPayload;
+                if (payload != null) {
+                    bind(payload);
+                    unboundPayload = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Binds the raw payload of the event to its fields. Overridden by events with a payload bound lazily.
+     *
+     * @param   payload
+     *          Raw payload of the event
+     *
+     * @since   3.3.0
+     */
+    protected void bind(JsonElement payload) {
+        // NO-OP
+    }
 }
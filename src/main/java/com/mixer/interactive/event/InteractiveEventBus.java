@@ -0,0 +1,162 @@
+package com.mixer.interactive.event;
+
+import com.google.common.eventbus.DeadEvent;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import com.google.common.reflect.TypeToken;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>An <code>EventBus</code> that keeps track of the types of events its registered objects subscribe to, so that the
+ * <code>GameClient</code> can skip decoding events that nobody would receive.</p>
+ *
+ * <p>An object is counted as subscribed to the parameter types of its <code>@Subscribe</code> methods, found the same
+ * way <code>EventBus</code> finds them: among the public methods of its class, superclasses and interfaces. Whether a
+ * type of event has subscribers is remembered until an object is registered or unregistered. Objects implementing
+ * {@link IEventInterest} are instead asked whether they are interested each time.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class InteractiveEventBus extends EventBus {
+
+    /**
+     * Number of registered objects subscribed to each type of event
+     */
+    private final Map<Class<?>, Integer> subscribedTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Registered objects answering for their own interest in events
+     */
+    private final List<IEventInterest> interests = new CopyOnWriteArrayList<>();
+
+    /**
+     * Whether each type of event has subscribers among the registered objects not answering for their own interest,
+     * replaced whenever an object is registered or unregistered
+     */
+    private volatile Map<Class<?>, Boolean> subscribedEventTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes a new <code>InteractiveEventBus</code>.
+     *
+     * @param   identifier
+     *          Identifier for the bus, used when logging
+     *
+     * @since   3.3.0
+     */
+    public InteractiveEventBus(String identifier) {
+        super(identifier);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void register(Object object) {
+        super.register(object);
+        if (object instanceof IEventInterest) {
+            interests.add((IEventInterest) object);
+        }
+        else {
+            for (Class<?> type : getSubscribedTypes(object.getClass())) {
+                subscribedTypes.merge(type, 1, Integer::sum);
+            }
+            subscribedEventTypes = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void unregister(Object object) {
+        super.unregister(object);
+        if (object instanceof IEventInterest) {
+            interests.remove(object);
+        }
+        else {
+            for (Class<?> type : getSubscribedTypes(object.getClass())) {
+                subscribedTypes.computeIfPresent(type, (key, count) -> count > 1 ? count - 1 : null);
+            }
+            subscribedEventTypes = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Returns whether an event of the provided type would currently be received by a registered object. An object
+     * subscribed to <code>DeadEvent</code> receives every event nobody else does, so is interested in all of them.
+     *
+     * @param   eventType
+     *          Type of event
+     *
+     * @return  <code>true</code> if an event of the provided type would be received, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean hasSubscribers(Class<?> eventType) {
+        if (subscribedEventTypes.computeIfAbsent(eventType, this::isSubscribed)) {
+            return true;
+        }
+        for (IEventInterest interest : interests) {
+            if (interest.isInterestedIn(eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a registered object not answering for its own interest is subscribed to a type of event or one of
+     * its supertypes.
+     *
+     * @param   eventType
+     *          Type of event
+     *
+     * @return  <code>true</code> if an event of the provided type would be received, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private boolean isSubscribed(Class<?> eventType) {
+        for (Class<?> type : subscribedTypes.keySet()) {
+            if (type.isAssignableFrom(eventType) || type == DeadEvent.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the parameter types of the <code>@Subscribe</code> methods of a class, looked up in the public methods of
+     * the class and all of its supertypes, as <code>EventBus</code> does.
+     *
+     * @param   type
+     *          Class of a registered object
+     *
+     * @return  The types of events the class subscribes to
+     *
+     * @since   3.3.0
+     */
+    private static Set<Class<?>> getSubscribedTypes(Class<?> type) {
+        Set<Class<?>> subscribed = new HashSet<>();
+        for (Class<?> supertype : TypeToken.of(type).getTypes().rawTypes()) {
+            for (Method method : supertype.getMethods()) {
+                if (method.isAnnotationPresent(Subscribe.class) && method.getParameterTypes().length == 1) {
+                    subscribed.add(method.getParameterTypes()[0]);
+                }
+            }
+        }
+        return subscribed;
+    }
+}
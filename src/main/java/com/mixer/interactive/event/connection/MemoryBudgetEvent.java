@@ -0,0 +1,89 @@
+package com.mixer.interactive.event.connection;
+
+import java.net.URI;
+
+/**
+ * Interactive event posted when the memory the Interactive integration is estimated to use on the Interactive service
+ * comes near its budget, and again when it falls back below. It is posted before the Interactive service sends a
+ * memory warning, leaving time to hold back or trim.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.memory.MemoryAccountant
+ *
+ * @since       3.3.0
+ */
+public class MemoryBudgetEvent extends ConnectionEvent {
+
+    /**
+     * Whether the estimated usage is near the budget
+     */
+    private final boolean nearBudget;
+
+    /**
+     * Estimated number of bytes used when the event was posted
+     */
+    private final long estimatedBytes;
+
+    /**
+     * Number of bytes the Interactive integration is budgeted to use
+     */
+    private final long budgetBytes;
+
+    /**
+     * Initializes a new <code>MemoryBudgetEvent</code>.
+     *
+     * @param   projectVersionID
+     *          The project version ID for the Interactive integration
+     * @param   interactiveHostURI
+     *          <code>URI</code> for the connected Interactive service host
+     * @param   nearBudget
+     *          Whether the estimated usage is near the budget
+     * @param   estimatedBytes
+     *          Estimated number of bytes used when the event was posted
+     * @param   budgetBytes
+     *          Number of bytes the Interactive integration is budgeted to use
+     *
+     * @since   3.3.0
+     */
+    public MemoryBudgetEvent(Number projectVersionID, URI interactiveHostURI, boolean nearBudget, long estimatedBytes, long budgetBytes) {
+        super(projectVersionID, interactiveHostURI);
+        this.nearBudget = nearBudget;
+        this.estimatedBytes = estimatedBytes;
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns whether the estimated usage is near the budget.
+     *
+     * @return  <code>true</code> if the estimated usage is near the budget, <code>false</code> if it has fallen back
+     *          below
+     *
+     * @since   3.3.0
+     */
+    public boolean isNearBudget() {
+        return nearBudget;
+    }
+
+    /**
+     * Returns the estimated number of bytes used when the event was posted.
+     *
+     * @return  The estimated number of bytes used
+     *
+     * @since   3.3.0
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the number of bytes the Interactive integration is budgeted to use.
+     *
+     * @return  The budget, in bytes
+     *
+     * @since   3.3.0
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+}
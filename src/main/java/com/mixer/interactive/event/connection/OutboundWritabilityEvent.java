@@ -0,0 +1,69 @@
+package com.mixer.interactive.event.connection;
+
+import java.net.URI;
+
+/**
+ * Interactive event posted when the outbound buffer stops being writable, because the bytes waiting to be written
+ * reached its high watermark, and again when it becomes writable, once they have drained to its low watermark.
+ * Senders that can hold back work should do so while the buffer is not writable.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.ws.OutboundBuffer
+ *
+ * @since       3.3.0
+ */
+public class OutboundWritabilityEvent extends ConnectionEvent {
+
+    /**
+     * Whether the outbound buffer is writable
+     */
+    private final boolean writable;
+
+    /**
+     * Number of bytes waiting to be written when the writability changed
+     */
+    private final long pendingBytes;
+
+    /**
+     * Initializes a new <code>OutboundWritabilityEvent</code>.
+     *
+     * @param   projectVersionID
+     *          The project version ID for the Interactive integration
+     * @param   interactiveHostURI
+     *          <code>URI</code> for the connected Interactive service host
+     * @param   writable
+     *          Whether the outbound buffer is writable
+     * @param   pendingBytes
+     *          Number of bytes waiting to be written when the writability changed
+     *
+     * @since   3.3.0
+     */
+    public OutboundWritabilityEvent(Number projectVersionID, URI interactiveHostURI, boolean writable, long pendingBytes) {
+        super(projectVersionID, interactiveHostURI);
+        this.writable = writable;
+        this.pendingBytes = pendingBytes;
+    }
+
+    /**
+     * Returns whether the outbound buffer is writable.
+     *
+     * @return  <code>true</code> if the outbound buffer is writable, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Returns the number of bytes waiting to be written when the writability changed.
+     *
+     * @return  The number of bytes waiting to be written when the writability changed
+     *
+     * @since   3.3.0
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mixer.interactive.event.connection;
+
+import java.net.URI;
+
+/**
+ * Interactive event posted when packets from the Interactive service were never received, as detected from a run of
+ * missing sequence numbers. The events those packets carried were missed, so any state kept in step with the
+ * Interactive service through events (scenes, groups, controls or participants) should be retrieved again.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.ws.PacketSequencer
+ *
+ * @since       3.3.0
+ */
+public class SequenceGapEvent extends ConnectionEvent {
+
+    /**
+     * First sequence number that was never received
+     */
+    private final int firstMissing;
+
+    /**
+     * Last sequence number that was never received
+     */
+    private final int lastMissing;
+
+    /**
+     * Initializes a new <code>SequenceGapEvent</code>.
+     *
+     * @param   projectVersionID
+     *          The project version ID for the Interactive integration
+     * @param   interactiveHostURI
+     *          <code>URI</code> for the connected Interactive service host
+     * @param   firstMissing
+     *          First sequence number that was never received
+     * @param   lastMissing
+     *          Last sequence number that was never received
+     *
+     * @since   3.3.0
+     */
+    public SequenceGapEvent(Number projectVersionID, URI interactiveHostURI, int firstMissing, int lastMissing) {
+        super(projectVersionID, interactiveHostURI);
+        this.firstMissing = firstMissing;
+        this.lastMissing = lastMissing;
+    }
+
+    /**
+     * Returns the first sequence number that was never received.
+     *
+     * @return  The first sequence number that was never received
+     *
+     * @since   3.3.0
+     */
+    public int getFirstMissing() {
+        return firstMissing;
+    }
+
+    /**
+     * Returns the last sequence number that was never received.
+     *
+     * @return  The last sequence number that was never received
+     *
+     * @since   3.3.0
+     */
+    public int getLastMissing() {
+        return lastMissing;
+    }
+}
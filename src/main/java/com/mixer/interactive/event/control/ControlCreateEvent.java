@@ -1,9 +1,14 @@
 package com.mixer.interactive.event.control;
 
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.control.InteractiveControl;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -13,12 +18,18 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class ControlCreateEvent extends ControlEvent {
 
+    /**
+     * Type of the payload of the event
+     */
+    private static final Type PAYLOAD_TYPE = new TypeToken<Set<InteractiveControl>>(){}.getType();
+
     /**
      * The <code>Set</code> of <code>InteractiveControls</code> included in the event.
      */
-    private final Set<InteractiveControl> controls = new HashSet<>();
+    private final Set<InteractiveControl> controls = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>ControlCreateEvent</code>.
@@ -31,9 +42,12 @@ public class ControlCreateEvent extends ControlEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public ControlCreateEvent(String sceneID, Collection<InteractiveControl> controls) {
         super(sceneID);
-        this.controls.addAll(controls);
+        if (controls != null) {
+            this.controls.addAll(controls);
+        }
     }
 
     /**
@@ -44,6 +58,20 @@ public class ControlCreateEvent extends ControlEvent {
      * @since   2.0.0
      */
     public Set<InteractiveControl> getControls() {
+        bindPayload();
         return controls;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void bind(JsonElement payload) {
+        Set<InteractiveControl> bound = GameClient.GSON.fromJson(payload, PAYLOAD_TYPE);
+        if (bound != null) {
+            controls.addAll(bound);
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.mixer.interactive.event.control;
 
 import com.mixer.interactive.event.InteractiveEvent;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+import com.mixer.interactive.gson.Interned;
 
 /**
  * The class <code>ParticipantEvent</code> is the superclass of all classes relating to controls sent by the Interactive
@@ -10,11 +12,13 @@ import com.mixer.interactive.event.InteractiveEvent;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class ControlEvent extends InteractiveEvent {
 
     /**
      * Identifier for the <code>InteractiveScene</code> containing the <code>InteractiveControls</code>
      */
+    @Interned
     private final String sceneID;
 
     /**
@@ -25,6 +29,7 @@ public class ControlEvent extends InteractiveEvent {
      *
      * @since   2.0.0
      */
+    @GenerateTypeAdapter.Creator
     public ControlEvent(String sceneID) {
         this.sceneID = sceneID;
     }
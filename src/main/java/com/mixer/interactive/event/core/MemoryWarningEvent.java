@@ -1,9 +1,10 @@
 package com.mixer.interactive.event.core;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.core.InteractiveResourceMemoryStatistic;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -15,6 +16,7 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class MemoryWarningEvent extends InteractiveCoreEvent {
 
     /**
@@ -30,7 +32,7 @@ public class MemoryWarningEvent extends InteractiveCoreEvent {
     /**
      * A <code>Set</code> of <code>InteractiveResourceMemoryStatistics</code>
      */
-    private final Set<InteractiveResourceMemoryStatistic> resourceMemoryStatistics = new HashSet<>();
+    private final Set<InteractiveResourceMemoryStatistic> resourceMemoryStatistics = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>MemoryWarningEvent</code>.
@@ -44,6 +46,7 @@ public class MemoryWarningEvent extends InteractiveCoreEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public MemoryWarningEvent(int usedBytes, int totalBytes, Collection<InteractiveResourceMemoryStatistic> resourceMemoryStatistics) {
         this.usedBytes = usedBytes;
         this.totalBytes = totalBytes;
@@ -1,5 +1,7 @@
 package com.mixer.interactive.event.core;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+
 /**
  * Interactive event posted by the Interactive service when the "ready" state changes.
  *
@@ -7,11 +9,13 @@ package com.mixer.interactive.event.core;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class ReadyEvent extends InteractiveCoreEvent {
 
     /**
      * <code>true</code> if Interactive integration is ready for interaction, <code>false</code> otherwise
      */
+    @GenerateTypeAdapter.Accessors(getter = "getReadyState")
     private final Boolean isReady;
 
     /**
@@ -22,6 +26,7 @@ public class ReadyEvent extends InteractiveCoreEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public ReadyEvent(Boolean isReady) {
         this.isReady = isReady;
     }
@@ -36,4 +41,16 @@ public class ReadyEvent extends InteractiveCoreEvent {
     public boolean isReady() {
         return isReady;
     }
+
+    /**
+     * Returns the ready state as it was received, which is <code>null</code> if the Interactive service did not send
+     * one. Used by the generated type adapter to write the event.
+     *
+     * @return  The ready state as it was received
+     *
+     * @since   3.3.0
+     */
+    Boolean getReadyState() {
+        return isReady;
+    }
 }
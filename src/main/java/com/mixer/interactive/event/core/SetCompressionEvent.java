@@ -1,5 +1,7 @@
 package com.mixer.interactive.event.core;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -11,11 +13,13 @@ import java.util.List;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class SetCompressionEvent extends InteractiveCoreEvent {
 
     /**
      * A <code>Set</code> of <code>Strings</code> representing compression schemes
      */
+    @GenerateTypeAdapter.Accessors(getter = "getCompressionSchemes")
     private final List<String> scheme = new ArrayList<>();
 
     /**
@@ -26,6 +30,7 @@ public class SetCompressionEvent extends InteractiveCoreEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public SetCompressionEvent(Collection<String> scheme) {
         if (scheme != null) {
             this.scheme.addAll(scheme);
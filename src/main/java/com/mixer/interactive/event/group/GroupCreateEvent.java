@@ -1,9 +1,14 @@
 package com.mixer.interactive.event.group;
 
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.group.InteractiveGroup;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -13,12 +18,18 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class GroupCreateEvent extends GroupEvent {
 
+    /**
+     * Type of the payload of the event
+     */
+    private static final Type PAYLOAD_TYPE = new TypeToken<Set<InteractiveGroup>>(){}.getType();
+
     /**
      * A <code>Set</code> of <code>InteractiveGroups</code> that have been created
      */
-    private final Set<InteractiveGroup> groups = new HashSet<>();
+    private final Set<InteractiveGroup> groups = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>GroupCreateEvent</code>.
@@ -28,6 +39,7 @@ public class GroupCreateEvent extends GroupEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public GroupCreateEvent(Collection<InteractiveGroup> groups) {
         if (groups != null) {
             this.groups.addAll(groups);
@@ -42,6 +54,20 @@ public class GroupCreateEvent extends GroupEvent {
      * @since   1.0.0
      */
     public Set<InteractiveGroup> getGroups() {
+        bindPayload();
         return groups;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void bind(JsonElement payload) {
+        Set<InteractiveGroup> bound = GameClient.GSON.fromJson(payload, PAYLOAD_TYPE);
+        if (bound != null) {
+            groups.addAll(bound);
+        }
+    }
 }
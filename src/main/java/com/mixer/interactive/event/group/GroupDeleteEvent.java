@@ -1,5 +1,8 @@
 package com.mixer.interactive.event.group;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+import com.mixer.interactive.gson.Interned;
+
 /**
  * Interactive event posted by the Interactive service when a group has been deleted.
  *
@@ -7,11 +10,13 @@ package com.mixer.interactive.event.group;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class GroupDeleteEvent extends GroupEvent {
 
     /**
      * The identifier for the <code>InteractiveGroup</code> that has been deleted
      */
+    @Interned
     private final String groupID;
 
     /**
@@ -31,6 +36,7 @@ public class GroupDeleteEvent extends GroupEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public GroupDeleteEvent(String groupID, String reassignGroupID) {
         this.groupID = groupID;
         this.reassignGroupID = reassignGroupID;
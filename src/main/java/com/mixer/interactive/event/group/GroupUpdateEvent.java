@@ -1,9 +1,14 @@
 package com.mixer.interactive.event.group;
 
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.group.InteractiveGroup;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -15,12 +20,18 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class GroupUpdateEvent extends GroupEvent {
 
+    /**
+     * Type of the payload of the event
+     */
+    private static final Type PAYLOAD_TYPE = new TypeToken<Set<InteractiveGroup>>(){}.getType();
+
     /**
      * A <code>Set</code> of <code>InteractiveGroups</code> that have been updated
      */
-    private final Set<InteractiveGroup> groups = new HashSet<>();
+    private final Set<InteractiveGroup> groups = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>GroupUpdateEvent</code>.
@@ -30,6 +41,7 @@ public class GroupUpdateEvent extends GroupEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public GroupUpdateEvent(Collection<InteractiveGroup> groups) {
         if (groups != null) {
             this.groups.addAll(groups);
@@ -44,6 +56,20 @@ public class GroupUpdateEvent extends GroupEvent {
      * @since   1.0.0
      */
     public Set<InteractiveGroup> getGroups() {
+        bindPayload();
         return groups;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void bind(JsonElement payload) {
+        Set<InteractiveGroup> bound = GameClient.GSON.fromJson(payload, PAYLOAD_TYPE);
+        if (bound != null) {
+            groups.addAll(bound);
+        }
+    }
 }
@@ -1,10 +1,15 @@
 package com.mixer.interactive.event.participant;
 
 import com.mixer.interactive.event.InteractiveEvent;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.participant.InteractiveParticipant;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -15,12 +20,18 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class ParticipantEvent extends InteractiveEvent {
 
+    /**
+     * Type of the payload of the event
+     */
+    private static final Type PAYLOAD_TYPE = new TypeToken<Set<InteractiveParticipant>>(){}.getType();
+
     /**
      * The <code>Set</code> of <code>InteractiveParticipants</code> included in the event.
      */
-    private final Set<InteractiveParticipant> participants = new HashSet<>();
+    private final Set<InteractiveParticipant> participants = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>ParticipantEvent</code>.
@@ -30,6 +41,7 @@ public class ParticipantEvent extends InteractiveEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     ParticipantEvent(Collection<InteractiveParticipant> participants) {
         if (participants != null) {
             this.participants.addAll(participants);
@@ -44,6 +56,20 @@ public class ParticipantEvent extends InteractiveEvent {
      * @since   1.0.0
      */
     public Set<InteractiveParticipant> getParticipants() {
+        bindPayload();
         return participants;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void bind(JsonElement payload) {
+        Set<InteractiveParticipant> bound = GameClient.GSON.fromJson(payload, PAYLOAD_TYPE);
+        if (bound != null) {
+            participants.addAll(bound);
+        }
+    }
 }
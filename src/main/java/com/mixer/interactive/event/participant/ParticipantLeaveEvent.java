@@ -1,5 +1,6 @@
 package com.mixer.interactive.event.participant;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.participant.InteractiveParticipant;
 
 import java.util.Collection;
@@ -12,6 +13,7 @@ import java.util.Collection;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class ParticipantLeaveEvent extends ParticipantEvent {
 
     /**
@@ -23,6 +25,7 @@ public class ParticipantLeaveEvent extends ParticipantEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public ParticipantLeaveEvent(Collection<InteractiveParticipant> participants) {
         super(participants);
     }
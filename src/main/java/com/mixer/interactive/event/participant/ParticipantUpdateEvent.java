@@ -1,5 +1,6 @@
 package com.mixer.interactive.event.participant;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.participant.InteractiveParticipant;
 
 import java.util.Collection;
@@ -12,6 +13,7 @@ import java.util.Collection;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class ParticipantUpdateEvent extends ParticipantEvent {
 
     /**
@@ -22,6 +24,7 @@ public class ParticipantUpdateEvent extends ParticipantEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public ParticipantUpdateEvent(Collection<InteractiveParticipant> participants) {
         super(participants);
     }
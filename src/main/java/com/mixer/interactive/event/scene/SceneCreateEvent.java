@@ -1,9 +1,14 @@
 package com.mixer.interactive.event.scene;
 
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.scene.InteractiveScene;
 
+import java.lang.reflect.Type;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -13,12 +18,18 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class SceneCreateEvent extends SceneEvent {
 
+    /**
+     * Type of the payload of the event
+     */
+    private static final Type PAYLOAD_TYPE = new TypeToken<Set<InteractiveScene>>(){}.getType();
+
     /**
      * A <code>Set</code> of <code>InteractiveScene</code> that have been created
      */
-    private final Set<InteractiveScene> scenes = new HashSet<>();
+    private final Set<InteractiveScene> scenes = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>SceneCreateEvent</code>.
@@ -28,6 +39,7 @@ public class SceneCreateEvent extends SceneEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public SceneCreateEvent(Collection<InteractiveScene> scenes) {
         if (scenes != null) {
             this.scenes.addAll(scenes);
@@ -42,6 +54,20 @@ public class SceneCreateEvent extends SceneEvent {
      * @since   1.0.0
      */
     public Set<InteractiveScene> getScenes() {
+        bindPayload();
         return scenes;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void bind(JsonElement payload) {
+        Set<InteractiveScene> bound = GameClient.GSON.fromJson(payload, PAYLOAD_TYPE);
+        if (bound != null) {
+            scenes.addAll(bound);
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package com.mixer.interactive.event.scene;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+import com.mixer.interactive.gson.Interned;
+
 /**
  * Interactive event posted by the Interactive service when a scene has been deleted.
  *
@@ -7,11 +10,13 @@ package com.mixer.interactive.event.scene;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class SceneDeleteEvent extends SceneEvent {
 
     /**
      * The identifier for the <code>InteractiveScene</code> that has been deleted
      */
+    @Interned
     private final String sceneID;
 
     /**
@@ -31,6 +36,7 @@ public class SceneDeleteEvent extends SceneEvent {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public SceneDeleteEvent(String sceneID, String reassignSceneID) {
         this.sceneID = sceneID;
         this.reassignSceneID = reassignSceneID;
@@ -0,0 +1,30 @@
+package com.mixer.interactive.event.stream;
+
+/**
+ * What is done with an event published to a subscriber whose buffer is full, because it has not requested events as
+ * fast as they are published. Publishing never waits on a subscriber, so that a slow subscriber cannot hold up the
+ * thread events are received on.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         EventPublisher
+ *
+ * @since       3.3.0
+ */
+public enum EventOverflowStrategy {
+
+    /**
+     * The oldest buffered event is discarded to make room, so the subscriber sees the most recent events
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new event is discarded, so the subscriber sees the events it fell behind on
+     */
+    DROP_LATEST,
+
+    /**
+     * The subscription fails with an <code>IllegalStateException</code> and its buffered events are discarded
+     */
+    ERROR
+}
@@ -0,0 +1,475 @@
+package com.mixer.interactive.event.stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An <code>IEventPublisher</code> that buffers events for each subscriber and delivers them on an executor as they
+ * are requested.</p>
+ *
+ * <p>Publishing an event only adds it to the buffer of each subscriber, so it never waits on a subscriber. Each
+ * subscriber has a buffer of a bounded number of events, and an {@link EventOverflowStrategy} deciding what happens
+ * when it fills up. Deliveries to a subscriber are serialized, and hand the executor back after a batch of events so
+ * that a subscriber with a large demand does not hold on to a thread of it.</p>
+ *
+ * @param   <T>
+ *          Type of the events published
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         EventStreams
+ *
+ * @since       3.3.0
+ */
+public class EventPublisher<T> implements IEventPublisher<T> {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default number of events buffered for a subscriber
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    /**
+     * Maximum number of events delivered to a subscriber before the executor is handed back
+     */
+    private static final int MAX_BATCH = 64;
+
+    /**
+     * Name of the publisher, used when logging
+     */
+    private final String name;
+
+    /**
+     * Executor events are delivered on
+     */
+    private final Executor executor;
+
+    /**
+     * Subscriptions of the current subscribers
+     */
+    private final List<BufferedSubscription<T>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Whether the publisher has been closed
+     */
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new <code>EventPublisher</code>.
+     *
+     * @param   name
+     *          Name of the publisher, used when logging
+     * @param   executor
+     *          Executor events are delivered on
+     *
+     * @since   3.3.0
+     */
+    public EventPublisher(String name, Executor executor) {
+        if (executor == null) {
+            LOG.fatal("Executor cannot be null");
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.name = name;
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The subscriber has a buffer of {@link #DEFAULT_BUFFER_SIZE} events, and the oldest events are dropped when it
+     * fills up.</p>
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void subscribe(IEventSubscriber<? super T> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_SIZE, EventOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Adds a subscriber with the provided buffer size and overflow strategy.
+     *
+     * @param   subscriber
+     *          The subscriber to add
+     * @param   bufferSize
+     *          Number of events buffered for the subscriber
+     * @param   overflowStrategy
+     *          What is done with an event published when the buffer of the subscriber is full
+     *
+     * @since   3.3.0
+     */
+    public void subscribe(IEventSubscriber<? super T> subscriber, int bufferSize, EventOverflowStrategy overflowStrategy) {
+        if (subscriber == null || overflowStrategy == null || bufferSize < 1) {
+            LOG.fatal("A subscriber, an overflow strategy and a positive buffer size are required");
+            throw new IllegalArgumentException("A subscriber, an overflow strategy and a positive buffer size are required");
+        }
+
+        BufferedSubscription<T> subscription = new BufferedSubscription<>(this, subscriber, bufferSize, overflowStrategy);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+        subscription.signal();
+    }
+
+    /**
+     * Publishes an event to every subscriber.
+     *
+     * @param   event
+     *          The event to publish
+     *
+     * @since   3.3.0
+     */
+    public void publish(T event) {
+        if (event == null || closed) {
+            return;
+        }
+        for (BufferedSubscription<T> subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Closes the publisher. Every subscriber is completed once it has been delivered the events buffered for it, and
+     * subscribers added later are completed straight away.
+     *
+     * @since   3.3.0
+     */
+    public void close() {
+        closed = true;
+        for (BufferedSubscription<T> subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Returns the number of current subscribers.
+     *
+     * @return  The number of current subscribers
+     *
+     * @since   3.3.0
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Returns the number of events dropped because the buffers of subscribers were full.
+     *
+     * @return  The number of events dropped across the current subscribers
+     *
+     * @since   3.3.0
+     */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (BufferedSubscription<T> subscription : subscriptions) {
+            dropped += subscription.droppedCount.get();
+        }
+        return dropped;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "EventPublisher{" +
+                "name='" + name + '\'' +
+                ", subscribers=" + subscriptions.size() +
+                ", closed=" + closed +
+                '}';
+    }
+
+    /**
+     * The subscription of one subscriber, buffering the events published to it until they are requested.
+     *
+     * @param   <T>
+     *          Type of the events published
+     *
+     * @since   3.3.0
+     */
+    private static final class BufferedSubscription<T> implements IEventSubscription, Runnable {
+
+        /**
+         * The publisher subscribed to
+         */
+        private final EventPublisher<T> publisher;
+
+        /**
+         * The subscriber
+         */
+        private final IEventSubscriber<? super T> subscriber;
+
+        /**
+         * Events published but not yet delivered, guarded by this subscription
+         */
+        private final ArrayDeque<T> buffer;
+
+        /**
+         * Number of events buffered for the subscriber
+         */
+        private final int bufferSize;
+
+        /**
+         * What is done with an event published when the buffer is full
+         */
+        private final EventOverflowStrategy overflowStrategy;
+
+        /**
+         * Number of events requested but not yet delivered
+         */
+        private final AtomicLong demand = new AtomicLong();
+
+        /**
+         * Number of events dropped because the buffer was full
+         */
+        private final AtomicLong droppedCount = new AtomicLong();
+
+        /**
+         * Number of signals not yet handled by a delivery run, which is non-zero while one is scheduled or running
+         */
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+
+        /**
+         * Whether {@link IEventSubscriber#onSubscribe(IEventSubscription)} has been called, only accessed by delivery
+         * runs
+         */
+        private boolean subscribed;
+
+        /**
+         * Whether the subscription has been cancelled or has terminated
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Whether the subscriber is to be completed once the buffer has drained
+         */
+        private volatile boolean completing;
+
+        /**
+         * Failure to signal to the subscriber, if any
+         */
+        private volatile Throwable error;
+
+        /**
+         * Initializes a new <code>BufferedSubscription</code>.
+         *
+         * @param   publisher
+         *          The publisher subscribed to
+         * @param   subscriber
+         *          The subscriber
+         * @param   bufferSize
+         *          Number of events buffered for the subscriber
+         * @param   overflowStrategy
+         *          What is done with an event published when the buffer is full
+         *
+         * @since   3.3.0
+         */
+        private BufferedSubscription(EventPublisher<T> publisher, IEventSubscriber<? super T> subscriber, int bufferSize, EventOverflowStrategy overflowStrategy) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.bufferSize = bufferSize;
+            this.overflowStrategy = overflowStrategy;
+            this.buffer = new ArrayDeque<>(Math.min(bufferSize, DEFAULT_BUFFER_SIZE));
+        }
+
+        /**
+         * Buffers a published event, applying the overflow strategy if the buffer is full.
+         *
+         * @param   event
+         *          The published event
+         *
+         * @since   3.3.0
+         */
+        private void offer(T event) {
+            synchronized (this) {
+                if (cancelled || error != null) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    droppedCount.incrementAndGet();
+                    switch (overflowStrategy) {
+                        case DROP_OLDEST:
+                            buffer.poll();
+                            break;
+                        case DROP_LATEST:
+                            return;
+                        default:
+                            buffer.clear();
+                            error = new IllegalStateException(String.format("Subscriber to %s fell more than %d events behind", publisher.name, bufferSize));
+                            break;
+                    }
+                }
+                if (error == null) {
+                    buffer.add(event);
+                }
+            }
+            signal();
+        }
+
+        /**
+         * Completes the subscriber once the buffer has drained.
+         *
+         * @since   3.3.0
+         */
+        private void complete() {
+            completing = true;
+            signal();
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since   3.3.0
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Number of events requested must be positive, was " + n);
+            }
+            else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since   3.3.0
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                buffer.clear();
+            }
+            publisher.subscriptions.remove(this);
+        }
+
+        /**
+         * Schedules a delivery run, unless one is already scheduled or running, in which case it picks up the signal.
+         *
+         * @since   3.3.0
+         */
+        private void signal() {
+            if (pendingSignals.getAndIncrement() == 0) {
+                try {
+                    publisher.executor.execute(this);
+                }
+                catch (RejectedExecutionException e) {
+                    LOG.warn(String.format("Executor rejected delivery of events from %s", publisher.name), e);
+                    pendingSignals.set(0);
+                }
+            }
+        }
+
+        /**
+         * Delivers requested events and terminal signals to the subscriber.
+         *
+         * @since   3.3.0
+         */
+        @Override
+        public void run() {
+            int missed = pendingSignals.get();
+            int delivered = 0;
+            while (true) {
+                if (!subscribed) {
+                    subscribed = true;
+                    try {
+                        subscriber.onSubscribe(this);
+                    }
+                    catch (Throwable t) {
+                        fail(t);
+                    }
+                }
+
+                while (!cancelled && error == null && demand.get() > 0) {
+                    if (delivered == MAX_BATCH) {
+                        // Hand the executor back, picking up where this run left off in a new one
+                        try {
+                            publisher.executor.execute(this);
+                        }
+                        catch (RejectedExecutionException e) {
+                            LOG.warn(String.format("Executor rejected delivery of events from %s", publisher.name), e);
+                            pendingSignals.set(0);
+                        }
+                        return;
+                    }
+                    T event;
+                    synchronized (this) {
+                        event = buffer.poll();
+                    }
+                    if (event == null) {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    delivered++;
+                    try {
+                        subscriber.onNext(event);
+                    }
+                    catch (Throwable t) {
+                        fail(t);
+                    }
+                }
+
+                if (!cancelled) {
+                    Throwable failure = error;
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                    }
+                    else if (completing && isBufferEmpty()) {
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                }
+
+                missed = pendingSignals.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Fails the subscription after the subscriber threw.
+         *
+         * @param   throwable
+         *          What the subscriber threw
+         *
+         * @since   3.3.0
+         */
+        private void fail(Throwable throwable) {
+            LOG.error(String.format("Subscriber to %s threw, cancelling its subscription", publisher.name), throwable);
+            error = throwable;
+        }
+
+        /**
+         * Returns whether the buffer is empty.
+         *
+         * @return  <code>true</code> if no events are buffered, <code>false</code> otherwise
+         *
+         * @since   3.3.0
+         */
+        private synchronized boolean isBufferEmpty() {
+            return buffer.isEmpty();
+        }
+    }
+}
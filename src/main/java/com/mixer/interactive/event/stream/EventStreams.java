@@ -0,0 +1,233 @@
+package com.mixer.interactive.event.stream;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.mixer.interactive.event.IEventInterest;
+import com.mixer.interactive.event.InteractiveEvent;
+import com.mixer.interactive.event.control.ControlEvent;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.core.InteractiveCoreEvent;
+import com.mixer.interactive.event.group.GroupEvent;
+import com.mixer.interactive.event.participant.ParticipantEvent;
+import com.mixer.interactive.event.scene.SceneEvent;
+
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Streams of the events posted to the <code>EventBus</code> of a <code>GameClient</code>, one per family of
+ * events, each delivering events to its subscribers only as fast as they request them. Unlike handlers registered with
+ * the <code>EventBus</code>, which run on the thread the event is posted from, a slow subscriber to a stream falls
+ * behind on its own without holding up the websocket read thread or the other subscribers.</p>
+ *
+ * <p>A family of events is only of interest while its stream has subscribers, so events nobody subscribes to are not
+ * decoded on their account.</p>
+ *
+ * <pre>
+ *     gameClient.getEventStreams().getInputEvents().subscribe(analytics, 1024, EventOverflowStrategy.DROP_OLDEST);
+ * </pre>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         EventPublisher
+ *
+ * @since       3.3.0
+ */
+public class EventStreams implements IEventInterest {
+
+    /**
+     * Stream of control input events
+     */
+    private final EventPublisher<ControlInputEvent> inputEvents;
+
+    /**
+     * Stream of participant join, update and leave events
+     */
+    private final EventPublisher<ParticipantEvent> participantEvents;
+
+    /**
+     * Stream of scene, group and control create, update and delete events
+     */
+    private final EventPublisher<InteractiveEvent> stateEvents;
+
+    /**
+     * Stream of core protocol events
+     */
+    private final EventPublisher<InteractiveCoreEvent> coreEvents;
+
+    /**
+     * Initializes a new <code>EventStreams</code>.
+     *
+     * @param   executor
+     *          Executor events are delivered to subscribers on
+     *
+     * @since   3.3.0
+     */
+    public EventStreams(Executor executor) {
+        inputEvents = new EventPublisher<>("input events", executor);
+        participantEvents = new EventPublisher<>("participant events", executor);
+        stateEvents = new EventPublisher<>("state events", executor);
+        coreEvents = new EventPublisher<>("core events", executor);
+    }
+
+    /**
+     * Returns the stream of control input events, such as button presses and joystick moves.
+     *
+     * @return  The stream of <code>ControlInputEvents</code>
+     *
+     * @since   3.3.0
+     */
+    public EventPublisher<ControlInputEvent> getInputEvents() {
+        return inputEvents;
+    }
+
+    /**
+     * Returns the stream of participant join, update and leave events.
+     *
+     * @return  The stream of <code>ParticipantEvents</code>
+     *
+     * @since   3.3.0
+     */
+    public EventPublisher<ParticipantEvent> getParticipantEvents() {
+        return participantEvents;
+    }
+
+    /**
+     * Returns the stream of scene, group and control create, update and delete events.
+     *
+     * @return  The stream of <code>SceneEvents</code>, <code>GroupEvents</code> and <code>ControlEvents</code>
+     *
+     * @since   3.3.0
+     */
+    public EventPublisher<InteractiveEvent> getStateEvents() {
+        return stateEvents;
+    }
+
+    /**
+     * Returns the stream of core protocol events, such as hello, memory warning and set compression events.
+     *
+     * @return  The stream of <code>InteractiveCoreEvents</code>
+     *
+     * @since   3.3.0
+     */
+    public EventPublisher<InteractiveCoreEvent> getCoreEvents() {
+        return coreEvents;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        if (ControlInputEvent.class.isAssignableFrom(eventType)) {
+            return inputEvents.getSubscriberCount() > 0;
+        }
+        if (ParticipantEvent.class.isAssignableFrom(eventType)) {
+            return participantEvents.getSubscriberCount() > 0;
+        }
+        if (SceneEvent.class.isAssignableFrom(eventType) || GroupEvent.class.isAssignableFrom(eventType) || ControlEvent.class.isAssignableFrom(eventType)) {
+            return stateEvents.getSubscriberCount() > 0;
+        }
+        if (InteractiveCoreEvent.class.isAssignableFrom(eventType)) {
+            return coreEvents.getSubscriberCount() > 0;
+        }
+        return false;
+    }
+
+    /**
+     * Closes every stream, completing their subscribers once they have been delivered the events buffered for them.
+     *
+     * @since   3.3.0
+     */
+    public void close() {
+        inputEvents.close();
+        participantEvents.close();
+        stateEvents.close();
+        coreEvents.close();
+    }
+
+    /**
+     * Publishes a control input event.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onControlInputEvent(ControlInputEvent event) {
+        inputEvents.publish(event);
+    }
+
+    /**
+     * Publishes a participant event.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onParticipantEvent(ParticipantEvent event) {
+        participantEvents.publish(event);
+    }
+
+    /**
+     * Publishes a scene event.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onSceneEvent(SceneEvent event) {
+        stateEvents.publish(event);
+    }
+
+    /**
+     * Publishes a group event.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onGroupEvent(GroupEvent event) {
+        stateEvents.publish(event);
+    }
+
+    /**
+     * Publishes a control event.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onControlEvent(ControlEvent event) {
+        stateEvents.publish(event);
+    }
+
+    /**
+     * Publishes a core protocol event.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onCoreEvent(InteractiveCoreEvent event) {
+        coreEvents.publish(event);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mixer.interactive.event.stream;
+
+/**
+ * A source of events that are delivered to each subscriber only as fast as it requests them. This mirrors
+ * <code>java.util.concurrent.Flow.Publisher</code>, which is not available on the Java versions this library supports.
+ *
+ * @param   <T>
+ *          Type of the events published
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         IEventSubscriber
+ *
+ * @since       3.3.0
+ */
+@FunctionalInterface
+public interface IEventPublisher<T> {
+
+    /**
+     * Adds a subscriber. The subscriber is passed an <code>IEventSubscription</code> through
+     * {@link IEventSubscriber#onSubscribe(IEventSubscription)}, and receives no events until it requests them through
+     * that subscription.
+     *
+     * @param   subscriber
+     *          The subscriber to add
+     *
+     * @since   3.3.0
+     */
+    void subscribe(IEventSubscriber<? super T> subscriber);
+}
@@ -0,0 +1,54 @@
+package com.mixer.interactive.event.stream;
+
+/**
+ * Receives the events of an <code>IEventPublisher</code> it has requested. This mirrors
+ * <code>java.util.concurrent.Flow.Subscriber</code>. The methods of a subscriber are never called concurrently.
+ *
+ * @param   <T>
+ *          Type of the events received
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         IEventPublisher
+ *
+ * @since       3.3.0
+ */
+public interface IEventSubscriber<T> {
+
+    /**
+     * Called once, before any other method, with the subscription through which events are requested.
+     *
+     * @param   subscription
+     *          The subscription for this subscriber
+     *
+     * @since   3.3.0
+     */
+    void onSubscribe(IEventSubscription subscription);
+
+    /**
+     * Called with the next event, never more times than have been requested.
+     *
+     * @param   event
+     *          The event
+     *
+     * @since   3.3.0
+     */
+    void onNext(T event);
+
+    /**
+     * Called when the subscription fails, after which no other method is called.
+     *
+     * @param   throwable
+     *          The cause of the failure
+     *
+     * @since   3.3.0
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Called when no more events will be published, after which no other method is called.
+     *
+     * @since   3.3.0
+     */
+    void onComplete();
+}
@@ -0,0 +1,30 @@
+package com.mixer.interactive.event.stream;
+
+/**
+ * Links an <code>IEventSubscriber</code> to the <code>IEventPublisher</code> it subscribed to. This mirrors
+ * <code>java.util.concurrent.Flow.Subscription</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public interface IEventSubscription {
+
+    /**
+     * Requests more events. Requests add up, and a total of <code>Long.MAX_VALUE</code> or more is treated as no limit.
+     * A request of zero or fewer events fails the subscription with an <code>IllegalArgumentException</code>.
+     *
+     * @param   n
+     *          Number of events to add to the demand
+     *
+     * @since   3.3.0
+     */
+    void request(long n);
+
+    /**
+     * Stops the subscription. Events that have not been delivered are discarded.
+     *
+     * @since   3.3.0
+     */
+    void cancel();
+}
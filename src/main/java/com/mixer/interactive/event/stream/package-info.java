@@ -0,0 +1,9 @@
+/**
+ * Contains the classes for consuming Interactive events as streams that honour the demand of their subscribers, as an
+ * alternative to subscribing to the <code>EventBus</code> of a <code>GameClient</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.event.stream;
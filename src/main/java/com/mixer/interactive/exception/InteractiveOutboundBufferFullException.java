@@ -0,0 +1,62 @@
+package com.mixer.interactive.exception;
+
+/**
+ * Checked exception thrown when a frame is not sent to the Interactive service because the outbound buffer has no
+ * room for it.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.ws.OutboundBuffer
+ *
+ * @since       3.3.0
+ */
+public class InteractiveOutboundBufferFullException extends InteractiveException {
+
+    /**
+     * Size, in bytes, of the frame that was not sent
+     */
+    private final long frameBytes;
+
+    /**
+     * Number of bytes waiting to be written when the frame was turned away
+     */
+    private final long pendingBytes;
+
+    /**
+     * Initializes a new <code>InteractiveOutboundBufferFullException</code>.
+     *
+     * @param   frameBytes
+     *          Size, in bytes, of the frame that was not sent
+     * @param   pendingBytes
+     *          Number of bytes waiting to be written when the frame was turned away
+     *
+     * @since   3.3.0
+     */
+    public InteractiveOutboundBufferFullException(long frameBytes, long pendingBytes) {
+        super(String.format("Frame of %d bytes was not sent, as %d bytes are already waiting to be written", frameBytes, pendingBytes));
+        this.frameBytes = frameBytes;
+        this.pendingBytes = pendingBytes;
+    }
+
+    /**
+     * Returns the size, in bytes, of the frame that was not sent.
+     *
+     * @return  The size, in bytes, of the frame that was not sent
+     *
+     * @since   3.3.0
+     */
+    public long getFrameBytes() {
+        return frameBytes;
+    }
+
+    /**
+     * Returns the number of bytes waiting to be written when the frame was turned away.
+     *
+     * @return  The number of bytes waiting to be written when the frame was turned away
+     *
+     * @since   3.3.0
+     */
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+}
@@ -2,6 +2,7 @@ package com.mixer.interactive.gson;
 
 import com.google.gson.*;
 import com.mixer.interactive.event.control.ControlDeleteEvent;
+import com.mixer.interactive.util.StringInterner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -36,11 +37,11 @@ public class ControlDeleteEventAdapter implements JsonDeserializer<ControlDelete
         }
 
         JsonObject jsonObject = json.getAsJsonObject();
-        String sceneID = jsonObject.get("sceneID").getAsString();
+        String sceneID = StringInterner.IDENTIFIERS.intern(jsonObject.get("sceneID").getAsString());
         Set<String> controlIds = new HashSet<>();
         JsonArray controlsArray = jsonObject.getAsJsonArray("controls");
         for (JsonElement jsonElement : controlsArray) {
-            controlIds.add(((JsonObject) jsonElement).get("controlID").getAsString());
+            controlIds.add(StringInterner.IDENTIFIERS.intern(((JsonObject) jsonElement).get("controlID").getAsString()));
         }
 
         return new ControlDeleteEvent(sceneID, controlIds);
@@ -1,15 +1,21 @@
 package com.mixer.interactive.gson;
 
-import com.google.gson.*;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.mixer.interactive.event.control.input.*;
 import com.mixer.interactive.resources.control.InteractiveControlInput;
+import com.mixer.interactive.util.StringInterner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 /**
- * De-serializes <code>ControlInputEvents</code> into their appropriate subclasses.
+ * De-serializes <code>ControlInputEvents</code> into their appropriate subclasses, reading them directly from the
+ * stream.
  *
  * @author      Microsoft Corporation
  *
@@ -19,34 +25,55 @@ import java.lang.reflect.Type;
  *
  * @since       1.0.0
  */
-public class ControlInputEventAdapter implements JsonDeserializer<ControlInputEvent> {
+public class ControlInputEventAdapter extends TypeAdapter<ControlInputEvent> {
 
     /**
      * Logger.
      */
     private static final Logger LOG = LogManager.getLogger();
 
+    /**
+     * Adapter for the <code>InteractiveControlInput</code> of an event.
+     */
+    private final InteractiveControlInputAdapter controlInputAdapter = new InteractiveControlInputAdapter();
+
     /**
      * {@inheritDoc}
      *
-     * @since   1.0.0
+     * @since   3.3.0
      */
     @Override
-    public ControlInputEvent deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-
-        if (!json.isJsonObject()) {
+    public ControlInputEvent read(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
             LOG.fatal("Unable to parse an ControlInputEvent");
             throw new JsonParseException("Unable to parse an ControlInputEvent");
         }
 
-        JsonObject jsonObject = json.getAsJsonObject();
-
-        String participantID = jsonObject.get("participantID").getAsString();
+        String participantID = null;
         String transactionID = null;
-        if (jsonObject.has("transactionID")) {
-            transactionID = jsonObject.get("transactionID").getAsString();
+        InteractiveControlInput controlInput = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "participantID":
+                    participantID = StringInterner.SESSION_IDS.intern(nextString(in));
+                    break;
+                case "transactionID":
+                    transactionID = nextString(in);
+                    break;
+                case "input":
+                    controlInput = controlInputAdapter.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (participantID == null || controlInput == null) {
+            LOG.fatal("Unable to parse an ControlInputEvent");
+            throw new JsonParseException("Unable to parse an ControlInputEvent");
         }
-        InteractiveControlInput controlInput = context.deserialize(jsonObject.get("input"), InteractiveControlInput.class);
 
         switch (controlInput.getEvent()) {
             case "mousedown": {
@@ -68,4 +95,47 @@ public class ControlInputEventAdapter implements JsonDeserializer<ControlInputEv
                 return new ControlInputEvent(participantID, transactionID, controlInput);
         }
     }
+
+    /**
+     * Writes a <code>ControlInputEvent</code> in the form it is received from the Interactive service.
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void write(JsonWriter out, ControlInputEvent value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("participantID").value(value.getParticipantID());
+        if (value.getTransaction() != null) {
+            out.name("transactionID").value(value.getTransaction().getTransactionID());
+        }
+        out.name("input");
+        controlInputAdapter.write(out, value.getControlInput());
+        out.endObject();
+    }
+
+    /**
+     * Reads a <code>String</code> value, or <code>null</code> if the value is null.
+     *
+     * @param   in
+     *          The reader positioned at the value
+     *
+     * @return  The value as a <code>String</code>, or <code>null</code>
+     *
+     * @throws  IOException
+     *          If the value cannot be read
+     *
+     * @since   3.3.0
+     */
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
 }
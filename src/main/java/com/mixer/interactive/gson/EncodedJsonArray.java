@@ -0,0 +1,417 @@
+package com.mixer.interactive.gson;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON array whose elements have already been encoded as UTF-8, as produced by a <code>ParallelJsonEncoder</code>.
+ * The encoded elements are held in the slices they were encoded in and are never copied into one buffer; writing the
+ * array, or a range of it, copies each slice's bytes straight to the output.
+ *
+ * <p>Instances are immutable. {@link #slice(int, int)} returns a view sharing the encoded bytes, so a large array can
+ * be split into chunks without re-encoding or copying any element. The objects the elements were encoded from are kept
+ * alongside them, so that an array can be inspected through {@link #getSource(int)} without being parsed.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         ParallelJsonEncoder
+ *
+ * @since       3.3.0
+ */
+public class EncodedJsonArray {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Slices holding the encoded elements
+     */
+    private final List<Slice> slices;
+
+    /**
+     * Index of the first element of each slice, across every slice
+     */
+    private final int[] sliceOffsets;
+
+    /**
+     * Index of the first element in this array
+     */
+    private final int fromIndex;
+
+    /**
+     * Index after the last element in this array
+     */
+    private final int toIndex;
+
+    /**
+     * Number of bytes in the encoded array, including its brackets and separators
+     */
+    private final long byteLength;
+
+    /**
+     * Initializes a new <code>EncodedJsonArray</code> holding every element of the provided slices.
+     *
+     * @param   slices
+     *          Slices holding the encoded elements, in order
+     *
+     * @since   3.3.0
+     */
+    EncodedJsonArray(List<Slice> slices) {
+        this.slices = Collections.unmodifiableList(slices);
+        this.sliceOffsets = new int[slices.size()];
+        int count = 0;
+        for (int i = 0; i < slices.size(); i++) {
+            sliceOffsets[i] = count;
+            count += slices.get(i).size();
+        }
+        this.fromIndex = 0;
+        this.toIndex = count;
+        this.byteLength = computeByteLength();
+    }
+
+    /**
+     * Initializes a new <code>EncodedJsonArray</code> viewing a range of another.
+     *
+     * @param   array
+     *          The array to view
+     * @param   fromIndex
+     *          Index of the first element in the view
+     * @param   toIndex
+     *          Index after the last element in the view
+     *
+     * @since   3.3.0
+     */
+    private EncodedJsonArray(EncodedJsonArray array, int fromIndex, int toIndex) {
+        this.slices = array.slices;
+        this.sliceOffsets = array.sliceOffsets;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.byteLength = computeByteLength();
+    }
+
+    /**
+     * Returns the number of elements in the array.
+     *
+     * @return  The number of elements
+     *
+     * @since   3.3.0
+     */
+    public int size() {
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Returns the number of bytes in the encoded array, including its brackets and separators.
+     *
+     * @return  The number of bytes in the encoded array
+     *
+     * @since   3.3.0
+     */
+    public long getByteLength() {
+        return byteLength;
+    }
+
+    /**
+     * Returns the number of bytes in an encoded element.
+     *
+     * @param   index
+     *          Index of the element
+     *
+     * @return  The number of bytes in the encoded element
+     *
+     * @since   3.3.0
+     */
+    public int getElementByteLength(int index) {
+        checkIndexes(index, index + 1);
+        int sliceIndex = sliceIndexOf(fromIndex + index);
+        return slices.get(sliceIndex).getByteLength(fromIndex + index - sliceOffsets[sliceIndex]);
+    }
+
+    /**
+     * Returns the object that was encoded as an element, so the element can be inspected without parsing it.
+     *
+     * @param   index
+     *          Index of the element
+     *
+     * @return  The object encoded as the element, which may be <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    public Object getSource(int index) {
+        checkIndexes(index, index + 1);
+        int sliceIndex = sliceIndexOf(fromIndex + index);
+        return slices.get(sliceIndex).getSource(fromIndex + index - sliceOffsets[sliceIndex]);
+    }
+
+    /**
+     * Returns a view of a range of the array, sharing its encoded bytes.
+     *
+     * @param   fromIndex
+     *          Index of the first element in the view, inclusive
+     * @param   toIndex
+     *          Index after the last element in the view, exclusive
+     *
+     * @return  A view of the range
+     *
+     * @since   3.3.0
+     */
+    public EncodedJsonArray slice(int fromIndex, int toIndex) {
+        checkIndexes(fromIndex, toIndex);
+        return new EncodedJsonArray(this, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    /**
+     * Writes the encoded array, including its brackets, to an output stream.
+     *
+     * @param   out
+     *          The output stream
+     *
+     * @throws  IOException
+     *          If the output stream cannot be written to
+     *
+     * @since   3.3.0
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (int i = firstSlice(); i < slices.size() && sliceOffsets[i] < toIndex; i++) {
+            Slice slice = slices.get(i);
+            int from = Math.max(fromIndex - sliceOffsets[i], 0);
+            int to = Math.min(toIndex - sliceOffsets[i], slice.size());
+            if (from < to) {
+                if (!first) {
+                    out.write(',');
+                }
+                slice.writeTo(out, from, to);
+                first = false;
+            }
+        }
+        out.write(']');
+    }
+
+    /**
+     * Returns the encoded array as a string.
+     *
+     * @return  The encoded array
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(byteLength, Integer.MAX_VALUE));
+        try {
+            writeTo(out);
+        }
+        catch (IOException e) {
+            // Never thrown by ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Computes the number of bytes in the encoded array, including its brackets and separators.
+     *
+     * @return  The number of bytes in the encoded array
+     *
+     * @since   3.3.0
+     */
+    private long computeByteLength() {
+        long length = 2;
+        boolean first = true;
+        for (int i = firstSlice(); i < slices.size() && sliceOffsets[i] < toIndex; i++) {
+            Slice slice = slices.get(i);
+            int from = Math.max(fromIndex - sliceOffsets[i], 0);
+            int to = Math.min(toIndex - sliceOffsets[i], slice.size());
+            if (from < to) {
+                length += slice.getByteLength(from, to) + (first ? 0 : 1);
+                first = false;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the index of the first slice holding elements of this array.
+     *
+     * @return  Index of the first slice
+     *
+     * @since   3.3.0
+     */
+    private int firstSlice() {
+        return fromIndex < toIndex ? sliceIndexOf(fromIndex) : slices.size();
+    }
+
+    /**
+     * Returns the index of the slice holding an element.
+     *
+     * @param   elementIndex
+     *          Index of the element, across every slice
+     *
+     * @return  Index of the slice holding the element
+     *
+     * @since   3.3.0
+     */
+    private int sliceIndexOf(int elementIndex) {
+        int index = Arrays.binarySearch(sliceOffsets, elementIndex);
+        if (index < 0) {
+            return -index - 2;
+        }
+        // Skip empty slices starting at the same element
+        while (index + 1 < sliceOffsets.length && sliceOffsets[index + 1] == elementIndex) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Checks that a range lies within the array.
+     *
+     * @param   fromIndex
+     *          Index of the first element in the range
+     * @param   toIndex
+     *          Index after the last element in the range
+     *
+     * @since   3.3.0
+     */
+    private void checkIndexes(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            LOG.fatal("Range [{}, {}) is outside an encoded array of {} elements", fromIndex, toIndex, size());
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") is outside an encoded array of " + size() + " elements");
+        }
+    }
+
+    /**
+     * Elements encoded together, held as their comma-separated UTF-8 bytes along with the objects they were encoded
+     * from.
+     *
+     * @since   3.3.0
+     */
+    static final class Slice {
+
+        /**
+         * Encoded elements, separated by commas
+         */
+        private final byte[] bytes;
+
+        /**
+         * Object each element was encoded from
+         */
+        private final Object[] sources;
+
+        /**
+         * Offset of the first byte of each element
+         */
+        private final int[] starts;
+
+        /**
+         * Offset after the last byte of each element
+         */
+        private final int[] ends;
+
+        /**
+         * Initializes a new <code>Slice</code>.
+         *
+         * @param   bytes
+         *          Encoded elements, separated by commas
+         * @param   sources
+         *          Object each element was encoded from
+         * @param   starts
+         *          Offset of the first byte of each element
+         * @param   ends
+         *          Offset after the last byte of each element
+         *
+         * @since   3.3.0
+         */
+        Slice(byte[] bytes, Object[] sources, int[] starts, int[] ends) {
+            this.bytes = bytes;
+            this.sources = sources;
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        /**
+         * Returns the number of elements in the slice.
+         *
+         * @return  The number of elements
+         *
+         * @since   3.3.0
+         */
+        int size() {
+            return starts.length;
+        }
+
+        /**
+         * Returns the object an element was encoded from.
+         *
+         * @param   index
+         *          Index of the element in the slice
+         *
+         * @return  The object the element was encoded from
+         *
+         * @since   3.3.0
+         */
+        Object getSource(int index) {
+            return sources[index];
+        }
+
+        /**
+         * Returns the number of bytes in an encoded element.
+         *
+         * @param   index
+         *          Index of the element in the slice
+         *
+         * @return  The number of bytes in the element
+         *
+         * @since   3.3.0
+         */
+        int getByteLength(int index) {
+            return ends[index] - starts[index];
+        }
+
+        /**
+         * Returns the number of bytes in a range of encoded elements, including the commas separating them.
+         *
+         * @param   from
+         *          Index of the first element in the range
+         * @param   to
+         *          Index after the last element in the range
+         *
+         * @return  The number of bytes in the range
+         *
+         * @since   3.3.0
+         */
+        int getByteLength(int from, int to) {
+            return ends[to - 1] - starts[from];
+        }
+
+        /**
+         * Writes a range of encoded elements, including the commas separating them, to an output stream.
+         *
+         * @param   out
+         *          The output stream
+         * @param   from
+         *          Index of the first element in the range
+         * @param   to
+         *          Index after the last element in the range
+         *
+         * @throws  IOException
+         *          If the output stream cannot be written to
+         *
+         * @since   3.3.0
+         */
+        void writeTo(OutputStream out, int from, int to) throws IOException {
+            out.write(bytes, starts[from], getByteLength(from, to));
+        }
+    }
+}
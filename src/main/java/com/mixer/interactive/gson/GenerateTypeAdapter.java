@@ -0,0 +1,108 @@
+package com.mixer.interactive.gson;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Marks a class for which a streaming Gson <code>TypeAdapter</code> is generated at compile time by
+ * {@link com.mixer.interactive.gson.processor.TypeAdapterProcessor}. Generated adapters read and write fields directly
+ * on the stream instead of binding them through reflection, and are registered with <code>GameClient.GSON</code> through
+ * <code>GeneratedTypeAdapterFactory</code>.</p>
+ *
+ * <p>Serialized fields are every field that is neither <code>static</code> nor <code>transient</code>, and may keep
+ * any access modifier. A concrete annotated class is created through the constructor annotated with {@link Creator},
+ * which receives the properties read for the fields its parameters are named after, or through a no-argument
+ * constructor that is not private if it has none. Fields that are not passed to the constructor are assigned directly
+ * when they are neither private nor final, and through a setter named with {@link Accessors} otherwise. Private fields
+ * are written from a getter that is not private, named after the field (<code>getName()</code>, <code>isName()</code>
+ * or <code>name()</code>) or with {@link Accessors}, and returning its type. Generated adapters never bind fields
+ * through reflection: a field the adapter cannot reach any of these ways fails compilation. Superclasses that declare
+ * serialized fields must be annotated as well.</p>
+ *
+ * <p>An abstract class can dispatch to its subclasses on a discriminator property by setting
+ * {@link #discriminator()}. Each subclass to dispatch to sets {@link #discriminatorValue()}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.GameClient#GSON
+ *
+ * @since       3.3.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateTypeAdapter {
+
+    /**
+     * Name of the property identifying the subclass to deserialize, for abstract classes with subclasses.
+     *
+     * @return  Name of the discriminator property, or an empty <code>String</code> if the class is not polymorphic
+     *
+     * @since   3.3.0
+     */
+    String discriminator() default "";
+
+    /**
+     * Value of the discriminator property identifying this class, for subclasses of a polymorphic class.
+     *
+     * @return  Value of the discriminator property, or an empty <code>String</code> if the class is not dispatched to
+     *
+     * @since   3.3.0
+     */
+    String discriminatorValue() default "";
+
+    /**
+     * <p>Marks the constructor a generated type adapter creates instances of its class with. Each parameter must be
+     * named after a serialized field of the class or of one of its superclasses, and accept the type of that field.</p>
+     *
+     * <p>Properties that are absent or <code>null</code> are passed as <code>null</code>, or as the default value of
+     * primitive parameters, so the constructor must accept them. The constructor need not be public, and should not
+     * validate its arguments beyond what the reflective adapter would have.</p>
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    @Documented
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.CONSTRUCTOR)
+    @interface Creator {
+    }
+
+    /**
+     * Names the accessors a generated type adapter binds a private field through, when they are not named after the
+     * field. The getter must take no argument and return the type of the field. The setter must take a single argument
+     * accepting the type of the field, and is only used when the field is not passed to the creator. Neither may be
+     * private or static.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    @Documented
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.FIELD)
+    @interface Accessors {
+
+        /**
+         * Name of the method the field is written from.
+         *
+         * @return  Name of the getter, or an empty <code>String</code> to use the getter named after the field
+         *
+         * @since   3.3.0
+         */
+        String getter() default "";
+
+        /**
+         * Name of the method the field is read into.
+         *
+         * @return  Name of the setter, or an empty <code>String</code> if the field has none
+         *
+         * @since   3.3.0
+         */
+        String setter() default "";
+    }
+}
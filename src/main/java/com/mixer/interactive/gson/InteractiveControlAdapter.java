@@ -14,7 +14,11 @@ import java.lang.reflect.Type;
  * @see         JoystickControl
  *
  * @since       1.0.0
+ *
+ * @deprecated  Since 3.3.0, <code>InteractiveControls</code> are handled by the adapter generated for
+ *              {@link InteractiveControl}, created by <code>GeneratedTypeAdapterFactory</code>.
  */
+@Deprecated
 public class InteractiveControlAdapter implements JsonSerializer<InteractiveControl>, JsonDeserializer<InteractiveControl> {
 
     /**
@@ -1,50 +1,88 @@
 package com.mixer.interactive.gson;
 
-import com.google.gson.*;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.mixer.interactive.resources.control.InteractiveControlInput;
+import com.mixer.interactive.util.StringInterner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * De-serializes <code>InteractiveControlInput</code>.
+ * Serializes and de-serializes <code>InteractiveControlInput</code>, reading it directly from the stream.
  *
  * @author      Microsoft Corporation
  *
  * @since       1.0.0
  */
-public class InteractiveControlInputAdapter implements JsonDeserializer<InteractiveControlInput> {
+public class InteractiveControlInputAdapter extends TypeAdapter<InteractiveControlInput> {
 
     /**
      * Logger.
      */
     private static final Logger LOG = LogManager.getLogger();
 
+    /**
+     * Parser for the raw input parameters.
+     */
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
     /**
      * {@inheritDoc}
      *
-     * @since   1.0.0
+     * @since   3.3.0
      */
     @Override
-    public InteractiveControlInput deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-
-        if (!json.isJsonObject()) {
+    public InteractiveControlInput read(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
             LOG.fatal("Unable to parse an InteractiveControlInput");
             throw new JsonParseException("Unable to parse an InteractiveControlInput");
         }
 
-        JsonObject jsonObject = json.getAsJsonObject();
-        String controlID = jsonObject.get("controlID").getAsString();
-        String event = jsonObject.get("event").getAsString();
-
         Map<String, JsonElement> input = new HashMap<>();
-        for (Map.Entry<String, JsonElement> entry : jsonObject.entrySet()) {
-            input.put(entry.getKey(), entry.getValue());
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = StringInterner.IDENTIFIERS.intern(in.nextName());
+            input.put(name, JSON_PARSER.parse(in));
         }
+        in.endObject();
 
-        return new InteractiveControlInput(controlID, event, input);
+        JsonElement controlID = input.get("controlID");
+        JsonElement event = input.get("event");
+        if (controlID == null || event == null) {
+            LOG.fatal("Unable to parse an InteractiveControlInput");
+            throw new JsonParseException("Unable to parse an InteractiveControlInput");
+        }
+        return new InteractiveControlInput(StringInterner.IDENTIFIERS.intern(controlID.getAsString()), StringInterner.IDENTIFIERS.intern(event.getAsString()), input);
+    }
+
+    /**
+     * Writes the raw input parameters of an <code>InteractiveControlInput</code>, which include its control
+     * identifier and event.
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void write(JsonWriter out, InteractiveControlInput value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        for (Map.Entry<String, JsonElement> entry : value.getRawInput().entrySet()) {
+            out.name(entry.getKey());
+            Streams.write(entry.getValue(), out);
+        }
+        out.endObject();
     }
 }
@@ -0,0 +1,39 @@
+package com.mixer.interactive.gson;
+
+import com.google.gson.*;
+import com.mixer.interactive.protocol.InteractiveMethod;
+
+import java.lang.reflect.Type;
+
+/**
+ * Serializes/de-serializes <code>InteractiveMethod</code> from/to their method name, as used by the Interactive service
+ * (for example as the keys of throttle maps).
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveMethod
+ *
+ * @since       3.3.0
+ */
+public class InteractiveMethodAdapter implements JsonSerializer<InteractiveMethod>, JsonDeserializer<InteractiveMethod> {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public InteractiveMethod deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+        return json.isJsonPrimitive() ? InteractiveMethod.from(json.getAsString()) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public JsonElement serialize(InteractiveMethod src, Type typeOfSrc, JsonSerializationContext context) {
+        return src != null && src.toString() != null ? new JsonPrimitive(src.toString()) : JsonNull.INSTANCE;
+    }
+}
@@ -5,6 +5,7 @@ import com.google.gson.*;
 import com.mixer.interactive.resources.control.InteractiveControl;
 import com.mixer.interactive.resources.group.InteractiveGroup;
 import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.util.StringInterner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -59,7 +60,7 @@ public class InteractiveSceneAdapter implements JsonDeserializer<InteractiveScen
         JsonObject metaObject = null;
         JsonObject jsonObject = json.getAsJsonObject();
 
-        String sceneID = jsonObject.get(PARAM_KEY_SCENE_ID).getAsString();
+        String sceneID = StringInterner.IDENTIFIERS.intern(jsonObject.get(PARAM_KEY_SCENE_ID).getAsString());
 
         Set<InteractiveGroup> groupSet = context.deserialize(jsonObject.get(PARAM_KEY_GROUPS), GROUP_SET_TYPE);
         if (groupSet != null) {
@@ -0,0 +1,53 @@
+package com.mixer.interactive.gson;
+
+import com.mixer.interactive.util.StringInterner;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Marks a <code>String</code> field of a class annotated with {@link GenerateTypeAdapter} as holding an
+ * identifier. The generated adapter passes the values it reads for the field through a {@link StringInterner}, so
+ * that every decoded object naming the same identifier shares a single instance of it.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         StringInterner
+ *
+ * @since       3.3.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Interned {
+
+    /**
+     * The pool values of the field are interned in.
+     *
+     * @return  The pool values of the field are interned in
+     *
+     * @since   3.3.0
+     */
+    Pool value() default Pool.IDENTIFIERS;
+
+    /**
+     * The pools identifiers can be interned in.
+     *
+     * @since   3.3.0
+     */
+    enum Pool {
+
+        /**
+         * {@link StringInterner#IDENTIFIERS}, for identifiers of controls, scenes and groups
+         */
+        IDENTIFIERS,
+
+        /**
+         * {@link StringInterner#SESSION_IDS}, for session identifiers of participants
+         */
+        SESSION_IDS
+    }
+}
@@ -0,0 +1,282 @@
+package com.mixer.interactive.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Encodes large collections as JSON arrays of UTF-8 bytes, splitting the elements into slices that are encoded in
+ * parallel on a <code>ForkJoinPool</code>.
+ *
+ * <p>Each element is streamed by its Gson type adapter straight to the UTF-8 bytes of its slice, so no
+ * <code>JsonElement</code> tree is built for the collection. The slices are kept as they are in the resulting
+ * <code>EncodedJsonArray</code>, which can be written as one array or split into chunks without copying them.
+ * Collections no larger than a single slice are encoded on the calling thread.</p>
+ *
+ * <pre>
+ * {@code
+ * ParallelJsonEncoder encoder = new ParallelJsonEncoder(GameClient.GSON);
+ * EncodedJsonArray participants = encoder.encode(participantList);
+ * }
+ * </pre>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         EncodedJsonArray
+ *
+ * @since       3.3.0
+ */
+public class ParallelJsonEncoder {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The default number of elements encoded together in a slice
+     */
+    public static final int DEFAULT_SLICE_SIZE = 512;
+
+    /**
+     * The <code>Gson</code> instance whose type adapters encode the elements
+     */
+    private final Gson gson;
+
+    /**
+     * The pool the slices are encoded on
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of elements encoded together in a slice
+     */
+    private final int sliceSize;
+
+    /**
+     * Initializes a new <code>ParallelJsonEncoder</code> that encodes slices of the default size on the common pool.
+     *
+     * @param   gson
+     *          The <code>Gson</code> instance whose type adapters encode the elements
+     *
+     * @since   3.3.0
+     */
+    public ParallelJsonEncoder(Gson gson) {
+        this(gson, ForkJoinPool.commonPool(), DEFAULT_SLICE_SIZE);
+    }
+
+    /**
+     * Initializes a new <code>ParallelJsonEncoder</code>.
+     *
+     * @param   gson
+     *          The <code>Gson</code> instance whose type adapters encode the elements
+     * @param   pool
+     *          The pool the slices are encoded on
+     * @param   sliceSize
+     *          The number of elements encoded together in a slice
+     *
+     * @since   3.3.0
+     */
+    public ParallelJsonEncoder(Gson gson, ForkJoinPool pool, int sliceSize) {
+        if (gson == null || pool == null) {
+            LOG.fatal("A Gson instance and a fork-join pool are required");
+            throw new IllegalArgumentException("A Gson instance and a fork-join pool are required");
+        }
+        if (sliceSize < 1) {
+            LOG.fatal("Slice size must be positive");
+            throw new IllegalArgumentException("Slice size must be positive");
+        }
+        this.gson = gson;
+        this.pool = pool;
+        this.sliceSize = sliceSize;
+    }
+
+    /**
+     * Encodes a collection of elements as a JSON array. Each element is encoded using the type adapter for its runtime
+     * class.
+     *
+     * @param   elements
+     *          The elements to encode
+     *
+     * @return  The encoded array, with its elements in the iteration order of the collection
+     *
+     * @throws  JsonIOException
+     *          If an element cannot be encoded
+     *
+     * @since   3.3.0
+     */
+    public EncodedJsonArray encode(Collection<?> elements) {
+        return encode(elements, Function.identity());
+    }
+
+    /**
+     * Encodes a collection of elements as a JSON array, encoding the object each element is mapped to in its place.
+     * This allows elements that keep a cached <code>JsonElement</code> of themselves to have it encoded instead. The
+     * objects encoded are kept by the array, and can be retrieved through {@link EncodedJsonArray#getSource(int)}.
+     *
+     * @param   elements
+     *          The elements to encode
+     * @param   mapper
+     *          Maps an element to the object encoded in its place, using the type adapter for its runtime class
+     * @param   <T>
+     *          Type of the elements
+     *
+     * @return  The encoded array, with its elements in the iteration order of the collection
+     *
+     * @throws  JsonIOException
+     *          If an element cannot be encoded
+     *
+     * @since   3.3.0
+     */
+    public <T> EncodedJsonArray encode(Collection<T> elements, Function<? super T, ?> mapper) {
+        if (elements == null || mapper == null) {
+            LOG.fatal("A collection of elements and a mapper are required");
+            throw new IllegalArgumentException("A collection of elements and a mapper are required");
+        }
+
+        List<T> list = elements instanceof List ? (List<T>) elements : new ArrayList<>(elements);
+        if (list.size() <= sliceSize) {
+            return new EncodedJsonArray(Collections.singletonList(encodeSlice(list, mapper, 0, list.size())));
+        }
+        return new EncodedJsonArray(pool.invoke(new EncodeTask<>(list, mapper, 0, list.size())));
+    }
+
+    /**
+     * Encodes a range of elements as a single slice.
+     *
+     * @param   elements
+     *          The elements being encoded
+     * @param   mapper
+     *          Maps an element to the object encoded in its place
+     * @param   from
+     *          Index of the first element of the slice
+     * @param   to
+     *          Index after the last element of the slice
+     * @param   <T>
+     *          Type of the elements
+     *
+     * @return  The encoded slice
+     *
+     * @since   3.3.0
+     */
+    private <T> EncodedJsonArray.Slice encodeSlice(List<T> elements, Function<? super T, ?> mapper, int from, int to) {
+        Object[] sources = new Object[to - from];
+        int[] starts = new int[to - from];
+        int[] ends = new int[to - from];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * (to - from));
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try {
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    out.write(',');
+                }
+                starts[i - from] = out.size();
+                Object element = mapper.apply(elements.get(i));
+                sources[i - from] = element;
+                if (element == null) {
+                    writer.write("null");
+                }
+                else {
+                    gson.toJson(element, element.getClass(), new JsonWriter(writer));
+                }
+                // The writer buffers its output, so flush it before measuring the element
+                writer.flush();
+                ends[i - from] = out.size();
+            }
+        }
+        catch (IOException e) {
+            // Never thrown by ByteArrayOutputStream
+            throw new JsonIOException(e);
+        }
+        return new EncodedJsonArray.Slice(out.toByteArray(), sources, starts, ends);
+    }
+
+    /**
+     * Splits a range of elements in half until it fits in a slice, encoding the halves in parallel.
+     *
+     * @param   <T>
+     *          Type of the elements
+     *
+     * @since   3.3.0
+     */
+    private final class EncodeTask<T> extends RecursiveTask<List<EncodedJsonArray.Slice>> {
+
+        /**
+         * The elements being encoded
+         */
+        private final List<T> elements;
+
+        /**
+         * Maps an element to the object encoded in its place
+         */
+        private final Function<? super T, ?> mapper;
+
+        /**
+         * Index of the first element of the range
+         */
+        private final int from;
+
+        /**
+         * Index after the last element of the range
+         */
+        private final int to;
+
+        /**
+         * Initializes a new <code>EncodeTask</code>.
+         *
+         * @param   elements
+         *          The elements being encoded
+         * @param   mapper
+         *          Maps an element to the object encoded in its place
+         * @param   from
+         *          Index of the first element of the range
+         * @param   to
+         *          Index after the last element of the range
+         *
+         * @since   3.3.0
+         */
+        private EncodeTask(List<T> elements, Function<? super T, ?> mapper, int from, int to) {
+            this.elements = elements;
+            this.mapper = mapper;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @since   3.3.0
+         */
+        @Override
+        protected List<EncodedJsonArray.Slice> compute() {
+            if (to - from <= sliceSize) {
+                List<EncodedJsonArray.Slice> slices = new ArrayList<>();
+                slices.add(encodeSlice(elements, mapper, from, to));
+                return slices;
+            }
+
+            int middle = (from + to) >>> 1;
+            EncodeTask<T> first = new EncodeTask<>(elements, mapper, from, middle);
+            first.fork();
+            List<EncodedJsonArray.Slice> second = new EncodeTask<>(elements, mapper, middle, to).compute();
+            List<EncodedJsonArray.Slice> slices = first.join();
+            slices.addAll(second);
+            return slices;
+        }
+    }
+}
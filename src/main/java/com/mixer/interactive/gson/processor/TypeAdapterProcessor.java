@@ -0,0 +1,1551 @@
+package com.mixer.interactive.gson.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Annotation processor generating a streaming Gson <code>TypeAdapter</code> for every class annotated with
+ * {@link com.mixer.interactive.gson.GenerateTypeAdapter}, along with <code>GeneratedTypeAdapterFactory</code>, which
+ * registers all of them with a <code>Gson</code> instance.</p>
+ *
+ * <p>For an annotated class <code>Foo</code>, the processor generates <code>Foo_GsonAdapter</code> in the same
+ * package. It reads and writes the serialized fields of <code>Foo</code> directly, and delegates fields declared by
+ * annotated superclasses to their generated adapters. Output matches that of Gson's reflective adapter: fields
+ * declared by a class are written before those declared by its superclasses, <code>null</code> values are written
+ * only if the writer serializes nulls, and unknown properties are skipped.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@SupportedAnnotationTypes(TypeAdapterProcessor.ANNOTATION)
+public class TypeAdapterProcessor extends AbstractProcessor {
+
+    /**
+     * Fully qualified name of the annotation processed
+     */
+    static final String ANNOTATION = "com.mixer.interactive.gson.GenerateTypeAdapter";
+
+    /**
+     * Fully qualified name of the annotation marking the constructor instances are created with
+     */
+    private static final String CREATOR = ANNOTATION + ".Creator";
+
+    /**
+     * Fully qualified name of the annotation naming the accessors of a field
+     */
+    private static final String ACCESSORS = ANNOTATION + ".Accessors";
+
+    /**
+     * Fully qualified name of Gson's annotation renaming a serialized field
+     */
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+    /**
+     * Fully qualified name of the annotation marking a field holding an identifier to intern
+     */
+    private static final String INTERNED = "com.mixer.interactive.gson.Interned";
+
+    /**
+     * Fully qualified name of the class holding the pools identifiers are interned in
+     */
+    private static final String STRING_INTERNER = "com.mixer.interactive.util.StringInterner";
+
+    /**
+     * Package of the generated factory
+     */
+    private static final String FACTORY_PACKAGE = "com.mixer.interactive.gson";
+
+    /**
+     * Simple name of the generated factory
+     */
+    private static final String FACTORY_NAME = "GeneratedTypeAdapterFactory";
+
+    /**
+     * Suffix appended to the simple name of an annotated class to name its generated adapter
+     */
+    private static final String ADAPTER_SUFFIX = "_GsonAdapter";
+
+    /**
+     * Whether the factory has been generated
+     */
+    private boolean factoryGenerated;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        if (annotation == null || annotations.isEmpty()) {
+            return false;
+        }
+
+        Map<TypeElement, AdapterModel> models = new LinkedHashMap<>();
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+            AdapterModel model = buildModel(type);
+            if (model != null) {
+                models.put(type, model);
+            }
+        }
+        for (AdapterModel model : models.values()) {
+            model.parentModel = models.get(model.parent);
+        }
+        boolean valid = true;
+        for (AdapterModel model : models.values()) {
+            valid &= resolveCreator(model) && checkBindings(model);
+        }
+        if (!valid) {
+            return true;
+        }
+        for (AdapterModel model : models.values()) {
+            if (model.discriminatorValue != null) {
+                AdapterModel base = models.get(model.parent);
+                if (base == null || base.discriminator == null) {
+                    error(model.type, "A discriminator value requires the superclass to declare a discriminator");
+                    continue;
+                }
+                base.subtypes.put(model.discriminatorValue, model.type);
+            }
+        }
+
+        for (AdapterModel model : models.values()) {
+            writeAdapter(model);
+        }
+        if (!factoryGenerated && !models.isEmpty()) {
+            factoryGenerated = true;
+            writeFactory(models.values());
+        }
+        return true;
+    }
+
+    /**
+     * Collects what is needed to generate the adapter of an annotated class, reporting an error if the class cannot
+     * have an adapter generated.
+     *
+     * @param   type
+     *          The annotated class
+     *
+     * @return  The model of the adapter, or <code>null</code> if the class cannot have an adapter generated
+     *
+     * @since   3.3.0
+     */
+    private AdapterModel buildModel(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            error(type, "Type adapters can only be generated for top-level classes");
+            return null;
+        }
+
+        AdapterModel model = new AdapterModel(type);
+        String discriminator = annotationValue(type, "discriminator");
+        String discriminatorValue = annotationValue(type, "discriminatorValue");
+        model.discriminator = discriminator.isEmpty() ? null : discriminator;
+        model.discriminatorValue = discriminatorValue.isEmpty() ? null : discriminatorValue;
+        model.concrete = !type.getModifiers().contains(Modifier.ABSTRACT);
+        if (model.discriminator != null && model.concrete) {
+            error(type, "Only abstract classes can declare a discriminator");
+            return null;
+        }
+
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!isSerialized(field)) {
+                continue;
+            }
+            if (containsTypeVariable(field.asType())) {
+                error(field, "Serialized fields cannot use type variables");
+                valid = false;
+                continue;
+            }
+            String jsonName = annotationValue(field, SERIALIZED_NAME, "value");
+            String interner = null;
+            if (hasAnnotation(field, INTERNED)) {
+                if (!isString(field.asType())) {
+                    error(field, "Only String fields can be interned");
+                    valid = false;
+                    continue;
+                }
+                String pool = annotationValue(field, INTERNED, "value");
+                interner = STRING_INTERNER + "." + (pool != null ? pool : "IDENTIFIERS");
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            boolean readable = !modifiers.contains(Modifier.PRIVATE);
+            boolean assignable = readable && !modifiers.contains(Modifier.FINAL);
+            String getter = null;
+            String setter = null;
+            String namedGetter = emptyToNull(annotationValue(field, ACCESSORS, "getter"));
+            String namedSetter = emptyToNull(annotationValue(field, ACCESSORS, "setter"));
+            if (!readable) {
+                getter = getterOf(type, field, namedGetter);
+                if (getter == null) {
+                    error(field, namedGetter != null
+                            ? "The getter named for a field must be declared by its class, not be private or static, take no argument and return the type of the field"
+                            : "Private serialized fields require a getter named after them, or one named with @GenerateTypeAdapter.Accessors");
+                    valid = false;
+                    continue;
+                }
+            }
+            if (!assignable && namedSetter != null) {
+                setter = setterOf(type, field, namedSetter);
+                if (setter == null) {
+                    error(field, "The setter named for a field must be declared by its class, not be private or static, and take one argument accepting the type of the field");
+                    valid = false;
+                    continue;
+                }
+            }
+            model.fields.add(new FieldModel(type, field.getSimpleName().toString(),
+                    jsonName != null ? jsonName : field.getSimpleName().toString(), field.asType(), interner,
+                    readable, assignable, getter, setter));
+        }
+
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            boolean accessible = !constructor.getModifiers().contains(Modifier.PRIVATE);
+            if (hasAnnotation(constructor, CREATOR)) {
+                if (!model.concrete || !accessible || model.creator != null) {
+                    error(constructor, "Only one constructor that is not private, of a concrete class, can be a creator");
+                    valid = false;
+                    continue;
+                }
+                model.creator = constructor;
+            }
+            if (constructor.getParameters().isEmpty() && accessible) {
+                hasConstructor = true;
+            }
+        }
+        if (model.concrete && model.creator == null && !hasConstructor) {
+            error(type, "Classes with generated type adapters require a creator or a no-argument constructor that is not private");
+            valid = false;
+        }
+
+        TypeElement ancestor = superclassOf(type);
+        while (ancestor != null && !ancestor.getQualifiedName().toString().startsWith("java.")) {
+            if (ancestor.getAnnotationMirrors().stream().anyMatch(this::isGenerateTypeAdapter)) {
+                model.parent = ancestor;
+                break;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(ancestor.getEnclosedElements())) {
+                if (isSerialized(field)) {
+                    error(type, String.format("Superclass %s declares serialized fields and must be annotated", ancestor.getQualifiedName()));
+                    valid = false;
+                    break;
+                }
+            }
+            ancestor = superclassOf(ancestor);
+        }
+        return valid ? model : null;
+    }
+
+    /**
+     * Binds each parameter of the creator of a class to the serialized field it is named after, reporting an error if
+     * a parameter cannot be bound.
+     *
+     * @param   model
+     *          Model of the adapter
+     *
+     * @return  <code>true</code> if the class has no creator or every parameter of its creator is bound
+     *
+     * @since   3.3.0
+     */
+    private boolean resolveCreator(AdapterModel model) {
+        if (model.creator == null) {
+            return true;
+        }
+        List<FieldModel> layout = layoutOf(model);
+        List<? extends VariableElement> parameters = model.creator.getParameters();
+        model.creatorSlots = new int[parameters.size()];
+        boolean valid = true;
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            int slot = -1;
+            for (int j = 0; j < layout.size(); j++) {
+                if (layout.get(j).name.contentEquals(parameter.getSimpleName())) {
+                    slot = j;
+                }
+            }
+            if (slot < 0) {
+                error(parameter, "Parameters of a creator must be named after a serialized field");
+                valid = false;
+                continue;
+            }
+            if (!accepts(parameter.asType(), layout.get(slot).type)) {
+                error(parameter, "Parameters of a creator must accept the type of the field they are named after");
+                valid = false;
+                continue;
+            }
+            model.creatorSlots[i] = slot;
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the serialized fields of an annotated class and its annotated superclasses, in the order of the slots
+     * their properties are read into: fields declared by superclasses come before those declared by their subclasses.
+     *
+     * @param   model
+     *          Model of the adapter
+     *
+     * @return  The serialized fields, by slot
+     *
+     * @since   3.3.0
+     */
+    private static List<FieldModel> layoutOf(AdapterModel model) {
+        List<FieldModel> layout = model.parentModel != null ? layoutOf(model.parentModel) : new ArrayList<>();
+        layout.addAll(model.fields);
+        return layout;
+    }
+
+    /**
+     * Checks that a concrete class can be created with every serialized field bound, reporting an error for each field
+     * that can neither be passed to its creator, assigned nor set through a setter.
+     *
+     * @param   model
+     *          Model of the adapter
+     *
+     * @return  <code>true</code> if the class is abstract or every serialized field of it can be bound
+     *
+     * @since   3.3.0
+     */
+    private boolean checkBindings(AdapterModel model) {
+        if (!model.concrete) {
+            return true;
+        }
+        boolean valid = true;
+        List<FieldModel> layout = layoutOf(model);
+        for (int slot = 0; slot < layout.size(); slot++) {
+            FieldModel field = layout.get(slot);
+            if (!field.assignable && field.setter == null && !isBoundByCreator(model, slot)) {
+                error(model.type, String.format("Field %s of %s must be passed to the creator, be neither private nor final, or have a setter named with @GenerateTypeAdapter.Accessors",
+                        field.name, field.owner.getQualifiedName()));
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Returns whether the field in a slot is passed to the creator of a class.
+     *
+     * @param   model
+     *          Model of the adapter
+     * @param   slot
+     *          Slot of the field
+     *
+     * @return  <code>true</code> if a parameter of the creator is bound to the field
+     *
+     * @since   3.3.0
+     */
+    private static boolean isBoundByCreator(AdapterModel model, int slot) {
+        if (model.creatorSlots != null) {
+            for (int creatorSlot : model.creatorSlots) {
+                if (creatorSlot == slot) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the getter a private field can be written from: a method that is neither private nor static, takes no
+     * argument and returns the type of the field. Unless it is named with <code>@GenerateTypeAdapter.Accessors</code>,
+     * the getter must be named <code>getName</code>, <code>isName</code> or <code>name</code> after the field.
+     *
+     * @param   type
+     *          The class declaring the field
+     * @param   field
+     *          The field
+     * @param   named
+     *          Name given to the getter, or <code>null</code> if it is named after the field
+     *
+     * @return  Name of the getter, or <code>null</code> if the class declares none
+     *
+     * @since   3.3.0
+     */
+    private String getterOf(TypeElement type, VariableElement field, String named) {
+        Types types = processingEnv.getTypeUtils();
+        String name = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            boolean matches = named != null
+                    ? methodName.equals(named)
+                    : methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized) || methodName.equals(name);
+            if (!matches || !isAccessor(method) || !method.getParameters().isEmpty()) {
+                continue;
+            }
+            TypeMirror returnType = method.getReturnType();
+            if (types.isSameType(returnType, field.asType())
+                    || (field.asType().getKind().isPrimitive() && boxedTypeName(field.asType()).equals(returnType.toString()))) {
+                return methodName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the setter named with <code>@GenerateTypeAdapter.Accessors</code> that a field can be read into: a
+     * method that is neither private nor static and takes a single argument accepting the type of the field.
+     *
+     * @param   type
+     *          The class declaring the field
+     * @param   field
+     *          The field
+     * @param   named
+     *          Name given to the setter
+     *
+     * @return  Name of the setter, or <code>null</code> if the class declares none
+     *
+     * @since   3.3.0
+     */
+    private String setterOf(TypeElement type, VariableElement field, String named) {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(named) && isAccessor(method) && method.getParameters().size() == 1
+                    && accepts(method.getParameters().get(0).asType(), field.asType())) {
+                return named;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether a method can be called by generated adapters as an accessor: it is neither private nor static.
+     *
+     * @param   method
+     *          The method
+     *
+     * @return  <code>true</code> if the method can be called as an accessor
+     *
+     * @since   3.3.0
+     */
+    private static boolean isAccessor(ExecutableElement method) {
+        return !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    /**
+     * Returns whether a parameter accepts the values of a field: the same type once boxed, if either is primitive, or
+     * a type the field is assignable to otherwise.
+     *
+     * @param   parameterType
+     *          Type of the parameter
+     * @param   fieldType
+     *          Type of the field
+     *
+     * @return  <code>true</code> if the parameter accepts the values of the field
+     *
+     * @since   3.3.0
+     */
+    private boolean accepts(TypeMirror parameterType, TypeMirror fieldType) {
+        return fieldType.getKind().isPrimitive() || parameterType.getKind().isPrimitive()
+                ? boxedTypeName(fieldType).equals(boxedTypeName(parameterType))
+                : processingEnv.getTypeUtils().isAssignable(fieldType, parameterType);
+    }
+
+    /**
+     * Generates the adapter of an annotated class.
+     *
+     * @param   model
+     *          Model of the adapter
+     *
+     * @since   3.3.0
+     */
+    private void writeAdapter(AdapterModel model) {
+        String packageName = packageOf(model.type);
+        String adapterName = model.type.getSimpleName() + ADAPTER_SUFFIX;
+        String typeName = model.type.getQualifiedName().toString();
+        String wildcardType = wildcardTypeOf(model.type);
+        boolean typeAdapter = model.concrete || model.discriminator != null;
+        int offset = model.parentModel != null ? layoutOf(model.parentModel).size() : 0;
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(packageName + "." + adapterName, model.type).openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * Streaming type adapter for <code>" + model.type.getSimpleName() + "</code>, generated by <code>"
+                    + TypeAdapterProcessor.class.getSimpleName() + "</code>. Do not edit.");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + adapterName
+                    + (typeAdapter ? " extends com.google.gson.TypeAdapter<" + typeName + ">" : "") + " {");
+            out.println();
+            out.println("    public static final int SLOTS = " + (offset + model.fields.size()) + ";");
+            out.println();
+            out.println("    private final com.google.gson.Gson gson;");
+            if (model.parent != null) {
+                out.println();
+                out.println("    private final " + adapterNameOf(model.parent) + " parent;");
+            }
+            for (int i = 0; i < model.fields.size(); i++) {
+                FieldModel field = model.fields.get(i);
+                if (isDelegated(field.type)) {
+                    out.println();
+                    out.println("    private com.google.gson.TypeAdapter<" + boxedTypeName(field.type) + "> adapter" + i + ";");
+                }
+            }
+            for (TypeElement subtype : model.subtypes.values()) {
+                out.println();
+                out.println("    private " + adapterNameOf(subtype) + " " + subtypeAdapterField(subtype) + ";");
+            }
+            out.println();
+            out.println("    public " + adapterName + "(com.google.gson.Gson gson) {");
+            out.println("        this.gson = gson;");
+            if (model.parent != null) {
+                out.println("        this.parent = new " + adapterNameOf(model.parent) + "(gson);");
+            }
+            out.println("    }");
+
+            writeReadField(out, model, offset);
+            writeBindFields(out, model, wildcardType, offset);
+            writeWriteFields(out, model, wildcardType);
+            if (model.concrete) {
+                writeConcreteMethods(out, model, typeName);
+            }
+            else if (model.discriminator != null) {
+                writePolymorphicMethods(out, model, typeName);
+            }
+            writeFieldAdapterAccessors(out, model);
+            out.println("}");
+        }
+        catch (IOException e) {
+            error(model.type, "Unable to write type adapter: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the method reading a property into the slot of a field of the annotated class or one of its
+     * superclasses. Properties are read into slots rather than into an instance so that the instance can be created
+     * with its creator once all of them are read.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   model
+     *          Model of the adapter
+     * @param   offset
+     *          Slot of the first field declared by the annotated class
+     *
+     * @since   3.3.0
+     */
+    private void writeReadField(PrintWriter out, AdapterModel model, int offset) {
+        out.println();
+        out.println("    public boolean readField(Object[] values, String name, com.google.gson.stream.JsonReader in) throws java.io.IOException {");
+        out.println("        switch (name) {");
+        for (int i = 0; i < model.fields.size(); i++) {
+            FieldModel field = model.fields.get(i);
+            out.println("            case \"" + escape(field.jsonName) + "\":");
+            writeFieldRead(out, field, i, "values[" + (offset + i) + "]");
+            out.println("                return true;");
+        }
+        out.println("            default:");
+        out.println("                return " + (model.parent != null ? "parent.readField(values, name, in)" : "false") + ";");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    /**
+     * Generates the statements reading a property into a slot. A <code>null</code> property leaves the slot empty, so
+     * that the field keeps the value it is initialized with.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   field
+     *          Model of the field
+     * @param   index
+     *          Index of the field in the model
+     * @param   target
+     *          Expression designating the slot
+     *
+     * @since   3.3.0
+     */
+    private void writeFieldRead(PrintWriter out, FieldModel field, int index, String target) {
+        TypeKind kind = field.type.getKind();
+        String indent = "                ";
+        if (kind.isPrimitive() || isString(field.type) || isBoxed(field.type, "java.lang.Boolean")) {
+            out.println(indent + "if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+            out.println(indent + "    in.nextNull();");
+            out.println(indent + "}");
+            if (isString(field.type)) {
+                out.println(indent + "else if (in.peek() == com.google.gson.stream.JsonToken.BOOLEAN) {");
+                out.println(indent + "    " + target + " = Boolean.toString(in.nextBoolean());");
+                out.println(indent + "}");
+            }
+            out.println(indent + "else {");
+            if (isString(field.type)) {
+                out.println(indent + "    " + target + " = " + (field.interner != null ? field.interner + ".intern(in.nextString())" : "in.nextString()") + ";");
+            }
+            else {
+                out.println(indent + "    " + target + " = " + primitiveRead(kind.isPrimitive() ? kind : TypeKind.BOOLEAN) + ";");
+            }
+            out.println(indent + "}");
+        }
+        else {
+            out.println(indent + target + " = adapter" + index + "().read(in);");
+        }
+    }
+
+    /**
+     * Generates the method binding the fields of an instance of the annotated class and its superclasses that were not
+     * passed to the creator, from the slots they were read into. Fields are assigned directly when the adapter of their
+     * class can, and through their setter otherwise.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   model
+     *          Model of the adapter
+     * @param   wildcardType
+     *          Name of the annotated class, with wildcards for its type parameters
+     * @param   offset
+     *          Slot of the first field declared by the annotated class
+     *
+     * @since   3.3.0
+     */
+    private void writeBindFields(PrintWriter out, AdapterModel model, String wildcardType, int offset) {
+        out.println();
+        out.println("    public void bindFields(" + wildcardType + " target, Object[] values) {");
+        for (int i = 0; i < model.fields.size(); i++) {
+            FieldModel field = model.fields.get(i);
+            String value = "values[" + (offset + i) + "]";
+            if (field.assignable) {
+                out.println("        if (" + value + " != null) {");
+                out.println("            target." + field.name + " = (" + boxedTypeName(field.type) + ") " + value + ";");
+                out.println("        }");
+            }
+            else if (field.setter != null) {
+                out.println("        if (" + value + " != null) {");
+                out.println("            target." + field.setter + "((" + boxedTypeName(field.type) + ") " + value + ");");
+                out.println("        }");
+            }
+        }
+        if (model.parent != null) {
+            out.println("        parent.bindFields(target, values);");
+        }
+        out.println("    }");
+    }
+
+    /**
+     * Generates the method writing the fields of the annotated class and its superclasses. Fields are read directly
+     * when the adapter can, and from their getter otherwise.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   model
+     *          Model of the adapter
+     * @param   wildcardType
+     *          Name of the annotated class, with wildcards for its type parameters
+     *
+     * @since   3.3.0
+     */
+    private void writeWriteFields(PrintWriter out, AdapterModel model, String wildcardType) {
+        out.println();
+        out.println("    public void writeFields(" + wildcardType + " source, com.google.gson.stream.JsonWriter out) throws java.io.IOException {");
+        for (int i = 0; i < model.fields.size(); i++) {
+            FieldModel field = model.fields.get(i);
+            String value = "value" + i;
+            String name = "out.name(\"" + escape(field.jsonName) + "\")";
+            String access = field.readable ? "source." + field.name : "source." + field.getter + "()";
+            out.println("        " + field.type + " " + value + " = " + access + ";");
+            TypeKind kind = field.type.getKind();
+            if (kind == TypeKind.BOOLEAN) {
+                out.println("        " + name + ".value(" + value + ");");
+            }
+            else if (kind == TypeKind.FLOAT || kind == TypeKind.DOUBLE || kind == TypeKind.CHAR) {
+                out.println("        " + name + ".value((Number) " + boxedTypeName(field.type) + ".valueOf(" + value + "));");
+            }
+            else if (kind.isPrimitive()) {
+                out.println("        " + name + ".value(" + value + ");");
+            }
+            else {
+                out.println("        " + name + ";");
+                out.println("        if (" + value + " == null) {");
+                out.println("            out.nullValue();");
+                out.println("        }");
+                out.println("        else {");
+                if (isString(field.type)) {
+                    out.println("            out.value(" + value + ");");
+                }
+                else if (isBoxed(field.type, "java.lang.Boolean")) {
+                    out.println("            out.value(" + value + ".booleanValue());");
+                }
+                else {
+                    out.println("            adapter" + i + "().write(out, " + value + ");");
+                }
+                out.println("        }");
+            }
+        }
+        if (model.parent != null) {
+            out.println("        parent.writeFields(source, out);");
+        }
+        out.println("    }");
+    }
+
+    /**
+     * Generates the methods of the adapter of a concrete class.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   model
+     *          Model of the adapter
+     * @param   typeName
+     *          Name of the annotated class
+     *
+     * @since   3.3.0
+     */
+    private void writeConcreteMethods(PrintWriter out, AdapterModel model, String typeName) {
+        out.println();
+        out.println("    public " + typeName + " create(Object[] values) {");
+        if (model.creator == null) {
+            out.println("        " + typeName + " target = new " + typeName + "();");
+        }
+        else {
+            List<? extends VariableElement> parameters = model.creator.getParameters();
+            StringBuilder arguments = new StringBuilder();
+            for (int i = 0; i < parameters.size(); i++) {
+                TypeMirror parameterType = parameters.get(i).asType();
+                String value = "values[" + model.creatorSlots[i] + "]";
+                arguments.append(i == 0 ? "" : ",\n                ");
+                if (parameterType.getKind().isPrimitive()) {
+                    arguments.append(value).append(" != null ? (").append(boxedTypeName(parameterType)).append(") ")
+                            .append(value).append(" : ").append(defaultValue(parameterType.getKind()));
+                }
+                else {
+                    arguments.append("(").append(parameterType).append(") ").append(value);
+                }
+            }
+            out.println("        " + typeName + " target = new " + typeName + "(");
+            out.println("                " + arguments + ");");
+            List<FieldModel> layout = layoutOf(model);
+            for (int slot : model.creatorSlots) {
+                if (layout.get(slot).assignable || layout.get(slot).setter != null) {
+                    out.println("        values[" + slot + "] = null;");
+                }
+            }
+        }
+        out.println("        bindFields(target, values);");
+        out.println("        return target;");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public " + typeName + " read(com.google.gson.stream.JsonReader in) throws java.io.IOException {");
+        out.println("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+        out.println("            in.nextNull();");
+        out.println("            return null;");
+        out.println("        }");
+        out.println("        Object[] values = new Object[SLOTS];");
+        out.println("        in.beginObject();");
+        out.println("        while (in.hasNext()) {");
+        out.println("            if (!readField(values, in.nextName(), in)) {");
+        out.println("                in.skipValue();");
+        out.println("            }");
+        out.println("        }");
+        out.println("        in.endObject();");
+        out.println("        return create(values);");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public void write(com.google.gson.stream.JsonWriter out, " + typeName + " value) throws java.io.IOException {");
+        out.println("        if (value == null) {");
+        out.println("            out.nullValue();");
+        out.println("            return;");
+        out.println("        }");
+        out.println("        out.beginObject();");
+        out.println("        writeFields(value, out);");
+        out.println("        out.endObject();");
+        out.println("    }");
+    }
+
+    /**
+     * Generates the methods of the adapter of an abstract class dispatching to its subclasses on a discriminator
+     * property. Properties preceding the discriminator are buffered as trees and replayed once the subclass is known.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   model
+     *          Model of the adapter
+     * @param   typeName
+     *          Name of the annotated class
+     *
+     * @since   3.3.0
+     */
+    private void writePolymorphicMethods(PrintWriter out, AdapterModel model, String typeName) {
+        String discriminator = escape(model.discriminator);
+        List<String> discriminatorValues = new ArrayList<>(model.subtypes.keySet());
+        List<TypeElement> subtypes = new ArrayList<>(model.subtypes.values());
+        out.println();
+        out.println("    @Override");
+        out.println("    public " + typeName + " read(com.google.gson.stream.JsonReader in) throws java.io.IOException {");
+        out.println("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+        out.println("            in.nextNull();");
+        out.println("            return null;");
+        out.println("        }");
+        out.println("        int subtype = -1;");
+        out.println("        Object[] values = null;");
+        out.println("        java.util.List<String> bufferedNames = null;");
+        out.println("        java.util.List<com.google.gson.JsonElement> bufferedValues = null;");
+        out.println("        in.beginObject();");
+        out.println("        while (in.hasNext()) {");
+        out.println("            String name = in.nextName();");
+        out.println("            if (values != null) {");
+        out.println("                if (!readSubtypeField(subtype, values, name, in)) {");
+        out.println("                    in.skipValue();");
+        out.println("                }");
+        out.println("            }");
+        out.println("            else if (\"" + discriminator + "\".equals(name) && in.peek() == com.google.gson.stream.JsonToken.STRING) {");
+        out.println("                String discriminator = in.nextString();");
+        out.println("                subtype = subtypeOf(discriminator);");
+        out.println("                if (subtype < 0) {");
+        out.println("                    while (in.hasNext()) {");
+        out.println("                        in.nextName();");
+        out.println("                        in.skipValue();");
+        out.println("                    }");
+        out.println("                    break;");
+        out.println("                }");
+        out.println("                values = new Object[slotsOf(subtype)];");
+        out.println("                readSubtypeField(subtype, values, name, new com.google.gson.internal.bind.JsonTreeReader(new com.google.gson.JsonPrimitive(discriminator)));");
+        out.println("                if (bufferedNames != null) {");
+        out.println("                    for (int i = 0; i < bufferedNames.size(); i++) {");
+        out.println("                        readSubtypeField(subtype, values, bufferedNames.get(i), new com.google.gson.internal.bind.JsonTreeReader(bufferedValues.get(i)));");
+        out.println("                    }");
+        out.println("                }");
+        out.println("            }");
+        out.println("            else {");
+        out.println("                if (bufferedNames == null) {");
+        out.println("                    bufferedNames = new java.util.ArrayList<>();");
+        out.println("                    bufferedValues = new java.util.ArrayList<>();");
+        out.println("                }");
+        out.println("                bufferedNames.add(name);");
+        out.println("                bufferedValues.add(new com.google.gson.JsonParser().parse(in));");
+        out.println("            }");
+        out.println("        }");
+        out.println("        in.endObject();");
+        out.println("        return values != null ? createSubtype(subtype, values) : null;");
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public void write(com.google.gson.stream.JsonWriter out, " + typeName + " value) throws java.io.IOException {");
+        out.println("        if (value == null) {");
+        out.println("            out.nullValue();");
+        out.println("            return;");
+        out.println("        }");
+        String keyword = "if";
+        for (TypeElement subtype : subtypes) {
+            String subtypeName = subtype.getQualifiedName().toString();
+            out.println("        " + keyword + " (value instanceof " + subtypeName + ") {");
+            out.println("            " + subtypeAdapterField(subtype) + "().write(out, (" + subtypeName + ") value);");
+            out.println("        }");
+            keyword = "else if";
+        }
+        if (subtypes.isEmpty()) {
+            out.println("        ((com.google.gson.TypeAdapter) gson.getAdapter(value.getClass())).write(out, value);");
+        }
+        else {
+            out.println("        else {");
+            out.println("            ((com.google.gson.TypeAdapter) gson.getAdapter(value.getClass())).write(out, value);");
+            out.println("        }");
+        }
+        out.println("    }");
+        out.println();
+        out.println("    private int subtypeOf(String discriminator) {");
+        out.println("        switch (discriminator) {");
+        for (int i = 0; i < subtypes.size(); i++) {
+            out.println("            case \"" + escape(discriminatorValues.get(i)) + "\":");
+            out.println("                return " + i + ";");
+        }
+        out.println("            default:");
+        out.println("                return -1;");
+        out.println("        }");
+        out.println("    }");
+        out.println();
+        out.println("    private int slotsOf(int subtype) {");
+        out.println("        switch (subtype) {");
+        for (int i = 0; i < subtypes.size(); i++) {
+            out.println("            case " + i + ":");
+            out.println("                return " + adapterNameOf(subtypes.get(i)) + ".SLOTS;");
+        }
+        out.println("            default:");
+        out.println("                return SLOTS;");
+        out.println("        }");
+        out.println("    }");
+        out.println();
+        out.println("    private boolean readSubtypeField(int subtype, Object[] values, String name, com.google.gson.stream.JsonReader in) throws java.io.IOException {");
+        out.println("        switch (subtype) {");
+        for (int i = 0; i < subtypes.size(); i++) {
+            out.println("            case " + i + ":");
+            out.println("                return " + subtypeAdapterField(subtypes.get(i)) + "().readField(values, name, in);");
+        }
+        out.println("            default:");
+        out.println("                return readField(values, name, in);");
+        out.println("        }");
+        out.println("    }");
+        out.println();
+        out.println("    private " + typeName + " createSubtype(int subtype, Object[] values) {");
+        out.println("        switch (subtype) {");
+        for (int i = 0; i < subtypes.size(); i++) {
+            out.println("            case " + i + ":");
+            out.println("                return " + subtypeAdapterField(subtypes.get(i)) + "().create(values);");
+        }
+        out.println("            default:");
+        out.println("                return null;");
+        out.println("        }");
+        out.println("    }");
+        for (TypeElement subtype : subtypes) {
+            String field = subtypeAdapterField(subtype);
+            out.println();
+            out.println("    private " + adapterNameOf(subtype) + " " + field + "() {");
+            out.println("        if (" + field + " == null) {");
+            out.println("            " + field + " = new " + adapterNameOf(subtype) + "(gson);");
+            out.println("        }");
+            out.println("        return " + field + ";");
+            out.println("    }");
+        }
+    }
+
+    /**
+     * Generates the accessors lazily resolving the adapters of fields that are not read and written inline. Adapters
+     * are resolved lazily so that adapters of mutually referencing types can be created.
+     *
+     * @param   out
+     *          Writer of the adapter source
+     * @param   model
+     *          Model of the adapter
+     *
+     * @since   3.3.0
+     */
+    private void writeFieldAdapterAccessors(PrintWriter out, AdapterModel model) {
+        for (int i = 0; i < model.fields.size(); i++) {
+            FieldModel field = model.fields.get(i);
+            if (!isDelegated(field.type)) {
+                continue;
+            }
+            String typeName = boxedTypeName(field.type);
+            out.println();
+            out.println("    private com.google.gson.TypeAdapter<" + typeName + "> adapter" + i + "() {");
+            out.println("        if (adapter" + i + " == null) {");
+            if (field.type.getKind() == TypeKind.DECLARED && ((DeclaredType) field.type).getTypeArguments().isEmpty()) {
+                out.println("            adapter" + i + " = gson.getAdapter(" + erasedTypeName(field.type) + ".class);");
+            }
+            else {
+                out.println("            adapter" + i + " = gson.getAdapter(new com.google.gson.reflect.TypeToken<" + typeName + ">() {});");
+            }
+            out.println("        }");
+            out.println("        return adapter" + i + ";");
+            out.println("    }");
+        }
+    }
+
+    /**
+     * Generates the factory creating the adapters of every annotated class.
+     *
+     * @param   models
+     *          Models of the adapters
+     *
+     * @since   3.3.0
+     */
+    private void writeFactory(Iterable<AdapterModel> models) {
+        List<Element> originating = new ArrayList<>();
+        List<AdapterModel> adapters = new ArrayList<>();
+        for (AdapterModel model : models) {
+            originating.add(model.type);
+            if (model.concrete || model.discriminator != null) {
+                adapters.add(model);
+            }
+        }
+
+        try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(FACTORY_PACKAGE + "." + FACTORY_NAME,
+                originating.toArray(new Element[originating.size()])).openWriter())) {
+            out.println("package " + FACTORY_PACKAGE + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * Creates the streaming type adapters generated by <code>" + TypeAdapterProcessor.class.getSimpleName()
+                    + "</code> for classes annotated with <code>GenerateTypeAdapter</code>. Do not edit.");
+            out.println(" */");
+            out.println("@SuppressWarnings(\"unchecked\")");
+            out.println("public final class " + FACTORY_NAME + " implements com.google.gson.TypeAdapterFactory {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public <T> com.google.gson.TypeAdapter<T> create(com.google.gson.Gson gson, com.google.gson.reflect.TypeToken<T> type) {");
+            out.println("        Class<? super T> rawType = type.getRawType();");
+            for (AdapterModel model : adapters) {
+                out.println("        if (rawType == " + model.type.getQualifiedName() + ".class) {");
+                out.println("            return (com.google.gson.TypeAdapter<T>) new " + adapterNameOf(model.type) + "(gson);");
+                out.println("        }");
+            }
+            out.println("        return null;");
+            out.println("    }");
+            out.println("}");
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write type adapter factory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether a field is serialized by Gson.
+     *
+     * @param   field
+     *          The field
+     *
+     * @return  <code>true</code> if the field is neither <code>static</code> nor <code>transient</code>
+     *
+     * @since   3.3.0
+     */
+    private static boolean isSerialized(VariableElement field) {
+        return !field.getModifiers().contains(Modifier.STATIC) && !field.getModifiers().contains(Modifier.TRANSIENT);
+    }
+
+    /**
+     * Returns whether a field is read and written through a delegate adapter rather than inline.
+     *
+     * @param   type
+     *          Type of the field
+     *
+     * @return  <code>true</code> if the field is neither primitive, a <code>String</code> nor a <code>Boolean</code>
+     *
+     * @since   3.3.0
+     */
+    private static boolean isDelegated(TypeMirror type) {
+        return !type.getKind().isPrimitive() && !isString(type) && !isBoxed(type, "java.lang.Boolean");
+    }
+
+    /**
+     * Returns whether a type is <code>String</code>.
+     *
+     * @param   type
+     *          The type
+     *
+     * @return  <code>true</code> if the type is <code>String</code>
+     *
+     * @since   3.3.0
+     */
+    private static boolean isString(TypeMirror type) {
+        return isBoxed(type, "java.lang.String");
+    }
+
+    /**
+     * Returns whether a type is the declared type with a qualified name.
+     *
+     * @param   type
+     *          The type
+     * @param   qualifiedName
+     *          Qualified name of the declared type
+     *
+     * @return  <code>true</code> if the type is the declared type
+     *
+     * @since   3.3.0
+     */
+    private static boolean isBoxed(TypeMirror type, String qualifiedName) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    /**
+     * Returns whether a type refers to a type variable.
+     *
+     * @param   type
+     *          The type
+     *
+     * @return  <code>true</code> if the type is or is parameterized with a type variable
+     *
+     * @since   3.3.0
+     */
+    private static boolean containsTypeVariable(TypeMirror type) {
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                if (containsTypeVariable(argument)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the expression reading a primitive value from a <code>JsonReader</code> named <code>in</code>, matching
+     * Gson's built-in adapters.
+     *
+     * @param   kind
+     *          Kind of the primitive
+     *
+     * @return  The expression
+     *
+     * @since   3.3.0
+     */
+    private static String primitiveRead(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "in.peek() == com.google.gson.stream.JsonToken.STRING ? Boolean.parseBoolean(in.nextString()) : in.nextBoolean()";
+            case BYTE:
+                return "(byte) in.nextInt()";
+            case SHORT:
+                return "(short) in.nextInt()";
+            case INT:
+                return "in.nextInt()";
+            case LONG:
+                return "in.nextLong()";
+            case FLOAT:
+                return "(float) in.nextDouble()";
+            case DOUBLE:
+                return "in.nextDouble()";
+            default:
+                return "in.nextString().charAt(0)";
+        }
+    }
+
+    /**
+     * Returns the expression of the default value of a primitive, passed to a creator for an absent property.
+     *
+     * @param   kind
+     *          Kind of the primitive
+     *
+     * @return  The expression
+     *
+     * @since   3.3.0
+     */
+    private static String defaultValue(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "'\\0'";
+            default:
+                return "0";
+        }
+    }
+
+    /**
+     * Returns the name of a type as it can be used as a type argument.
+     *
+     * @param   type
+     *          The type
+     *
+     * @return  The name of the type, boxed if it is primitive
+     *
+     * @since   3.3.0
+     */
+    private String boxedTypeName(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    /**
+     * Returns the name of the erasure of a type.
+     *
+     * @param   type
+     *          The type
+     *
+     * @return  The name of the erasure of the type
+     *
+     * @since   3.3.0
+     */
+    private String erasedTypeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Returns the name of a class with wildcards for its type parameters.
+     *
+     * @param   type
+     *          The class
+     *
+     * @return  The name of the class, parameterized with wildcards if it is generic
+     *
+     * @since   3.3.0
+     */
+    private static String wildcardTypeOf(TypeElement type) {
+        int parameters = type.getTypeParameters().size();
+        if (parameters == 0) {
+            return type.getQualifiedName().toString();
+        }
+        StringBuilder builder = new StringBuilder(type.getQualifiedName()).append('<');
+        for (int i = 0; i < parameters; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.append('>').toString();
+    }
+
+    /**
+     * Returns the qualified name of the adapter generated for a class.
+     *
+     * @param   type
+     *          The class
+     *
+     * @return  The qualified name of the adapter
+     *
+     * @since   3.3.0
+     */
+    private static String adapterNameOf(TypeElement type) {
+        return type.getQualifiedName() + ADAPTER_SUFFIX;
+    }
+
+    /**
+     * Returns the name of the field holding the adapter of a subclass in a polymorphic adapter.
+     *
+     * @param   subtype
+     *          The subclass
+     *
+     * @return  The name of the field
+     *
+     * @since   3.3.0
+     */
+    private static String subtypeAdapterField(TypeElement subtype) {
+        String simpleName = subtype.getSimpleName().toString();
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1) + "Adapter";
+    }
+
+    /**
+     * Returns the name of the package of a class.
+     *
+     * @param   type
+     *          The class
+     *
+     * @return  The qualified name of the package
+     *
+     * @since   3.3.0
+     */
+    private String packageOf(TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.getQualifiedName().toString();
+    }
+
+    /**
+     * Returns the superclass of a class.
+     *
+     * @param   type
+     *          The class
+     *
+     * @return  The superclass, or <code>null</code> if the class has none
+     *
+     * @since   3.3.0
+     */
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+    }
+
+    /**
+     * Returns whether an annotation is {@link com.mixer.interactive.gson.GenerateTypeAdapter}.
+     *
+     * @param   mirror
+     *          The annotation
+     *
+     * @return  <code>true</code> if the annotation is <code>GenerateTypeAdapter</code>
+     *
+     * @since   3.3.0
+     */
+    private boolean isGenerateTypeAdapter(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION);
+    }
+
+    /**
+     * Returns whether an annotation is present on an element.
+     *
+     * @param   element
+     *          The element
+     * @param   annotation
+     *          Qualified name of the annotation
+     *
+     * @return  <code>true</code> if the annotation is present on the element
+     *
+     * @since   3.3.0
+     */
+    private static boolean hasAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of an element of the <code>GenerateTypeAdapter</code> annotation of a class.
+     *
+     * @param   type
+     *          The annotated class
+     * @param   name
+     *          Name of the annotation element
+     *
+     * @return  The value of the element, or an empty <code>String</code> if it is not set
+     *
+     * @since   3.3.0
+     */
+    private static String annotationValue(TypeElement type, String name) {
+        String value = annotationValue(type, ANNOTATION, name);
+        return value != null ? value : "";
+    }
+
+    /**
+     * Returns the value of an element of an annotation present on an element.
+     *
+     * @param   element
+     *          The annotated element
+     * @param   annotation
+     *          Qualified name of the annotation
+     * @param   name
+     *          Name of the annotation element
+     *
+     * @return  The value of the annotation element, or <code>null</code> if the annotation is absent or the element
+     *          is not set
+     *
+     * @since   3.3.0
+     */
+    private static String annotationValue(Element element, String annotation, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals(name)) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the provided value, or <code>null</code> if it is empty.
+     *
+     * @param   value
+     *          The value
+     *
+     * @return  The value, or <code>null</code> if it is <code>null</code> or empty
+     *
+     * @since   3.3.0
+     */
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Escapes a value for use in a Java string literal.
+     *
+     * @param   value
+     *          The value
+     *
+     * @return  The escaped value
+     *
+     * @since   3.3.0
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Reports an error on an element.
+     *
+     * @param   element
+     *          The element
+     * @param   message
+     *          The error message
+     *
+     * @since   3.3.0
+     */
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * What is needed to generate the adapter of an annotated class.
+     *
+     * @since   3.3.0
+     */
+    private static class AdapterModel {
+
+        /**
+         * The annotated class
+         */
+        private final TypeElement type;
+
+        /**
+         * Serialized fields declared by the class, in declaration order
+         */
+        private final List<FieldModel> fields = new ArrayList<>();
+
+        /**
+         * Subclasses to dispatch to, by discriminator value
+         */
+        private final Map<String, TypeElement> subtypes = new LinkedHashMap<>();
+
+        /**
+         * Nearest annotated superclass, or <code>null</code> if there is none
+         */
+        private TypeElement parent;
+
+        /**
+         * Model of the adapter of the nearest annotated superclass, or <code>null</code> if there is none
+         */
+        private AdapterModel parentModel;
+
+        /**
+         * Constructor instances are created with, or <code>null</code> if they are created with the no-argument
+         * constructor
+         */
+        private ExecutableElement creator;
+
+        /**
+         * Slot of the field each parameter of the creator is bound to
+         */
+        private int[] creatorSlots;
+
+        /**
+         * Whether the class is concrete
+         */
+        private boolean concrete;
+
+        /**
+         * Name of the discriminator property, or <code>null</code> if the class is not polymorphic
+         */
+        private String discriminator;
+
+        /**
+         * Value of the discriminator property identifying the class, or <code>null</code> if it is not dispatched to
+         */
+        private String discriminatorValue;
+
+        /**
+         * Initializes a new <code>AdapterModel</code>.
+         *
+         * @param   type
+         *          The annotated class
+         *
+         * @since   3.3.0
+         */
+        private AdapterModel(TypeElement type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * A serialized field of an annotated class.
+     *
+     * @since   3.3.0
+     */
+    private static class FieldModel {
+
+        /**
+         * The class declaring the field
+         */
+        private final TypeElement owner;
+
+        /**
+         * Name of the field
+         */
+        private final String name;
+
+        /**
+         * Name of the property the field is serialized as
+         */
+        private final String jsonName;
+
+        /**
+         * Type of the field
+         */
+        private final TypeMirror type;
+
+        /**
+         * Expression designating the <code>StringInterner</code> values of the field are interned in, or
+         * <code>null</code> if they are not interned
+         */
+        private final String interner;
+
+        /**
+         * Whether the adapter can read the field directly
+         */
+        private final boolean readable;
+
+        /**
+         * Whether the adapter can assign the field directly
+         */
+        private final boolean assignable;
+
+        /**
+         * Name of the getter the field is written from, or <code>null</code> if it is read directly
+         */
+        private final String getter;
+
+        /**
+         * Name of the setter the field is read into, or <code>null</code> if it is assigned directly or passed to the
+         * creator
+         */
+        private final String setter;
+
+        /**
+         * Initializes a new <code>FieldModel</code>.
+         *
+         * @param   owner
+         *          The class declaring the field
+         * @param   name
+         *          Name of the field
+         * @param   jsonName
+         *          Name of the property the field is serialized as
+         * @param   type
+         *          Type of the field
+         * @param   interner
+         *          Expression designating the <code>StringInterner</code> values of the field are interned in, or
+         *          <code>null</code>
+         * @param   readable
+         *          Whether the adapter can read the field directly
+         * @param   assignable
+         *          Whether the adapter can assign the field directly
+         * @param   getter
+         *          Name of the getter the field is written from, or <code>null</code>
+         * @param   setter
+         *          Name of the setter the field is read into, or <code>null</code>
+         *
+         * @since   3.3.0
+         */
+        private FieldModel(TypeElement owner, String name, String jsonName, TypeMirror type, String interner,
+                           boolean readable, boolean assignable, String getter, String setter) {
+            this.owner = owner;
+            this.name = name;
+            this.jsonName = jsonName;
+            this.type = type;
+            this.interner = interner;
+            this.readable = readable;
+            this.assignable = assignable;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
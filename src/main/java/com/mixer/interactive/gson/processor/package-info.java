@@ -0,0 +1,10 @@
+/**
+ * Contains the annotation processor generating streaming type adapters for classes annotated with
+ * {@link com.mixer.interactive.gson.GenerateTypeAdapter}. The processor is compiled ahead of the rest of the sources
+ * and is not included in the library jar.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.gson.processor;
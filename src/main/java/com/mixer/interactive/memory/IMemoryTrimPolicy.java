@@ -0,0 +1,35 @@
+package com.mixer.interactive.memory;
+
+import com.mixer.interactive.GameClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A way of freeing memory on the Interactive service, used by a {@link MemoryGovernor}. A policy plans the requests to
+ * send, and the governor sends the requests of all its policies as a single batch.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         MemoryTrimPolicies
+ *
+ * @since       3.3.0
+ */
+@FunctionalInterface
+public interface IMemoryTrimPolicy {
+
+    /**
+     * Plans requests freeing memory on the Interactive service. A policy should favour the resources using the most
+     * bytes, and need not plan more than is needed to free {@link MemoryPressure#getBytesToFree()} bytes.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> whose Interactive integration is trimmed
+     * @param   pressure
+     *          The memory used by the Interactive integration
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the planned requests, possibly none
+     *
+     * @since   3.3.0
+     */
+    CompletableFuture<List<MemoryTrimRequest>> plan(GameClient gameClient, MemoryPressure pressure);
+}
@@ -0,0 +1,676 @@
+package com.mixer.interactive.memory;
+
+import com.google.common.base.Utf8;
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.connection.MemoryBudgetEvent;
+import com.mixer.interactive.event.core.MemoryWarningEvent;
+import com.mixer.interactive.event.participant.ParticipantLeaveEvent;
+import com.mixer.interactive.protocol.EncodedMethodPacket;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Estimates the memory an Interactive integration uses on the Interactive service from the requests the
+ * <code>GameClient</code> makes, so that running short can be seen coming before the Interactive service sends a
+ * memory warning.</p>
+ *
+ * <p>The serialized size of every scene, group and control the client creates or updates, and of the
+ * <code>meta</code> properties of every participant it updates, is kept up to date as the Interactive service
+ * acknowledges each request. Updates are assumed to grow a resource to at most the size of its update, as the
+ * Interactive service merges them into what it holds. Because resources created before the accountant was started,
+ * or by other means, are not seen, the estimate is periodically calibrated against
+ * {@link GameClient#getMemoryStats()}, and against the usage reported by memory warnings. Between calibrations the
+ * estimate is the calibrated usage plus the changes seen since.</p>
+ *
+ * <p>A {@link MemoryBudgetEvent} is posted to the <code>EventBus</code> of the client when the estimate reaches the
+ * warning fraction of the budget, and again when it falls back below.</p>
+ *
+ * <pre>
+ * {@code
+ * MemoryAccountant accountant = new MemoryAccountant(gameClient);
+ * accountant.start();
+ * }
+ * </pre>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         MemoryGovernor
+ *
+ * @since       3.3.0
+ */
+public class MemoryAccountant {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default fraction of the budget at which the estimated usage is near the budget
+     */
+    public static final double DEFAULT_WARNING_RATIO = 0.7;
+
+    /**
+     * Default time, in milliseconds, between calibrations against the usage reported by the Interactive service
+     */
+    public static final long DEFAULT_CALIBRATION_INTERVAL_MILLIS = 30000;
+
+    /**
+     * Parameter keys of the requests accounted for
+     */
+    private static final String PARAM_KEY_SCENES = "scenes";
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+    private static final String PARAM_KEY_GROUPS = "groups";
+    private static final String PARAM_KEY_GROUP_ID = "groupID";
+    private static final String PARAM_KEY_CONTROLS = "controls";
+    private static final String PARAM_KEY_CONTROL_ID = "controlID";
+    private static final String PARAM_KEY_CONTROL_IDS = "controlIDs";
+    private static final String PARAM_KEY_PARTICIPANTS = "participants";
+    private static final String PARAM_KEY_SESSION_ID = "sessionID";
+    private static final String PARAM_KEY_META = "meta";
+
+    /**
+     * The <code>GameClient</code> whose requests are accounted for
+     */
+    private final GameClient gameClient;
+
+    /**
+     * Number of bytes the Interactive integration is budgeted to use, or <code>0</code> to use the total reported by
+     * the Interactive service
+     */
+    private final long budgetBytes;
+
+    /**
+     * Fraction of the budget at which the estimated usage is near the budget
+     */
+    private final double warningRatio;
+
+    /**
+     * Time, in milliseconds, between calibrations
+     */
+    private final long calibrationIntervalMillis;
+
+    /**
+     * Estimated bytes of each scene, excluding its controls, by scene identifier
+     */
+    private final Map<String, Long> sceneBytes = new HashMap<>();
+
+    /**
+     * Estimated bytes of each control, by scene identifier and control identifier
+     */
+    private final Map<String, Map<String, Long>> controlBytes = new HashMap<>();
+
+    /**
+     * Estimated bytes of each group, by group identifier
+     */
+    private final Map<String, Long> groupBytes = new HashMap<>();
+
+    /**
+     * Estimated bytes of the <code>meta</code> properties of each participant, by session identifier
+     */
+    private final Map<String, Long> participantMetaBytes = new HashMap<>();
+
+    /**
+     * Sum of the estimated bytes of every resource seen, guarded by this accountant
+     */
+    private long trackedBytes;
+
+    /**
+     * Usage reported by the Interactive service at the last calibration, or <code>-1</code> if never calibrated,
+     * guarded by this accountant
+     */
+    private long calibratedBytes = -1;
+
+    /**
+     * Sum of the estimated bytes of every resource seen at the last calibration, guarded by this accountant
+     */
+    private long trackedBytesAtCalibration;
+
+    /**
+     * Total bytes the Interactive integration may use, as last reported by the Interactive service, or <code>0</code>
+     * if never reported
+     */
+    private volatile long reportedTotalBytes;
+
+    /**
+     * Whether the estimated usage was near the budget when last checked, guarded by this accountant
+     */
+    private boolean nearBudget;
+
+    /**
+     * Periodic calibration, or <code>null</code> if the accountant is not started
+     */
+    private ScheduledFuture<?> calibration;
+
+    /**
+     * Initializes a new <code>MemoryAccountant</code> budgeting the total reported by the Interactive service, warning
+     * at {@link #DEFAULT_WARNING_RATIO} of it, and calibrating every {@link #DEFAULT_CALIBRATION_INTERVAL_MILLIS}
+     * milliseconds.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> whose requests are accounted for
+     *
+     * @since   3.3.0
+     */
+    public MemoryAccountant(GameClient gameClient) {
+        this(gameClient, 0, DEFAULT_WARNING_RATIO, DEFAULT_CALIBRATION_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Initializes a new <code>MemoryAccountant</code>.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> whose requests are accounted for
+     * @param   budgetBytes
+     *          Number of bytes the Interactive integration is budgeted to use, or <code>0</code> to use the total
+     *          reported by the Interactive service
+     * @param   warningRatio
+     *          Fraction of the budget at which the estimated usage is near the budget
+     * @param   calibrationIntervalMillis
+     *          Time, in milliseconds, between calibrations, or <code>0</code> to only calibrate on demand and on
+     *          memory warnings
+     *
+     * @since   3.3.0
+     */
+    public MemoryAccountant(GameClient gameClient, long budgetBytes, double warningRatio, long calibrationIntervalMillis) {
+        if (gameClient == null) {
+            LOG.fatal("A game client is required");
+            throw new IllegalArgumentException("A game client is required");
+        }
+        if (budgetBytes < 0 || warningRatio <= 0 || warningRatio > 1 || calibrationIntervalMillis < 0) {
+            LOG.fatal("A non-negative budget and calibration interval, and a warning ratio in (0, 1] are required");
+            throw new IllegalArgumentException("A non-negative budget and calibration interval, and a warning ratio in (0, 1] are required");
+        }
+        this.gameClient = gameClient;
+        this.budgetBytes = budgetBytes;
+        this.warningRatio = warningRatio;
+        this.calibrationIntervalMillis = calibrationIntervalMillis;
+    }
+
+    /**
+     * Starts accounting for the requests of the <code>GameClient</code>, registering with its <code>EventBus</code>
+     * and calibrating periodically.
+     *
+     * @since   3.3.0
+     */
+    public synchronized void start() {
+        if (calibration != null) {
+            return;
+        }
+        gameClient.setMemoryAccountant(this);
+        gameClient.getEventBus().register(this);
+        Runnable calibrate = this::calibrate;
+        calibration = calibrationIntervalMillis > 0
+                ? gameClient.getExecutorService().scheduleWithFixedDelay(calibrate, 0, calibrationIntervalMillis, TimeUnit.MILLISECONDS)
+                : gameClient.getExecutorService().schedule(calibrate, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops accounting for the requests of the <code>GameClient</code>.
+     *
+     * @since   3.3.0
+     */
+    public synchronized void stop() {
+        if (calibration == null) {
+            return;
+        }
+        calibration.cancel(false);
+        calibration = null;
+        gameClient.getEventBus().unregister(this);
+        if (gameClient.getMemoryAccountant() == this) {
+            gameClient.setMemoryAccountant(null);
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes the Interactive integration uses on the Interactive service.
+     *
+     * @return  The estimated usage, in bytes
+     *
+     * @since   3.3.0
+     */
+    public synchronized long getEstimatedBytes() {
+        return calibratedBytes < 0 ? trackedBytes : Math.max(0, calibratedBytes + trackedBytes - trackedBytesAtCalibration);
+    }
+
+    /**
+     * Returns the number of bytes the Interactive integration is budgeted to use.
+     *
+     * @return  The budget, in bytes, or <code>0</code> if it is the total reported by the Interactive service and none
+     *          has been reported yet
+     *
+     * @since   3.3.0
+     */
+    public long getBudgetBytes() {
+        return budgetBytes > 0 ? budgetBytes : reportedTotalBytes;
+    }
+
+    /**
+     * Returns whether the estimated usage is near the budget.
+     *
+     * @return  <code>true</code> if the estimated usage has reached the warning fraction of the budget,
+     *          <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public synchronized boolean isNearBudget() {
+        return nearBudget;
+    }
+
+    /**
+     * Calibrates the estimate against the usage reported by the Interactive service.
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the estimated usage after calibration
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<Long> calibrate() {
+        if (!gameClient.isConnected()) {
+            return CompletableFuture.completedFuture(getEstimatedBytes());
+        }
+        return gameClient.getMemoryStats().handle((stats, throwable) -> {
+            if (throwable != null) {
+                LOG.debug("Could not calibrate the estimated memory usage", throwable);
+            }
+            else {
+                calibrate(stats.getUsedBytes(), stats.getTotalBytes());
+            }
+            return getEstimatedBytes();
+        });
+    }
+
+    /**
+     * Calibrates the estimate against the usage reported by a memory warning.
+     *
+     * @param   event
+     *          The <code>MemoryWarningEvent</code> reporting the usage
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onMemoryWarning(MemoryWarningEvent event) {
+        calibrate(event.getUsedBytes(), event.getTotalBytes());
+    }
+
+    /**
+     * Discards the <code>meta</code> properties of participants that have left.
+     *
+     * @param   event
+     *          The <code>ParticipantLeaveEvent</code> for the participants that have left
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onParticipantLeave(ParticipantLeaveEvent event) {
+        if (event.getParticipants() == null) {
+            return;
+        }
+        MemoryBudgetEvent budgetEvent;
+        synchronized (this) {
+            for (InteractiveParticipant participant : event.getParticipants()) {
+                remove(participantMetaBytes, participant.getSessionID());
+            }
+            budgetEvent = checkBudget();
+        }
+        post(budgetEvent);
+    }
+
+    /**
+     * Accounts for the requests in a frame once the Interactive service acknowledges them. Called by the
+     * <code>RemoteProcedureCallServiceProvider</code> for each frame it sends.
+     *
+     * @param   sentPackets
+     *          The <code>MethodPackets</code> contained in the frame
+     * @param   requestPromiseMap
+     *          <code>Map</code> of the <code>MethodPackets</code> and their reply promises
+     *
+     * @since   3.3.0
+     */
+    public void track(Collection<MethodPacket> sentPackets, Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap) {
+        for (MethodPacket requestPacket : sentPackets) {
+            if (!isAccountedFor(requestPacket.getMethod())) {
+                continue;
+            }
+            CompletableFuture<ReplyPacket> replyPromise = requestPromiseMap.get(requestPacket);
+            if (requestPacket.getDiscard() || replyPromise == null) {
+                apply(requestPacket);
+            }
+            else {
+                replyPromise.thenAccept(replyPacket -> {
+                    if (replyPacket != null && !replyPacket.hasError()) {
+                        apply(requestPacket);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Calibrates the estimate against the reported usage.
+     *
+     * @param   usedBytes
+     *          Number of bytes used, as reported by the Interactive service
+     * @param   totalBytes
+     *          Number of bytes the Interactive integration may use, as reported by the Interactive service
+     *
+     * @since   3.3.0
+     */
+    private void calibrate(long usedBytes, long totalBytes) {
+        MemoryBudgetEvent budgetEvent;
+        synchronized (this) {
+            LOG.debug("Estimated memory usage of {} bytes calibrated to {} bytes", getEstimatedBytes(), usedBytes);
+            reportedTotalBytes = totalBytes;
+            calibratedBytes = usedBytes;
+            trackedBytesAtCalibration = trackedBytes;
+            budgetEvent = checkBudget();
+        }
+        post(budgetEvent);
+    }
+
+    /**
+     * Applies an acknowledged request to the estimate.
+     *
+     * @param   requestPacket
+     *          The acknowledged request
+     *
+     * @since   3.3.0
+     */
+    private void apply(MethodPacket requestPacket) {
+        JsonObject params = getParams(requestPacket);
+        if (params == null) {
+            return;
+        }
+
+        MemoryBudgetEvent budgetEvent;
+        synchronized (this) {
+            switch (requestPacket.getMethod()) {
+                case CREATE_SCENES:
+                case UPDATE_SCENES: {
+                    boolean update = requestPacket.getMethod() == InteractiveMethod.UPDATE_SCENES;
+                    for (JsonElement scene : elements(params, PARAM_KEY_SCENES)) {
+                        String sceneID = string(scene, PARAM_KEY_SCENE_ID);
+                        JsonObject ownProperties = copyWithout(scene.getAsJsonObject(), PARAM_KEY_CONTROLS, PARAM_KEY_GROUPS);
+                        put(sceneBytes, sceneID, sizeOf(ownProperties), update);
+                        for (JsonElement control : elements(scene.getAsJsonObject(), PARAM_KEY_CONTROLS)) {
+                            put(controlBytes.computeIfAbsent(sceneID, key -> new HashMap<>()), string(control, PARAM_KEY_CONTROL_ID), sizeOf(control), update);
+                        }
+                    }
+                    break;
+                }
+                case DELETE_SCENE: {
+                    String sceneID = string(params, PARAM_KEY_SCENE_ID);
+                    remove(sceneBytes, sceneID);
+                    Map<String, Long> controls = controlBytes.remove(sceneID);
+                    if (controls != null) {
+                        controls.values().forEach(bytes -> trackedBytes -= bytes);
+                    }
+                    break;
+                }
+                case CREATE_CONTROLS:
+                case UPDATE_CONTROLS: {
+                    Map<String, Long> controls = controlBytes.computeIfAbsent(string(params, PARAM_KEY_SCENE_ID), key -> new HashMap<>());
+                    for (JsonElement control : elements(params, PARAM_KEY_CONTROLS)) {
+                        put(controls, string(control, PARAM_KEY_CONTROL_ID), sizeOf(control), requestPacket.getMethod() == InteractiveMethod.UPDATE_CONTROLS);
+                    }
+                    break;
+                }
+                case DELETE_CONTROLS: {
+                    Map<String, Long> controls = controlBytes.get(string(params, PARAM_KEY_SCENE_ID));
+                    if (controls != null) {
+                        for (JsonElement controlID : elements(params, PARAM_KEY_CONTROL_IDS)) {
+                            remove(controls, controlID.isJsonObject() ? string(controlID, PARAM_KEY_CONTROL_ID) : controlID.getAsString());
+                        }
+                    }
+                    break;
+                }
+                case CREATE_GROUPS:
+                case UPDATE_GROUPS: {
+                    for (JsonElement group : elements(params, PARAM_KEY_GROUPS)) {
+                        put(groupBytes, string(group, PARAM_KEY_GROUP_ID), sizeOf(group), requestPacket.getMethod() == InteractiveMethod.UPDATE_GROUPS);
+                    }
+                    break;
+                }
+                case DELETE_GROUP: {
+                    remove(groupBytes, string(params, PARAM_KEY_GROUP_ID));
+                    break;
+                }
+                case UPDATE_PARTICIPANTS: {
+                    for (JsonElement participant : elements(params, PARAM_KEY_PARTICIPANTS)) {
+                        JsonElement meta = participant.isJsonObject() ? participant.getAsJsonObject().get(PARAM_KEY_META) : null;
+                        if (meta != null && meta.isJsonObject()) {
+                            // Meta properties are replaced wholesale when emptied, as the memory governor does
+                            boolean emptied = meta.getAsJsonObject().entrySet().isEmpty();
+                            put(participantMetaBytes, string(participant, PARAM_KEY_SESSION_ID), emptied ? 0 : sizeOf(meta), !emptied);
+                        }
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+            budgetEvent = checkBudget();
+        }
+        post(budgetEvent);
+    }
+
+    /**
+     * Checks whether the estimated usage has come near the budget or fallen back below since the last check.
+     *
+     * @return  The <code>MemoryBudgetEvent</code> to post, or <code>null</code> if nothing changed
+     *
+     * @since   3.3.0
+     */
+    private synchronized MemoryBudgetEvent checkBudget() {
+        long budget = getBudgetBytes();
+        if (budget <= 0) {
+            return null;
+        }
+        long estimatedBytes = getEstimatedBytes();
+        boolean near = estimatedBytes >= budget * warningRatio;
+        if (near == nearBudget) {
+            return null;
+        }
+        nearBudget = near;
+        if (near) {
+            LOG.warn("Interactive integration is estimated to use {} of its {} byte budget", estimatedBytes, budget);
+        }
+        URI hostURI = gameClient.getWebSocketClient() != null ? gameClient.getWebSocketClient().getURI() : null;
+        return new MemoryBudgetEvent(gameClient.getProjectVersionId(), hostURI, near, estimatedBytes, budget);
+    }
+
+    /**
+     * Posts a <code>MemoryBudgetEvent</code> to the <code>EventBus</code> of the client, outside of any lock.
+     *
+     * @param   budgetEvent
+     *          The event to post, or <code>null</code> if there is none
+     *
+     * @since   3.3.0
+     */
+    private void post(MemoryBudgetEvent budgetEvent) {
+        if (budgetEvent != null) {
+            gameClient.getEventBus().post(budgetEvent);
+        }
+    }
+
+    /**
+     * Records the estimated bytes of a resource.
+     *
+     * @param   resources
+     *          Estimated bytes of the resources of its kind
+     * @param   resourceID
+     *          Identifier of the resource
+     * @param   bytes
+     *          Serialized size of the resource, or of its update
+     * @param   update
+     *          Whether an update is merged into the resource, rather than replacing it
+     *
+     * @since   3.3.0
+     */
+    private void put(Map<String, Long> resources, String resourceID, long bytes, boolean update) {
+        if (resourceID == null) {
+            return;
+        }
+        Long previous = resources.get(resourceID);
+        long estimated = update && previous != null ? Math.max(previous, bytes) : bytes;
+        resources.put(resourceID, estimated);
+        trackedBytes += estimated - (previous != null ? previous : 0);
+    }
+
+    /**
+     * Discards the estimated bytes of a resource.
+     *
+     * @param   resources
+     *          Estimated bytes of the resources of its kind
+     * @param   resourceID
+     *          Identifier of the resource
+     *
+     * @since   3.3.0
+     */
+    private void remove(Map<String, Long> resources, String resourceID) {
+        Long previous = resourceID != null ? resources.remove(resourceID) : null;
+        if (previous != null) {
+            trackedBytes -= previous;
+        }
+    }
+
+    /**
+     * Returns whether requests of a method change the memory used on the Interactive service.
+     *
+     * @param   method
+     *          The method of a request
+     *
+     * @return  <code>true</code> if requests of the method are accounted for, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private static boolean isAccountedFor(InteractiveMethod method) {
+        if (method == null) {
+            return false;
+        }
+        switch (method) {
+            case CREATE_SCENES:
+            case UPDATE_SCENES:
+            case DELETE_SCENE:
+            case CREATE_CONTROLS:
+            case UPDATE_CONTROLS:
+            case DELETE_CONTROLS:
+            case CREATE_GROUPS:
+            case UPDATE_GROUPS:
+            case DELETE_GROUP:
+            case UPDATE_PARTICIPANTS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the parameters of a request, including an encoded parameter if it has one.
+     *
+     * @param   requestPacket
+     *          The request
+     *
+     * @return  The parameters of the request, or <code>null</code> if it has none
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject getParams(MethodPacket requestPacket) {
+        JsonElement params = requestPacket.getRequestParameters();
+        if (params == null || !params.isJsonObject()) {
+            return null;
+        }
+        if (requestPacket instanceof EncodedMethodPacket) {
+            return ((EncodedMethodPacket) requestPacket).getDecodedParameters();
+        }
+        return params.getAsJsonObject();
+    }
+
+    /**
+     * Returns the elements of an array parameter.
+     *
+     * @param   params
+     *          The parameters
+     * @param   name
+     *          Name of the array parameter
+     *
+     * @return  The elements of the array, or none if there is no such array
+     *
+     * @since   3.3.0
+     */
+    private static Iterable<JsonElement> elements(JsonObject params, String name) {
+        JsonElement array = params.get(name);
+        return array != null && array.isJsonArray() ? array.getAsJsonArray() : Collections.emptyList();
+    }
+
+    /**
+     * Returns a string property of an object.
+     *
+     * @param   element
+     *          The object
+     * @param   name
+     *          Name of the property
+     *
+     * @return  The value of the property, or <code>null</code> if there is none
+     *
+     * @since   3.3.0
+     */
+    private static String string(JsonElement element, String name) {
+        JsonElement value = element.isJsonObject() ? element.getAsJsonObject().get(name) : null;
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    /**
+     * Returns a shallow copy of an object without the named properties.
+     *
+     * @param   object
+     *          The object
+     * @param   names
+     *          Names of the properties left out
+     *
+     * @return  The copy of the object
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject copyWithout(JsonObject object, String ... names) {
+        List<String> leftOut = Arrays.asList(names);
+        JsonObject copy = new JsonObject();
+        for (Map.Entry<String, JsonElement> property : object.entrySet()) {
+            if (!leftOut.contains(property.getKey())) {
+                copy.add(property.getKey(), property.getValue());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the serialized size of an element.
+     *
+     * @param   element
+     *          The element
+     *
+     * @return  The size of the element serialized as JSON, in bytes
+     *
+     * @since   3.3.0
+     */
+    private static long sizeOf(JsonElement element) {
+        return Utf8.encodedLength(element.toString());
+    }
+}
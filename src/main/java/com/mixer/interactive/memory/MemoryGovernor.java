@@ -0,0 +1,372 @@
+package com.mixer.interactive.memory;
+
+import com.google.common.eventbus.Subscribe;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.core.MemoryWarningEvent;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.resources.core.InteractiveResourceMemoryStatistic;
+import com.mixer.interactive.services.RemoteProcedureCallServiceProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
+
+/**
+ * <p>Trims the memory used by an Interactive integration on the Interactive service when it runs short, before the
+ * integration is cut off.</p>
+ *
+ * <p>Once registered with the <code>EventBus</code> of its <code>GameClient</code>, the governor reacts to every
+ * <code>MemoryWarningEvent</code>. It asks its policies, in order, to plan requests freeing memory until enough bytes
+ * would be freed to bring the usage down to the target, and sends the requests of all of them as a single batch. It
+ * then keeps checking the usage reported by the Interactive service, trimming again as needed, until the usage is at
+ * or below the target or a number of rounds have passed.</p>
+ *
+ * <pre>
+ * {@code
+ * MemoryGovernor governor = new MemoryGovernor(gameClient, 0.6,
+ *         MemoryTrimPolicies.stripParticipantMeta(), MemoryTrimPolicies.deleteStaleScenes());
+ * gameClient.getEventBus().register(governor);
+ * }
+ * </pre>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         IMemoryTrimPolicy
+ * @see         MemoryTrimPolicies
+ *
+ * @since       3.3.0
+ */
+public class MemoryGovernor {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default time, in milliseconds, between checks of the usage while trimming
+     */
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Default maximum number of batches of requests sent before giving up on reaching the target
+     */
+    public static final int DEFAULT_MAX_ROUNDS = 5;
+
+    /**
+     * The <code>GameClient</code> whose Interactive integration is trimmed
+     */
+    private final GameClient gameClient;
+
+    /**
+     * Fraction of the bytes the Interactive integration may use that the usage is trimmed down to
+     */
+    private final double targetUsage;
+
+    /**
+     * Policies asked to plan requests, in order
+     */
+    private final List<IMemoryTrimPolicy> policies;
+
+    /**
+     * Time, in milliseconds, between checks of the usage while trimming
+     */
+    private final long checkIntervalMillis;
+
+    /**
+     * Maximum number of batches of requests sent before giving up on reaching the target
+     */
+    private final int maxRounds;
+
+    /**
+     * Result of the trimming in progress, or <code>null</code> if the governor is not trimming
+     */
+    private final AtomicReference<CompletableFuture<Boolean>> trimming = new AtomicReference<>();
+
+    /**
+     * Initializes a new <code>MemoryGovernor</code> checking the usage every
+     * {@link #DEFAULT_CHECK_INTERVAL_MILLIS} milliseconds for at most {@link #DEFAULT_MAX_ROUNDS} rounds.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> whose Interactive integration is trimmed
+     * @param   targetUsage
+     *          Fraction of the bytes the Interactive integration may use that the usage is trimmed down to
+     * @param   policies
+     *          Policies asked to plan requests, in order
+     *
+     * @since   3.3.0
+     */
+    public MemoryGovernor(GameClient gameClient, double targetUsage, IMemoryTrimPolicy ... policies) {
+        this(gameClient, targetUsage, DEFAULT_CHECK_INTERVAL_MILLIS, DEFAULT_MAX_ROUNDS, policies != null ? Arrays.asList(policies) : null);
+    }
+
+    /**
+     * Initializes a new <code>MemoryGovernor</code>.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> whose Interactive integration is trimmed
+     * @param   targetUsage
+     *          Fraction of the bytes the Interactive integration may use that the usage is trimmed down to
+     * @param   checkIntervalMillis
+     *          Time, in milliseconds, between checks of the usage while trimming
+     * @param   maxRounds
+     *          Maximum number of batches of requests sent before giving up on reaching the target
+     * @param   policies
+     *          Policies asked to plan requests, in order
+     *
+     * @since   3.3.0
+     */
+    public MemoryGovernor(GameClient gameClient, double targetUsage, long checkIntervalMillis, int maxRounds, List<IMemoryTrimPolicy> policies) {
+        if (gameClient == null) {
+            LOG.fatal("A game client is required");
+            throw new IllegalArgumentException("A game client is required");
+        }
+        if (targetUsage <= 0 || targetUsage >= 1) {
+            LOG.fatal("Target usage must be between 0 and 1 exclusive, was {}", targetUsage);
+            throw new IllegalArgumentException("Target usage must be between 0 and 1 exclusive, was " + targetUsage);
+        }
+        if (checkIntervalMillis < 0 || maxRounds < 1) {
+            LOG.fatal("A non-negative check interval and a positive number of rounds are required");
+            throw new IllegalArgumentException("A non-negative check interval and a positive number of rounds are required");
+        }
+        if (policies == null || policies.isEmpty() || policies.contains(null)) {
+            LOG.fatal("At least one trimming policy is required, and none can be null");
+            throw new IllegalArgumentException("At least one trimming policy is required, and none can be null");
+        }
+        this.gameClient = gameClient;
+        this.targetUsage = targetUsage;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.maxRounds = maxRounds;
+        this.policies = Collections.unmodifiableList(new ArrayList<>(policies));
+    }
+
+    /**
+     * Returns whether the governor is trimming the memory used by the Interactive integration.
+     *
+     * @return  <code>true</code> if the governor is trimming, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isTrimming() {
+        return trimming.get() != null;
+    }
+
+    /**
+     * Retrieves the memory used by the Interactive integration from the Interactive service, and trims it if it is
+     * above the target. If the governor is already trimming, the trimming in progress is returned instead.
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns <code>true</code> if the usage is at or
+     *          below the target, or <code>false</code> if the policies had nothing left to trim or the maximum number of
+     *          rounds passed first
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<Boolean> trim() {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        while (!trimming.compareAndSet(null, result)) {
+            CompletableFuture<Boolean> inProgress = trimming.get();
+            if (inProgress != null) {
+                return inProgress;
+            }
+        }
+        checkAndTrim(1, result);
+        return finish(result);
+    }
+
+    /**
+     * Trims the memory used by the Interactive integration when the Interactive service warns that it is running
+     * short, unless the governor is already trimming. Takes effect when this governor is registered with the
+     * <code>EventBus</code> of its <code>GameClient</code>.
+     *
+     * @param   event
+     *          The <code>MemoryWarningEvent</code> reporting the memory used
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onMemoryWarning(MemoryWarningEvent event) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (trimming.compareAndSet(null, result)) {
+            LOG.warn("Interactive integration uses {} of {} bytes, trimming it", event.getUsedBytes(), event.getTotalBytes());
+            trim(toPressure(event.getUsedBytes(), event.getTotalBytes(), event.getResourceMemoryStatistics()), 1, result);
+            finish(result);
+        }
+    }
+
+    /**
+     * Clears the trimming in progress once it completes.
+     *
+     * @param   result
+     *          Result of the trimming
+     *
+     * @return  The result of the trimming
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<Boolean> finish(CompletableFuture<Boolean> result) {
+        result.whenComplete((reachedTarget, throwable) -> {
+            trimming.compareAndSet(result, null);
+            if (throwable != null) {
+                LOG.error("Trimming the memory used by the Interactive integration failed", throwable);
+            }
+            else if (!reachedTarget) {
+                LOG.warn("Could not trim the memory used by the Interactive integration down to the target");
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Retrieves the memory used by the Interactive integration, and trims it if it is above the target.
+     *
+     * @param   round
+     *          Number of the round of trimming
+     * @param   result
+     *          Result of the trimming
+     *
+     * @since   3.3.0
+     */
+    private void checkAndTrim(int round, CompletableFuture<Boolean> result) {
+        gameClient.getMemoryStats().whenComplete((stats, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            }
+            else {
+                LOG.debug("Interactive integration uses {} of {} bytes", stats.getUsedBytes(), stats.getTotalBytes());
+                trim(toPressure(stats.getUsedBytes(), stats.getTotalBytes(), stats.getResourceMemoryStats()), round, result);
+            }
+        });
+    }
+
+    /**
+     * Runs a round of trimming, sending the requests planned by the policies as a single batch, then checks the usage
+     * again once the check interval has passed.
+     *
+     * @param   pressure
+     *          The memory used by the Interactive integration
+     * @param   round
+     *          Number of the round of trimming
+     * @param   result
+     *          Result of the trimming
+     *
+     * @since   3.3.0
+     */
+    private void trim(MemoryPressure pressure, int round, CompletableFuture<Boolean> result) {
+        if (pressure.getBytesToFree() == 0) {
+            result.complete(true);
+            return;
+        }
+        if (round > maxRounds) {
+            result.complete(false);
+            return;
+        }
+
+        planRequests(pressure, 0, new ArrayList<>()).thenCompose(requests -> {
+            if (requests.isEmpty()) {
+                return CompletableFuture.completedFuture(false);
+            }
+            LOG.info("Sending {} requests to trim the memory used by the Interactive integration from {} to {} bytes", requests.size(), pressure.getUsedBytes(), pressure.getTargetBytes());
+            return send(requests).thenApply(sent -> true);
+        }).whenComplete((sent, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            }
+            else if (!sent) {
+                result.complete(false);
+            }
+            else {
+                gameClient.getExecutorService().schedule(() -> checkAndTrim(round + 1, result), checkIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    /**
+     * Asks the policies, starting with the one at the provided index, to plan requests until enough bytes would be
+     * freed.
+     *
+     * @param   pressure
+     *          The memory used by the Interactive integration
+     * @param   index
+     *          Index of the next policy to ask
+     * @param   requests
+     *          Requests planned by the policies asked so far
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the planned requests
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<List<MemoryTrimRequest>> planRequests(MemoryPressure pressure, int index, List<MemoryTrimRequest> requests) {
+        long expectedBytes = requests.stream().mapToLong(MemoryTrimRequest::getExpectedBytes).sum();
+        if (index == policies.size() || expectedBytes >= pressure.getBytesToFree()) {
+            return CompletableFuture.completedFuture(requests);
+        }
+        return policies.get(index).plan(gameClient, pressure.afterFreeing(expectedBytes)).thenCompose(planned -> {
+            if (planned != null) {
+                requests.addAll(planned);
+            }
+            return planRequests(pressure, index + 1, requests);
+        });
+    }
+
+    /**
+     * Sends the planned requests as a single batch. Requests the Interactive service rejects are logged, as the next
+     * check of the usage finds out whether enough memory was freed regardless.
+     *
+     * @param   requests
+     *          The planned requests
+     *
+     * @return  A <code>CompletableFuture</code> that completes once every request has been replied to or failed
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<Void> send(List<MemoryTrimRequest> requests) {
+        RemoteProcedureCallServiceProvider rpc = gameClient.using(RPC_SERVICE_PROVIDER);
+        List<MethodPacket> requestPackets = new ArrayList<>(requests.size());
+        for (MemoryTrimRequest request : requests) {
+            requestPackets.add(new MethodPacket(rpc.claimNextPacketId(), request.getMethod(), request.getParams()));
+        }
+
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> replyPromises = rpc.send(requestPackets);
+        CompletableFuture<?>[] replies = new CompletableFuture<?>[requestPackets.size()];
+        for (int i = 0; i < requestPackets.size(); i++) {
+            MethodPacket requestPacket = requestPackets.get(i);
+            CompletableFuture<ReplyPacket> replyPromise = replyPromises.get(requestPacket);
+            replies[i] = replyPromise == null ? CompletableFuture.completedFuture(null) : replyPromise.handle((replyPacket, throwable) -> {
+                if (throwable != null || replyPacket == null || replyPacket.hasError()) {
+                    LOG.warn("Request {} to trim memory failed: {}", requestPacket.getMethod(), throwable != null ? throwable : replyPacket != null ? replyPacket.getError() : "no reply");
+                }
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(replies);
+    }
+
+    /**
+     * Returns the memory pressure for the reported usage.
+     *
+     * @param   usedBytes
+     *          Number of bytes used by the Interactive integration
+     * @param   totalBytes
+     *          Number of bytes the Interactive integration may use
+     * @param   resources
+     *          Statistics of the top level resources
+     *
+     * @return  The memory pressure
+     *
+     * @since   3.3.0
+     */
+    private MemoryPressure toPressure(long usedBytes, long totalBytes, Collection<InteractiveResourceMemoryStatistic> resources) {
+        return new MemoryPressure(usedBytes, totalBytes, (long) (totalBytes * targetUsage), resources);
+    }
+}
@@ -0,0 +1,209 @@
+package com.mixer.interactive.memory;
+
+import com.mixer.interactive.resources.core.InteractiveResourceMemoryStatistic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the memory used by an Interactive integration, as reported by the Interactive service, along with
+ * the usage a {@link MemoryGovernor} is trimming it down to.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         IMemoryTrimPolicy
+ *
+ * @since       3.3.0
+ */
+public class MemoryPressure {
+
+    /**
+     * Number of bytes used by the Interactive integration
+     */
+    private final long usedBytes;
+
+    /**
+     * Number of bytes the Interactive integration may use
+     */
+    private final long totalBytes;
+
+    /**
+     * Number of bytes the usage is being trimmed down to
+     */
+    private final long targetBytes;
+
+    /**
+     * Statistics of every resource, from the one using the most bytes to the one using the least
+     */
+    private final List<InteractiveResourceMemoryStatistic> rankedResources;
+
+    /**
+     * Cumulative number of bytes used by each resource, by resource identifier
+     */
+    private final Map<String, Integer> resourceBytes;
+
+    /**
+     * Initializes a new <code>MemoryPressure</code>.
+     *
+     * @param   usedBytes
+     *          Number of bytes used by the Interactive integration
+     * @param   totalBytes
+     *          Number of bytes the Interactive integration may use
+     * @param   targetBytes
+     *          Number of bytes the usage is being trimmed down to
+     * @param   resources
+     *          Statistics of the top level resources, as reported by the Interactive service
+     *
+     * @since   3.3.0
+     */
+    public MemoryPressure(long usedBytes, long totalBytes, long targetBytes, Collection<InteractiveResourceMemoryStatistic> resources) {
+        this.usedBytes = usedBytes;
+        this.totalBytes = totalBytes;
+        this.targetBytes = targetBytes;
+        this.resourceBytes = new HashMap<>();
+
+        List<InteractiveResourceMemoryStatistic> flattened = new ArrayList<>();
+        Deque<InteractiveResourceMemoryStatistic> pending = new ArrayDeque<>();
+        if (resources != null) {
+            pending.addAll(resources);
+        }
+        while (!pending.isEmpty()) {
+            InteractiveResourceMemoryStatistic resource = pending.poll();
+            flattened.add(resource);
+            if (resource.getResourceID() != null) {
+                resourceBytes.merge(resource.getResourceID(), resource.getCumulativeBytes(), Math::max);
+            }
+            if (resource.getResourceMemoryStats() != null) {
+                pending.addAll(resource.getResourceMemoryStats());
+            }
+        }
+        flattened.sort(Comparator.comparingInt(InteractiveResourceMemoryStatistic::getCumulativeBytes).reversed());
+        this.rankedResources = Collections.unmodifiableList(flattened);
+    }
+
+    /**
+     * Initializes a new <code>MemoryPressure</code> sharing the resource statistics of another.
+     *
+     * @param   pressure
+     *          The <code>MemoryPressure</code> whose resource statistics are shared
+     * @param   usedBytes
+     *          Number of bytes used by the Interactive integration
+     *
+     * @since   3.3.0
+     */
+    private MemoryPressure(MemoryPressure pressure, long usedBytes) {
+        this.usedBytes = usedBytes;
+        this.totalBytes = pressure.totalBytes;
+        this.targetBytes = pressure.targetBytes;
+        this.rankedResources = pressure.rankedResources;
+        this.resourceBytes = pressure.resourceBytes;
+    }
+
+    /**
+     * Returns the number of bytes used by the Interactive integration.
+     *
+     * @return  The number of bytes used
+     *
+     * @since   3.3.0
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Returns the number of bytes the Interactive integration may use.
+     *
+     * @return  The number of bytes the Interactive integration may use
+     *
+     * @since   3.3.0
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the number of bytes the usage is being trimmed down to.
+     *
+     * @return  The target usage, in bytes
+     *
+     * @since   3.3.0
+     */
+    public long getTargetBytes() {
+        return targetBytes;
+    }
+
+    /**
+     * Returns the number of bytes to free for the usage to reach the target.
+     *
+     * @return  The number of bytes to free, or <code>0</code> if the usage is at or below the target
+     *
+     * @since   3.3.0
+     */
+    public long getBytesToFree() {
+        return Math.max(0, usedBytes - targetBytes);
+    }
+
+    /**
+     * Returns the statistics of every resource, including nested ones, from the one using the most bytes to the one
+     * using the least.
+     *
+     * @return  The ranked resource statistics
+     *
+     * @since   3.3.0
+     */
+    public List<InteractiveResourceMemoryStatistic> getRankedResources() {
+        return rankedResources;
+    }
+
+    /**
+     * Returns the cumulative number of bytes reported for a resource, including the resources it contains.
+     *
+     * @param   resourceID
+     *          Identifier of the resource
+     *
+     * @return  The number of bytes used by the resource, or <code>0</code> if none were reported for it
+     *
+     * @since   3.3.0
+     */
+    public long getResourceBytes(String resourceID) {
+        Integer bytes = resourceBytes.get(resourceID);
+        return bytes != null ? bytes : 0;
+    }
+
+    /**
+     * Returns the memory pressure once the provided number of bytes have been freed, as seen by the policies asked
+     * after others have already planned requests.
+     *
+     * @param   freedBytes
+     *          Number of bytes expected to be freed
+     *
+     * @return  The memory pressure once the bytes have been freed
+     *
+     * @since   3.3.0
+     */
+    MemoryPressure afterFreeing(long freedBytes) {
+        return freedBytes == 0 ? this : new MemoryPressure(this, Math.max(0, usedBytes - freedBytes));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "MemoryPressure{" +
+                "usedBytes=" + usedBytes +
+                ", totalBytes=" + totalBytes +
+                ", targetBytes=" + targetBytes +
+                ", resources=" + rankedResources.size() +
+                '}';
+    }
+}
@@ -0,0 +1,199 @@
+package com.mixer.interactive.memory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.PARTICIPANT_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * The trimming policies provided with the <code>GameClient</code>. Each one ranks the resources it can trim by the
+ * number of bytes the Interactive service reports for them, and plans requests for the largest ones until enough bytes
+ * would be freed.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         MemoryGovernor
+ *
+ * @since       3.3.0
+ */
+public final class MemoryTrimPolicies {
+
+    /**
+     * Identifier of the default scene and default group, which are never trimmed
+     */
+    private static final String DEFAULT_ID = "default";
+
+    /**
+     * Parameter keys used by the planned requests
+     */
+    private static final String PARAM_KEY_PRIORITY = "priority";
+    private static final String PARAM_KEY_PARTICIPANTS = "participants";
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+    private static final String PARAM_KEY_REASSIGN_SCENE_ID = "reassignSceneID";
+    private static final String PARAM_KEY_GROUP_ID = "groupID";
+    private static final String PARAM_KEY_REASSIGN_GROUP_ID = "reassignGroupID";
+
+    /**
+     * Prevents instantiation.
+     *
+     * @since   3.3.0
+     */
+    private MemoryTrimPolicies() {
+        // NO-OP
+    }
+
+    /**
+     * Returns a policy that replaces the <code>meta</code> properties of participants with an empty object, starting
+     * with the participants whose properties are the largest. The planned updates are sent as a single request.
+     *
+     * @return  A policy stripping the <code>meta</code> properties of participants
+     *
+     * @since   3.3.0
+     */
+    public static IMemoryTrimPolicy stripParticipantMeta() {
+        return (gameClient, pressure) -> gameClient.using(PARTICIPANT_SERVICE_PROVIDER).getAllParticipants().thenApply(participants -> {
+            ToLongFunction<InteractiveParticipant> size = participant -> Math.max(pressure.getResourceBytes(participant.getSessionID()), sizeOf(participant.getMeta()));
+            List<InteractiveParticipant> candidates = new ArrayList<>();
+            for (InteractiveParticipant participant : participants) {
+                if (participant.getMeta() != null && !participant.getMeta().entrySet().isEmpty()) {
+                    candidates.add(participant);
+                }
+            }
+            candidates.sort(Comparator.comparingLong(size).reversed());
+
+            JsonArray strippedParticipants = new JsonArray();
+            long expectedBytes = 0;
+            for (InteractiveParticipant participant : candidates) {
+                if (expectedBytes >= pressure.getBytesToFree()) {
+                    break;
+                }
+                expectedBytes += size.applyAsLong(participant);
+                strippedParticipants.add(participant.setMeta(new JsonObject()).toJsonTree());
+            }
+            if (strippedParticipants.size() == 0) {
+                return Collections.emptyList();
+            }
+
+            JsonObject params = new JsonObject();
+            params.addProperty(PARAM_KEY_PRIORITY, 0);
+            params.add(PARAM_KEY_PARTICIPANTS, strippedParticipants);
+            return Collections.singletonList(new MemoryTrimRequest(InteractiveMethod.UPDATE_PARTICIPANTS, params, null, expectedBytes));
+        });
+    }
+
+    /**
+     * Returns a policy that deletes stale scenes, being scenes that no group is on, starting with the largest. The
+     * default scene is never deleted.
+     *
+     * @return  A policy deleting stale scenes
+     *
+     * @since   3.3.0
+     */
+    public static IMemoryTrimPolicy deleteStaleScenes() {
+        return (gameClient, pressure) -> gameClient.using(SCENE_SERVICE_PROVIDER).getScenes()
+                .thenCombine(gameClient.using(GROUP_SERVICE_PROVIDER).getGroups(), (scenes, groups) -> {
+                    Set<String> sceneIDsInUse = new HashSet<>();
+                    for (InteractiveGroup group : groups) {
+                        sceneIDsInUse.add(group.getSceneID());
+                    }
+                    List<String> staleSceneIDs = new ArrayList<>();
+                    for (InteractiveScene scene : scenes) {
+                        if (!scene.isDefault() && !sceneIDsInUse.contains(scene.getSceneID())) {
+                            staleSceneIDs.add(scene.getSceneID());
+                        }
+                    }
+                    return plan(pressure, staleSceneIDs, sceneID -> {
+                        JsonObject params = new JsonObject();
+                        params.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+                        params.addProperty(PARAM_KEY_REASSIGN_SCENE_ID, DEFAULT_ID);
+                        return new MemoryTrimRequest(InteractiveMethod.DELETE_SCENE, params, sceneID, pressure.getResourceBytes(sceneID));
+                    });
+                });
+    }
+
+    /**
+     * Returns a policy that collapses groups into the default group, deleting them and moving their participants to
+     * the default group, starting with the largest.
+     *
+     * @return  A policy collapsing groups into the default group
+     *
+     * @since   3.3.0
+     */
+    public static IMemoryTrimPolicy collapseGroups() {
+        return (gameClient, pressure) -> gameClient.using(GROUP_SERVICE_PROVIDER).getGroups().thenApply(groups -> {
+            List<String> groupIDs = new ArrayList<>();
+            for (InteractiveGroup group : groups) {
+                if (!DEFAULT_ID.equals(group.getGroupID())) {
+                    groupIDs.add(group.getGroupID());
+                }
+            }
+            return plan(pressure, groupIDs, groupID -> {
+                JsonObject params = new JsonObject();
+                params.addProperty(PARAM_KEY_GROUP_ID, groupID);
+                params.addProperty(PARAM_KEY_REASSIGN_GROUP_ID, DEFAULT_ID);
+                return new MemoryTrimRequest(InteractiveMethod.DELETE_GROUP, params, groupID, pressure.getResourceBytes(groupID));
+            });
+        });
+    }
+
+    /**
+     * Plans a request for each of the largest resources until enough bytes would be freed.
+     *
+     * @param   pressure
+     *          The memory used by the Interactive integration
+     * @param   resourceIDs
+     *          Identifiers of the resources that may be trimmed
+     * @param   request
+     *          Plans the request trimming a resource
+     *
+     * @return  The planned requests
+     *
+     * @since   3.3.0
+     */
+    private static List<MemoryTrimRequest> plan(MemoryPressure pressure, List<String> resourceIDs, Function<String, MemoryTrimRequest> request) {
+        resourceIDs.sort(Comparator.comparingLong(pressure::getResourceBytes).reversed());
+        List<MemoryTrimRequest> requests = new ArrayList<>();
+        long expectedBytes = 0;
+        for (String resourceID : resourceIDs) {
+            if (expectedBytes >= pressure.getBytesToFree()) {
+                break;
+            }
+            MemoryTrimRequest trimRequest = request.apply(resourceID);
+            expectedBytes += trimRequest.getExpectedBytes();
+            requests.add(trimRequest);
+        }
+        return requests;
+    }
+
+    /**
+     * Returns the number of bytes the serialized form of a <code>meta</code> object takes up.
+     *
+     * @param   meta
+     *          The <code>meta</code> object
+     *
+     * @return  The size of the serialized object, in bytes
+     *
+     * @since   3.3.0
+     */
+    private static long sizeOf(JsonObject meta) {
+        return meta != null ? meta.toString().getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.mixer.interactive.memory;
+
+import com.google.gson.JsonObject;
+import com.mixer.interactive.protocol.InteractiveMethod;
+
+/**
+ * A request planned by an {@link IMemoryTrimPolicy} to free memory on the Interactive service, along with the number
+ * of bytes it is expected to free.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class MemoryTrimRequest {
+
+    /**
+     * Method of the request
+     */
+    private final InteractiveMethod method;
+
+    /**
+     * Parameters of the request
+     */
+    private final JsonObject params;
+
+    /**
+     * Identifier of the resource the request trims, or <code>null</code> if it trims several
+     */
+    private final String resourceID;
+
+    /**
+     * Number of bytes the request is expected to free
+     */
+    private final long expectedBytes;
+
+    /**
+     * Initializes a new <code>MemoryTrimRequest</code>.
+     *
+     * @param   method
+     *          Method of the request
+     * @param   params
+     *          Parameters of the request
+     * @param   resourceID
+     *          Identifier of the resource the request trims, or <code>null</code> if it trims several
+     * @param   expectedBytes
+     *          Number of bytes the request is expected to free
+     *
+     * @since   3.3.0
+     */
+    public MemoryTrimRequest(InteractiveMethod method, JsonObject params, String resourceID, long expectedBytes) {
+        this.method = method;
+        this.params = params;
+        this.resourceID = resourceID;
+        this.expectedBytes = expectedBytes;
+    }
+
+    /**
+     * Returns the method of the request.
+     *
+     * @return  The <code>InteractiveMethod</code> of the request
+     *
+     * @since   3.3.0
+     */
+    public InteractiveMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the parameters of the request.
+     *
+     * @return  The parameters of the request
+     *
+     * @since   3.3.0
+     */
+    public JsonObject getParams() {
+        return params;
+    }
+
+    /**
+     * Returns the identifier of the resource the request trims.
+     *
+     * @return  Identifier of the resource the request trims, or <code>null</code> if it trims several
+     *
+     * @since   3.3.0
+     */
+    public String getResourceID() {
+        return resourceID;
+    }
+
+    /**
+     * Returns the number of bytes the request is expected to free.
+     *
+     * @return  The number of bytes the request is expected to free
+     *
+     * @since   3.3.0
+     */
+    public long getExpectedBytes() {
+        return expectedBytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "MemoryTrimRequest{" +
+                "method=" + method +
+                ", resourceID='" + resourceID + '\'' +
+                ", expectedBytes=" + expectedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Contains classes for keeping the memory used by an Interactive integration on the Interactive service under control.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.memory;
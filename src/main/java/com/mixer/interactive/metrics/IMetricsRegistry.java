@@ -0,0 +1,154 @@
+package com.mixer.interactive.metrics;
+
+import com.mixer.interactive.protocol.InteractiveError;
+import com.mixer.interactive.protocol.InteractiveMethod;
+
+/**
+ * Interface that defines the callbacks a <code>GameClient</code> makes as method requests are sent to, and replies are
+ * received from, the Interactive service. All callbacks are made on the hot path of the client, so implementations are
+ * expected to be non-blocking and thread-safe.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         NoOpMetricsRegistry
+ * @see         InteractiveMetricsRegistry
+ *
+ * @since       3.3.0
+ */
+public interface IMetricsRegistry {
+
+    /**
+     * Returns <code>true</code> if this registry records metrics. When <code>false</code> the client skips all work
+     * needed to produce metrics (timestamps, size calculations, completion listeners).
+     *
+     * @return  <code>true</code> if this registry records metrics, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    boolean isEnabled();
+
+    /**
+     * Called when a method request has been sent to the Interactive service.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> of the request
+     * @param   bytes
+     *          Number of bytes attributed to the request in the outbound frame
+     * @param   batchSize
+     *          Number of requests sent in the same frame as this request
+     * @param   awaitingReply
+     *          <code>true</code> if a reply is expected for this request, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    void requestSent(InteractiveMethod method, int bytes, int batchSize, boolean awaitingReply);
+
+    /**
+     * Called when a reply for a method request has been received from the Interactive service.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> of the request
+     * @param   latencyNanos
+     *          Time, in nanoseconds, from the request being sent until the reply was received
+     * @param   error
+     *          The <code>InteractiveError</code> in the reply, <code>null</code> if the reply has no error
+     *
+     * @since   3.3.0
+     */
+    void replyReceived(InteractiveMethod method, long latencyNanos, InteractiveError error);
+
+    /**
+     * Called when no reply for a method request was received before the request timed out.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> of the request
+     * @param   elapsedNanos
+     *          Time, in nanoseconds, from the request being sent until it timed out
+     *
+     * @since   3.3.0
+     */
+    void requestTimedOut(InteractiveMethod method, long elapsedNanos);
+
+    /**
+     * Called when a method request awaiting a reply was cancelled before a reply was received, either by cancelling
+     * its future or its <code>CancellationToken</code>.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> of the request
+     * @param   elapsedNanos
+     *          Time, in nanoseconds, from the request being sent until it was cancelled
+     *
+     * @since   3.3.0
+     */
+    void requestCancelled(InteractiveMethod method, long elapsedNanos);
+
+    /**
+     * Called when a method request awaiting a reply failed without one, other than by timing out or being cancelled,
+     * such as when its frame was dropped from the outbound buffer or could not be handed to the socket.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> of the request
+     * @param   elapsedNanos
+     *          Time, in nanoseconds, from the request being sent until it failed
+     * @param   cause
+     *          Why the request failed
+     *
+     * @since   3.3.0
+     */
+    void requestFailed(InteractiveMethod method, long elapsedNanos, Throwable cause);
+
+    /**
+     * Called when bytes attributed to a method are received from the Interactive service.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> the bytes are attributed to
+     * @param   bytes
+     *          Number of bytes received
+     *
+     * @since   3.3.0
+     */
+    void bytesReceived(InteractiveMethod method, int bytes);
+
+    /**
+     * Called when the time a request waits for its reply has been decided, just before it is sent.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> of the request
+     * @param   timeoutNanos
+     *          Time, in nanoseconds, the request waits for its reply
+     * @param   adapted
+     *          <code>true</code> if the timeout was adapted to the round trips observed for the method
+     *
+     * @since   3.3.0
+     */
+    void timeoutScheduled(InteractiveMethod method, long timeoutNanos, boolean adapted);
+
+    /**
+     * Called when updates were completed without being sent, because they matched the last state acknowledged by the
+     * Interactive service.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> the updates would have been sent with
+     * @param   count
+     *          Number of resources whose updates were not sent
+     *
+     * @since   3.3.0
+     */
+    void updatesSuppressed(InteractiveMethod method, int count);
+
+    /**
+     * Called when a frame received from the Interactive service has been processed on the websocket read thread.
+     *
+     * @param   packets
+     *          Number of packets in the frame
+     * @param   repliesHandedOff
+     *          Number of replies whose promises were handed off to the reply completion executor
+     * @param   repliesCompletedInline
+     *          Number of replies whose promises were completed on the read thread
+     * @param   processingNanos
+     *          Time, in nanoseconds, the read thread spent processing the frame
+     *
+     * @since   3.3.0
+     */
+    void frameProcessed(int packets, int repliesHandedOff, int repliesCompletedInline, long processingNanos);
+}
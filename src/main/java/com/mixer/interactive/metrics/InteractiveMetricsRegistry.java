@@ -0,0 +1,342 @@
+package com.mixer.interactive.metrics;
+
+import com.mixer.interactive.protocol.InteractiveError;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>An <code>IMetricsRegistry</code> that records request counts, error counts, timeouts, bytes sent and received,
+ * batch sizes, in-flight requests and latency histograms for each <code>InteractiveMethod</code>.</p>
+ *
+ * <p>Metrics for a method are allocated the first time a request for that method is recorded. Once
+ * {@link #registerMBeans(String)} has been called, the metrics for every method are also exposed through the platform
+ * <code>MBeanServer</code> under the <code>com.mixer.interactive</code> domain, along with the metrics for the
+ * websocket read thread.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class InteractiveMetricsRegistry implements IMetricsRegistry {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * JMX domain metrics are registered under
+     */
+    private static final String JMX_DOMAIN = "com.mixer.interactive";
+
+    /**
+     * Methods in the order of their ordinals
+     */
+    private static final InteractiveMethod[] METHODS = InteractiveMethod.values();
+
+    /**
+     * Metrics for each method, indexed by the ordinal of the method
+     */
+    private final AtomicReferenceArray<MethodMetrics> metrics = new AtomicReferenceArray<>(METHODS.length);
+
+    /**
+     * Metrics for the frames processed on the websocket read thread
+     */
+    private final ReadThreadMetrics readThreadMetrics = new ReadThreadMetrics();
+
+    /**
+     * Name the metrics are registered with in JMX, <code>null</code> if they are not registered
+     */
+    private volatile String jmxName;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestSent(InteractiveMethod method, int bytes, int batchSize, boolean awaitingReply) {
+        getMethodMetrics(method).recordSent(bytes, batchSize, awaitingReply);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void replyReceived(InteractiveMethod method, long latencyNanos, InteractiveError error) {
+        getMethodMetrics(method).recordReply(latencyNanos, error != null ? error.getErrorCode() : null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestTimedOut(InteractiveMethod method, long elapsedNanos) {
+        getMethodMetrics(method).recordTimeout();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestCancelled(InteractiveMethod method, long elapsedNanos) {
+        getMethodMetrics(method).recordCancelled();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestFailed(InteractiveMethod method, long elapsedNanos, Throwable cause) {
+        getMethodMetrics(method).recordFailed();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void bytesReceived(InteractiveMethod method, int bytes) {
+        getMethodMetrics(method).recordReceived(bytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void timeoutScheduled(InteractiveMethod method, long timeoutNanos, boolean adapted) {
+        getMethodMetrics(method).recordTimeoutScheduled(timeoutNanos, adapted);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void updatesSuppressed(InteractiveMethod method, int count) {
+        getMethodMetrics(method).recordSuppressed(count);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void frameProcessed(int packets, int repliesHandedOff, int repliesCompletedInline, long processingNanos) {
+        readThreadMetrics.recordFrame(packets, repliesHandedOff, repliesCompletedInline, processingNanos);
+    }
+
+    /**
+     * Returns the metrics recorded for the frames processed on the websocket read thread.
+     *
+     * @return  The metrics recorded for the websocket read thread
+     *
+     * @since   3.3.0
+     */
+    public ReadThreadMetrics getReadThreadMetrics() {
+        return readThreadMetrics;
+    }
+
+    /**
+     * Returns the metrics recorded for the provided method, allocating them if none have been recorded yet.
+     *
+     * @param   method
+     *          An <code>InteractiveMethod</code>. <code>null</code> is treated as {@link InteractiveMethod#UNKNOWN}.
+     *
+     * @return  The metrics recorded for the provided method
+     *
+     * @since   3.3.0
+     */
+    public MethodMetrics getMethodMetrics(InteractiveMethod method) {
+        InteractiveMethod key = method != null ? method : InteractiveMethod.UNKNOWN;
+        MethodMetrics methodMetrics = metrics.get(key.ordinal());
+        if (methodMetrics == null) {
+            MethodMetrics candidate = new MethodMetrics(key);
+            if (metrics.compareAndSet(key.ordinal(), null, candidate)) {
+                String name = jmxName;
+                if (name != null) {
+                    register(name, key, candidate);
+                }
+                return candidate;
+            }
+            methodMetrics = metrics.get(key.ordinal());
+        }
+        return methodMetrics;
+    }
+
+    /**
+     * Returns a snapshot of the metrics for all methods that have had at least one request recorded.
+     *
+     * @return  A <code>Map</code> of <code>InteractiveMethods</code> and their recorded metrics
+     *
+     * @since   3.3.0
+     */
+    public Map<InteractiveMethod, MethodMetrics> getAllMethodMetrics() {
+        Map<InteractiveMethod, MethodMetrics> snapshot = new EnumMap<>(InteractiveMethod.class);
+        for (InteractiveMethod method : METHODS) {
+            MethodMetrics methodMetrics = metrics.get(method.ordinal());
+            if (methodMetrics != null) {
+                snapshot.put(method, methodMetrics);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Registers the metrics for every method with the platform <code>MBeanServer</code>. Each method is registered as
+     * <code>com.mixer.interactive:type=RpcMetrics,client=&lt;name&gt;,method=&lt;method&gt;</code>, and the metrics for the
+     * websocket read thread as <code>com.mixer.interactive:type=ReadThreadMetrics,client=&lt;name&gt;</code>.
+     *
+     * @param   name
+     *          Name used to distinguish this registry from those of other clients (e.g. the project version ID)
+     *
+     * @since   3.3.0
+     */
+    public synchronized void registerMBeans(String name) {
+        if (name == null || name.equals(jmxName)) {
+            return;
+        }
+
+        unregisterMBeans();
+        jmxName = name;
+        getAllMethodMetrics().forEach((method, methodMetrics) -> register(name, method, methodMetrics));
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = readThreadObjectName(name);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(readThreadMetrics, objectName);
+            }
+        }
+        catch (JMException e) {
+            LOG.warn("Unable to register metrics for the read thread", e);
+        }
+    }
+
+    /**
+     * Removes the metrics for every method from the platform <code>MBeanServer</code>.
+     *
+     * @since   3.3.0
+     */
+    public synchronized void unregisterMBeans() {
+        String name = jmxName;
+        if (name == null) {
+            return;
+        }
+
+        jmxName = null;
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (InteractiveMethod method : getAllMethodMetrics().keySet()) {
+            try {
+                ObjectName objectName = objectName(name, method);
+                if (mBeanServer.isRegistered(objectName)) {
+                    mBeanServer.unregisterMBean(objectName);
+                }
+            }
+            catch (JMException e) {
+                LOG.warn(String.format("Unable to unregister metrics for method '%s'", method), e);
+            }
+        }
+        try {
+            ObjectName objectName = readThreadObjectName(name);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        }
+        catch (JMException e) {
+            LOG.warn("Unable to unregister metrics for the read thread", e);
+        }
+    }
+
+    /**
+     * Registers the metrics for a method with the platform <code>MBeanServer</code>.
+     *
+     * @param   name
+     *          Name used to distinguish this registry from those of other clients
+     * @param   method
+     *          The <code>InteractiveMethod</code> the metrics are recorded for
+     * @param   methodMetrics
+     *          The metrics to register
+     *
+     * @since   3.3.0
+     */
+    private static void register(String name, InteractiveMethod method, MethodMetrics methodMetrics) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(name, method);
+            if (!mBeanServer.isRegistered(objectName)) {
+                mBeanServer.registerMBean(methodMetrics, objectName);
+            }
+        }
+        catch (JMException e) {
+            LOG.warn(String.format("Unable to register metrics for method '%s'", method), e);
+        }
+    }
+
+    /**
+     * Creates the <code>ObjectName</code> for the metrics of a method.
+     *
+     * @param   name
+     *          Name used to distinguish this registry from those of other clients
+     * @param   method
+     *          The <code>InteractiveMethod</code> the metrics are recorded for
+     *
+     * @return  The <code>ObjectName</code> for the metrics of the method
+     *
+     * @throws  JMException
+     *          If the resulting name is malformed
+     *
+     * @since   3.3.0
+     */
+    private static ObjectName objectName(String name, InteractiveMethod method) throws JMException {
+        return new ObjectName(String.format("%s:type=RpcMetrics,client=%s,method=%s", JMX_DOMAIN, ObjectName.quote(name), method.name()));
+    }
+
+    /**
+     * Creates the <code>ObjectName</code> for the metrics of the websocket read thread.
+     *
+     * @param   name
+     *          Name used to distinguish this registry from those of other clients
+     *
+     * @return  The <code>ObjectName</code> for the metrics of the websocket read thread
+     *
+     * @throws  JMException
+     *          If the resulting name is malformed
+     *
+     * @since   3.3.0
+     */
+    private static ObjectName readThreadObjectName(String name) throws JMException {
+        return new ObjectName(String.format("%s:type=ReadThreadMetrics,client=%s", JMX_DOMAIN, ObjectName.quote(name)));
+    }
+}
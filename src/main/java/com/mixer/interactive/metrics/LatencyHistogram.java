@@ -0,0 +1,213 @@
+package com.mixer.interactive.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A concurrent, fixed-size latency histogram using the same log-linear bucketing as an
+ * <a target="_blank" href="http://hdrhistogram.org/">HdrHistogram</a>. Values are grouped by the position of their
+ * most significant bit, and each group is split into <code>32</code> linear sub-buckets, giving a worst-case relative
+ * error of roughly 3% for any recorded value.</p>
+ *
+ * <p>Recording a value is wait-free (a single atomic increment), so a histogram may be updated from the websocket read
+ * thread without introducing contention.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits used to resolve values within a power-of-two range
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Number of linear sub-buckets within a power-of-two range
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest trackable value, in nanoseconds (roughly 73 minutes). Larger values are clamped to this value.
+     */
+    private static final long HIGHEST_TRACKABLE_VALUE = (1L << 42) - 1;
+
+    /**
+     * Counts for each bucket
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(indexFor(HIGHEST_TRACKABLE_VALUE) + 1);
+
+    /**
+     * Total number of recorded values
+     */
+    private final LongAdder totalCount = new LongAdder();
+
+    /**
+     * Sum of all recorded values
+     */
+    private final LongAdder totalSum = new LongAdder();
+
+    /**
+     * Largest recorded value
+     */
+    private final LongAccumulator maxValue = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Records a value, in nanoseconds, into the histogram. Negative values are ignored.
+     *
+     * @param   valueNanos
+     *          The value to record
+     *
+     * @since   3.3.0
+     */
+    public void record(long valueNanos) {
+        if (valueNanos < 0) {
+            return;
+        }
+
+        long value = Math.min(valueNanos, HIGHEST_TRACKABLE_VALUE);
+        counts.incrementAndGet(indexFor(value));
+        totalCount.increment();
+        totalSum.add(value);
+        maxValue.accumulate(value);
+    }
+
+    /**
+     * Returns the number of values recorded in the histogram.
+     *
+     * @return  The number of values recorded in the histogram
+     *
+     * @since   3.3.0
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the largest value recorded in the histogram, in nanoseconds.
+     *
+     * @return  The largest value recorded in the histogram, in nanoseconds
+     *
+     * @since   3.3.0
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the mean of all values recorded in the histogram, in nanoseconds.
+     *
+     * @return  The mean of all values recorded in the histogram, in nanoseconds. <code>0</code> if the histogram is
+     *          empty.
+     *
+     * @since   3.3.0
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count != 0 ? (double) totalSum.sum() / count : 0;
+    }
+
+    /**
+     * Returns the value, in nanoseconds, at or below which the given percentage of recorded values fall. The value
+     * returned is the highest value equivalent to the bucket containing the percentile.
+     *
+     * @param   percentile
+     *          The percentile to compute, between <code>0</code> and <code>100</code>
+     *
+     * @return  The value at the given percentile, in nanoseconds. <code>0</code> if the histogram is empty.
+     *
+     * @since   3.3.0
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+
+        double boundedPercentile = Math.min(Math.max(percentile, 0), 100);
+        long target = Math.max(1, (long) Math.ceil(boundedPercentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the value at the given percentile, converted to the provided time unit.
+     *
+     * @param   percentile
+     *          The percentile to compute, between <code>0</code> and <code>100</code>
+     * @param   timeUnit
+     *          The <code>TimeUnit</code> to convert the value to
+     *
+     * @return  The value at the given percentile, in the provided time unit
+     *
+     * @since   3.3.0
+     */
+    public double getValueAtPercentile(double percentile, TimeUnit timeUnit) {
+        return (double) getValueAtPercentile(percentile) / timeUnit.toNanos(1);
+    }
+
+    /**
+     * Clears all recorded values from the histogram. Values recorded concurrently with a reset may or may not be
+     * retained.
+     *
+     * @since   3.3.0
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.reset();
+    }
+
+    /**
+     * Returns the index of the bucket that the provided value is counted in.
+     *
+     * @param   value
+     *          A non-negative value
+     *
+     * @return  The index of the bucket that the provided value is counted in
+     *
+     * @since   3.3.0
+     */
+    private static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value that would be counted in the bucket at the provided index.
+     *
+     * @param   index
+     *          Bucket index
+     *
+     * @return  The highest value that would be counted in the bucket at the provided index
+     *
+     * @since   3.3.0
+     */
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
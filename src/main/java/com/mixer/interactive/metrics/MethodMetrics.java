@@ -0,0 +1,447 @@
+package com.mixer.interactive.metrics;
+
+import com.mixer.interactive.protocol.InteractiveMethod;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics recorded for requests of a single <code>InteractiveMethod</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveMetricsRegistry
+ *
+ * @since       3.3.0
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+
+    /**
+     * The <code>InteractiveMethod</code> these metrics are recorded for
+     */
+    private final InteractiveMethod method;
+
+    /**
+     * Number of requests sent
+     */
+    private final LongAdder requestCount = new LongAdder();
+
+    /**
+     * Number of requests that failed, whether by a reply containing an error or without a reply
+     */
+    private final LongAdder errorCount = new LongAdder();
+
+    /**
+     * Number of replies received that contained an error, keyed by error code
+     */
+    private final ConcurrentMap<Integer, LongAdder> errorCountsByCode = new ConcurrentHashMap<>();
+
+    /**
+     * Number of requests that timed out
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * Number of requests that were cancelled before a reply was received
+     */
+    private final LongAdder cancelledCount = new LongAdder();
+
+    /**
+     * Number of requests that failed without a reply, other than by timing out or being cancelled
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * Number of requests that waited for a timeout adapted to the round trips observed
+     */
+    private final LongAdder adaptedTimeoutCount = new LongAdder();
+
+    /**
+     * Time, in nanoseconds, the latest request sent waits for its reply
+     */
+    private volatile long timeoutNanos;
+
+    /**
+     * Number of resources whose updates were completed without being sent
+     */
+    private final LongAdder suppressedCount = new LongAdder();
+
+    /**
+     * Number of bytes sent
+     */
+    private final LongAdder bytesSent = new LongAdder();
+
+    /**
+     * Number of bytes received
+     */
+    private final LongAdder bytesReceived = new LongAdder();
+
+    /**
+     * Sum of the sizes of the batches requests were sent in
+     */
+    private final LongAdder batchSizeSum = new LongAdder();
+
+    /**
+     * Number of requests currently awaiting a reply
+     */
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * Histogram of latencies from a request being sent to its reply being received
+     */
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Initializes a new <code>MethodMetrics</code>.
+     *
+     * @param   method
+     *          The <code>InteractiveMethod</code> these metrics are recorded for
+     *
+     * @since   3.3.0
+     */
+    public MethodMetrics(InteractiveMethod method) {
+        this.method = method;
+    }
+
+    /**
+     * Records a request being sent.
+     *
+     * @param   bytes
+     *          Number of bytes attributed to the request
+     * @param   batchSize
+     *          Number of requests sent in the same frame
+     * @param   awaitingReply
+     *          <code>true</code> if a reply is expected for the request
+     *
+     * @since   3.3.0
+     */
+    void recordSent(int bytes, int batchSize, boolean awaitingReply) {
+        requestCount.increment();
+        bytesSent.add(bytes);
+        batchSizeSum.add(batchSize);
+        if (awaitingReply) {
+            inFlight.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a reply being received.
+     *
+     * @param   latencyNanos
+     *          Time, in nanoseconds, from the request being sent to the reply being received
+     * @param   errorCode
+     *          The error code in the reply, <code>null</code> if the reply has no error
+     *
+     * @since   3.3.0
+     */
+    void recordReply(long latencyNanos, Integer errorCode) {
+        inFlight.decrementAndGet();
+        latency.record(latencyNanos);
+        if (errorCode != null) {
+            errorCount.increment();
+            errorCountsByCode.computeIfAbsent(errorCode, code -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records a request timing out.
+     *
+     * @since   3.3.0
+     */
+    void recordTimeout() {
+        inFlight.decrementAndGet();
+        timeoutCount.increment();
+    }
+
+    /**
+     * Records a request being cancelled before a reply was received.
+     *
+     * @since   3.3.0
+     */
+    void recordCancelled() {
+        inFlight.decrementAndGet();
+        cancelledCount.increment();
+    }
+
+    /**
+     * Records a request failing without a reply, other than by timing out or being cancelled.
+     *
+     * @since   3.3.0
+     */
+    void recordFailed() {
+        inFlight.decrementAndGet();
+        errorCount.increment();
+        failedCount.increment();
+    }
+
+    /**
+     * Records the time a request waits for its reply.
+     *
+     * @param   timeoutNanos
+     *          Time, in nanoseconds, the request waits for its reply
+     * @param   adapted
+     *          <code>true</code> if the timeout was adapted to the round trips observed
+     *
+     * @since   3.3.0
+     */
+    void recordTimeoutScheduled(long timeoutNanos, boolean adapted) {
+        this.timeoutNanos = timeoutNanos;
+        if (adapted) {
+            adaptedTimeoutCount.increment();
+        }
+    }
+
+    /**
+     * Records updates being completed without being sent.
+     *
+     * @param   count
+     *          Number of resources whose updates were not sent
+     *
+     * @since   3.3.0
+     */
+    void recordSuppressed(int count) {
+        suppressedCount.add(count);
+    }
+
+    /**
+     * Records bytes being received.
+     *
+     * @param   bytes
+     *          Number of bytes received
+     *
+     * @since   3.3.0
+     */
+    void recordReceived(int bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * Returns the latency histogram for this method.
+     *
+     * @return  The latency histogram for this method
+     *
+     * @since   3.3.0
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String getMethod() {
+        return String.valueOf(method);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public Map<String, Long> getErrorCountsByCode() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        errorCountsByCode.forEach((code, count) -> snapshot.put(String.valueOf(code), count.sum()));
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getSuppressedCount() {
+        return suppressedCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getTimeoutMillis() {
+        return (double) timeoutNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getAdaptedTimeoutCount() {
+        return adaptedTimeoutCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getMeanBatchSize() {
+        long requests = requestCount.sum();
+        return requests != 0 ? (double) batchSizeSum.sum() / requests : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getLatencyMeanMillis() {
+        return latency.getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getLatencyP50Millis() {
+        return latency.getValueAtPercentile(50, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getLatencyP90Millis() {
+        return latency.getValueAtPercentile(90, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getLatencyP99Millis() {
+        return latency.getValueAtPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getLatencyMaxMillis() {
+        return (double) latency.getMax() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void reset() {
+        requestCount.reset();
+        errorCount.reset();
+        errorCountsByCode.clear();
+        timeoutCount.reset();
+        cancelledCount.reset();
+        failedCount.reset();
+        suppressedCount.reset();
+        adaptedTimeoutCount.reset();
+        bytesSent.reset();
+        bytesReceived.reset();
+        batchSizeSum.reset();
+        latency.reset();
+    }
+}
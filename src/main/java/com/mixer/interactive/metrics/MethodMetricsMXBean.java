@@ -0,0 +1,197 @@
+package com.mixer.interactive.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX management interface exposing the metrics recorded for a single <code>InteractiveMethod</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         MethodMetrics
+ *
+ * @since       3.3.0
+ */
+public interface MethodMetricsMXBean {
+
+    /**
+     * Returns the name of the method these metrics are recorded for.
+     *
+     * @return  The name of the method these metrics are recorded for
+     *
+     * @since   3.3.0
+     */
+    String getMethod();
+
+    /**
+     * Returns the number of requests sent.
+     *
+     * @return  The number of requests sent
+     *
+     * @since   3.3.0
+     */
+    long getRequestCount();
+
+    /**
+     * Returns the number of requests that failed, whether by a reply containing an error or without a reply, other
+     * than by timing out or being cancelled.
+     *
+     * @return  The number of requests that failed
+     *
+     * @since   3.3.0
+     */
+    long getErrorCount();
+
+    /**
+     * Returns the number of replies received that contained an error, keyed by the Interactive service error code.
+     *
+     * @return  The number of replies received that contained an error, keyed by error code
+     *
+     * @since   3.3.0
+     */
+    Map<String, Long> getErrorCountsByCode();
+
+    /**
+     * Returns the number of requests that timed out before a reply was received.
+     *
+     * @return  The number of requests that timed out before a reply was received
+     *
+     * @since   3.3.0
+     */
+    long getTimeoutCount();
+
+    /**
+     * Returns the number of requests that were cancelled before a reply was received.
+     *
+     * @return  The number of requests that were cancelled before a reply was received
+     *
+     * @since   3.3.0
+     */
+    long getCancelledCount();
+
+    /**
+     * Returns the number of requests that failed without a reply, other than by timing out or being cancelled, such as
+     * when their frame was dropped from the outbound buffer.
+     *
+     * @return  The number of requests that failed without a reply
+     *
+     * @since   3.3.0
+     */
+    long getFailedCount();
+
+    /**
+     * Returns the number of resources whose updates were completed without being sent, because they matched the last
+     * state acknowledged by the Interactive service.
+     *
+     * @return  The number of resources whose updates were not sent
+     *
+     * @since   3.3.0
+     */
+    long getSuppressedCount();
+
+    /**
+     * Returns the time the latest request sent waits for its reply, which is adapted to the round trips observed if
+     * adaptive timeouts are on.
+     *
+     * @return  The timeout of the latest request, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    double getTimeoutMillis();
+
+    /**
+     * Returns the number of requests that waited for a timeout adapted to the round trips observed.
+     *
+     * @return  The number of requests with an adapted timeout
+     *
+     * @since   3.3.0
+     */
+    long getAdaptedTimeoutCount();
+
+    /**
+     * Returns the number of bytes sent.
+     *
+     * @return  The number of bytes sent
+     *
+     * @since   3.3.0
+     */
+    long getBytesSent();
+
+    /**
+     * Returns the number of bytes received.
+     *
+     * @return  The number of bytes received
+     *
+     * @since   3.3.0
+     */
+    long getBytesReceived();
+
+    /**
+     * Returns the average number of requests sent in the same frame as a request for this method.
+     *
+     * @return  The average batch size
+     *
+     * @since   3.3.0
+     */
+    double getMeanBatchSize();
+
+    /**
+     * Returns the number of requests currently awaiting a reply.
+     *
+     * @return  The number of requests currently awaiting a reply
+     *
+     * @since   3.3.0
+     */
+    long getInFlight();
+
+    /**
+     * Returns the mean latency, in milliseconds, from a request being sent to its reply being received.
+     *
+     * @return  The mean latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    double getLatencyMeanMillis();
+
+    /**
+     * Returns the median latency, in milliseconds.
+     *
+     * @return  The median latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    double getLatencyP50Millis();
+
+    /**
+     * Returns the 90th percentile latency, in milliseconds.
+     *
+     * @return  The 90th percentile latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    double getLatencyP90Millis();
+
+    /**
+     * Returns the 99th percentile latency, in milliseconds.
+     *
+     * @return  The 99th percentile latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    double getLatencyP99Millis();
+
+    /**
+     * Returns the maximum latency, in milliseconds.
+     *
+     * @return  The maximum latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    double getLatencyMaxMillis();
+
+    /**
+     * Resets all metrics, except for the number of requests currently in flight.
+     *
+     * @since   3.3.0
+     */
+    void reset();
+}
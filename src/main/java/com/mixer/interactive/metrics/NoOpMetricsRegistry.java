@@ -0,0 +1,129 @@
+package com.mixer.interactive.metrics;
+
+import com.mixer.interactive.protocol.InteractiveError;
+import com.mixer.interactive.protocol.InteractiveMethod;
+
+/**
+ * An <code>IMetricsRegistry</code> that records nothing. This is the registry a <code>GameClient</code> uses unless
+ * another one is provided.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public final class NoOpMetricsRegistry implements IMetricsRegistry {
+
+    /**
+     * Singleton instance
+     */
+    public static final NoOpMetricsRegistry INSTANCE = new NoOpMetricsRegistry();
+
+    /**
+     * Private constructor to prevent instantiation outside of the singleton.
+     *
+     * @since   3.3.0
+     */
+    private NoOpMetricsRegistry() {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestSent(InteractiveMethod method, int bytes, int batchSize, boolean awaitingReply) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void replyReceived(InteractiveMethod method, long latencyNanos, InteractiveError error) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestTimedOut(InteractiveMethod method, long elapsedNanos) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestCancelled(InteractiveMethod method, long elapsedNanos) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void requestFailed(InteractiveMethod method, long elapsedNanos, Throwable cause) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void bytesReceived(InteractiveMethod method, int bytes) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void timeoutScheduled(InteractiveMethod method, long timeoutNanos, boolean adapted) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void updatesSuppressed(InteractiveMethod method, int count) {
+        // NO-OP
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void frameProcessed(int packets, int repliesHandedOff, int repliesCompletedInline, long processingNanos) {
+        // NO-OP
+    }
+}
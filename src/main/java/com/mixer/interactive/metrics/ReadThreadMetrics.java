@@ -0,0 +1,185 @@
+package com.mixer.interactive.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics recorded for the frames processed on the websocket read thread.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveMetricsRegistry
+ *
+ * @since       3.3.0
+ */
+public class ReadThreadMetrics implements ReadThreadMetricsMXBean {
+
+    /**
+     * Number of packets processed
+     */
+    private final LongAdder packetCount = new LongAdder();
+
+    /**
+     * Number of replies handed off to the reply completion executor
+     */
+    private final LongAdder repliesHandedOff = new LongAdder();
+
+    /**
+     * Number of replies completed on the read thread
+     */
+    private final LongAdder repliesCompletedInline = new LongAdder();
+
+    /**
+     * Total time, in nanoseconds, spent processing frames
+     */
+    private final LongAdder busyNanos = new LongAdder();
+
+    /**
+     * Histogram of the time spent processing each frame
+     */
+    private final LatencyHistogram processing = new LatencyHistogram();
+
+    /**
+     * Time, in nanoseconds, these metrics were created or last reset
+     */
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Records a frame being processed.
+     *
+     * @param   packets
+     *          Number of packets in the frame
+     * @param   handedOff
+     *          Number of replies handed off to the reply completion executor
+     * @param   completedInline
+     *          Number of replies completed on the read thread
+     * @param   processingNanos
+     *          Time, in nanoseconds, spent processing the frame
+     *
+     * @since   3.3.0
+     */
+    void recordFrame(int packets, int handedOff, int completedInline, long processingNanos) {
+        packetCount.add(packets);
+        repliesHandedOff.add(handedOff);
+        repliesCompletedInline.add(completedInline);
+        busyNanos.add(processingNanos);
+        processing.record(processingNanos);
+    }
+
+    /**
+     * Returns the histogram of the time spent processing each frame.
+     *
+     * @return  The histogram of the time spent processing each frame
+     *
+     * @since   3.3.0
+     */
+    public LatencyHistogram getProcessingHistogram() {
+        return processing;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getFrameCount() {
+        return processing.getCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getPacketCount() {
+        return packetCount.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getRepliesHandedOff() {
+        return repliesHandedOff.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public long getRepliesCompletedInline() {
+        return repliesCompletedInline.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getBusyMillis() {
+        return (double) busyNanos.sum() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getOccupancy() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed > 0 ? Math.min(1, (double) busyNanos.sum() / elapsed) : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getFrameMeanMillis() {
+        return processing.getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getFrameP99Millis() {
+        return processing.getValueAtPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public double getFrameMaxMillis() {
+        return (double) processing.getMax() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public void reset() {
+        packetCount.reset();
+        repliesHandedOff.reset();
+        repliesCompletedInline.reset();
+        busyNanos.reset();
+        processing.reset();
+        startNanos = System.nanoTime();
+    }
+}
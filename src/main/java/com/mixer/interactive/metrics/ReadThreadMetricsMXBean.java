@@ -0,0 +1,103 @@
+package com.mixer.interactive.metrics;
+
+/**
+ * JMX management interface exposing how much of the websocket read thread is taken up processing the frames received
+ * from the Interactive service.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         ReadThreadMetrics
+ *
+ * @since       3.3.0
+ */
+public interface ReadThreadMetricsMXBean {
+
+    /**
+     * Returns the number of frames processed.
+     *
+     * @return  The number of frames processed
+     *
+     * @since   3.3.0
+     */
+    long getFrameCount();
+
+    /**
+     * Returns the number of packets processed.
+     *
+     * @return  The number of packets processed
+     *
+     * @since   3.3.0
+     */
+    long getPacketCount();
+
+    /**
+     * Returns the number of replies whose promises were handed off to the reply completion executor.
+     *
+     * @return  The number of replies handed off
+     *
+     * @since   3.3.0
+     */
+    long getRepliesHandedOff();
+
+    /**
+     * Returns the number of replies whose promises were completed on the read thread.
+     *
+     * @return  The number of replies completed on the read thread
+     *
+     * @since   3.3.0
+     */
+    long getRepliesCompletedInline();
+
+    /**
+     * Returns the total time, in milliseconds, the read thread spent processing frames.
+     *
+     * @return  The total time, in milliseconds, spent processing frames
+     *
+     * @since   3.3.0
+     */
+    double getBusyMillis();
+
+    /**
+     * Returns the fraction of the time since these metrics were created or last reset that the read thread spent
+     * processing frames.
+     *
+     * @return  The fraction of time the read thread was busy, between 0 and 1
+     *
+     * @since   3.3.0
+     */
+    double getOccupancy();
+
+    /**
+     * Returns the mean time, in milliseconds, the read thread spent processing a frame.
+     *
+     * @return  The mean time, in milliseconds, spent processing a frame
+     *
+     * @since   3.3.0
+     */
+    double getFrameMeanMillis();
+
+    /**
+     * Returns the 99th percentile of the time, in milliseconds, the read thread spent processing a frame.
+     *
+     * @return  The 99th percentile of the time, in milliseconds, spent processing a frame
+     *
+     * @since   3.3.0
+     */
+    double getFrameP99Millis();
+
+    /**
+     * Returns the longest time, in milliseconds, the read thread spent processing a frame.
+     *
+     * @return  The longest time, in milliseconds, spent processing a frame
+     *
+     * @since   3.3.0
+     */
+    double getFrameMaxMillis();
+
+    /**
+     * Resets all metrics.
+     *
+     * @since   3.3.0
+     */
+    void reset();
+}
@@ -0,0 +1,8 @@
+/**
+ * Contains classes for instrumenting the requests made to, and replies received from, the Interactive service.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.metrics;
@@ -0,0 +1,157 @@
+package com.mixer.interactive.protocol;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.EncodedJsonArray;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A <code>MethodPacket</code> with one parameter whose value is an array that has already been encoded, such as the
+ * participants of a bulk update. When the packet is sent, the encoded array is written into the frame as it is,
+ * rather than being parsed into the packet's parameters and serialized again.
+ *
+ * <p>The parameters returned by {@link #getRequestParameters()} do not include the encoded parameter, which is
+ * available through {@link #getEncodedParameter()}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         EncodedJsonArray
+ *
+ * @since       3.3.0
+ */
+public class EncodedMethodPacket extends MethodPacket {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The name of the encoded parameter
+     */
+    private final transient String encodedParameterName;
+
+    /**
+     * The value of the encoded parameter
+     */
+    private final transient EncodedJsonArray encodedParameter;
+
+    /**
+     * Initializes a new <code>EncodedMethodPacket</code>.
+     *
+     * @param   id
+     *          Numeric identifier for this packet
+     * @param   method
+     *          The name of the method to call on the Interactive service
+     * @param   params
+     *          An object of the other named arguments to pass as parameters to the Interactive service
+     * @param   encodedParameterName
+     *          The name of the encoded parameter
+     * @param   encodedParameter
+     *          The value of the encoded parameter
+     *
+     * @since   3.3.0
+     */
+    public EncodedMethodPacket(int id, InteractiveMethod method, JsonObject params, String encodedParameterName, EncodedJsonArray encodedParameter) {
+        super(id, method, params != null ? params : new JsonObject());
+
+        if (encodedParameterName == null || encodedParameter == null) {
+            LOG.fatal("Encoded parameter name and value must not be null");
+            throw new IllegalArgumentException("Encoded parameter name and value must not be null");
+        }
+        if (params != null && params.has(encodedParameterName)) {
+            LOG.fatal("Parameter '{}' is both encoded and in the parameters object", encodedParameterName);
+            throw new IllegalArgumentException("Parameter '" + encodedParameterName + "' is both encoded and in the parameters object");
+        }
+
+        this.encodedParameterName = encodedParameterName;
+        this.encodedParameter = encodedParameter;
+    }
+
+    /**
+     * Retrieves the name of the encoded parameter.
+     *
+     * @return  The name of the encoded parameter
+     *
+     * @since   3.3.0
+     */
+    public String getEncodedParameterName() {
+        return encodedParameterName;
+    }
+
+    /**
+     * Retrieves the value of the encoded parameter.
+     *
+     * @return  The value of the encoded parameter
+     *
+     * @since   3.3.0
+     */
+    public EncodedJsonArray getEncodedParameter() {
+        return encodedParameter;
+    }
+
+    /**
+     * Returns the parameters of the packet with the encoded parameter added back into them. The elements of the
+     * encoded parameter are built from the objects they were encoded from rather than by parsing the encoded array:
+     * elements encoded from a <code>JsonElement</code>, such as the cached serialized form of a resource, are that
+     * element and must not be modified, while other elements are serialized again.
+     *
+     * @return  The parameters of the packet, including the encoded parameter
+     *
+     * @since   3.3.0
+     */
+    public JsonObject getDecodedParameters() {
+        JsonObject params = new JsonObject();
+        for (Map.Entry<String, JsonElement> param : getRequestParameters().getAsJsonObject().entrySet()) {
+            params.add(param.getKey(), param.getValue());
+        }
+        JsonArray elements = new JsonArray();
+        for (int i = 0; i < encodedParameter.size(); i++) {
+            Object source = encodedParameter.getSource(i);
+            elements.add(source instanceof JsonElement ? (JsonElement) source : GameClient.GSON.toJsonTree(source));
+        }
+        params.add(encodedParameterName, elements);
+        return params;
+    }
+
+    /**
+     * Writes the packet as UTF-8 encoded JSON, with the encoded parameter as the last member of its parameters.
+     *
+     * @param   out
+     *          The output stream to write to
+     *
+     * @throws  IOException
+     *          If the output stream cannot be written to
+     *
+     * @since   3.3.0
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        JsonObject envelope = GameClient.GSON.toJsonTree(this).getAsJsonObject();
+        JsonElement params = envelope.remove("params");
+        String head = GameClient.GSON.toJson(envelope);
+        String paramsHead = GameClient.GSON.toJson(params);
+
+        StringBuilder builder = new StringBuilder(head.length() + paramsHead.length() + encodedParameterName.length() + 16);
+        builder.append(head, 0, head.length() - 1)
+                .append(",\"params\":")
+                .append(paramsHead, 0, paramsHead.length() - 1);
+        if (params.getAsJsonObject().entrySet().size() > 0) {
+            builder.append(',');
+        }
+        builder.append(GameClient.GSON.toJson(new JsonPrimitive(encodedParameterName))).append(':');
+
+        out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+        encodedParameter.writeTo(out);
+        out.write('}');
+        out.write('}');
+    }
+}
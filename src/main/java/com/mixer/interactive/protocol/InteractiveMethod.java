@@ -82,7 +82,7 @@ public enum InteractiveMethod {
      */
     public static InteractiveMethod from(String methodName) {
         for (InteractiveMethod method : METHODS) {
-            if (method.methodName.equals(methodName)) {
+            if (methodName != null && methodName.equals(method.methodName)) {
                 return method;
             }
         }
@@ -38,6 +38,17 @@ public class MethodPacket extends InteractivePacket {
      */
     private final boolean discard;
 
+    /**
+     * <code>true</code> if the promise for the reply to this request is completed on the websocket read thread,
+     * <code>false</code> if it is completed on the reply completion executor of the <code>GameClient</code>
+     */
+    private transient boolean completeInline;
+
+    /**
+     * Priority of this request when the outbound buffer fills up
+     */
+    private transient RequestPriority priority = RequestPriority.NORMAL;
+
     /**
      * Initializes a new <code>MethodPacket</code>.
      *
@@ -161,4 +172,66 @@ public class MethodPacket extends InteractivePacket {
     public boolean getDiscard() {
         return discard;
     }
+
+    /**
+     * Returns whether or not the promise for the reply to this request is completed on the websocket read thread.
+     *
+     * @return  <code>true</code> if the promise for the reply is completed on the websocket read thread,
+     *          <code>false</code> if it is completed on the reply completion executor of the <code>GameClient</code>
+     *
+     * @since   3.3.0
+     */
+    public boolean isCompleteInline() {
+        return completeInline;
+    }
+
+    /**
+     * Sets whether or not the promise for the reply to this request is completed on the websocket read thread. Inline
+     * completion saves a thread hand-off for latency-critical callers, but every continuation of the promise then runs
+     * on the read thread and delays the processing of everything received after the reply, so continuations must be
+     * short and must not block.
+     *
+     * @param   completeInline
+     *          <code>true</code> to complete the promise for the reply on the websocket read thread
+     *
+     * @return  This <code>MethodPacket</code>
+     *
+     * @see     com.mixer.interactive.GameClient#setReplyCompletionExecutor(java.util.concurrent.Executor)
+     *
+     * @since   3.3.0
+     */
+    public MethodPacket setCompleteInline(boolean completeInline) {
+        this.completeInline = completeInline;
+        return this;
+    }
+
+    /**
+     * Returns the priority of this request when the outbound buffer fills up.
+     *
+     * @return  The <code>RequestPriority</code> of this request
+     *
+     * @since   3.3.0
+     */
+    public RequestPriority getPriority() {
+        return priority != null ? priority : RequestPriority.NORMAL;
+    }
+
+    /**
+     * Sets the priority of this request when the outbound buffer fills up. A frame has the highest priority of the
+     * requests in it.
+     *
+     * @param   priority
+     *          The <code>RequestPriority</code> of this request. If <code>null</code>,
+     *          {@link RequestPriority#NORMAL} is used.
+     *
+     * @return  This <code>MethodPacket</code>
+     *
+     * @see     com.mixer.interactive.ws.OverflowPolicy#DROP_BY_PRIORITY
+     *
+     * @since   3.3.0
+     */
+    public MethodPacket setPriority(RequestPriority priority) {
+        this.priority = priority != null ? priority : RequestPriority.NORMAL;
+        return this;
+    }
 }
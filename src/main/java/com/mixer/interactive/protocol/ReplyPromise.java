@@ -0,0 +1,46 @@
+package com.mixer.interactive.protocol;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A <code>CompletableFuture</code> promise for the <code>ReplyPacket</code> to a <code>MethodPacket</code> that has
+ * been sent to the Interactive service. The promise retains the request it was created for, so that the reply can be
+ * attributed to the method that was called when it is received.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         MethodPacket
+ * @see         ReplyPacket
+ *
+ * @since       3.3.0
+ */
+public class ReplyPromise extends CompletableFuture<ReplyPacket> {
+
+    /**
+     * The <code>MethodPacket</code> this promise is waiting on a reply for
+     */
+    private final MethodPacket request;
+
+    /**
+     * Initializes a new <code>ReplyPromise</code>.
+     *
+     * @param   request
+     *          The <code>MethodPacket</code> this promise is waiting on a reply for
+     *
+     * @since   3.3.0
+     */
+    public ReplyPromise(MethodPacket request) {
+        this.request = request;
+    }
+
+    /**
+     * Returns the <code>MethodPacket</code> this promise is waiting on a reply for.
+     *
+     * @return  The <code>MethodPacket</code> this promise is waiting on a reply for
+     *
+     * @since   3.3.0
+     */
+    public MethodPacket getRequest() {
+        return request;
+    }
+}
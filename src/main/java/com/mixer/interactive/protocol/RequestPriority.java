@@ -0,0 +1,30 @@
+package com.mixer.interactive.protocol;
+
+/**
+ * Priority of a request sent to the Interactive service, used to decide which requests are dropped when the outbound
+ * buffer fills up under {@link com.mixer.interactive.ws.OverflowPolicy#DROP_BY_PRIORITY}.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         MethodPacket#setPriority(RequestPriority)
+ *
+ * @since       3.3.0
+ */
+public enum RequestPriority {
+
+    /**
+     * Requests that can be dropped as soon as the outbound buffer stops being writable, such as cosmetic updates that
+     * are superseded by later ones
+     */
+    LOW,
+
+    /**
+     * Requests that are dropped only once the outbound buffer is full
+     */
+    NORMAL,
+
+    /**
+     * Requests that are never dropped, even if the outbound buffer is full
+     */
+    HIGH
+}
@@ -0,0 +1,627 @@
+package com.mixer.interactive.reconcile;
+
+import com.google.common.hash.HashCode;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The changes needed to bring the scenes, groups and controls of an Interactive integration in line with a desired
+ * layout, as computed by a <code>SceneReconciler</code>.
+ *
+ * <p>Changes are carried out in up to three steps, each sent to the Interactive service as a single frame once the
+ * previous step has been acknowledged:</p>
+ *
+ * <ol>
+ *  <li>Scenes are created, including their controls, scene properties are updated, and controls are created,
+ *  updated and deleted on existing scenes.</li>
+ *  <li>Groups are created and updated, now that the scenes they refer to exist.</li>
+ *  <li>Groups and scenes that are no longer desired are deleted, now that no desired group refers to them.</li>
+ * </ol>
+ *
+ * <p>Each step contains at most one request per method and scene, so a plan needs a handful of requests regardless of
+ * how many resources it changes, and none at all if nothing has changed.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         SceneReconciler
+ *
+ * @since       3.3.0
+ */
+public class ReconciliationPlan {
+
+    /**
+     * Identifier of the default scene and default group, which cannot be deleted
+     */
+    private static final String DEFAULT_ID = "default";
+
+    /**
+     * Collection of parameter key names
+     */
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+    private static final String PARAM_KEY_REASSIGN_SCENE_ID = "reassignSceneID";
+    private static final String PARAM_KEY_GROUP_ID = "groupID";
+    private static final String PARAM_KEY_REASSIGN_GROUP_ID = "reassignGroupID";
+    private static final String PARAM_KEY_SCENES = "scenes";
+    private static final String PARAM_KEY_GROUPS = "groups";
+    private static final String PARAM_KEY_CONTROLS = "controls";
+    private static final String PARAM_KEY_CONTROL_IDS = "controlIDs";
+    private static final String PARAM_KEY_META = "meta";
+
+    /**
+     * Identifiers of scenes to be created
+     */
+    private final Set<String> createdScenes = new TreeSet<>();
+
+    /**
+     * Identifiers of scenes whose properties are to be updated
+     */
+    private final Set<String> updatedScenes = new TreeSet<>();
+
+    /**
+     * Identifiers of scenes to be deleted
+     */
+    private final Set<String> deletedScenes = new TreeSet<>();
+
+    /**
+     * Identifiers of controls to be created, keyed by scene identifier
+     */
+    private final Map<String, Set<String>> createdControls = new TreeMap<>();
+
+    /**
+     * Identifiers of controls to be updated, keyed by scene identifier
+     */
+    private final Map<String, Set<String>> updatedControls = new TreeMap<>();
+
+    /**
+     * Identifiers of controls to be deleted, keyed by scene identifier
+     */
+    private final Map<String, Set<String>> deletedControls = new TreeMap<>();
+
+    /**
+     * Identifiers of groups to be created
+     */
+    private final Set<String> createdGroups = new TreeSet<>();
+
+    /**
+     * Identifiers of groups to be updated
+     */
+    private final Set<String> updatedGroups = new TreeSet<>();
+
+    /**
+     * Identifiers of groups to be deleted
+     */
+    private final Set<String> deletedGroups = new TreeSet<>();
+
+    /**
+     * Number of desired controls that are unchanged
+     */
+    private int unchangedControlCount;
+
+    /**
+     * Requests to be sent, in steps that are sent one after the other
+     */
+    private final List<List<Request>> steps = new ArrayList<>();
+
+    /**
+     * Snapshot of the state of the Interactive integration once the plan has been carried out
+     */
+    private final StateSnapshot desiredState = new StateSnapshot();
+
+    /**
+     * Initializes a new <code>ReconciliationPlan</code>. Plans are computed by {@link #between(StateSnapshot, Collection)}.
+     *
+     * @since   3.3.0
+     */
+    private ReconciliationPlan() {
+        // NO-OP
+    }
+
+    /**
+     * Computes the plan that brings the current state of an Interactive integration in line with the desired scenes.
+     *
+     * <p>Scenes that are not desired are deleted, except the default scene, which is left as it is unless it is among
+     * the desired scenes. Groups that are not in any desired scene are deleted, except the default group. Groups are
+     * placed on the scene containing them.</p>
+     *
+     * @param   currentState
+     *          Snapshot of the current state of the Interactive integration
+     * @param   desiredScenes
+     *          The desired scenes, including their groups and controls
+     *
+     * @return  The plan
+     *
+     * @since   3.3.0
+     */
+    static ReconciliationPlan between(StateSnapshot currentState, Collection<InteractiveScene> desiredScenes) {
+        ReconciliationPlan plan = new ReconciliationPlan();
+        List<Request> sceneStep = new ArrayList<>();
+        List<Request> groupStep = new ArrayList<>();
+        List<Request> deleteStep = new ArrayList<>();
+        JsonArray newScenes = new JsonArray();
+        JsonArray changedScenes = new JsonArray();
+        JsonArray newGroups = new JsonArray();
+        JsonArray changedGroups = new JsonArray();
+        Map<String, HashCode> currentGroups = currentState.getGroupDigests();
+        Set<String> desiredSceneIDs = new TreeSet<>();
+
+        for (InteractiveScene scene : desiredScenes) {
+            String sceneID = scene.getSceneID();
+            desiredSceneIDs.add(sceneID);
+            JsonObject sceneJson = scene.toJsonTree().getAsJsonObject();
+            HashCode sceneDigest = StateSnapshot.sceneDigest(sceneJson);
+            plan.desiredState.putScene(sceneID, sceneDigest);
+
+            if (!currentState.hasScene(sceneID)) {
+                JsonArray controls = new JsonArray();
+                for (InteractiveControl control : scene.getControls()) {
+                    JsonElement controlJson = control.toJsonTree();
+                    plan.desiredState.putControl(sceneID, control.getControlID(), StateSnapshot.controlDigest(controlJson));
+                    controls.add(controlJson);
+                    add(plan.createdControls, sceneID, control.getControlID());
+                }
+                JsonObject newScene = new JsonObject();
+                newScene.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+                newScene.add(PARAM_KEY_CONTROLS, controls);
+                newScene.add(PARAM_KEY_META, sceneJson.get(PARAM_KEY_META));
+                newScenes.add(newScene);
+                plan.createdScenes.add(sceneID);
+            }
+            else {
+                if (!sceneDigest.equals(currentState.getSceneDigest(sceneID))) {
+                    JsonObject changedScene = new JsonObject();
+                    changedScene.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+                    changedScene.add(PARAM_KEY_META, sceneJson.get(PARAM_KEY_META));
+                    changedScenes.add(changedScene);
+                    plan.updatedScenes.add(sceneID);
+                }
+                plan.diffControls(sceneID, scene.getControls(), currentState.getControlDigests(sceneID), sceneStep);
+            }
+
+            for (InteractiveGroup group : scene.getGroups()) {
+                JsonObject groupJson = new JsonObject();
+                for (Map.Entry<String, JsonElement> member : group.toJsonTree().getAsJsonObject().entrySet()) {
+                    groupJson.add(member.getKey(), member.getValue());
+                }
+                groupJson.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+                HashCode groupDigest = StateSnapshot.groupDigest(groupJson);
+                plan.desiredState.putGroup(group.getGroupID(), groupDigest);
+
+                HashCode currentDigest = currentGroups.get(group.getGroupID());
+                if (currentDigest == null) {
+                    newGroups.add(groupJson);
+                    plan.createdGroups.add(group.getGroupID());
+                }
+                else if (!currentDigest.equals(groupDigest)) {
+                    changedGroups.add(groupJson);
+                    plan.updatedGroups.add(group.getGroupID());
+                }
+            }
+        }
+
+        for (Map.Entry<String, HashCode> group : new TreeMap<>(currentGroups).entrySet()) {
+            if (hasGroup(desiredScenes, group.getKey())) {
+                continue;
+            }
+            if (DEFAULT_ID.equals(group.getKey())) {
+                plan.desiredState.putGroup(DEFAULT_ID, group.getValue());
+            }
+            else {
+                JsonObject params = new JsonObject();
+                params.addProperty(PARAM_KEY_GROUP_ID, group.getKey());
+                params.addProperty(PARAM_KEY_REASSIGN_GROUP_ID, DEFAULT_ID);
+                deleteStep.add(new Request(InteractiveMethod.DELETE_GROUP, params));
+                plan.deletedGroups.add(group.getKey());
+            }
+        }
+
+        for (String sceneID : new TreeSet<>(currentState.getSceneIDs())) {
+            if (desiredSceneIDs.contains(sceneID)) {
+                continue;
+            }
+            if (DEFAULT_ID.equals(sceneID)) {
+                plan.desiredState.copyScene(currentState, sceneID);
+            }
+            else {
+                JsonObject params = new JsonObject();
+                params.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+                params.addProperty(PARAM_KEY_REASSIGN_SCENE_ID, DEFAULT_ID);
+                deleteStep.add(new Request(InteractiveMethod.DELETE_SCENE, params));
+                plan.deletedScenes.add(sceneID);
+            }
+        }
+
+        if (newScenes.size() > 0) {
+            sceneStep.add(0, new Request(InteractiveMethod.CREATE_SCENES, params(PARAM_KEY_SCENES, newScenes)));
+        }
+        if (changedScenes.size() > 0) {
+            sceneStep.add(new Request(InteractiveMethod.UPDATE_SCENES, params(PARAM_KEY_SCENES, changedScenes)));
+        }
+        if (newGroups.size() > 0) {
+            groupStep.add(new Request(InteractiveMethod.CREATE_GROUPS, params(PARAM_KEY_GROUPS, newGroups)));
+        }
+        if (changedGroups.size() > 0) {
+            groupStep.add(new Request(InteractiveMethod.UPDATE_GROUPS, params(PARAM_KEY_GROUPS, changedGroups)));
+        }
+        for (List<Request> step : Arrays.asList(sceneStep, groupStep, deleteStep)) {
+            if (!step.isEmpty()) {
+                plan.steps.add(Collections.unmodifiableList(step));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Compares the desired controls on an existing scene with the current ones, adding the requests needed to create,
+     * update and delete controls on the scene to a step.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     * @param   desiredControls
+     *          The desired controls on the scene
+     * @param   currentControls
+     *          Digests of the current controls on the scene, keyed by control identifier
+     * @param   step
+     *          The step to add requests to
+     *
+     * @since   3.3.0
+     */
+    private void diffControls(String sceneID, Collection<InteractiveControl> desiredControls, Map<String, HashCode> currentControls, List<Request> step) {
+        JsonArray newControls = new JsonArray();
+        JsonArray changedControls = new JsonArray();
+        Map<String, HashCode> removedControls = new TreeMap<>(currentControls);
+
+        for (InteractiveControl control : desiredControls) {
+            JsonElement controlJson = control.toJsonTree();
+            HashCode controlDigest = StateSnapshot.controlDigest(controlJson);
+            desiredState.putControl(sceneID, control.getControlID(), controlDigest);
+
+            HashCode currentDigest = removedControls.remove(control.getControlID());
+            if (currentDigest == null) {
+                newControls.add(controlJson);
+                add(createdControls, sceneID, control.getControlID());
+            }
+            else if (!currentDigest.equals(controlDigest)) {
+                changedControls.add(controlJson);
+                add(updatedControls, sceneID, control.getControlID());
+            }
+            else {
+                unchangedControlCount++;
+            }
+        }
+
+        if (newControls.size() > 0) {
+            JsonObject params = params(PARAM_KEY_CONTROLS, newControls);
+            params.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+            step.add(new Request(InteractiveMethod.CREATE_CONTROLS, params));
+        }
+        if (changedControls.size() > 0) {
+            JsonObject params = params(PARAM_KEY_CONTROLS, changedControls);
+            params.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+            step.add(new Request(InteractiveMethod.UPDATE_CONTROLS, params));
+        }
+        if (!removedControls.isEmpty()) {
+            JsonArray controlIDs = new JsonArray();
+            for (String controlID : removedControls.keySet()) {
+                controlIDs.add(new JsonPrimitive(controlID));
+                add(deletedControls, sceneID, controlID);
+            }
+            JsonObject params = params(PARAM_KEY_CONTROL_IDS, controlIDs);
+            params.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+            step.add(new Request(InteractiveMethod.DELETE_CONTROLS, params));
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the plan makes no changes.
+     *
+     * @return  <code>true</code> if the plan makes no changes
+     *
+     * @since   3.3.0
+     */
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Returns the number of requests the plan sends to the Interactive service.
+     *
+     * @return  The number of requests
+     *
+     * @since   3.3.0
+     */
+    public int getRequestCount() {
+        return steps.stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Returns the number of frames the plan sends to the Interactive service, each of which waits for the replies to
+     * the previous one.
+     *
+     * @return  The number of frames
+     *
+     * @since   3.3.0
+     */
+    public int getStepCount() {
+        return steps.size();
+    }
+
+    /**
+     * Returns the identifiers of the scenes to be created.
+     *
+     * @return  Identifiers of the scenes to be created
+     *
+     * @since   3.3.0
+     */
+    public Set<String> getCreatedScenes() {
+        return Collections.unmodifiableSet(createdScenes);
+    }
+
+    /**
+     * Returns the identifiers of the scenes whose properties are to be updated.
+     *
+     * @return  Identifiers of the scenes to be updated
+     *
+     * @since   3.3.0
+     */
+    public Set<String> getUpdatedScenes() {
+        return Collections.unmodifiableSet(updatedScenes);
+    }
+
+    /**
+     * Returns the identifiers of the scenes to be deleted.
+     *
+     * @return  Identifiers of the scenes to be deleted
+     *
+     * @since   3.3.0
+     */
+    public Set<String> getDeletedScenes() {
+        return Collections.unmodifiableSet(deletedScenes);
+    }
+
+    /**
+     * Returns the identifiers of the controls to be created, including those created along with a new scene.
+     *
+     * @return  Identifiers of the controls to be created, keyed by scene identifier
+     *
+     * @since   3.3.0
+     */
+    public Map<String, Set<String>> getCreatedControls() {
+        return Collections.unmodifiableMap(createdControls);
+    }
+
+    /**
+     * Returns the identifiers of the controls to be updated.
+     *
+     * @return  Identifiers of the controls to be updated, keyed by scene identifier
+     *
+     * @since   3.3.0
+     */
+    public Map<String, Set<String>> getUpdatedControls() {
+        return Collections.unmodifiableMap(updatedControls);
+    }
+
+    /**
+     * Returns the identifiers of the controls to be deleted. Controls on deleted scenes are not included.
+     *
+     * @return  Identifiers of the controls to be deleted, keyed by scene identifier
+     *
+     * @since   3.3.0
+     */
+    public Map<String, Set<String>> getDeletedControls() {
+        return Collections.unmodifiableMap(deletedControls);
+    }
+
+    /**
+     * Returns the number of desired controls that are unchanged and are not sent.
+     *
+     * @return  The number of unchanged controls
+     *
+     * @since   3.3.0
+     */
+    public int getUnchangedControlCount() {
+        return unchangedControlCount;
+    }
+
+    /**
+     * Returns the identifiers of the groups to be created.
+     *
+     * @return  Identifiers of the groups to be created
+     *
+     * @since   3.3.0
+     */
+    public Set<String> getCreatedGroups() {
+        return Collections.unmodifiableSet(createdGroups);
+    }
+
+    /**
+     * Returns the identifiers of the groups to be updated.
+     *
+     * @return  Identifiers of the groups to be updated
+     *
+     * @since   3.3.0
+     */
+    public Set<String> getUpdatedGroups() {
+        return Collections.unmodifiableSet(updatedGroups);
+    }
+
+    /**
+     * Returns the identifiers of the groups to be deleted.
+     *
+     * @return  Identifiers of the groups to be deleted
+     *
+     * @since   3.3.0
+     */
+    public Set<String> getDeletedGroups() {
+        return Collections.unmodifiableSet(deletedGroups);
+    }
+
+    /**
+     * Returns the requests to be sent, in steps that are sent one after the other.
+     *
+     * @return  The requests to be sent
+     *
+     * @since   3.3.0
+     */
+    List<List<Request>> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Returns a snapshot of the state of the Interactive integration once the plan has been carried out.
+     *
+     * @return  Snapshot of the desired state
+     *
+     * @since   3.3.0
+     */
+    StateSnapshot getDesiredState() {
+        return desiredState;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "ReconciliationPlan{" +
+                "createdScenes=" + createdScenes +
+                ", updatedScenes=" + updatedScenes +
+                ", deletedScenes=" + deletedScenes +
+                ", createdControls=" + createdControls +
+                ", updatedControls=" + updatedControls +
+                ", deletedControls=" + deletedControls +
+                ", unchangedControlCount=" + unchangedControlCount +
+                ", createdGroups=" + createdGroups +
+                ", updatedGroups=" + updatedGroups +
+                ", deletedGroups=" + deletedGroups +
+                ", requestCount=" + getRequestCount() +
+                '}';
+    }
+
+    /**
+     * Returns <code>true</code> if any of the desired scenes contains a group.
+     *
+     * @param   desiredScenes
+     *          The desired scenes
+     * @param   groupID
+     *          Identifier of the group
+     *
+     * @return  <code>true</code> if a desired scene contains the group
+     *
+     * @since   3.3.0
+     */
+    private static boolean hasGroup(Collection<InteractiveScene> desiredScenes, String groupID) {
+        for (InteractiveScene scene : desiredScenes) {
+            if (scene.getGroup(groupID) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an identifier to the set of identifiers for a scene.
+     *
+     * @param   identifiers
+     *          Sets of identifiers keyed by scene identifier
+     * @param   sceneID
+     *          Identifier of the scene
+     * @param   identifier
+     *          The identifier to add
+     *
+     * @since   3.3.0
+     */
+    private static void add(Map<String, Set<String>> identifiers, String sceneID, String identifier) {
+        identifiers.computeIfAbsent(sceneID, key -> new TreeSet<>()).add(identifier);
+    }
+
+    /**
+     * Creates request parameters holding a single member.
+     *
+     * @param   name
+     *          Name of the member
+     * @param   value
+     *          Value of the member
+     *
+     * @return  The request parameters
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject params(String name, JsonElement value) {
+        JsonObject params = new JsonObject();
+        params.add(name, value);
+        return params;
+    }
+
+    /**
+     * A request to be sent to carry out part of a plan.
+     *
+     * @since   3.3.0
+     */
+    static final class Request {
+
+        /**
+         * The method to call
+         */
+        private final InteractiveMethod method;
+
+        /**
+         * Parameters of the method
+         */
+        private final JsonObject params;
+
+        /**
+         * Initializes a new <code>Request</code>.
+         *
+         * @param   method
+         *          The method to call
+         * @param   params
+         *          Parameters of the method
+         *
+         * @since   3.3.0
+         */
+        Request(InteractiveMethod method, JsonObject params) {
+            this.method = method;
+            this.params = params;
+        }
+
+        /**
+         * Returns the method to call.
+         *
+         * @return  The method to call
+         *
+         * @since   3.3.0
+         */
+        InteractiveMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * Returns the parameters of the method.
+         *
+         * @return  Parameters of the method
+         *
+         * @since   3.3.0
+         */
+        JsonObject getParams() {
+            return params;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.mixer.interactive.reconcile;
+
+import com.google.common.eventbus.Subscribe;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.connection.SequenceGapEvent;
+import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
+import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.services.RemoteProcedureCallServiceProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * Brings the scenes, groups and controls of an Interactive integration in line with a desired layout, sending only the
+ * changes needed to do so.
+ *
+ * <p>The desired layout is a collection of <code>InteractiveScenes</code>, each containing the groups and controls
+ * that should be on it. The reconciler compares a content digest of each desired resource with the digest of the
+ * resource on the Interactive service, and plans the creates, updates and deletes needed for them to match. Unchanged
+ * controls are not sent at all, and the changes are batched into a handful of requests sent in at most three frames
+ * (see {@link ReconciliationPlan}).</p>
+ *
+ * <p>The first reconciliation retrieves the scenes and groups from the Interactive service. Once a plan has been
+ * carried out successfully, the reconciler caches digests of the resulting state and plans later reconciliations
+ * against them without retrieving anything. Changes made to the Interactive integration by other means are not seen
+ * by the cache, so {@link #invalidate()} should be called after making them. The cache is discarded if a plan fails.</p>
+ *
+ * <pre>
+ * {@code
+ * SceneReconciler reconciler = new SceneReconciler(gameClient);
+ * reconciler.reconcile(layout).thenAccept(plan -> LOG.info("Sent " + plan.getRequestCount() + " requests"));
+ * }
+ * </pre>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         ReconciliationPlan
+ *
+ * @since       3.3.0
+ */
+public class SceneReconciler {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The <code>GameClient</code> whose Interactive integration is reconciled
+     */
+    private final GameClient gameClient;
+
+    /**
+     * Snapshot of the state of the Interactive integration after the last successful reconciliation, or
+     * <code>null</code> if it must be retrieved from the Interactive service
+     */
+    private final AtomicReference<StateSnapshot> cachedState = new AtomicReference<>();
+
+    /**
+     * Initializes a new <code>SceneReconciler</code>.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> whose Interactive integration is reconciled
+     *
+     * @since   3.3.0
+     */
+    public SceneReconciler(GameClient gameClient) {
+        if (gameClient == null) {
+            LOG.fatal("A game client is required");
+            throw new IllegalArgumentException("A game client is required");
+        }
+        this.gameClient = gameClient;
+    }
+
+    /**
+     * <p>Computes the changes needed to bring the Interactive integration in line with the desired scenes, without
+     * making them.</p>
+     *
+     * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
+     * that there was a problem retrieving the current scenes and groups from the Interactive service. Specifically, two
+     * types of checked exceptions may be thrown:</p>
+     *
+     * <ul>
+     *  <li>{@link InteractiveRequestNoReplyException} may be thrown if no reply is received from the Interactive
+     *  service.</li>
+     *  <li>{@link InteractiveReplyWithErrorException} may be thrown if the reply received from the Interactive service
+     *  contains an <code>InteractiveError</code>.</li>
+     * </ul>
+     *
+     * @param   desiredScenes
+     *          The desired scenes, including their groups and controls
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the <code>ReconciliationPlan</code>
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<ReconciliationPlan> plan(Collection<InteractiveScene> desiredScenes) {
+        validate(desiredScenes);
+        List<InteractiveScene> scenes = new ArrayList<>(desiredScenes);
+        return getCurrentState().thenApply(currentState -> ReconciliationPlan.between(currentState, scenes));
+    }
+
+    /**
+     * <p>Brings the Interactive integration in line with the desired scenes, sending only the changes needed to do
+     * so.</p>
+     *
+     * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
+     * that there was a problem with the reply from the Interactive service. Specifically, two types of checked
+     * exceptions may be thrown:</p>
+     *
+     * <ul>
+     *  <li>{@link InteractiveRequestNoReplyException} may be thrown if no reply is received from the Interactive
+     *  service.</li>
+     *  <li>{@link InteractiveReplyWithErrorException} may be thrown if the reply received from the Interactive service
+     *  contains an <code>InteractiveError</code>.</li>
+     * </ul>
+     *
+     * <p>If a request fails, changes sent before it are not undone, and the next reconciliation retrieves the state
+     * of the Interactive integration again.</p>
+     *
+     * @param   desiredScenes
+     *          The desired scenes, including their groups and controls
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the <code>ReconciliationPlan</code> that
+     *          was carried out
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<ReconciliationPlan> reconcile(Collection<InteractiveScene> desiredScenes) {
+        return plan(desiredScenes).thenCompose(this::apply);
+    }
+
+    /**
+     * <p>Carries out a plan computed by {@link #plan(Collection)}. Each step of the plan is sent as a single frame once
+     * every request of the previous step has been acknowledged.</p>
+     *
+     * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
+     * that there was a problem with the reply from the Interactive service. Specifically, two types of checked
+     * exceptions may be thrown:</p>
+     *
+     * <ul>
+     *  <li>{@link InteractiveRequestNoReplyException} may be thrown if no reply is received from the Interactive
+     *  service.</li>
+     *  <li>{@link InteractiveReplyWithErrorException} may be thrown if the reply received from the Interactive service
+     *  contains an <code>InteractiveError</code>.</li>
+     * </ul>
+     *
+     * @param   plan
+     *          The plan to carry out
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the <code>ReconciliationPlan</code> that
+     *          was carried out
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<ReconciliationPlan> apply(ReconciliationPlan plan) {
+        if (plan == null) {
+            LOG.fatal("A reconciliation plan is required");
+            throw new IllegalArgumentException("A reconciliation plan is required");
+        }
+
+        CompletableFuture<Void> applied = CompletableFuture.completedFuture(null);
+        for (List<ReconciliationPlan.Request> step : plan.getSteps()) {
+            applied = applied.thenCompose(previous -> send(step));
+        }
+        return applied.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                LOG.error("Reconciliation failed, the state of the Interactive integration will be retrieved again", throwable);
+                cachedState.set(null);
+            }
+            else {
+                cachedState.set(plan.getDesiredState());
+            }
+        }).thenApply(result -> plan);
+    }
+
+    /**
+     * Discards the cached state of the Interactive integration, so the next reconciliation retrieves it from the
+     * Interactive service. Should be called after the scenes, groups or controls are changed by other means.
+     *
+     * @since   3.3.0
+     */
+    public void invalidate() {
+        cachedState.set(null);
+    }
+
+    /**
+     * Discards the cached state of the Interactive integration when packets from the Interactive service were never
+     * received, as the changes they carried may be missing from it. Takes effect when this reconciler is registered
+     * with the <code>EventBus</code> of its <code>GameClient</code>.
+     *
+     * @param   event
+     *          The <code>SequenceGapEvent</code> reporting the missing packets
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onSequenceGap(SequenceGapEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Returns the cached state of the Interactive integration, or retrieves its scenes and groups from the Interactive
+     * service if none is cached.
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns a snapshot of the current state
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<StateSnapshot> getCurrentState() {
+        StateSnapshot state = cachedState.get();
+        if (state != null) {
+            return CompletableFuture.completedFuture(state);
+        }
+        return gameClient.using(SCENE_SERVICE_PROVIDER).getScenes()
+                .thenCombine(gameClient.using(GROUP_SERVICE_PROVIDER).getGroups(), StateSnapshot::of);
+    }
+
+    /**
+     * Sends the requests of a step as a single frame.
+     *
+     * @param   step
+     *          The requests to send
+     *
+     * @return  A <code>CompletableFuture</code> that completes once every request has been acknowledged, or completes
+     *          exceptionally if any request fails
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<Void> send(List<ReconciliationPlan.Request> step) {
+        RemoteProcedureCallServiceProvider rpc = gameClient.using(RPC_SERVICE_PROVIDER);
+        List<MethodPacket> requestPackets = new ArrayList<>(step.size());
+        for (ReconciliationPlan.Request request : step) {
+            requestPackets.add(new MethodPacket(rpc.claimNextPacketId(), request.getMethod(), request.getParams()));
+        }
+
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> replyPromises = rpc.send(requestPackets);
+        CompletableFuture<?>[] acknowledgements = new CompletableFuture<?>[requestPackets.size()];
+        for (int i = 0; i < requestPackets.size(); i++) {
+            MethodPacket requestPacket = requestPackets.get(i);
+            CompletableFuture<ReplyPacket> replyPromise = replyPromises.get(requestPacket);
+            acknowledgements[i] = replyPromise == null
+                    ? failed(new InteractiveRequestNoReplyException(requestPacket))
+                    : replyPromise.thenCompose(replyPacket -> {
+                        if (replyPacket == null) {
+                            return failed(new InteractiveRequestNoReplyException(requestPacket));
+                        }
+                        else if (replyPacket.hasError()) {
+                            return failed(new InteractiveReplyWithErrorException(requestPacket, replyPacket.getError()));
+                        }
+                        return CompletableFuture.completedFuture(replyPacket);
+                    });
+        }
+        return CompletableFuture.allOf(acknowledgements);
+    }
+
+    /**
+     * Returns a <code>CompletableFuture</code> that has completed exceptionally.
+     *
+     * @param   throwable
+     *          The exception
+     *
+     * @return  A <code>CompletableFuture</code> that has completed exceptionally
+     *
+     * @since   3.3.0
+     */
+    private static CompletableFuture<ReplyPacket> failed(Throwable throwable) {
+        CompletableFuture<ReplyPacket> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(throwable);
+        return failedFuture;
+    }
+
+    /**
+     * Checks that the desired scenes can be reconciled: that none is <code>null</code>, and that no scene or group
+     * appears more than once.
+     *
+     * @param   desiredScenes
+     *          The desired scenes
+     *
+     * @since   3.3.0
+     */
+    private static void validate(Collection<InteractiveScene> desiredScenes) {
+        if (desiredScenes == null) {
+            LOG.fatal("A collection of desired scenes is required");
+            throw new IllegalArgumentException("A collection of desired scenes is required");
+        }
+
+        Set<String> sceneIDs = new HashSet<>();
+        Set<String> groupIDs = new HashSet<>();
+        for (InteractiveScene scene : desiredScenes) {
+            if (scene == null) {
+                LOG.fatal("Desired scenes cannot be null");
+                throw new IllegalArgumentException("Desired scenes cannot be null");
+            }
+            if (!sceneIDs.add(scene.getSceneID())) {
+                LOG.fatal("Scene '{}' is desired more than once", scene.getSceneID());
+                throw new IllegalArgumentException("Scene '" + scene.getSceneID() + "' is desired more than once");
+            }
+            for (InteractiveGroup group : scene.getGroups()) {
+                if (!groupIDs.add(group.getGroupID())) {
+                    LOG.fatal("Group '{}' is desired more than once", group.getGroupID());
+                    throw new IllegalArgumentException("Group '" + group.getGroupID() + "' is desired more than once");
+                }
+            }
+        }
+    }
+}
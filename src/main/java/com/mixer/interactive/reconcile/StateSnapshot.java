@@ -0,0 +1,338 @@
+package com.mixer.interactive.reconcile;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content digests of the scenes, controls and groups of an Interactive integration. A snapshot holds no resources, only
+ * a digest of each, so the state last reconciled can be cached cheaply.
+ *
+ * <p>Digests are computed over a canonical form of the serialized resource, in which object members are ordered by
+ * name and members that are <code>null</code> or empty objects are omitted. Resources that serialize to the same
+ * members therefore have the same digest regardless of how their JSON was ordered or whether optional members were
+ * present.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+final class StateSnapshot {
+
+    /**
+     * Hash function used to compute digests
+     */
+    private static final HashFunction DIGEST_FUNCTION = Hashing.murmur3_128();
+
+    /**
+     * Collection of parameter key names
+     */
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+    private static final String PARAM_KEY_GROUPS = "groups";
+    private static final String PARAM_KEY_CONTROLS = "controls";
+
+    /**
+     * Markers distinguishing the kinds of JSON element in a digest
+     */
+    private static final byte NULL_MARKER = 0;
+    private static final byte BOOLEAN_MARKER = 1;
+    private static final byte NUMBER_MARKER = 2;
+    private static final byte STRING_MARKER = 3;
+    private static final byte ARRAY_MARKER = 4;
+    private static final byte OBJECT_MARKER = 5;
+
+    /**
+     * Digests of scene properties, excluding their groups and controls, keyed by scene identifier
+     */
+    private final Map<String, HashCode> scenes = new HashMap<>();
+
+    /**
+     * Digests of controls, keyed by scene identifier and then by control identifier
+     */
+    private final Map<String, Map<String, HashCode>> controls = new HashMap<>();
+
+    /**
+     * Digests of groups, keyed by group identifier
+     */
+    private final Map<String, HashCode> groups = new HashMap<>();
+
+    /**
+     * Creates a snapshot of the scenes and groups retrieved from the Interactive service.
+     *
+     * @param   scenes
+     *          Scenes of the Interactive integration, including their controls
+     * @param   groups
+     *          Groups of the Interactive integration
+     *
+     * @return  A snapshot of the scenes and groups
+     *
+     * @since   3.3.0
+     */
+    static StateSnapshot of(Collection<InteractiveScene> scenes, Collection<InteractiveGroup> groups) {
+        StateSnapshot snapshot = new StateSnapshot();
+        if (scenes != null) {
+            for (InteractiveScene scene : scenes) {
+                snapshot.putScene(scene.getSceneID(), sceneDigest(scene.toJsonTree()));
+                for (InteractiveControl control : scene.getControls()) {
+                    snapshot.putControl(scene.getSceneID(), control.getControlID(), controlDigest(control.toJsonTree()));
+                }
+            }
+        }
+        if (groups != null) {
+            for (InteractiveGroup group : groups) {
+                snapshot.putGroup(group.getGroupID(), groupDigest(group.toJsonTree()));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns <code>true</code> if the snapshot contains a scene.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @return  <code>true</code> if the snapshot contains the scene
+     *
+     * @since   3.3.0
+     */
+    boolean hasScene(String sceneID) {
+        return scenes.containsKey(sceneID);
+    }
+
+    /**
+     * Returns the digest of a scene's properties, excluding its groups and controls.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @return  The digest of the scene, or <code>null</code> if the snapshot does not contain it
+     *
+     * @since   3.3.0
+     */
+    HashCode getSceneDigest(String sceneID) {
+        return scenes.get(sceneID);
+    }
+
+    /**
+     * Returns the identifiers of every scene in the snapshot.
+     *
+     * @return  Identifiers of the scenes
+     *
+     * @since   3.3.0
+     */
+    Collection<String> getSceneIDs() {
+        return Collections.unmodifiableSet(scenes.keySet());
+    }
+
+    /**
+     * Returns the digests of the controls on a scene.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @return  Digests of the controls keyed by control identifier, empty if the snapshot does not contain the scene
+     *
+     * @since   3.3.0
+     */
+    Map<String, HashCode> getControlDigests(String sceneID) {
+        Map<String, HashCode> sceneControls = controls.get(sceneID);
+        return sceneControls != null ? Collections.unmodifiableMap(sceneControls) : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the digests of every group in the snapshot.
+     *
+     * @return  Digests of the groups keyed by group identifier
+     *
+     * @since   3.3.0
+     */
+    Map<String, HashCode> getGroupDigests() {
+        return Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * Adds a scene to the snapshot.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     * @param   digest
+     *          Digest of the scene's properties
+     *
+     * @since   3.3.0
+     */
+    void putScene(String sceneID, HashCode digest) {
+        scenes.put(sceneID, digest);
+        controls.computeIfAbsent(sceneID, key -> new HashMap<>());
+    }
+
+    /**
+     * Adds a control to the snapshot.
+     *
+     * @param   sceneID
+     *          Identifier of the scene the control is on
+     * @param   controlID
+     *          Identifier of the control
+     * @param   digest
+     *          Digest of the control
+     *
+     * @since   3.3.0
+     */
+    void putControl(String sceneID, String controlID, HashCode digest) {
+        controls.computeIfAbsent(sceneID, key -> new HashMap<>()).put(controlID, digest);
+    }
+
+    /**
+     * Adds a group to the snapshot.
+     *
+     * @param   groupID
+     *          Identifier of the group
+     * @param   digest
+     *          Digest of the group
+     *
+     * @since   3.3.0
+     */
+    void putGroup(String groupID, HashCode digest) {
+        groups.put(groupID, digest);
+    }
+
+    /**
+     * Copies a scene and its controls from another snapshot, if the other snapshot contains it.
+     *
+     * @param   other
+     *          The snapshot to copy from
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @since   3.3.0
+     */
+    void copyScene(StateSnapshot other, String sceneID) {
+        if (other.hasScene(sceneID)) {
+            putScene(sceneID, other.getSceneDigest(sceneID));
+            controls.get(sceneID).putAll(other.getControlDigests(sceneID));
+        }
+    }
+
+    /**
+     * Computes the digest of a serialized scene, excluding its groups and controls.
+     *
+     * @param   scene
+     *          The serialized scene
+     *
+     * @return  The digest of the scene
+     *
+     * @since   3.3.0
+     */
+    static HashCode sceneDigest(JsonElement scene) {
+        Hasher hasher = DIGEST_FUNCTION.newHasher();
+        putCanonical(hasher, scene, PARAM_KEY_GROUPS, PARAM_KEY_CONTROLS);
+        return hasher.hash();
+    }
+
+    /**
+     * Computes the digest of a serialized control. The scene identifier of the control is excluded, as the scene a
+     * control is on is determined by the scene containing it.
+     *
+     * @param   control
+     *          The serialized control
+     *
+     * @return  The digest of the control
+     *
+     * @since   3.3.0
+     */
+    static HashCode controlDigest(JsonElement control) {
+        Hasher hasher = DIGEST_FUNCTION.newHasher();
+        putCanonical(hasher, control, PARAM_KEY_SCENE_ID);
+        return hasher.hash();
+    }
+
+    /**
+     * Computes the digest of a serialized group.
+     *
+     * @param   group
+     *          The serialized group
+     *
+     * @return  The digest of the group
+     *
+     * @since   3.3.0
+     */
+    static HashCode groupDigest(JsonElement group) {
+        Hasher hasher = DIGEST_FUNCTION.newHasher();
+        putCanonical(hasher, group);
+        return hasher.hash();
+    }
+
+    /**
+     * Feeds the canonical form of a JSON element to a hasher.
+     *
+     * @param   hasher
+     *          The hasher
+     * @param   element
+     *          The JSON element
+     * @param   excludedNames
+     *          Names of members of the element to leave out, if it is an object
+     *
+     * @since   3.3.0
+     */
+    private static void putCanonical(Hasher hasher, JsonElement element, String ... excludedNames) {
+        if (element == null || element.isJsonNull()) {
+            hasher.putByte(NULL_MARKER);
+        }
+        else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            hasher.putByte(primitive.isBoolean() ? BOOLEAN_MARKER : primitive.isNumber() ? NUMBER_MARKER : STRING_MARKER);
+            putString(hasher, primitive.getAsString());
+        }
+        else if (element.isJsonArray()) {
+            hasher.putByte(ARRAY_MARKER).putInt(element.getAsJsonArray().size());
+            for (JsonElement item : element.getAsJsonArray()) {
+                putCanonical(hasher, item);
+            }
+        }
+        else {
+            Map<String, JsonElement> members = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+                JsonElement value = member.getValue();
+                if (value != null && !value.isJsonNull() && !(value.isJsonObject() && value.getAsJsonObject().entrySet().isEmpty())) {
+                    members.put(member.getKey(), value);
+                }
+            }
+            for (String excludedName : excludedNames) {
+                members.remove(excludedName);
+            }
+
+            hasher.putByte(OBJECT_MARKER).putInt(members.size());
+            for (Map.Entry<String, JsonElement> member : members.entrySet()) {
+                putString(hasher, member.getKey());
+                putCanonical(hasher, member.getValue());
+            }
+        }
+    }
+
+    /**
+     * Feeds a length-prefixed string to a hasher, so adjacent strings cannot run into each other.
+     *
+     * @param   hasher
+     *          The hasher
+     * @param   value
+     *          The string
+     *
+     * @since   3.3.0
+     */
+    private static void putString(Hasher hasher, String value) {
+        hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Contains classes for reconciling the scenes, groups and controls of an Interactive integration with a desired layout,
+ * sending only the changes needed to bring the Interactive service in line with it.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.reconcile;
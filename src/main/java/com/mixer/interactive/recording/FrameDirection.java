@@ -0,0 +1,21 @@
+package com.mixer.interactive.recording;
+
+/**
+ * The direction a recorded frame travelled in.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public enum FrameDirection {
+
+    /**
+     * Received from the Interactive service
+     */
+    INBOUND,
+
+    /**
+     * Sent to the Interactive service
+     */
+    OUTBOUND
+}
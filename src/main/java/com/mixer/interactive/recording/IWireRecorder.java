@@ -0,0 +1,32 @@
+package com.mixer.interactive.recording;
+
+import com.mixer.interactive.resources.core.CompressionScheme;
+
+/**
+ * Interface for recorders of the raw frames exchanged between an <code>InteractiveWebSocketClient</code> and the
+ * Interactive service. Recorders are called from the websocket read thread for inbound frames, and from whichever
+ * thread sends a request for outbound frames, so implementations must be thread-safe.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public interface IWireRecorder {
+
+    /**
+     * Records a frame.
+     *
+     * @param   direction
+     *          The direction the frame travelled in
+     * @param   compressionScheme
+     *          The <code>CompressionScheme</code> the payload is encoded with. Text frames are never compressed.
+     * @param   binary
+     *          <code>true</code> if the frame is a binary frame, <code>false</code> if it is a text frame
+     * @param   payload
+     *          The payload of the frame, exactly as it was sent or received. Text frames are UTF-8 encoded. The array
+     *          must not be modified by the recorder.
+     *
+     * @since   3.3.0
+     */
+    void record(FrameDirection direction, CompressionScheme compressionScheme, boolean binary, byte[] payload);
+}
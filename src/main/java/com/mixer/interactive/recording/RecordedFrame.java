@@ -0,0 +1,134 @@
+package com.mixer.interactive.recording;
+
+import com.mixer.interactive.resources.core.CompressionScheme;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A frame read back from a recording.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class RecordedFrame {
+
+    /**
+     * Time the frame was recorded, in nanoseconds since the recording started
+     */
+    private final long timestampNanos;
+
+    /**
+     * The direction the frame travelled in
+     */
+    private final FrameDirection direction;
+
+    /**
+     * The <code>CompressionScheme</code> the payload is encoded with
+     */
+    private final CompressionScheme compressionScheme;
+
+    /**
+     * <code>true</code> if the frame is a binary frame, <code>false</code> if it is a text frame
+     */
+    private final boolean binary;
+
+    /**
+     * The payload of the frame
+     */
+    private final byte[] payload;
+
+    /**
+     * Initializes a new <code>RecordedFrame</code>.
+     *
+     * @param   timestampNanos
+     *          Time the frame was recorded, in nanoseconds since the recording started
+     * @param   direction
+     *          The direction the frame travelled in
+     * @param   compressionScheme
+     *          The <code>CompressionScheme</code> the payload is encoded with
+     * @param   binary
+     *          <code>true</code> if the frame is a binary frame, <code>false</code> if it is a text frame
+     * @param   payload
+     *          The payload of the frame
+     *
+     * @since   3.3.0
+     */
+    public RecordedFrame(long timestampNanos, FrameDirection direction, CompressionScheme compressionScheme, boolean binary, byte[] payload) {
+        this.timestampNanos = timestampNanos;
+        this.direction = direction;
+        this.compressionScheme = compressionScheme;
+        this.binary = binary;
+        this.payload = payload;
+    }
+
+    /**
+     * Returns the time the frame was recorded, since the recording started.
+     *
+     * @param   timeUnit
+     *          Unit to return the time in
+     *
+     * @return  The time the frame was recorded
+     *
+     * @since   3.3.0
+     */
+    public long getTimestamp(TimeUnit timeUnit) {
+        return timeUnit.convert(timestampNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the direction the frame travelled in.
+     *
+     * @return  The direction the frame travelled in
+     *
+     * @since   3.3.0
+     */
+    public FrameDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the <code>CompressionScheme</code> the payload is encoded with.
+     *
+     * @return  The <code>CompressionScheme</code> the payload is encoded with
+     *
+     * @since   3.3.0
+     */
+    public CompressionScheme getCompressionScheme() {
+        return compressionScheme;
+    }
+
+    /**
+     * Returns whether the frame is a binary frame.
+     *
+     * @return  <code>true</code> if the frame is a binary frame, <code>false</code> if it is a text frame
+     *
+     * @since   3.3.0
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Returns the payload of the frame. The array is not copied and must not be modified.
+     *
+     * @return  The payload of the frame
+     *
+     * @since   3.3.0
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    /**
+     * Returns the payload of a text frame.
+     *
+     * @return  The payload of the frame, decoded as UTF-8
+     *
+     * @since   3.3.0
+     */
+    public String getText() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
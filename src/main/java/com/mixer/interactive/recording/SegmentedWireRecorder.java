@@ -0,0 +1,248 @@
+package com.mixer.interactive.recording;
+
+import com.mixer.interactive.resources.core.CompressionScheme;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>An <code>IWireRecorder</code> that appends frames to a log of memory-mapped segment files in a directory. Each
+ * segment is a fixed-size file that is mapped into memory when it is created, so recording a frame is a copy into the
+ * page cache rather than a system call. When a frame does not fit in the current segment, the next segment is
+ * created.</p>
+ *
+ * <p>Each segment starts with a header holding {@link #MAGIC}, {@link #VERSION}, the index of the segment and the
+ * wall-clock time the recording started. Frames follow as records holding their length, the time they were recorded
+ * (in nanoseconds since the recording started), their direction, whether they are binary, the name of their
+ * compression scheme and their payload. Unused space at the end of a segment is left zeroed, which readers treat as
+ * the end of the segment.</p>
+ *
+ * <p>Recordings are read back with {@link WireRecording#load(Path)}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class SegmentedWireRecorder implements IWireRecorder, Closeable {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default size of a segment, in bytes
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Value identifying a segment file (<code>IWRL</code>)
+     */
+    static final int MAGIC = 0x4957524C;
+
+    /**
+     * Version of the segment format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of a segment header, in bytes
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * Size of the fixed part of a record following its length (timestamp, direction, flags and scheme length)
+     */
+    static final int RECORD_FIXED_SIZE = 8 + 1 + 1 + 1;
+
+    /**
+     * Flag set on records of binary frames
+     */
+    static final int FLAG_BINARY = 0x1;
+
+    /**
+     * Directory the segments are written to
+     */
+    private final Path directory;
+
+    /**
+     * Size of a segment, in bytes
+     */
+    private final int segmentSize;
+
+    /**
+     * Value of {@link System#nanoTime()} when the recording started
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Wall-clock time the recording started, in milliseconds since the epoch
+     */
+    private final long startMillis = System.currentTimeMillis();
+
+    /**
+     * Index of the current segment
+     */
+    private int segmentIndex = -1;
+
+    /**
+     * The current segment
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * Number of frames recorded
+     */
+    private long frameCount;
+
+    /**
+     * Whether the recorder has been closed
+     */
+    private boolean closed;
+
+    /**
+     * Initializes a new <code>SegmentedWireRecorder</code> using the default segment size.
+     *
+     * @param   directory
+     *          Directory to write segments to. It is created if it does not exist and must not already contain a
+     *          recording.
+     *
+     * @throws  IOException
+     *          If the first segment cannot be created
+     *
+     * @since   3.3.0
+     */
+    public SegmentedWireRecorder(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Initializes a new <code>SegmentedWireRecorder</code>.
+     *
+     * @param   directory
+     *          Directory to write segments to. It is created if it does not exist and must not already contain a
+     *          recording.
+     * @param   segmentSize
+     *          Size of a segment, in bytes. Frames larger than a segment are written to a segment of their own.
+     *
+     * @throws  IOException
+     *          If the first segment cannot be created
+     *
+     * @since   3.3.0
+     */
+    public SegmentedWireRecorder(Path directory, int segmentSize) throws IOException {
+        if (directory == null || segmentSize <= HEADER_SIZE) {
+            LOG.fatal("A directory and a segment size larger than the segment header are required");
+            throw new IllegalArgumentException("A directory and a segment size larger than the segment header are required");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        nextSegment(0);
+    }
+
+    /**
+     * Returns the directory the segments are written to.
+     *
+     * @return  The directory the segments are written to
+     *
+     * @since   3.3.0
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the number of frames recorded.
+     *
+     * @return  The number of frames recorded
+     *
+     * @since   3.3.0
+     */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public synchronized void record(FrameDirection direction, CompressionScheme compressionScheme, boolean binary, byte[] payload) {
+        if (closed) {
+            return;
+        }
+        long timestampNanos = System.nanoTime() - startNanos;
+        byte[] scheme = compressionScheme.toString().getBytes(StandardCharsets.US_ASCII);
+        int recordLength = RECORD_FIXED_SIZE + scheme.length + payload.length;
+        try {
+            if (segment.remaining() < 4 + recordLength) {
+                nextSegment(recordLength);
+            }
+        }
+        catch (IOException e) {
+            LOG.error(String.format("Unable to create segment %s of the recording in '%s', recording stopped", segmentIndex + 1, directory), e);
+            closed = true;
+            return;
+        }
+        segment.putInt(recordLength);
+        segment.putLong(timestampNanos);
+        segment.put((byte) direction.ordinal());
+        segment.put((byte) (binary ? FLAG_BINARY : 0));
+        segment.put((byte) scheme.length);
+        segment.put(scheme);
+        segment.put(payload);
+        frameCount++;
+    }
+
+    /**
+     * Flushes the current segment to disk and stops recording. Frames recorded after the recorder is closed are
+     * ignored.
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes the current segment to disk, then creates and maps the next segment.
+     *
+     * @param   recordLength
+     *          Length of the record that must fit in the new segment
+     *
+     * @throws  IOException
+     *          If the segment cannot be created
+     *
+     * @since   3.3.0
+     */
+    private void nextSegment(int recordLength) throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        segmentIndex++;
+        int size = Math.max(segmentSize, HEADER_SIZE + 4 + recordLength);
+        try (FileChannel channel = FileChannel.open(directory.resolve(WireRecording.segmentName(segmentIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        segment.putInt(MAGIC);
+        segment.putInt(VERSION);
+        segment.putInt(segmentIndex);
+        segment.putInt(0);
+        segment.putLong(startMillis);
+    }
+}
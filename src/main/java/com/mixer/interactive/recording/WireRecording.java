@@ -0,0 +1,176 @@
+package com.mixer.interactive.recording;
+
+import com.mixer.interactive.resources.core.CompressionScheme;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A recording written by a <code>SegmentedWireRecorder</code>, loaded into memory so it can be replayed repeatedly
+ * without touching the disk.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class WireRecording {
+
+    /**
+     * Prefix of segment file names
+     */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /**
+     * Suffix of segment file names
+     */
+    private static final String SEGMENT_SUFFIX = ".iwrl";
+
+    /**
+     * Wall-clock time the recording started, in milliseconds since the epoch
+     */
+    private final long startMillis;
+
+    /**
+     * Recorded frames, in the order they were recorded
+     */
+    private final List<RecordedFrame> frames;
+
+    /**
+     * Initializes a new <code>WireRecording</code>.
+     *
+     * @param   startMillis
+     *          Wall-clock time the recording started, in milliseconds since the epoch
+     * @param   frames
+     *          Recorded frames, in the order they were recorded
+     *
+     * @since   3.3.0
+     */
+    private WireRecording(long startMillis, List<RecordedFrame> frames) {
+        this.startMillis = startMillis;
+        this.frames = Collections.unmodifiableList(frames);
+    }
+
+    /**
+     * Loads a recording from the directory a <code>SegmentedWireRecorder</code> wrote it to.
+     *
+     * @param   directory
+     *          Directory holding the segments of the recording
+     *
+     * @return  The recording
+     *
+     * @throws  IOException
+     *          If the directory holds no recording, or a segment cannot be read or is corrupt
+     *
+     * @since   3.3.0
+     */
+    public static WireRecording load(Path directory) throws IOException {
+        List<Path> segments;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            segments = new ArrayList<>();
+            stream.forEach(segments::add);
+        }
+        if (segments.isEmpty()) {
+            throw new NoSuchFileException(directory.toString(), null, "Directory holds no recording");
+        }
+        segments = segments.stream().sorted().collect(Collectors.toList());
+
+        long startMillis = 0;
+        List<RecordedFrame> frames = new ArrayList<>();
+        for (Path path : segments) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segment.remaining() < SegmentedWireRecorder.HEADER_SIZE || segment.getInt() != SegmentedWireRecorder.MAGIC) {
+                throw new IOException(String.format("'%s' is not a recording segment", path));
+            }
+            int version = segment.getInt();
+            if (version != SegmentedWireRecorder.VERSION) {
+                throw new IOException(String.format("'%s' uses unsupported segment format version %s", path, version));
+            }
+            segment.getInt();
+            segment.getInt();
+            startMillis = segment.getLong();
+
+            while (segment.remaining() >= 4) {
+                int recordLength = segment.getInt();
+                if (recordLength == 0) {
+                    break;
+                }
+                if (recordLength < SegmentedWireRecorder.RECORD_FIXED_SIZE || recordLength > segment.remaining()) {
+                    throw new IOException(String.format("'%s' holds a corrupt record at offset %s", path, segment.position() - 4));
+                }
+                long timestampNanos = segment.getLong();
+                FrameDirection direction = FrameDirection.values()[segment.get()];
+                boolean binary = (segment.get() & SegmentedWireRecorder.FLAG_BINARY) != 0;
+                byte[] scheme = new byte[segment.get()];
+                segment.get(scheme);
+                byte[] payload = new byte[recordLength - SegmentedWireRecorder.RECORD_FIXED_SIZE - scheme.length];
+                segment.get(payload);
+                frames.add(new RecordedFrame(timestampNanos, direction, CompressionScheme.from(new String(scheme, StandardCharsets.US_ASCII)), binary, payload));
+            }
+        }
+        return new WireRecording(startMillis, frames);
+    }
+
+    /**
+     * Returns the file name of a segment.
+     *
+     * @param   segmentIndex
+     *          Index of the segment
+     *
+     * @return  The file name of the segment
+     *
+     * @since   3.3.0
+     */
+    static String segmentName(int segmentIndex) {
+        return String.format("%s%05d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Returns the wall-clock time the recording started.
+     *
+     * @return  The wall-clock time the recording started, in milliseconds since the epoch
+     *
+     * @since   3.3.0
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * Returns the recorded frames, in the order they were recorded.
+     *
+     * @return  <code>List</code> of recorded frames
+     *
+     * @since   3.3.0
+     */
+    public List<RecordedFrame> getFrames() {
+        return frames;
+    }
+
+    /**
+     * Returns the recorded frames that travelled in a direction, in the order they were recorded.
+     *
+     * @param   direction
+     *          The direction
+     *
+     * @return  <code>List</code> of recorded frames that travelled in the direction
+     *
+     * @since   3.3.0
+     */
+    public List<RecordedFrame> getFrames(FrameDirection direction) {
+        return frames.stream().filter(frame -> frame.getDirection() == direction).collect(Collectors.toList());
+    }
+}
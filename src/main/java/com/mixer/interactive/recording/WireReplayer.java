@@ -0,0 +1,120 @@
+package com.mixer.interactive.recording;
+
+import com.mixer.interactive.ws.InteractiveWebSocketClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the inbound frames of a <code>WireRecording</code> through an <code>InteractiveWebSocketClient</code>, as
+ * if they had been received from the Interactive service. Frames are passed to the client's <code>onMessage</code>
+ * methods on the calling thread, so decoding and event dispatch run exactly as they do for live traffic.
+ *
+ * <p>Frames can be replayed at their original pace, at a multiple of it, or as fast as the client can process them
+ * ({@link #MAXIMUM_SPEED}). The client does not need to be connected; replies to requests it did not make are
+ * ignored.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class WireReplayer {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Speed at which frames are replayed at their original pace
+     */
+    public static final double ORIGINAL_SPEED = 1.0;
+
+    /**
+     * Speed at which frames are replayed without waiting between them
+     */
+    public static final double MAXIMUM_SPEED = Double.POSITIVE_INFINITY;
+
+    /**
+     * Inbound frames of the recording
+     */
+    private final List<RecordedFrame> frames;
+
+    /**
+     * Initializes a new <code>WireReplayer</code>.
+     *
+     * @param   recording
+     *          The recording to replay
+     *
+     * @since   3.3.0
+     */
+    public WireReplayer(WireRecording recording) {
+        if (recording == null) {
+            LOG.fatal("A recording is required");
+            throw new IllegalArgumentException("A recording is required");
+        }
+        this.frames = recording.getFrames(FrameDirection.INBOUND);
+    }
+
+    /**
+     * Returns the number of inbound frames replayed by each call to {@link #replay(InteractiveWebSocketClient, double)}.
+     *
+     * @return  The number of inbound frames in the recording
+     *
+     * @since   3.3.0
+     */
+    public int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * Replays every inbound frame of the recording through a websocket client, returning once the last frame has been
+     * processed.
+     *
+     * @param   webSocketClient
+     *          The websocket client to pass frames to
+     * @param   speed
+     *          Multiple of the original pace to replay frames at. {@link #ORIGINAL_SPEED} replays them at the pace
+     *          they were recorded, <code>2.0</code> twice as fast, and {@link #MAXIMUM_SPEED} without waiting.
+     *
+     * @return  The number of frames replayed
+     *
+     * @since   3.3.0
+     */
+    public int replay(InteractiveWebSocketClient webSocketClient, double speed) {
+        if (webSocketClient == null || !(speed > 0)) {
+            LOG.fatal("A websocket client and a positive speed are required");
+            throw new IllegalArgumentException("A websocket client and a positive speed are required");
+        }
+
+        long startNanos = System.nanoTime();
+        long firstTimestampNanos = frames.isEmpty() ? 0 : frames.get(0).getTimestamp(TimeUnit.NANOSECONDS);
+        int replayed = 0;
+        for (RecordedFrame frame : frames) {
+            if (speed != MAXIMUM_SPEED) {
+                long dueNanos = startNanos + (long) ((frame.getTimestamp(TimeUnit.NANOSECONDS) - firstTimestampNanos) / speed);
+                long waitNanos;
+                while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                    if (Thread.currentThread().isInterrupted()) {
+                        return replayed;
+                    }
+                }
+            }
+
+            if (frame.isBinary()) {
+                webSocketClient.setCompressionScheme(frame.getCompressionScheme());
+                webSocketClient.onMessage(ByteBuffer.wrap(frame.getPayload()));
+            }
+            else {
+                webSocketClient.onMessage(frame.getText());
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+}
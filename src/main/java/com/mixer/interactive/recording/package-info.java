@@ -0,0 +1,9 @@
+/**
+ * Contains classes for recording the frames exchanged with the Interactive service, and for replaying recorded frames
+ * through an <code>InteractiveWebSocketClient</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.recording;
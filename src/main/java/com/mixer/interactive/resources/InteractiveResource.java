@@ -1,10 +1,15 @@
 package com.mixer.interactive.resources;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * The abstract class <code>InteractiveResource</code> is the superclass of all classes representing resources
@@ -19,13 +24,34 @@ import java.util.Collection;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public abstract class InteractiveResource<T extends InteractiveResource<T>> implements IInteractiveUpdatable {
 
+    /**
+     * Modification state gathered by the calling thread to compare against the state of a cached serialized form
+     */
+    private static final ThreadLocal<List<Object>> MODIFICATION_STATE = ThreadLocal.withInitial(ArrayList::new);
+
     /**
      * Json object holding the map of meta properties
      */
     protected JsonElement meta;
 
+    /**
+     * Number of times this resource has been modified
+     */
+    private transient int modificationCount;
+
+    /**
+     * Serialized form of this resource cached for sending it, or <code>null</code> if none is cached
+     */
+    private transient JsonElement serializedForm;
+
+    /**
+     * Modification state of this resource when its serialized form was cached
+     */
+    private transient List<Object> serializedState;
+
     /**
      * Returns <code>this</code> as an instance of the specified generic. Utilizes the
      * <a target="_blank" href="http://www.angelikalanger.com/GenericsFAQ/FAQSections/ProgrammingIdioms.html#FAQ206">getThis</a>
@@ -52,13 +78,15 @@ public abstract class InteractiveResource<T extends InteractiveResource<T>> impl
     public abstract boolean syncIfEqual(Collection<?> objects);
 
     /**
-     * Returns the Json object holding the map of meta properties.
+     * Returns the Json object holding the map of meta properties. As the returned object can be modified, calling
+     * this method discards the cached serialized form of this resource.
      *
      * @return  Json object holding the map of meta properties
      *
      * @since   1.0.0
      */
     public JsonObject getMeta() {
+        serializedForm = null;
         if (meta instanceof JsonObject) {
             return (JsonObject) meta;
         }
@@ -77,6 +105,7 @@ public abstract class InteractiveResource<T extends InteractiveResource<T>> impl
      */
     public T setMeta(JsonObject meta) {
         this.meta = meta;
+        modified();
         return getThis();
     }
 
@@ -114,6 +143,172 @@ public abstract class InteractiveResource<T extends InteractiveResource<T>> impl
             propertyObject.add("value", GameClient.GSON.toJsonTree(value));
         }
         metaObject.add(key, propertyObject);
+        modified();
         return getThis();
     }
+
+    /**
+     * Returns the number of times this resource has been modified through its setters.
+     *
+     * @return  The number of times this resource has been modified
+     *
+     * @since   3.3.0
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns the serialized form of this resource, as <code>GameClient.GSON.toJsonTree</code> would. The element
+     * returned is a copy of the serialized form cached for sending this resource, and may be modified freely.
+     *
+     * @return  The serialized form of this resource
+     *
+     * @see     #toJsonArray(Collection)
+     * @see     #toCachedJsonTree(InteractiveResource)
+     *
+     * @since   3.3.0
+     */
+    public JsonElement toJsonTree() {
+        return GameClient.GSON.toJsonTree(getSerializedForm());
+    }
+
+    /**
+     * Returns a <code>JsonArray</code> holding the serialized form of each resource in a <code>Collection</code>,
+     * using the cached serialized form of resources that have not changed. The elements of the array are the cached
+     * forms themselves, so that resources that have not changed are neither serialized nor copied again each time
+     * they are sent to the Interactive service, and must not be modified.
+     *
+     * @param   resources
+     *          A <code>Collection</code> of resources
+     *
+     * @return  <code>JsonArray</code> holding the serialized form of each resource
+     *
+     * @since   3.3.0
+     */
+    public static JsonArray toJsonArray(Collection<? extends InteractiveResource> resources) {
+        JsonArray jsonArray = new JsonArray();
+        for (InteractiveResource resource : resources) {
+            jsonArray.add(toCachedJsonTree(resource));
+        }
+        return jsonArray;
+    }
+
+    /**
+     * Returns the cached serialized form of a resource, as held in the arrays returned by
+     * {@link #toJsonArray(Collection)}. Meant for encoding resources to send them, and like those arrays the element
+     * returned must not be modified.
+     *
+     * @param   resource
+     *          A resource
+     *
+     * @return  The cached serialized form of the resource, or <code>JsonNull</code> if it is <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    public static JsonElement toCachedJsonTree(InteractiveResource resource) {
+        return resource != null ? resource.getSerializedForm() : JsonNull.INSTANCE;
+    }
+
+    /**
+     * Returns the cached serialized form of this resource, serializing it again if this resource or an object it
+     * contains has been modified since it was cached. The modification state is gathered in a list reused by the
+     * calling thread, and only copied when the serialized form has to be cached again.
+     *
+     * @return  The cached serialized form of this resource
+     *
+     * @since   3.3.0
+     */
+    private JsonElement getSerializedForm() {
+        List<Object> state = MODIFICATION_STATE.get();
+        state.clear();
+        appendModificationState(state);
+        if (serializedForm == null || !isSameState(state, serializedState)) {
+            List<Object> cachedState = new ArrayList<>(state);
+            serializedForm = serialize();
+            serializedState = cachedState;
+        }
+        state.clear();
+        return serializedForm;
+    }
+
+    /**
+     * Serializes this resource without using its cached serialized form.
+     *
+     * @return  The serialized form of this resource
+     *
+     * @since   3.3.0
+     */
+    protected JsonElement serialize() {
+        return GameClient.GSON.toJsonTree(this);
+    }
+
+    /**
+     * Records a modification of this resource, discarding its cached serialized form. Called by every method that
+     * changes a serialized field.
+     *
+     * @since   3.3.0
+     */
+    protected void modified() {
+        modificationCount++;
+        serializedForm = null;
+        serializedState = null;
+    }
+
+    /**
+     * Adds the modification state of this resource to a <code>List</code>. The state holds the modification count of
+     * this resource, followed by each object it contains along with that object's own modification state. Subclasses
+     * holding objects whose changes alter their serialized form add them after calling this method.
+     *
+     * @param   state
+     *          <code>List</code> the modification state is added to
+     *
+     * @since   3.3.0
+     */
+    protected void appendModificationState(List<Object> state) {
+        state.add(modificationCount);
+    }
+
+    /**
+     * Adds the modification state of a resource contained by this resource to a <code>List</code>.
+     *
+     * @param   resource
+     *          The contained resource
+     * @param   state
+     *          <code>List</code> the modification state is added to
+     *
+     * @see     #appendModificationState(List)
+     *
+     * @since   3.3.0
+     */
+    protected static void appendModificationState(InteractiveResource<?> resource, List<Object> state) {
+        state.add(resource);
+        resource.appendModificationState(state);
+    }
+
+    /**
+     * Returns whether two modification states are the same. Contained objects are compared by identity, as an equal
+     * object that replaced another may serialize differently.
+     *
+     * @param   state
+     *          The current modification state
+     * @param   other
+     *          The modification state to compare against
+     *
+     * @return  <code>true</code> if the modification states are the same, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private static boolean isSameState(List<Object> state, List<Object> other) {
+        if (other == null || state.size() != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < state.size(); i++) {
+            Object value = state.get(i);
+            if (value instanceof Integer ? !value.equals(other.get(i)) : value != other.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -1,5 +1,6 @@
 package com.mixer.interactive.resources.control;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.InteractiveResource;
 
 import java.time.Duration;
@@ -13,6 +14,7 @@ import java.util.Collection;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter(discriminatorValue = "button")
 public class ButtonControl extends InteractiveControl<ButtonControl> {
 
     /**
@@ -109,6 +111,67 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
         super(controlID, sceneID, InteractiveControlType.BUTTON, position);
     }
 
+    /**
+     * Initializes a new <code>ButtonControl</code> from its serialized fields, as read by its generated type adapter.
+     *
+     * @param   controlID
+     *          Unique identifier for the <code>InteractiveControl</code>
+     * @param   sceneID
+     *          Unique identifier for the <code>InteractiveScene</code> that contains this control
+     * @param   kind
+     *          The <code>InteractiveControlType</code> of this control
+     * @param   disabled
+     *          Whether or not this control is disabled
+     * @param   controlPositions
+     *          A <code>Collection</code> of <code>InteractiveControlPositions</code> for this control
+     * @param   keyCode
+     *          JavaScript keyCode which participant’s use to trigger this button via their keyboard
+     * @param   text
+     *          The text displayed on a button
+     * @param   tooltip
+     *          The tooltip text displayed when the participant hovers over the button
+     * @param   cost
+     *          The cost in sparks involved in pressing a button
+     * @param   progress
+     *          Value used for rendering the progress bar on the button. Values should be in the range of [0, 1] where 1
+     *          represents a completely full bar
+     * @param   cooldown
+     *          Cooldown that lasts until the provided UTC unix timestamp
+     * @param   textSize
+     *          The size of text on the button.
+     * @param   textColor
+     *          Color of text on the button.
+     * @param   accentColor
+     *          Accent color of the button.
+     * @param   focusColor
+     *          Focus color of the button.
+     * @param   borderColor
+     *          Color of the border of the button.
+     * @param   backgroundColor
+     *          Button's background color.
+     * @param   backgroundImage
+     *          Button's background image.
+     *
+     * @since   3.3.0
+     */
+    @GenerateTypeAdapter.Creator
+    ButtonControl(String controlID, String sceneID, InteractiveControlType kind, boolean disabled, Collection<InteractiveControlPosition> controlPositions, Integer keyCode, String text, String tooltip, Integer cost, Float progress, Long cooldown, int textSize, String textColor, String accentColor, String focusColor, String borderColor, String backgroundColor, String backgroundImage) {
+        super(controlID, sceneID, kind, disabled, controlPositions);
+        this.keyCode = keyCode;
+        this.text = text;
+        this.tooltip = tooltip;
+        this.cost = cost;
+        this.progress = progress;
+        this.cooldown = cooldown;
+        this.textSize = textSize;
+        this.textColor = textColor;
+        this.accentColor = accentColor;
+        this.focusColor = focusColor;
+        this.borderColor = borderColor;
+        this.backgroundColor = backgroundColor;
+        this.backgroundImage = backgroundImage;
+    }
+
     /**
      * Returns the keyCode for this <code>ButtonControl</code>.
      *
@@ -132,6 +195,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setKeyCode(Integer keyCode) {
         this.keyCode = keyCode;
+        modified();
         return this;
     }
 
@@ -158,6 +222,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setText(String text) {
         this.text = text;
+        modified();
         return this;
     }
 
@@ -184,6 +249,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setTooltip(String tooltip) {
         this.tooltip = tooltip;
+        modified();
         return this;
     }
 
@@ -210,6 +276,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setCost(Integer cost) {
         this.cost = cost;
+        modified();
         return this;
     }
 
@@ -236,6 +303,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setProgress(Float progress) {
         this.progress = progress;
+        modified();
         return this;
     }
 
@@ -265,6 +333,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setCooldown(Number cooldown) {
         this.cooldown = cooldown.longValue();
+        modified();
         return this;
     }
 
@@ -281,6 +350,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setCooldown(Instant cooldown) {
         this.cooldown = cooldown.toEpochMilli();
+        modified();
         return this;
     }
 
@@ -321,6 +391,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setTextSize(int size) {
         this.textSize = size;
+        modified();
         return this;
     }
 
@@ -347,6 +418,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setTextColor(String color) {
         this.textColor = color;
+        modified();
         return this;
     }
 
@@ -373,6 +445,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setAccentColor(String color) {
         this.accentColor = color;
+        modified();
         return this;
     }
 
@@ -399,6 +472,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setFocusColor(String color) {
         this.focusColor = color;
+        modified();
         return this;
     }
 
@@ -425,6 +499,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setBorderColor(String color) {
         this.borderColor = color;
+        modified();
         return this;
     }
 
@@ -451,6 +526,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setBackgroundColor(String color) {
         this.backgroundColor = color;
+        modified();
         return this;
     }
 
@@ -477,6 +553,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
      */
     public ButtonControl setBackgroundImage(String image) {
         this.backgroundImage = image;
+        modified();
         return this;
     }
 
@@ -525,6 +602,7 @@ public class ButtonControl extends InteractiveControl<ButtonControl> {
                     this.textColor = ((ButtonControl) o).textColor;
                     this.textSize = ((ButtonControl) o).textSize;
                     this.backgroundImage = ((ButtonControl) o).backgroundImage;
+                    modified();
                     return true;
                 }
             }
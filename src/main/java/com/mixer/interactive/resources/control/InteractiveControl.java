@@ -5,6 +5,8 @@ import com.google.common.hash.Hashing;
 import com.google.gson.JsonElement;
 import com.google.gson.annotations.SerializedName;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+import com.mixer.interactive.gson.Interned;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.resources.IInteractiveCreatable;
 import com.mixer.interactive.resources.IInteractiveDeletable;
@@ -15,7 +17,8 @@ import org.apache.logging.log4j.Logger;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -31,6 +34,7 @@ import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter(discriminator = "kind")
 public abstract class InteractiveControl<T extends InteractiveResource<T>>
         extends InteractiveResource<T>
         implements IInteractiveCreatable, IInteractiveDeletable, Comparable<InteractiveControl> {
@@ -43,11 +47,13 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
     /**
      * Unique identifier for this control
      */
+    @Interned
     private final String controlID;
 
     /**
      * Unique identifier for the scene containing this control
      */
+    @Interned
     private final String sceneID;
 
     /**
@@ -64,7 +70,8 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
      * <code>Set</code> of <code>InteractiveControlPositions</code> for this control
      */
     @SerializedName("position")
-    private final Set<InteractiveControlPosition> controlPositions = new HashSet<>();
+    @GenerateTypeAdapter.Accessors(getter = "getPositions")
+    private final Set<InteractiveControlPosition> controlPositions = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>InteractiveControl</code>.
@@ -170,6 +177,33 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
         }
     }
 
+    /**
+     * Initializes a new <code>InteractiveControl</code> from its serialized fields, as read by the generated type
+     * adapter of its subclass.
+     *
+     * @param   controlID
+     *          Unique identifier for the <code>InteractiveControl</code>
+     * @param   sceneID
+     *          Unique identifier for the <code>InteractiveScene</code> that contains this control
+     * @param   kind
+     *          The <code>InteractiveControlType</code> of this control
+     * @param   disabled
+     *          Whether or not this control is disabled
+     * @param   controlPositions
+     *          A <code>Collection</code> of <code>InteractiveControlPositions</code> for this control
+     *
+     * @since   3.3.0
+     */
+    InteractiveControl(String controlID, String sceneID, InteractiveControlType kind, boolean disabled, Collection<InteractiveControlPosition> controlPositions) {
+        this.controlID = controlID;
+        this.sceneID = sceneID;
+        this.kind = kind;
+        this.disabled = disabled;
+        if (controlPositions != null) {
+            this.controlPositions.addAll(controlPositions);
+        }
+    }
+
     /**
      * Returns the unique identifier for the <code>InteractiveControl</code>.
      *
@@ -232,6 +266,7 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
         else {
             this.disabled = false;
         }
+        modified();
         return getThis();
     }
 
@@ -335,6 +370,7 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
                 this.controlPositions.add(controlPosition);
             }
         }
+        modified();
         return getThis();
     }
 
@@ -354,6 +390,7 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
         if (controlPositions != null) {
             return setPositions(controlPositions.toArray(new InteractiveControlPosition[0]));
         }
+        modified();
         return getThis();
     }
 
@@ -373,6 +410,7 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
             this.controlPositions.clear();
             Collections.addAll(this.controlPositions, controlPositions);
         }
+        modified();
         return getThis();
     }
 
@@ -398,6 +436,7 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
         if (candidatePosition != null) {
             controlPositions.remove(candidatePosition);
         }
+        modified();
         return getThis();
     }
 
@@ -425,9 +464,31 @@ public abstract class InteractiveControl<T extends InteractiveResource<T>>
      */
     public T removeAllPositions() {
         controlPositions.clear();
+        modified();
         return getThis();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The positions of a control are part of its modification state, as they can be changed without going through
+     * the control.</p>
+     *
+     * @see     InteractiveResource#appendModificationState(List)
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void appendModificationState(List<Object> state) {
+        super.appendModificationState(state);
+        if (controlPositions != null) {
+            for (InteractiveControlPosition controlPosition : controlPositions) {
+                state.add(controlPosition);
+                state.add(controlPosition != null ? controlPosition.getModificationCount() : 0);
+            }
+        }
+    }
+
     /**
      * Creates <code>this</code> in the default scene on the Interactive service.
      *
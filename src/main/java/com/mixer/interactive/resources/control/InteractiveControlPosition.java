@@ -1,6 +1,7 @@
 package com.mixer.interactive.resources.control;
 
 import com.google.common.hash.Hashing;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -14,6 +15,7 @@ import java.nio.charset.StandardCharsets;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class InteractiveControlPosition implements Comparable<InteractiveControlPosition> {
 
     /**
@@ -49,6 +51,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
     /**
      * <code>InteractiveCanvasSize</code> for this <code>InteractiveControlPosition</code>
      */
+    @GenerateTypeAdapter.Accessors(getter = "getCanvasSize")
     private final InteractiveCanvasSize size;
 
     /**
@@ -71,6 +74,11 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
      */
     private int y;
 
+    /**
+     * Number of times this position has been modified
+     */
+    private transient int modificationCount;
+
     /**
      * Initializes a new <code>InteractiveControlPosition</code> with default values.
      *
@@ -134,6 +142,53 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
         this.y = y;
     }
 
+    /**
+     * Initializes a new <code>InteractiveControlPosition</code> from its serialized fields, as read by its generated
+     * type adapter. Unlike the public constructors, the canvas size is not validated.
+     *
+     * @param   width
+     *          Width of the <code>InteractiveControl</code>
+     * @param   height
+     *          Height of the <code>InteractiveControl</code>
+     * @param   x
+     *          X position on the Interactive control canvas
+     * @param   y
+     *          Y position on the Interactive control canvas
+     * @param   size
+     *          <code>InteractiveCanvasSize</code> for this <code>InteractiveControlPosition</code>
+     *
+     * @since   3.3.0
+     */
+    @GenerateTypeAdapter.Creator
+    InteractiveControlPosition(int width, int height, int x, int y, InteractiveCanvasSize size) {
+        this.size = size;
+        this.width = width;
+        this.height = height;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Returns the number of times this position has been modified. The <code>InteractiveControl</code> holding it
+     * uses this to tell whether its cached serialized form is still current.
+     *
+     * @return  The number of times this position has been modified
+     *
+     * @since   3.3.0
+     */
+    int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Records a modification of this position.
+     *
+     * @since   3.3.0
+     */
+    private void modified() {
+        modificationCount++;
+    }
+
     /**
      * Returns the <code>InteractiveCanvasSize</code> for this control position.
      *
@@ -168,6 +223,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
      */
     public InteractiveControlPosition setWidth(int width) {
         this.width = width;
+        modified();
         return this;
     }
 
@@ -194,6 +250,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
      */
     public InteractiveControlPosition setHeight(int height) {
         this.height = height;
+        modified();
         return this;
     }
 
@@ -212,6 +269,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
     public InteractiveControlPosition resize(int width, int height) {
         this.width = width;
         this.height = height;
+        modified();
         return this;
     }
 
@@ -238,6 +296,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
      */
     public InteractiveControlPosition setX(int x) {
         this.x = x;
+        modified();
         return this;
     }
 
@@ -264,6 +323,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
      */
     public InteractiveControlPosition setY(int y) {
         this.y = y;
+        modified();
         return this;
     }
 
@@ -282,6 +342,7 @@ public class InteractiveControlPosition implements Comparable<InteractiveControl
     public InteractiveControlPosition moveTo(int x, int y) {
         this.x = x;
         this.y = y;
+        modified();
         return this;
     }
 
@@ -1,5 +1,6 @@
 package com.mixer.interactive.resources.control;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.InteractiveResource;
 
 import java.util.Collection;
@@ -11,6 +12,7 @@ import java.util.Collection;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter(discriminatorValue = "joystick")
 public class JoystickControl extends InteractiveControl<JoystickControl> {
 
     /**
@@ -56,6 +58,36 @@ public class JoystickControl extends InteractiveControl<JoystickControl> {
         super(controlID, sceneID, InteractiveControlType.JOYSTICK, position);
     }
 
+    /**
+     * Initializes a new <code>JoystickControl</code> from its serialized fields, as read by its generated type adapter.
+     *
+     * @param   controlID
+     *          Unique identifier for the <code>InteractiveControl</code>
+     * @param   sceneID
+     *          Unique identifier for the <code>InteractiveScene</code> that contains this control
+     * @param   kind
+     *          The <code>InteractiveControlType</code> of this control
+     * @param   disabled
+     *          Whether or not this control is disabled
+     * @param   controlPositions
+     *          A <code>Collection</code> of <code>InteractiveControlPositions</code> for this control
+     * @param   sampleRate
+     *          The rate at which <code>move</code> events are to be sampled from the Interactive service
+     * @param   angle
+     *          The location of the "halo" effect on screen. Should be given in the range [0, 2)
+     * @param   intensity
+     *          The opacity of the "halo" effect
+     *
+     * @since   3.3.0
+     */
+    @GenerateTypeAdapter.Creator
+    JoystickControl(String controlID, String sceneID, InteractiveControlType kind, boolean disabled, Collection<InteractiveControlPosition> controlPositions, Integer sampleRate, Number angle, Number intensity) {
+        super(controlID, sceneID, kind, disabled, controlPositions);
+        this.sampleRate = sampleRate;
+        this.angle = angle;
+        this.intensity = intensity;
+    }
+
     /**
      * Returns the sample rate for this <code>JoystickControl</code>.
      *
@@ -79,6 +111,7 @@ public class JoystickControl extends InteractiveControl<JoystickControl> {
      */
     public JoystickControl setSampleRate(Integer sampleRate) {
         this.sampleRate = sampleRate;
+        modified();
         return this;
     }
 
@@ -105,6 +138,7 @@ public class JoystickControl extends InteractiveControl<JoystickControl> {
      */
     public JoystickControl setAngle(Number angle) {
         this.angle = angle;
+        modified();
         return this;
     }
 
@@ -131,6 +165,7 @@ public class JoystickControl extends InteractiveControl<JoystickControl> {
      */
     public JoystickControl setIntensity(Number intensity) {
         this.intensity = intensity;
+        modified();
         return this;
     }
 
@@ -170,6 +205,7 @@ public class JoystickControl extends InteractiveControl<JoystickControl> {
                     this.sampleRate = ((JoystickControl) o).sampleRate;
                     this.angle = ((JoystickControl) o).angle;
                     this.intensity = ((JoystickControl) o).intensity;
+                    modified();
                     return true;
                 }
             }
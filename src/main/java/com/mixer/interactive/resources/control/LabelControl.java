@@ -1,5 +1,6 @@
 package com.mixer.interactive.resources.control;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.InteractiveResource;
 
 import java.util.Collection;
@@ -11,6 +12,7 @@ import java.util.Collection;
  *
  * @since       3.1.0
  */
+@GenerateTypeAdapter(discriminatorValue = "label")
 public class LabelControl extends InteractiveControl<LabelControl> {
 
     /**
@@ -71,6 +73,45 @@ public class LabelControl extends InteractiveControl<LabelControl> {
         super(controlID, sceneID, InteractiveControlType.LABEL, position);
     }
 
+    /**
+     * Initializes a new <code>LabelControl</code> from its serialized fields, as read by its generated type adapter.
+     *
+     * @param   controlID
+     *          Unique identifier for the <code>InteractiveControl</code>
+     * @param   sceneID
+     *          Unique identifier for the <code>InteractiveScene</code> that contains this control
+     * @param   kind
+     *          The <code>InteractiveControlType</code> of this control
+     * @param   disabled
+     *          Whether or not this control is disabled
+     * @param   controlPositions
+     *          A <code>Collection</code> of <code>InteractiveControlPositions</code> for this control
+     * @param   text
+     *          The text displayed on a label
+     * @param   textSize
+     *          The size of text on the label.
+     * @param   textColor
+     *          Color of text on the label.
+     * @param   underline
+     *          If the label is underlined
+     * @param   bold
+     *          If the label is bolded
+     * @param   italic
+     *          If the label is italicized
+     *
+     * @since   3.3.0
+     */
+    @GenerateTypeAdapter.Creator
+    LabelControl(String controlID, String sceneID, InteractiveControlType kind, boolean disabled, Collection<InteractiveControlPosition> controlPositions, String text, int textSize, String textColor, Boolean underline, Boolean bold, Boolean italic) {
+        super(controlID, sceneID, kind, disabled, controlPositions);
+        this.text = text;
+        this.textSize = textSize;
+        this.textColor = textColor;
+        this.underline = underline;
+        this.bold = bold;
+        this.italic = italic;
+    }
+
     /**
      * Returns the text displayed on the <code>LabelControl</code>.
      *
@@ -94,6 +135,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
      */
     public LabelControl setText(String text) {
         this.text = text;
+        modified();
         return this;
     }
 
@@ -120,6 +162,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
      */
     public LabelControl setTextSize(int size) {
         this.textSize = size;
+        modified();
         return this;
     }
 
@@ -146,6 +189,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
      */
     public LabelControl setTextColor(String color) {
         this.textColor = color;
+        modified();
         return this;
     }
 
@@ -172,6 +216,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
      */
     public LabelControl setUnderline(Boolean underlined) {
         this.underline = underlined;
+        modified();
         return this;
     }
 
@@ -198,6 +243,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
      */
     public LabelControl setBold(Boolean bolded) {
         this.bold = bolded;
+        modified();
         return this;
     }
 
@@ -224,6 +270,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
      */
     public LabelControl setItalic(Boolean italicized) {
         this.italic = italicized;
+        modified();
         return this;
     }
 
@@ -264,6 +311,7 @@ public class LabelControl extends InteractiveControl<LabelControl> {
                     this.underline = ((LabelControl) o).underline;
                     this.bold = ((LabelControl) o).bold;
                     this.italic = ((LabelControl) o).italic;
+                    modified();
                     return true;
                 }
             }
@@ -1,5 +1,6 @@
 package com.mixer.interactive.resources.control;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
 import com.mixer.interactive.resources.InteractiveResource;
 
 import java.util.Collection;
@@ -11,6 +12,7 @@ import java.util.Collection;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter(discriminatorValue = "textbox")
 public class TextboxControl extends InteractiveControl<TextboxControl> {
 
     /**
@@ -66,6 +68,42 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
         super(controlID, sceneID, InteractiveControlType.TEXTBOX, position);
     }
 
+    /**
+     * Initializes a new <code>TextboxControl</code> from its serialized fields, as read by its generated type adapter.
+     *
+     * @param   controlID
+     *          Unique identifier for the <code>InteractiveControl</code>
+     * @param   sceneID
+     *          Unique identifier for the <code>InteractiveScene</code> that contains this control
+     * @param   kind
+     *          The <code>InteractiveControlType</code> of this control
+     * @param   disabled
+     *          Whether or not this control is disabled
+     * @param   controlPositions
+     *          A <code>Collection</code> of <code>InteractiveControlPositions</code> for this control
+     * @param   sumbitText
+     *          Text shown on submit button.
+     * @param   placeholder
+     *          Placeholder text.
+     * @param   cost
+     *          The cost in sparks involved in submitting this text.
+     * @param   hasSubmit
+     *          Shows if this textbox shows a submit button.
+     * @param   multiline
+     *          Shows if this textbox has multiple lines.
+     *
+     * @since   3.3.0
+     */
+    @GenerateTypeAdapter.Creator
+    TextboxControl(String controlID, String sceneID, InteractiveControlType kind, boolean disabled, Collection<InteractiveControlPosition> controlPositions, String sumbitText, String placeholder, Integer cost, boolean hasSubmit, boolean multiline) {
+        super(controlID, sceneID, kind, disabled, controlPositions);
+        this.sumbitText = sumbitText;
+        this.placeholder = placeholder;
+        this.cost = cost;
+        this.hasSubmit = hasSubmit;
+        this.multiline = multiline;
+    }
+
     /**
      * Returns the Spark cost for this <code>TextboxControl</code>.
      *
@@ -89,6 +127,7 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
      */
     public TextboxControl setCost(Integer cost) {
         this.cost = cost;
+        modified();
         return this;
     }
 
@@ -115,6 +154,7 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
      */
     public TextboxControl setSumbitText(String text) {
         this.sumbitText = text;
+        modified();
         return this;
     }
 
@@ -141,6 +181,7 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
      */
     public TextboxControl setPlaceholder(String placeholder) {
         this.placeholder = placeholder;
+        modified();
         return this;
     }
 
@@ -167,6 +208,7 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
      */
     public TextboxControl setHasSubmit(boolean hasSubmit) {
         this.hasSubmit = hasSubmit;
+        modified();
         return this;
     }
 
@@ -193,6 +235,7 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
      */
     public TextboxControl setMultiline(boolean multiline) {
         this.multiline = multiline;
+        modified();
         return this;
     }
 
@@ -234,6 +277,7 @@ public class TextboxControl extends InteractiveControl<TextboxControl> {
                     this.multiline = ((TextboxControl) o).multiline;
                     this.placeholder = ((TextboxControl) o).placeholder;
                     this.sumbitText = ((TextboxControl) o).sumbitText;
+                    modified();
                     return true;
                 }
             }
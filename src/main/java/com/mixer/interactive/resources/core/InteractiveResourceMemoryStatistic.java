@@ -1,7 +1,9 @@
 package com.mixer.interactive.resources.core;
 
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -12,11 +14,13 @@ import java.util.Set;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class InteractiveResourceMemoryStatistic {
 
     /**
      * Identifier for the <code>InteractiveResource</code>
      */
+    @GenerateTypeAdapter.Accessors(getter = "getResourceID")
     private final String id;
 
     /**
@@ -34,7 +38,8 @@ public class InteractiveResourceMemoryStatistic {
      * A <code>Set</code> of <code>InteractiveResourceMemoryStatistics</code> that belong to the
      * <code>InteractiveResource</code>
      */
-    private final Set<InteractiveResourceMemoryStatistic> resources = new HashSet<>();
+    @GenerateTypeAdapter.Accessors(getter = "getResourceMemoryStats")
+    private final Set<InteractiveResourceMemoryStatistic> resources = new LinkedHashSet<>();
 
     /**
      * Initializes a new <code>InteractiveResourceMemoryStatistic</code>.
@@ -52,6 +57,7 @@ public class InteractiveResourceMemoryStatistic {
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public InteractiveResourceMemoryStatistic(String id, int ownBytes, int cumulativeBytes, Collection<InteractiveResourceMemoryStatistic> resources) {
         this.id = id;
         this.ownBytes = ownBytes;
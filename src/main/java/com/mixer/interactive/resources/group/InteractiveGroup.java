@@ -4,6 +4,8 @@ import com.google.common.hash.Funnel;
 import com.google.common.hash.Hashing;
 import com.google.gson.JsonElement;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+import com.mixer.interactive.gson.Interned;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.resources.IInteractiveCreatable;
 import com.mixer.interactive.resources.IInteractiveDeletable;
@@ -26,6 +28,7 @@ import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
  *
  * @since       1.0.0
  */
+@GenerateTypeAdapter
 public class InteractiveGroup
         extends InteractiveResource<InteractiveGroup>
         implements IInteractiveCreatable, IInteractiveDeletable, Comparable<InteractiveGroup> {
@@ -43,11 +46,13 @@ public class InteractiveGroup
     /**
      * Unique identifier for this group
      */
+    @Interned
     private final String groupID;
 
     /**
      * Identifier for the scene for this group
      */
+    @Interned
     private String sceneID;
 
     /**
@@ -89,6 +94,26 @@ public class InteractiveGroup
         }
     }
 
+    /**
+     * Initializes a new <code>InteractiveGroup</code> from its serialized fields, as read by its generated type
+     * adapter.
+     *
+     * @param   groupID
+     *          Identifier for the <code>InteractiveGroup</code>
+     * @param   sceneID
+     *          Identifier for the <code>InteractiveScene</code> for the <code>InteractiveGroup</code>
+     * @param   meta
+     *          Json object holding the map of meta properties
+     *
+     * @since   3.3.0
+     */
+    @GenerateTypeAdapter.Creator
+    InteractiveGroup(String groupID, String sceneID, JsonElement meta) {
+        this.groupID = groupID;
+        this.sceneID = sceneID;
+        this.meta = meta;
+    }
+
     /**
      * Returns the identifier for the <code>InteractiveGroup</code>.
      *
@@ -140,6 +165,7 @@ public class InteractiveGroup
             this.sceneID = DEFAULT_GROUP;
         }
 
+        modified();
         return this;
     }
 
@@ -190,6 +216,7 @@ public class InteractiveGroup
                 if (this.equals(o)) {
                     this.meta = ((InteractiveGroup) o).meta;
                     this.sceneID = ((InteractiveGroup) o).sceneID;
+                    modified();
                     return true;
                 }
             }
@@ -0,0 +1,926 @@
+package com.mixer.interactive.resources.participant;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mixer.interactive.GameClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Holds a large audience of participants in a compact, column oriented layout.
+ *
+ * <p>Rather than one <code>InteractiveParticipant</code> object (with boxed fields) per participant, and a hash set
+ * entry around it, the store keeps one primitive array per field. Session identifiers in the canonical UUID form used
+ * by the Interactive service are packed into two <code>long</code> columns, usernames are kept as UTF-8 bytes, group
+ * identifiers are interned into a small table and stored as indexes into it, meta properties are kept as Json text
+ * and only parsed when they are read, and participants are indexed by session identifier in an open addressing table
+ * of row numbers. This takes a fraction of the heap a <code>Set&lt;InteractiveParticipant&gt;</code> of the same
+ * audience would.</p>
+ *
+ * <p>Participants are read through lightweight <code>IInteractiveParticipant</code> views that read the current state
+ * of the participant from the store. Views are created on demand and are not retained by the store. A view whose
+ * participant has been removed from the store throws an <code>IllegalStateException</code> when read. Use
+ * {@link #toParticipant(String)} to obtain an <code>InteractiveParticipant</code> that can be modified and sent to the
+ * Interactive service.</p>
+ *
+ * <pre>
+ * {@code
+ * CompactParticipantStore audience = new CompactParticipantStore();
+ *
+ * @Subscribe
+ * public void onParticipantJoin(ParticipantJoinEvent event) {
+ *     audience.putAll(event.getParticipants());
+ * }
+ * }
+ * </pre>
+ *
+ * <p>All methods are thread safe.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         IInteractiveParticipant
+ *
+ * @since       3.3.0
+ */
+public class CompactParticipantStore {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Number of rows allocated by a store created without an expected size
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Flag set when the participant's input has been disabled
+     */
+    private static final byte FLAG_DISABLED = 1;
+
+    /**
+     * Flag set when the participant has no user id
+     */
+    private static final byte FLAG_NO_USER_ID = 1 << 1;
+
+    /**
+     * Flag set when the participant has no level
+     */
+    private static final byte FLAG_NO_LEVEL = 1 << 2;
+
+    /**
+     * Flag set when the participant has no last input timestamp
+     */
+    private static final byte FLAG_NO_LAST_INPUT_AT = 1 << 3;
+
+    /**
+     * Flag set when the participant has no connection timestamp
+     */
+    private static final byte FLAG_NO_CONNECTED_AT = 1 << 4;
+
+    /**
+     * Most significant bits of the session identifier of each row whose session identifier is a canonical UUID
+     */
+    private long[] sessionHighs;
+
+    /**
+     * Least significant bits of the session identifier of each row whose session identifier is a canonical UUID
+     */
+    private long[] sessionLows;
+
+    /**
+     * Session identifier of each row whose session identifier is not a canonical UUID, <code>null</code> otherwise
+     */
+    private String[] sessionIDs;
+
+    /**
+     * User id of each row
+     */
+    private int[] userIDs;
+
+    /**
+     * UTF-8 encoded username of each row
+     */
+    private byte[][] usernames;
+
+    /**
+     * Level of each row
+     */
+    private int[] levels;
+
+    /**
+     * Last input timestamp of each row
+     */
+    private long[] lastInputAts;
+
+    /**
+     * Connection timestamp of each row
+     */
+    private long[] connectedAts;
+
+    /**
+     * Flags of each row, recording whether input is disabled and which nullable fields are absent
+     */
+    private byte[] flags;
+
+    /**
+     * Index into the group table of each row, or <code>-1</code> if the participant has no group
+     */
+    private int[] groupIndexes;
+
+    /**
+     * Meta properties of each row as Json text, or <code>null</code> if the participant has none
+     */
+    private String[] metas;
+
+    /**
+     * Interned group identifiers, indexed by the values of <code>groupIndexes</code>
+     */
+    private final List<String> groupIDs = new ArrayList<>();
+
+    /**
+     * Index into the group table of each interned group identifier
+     */
+    private final Map<String, Integer> groupIndexLookup = new HashMap<>();
+
+    /**
+     * Open addressing table of row numbers plus one, indexed by session identifier. Zero marks an empty slot.
+     */
+    private int[] slots;
+
+    /**
+     * Number of participants in the store
+     */
+    private int size;
+
+    /**
+     * Initializes a new, empty <code>CompactParticipantStore</code>.
+     *
+     * @since   3.3.0
+     */
+    public CompactParticipantStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes a new, empty <code>CompactParticipantStore</code> sized for an expected number of participants.
+     *
+     * @param   expectedSize
+     *          Number of participants the store is expected to hold
+     *
+     * @since   3.3.0
+     */
+    public CompactParticipantStore(int expectedSize) {
+        if (expectedSize < 0) {
+            LOG.fatal("Expected size must not be negative");
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        allocateRows(Math.max(expectedSize, 1));
+        slots = new int[slotCapacityFor(Math.max(expectedSize, 1))];
+    }
+
+    /**
+     * Returns the number of participants in the store.
+     *
+     * @return  The number of participants in the store
+     *
+     * @since   3.3.0
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether or not the store holds a participant.
+     *
+     * @param   sessionID
+     *          Session identifier of the participant
+     *
+     * @return  <code>true</code> if the store holds the participant, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public synchronized boolean contains(String sessionID) {
+        return sessionID != null && findSlot(new SessionKey(sessionID)) >= 0;
+    }
+
+    /**
+     * Adds a participant to the store, replacing the state held for a participant with the same session identifier.
+     *
+     * @param   participant
+     *          The participant to add
+     *
+     * @since   3.3.0
+     */
+    public synchronized void put(IInteractiveParticipant participant) {
+        if (participant == null || participant.getSessionID() == null) {
+            LOG.fatal("Participants added to the store must have a session identifier");
+            throw new IllegalArgumentException("Participants added to the store must have a session identifier");
+        }
+
+        SessionKey key = new SessionKey(participant.getSessionID());
+        int slot = findSlot(key);
+        int row;
+        if (slot >= 0) {
+            row = slots[slot] - 1;
+        }
+        else {
+            if (size == flags.length) {
+                allocateRows(size + (size >> 1) + 1);
+            }
+            if ((size + 1) * 2 > slots.length) {
+                rehash(slotCapacityFor(size + 1));
+                slot = findSlot(key);
+            }
+            row = size++;
+            slots[~slot] = row + 1;
+            sessionHighs[row] = key.high;
+            sessionLows[row] = key.low;
+            sessionIDs[row] = key.text;
+        }
+        writeRow(row, participant);
+    }
+
+    /**
+     * Adds participants to the store, replacing the state held for participants with the same session identifiers.
+     *
+     * @param   participants
+     *          The participants to add
+     *
+     * @since   3.3.0
+     */
+    public synchronized void putAll(Collection<? extends IInteractiveParticipant> participants) {
+        if (participants != null) {
+            participants.forEach(this::put);
+        }
+    }
+
+    /**
+     * Removes a participant from the store.
+     *
+     * @param   sessionID
+     *          Session identifier of the participant
+     *
+     * @return  <code>true</code> if the participant was in the store, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public synchronized boolean remove(String sessionID) {
+        int slot = sessionID != null ? findSlot(new SessionKey(sessionID)) : -1;
+        if (slot < 0) {
+            return false;
+        }
+
+        int row = slots[slot] - 1;
+        deleteSlot(slot);
+
+        // Move the last row into the freed one, so the rows stay contiguous
+        int last = --size;
+        if (row != last) {
+            slots[findSlot(keyOf(last))] = row + 1;
+            sessionHighs[row] = sessionHighs[last];
+            sessionLows[row] = sessionLows[last];
+            sessionIDs[row] = sessionIDs[last];
+            userIDs[row] = userIDs[last];
+            usernames[row] = usernames[last];
+            levels[row] = levels[last];
+            lastInputAts[row] = lastInputAts[last];
+            connectedAts[row] = connectedAts[last];
+            flags[row] = flags[last];
+            groupIndexes[row] = groupIndexes[last];
+            metas[row] = metas[last];
+        }
+        sessionIDs[last] = null;
+        usernames[last] = null;
+        metas[last] = null;
+        return true;
+    }
+
+    /**
+     * Removes participants from the store.
+     *
+     * @param   participants
+     *          The participants to remove
+     *
+     * @since   3.3.0
+     */
+    public synchronized void removeAll(Collection<? extends IInteractiveParticipant> participants) {
+        if (participants != null) {
+            participants.forEach(participant -> remove(participant.getSessionID()));
+        }
+    }
+
+    /**
+     * Removes every participant from the store.
+     *
+     * @since   3.3.0
+     */
+    public synchronized void clear() {
+        Arrays.fill(sessionIDs, 0, size, null);
+        Arrays.fill(usernames, 0, size, null);
+        Arrays.fill(metas, 0, size, null);
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    /**
+     * Returns a view of a participant in the store.
+     *
+     * @param   sessionID
+     *          Session identifier of the participant
+     *
+     * @return  A view of the participant, or <code>null</code> if it is not in the store
+     *
+     * @since   3.3.0
+     */
+    public synchronized IInteractiveParticipant get(String sessionID) {
+        SessionKey key = sessionID != null ? new SessionKey(sessionID) : null;
+        int slot = key != null ? findSlot(key) : -1;
+        return slot >= 0 ? new ParticipantView(key, slots[slot] - 1) : null;
+    }
+
+    /**
+     * Returns a new <code>InteractiveParticipant</code> holding the state of a participant in the store.
+     *
+     * @param   sessionID
+     *          Session identifier of the participant
+     *
+     * @return  A new <code>InteractiveParticipant</code>, or <code>null</code> if the participant is not in the store
+     *
+     * @since   3.3.0
+     */
+    public synchronized InteractiveParticipant toParticipant(String sessionID) {
+        int slot = sessionID != null ? findSlot(new SessionKey(sessionID)) : -1;
+        return slot >= 0 ? materialize(slots[slot] - 1) : null;
+    }
+
+    /**
+     * Performs an action on a view of every participant in the store. The store is locked while the action runs, so it
+     * should not block.
+     *
+     * @param   action
+     *          The action to perform
+     *
+     * @since   3.3.0
+     */
+    public synchronized void forEach(Consumer<? super IInteractiveParticipant> action) {
+        for (int row = 0; row < size; row++) {
+            action.accept(new ParticipantView(keyOf(row), row));
+        }
+    }
+
+    /**
+     * Returns the number of participants in each group.
+     *
+     * @return  <code>Map</code> of group identifiers to the number of participants in them
+     *
+     * @since   3.3.0
+     */
+    public synchronized Map<String, Integer> getGroupSizes() {
+        int[] counts = new int[groupIDs.size()];
+        for (int row = 0; row < size; row++) {
+            if (groupIndexes[row] >= 0) {
+                counts[groupIndexes[row]]++;
+            }
+        }
+        Map<String, Integer> groupSizes = new HashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                groupSizes.put(groupIDs.get(i), counts[i]);
+            }
+        }
+        return groupSizes;
+    }
+
+    /**
+     * Writes the state of a participant into a row.
+     *
+     * @param   row
+     *          The row to write
+     * @param   participant
+     *          The participant
+     *
+     * @since   3.3.0
+     */
+    private void writeRow(int row, IInteractiveParticipant participant) {
+        byte rowFlags = Boolean.TRUE.equals(participant.isDisabled()) ? FLAG_DISABLED : 0;
+        Integer userID = participant.getUserID();
+        Integer level = participant.getLevel();
+        Long lastInputAt = participant.getLastInputAt();
+        Long connectedAt = participant.getConnectedAt();
+        if (userID == null) {
+            rowFlags |= FLAG_NO_USER_ID;
+        }
+        if (level == null) {
+            rowFlags |= FLAG_NO_LEVEL;
+        }
+        if (lastInputAt == null) {
+            rowFlags |= FLAG_NO_LAST_INPUT_AT;
+        }
+        if (connectedAt == null) {
+            rowFlags |= FLAG_NO_CONNECTED_AT;
+        }
+
+        String username = participant.getUsername();
+        userIDs[row] = userID != null ? userID : 0;
+        usernames[row] = username != null ? username.getBytes(StandardCharsets.UTF_8) : null;
+        levels[row] = level != null ? level : 0;
+        lastInputAts[row] = lastInputAt != null ? lastInputAt : 0;
+        connectedAts[row] = connectedAt != null ? connectedAt : 0;
+        flags[row] = rowFlags;
+        groupIndexes[row] = internGroup(participant.getGroupID());
+        JsonObject meta = participant.getMeta();
+        metas[row] = meta != null && meta.entrySet().size() > 0 ? GameClient.GSON.toJson(meta) : null;
+    }
+
+    /**
+     * Creates an <code>InteractiveParticipant</code> holding the state of a row.
+     *
+     * @param   row
+     *          The row
+     *
+     * @return  A new <code>InteractiveParticipant</code>
+     *
+     * @since   3.3.0
+     */
+    private InteractiveParticipant materialize(int row) {
+        byte rowFlags = flags[row];
+        InteractiveParticipant participant = new InteractiveParticipant(
+                keyOf(row).toString(),
+                (rowFlags & FLAG_NO_USER_ID) != 0 ? null : userIDs[row],
+                usernameOf(row),
+                (rowFlags & FLAG_NO_LEVEL) != 0 ? null : levels[row],
+                (rowFlags & FLAG_NO_LAST_INPUT_AT) != 0 ? null : lastInputAts[row],
+                (rowFlags & FLAG_NO_CONNECTED_AT) != 0 ? null : connectedAts[row],
+                (rowFlags & FLAG_DISABLED) != 0,
+                groupIndexes[row] >= 0 ? groupIDs.get(groupIndexes[row]) : null);
+        if (metas[row] != null) {
+            participant.setMeta(parseMeta(metas[row]));
+        }
+        return participant;
+    }
+
+    /**
+     * Returns the session identifier of a row.
+     *
+     * @param   row
+     *          The row
+     *
+     * @return  The session identifier of the row
+     *
+     * @since   3.3.0
+     */
+    private SessionKey keyOf(int row) {
+        return new SessionKey(sessionHighs[row], sessionLows[row], sessionIDs[row]);
+    }
+
+    /**
+     * Returns the username of a row.
+     *
+     * @param   row
+     *          The row
+     *
+     * @return  The username of the row
+     *
+     * @since   3.3.0
+     */
+    private String usernameOf(int row) {
+        return usernames[row] != null ? new String(usernames[row], StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Returns the index of a group identifier in the group table, adding it if it is not there yet.
+     *
+     * @param   groupID
+     *          The group identifier
+     *
+     * @return  Index of the group identifier, or <code>-1</code> if it is <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    private int internGroup(String groupID) {
+        if (groupID == null) {
+            return -1;
+        }
+        Integer index = groupIndexLookup.get(groupID);
+        if (index == null) {
+            index = groupIDs.size();
+            groupIDs.add(groupID);
+            groupIndexLookup.put(groupID, index);
+        }
+        return index;
+    }
+
+    /**
+     * Parses meta properties held as Json text.
+     *
+     * @param   meta
+     *          The Json text
+     *
+     * @return  A new Json object holding the meta properties
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject parseMeta(String meta) {
+        return new JsonParser().parse(meta).getAsJsonObject();
+    }
+
+    /**
+     * Grows every column to hold at least the provided number of rows.
+     *
+     * @param   capacity
+     *          Number of rows to allocate
+     *
+     * @since   3.3.0
+     */
+    private void allocateRows(int capacity) {
+        if (flags == null) {
+            sessionHighs = new long[capacity];
+            sessionLows = new long[capacity];
+            sessionIDs = new String[capacity];
+            userIDs = new int[capacity];
+            usernames = new byte[capacity][];
+            levels = new int[capacity];
+            lastInputAts = new long[capacity];
+            connectedAts = new long[capacity];
+            flags = new byte[capacity];
+            groupIndexes = new int[capacity];
+            metas = new String[capacity];
+        }
+        else {
+            sessionHighs = Arrays.copyOf(sessionHighs, capacity);
+            sessionLows = Arrays.copyOf(sessionLows, capacity);
+            sessionIDs = Arrays.copyOf(sessionIDs, capacity);
+            userIDs = Arrays.copyOf(userIDs, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            lastInputAts = Arrays.copyOf(lastInputAts, capacity);
+            connectedAts = Arrays.copyOf(connectedAts, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            groupIndexes = Arrays.copyOf(groupIndexes, capacity);
+            metas = Arrays.copyOf(metas, capacity);
+        }
+    }
+
+    /**
+     * Returns the number of index slots needed to hold a number of participants at no more than half load.
+     *
+     * @param   rows
+     *          Number of participants
+     *
+     * @return  A power of two number of slots
+     *
+     * @since   3.3.0
+     */
+    private static int slotCapacityFor(int rows) {
+        return Integer.highestOneBit(Math.max(rows * 2 - 1, 1)) << 1;
+    }
+
+    /**
+     * Rebuilds the index with a new number of slots.
+     *
+     * @param   capacity
+     *          A power of two number of slots
+     *
+     * @since   3.3.0
+     */
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int row = 0; row < size; row++) {
+            slots[~findSlot(keyOf(row))] = row + 1;
+        }
+    }
+
+    /**
+     * Returns the preferred index slot of a session identifier.
+     *
+     * @param   key
+     *          The session identifier
+     *
+     * @return  The preferred slot
+     *
+     * @since   3.3.0
+     */
+    private int homeSlot(SessionKey key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (slots.length - 1);
+    }
+
+    /**
+     * Finds the index slot of a session identifier.
+     *
+     * @param   key
+     *          The session identifier
+     *
+     * @return  The slot holding the session identifier's row, or the bitwise complement of the empty slot it would be
+     *          added to if it is not in the store
+     *
+     * @since   3.3.0
+     */
+    private int findSlot(SessionKey key) {
+        int mask = slots.length - 1;
+        for (int slot = homeSlot(key); ; slot = (slot + 1) & mask) {
+            if (slots[slot] == 0) {
+                return ~slot;
+            }
+            if (key.isAt(slots[slot] - 1)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Empties an index slot, shifting back the slots after it that would otherwise no longer be found.
+     *
+     * @param   slot
+     *          The slot to empty
+     *
+     * @since   3.3.0
+     */
+    private void deleteSlot(int slot) {
+        int mask = slots.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+            int home = homeSlot(keyOf(slots[next] - 1));
+            // The entry may fill the hole unless its home slot lies cyclically between the hole and itself
+            boolean reachable = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!reachable) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    /**
+     * A view of a participant in the store, reading its current state from the columns. Holds the row it was created
+     * for as a hint, and looks the participant up again if it has since moved.
+     *
+     * @since   3.3.0
+     */
+    private final class ParticipantView implements IInteractiveParticipant {
+
+        /**
+         * Session identifier of the participant
+         */
+        private final SessionKey key;
+
+        /**
+         * Row the participant was last found in
+         */
+        private int row;
+
+        /**
+         * Initializes a new <code>ParticipantView</code>.
+         *
+         * @param   key
+         *          Session identifier of the participant
+         * @param   row
+         *          Row the participant is in
+         *
+         * @since   3.3.0
+         */
+        private ParticipantView(SessionKey key, int row) {
+            this.key = key;
+            this.row = row;
+        }
+
+        /**
+         * Returns the row the participant is in. Must be called while holding the lock of the store.
+         *
+         * @return  The row the participant is in
+         *
+         * @throws  IllegalStateException
+         *          If the participant has been removed from the store
+         *
+         * @since   3.3.0
+         */
+        private int row() {
+            if (row < size && key.isAt(row)) {
+                return row;
+            }
+            int slot = findSlot(key);
+            if (slot < 0) {
+                throw new IllegalStateException("Participant '" + key + "' has been removed from the store");
+            }
+            row = slots[slot] - 1;
+            return row;
+        }
+
+        @Override
+        public String getSessionID() {
+            return key.toString();
+        }
+
+        @Override
+        public Integer getUserID() {
+            synchronized (CompactParticipantStore.this) {
+                int current = row();
+                return (flags[current] & FLAG_NO_USER_ID) != 0 ? null : userIDs[current];
+            }
+        }
+
+        @Override
+        public String getUsername() {
+            synchronized (CompactParticipantStore.this) {
+                return usernameOf(row());
+            }
+        }
+
+        @Override
+        public Integer getLevel() {
+            synchronized (CompactParticipantStore.this) {
+                int current = row();
+                return (flags[current] & FLAG_NO_LEVEL) != 0 ? null : levels[current];
+            }
+        }
+
+        @Override
+        public Long getLastInputAt() {
+            synchronized (CompactParticipantStore.this) {
+                int current = row();
+                return (flags[current] & FLAG_NO_LAST_INPUT_AT) != 0 ? null : lastInputAts[current];
+            }
+        }
+
+        @Override
+        public Long getConnectedAt() {
+            synchronized (CompactParticipantStore.this) {
+                int current = row();
+                return (flags[current] & FLAG_NO_CONNECTED_AT) != 0 ? null : connectedAts[current];
+            }
+        }
+
+        @Override
+        public Boolean isDisabled() {
+            synchronized (CompactParticipantStore.this) {
+                return (flags[row()] & FLAG_DISABLED) != 0;
+            }
+        }
+
+        @Override
+        public String getGroupID() {
+            synchronized (CompactParticipantStore.this) {
+                int groupIndex = groupIndexes[row()];
+                return groupIndex >= 0 ? groupIDs.get(groupIndex) : null;
+            }
+        }
+
+        @Override
+        public JsonObject getMeta() {
+            String meta;
+            synchronized (CompactParticipantStore.this) {
+                meta = metas[row()];
+            }
+            return meta != null ? parseMeta(meta) : null;
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ParticipantView
+                    && ((ParticipantView) o).store() == CompactParticipantStore.this
+                    && ((ParticipantView) o).key.equals(key);
+        }
+
+        @Override
+        public String toString() {
+            return "ParticipantView{sessionID='" + key + "'}";
+        }
+
+        /**
+         * Returns the store this view reads from.
+         *
+         * @return  The store this view reads from
+         *
+         * @since   3.3.0
+         */
+        private CompactParticipantStore store() {
+            return CompactParticipantStore.this;
+        }
+    }
+
+    /**
+     * A session identifier, held as the two halves of a UUID if it is a canonical (lower case) UUID string, and as
+     * the string itself otherwise.
+     *
+     * @since   3.3.0
+     */
+    private final class SessionKey {
+
+        /**
+         * Most significant bits of the UUID, or <code>0</code> if the session identifier is not a UUID
+         */
+        private final long high;
+
+        /**
+         * Least significant bits of the UUID, or <code>0</code> if the session identifier is not a UUID
+         */
+        private final long low;
+
+        /**
+         * The session identifier if it is not a canonical UUID, <code>null</code> otherwise
+         */
+        private final String text;
+
+        /**
+         * Initializes a new <code>SessionKey</code> from a session identifier.
+         *
+         * @param   sessionID
+         *          The session identifier
+         *
+         * @since   3.3.0
+         */
+        private SessionKey(String sessionID) {
+            long parsedHigh = 0;
+            long parsedLow = 0;
+            boolean uuid = sessionID.length() == 36;
+            for (int i = 0, digits = 0; uuid && i < 36; i++) {
+                char c = sessionID.charAt(i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    uuid = c == '-';
+                    continue;
+                }
+                int digit = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+                uuid = digit >= 0;
+                if (digits++ < 16) {
+                    parsedHigh = (parsedHigh << 4) | digit;
+                }
+                else {
+                    parsedLow = (parsedLow << 4) | digit;
+                }
+            }
+            this.high = uuid ? parsedHigh : 0;
+            this.low = uuid ? parsedLow : 0;
+            this.text = uuid ? null : sessionID;
+        }
+
+        /**
+         * Initializes a new <code>SessionKey</code> from its columns.
+         *
+         * @param   high
+         *          Most significant bits of the UUID
+         * @param   low
+         *          Least significant bits of the UUID
+         * @param   text
+         *          The session identifier if it is not a canonical UUID, <code>null</code> otherwise
+         *
+         * @since   3.3.0
+         */
+        private SessionKey(long high, long low, String text) {
+            this.high = high;
+            this.low = low;
+            this.text = text;
+        }
+
+        /**
+         * Returns whether or not a row holds this session identifier.
+         *
+         * @param   row
+         *          The row
+         *
+         * @return  <code>true</code> if the row holds this session identifier, <code>false</code> otherwise
+         *
+         * @since   3.3.0
+         */
+        private boolean isAt(int row) {
+            return text != null
+                    ? text.equals(sessionIDs[row])
+                    : sessionIDs[row] == null && sessionHighs[row] == high && sessionLows[row] == low;
+        }
+
+        @Override
+        public int hashCode() {
+            return text != null ? text.hashCode() : Long.hashCode(high * 31 + low);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SessionKey
+                    && ((SessionKey) o).high == high
+                    && ((SessionKey) o).low == low
+                    && Objects.equals(((SessionKey) o).text, text);
+        }
+
+        @Override
+        public String toString() {
+            return text != null ? text : new UUID(high, low).toString();
+        }
+    }
+}
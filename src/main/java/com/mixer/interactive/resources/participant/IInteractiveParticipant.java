@@ -0,0 +1,98 @@
+package com.mixer.interactive.resources.participant;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The interface <code>IInteractiveParticipant</code> defines the read-only view of a participant shared by
+ * <code>InteractiveParticipant</code> and the views returned by a <code>CompactParticipantStore</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveParticipant
+ * @see         CompactParticipantStore
+ *
+ * @since       3.3.0
+ */
+public interface IInteractiveParticipant {
+
+    /**
+     * Returns the unique string identifier for the participant in this session.
+     *
+     * @return  Unique string identifier for the participant in this session
+     *
+     * @since   3.3.0
+     */
+    String getSessionID();
+
+    /**
+     * Returns the user id (as an unsigned integer) for the participant on Mixer.
+     *
+     * @return  The user id (as an unsigned integer) for the participant on Mixer
+     *
+     * @since   3.3.0
+     */
+    Integer getUserID();
+
+    /**
+     * Returns the participant's username on Mixer.
+     *
+     * @return  Participant's username on Mixer
+     *
+     * @since   3.3.0
+     */
+    String getUsername();
+
+    /**
+     * Returns the participant's numeric (unsigned integer) Mixer level.
+     *
+     * @return  Participant's numeric (unsigned integer) Mixer level
+     *
+     * @since   3.3.0
+     */
+    Integer getLevel();
+
+    /**
+     * Returns the UTC unix timestamp (in milliseconds) since the participant last interacted with controls.
+     *
+     * @return  UTC unix timestamp (in milliseconds) since the participant last interacted with controls
+     *
+     * @since   3.3.0
+     */
+    Long getLastInputAt();
+
+    /**
+     * Returns the UTC unix timestamp (in milliseconds) when the participant connected.
+     *
+     * @return  UTC unix timestamp (in milliseconds) when the participant connected
+     *
+     * @since   3.3.0
+     */
+    Long getConnectedAt();
+
+    /**
+     * Returns whether or not the participant's input has been disabled.
+     *
+     * @return  <code>true</code> if the participant's input has been disabled, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    Boolean isDisabled();
+
+    /**
+     * Returns the identifier for the <code>InteractiveGroup</code> the participant is a member of.
+     *
+     * @return  Identifier for the <code>InteractiveGroup</code> the participant is a member of
+     *
+     * @since   3.3.0
+     */
+    String getGroupID();
+
+    /**
+     * Returns the Json object holding the map of meta properties.
+     *
+     * @return  Json object holding the map of meta properties, or <code>null</code> if there are none
+     *
+     * @since   3.3.0
+     */
+    JsonObject getMeta();
+}
@@ -4,6 +4,8 @@ import com.google.common.hash.Funnel;
 import com.google.common.hash.Hashing;
 import com.google.gson.JsonElement;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.GenerateTypeAdapter;
+import com.mixer.interactive.gson.Interned;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.resources.IInteractiveUpdatable;
 import com.mixer.interactive.resources.InteractiveResource;
@@ -20,17 +22,19 @@ import java.util.concurrent.CompletableFuture;
  *
  * @since       1.0.0
  */
-public class InteractiveParticipant extends InteractiveResource<InteractiveParticipant> implements Comparable<InteractiveParticipant> {
+@GenerateTypeAdapter
+public class InteractiveParticipant extends InteractiveResource<InteractiveParticipant> implements IInteractiveParticipant, Comparable<InteractiveParticipant> {
 
     /**
      * Unique string identifier for the user in this session
      */
+    @Interned(Interned.Pool.SESSION_IDS)
     private final String sessionID;
 
     /**
      * The user id (as an unsigned integer) for the participant on Mixer.
      */
-    private final Integer userID;;
+    private final Integer userID;
 
     /**
      * Participant's username on Mixer
@@ -60,6 +64,7 @@ public class InteractiveParticipant extends InteractiveResource<InteractiveParti
     /**
      * Identifier for the <code>InteractiveGroup</code> the participant is a member of
      */
+    @Interned
     private String groupID;
 
     /**
@@ -84,6 +89,7 @@ public class InteractiveParticipant extends InteractiveResource<InteractiveParti
      *
      * @since   1.0.0
      */
+    @GenerateTypeAdapter.Creator
     public InteractiveParticipant(String sessionID, Integer userID, String username, Integer level, Long lastInputAt, Long connectedAt, Boolean disabled, String groupID) {
         this.sessionID = sessionID;
         this.userID = userID;
@@ -91,7 +97,7 @@ public class InteractiveParticipant extends InteractiveResource<InteractiveParti
         this.level = level;
         this.lastInputAt = lastInputAt;
         this.connectedAt = connectedAt;
-        this.disabled = disabled;
+        this.disabled = disabled != null && disabled;
         this.groupID = groupID;
     }
 
@@ -189,6 +195,7 @@ public class InteractiveParticipant extends InteractiveResource<InteractiveParti
         else {
             this.disabled = false;
         }
+        modified();
         return this;
     }
 
@@ -220,6 +227,7 @@ public class InteractiveParticipant extends InteractiveResource<InteractiveParti
         else {
             this.groupID = "default";
         }
+        modified();
         return this;
     }
 
@@ -286,6 +294,7 @@ public class InteractiveParticipant extends InteractiveResource<InteractiveParti
                     this.connectedAt = ((InteractiveParticipant) o).connectedAt;
                     this.disabled = ((InteractiveParticipant) o).disabled;
                     this.groupID = ((InteractiveParticipant) o).groupID;
+                    modified();
                     return true;
                 }
             }
@@ -3,6 +3,7 @@ package com.mixer.interactive.resources.scene;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.Hashing;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.mixer.interactive.GameClient;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.resources.IInteractiveCreatable;
@@ -17,6 +18,7 @@ import org.apache.logging.log4j.Logger;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -43,6 +45,26 @@ public class InteractiveScene
      */
     private static final String DEFAULT_SCENE = "default";
 
+    /**
+     * Name of the serialized scene identifier property
+     */
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+
+    /**
+     * Name of the serialized groups property
+     */
+    private static final String PARAM_KEY_GROUPS = "groups";
+
+    /**
+     * Name of the serialized controls property
+     */
+    private static final String PARAM_KEY_CONTROLS = "controls";
+
+    /**
+     * Name of the serialized meta properties property
+     */
+    private static final String PARAM_KEY_META = "meta";
+
     /**
      * Unique identifier for this scene
      */
@@ -189,6 +211,47 @@ public class InteractiveScene
         return controls;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The groups and controls of a scene are part of its modification state, as they can be changed without going
+     * through the scene.</p>
+     *
+     * @see     InteractiveResource#appendModificationState(List)
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected void appendModificationState(List<Object> state) {
+        super.appendModificationState(state);
+        for (InteractiveGroup group : groups) {
+            appendModificationState(group, state);
+        }
+        for (InteractiveControl control : controls) {
+            appendModificationState(control, state);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A scene is serialized from the cached serialized forms of its groups and controls, so only the ones that
+     * changed are serialized again.</p>
+     *
+     * @see     InteractiveResource#serialize()
+     *
+     * @since   3.3.0
+     */
+    @Override
+    protected JsonElement serialize() {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty(PARAM_KEY_SCENE_ID, sceneID);
+        jsonObject.add(PARAM_KEY_GROUPS, toJsonArray(groups));
+        jsonObject.add(PARAM_KEY_CONTROLS, toJsonArray(controls));
+        jsonObject.add(PARAM_KEY_META, GameClient.GSON.toJsonTree(meta));
+        return jsonObject;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -223,6 +286,7 @@ public class InteractiveScene
                     this.meta = ((InteractiveScene) o).meta;
                     this.controls.clear();
                     this.controls.addAll(((InteractiveScene) o).getControls());
+                    modified();
                     return true;
                 }
             }
@@ -1,9 +1,15 @@
 package com.mixer.interactive.services;
 
+import com.google.gson.JsonElement;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.protocol.InteractiveMethod;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * A <code>AbstractServiceProvider</code> performs some function within the client.
  *
@@ -23,6 +29,11 @@ public abstract class AbstractServiceProvider {
      */
     protected final GameClient gameClient;
 
+    /**
+     * Options applied to the requests made through this service provider
+     */
+    protected final CallOptions callOptions;
+
     /**
      * Initializes a new <code>AbstractServiceProvider</code>.
      *
@@ -32,12 +43,112 @@ public abstract class AbstractServiceProvider {
      * @since   1.0.0
      */
     public AbstractServiceProvider(GameClient gameClient) {
+        this(gameClient, CallOptions.DEFAULT);
+    }
+
+    /**
+     * Initializes a new <code>AbstractServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    protected AbstractServiceProvider(GameClient gameClient, CallOptions callOptions) {
         if (gameClient == null) {
             LOG.fatal("GameClient cannot be null");
             throw new IllegalArgumentException("GameClient cannot be null");
         }
+        if (callOptions == null) {
+            LOG.fatal("CallOptions cannot be null");
+            throw new IllegalArgumentException("CallOptions cannot be null");
+        }
 
         this.gameClient = gameClient;
+        this.callOptions = callOptions;
+    }
+
+    /**
+     * Returns the options applied to the requests made through this service provider.
+     *
+     * @return  The <code>CallOptions</code> for this service provider
+     *
+     * @since   3.3.0
+     */
+    public CallOptions getCallOptions() {
+        return callOptions;
+    }
+
+    /**
+     * Returns the service provider requests are sent through, bound to the options of this service provider.
+     *
+     * @return  The <code>RemoteProcedureCallServiceProvider</code> to send requests through
+     *
+     * @since   3.3.0
+     */
+    protected RemoteProcedureCallServiceProvider rpc() {
+        RemoteProcedureCallServiceProvider rpcServiceProvider = gameClient.using(GameClient.RPC_SERVICE_PROVIDER);
+        return callOptions == CallOptions.DEFAULT ? rpcServiceProvider : rpcServiceProvider.withOptions(callOptions);
+    }
+
+    /**
+     * Makes a read request through the client's <code>ReadRequestCache</code>, so that it is shared with identical
+     * requests in flight or answered from a cached result. Requests made with options other than the default ones are
+     * sent on their own, as their deadline or priority may differ from the shared request.
+     *
+     * @param   method
+     *          The read method
+     * @param   params
+     *          Parameters of the request
+     * @param   memberName
+     *          Member name of the result to be parsed from the reply
+     * @param   type
+     *          Type of object to be parsed from the reply
+     * @param   <T>
+     *          Type of the result
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the result of the request
+     *
+     * @see     ReadRequestCache
+     *
+     * @since   3.3.0
+     */
+    protected <T> CompletableFuture<T> read(InteractiveMethod method, JsonElement params, String memberName, Type type) {
+        if (callOptions != CallOptions.DEFAULT) {
+            return rpc().makeRequest(method, params, memberName, type);
+        }
+        return gameClient.getReadRequestCache().get(method, () -> rpc().makeRequest(method, params, memberName, JsonElement.class), type);
+    }
+
+    /**
+     * Runs work that makes requests, asynchronously unless the requests are held by a batch. Work for a batch runs
+     * straight away, so that its requests are made before the batch is sent.
+     *
+     * @param   work
+     *          Makes the requests and returns their result
+     * @param   <T>
+     *          Type of the result
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the result of the work
+     *
+     * @see     RequestBatch
+     *
+     * @since   3.3.0
+     */
+    protected <T> CompletableFuture<T> supply(Supplier<T> work) {
+        if (callOptions.getBatch() == null) {
+            return CompletableFuture.supplyAsync(work);
+        }
+        try {
+            return CompletableFuture.completedFuture(work.get());
+        }
+        catch (RuntimeException e) {
+            CompletableFuture<T> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
     }
 
     /**
@@ -0,0 +1,260 @@
+package com.mixer.interactive.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the time requests wait for their replies is adapted to the round trips observed for each
+ * <code>InteractiveMethod</code>. Once enough replies to a method have been received, its requests wait for a
+ * percentile of the most recent round trips multiplied by a factor, kept between a floor and a ceiling.
+ *
+ * <p>Instances are immutable. The policy used by a <code>GameClient</code> is set with
+ * {@link AdaptiveTimeouts#setPolicy(AdaptiveTimeoutPolicy)}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         AdaptiveTimeouts
+ *
+ * @since       3.3.0
+ */
+public class AdaptiveTimeoutPolicy {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default policy: three times the 99th percentile of the last 256 round trips, once 20 have been observed, kept
+     * between 250 milliseconds and 15 seconds
+     */
+    public static final AdaptiveTimeoutPolicy DEFAULT = new AdaptiveTimeoutPolicy(99, 3, TimeUnit.MILLISECONDS.toNanos(250), TimeUnit.SECONDS.toNanos(15), 20, 256);
+
+    /**
+     * Percentile of the observed round trips the timeout is based on
+     */
+    private final double percentile;
+
+    /**
+     * Factor the percentile is multiplied by
+     */
+    private final double multiplier;
+
+    /**
+     * Shortest timeout, in nanoseconds
+     */
+    private final long floorNanos;
+
+    /**
+     * Longest timeout, in nanoseconds
+     */
+    private final long ceilingNanos;
+
+    /**
+     * Number of round trips observed for a method before its timeout is adapted
+     */
+    private final int minSamples;
+
+    /**
+     * Number of most recent round trips the timeout is based on
+     */
+    private final int windowSize;
+
+    /**
+     * Initializes a new <code>AdaptiveTimeoutPolicy</code>.
+     *
+     * @param   percentile
+     *          Percentile of the observed round trips the timeout is based on
+     * @param   multiplier
+     *          Factor the percentile is multiplied by
+     * @param   floorNanos
+     *          Shortest timeout, in nanoseconds
+     * @param   ceilingNanos
+     *          Longest timeout, in nanoseconds
+     * @param   minSamples
+     *          Number of round trips observed for a method before its timeout is adapted
+     * @param   windowSize
+     *          Number of most recent round trips the timeout is based on
+     *
+     * @since   3.3.0
+     */
+    private AdaptiveTimeoutPolicy(double percentile, double multiplier, long floorNanos, long ceilingNanos, int minSamples, int windowSize) {
+        if (percentile <= 0 || percentile > 100 || multiplier <= 0) {
+            LOG.fatal("Percentile must be in (0, 100] and the multiplier positive");
+            throw new IllegalArgumentException("Percentile must be in (0, 100] and the multiplier positive");
+        }
+        if (floorNanos < 0 || ceilingNanos < floorNanos) {
+            LOG.fatal("Timeout bounds must satisfy 0 <= floor <= ceiling");
+            throw new IllegalArgumentException("Timeout bounds must satisfy 0 <= floor <= ceiling");
+        }
+        if (minSamples < 1 || windowSize < minSamples) {
+            LOG.fatal("Window size must be at least the minimum number of samples, which must be positive");
+            throw new IllegalArgumentException("Window size must be at least the minimum number of samples, which must be positive");
+        }
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.floorNanos = floorNanos;
+        this.ceilingNanos = ceilingNanos;
+        this.minSamples = minSamples;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the percentile of the observed round trips the timeout is based on.
+     *
+     * @return  The percentile, in (0, 100]
+     *
+     * @since   3.3.0
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Returns the factor the percentile is multiplied by.
+     *
+     * @return  The multiplier
+     *
+     * @since   3.3.0
+     */
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Returns the shortest timeout.
+     *
+     * @param   timeUnit
+     *          Unit to return the timeout in
+     *
+     * @return  The floor of the timeout
+     *
+     * @since   3.3.0
+     */
+    public long getFloor(TimeUnit timeUnit) {
+        return timeUnit.convert(floorNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest timeout.
+     *
+     * @param   timeUnit
+     *          Unit to return the timeout in
+     *
+     * @return  The ceiling of the timeout
+     *
+     * @since   3.3.0
+     */
+    public long getCeiling(TimeUnit timeUnit) {
+        return timeUnit.convert(ceilingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of round trips observed for a method before its timeout is adapted.
+     *
+     * @return  The minimum number of samples
+     *
+     * @since   3.3.0
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * Returns the number of most recent round trips the timeout is based on.
+     *
+     * @return  The size of the window of samples
+     *
+     * @since   3.3.0
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the timeout for round trips whose percentile is the provided one.
+     *
+     * @param   percentileNanos
+     *          The percentile of the observed round trips, in nanoseconds
+     *
+     * @return  The timeout, in nanoseconds
+     *
+     * @since   3.3.0
+     */
+    long getTimeoutNanos(long percentileNanos) {
+        return Math.max(floorNanos, Math.min(ceilingNanos, (long) (percentileNanos * multiplier)));
+    }
+
+    /**
+     * Returns a copy of this policy based on the provided percentile, multiplied by the provided factor.
+     *
+     * @param   percentile
+     *          Percentile of the observed round trips the timeout is based on
+     * @param   multiplier
+     *          Factor the percentile is multiplied by
+     *
+     * @return  A copy of this policy with the provided percentile and multiplier
+     *
+     * @since   3.3.0
+     */
+    public AdaptiveTimeoutPolicy withPercentile(double percentile, double multiplier) {
+        return new AdaptiveTimeoutPolicy(percentile, multiplier, floorNanos, ceilingNanos, minSamples, windowSize);
+    }
+
+    /**
+     * Returns a copy of this policy with the provided floor and ceiling.
+     *
+     * @param   floor
+     *          Shortest timeout
+     * @param   ceiling
+     *          Longest timeout
+     * @param   timeUnit
+     *          Unit of the floor and ceiling
+     *
+     * @return  A copy of this policy with the provided bounds
+     *
+     * @since   3.3.0
+     */
+    public AdaptiveTimeoutPolicy withBounds(long floor, long ceiling, TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            LOG.fatal("Timeout bounds must have a time unit");
+            throw new IllegalArgumentException("Timeout bounds must have a time unit");
+        }
+        return new AdaptiveTimeoutPolicy(percentile, multiplier, timeUnit.toNanos(floor), timeUnit.toNanos(ceiling), minSamples, windowSize);
+    }
+
+    /**
+     * Returns a copy of this policy with the provided numbers of samples.
+     *
+     * @param   minSamples
+     *          Number of round trips observed for a method before its timeout is adapted
+     * @param   windowSize
+     *          Number of most recent round trips the timeout is based on
+     *
+     * @return  A copy of this policy with the provided numbers of samples
+     *
+     * @since   3.3.0
+     */
+    public AdaptiveTimeoutPolicy withSamples(int minSamples, int windowSize) {
+        return new AdaptiveTimeoutPolicy(percentile, multiplier, floorNanos, ceilingNanos, minSamples, windowSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "AdaptiveTimeoutPolicy{" +
+                "percentile=" + percentile +
+                ", multiplier=" + multiplier +
+                ", floorMillis=" + TimeUnit.NANOSECONDS.toMillis(floorNanos) +
+                ", ceilingMillis=" + TimeUnit.NANOSECONDS.toMillis(ceilingNanos) +
+                ", minSamples=" + minSamples +
+                ", windowSize=" + windowSize +
+                '}';
+    }
+}
@@ -0,0 +1,231 @@
+package com.mixer.interactive.services;
+
+import com.mixer.interactive.protocol.InteractiveMethod;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Adapts the time requests wait for their replies to the round trips observed for each
+ * <code>InteractiveMethod</code>, according to an {@link AdaptiveTimeoutPolicy}. This way a lost reply is given up
+ * on after a few typical round trips, rather than after the fixed timeout of {@link CallOptions#DEFAULT}.</p>
+ *
+ * <p>Adaptive timeouts are off until a policy is set. They apply to requests made without a timeout or deadline of
+ * their own, so a call can still choose how long to wait with {@link CallOptions#withTimeout(long, TimeUnit)} or
+ * {@link CallOptions#withDeadline(long, TimeUnit)}. Until enough round trips have been observed for a method, its
+ * requests wait for the default timeout. A request that times out counts as a round trip as long as its timeout, so
+ * that timeouts that turn out too short grow back.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.GameClient#getAdaptiveTimeouts()
+ *
+ * @since       3.3.0
+ */
+public class AdaptiveTimeouts {
+
+    /**
+     * The policy timeouts are adapted with, or <code>null</code> if they are not adapted
+     */
+    private volatile AdaptiveTimeoutPolicy policy;
+
+    /**
+     * Round trips observed for each method, guarded by the map
+     */
+    private final Map<InteractiveMethod, Window> windows = new EnumMap<>(InteractiveMethod.class);
+
+    /**
+     * Returns whether timeouts are adapted.
+     *
+     * @return  <code>true</code> if a policy has been set, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isEnabled() {
+        return policy != null;
+    }
+
+    /**
+     * Returns the policy timeouts are adapted with.
+     *
+     * @return  The <code>AdaptiveTimeoutPolicy</code>, or <code>null</code> if timeouts are not adapted
+     *
+     * @since   3.3.0
+     */
+    public AdaptiveTimeoutPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the policy timeouts are adapted with. The round trips observed so far are forgotten.
+     *
+     * @param   policy
+     *          The <code>AdaptiveTimeoutPolicy</code> to adapt timeouts with, or <code>null</code> to stop adapting
+     *          them
+     *
+     * @since   3.3.0
+     */
+    public void setPolicy(AdaptiveTimeoutPolicy policy) {
+        synchronized (windows) {
+            this.policy = policy;
+            windows.clear();
+        }
+    }
+
+    /**
+     * Records a round trip observed for a method. Called by the <code>RemoteProcedureCallServiceProvider</code> when a
+     * reply is received or a request times out.
+     *
+     * @param   method
+     *          Method of the request
+     * @param   roundTripNanos
+     *          Time, in nanoseconds, from the request being sent to its reply being received or it timing out
+     *
+     * @since   3.3.0
+     */
+    public void record(InteractiveMethod method, long roundTripNanos) {
+        if (method == null || roundTripNanos < 0) {
+            return;
+        }
+        synchronized (windows) {
+            AdaptiveTimeoutPolicy currentPolicy = policy;
+            if (currentPolicy != null) {
+                windows.computeIfAbsent(method, m -> new Window(currentPolicy.getWindowSize())).add(roundTripNanos);
+            }
+        }
+    }
+
+    /**
+     * Returns the timeout for requests of a method.
+     *
+     * @param   method
+     *          Method of the requests
+     * @param   timeUnit
+     *          Unit to return the timeout in
+     *
+     * @return  The adapted timeout, or <code>-1</code> if timeouts are not adapted or too few round trips have been
+     *          observed for the method
+     *
+     * @since   3.3.0
+     */
+    public long getTimeout(InteractiveMethod method, TimeUnit timeUnit) {
+        synchronized (windows) {
+            AdaptiveTimeoutPolicy currentPolicy = policy;
+            Window window = method != null ? windows.get(method) : null;
+            if (currentPolicy == null || window == null || window.count < currentPolicy.getMinSamples()) {
+                return -1;
+            }
+            if (window.timeoutNanos < 0) {
+                window.timeoutNanos = currentPolicy.getTimeoutNanos(window.getPercentile(currentPolicy.getPercentile()));
+            }
+            return timeUnit.convert(window.timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the number of round trips the timeout of a method is currently based on.
+     *
+     * @param   method
+     *          Method of the requests
+     *
+     * @return  The number of round trips in the window of the method
+     *
+     * @since   3.3.0
+     */
+    public int getSampleCount(InteractiveMethod method) {
+        synchronized (windows) {
+            Window window = windows.get(method);
+            return window != null ? window.count : 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        synchronized (windows) {
+            return "AdaptiveTimeouts{" +
+                    "policy=" + policy +
+                    ", methods=" + windows.size() +
+                    '}';
+        }
+    }
+
+    /**
+     * The most recent round trips observed for a method, guarded by the map of windows.
+     *
+     * @since   3.3.0
+     */
+    private static final class Window {
+
+        /**
+         * The round trips, in nanoseconds, as a ring
+         */
+        private final long[] samples;
+
+        /**
+         * Number of round trips in the ring
+         */
+        private int count;
+
+        /**
+         * Index the next round trip is written at
+         */
+        private int next;
+
+        /**
+         * Timeout computed from the round trips, in nanoseconds, or <code>-1</code> if a round trip has been added
+         * since it was computed
+         */
+        private long timeoutNanos = -1;
+
+        /**
+         * Initializes a new <code>Window</code>.
+         *
+         * @param   size
+         *          Number of round trips kept
+         *
+         * @since   3.3.0
+         */
+        private Window(int size) {
+            this.samples = new long[size];
+        }
+
+        /**
+         * Adds a round trip, replacing the oldest one if the window is full.
+         *
+         * @param   roundTripNanos
+         *          The round trip, in nanoseconds
+         *
+         * @since   3.3.0
+         */
+        private void add(long roundTripNanos) {
+            samples[next] = roundTripNanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            timeoutNanos = -1;
+        }
+
+        /**
+         * Returns a percentile of the round trips.
+         *
+         * @param   percentile
+         *          The percentile, in (0, 100]
+         *
+         * @return  The round trip at the percentile, in nanoseconds
+         *
+         * @since   3.3.0
+         */
+        private long getPercentile(double percentile) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+}
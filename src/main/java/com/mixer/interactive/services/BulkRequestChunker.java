@@ -0,0 +1,314 @@
+package com.mixer.interactive.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.EncodedJsonArray;
+import com.mixer.interactive.gson.ParallelJsonEncoder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Splits the elements of a bulk operation into chunks within the limits of a <code>BulkRequestLimits</code>, and sends
+ * a request per chunk while keeping a bounded number of them awaiting a reply.
+ *
+ * @param   <T>
+ *          Type of the elements being chunked
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         BulkRequestLimits
+ *
+ * @since       3.3.0
+ */
+final class BulkRequestChunker<T> {
+
+    /**
+     * Encodes the elements of bulk operations
+     */
+    private static final ParallelJsonEncoder ENCODER = new ParallelJsonEncoder(GameClient.GSON);
+
+    /**
+     * Elements of each chunk, in the order of the chunks
+     */
+    private final List<List<T>> chunkElements = new ArrayList<>();
+
+    /**
+     * Encoded elements of each chunk, in the order of the chunks
+     */
+    private final List<EncodedJsonArray> chunkArrays = new ArrayList<>();
+
+    /**
+     * Encodes elements and splits them into chunks that stay within the provided limits, keeping them in their
+     * original order. The elements are encoded in parallel, and each chunk is a view of the encoded elements rather
+     * than a copy of them.
+     *
+     * @param   elements
+     *          Elements to split
+     * @param   mapper
+     *          Maps an element to the object encoded in its place
+     * @param   limits
+     *          Limits on the number of elements and encoded size of a chunk
+     *
+     * @since   3.3.0
+     */
+    BulkRequestChunker(Collection<T> elements, Function<? super T, ?> mapper, BulkRequestLimits limits) {
+        List<T> elementList = new ArrayList<>(elements);
+        EncodedJsonArray encoded = ENCODER.encode(elementList, mapper);
+        int chunkStart = 0;
+        long chunkBytes = 0;
+        for (int i = 0; i < elementList.size(); i++) {
+            // Elements are separated by commas in the encoded array
+            int bytes = encoded.getElementByteLength(i) + 1;
+            if (i > chunkStart && (i - chunkStart >= limits.getMaxChunkSize() || chunkBytes + bytes > limits.getMaxChunkBytes())) {
+                addChunk(elementList, encoded, chunkStart, i);
+                chunkStart = i;
+                chunkBytes = 0;
+            }
+            chunkBytes += bytes;
+        }
+        if (chunkStart < elementList.size()) {
+            addChunk(elementList, encoded, chunkStart, elementList.size());
+        }
+    }
+
+    /**
+     * Adds a chunk for a range of the elements.
+     *
+     * @param   elements
+     *          Elements being split
+     * @param   encoded
+     *          The encoded elements
+     * @param   from
+     *          Index of the first element of the chunk
+     * @param   to
+     *          Index after the last element of the chunk
+     *
+     * @since   3.3.0
+     */
+    private void addChunk(List<T> elements, EncodedJsonArray encoded, int from, int to) {
+        chunkElements.add(elements.subList(from, to));
+        chunkArrays.add(encoded.slice(from, to));
+    }
+
+    /**
+     * Returns the number of chunks.
+     *
+     * @return  The number of chunks
+     *
+     * @since   3.3.0
+     */
+    int getChunkCount() {
+        return chunkArrays.size();
+    }
+
+    /**
+     * Returns the elements of a chunk.
+     *
+     * @param   index
+     *          Index of the chunk
+     *
+     * @return  The elements of the chunk
+     *
+     * @since   3.3.0
+     */
+    List<T> getElements(int index) {
+        return chunkElements.get(index);
+    }
+
+    /**
+     * Sends a request for each chunk, starting the next request whenever one completes so that no more than the
+     * provided number are awaiting a reply at once.
+     *
+     * @param   request
+     *          Sends the request for the encoded elements of a chunk
+     * @param   maxInFlight
+     *          Maximum number of requests awaiting a reply at any time
+     * @param   <R>
+     *          Type of the result of a request
+     *
+     * @return  A <code>CompletableFuture</code> for the result of each chunk, in the order of the chunks. Futures of
+     *          chunks that have not been sent yet complete once they have been sent and replied to. Cancelling the
+     *          future of a chunk that has not been sent yet keeps it from being sent, and cancelling that of a chunk
+     *          awaiting a reply cancels its request.
+     *
+     * @since   3.3.0
+     */
+    <R> List<CompletableFuture<R>> send(Function<EncodedJsonArray, CompletableFuture<R>> request, int maxInFlight) {
+        List<CompletableFuture<R>> results = new ArrayList<>(chunkArrays.size());
+        for (int i = 0; i < chunkArrays.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        new Window<>(chunkArrays, request, results, maxInFlight).fill();
+        return results;
+    }
+
+    /**
+     * Combines the results of every chunk into one result.
+     *
+     * @param   chunkResults
+     *          The result of each chunk
+     * @param   combiner
+     *          Combines the results of the chunks, in the order of the chunks
+     * @param   <R>
+     *          Type of the result of a chunk
+     * @param   <A>
+     *          Type of the combined result
+     *
+     * @return  A <code>CompletableFuture</code> that completes with the combined result once every chunk has completed,
+     *          or completes exceptionally with the first failure of a chunk. Cancelling it cancels every chunk.
+     *
+     * @since   3.3.0
+     */
+    static <R, A> CompletableFuture<A> combine(List<CompletableFuture<R>> chunkResults, Function<List<R>, A> combiner) {
+        CompletableFuture<A> combined = CompletableFuture.allOf(chunkResults.toArray(new CompletableFuture<?>[chunkResults.size()]))
+                .thenApply(ignored -> {
+                    List<R> results = new ArrayList<>(chunkResults.size());
+                    chunkResults.forEach(chunkResult -> results.add(chunkResult.join()));
+                    return combiner.apply(results);
+                });
+        combined.whenComplete((result, throwable) -> {
+            if (combined.isCancelled()) {
+                chunkResults.forEach(chunkResult -> chunkResult.cancel(false));
+            }
+        });
+        return combined;
+    }
+
+    /**
+     * Sends the requests for a list of chunks, keeping a bounded number awaiting a reply.
+     *
+     * @param   <R>
+     *          Type of the result of a request
+     *
+     * @since   3.3.0
+     */
+    private static final class Window<R> {
+
+        /**
+         * Encoded elements of each chunk
+         */
+        private final List<EncodedJsonArray> chunks;
+
+        /**
+         * Sends the request for a chunk
+         */
+        private final Function<EncodedJsonArray, CompletableFuture<R>> request;
+
+        /**
+         * Futures completed with the result of each chunk
+         */
+        private final List<CompletableFuture<R>> results;
+
+        /**
+         * Maximum number of requests awaiting a reply at any time
+         */
+        private final int maxInFlight;
+
+        /**
+         * Index of the next chunk to send
+         */
+        private int next;
+
+        /**
+         * Number of requests awaiting a reply
+         */
+        private int inFlight;
+
+        /**
+         * Whether requests are being sent by a call to {@link #fill()} further up the stack, so that requests which
+         * complete immediately do not recurse once per chunk
+         */
+        private boolean filling;
+
+        /**
+         * Initializes a new <code>Window</code>.
+         *
+         * @param   chunks
+         *          Encoded elements of each chunk
+         * @param   request
+         *          Sends the request for a chunk
+         * @param   results
+         *          Futures completed with the result of each chunk
+         * @param   maxInFlight
+         *          Maximum number of requests awaiting a reply at any time
+         *
+         * @since   3.3.0
+         */
+        private Window(List<EncodedJsonArray> chunks, Function<EncodedJsonArray, CompletableFuture<R>> request, List<CompletableFuture<R>> results, int maxInFlight) {
+            this.chunks = chunks;
+            this.request = request;
+            this.results = results;
+            this.maxInFlight = maxInFlight;
+        }
+
+        /**
+         * Sends requests for the next chunks until the window is full or every chunk has been sent.
+         *
+         * @since   3.3.0
+         */
+        private synchronized void fill() {
+            if (filling) {
+                return;
+            }
+
+            filling = true;
+            try {
+                while (inFlight < maxInFlight && next < chunks.size()) {
+                    int index = next++;
+                    // Chunks whose futures were cancelled before they were sent are left out
+                    if (results.get(index).isDone()) {
+                        continue;
+                    }
+                    inFlight++;
+                    CompletableFuture<R> reply;
+                    try {
+                        reply = request.apply(chunks.get(index));
+                    }
+                    catch (RuntimeException e) {
+                        reply = new CompletableFuture<>();
+                        reply.completeExceptionally(e);
+                    }
+                    CompletableFuture<R> sentReply = reply;
+                    results.get(index).whenComplete((result, throwable) -> {
+                        if (results.get(index).isCancelled()) {
+                            sentReply.cancel(false);
+                        }
+                    });
+                    reply.whenComplete((result, throwable) -> completed(index, result, throwable));
+                }
+            }
+            finally {
+                filling = false;
+            }
+        }
+
+        /**
+         * Completes the future of a chunk whose request has completed, and sends the next chunk.
+         *
+         * @param   index
+         *          Index of the chunk
+         * @param   result
+         *          Result of the request
+         * @param   throwable
+         *          Failure of the request, if it failed
+         *
+         * @since   3.3.0
+         */
+        private void completed(int index, R result, Throwable throwable) {
+            synchronized (this) {
+                inFlight--;
+            }
+            if (throwable != null) {
+                results.get(index).completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            }
+            else {
+                results.get(index).complete(result);
+            }
+            fill();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.mixer.interactive.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Limits on how bulk operations, such as updating many participants or creating many controls, are split into
+ * requests. A collection is split into chunks that stay within both the element count and the serialized size
+ * limits, and at most a limited number of chunks are awaiting a reply at any time.
+ *
+ * <p>Instances are immutable. The limits used by a <code>GameClient</code> are set with
+ * {@link com.mixer.interactive.GameClient#setBulkRequestLimits(BulkRequestLimits)}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class BulkRequestLimits {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default limits: chunks of up to 1000 elements and 256 KiB, with up to 4 chunks in flight
+     */
+    public static final BulkRequestLimits DEFAULT = new BulkRequestLimits(1000, 256 * 1024, 4);
+
+    /**
+     * Limits that send every collection as a single request, as was done before bulk operations were chunked
+     */
+    public static final BulkRequestLimits UNLIMITED = new BulkRequestLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * Maximum number of elements in a chunk
+     */
+    private final int maxChunkSize;
+
+    /**
+     * Maximum serialized size of the elements in a chunk, in bytes. A single element larger than this is sent in a
+     * chunk of its own.
+     */
+    private final int maxChunkBytes;
+
+    /**
+     * Maximum number of chunks awaiting a reply at any time
+     */
+    private final int maxChunksInFlight;
+
+    /**
+     * Initializes a new <code>BulkRequestLimits</code>.
+     *
+     * @param   maxChunkSize
+     *          Maximum number of elements in a chunk
+     * @param   maxChunkBytes
+     *          Maximum serialized size of the elements in a chunk, in bytes
+     * @param   maxChunksInFlight
+     *          Maximum number of chunks awaiting a reply at any time
+     *
+     * @since   3.3.0
+     */
+    private BulkRequestLimits(int maxChunkSize, int maxChunkBytes, int maxChunksInFlight) {
+        if (maxChunkSize < 1 || maxChunkBytes < 1 || maxChunksInFlight < 1) {
+            LOG.fatal("Bulk request limits must be positive");
+            throw new IllegalArgumentException("Bulk request limits must be positive");
+        }
+        this.maxChunkSize = maxChunkSize;
+        this.maxChunkBytes = maxChunkBytes;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Returns the maximum number of elements in a chunk.
+     *
+     * @return  The maximum number of elements in a chunk
+     *
+     * @since   3.3.0
+     */
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    /**
+     * Returns the maximum serialized size of the elements in a chunk.
+     *
+     * @return  The maximum serialized size of the elements in a chunk, in bytes
+     *
+     * @since   3.3.0
+     */
+    public int getMaxChunkBytes() {
+        return maxChunkBytes;
+    }
+
+    /**
+     * Returns the maximum number of chunks awaiting a reply at any time.
+     *
+     * @return  The maximum number of chunks in flight
+     *
+     * @since   3.3.0
+     */
+    public int getMaxChunksInFlight() {
+        return maxChunksInFlight;
+    }
+
+    /**
+     * Returns a copy of these limits with the provided maximum number of elements in a chunk.
+     *
+     * @param   maxChunkSize
+     *          Maximum number of elements in a chunk
+     *
+     * @return  A copy of these limits with the provided maximum chunk size
+     *
+     * @since   3.3.0
+     */
+    public BulkRequestLimits withMaxChunkSize(int maxChunkSize) {
+        return new BulkRequestLimits(maxChunkSize, maxChunkBytes, maxChunksInFlight);
+    }
+
+    /**
+     * Returns a copy of these limits with the provided maximum serialized size of a chunk.
+     *
+     * @param   maxChunkBytes
+     *          Maximum serialized size of the elements in a chunk, in bytes
+     *
+     * @return  A copy of these limits with the provided maximum chunk size in bytes
+     *
+     * @since   3.3.0
+     */
+    public BulkRequestLimits withMaxChunkBytes(int maxChunkBytes) {
+        return new BulkRequestLimits(maxChunkSize, maxChunkBytes, maxChunksInFlight);
+    }
+
+    /**
+     * Returns a copy of these limits with the provided maximum number of chunks in flight.
+     *
+     * @param   maxChunksInFlight
+     *          Maximum number of chunks awaiting a reply at any time
+     *
+     * @return  A copy of these limits with the provided maximum number of chunks in flight
+     *
+     * @since   3.3.0
+     */
+    public BulkRequestLimits withMaxChunksInFlight(int maxChunksInFlight) {
+        return new BulkRequestLimits(maxChunkSize, maxChunkBytes, maxChunksInFlight);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "BulkRequestLimits{" +
+                "maxChunkSize=" + maxChunkSize +
+                ", maxChunkBytes=" + maxChunkBytes +
+                ", maxChunksInFlight=" + maxChunksInFlight +
+                '}';
+    }
+}
@@ -0,0 +1,256 @@
+package com.mixer.interactive.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Options applied to the requests made through a service provider: how long to wait for their replies, and a
+ * {@link CancellationToken} to abandon them with. Service providers bound to options are obtained from
+ * <code>withOptions</code>, for example:</p>
+ *
+ * <pre>
+ *     CallOptions options = CallOptions.DEFAULT.withDeadline(50, TimeUnit.MILLISECONDS).withCancellationToken(token);
+ *     gameClient.using(CONTROL_SERVICE_PROVIDER).withOptions(options).update(controls);
+ * </pre>
+ *
+ * <p>A timeout applies to each request on its own, from when it is sent. Requests made without a timeout or deadline
+ * wait for the default timeout, or for one adapted to the round trips observed if {@link AdaptiveTimeouts} are on. A
+ * deadline is a fixed point in time shared by every request made with the options, including each of the requests a
+ * bulk operation is split into; requests made once it has passed are not sent at all.</p>
+ *
+ * <p>Instances are immutable.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         CancellationToken
+ *
+ * @since       3.3.0
+ */
+public final class CallOptions {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default options: each request waits 15 seconds for its reply, and cannot be cancelled
+     */
+    public static final CallOptions DEFAULT = new CallOptions(TimeUnit.SECONDS.toNanos(15), false, false, 0, null, null);
+
+    /**
+     * Time, in nanoseconds, each request waits for its reply if there is no deadline
+     */
+    private final long timeoutNanos;
+
+    /**
+     * Whether the timeout was set for these options, rather than being the default one
+     */
+    private final boolean hasTimeout;
+
+    /**
+     * Whether requests are held to a deadline rather than a timeout
+     */
+    private final boolean hasDeadline;
+
+    /**
+     * The deadline, as a value of <code>System.nanoTime()</code>
+     */
+    private final long deadlineNanos;
+
+    /**
+     * Token cancelling the requests, or <code>null</code> if they cannot be cancelled
+     */
+    private final CancellationToken cancellationToken;
+
+    /**
+     * Batch holding the requests until it is sent, or <code>null</code> if they are sent straight away
+     */
+    private final RequestBatch batch;
+
+    /**
+     * Initializes a new <code>CallOptions</code>.
+     *
+     * @param   timeoutNanos
+     *          Time, in nanoseconds, each request waits for its reply if there is no deadline
+     * @param   hasTimeout
+     *          Whether the timeout was set for these options, rather than being the default one
+     * @param   hasDeadline
+     *          Whether requests are held to a deadline rather than a timeout
+     * @param   deadlineNanos
+     *          The deadline, as a value of <code>System.nanoTime()</code>
+     * @param   cancellationToken
+     *          Token cancelling the requests, or <code>null</code> if they cannot be cancelled
+     * @param   batch
+     *          Batch holding the requests until it is sent, or <code>null</code> if they are sent straight away
+     *
+     * @since   3.3.0
+     */
+    private CallOptions(long timeoutNanos, boolean hasTimeout, boolean hasDeadline, long deadlineNanos, CancellationToken cancellationToken, RequestBatch batch) {
+        this.timeoutNanos = timeoutNanos;
+        this.hasTimeout = hasTimeout;
+        this.hasDeadline = hasDeadline;
+        this.deadlineNanos = deadlineNanos;
+        this.cancellationToken = cancellationToken;
+        this.batch = batch;
+    }
+
+    /**
+     * Returns a copy of these options in which each request waits the provided time for its reply, from when it is
+     * sent. Any deadline is removed.
+     *
+     * @param   duration
+     *          Time each request waits for its reply
+     * @param   timeUnit
+     *          Unit of the duration
+     *
+     * @return  A copy of these options with the provided timeout
+     *
+     * @since   3.3.0
+     */
+    public CallOptions withTimeout(long duration, TimeUnit timeUnit) {
+        if (duration < 0 || timeUnit == null) {
+            LOG.fatal("Timeout must be a non-negative duration with a time unit");
+            throw new IllegalArgumentException("Timeout must be a non-negative duration with a time unit");
+        }
+        return new CallOptions(timeUnit.toNanos(duration), true, false, 0, cancellationToken, batch);
+    }
+
+    /**
+     * Returns a copy of these options in which every request must be replied to within the provided time from now.
+     *
+     * @param   duration
+     *          Time from now by which replies must be received
+     * @param   timeUnit
+     *          Unit of the duration
+     *
+     * @return  A copy of these options with the provided deadline
+     *
+     * @since   3.3.0
+     */
+    public CallOptions withDeadline(long duration, TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            LOG.fatal("Deadline must have a time unit");
+            throw new IllegalArgumentException("Deadline must have a time unit");
+        }
+        return new CallOptions(timeoutNanos, hasTimeout, true, System.nanoTime() + timeUnit.toNanos(duration), cancellationToken, batch);
+    }
+
+    /**
+     * Returns a copy of these options whose requests are cancelled by the provided token.
+     *
+     * @param   cancellationToken
+     *          Token cancelling the requests, or <code>null</code> if they cannot be cancelled
+     *
+     * @return  A copy of these options with the provided cancellation token
+     *
+     * @since   3.3.0
+     */
+    public CallOptions withCancellationToken(CancellationToken cancellationToken) {
+        return new CallOptions(timeoutNanos, hasTimeout, hasDeadline, deadlineNanos, cancellationToken, batch);
+    }
+
+    /**
+     * Returns a copy of these options whose requests are held by the provided batch until it is sent.
+     *
+     * @param   batch
+     *          Batch holding the requests, or <code>null</code> if they are sent straight away
+     *
+     * @return  A copy of these options with the provided batch
+     *
+     * @see     RequestBatch
+     *
+     * @since   3.3.0
+     */
+    CallOptions withBatch(RequestBatch batch) {
+        return new CallOptions(timeoutNanos, hasTimeout, hasDeadline, deadlineNanos, cancellationToken, batch);
+    }
+
+    /**
+     * Returns the time a request sent now waits for its reply.
+     *
+     * @param   timeUnit
+     *          Unit to return the time in
+     *
+     * @return  The time a request sent now waits for its reply, which is negative if the deadline has passed
+     *
+     * @since   3.3.0
+     */
+    public long getRemaining(TimeUnit timeUnit) {
+        return timeUnit.convert(hasDeadline ? deadlineNanos - System.nanoTime() : timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns whether the time requests wait for their replies may be adapted to the round trips observed, which is
+     * the case unless a timeout or deadline has been set for these options.
+     *
+     * @return  <code>true</code> if neither a timeout nor a deadline has been set, <code>false</code> otherwise
+     *
+     * @see     AdaptiveTimeouts
+     *
+     * @since   3.3.0
+     */
+    public boolean isTimeoutAdaptable() {
+        return !hasTimeout && !hasDeadline;
+    }
+
+    /**
+     * Returns whether the deadline has passed, so that no more requests are sent with these options.
+     *
+     * @return  <code>true</code> if there is a deadline and it has passed, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isExpired() {
+        return hasDeadline && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns whether the requests have been cancelled.
+     *
+     * @return  <code>true</code> if the cancellation token has been cancelled, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isCancelled() {
+        return cancellationToken != null && cancellationToken.isCancelled();
+    }
+
+    /**
+     * Returns the token cancelling the requests.
+     *
+     * @return  The <code>CancellationToken</code>, or <code>null</code> if the requests cannot be cancelled
+     *
+     * @since   3.3.0
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Returns the batch holding the requests until it is sent.
+     *
+     * @return  The <code>RequestBatch</code>, or <code>null</code> if the requests are sent straight away
+     *
+     * @since   3.3.0
+     */
+    RequestBatch getBatch() {
+        return batch;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "CallOptions{" +
+                (hasDeadline ? "deadlineInMillis=" + getRemaining(TimeUnit.MILLISECONDS) : "timeoutMillis=" + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)) +
+                ", cancellable=" + (cancellationToken != null) +
+                ", batched=" + (batch != null) +
+                '}';
+    }
+}
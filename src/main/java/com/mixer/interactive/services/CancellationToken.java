@@ -0,0 +1,110 @@
+package com.mixer.interactive.services;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * <p>Cancels the requests made with the {@link CallOptions} it is attached to. One token can be shared by any number
+ * of calls, such as all of the updates made for a frame of a game loop, so that they can be abandoned together.</p>
+ *
+ * <p>Requests that have not been sent when the token is cancelled are never sent, and requests that are awaiting a
+ * reply stop waiting for it straight away. In both cases the <code>CompletableFuture</code> for the request completes
+ * with a <code>CancellationException</code>. Cancelling a token cannot be undone.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         CallOptions
+ *
+ * @since       3.3.0
+ */
+public final class CancellationToken {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Listeners run when the token is cancelled, in the order they were registered, or <code>null</code> once it has
+     * been. Held in a set so that the listeners of requests that complete are removed without scanning every other
+     */
+    private Set<Runnable> listeners = new LinkedHashSet<>();
+
+    /**
+     * Whether the token has been cancelled
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Cancels the token, running every listener registered with it. Does nothing if the token has already been
+     * cancelled.
+     *
+     * @since   3.3.0
+     */
+    public void cancel() {
+        Set<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = listeners;
+            listeners = null;
+        }
+        for (Runnable listener : toRun) {
+            try {
+                listener.run();
+            }
+            catch (RuntimeException e) {
+                LOG.error("Cancellation listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the token has been cancelled.
+     *
+     * @return  <code>true</code> if the token has been cancelled, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers a listener to be run when the token is cancelled. If the token has already been cancelled, the listener
+     * is run straight away. A listener registered more than once is run once.
+     *
+     * @param   listener
+     *          The listener to run
+     *
+     * @since   3.3.0
+     */
+    public void onCancel(Runnable listener) {
+        synchronized (this) {
+            if (!cancelled) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Removes a listener that no longer needs to be run, such as one for a request that has completed.
+     *
+     * @param   listener
+     *          The listener to remove
+     *
+     * @since   3.3.0
+     */
+    public synchronized void remove(Runnable listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import com.google.gson.JsonObject;
 import com.mixer.interactive.GameClient;
 import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
 import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
+import com.mixer.interactive.gson.EncodedJsonArray;
 import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.InteractiveResource;
 import com.mixer.interactive.resources.control.InteractiveControl;
 import com.mixer.interactive.resources.group.InteractiveGroup;
 import com.mixer.interactive.resources.scene.InteractiveScene;
@@ -15,7 +17,6 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
 import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
 
 /**
@@ -55,6 +56,35 @@ public class ControlServiceProvider extends AbstractServiceProvider {
         super(gameClient);
     }
 
+    /**
+     * Initializes a new <code>ControlServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    private ControlServiceProvider(GameClient gameClient, CallOptions callOptions) {
+        super(gameClient, callOptions);
+    }
+
+    /**
+     * Returns a view of this service provider whose requests are made with the provided options, such as a deadline or
+     * a <code>CancellationToken</code>.
+     *
+     * @param   callOptions
+     *          Options applied to the requests made through the returned service provider
+     *
+     * @return  A <code>ControlServiceProvider</code> bound to the provided options
+     *
+     * @since   3.3.0
+     */
+    public ControlServiceProvider withOptions(CallOptions callOptions) {
+        return new ControlServiceProvider(gameClient, callOptions);
+    }
+
     /**
      * <p>Retrieves all the controls for the Interactive integration.</p>
      *
@@ -80,7 +110,7 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * @since   2.0.0
      */
     public final CompletableFuture<Set<InteractiveControl>> getControls() {
-        return gameClient.using(SCENE_SERVICE_PROVIDER).getScenes()
+        return gameClient.using(SCENE_SERVICE_PROVIDER).withOptions(callOptions).getScenes()
                 .thenCompose(scenes -> {
                     Set<InteractiveControl> controls = new HashSet<>();
                     scenes.forEach(scene -> controls.addAll(scene.getControls()));
@@ -123,6 +153,10 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * <p>Creates one or more new controls. Control IDs MUST be unique and not already exist in the Interactive
      * integration.</p>
      *
+     * <p>Controls are sent in one or more requests per scene, split within the client's {@link BulkRequestLimits}
+     * with a bounded number awaiting a reply at once. Each control is mapped to the result of the request containing
+     * it.</p>
+     *
      * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
      * that there was a problem with the reply from the Interactive service. Specifically, two types of checked
      * exceptions may be thrown:</p>
@@ -147,12 +181,17 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * @since   2.0.0
      */
     public CompletableFuture<Map<InteractiveControl, CompletableFuture<Boolean>>> create(Collection<InteractiveControl> controls) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supply(() -> {
             Map<InteractiveControl, CompletableFuture<Boolean>> createPromises = new HashMap<>();
+            BulkRequestLimits limits = gameClient.getBulkRequestLimits();
             groupControls(controls).forEach((sceneId, interactiveControls) -> {
                 if (interactiveControls != null) {
-                    CompletableFuture<Boolean> createPromise = create(sceneId, interactiveControls);
-                    interactiveControls.forEach(control -> createPromises.put(control, createPromise));
+                    BulkRequestChunker<InteractiveControl> chunker = new BulkRequestChunker<>(interactiveControls, InteractiveResource::toCachedJsonTree, limits);
+                    List<CompletableFuture<Boolean>> chunkPromises = chunker.send(chunk -> create(sceneId, chunk), limits.getMaxChunksInFlight());
+                    for (int i = 0; i < chunker.getChunkCount(); i++) {
+                        CompletableFuture<Boolean> createPromise = chunkPromises.get(i);
+                        chunker.getElements(i).forEach(control -> createPromises.put(control, createPromise));
+                    }
                 }
             });
             return createPromises;
@@ -180,7 +219,7 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * @param   sceneID
      *          Identifier for an <code>InteractiveScene</code> that will contain the controls being created
      * @param   controls
-     *          A <code>Collection</code> of <code>InteractiveControls</code> to be created
+     *          An <code>EncodedJsonArray</code> of <code>InteractiveControls</code> to be created
      *
      * @return  A <code>CompletableFuture</code> that when complete returns {@link Boolean#TRUE true} if the
      *          {@link InteractiveMethod#CREATE_CONTROLS create} method call completes with no errors
@@ -190,15 +229,14 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      *
      * @since   1.0.0
      */
-    private CompletableFuture<Boolean> create(String sceneID, Collection<InteractiveControl> controls) {
+    private CompletableFuture<Boolean> create(String sceneID, EncodedJsonArray controls) {
         if (sceneID == null || controls == null) {
             return CompletableFuture.completedFuture(false);
         }
 
         JsonObject jsonParams = new JsonObject();
         jsonParams.addProperty(PARAM_KEY_SCENE_ID, sceneID);
-        jsonParams.add(PARAM_KEY_CONTROLS, GameClient.GSON.toJsonTree(controls));
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.CREATE_CONTROLS, jsonParams);
+        return rpc().makeRequest(InteractiveMethod.CREATE_CONTROLS, jsonParams, PARAM_KEY_CONTROLS, controls);
     }
 
     /**
@@ -296,6 +334,10 @@ public class ControlServiceProvider extends AbstractServiceProvider {
     /**
      * <p>Updates one or more new controls.</p>
      *
+     * <p>Controls are sent in one or more requests per scene, split within the client's {@link BulkRequestLimits}
+     * with a bounded number awaiting a reply at once. Each request is applied on its own, and each control is mapped to
+     * the result of the request containing it.</p>
+     *
      * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
      * that there was a problem with the reply from the Interactive service. Specifically, two types of checked
      * exceptions may be thrown:</p>
@@ -322,12 +364,17 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * @since   2.0.0
      */
     public CompletableFuture<Map<InteractiveControl, CompletableFuture<Set<InteractiveControl>>>> update(int priority, Collection<InteractiveControl> controls) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supply(() -> {
             Map<InteractiveControl, CompletableFuture<Set<InteractiveControl>>> updatePromises = new HashMap<>();
+            BulkRequestLimits limits = gameClient.getBulkRequestLimits();
             groupControls(controls).forEach((sceneId, interactiveControls) -> {
                 if (interactiveControls != null) {
-                    CompletableFuture<Set<InteractiveControl>> updatePromise = update(priority, sceneId, interactiveControls);
-                    interactiveControls.forEach(control -> updatePromises.put(control, updatePromise));
+                    BulkRequestChunker<InteractiveControl> chunker = new BulkRequestChunker<>(interactiveControls, InteractiveResource::toCachedJsonTree, limits);
+                    List<CompletableFuture<Set<InteractiveControl>>> chunkPromises = chunker.send(chunk -> update(priority, sceneId, chunk), limits.getMaxChunksInFlight());
+                    for (int i = 0; i < chunker.getChunkCount(); i++) {
+                        CompletableFuture<Set<InteractiveControl>> updatePromise = chunkPromises.get(i);
+                        chunker.getElements(i).forEach(control -> updatePromises.put(control, updatePromise));
+                    }
                 }
             });
             return updatePromises;
@@ -361,7 +408,7 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * @param   sceneID
      *          Identifier for an <code>InteractiveScene</code> containing the controls to be updated
      * @param   controls
-     *          A <code>Collection</code> of <code>InteractiveControls</code> to be updated
+     *          An <code>EncodedJsonArray</code> of <code>InteractiveControls</code> to be updated
      *
      * @return  A <code>CompletableFuture</code> that when complete returns a <code>Set</code> of updated
      *          <code>InteractiveControls</code>
@@ -371,16 +418,15 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      *
      * @since   1.0.0
      */
-    private CompletableFuture<Set<InteractiveControl>> update(int priority, String sceneID, Collection<InteractiveControl> controls) {
+    private CompletableFuture<Set<InteractiveControl>> update(int priority, String sceneID, EncodedJsonArray controls) {
         if (sceneID == null || controls == null) {
             return CompletableFuture.completedFuture(Collections.emptySet());
         }
 
         JsonObject jsonParams = new JsonObject();
         jsonParams.addProperty(PARAM_KEY_SCENE_ID, sceneID);
-        jsonParams.add(PARAM_KEY_CONTROLS, GameClient.GSON.toJsonTree(controls));
         jsonParams.addProperty(PARAM_UPDATE_PRIORITY, priority);
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.UPDATE_CONTROLS, jsonParams, PARAM_KEY_CONTROLS, CONTROL_SET_TYPE);
+        return rpc().makeRequest(InteractiveMethod.UPDATE_CONTROLS, jsonParams, PARAM_KEY_CONTROLS, controls, PARAM_KEY_CONTROLS, CONTROL_SET_TYPE);
     }
 
     /**
@@ -440,7 +486,7 @@ public class ControlServiceProvider extends AbstractServiceProvider {
      * @since   2.0.0
      */
     public CompletableFuture<Map<InteractiveControl, CompletableFuture<Boolean>>> delete(Collection<InteractiveControl> controls) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supply(() -> {
             Map<InteractiveControl, CompletableFuture<Boolean>> deletePromises = new HashMap<>();
             groupControls(controls).forEach((sceneId, interactiveControls) -> {
                 if (interactiveControls != null) {
@@ -490,7 +536,7 @@ public class ControlServiceProvider extends AbstractServiceProvider {
         JsonObject jsonParams = new JsonObject();
         jsonParams.addProperty(PARAM_KEY_SCENE_ID, sceneID);
         jsonParams.add(PARAM_KEY_CONTROL_IDS, GameClient.GSON.toJsonTree(controlIDs));
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.DELETE_CONTROLS, jsonParams);
+        return rpc().makeRequest(InteractiveMethod.DELETE_CONTROLS, jsonParams);
     }
 
     /**
@@ -63,6 +63,35 @@ public class GroupServiceProvider extends AbstractServiceProvider {
         super(gameClient);
     }
 
+    /**
+     * Initializes a new <code>GroupServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    private GroupServiceProvider(GameClient gameClient, CallOptions callOptions) {
+        super(gameClient, callOptions);
+    }
+
+    /**
+     * Returns a view of this service provider whose requests are made with the provided options, such as a deadline or
+     * a <code>CancellationToken</code>.
+     *
+     * @param   callOptions
+     *          Options applied to the requests made through the returned service provider
+     *
+     * @return  A <code>GroupServiceProvider</code> bound to the provided options
+     *
+     * @since   3.3.0
+     */
+    public GroupServiceProvider withOptions(CallOptions callOptions) {
+        return new GroupServiceProvider(gameClient, callOptions);
+    }
+
     /**
      * <p>Retrieves all the groups connected to the Interactive integration.</p>
      *
@@ -88,7 +117,7 @@ public class GroupServiceProvider extends AbstractServiceProvider {
      * @since   1.0.0
      */
     public CompletableFuture<Set<InteractiveGroup>> getGroups() {
-        return gameClient.using(GameClient.RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.GET_GROUPS, EMPTY_JSON_OBJECT, PARAM_KEY_GROUPS, GROUP_SET_TYPE);
+        return read(InteractiveMethod.GET_GROUPS, EMPTY_JSON_OBJECT, PARAM_KEY_GROUPS, GROUP_SET_TYPE);
     }
 
     /**
@@ -160,7 +189,7 @@ public class GroupServiceProvider extends AbstractServiceProvider {
 
         JsonObject jsonParams = new JsonObject();
         jsonParams.add(PARAM_KEY_GROUPS, GameClient.GSON.toJsonTree(groups));
-        return gameClient.using(GameClient.RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.CREATE_GROUPS, jsonParams);
+        return rpc().makeRequest(InteractiveMethod.CREATE_GROUPS, jsonParams);
     }
 
     /**
@@ -311,7 +340,7 @@ public class GroupServiceProvider extends AbstractServiceProvider {
         JsonObject jsonParams = new JsonObject();
         jsonParams.add(PARAM_KEY_GROUPS, GameClient.GSON.toJsonTree(groups));
         jsonParams.addProperty(PARAM_UPDATE_PRIORITY, priority);
-        return gameClient.using(GameClient.RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.UPDATE_GROUPS, jsonParams, PARAM_KEY_GROUPS, GROUP_SET_TYPE);
+        return rpc().makeRequest(InteractiveMethod.UPDATE_GROUPS, jsonParams, PARAM_KEY_GROUPS, GROUP_SET_TYPE);
     }
 
     /**
@@ -384,6 +413,6 @@ public class GroupServiceProvider extends AbstractServiceProvider {
         JsonObject jsonGroup = new JsonObject();
         jsonGroup.addProperty(PARAM_KEY_GROUP_ID, groupID);
         jsonGroup.addProperty(PARAM_KEY_REASSIGN_GROUP_ID, reassignGroupID);
-        return gameClient.using(GameClient.RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.DELETE_GROUP, jsonGroup);
+        return rpc().makeRequest(InteractiveMethod.DELETE_GROUP, jsonGroup);
     }
 }
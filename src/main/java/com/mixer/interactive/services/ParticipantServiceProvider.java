@@ -3,12 +3,12 @@ package com.mixer.interactive.services;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.JsonObject;
 import com.mixer.interactive.GameClient;
-import com.mixer.interactive.exception.InteractiveException;
 import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
 import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.protocol.MethodPacket;
 import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.resources.InteractiveResource;
 import com.mixer.interactive.resources.participant.InteractiveParticipant;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,9 +21,14 @@ import java.util.concurrent.CompletableFuture;
  * Provides all functionality relating to making requests and interpreting replies from the Interactive service
  * regarding participants.
  *
+ * <p>Bulk updates larger than the client's {@link BulkRequestLimits} allow are split into several requests, each of
+ * which is applied on its own, with a bounded number awaiting a reply at once. The updated participants returned
+ * combine the replies to every request, and the update completes exceptionally if any of them fails.</p>
+ *
  * @author      Microsoft Corporation
  *
  * @see         InteractiveParticipant
+ * @see         BulkRequestLimits
  *
  * @since       1.0.0
  */
@@ -60,6 +65,35 @@ public class ParticipantServiceProvider extends AbstractServiceProvider {
         super(gameClient);
     }
 
+    /**
+     * Initializes a new <code>ParticipantServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    private ParticipantServiceProvider(GameClient gameClient, CallOptions callOptions) {
+        super(gameClient, callOptions);
+    }
+
+    /**
+     * Returns a view of this service provider whose requests are made with the provided options, such as a deadline or
+     * a <code>CancellationToken</code>.
+     *
+     * @param   callOptions
+     *          Options applied to the requests made through the returned service provider
+     *
+     * @return  A <code>ParticipantServiceProvider</code> bound to the provided options
+     *
+     * @since   3.3.0
+     */
+    public ParticipantServiceProvider withOptions(CallOptions callOptions) {
+        return new ParticipantServiceProvider(gameClient, callOptions);
+    }
+
     /**
      * <p>Retrieves all of the participants that are currently connected to the Interactive integration that this client
      * is connected to, in ascending order by the time they connected.</p>
@@ -86,14 +120,7 @@ public class ParticipantServiceProvider extends AbstractServiceProvider {
      * @since   1.0.0
      */
     public CompletableFuture<Set<InteractiveParticipant>> getAllParticipants() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getParticipants(InteractiveMethod.GET_ALL_PARTICIPANTS, 0, Comparator.comparingLong(InteractiveParticipant::getConnectedAt));
-            }
-            catch (InteractiveException ex) {
-                return Collections.emptySet();
-            }
-        });
+        return getParticipants(InteractiveMethod.GET_ALL_PARTICIPANTS, 0, Comparator.comparingLong(InteractiveParticipant::getConnectedAt));
     }
 
     /**
@@ -127,14 +154,7 @@ public class ParticipantServiceProvider extends AbstractServiceProvider {
      * @since   1.0.0
      */
     public CompletableFuture<Set<InteractiveParticipant>> getActiveParticipants(long thresholdTimestamp) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getParticipants(InteractiveMethod.GET_ACTIVE_PARTICIPANTS, thresholdTimestamp, Comparator.comparingLong(InteractiveParticipant::getLastInputAt));
-            }
-            catch (InteractiveException ex) {
-                return Collections.emptySet();
-            }
-        });
+        return getParticipants(InteractiveMethod.GET_ACTIVE_PARTICIPANTS, thresholdTimestamp, Comparator.comparingLong(InteractiveParticipant::getLastInputAt));
     }
 
     /**
@@ -292,10 +312,18 @@ public class ParticipantServiceProvider extends AbstractServiceProvider {
             return CompletableFuture.completedFuture(Collections.emptySet());
         }
 
-        JsonObject jsonParams = new JsonObject();
-        jsonParams.add(PARAM_KEY_PARTICIPANTS, GameClient.GSON.toJsonTree(participants));
-        jsonParams.addProperty(PARAM_UPDATE_PRIORITY, priority);
-        return gameClient.using(GameClient.RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.UPDATE_PARTICIPANTS, jsonParams, PARAM_KEY_PARTICIPANTS, PARTICIPANT_SET_TYPE);
+        BulkRequestLimits limits = gameClient.getBulkRequestLimits();
+        BulkRequestChunker<InteractiveParticipant> chunker = new BulkRequestChunker<>(participants, InteractiveResource::toCachedJsonTree, limits);
+        List<CompletableFuture<Set<InteractiveParticipant>>> chunkResults = chunker.send(chunk -> {
+            JsonObject jsonParams = new JsonObject();
+            jsonParams.addProperty(PARAM_UPDATE_PRIORITY, priority);
+            return rpc().makeRequest(InteractiveMethod.UPDATE_PARTICIPANTS, jsonParams, PARAM_KEY_PARTICIPANTS, chunk, PARAM_KEY_PARTICIPANTS, PARTICIPANT_SET_TYPE);
+        }, limits.getMaxChunksInFlight());
+        return BulkRequestChunker.combine(chunkResults, results -> {
+            Set<InteractiveParticipant> updatedParticipants = new LinkedHashSet<>();
+            results.stream().filter(Objects::nonNull).forEach(updatedParticipants::addAll);
+            return updatedParticipants;
+        });
     }
 
     /**
@@ -304,6 +332,11 @@ public class ParticipantServiceProvider extends AbstractServiceProvider {
      * <code>getActiveParticipants</code> calls are supported; all other method calls will throw an
      * <code>IllegalArgumentException.</code>
      *
+     * <p>The first page is requested through {@link #supply(java.util.function.Supplier)}, so that it is held by a
+     * <code>RequestBatch</code> the call is made through, and each following page is requested once the reply for the
+     * previous one has been received, without blocking a thread waiting for it. If the reply for a page contains an
+     * <code>InteractiveError</code>, the result is an empty <code>Set</code>.</p>
+     *
      * @param   method
      *          The method request to send to the Interactive service
      * @param   initialMarker
@@ -311,57 +344,81 @@ public class ParticipantServiceProvider extends AbstractServiceProvider {
      * @param   comparator
      *          Comparator indicating the sort preference for the returned participants
      *
-     * @return  A <code>Set</code> of <code>InteractiveParticipants</code> connected to the Interactive integration that
-     *          meet the conditions of the specified method call and the initial marker, sorted in the specified
-     *          ordering
-     *
-     * @throws InteractiveReplyWithErrorException
-     *          If the reply received from the Interactive service contains an <code>InteractiveError</code>
-     * @throws InteractiveRequestNoReplyException
-     *          If no reply is received from the Interactive service
+     * @return  A <code>CompletableFuture</code> that when complete returns a <code>Set</code> of
+     *          <code>InteractiveParticipants</code> connected to the Interactive integration that meet the conditions
+     *          of the specified method call and the initial marker, sorted in the specified ordering
      *
      * @see     InteractiveParticipant
      *
      * @since   1.0.0
      */
-    private Set<InteractiveParticipant> getParticipants(InteractiveMethod method, long initialMarker, Comparator<InteractiveParticipant> comparator) throws InteractiveReplyWithErrorException, InteractiveRequestNoReplyException {
+    private CompletableFuture<Set<InteractiveParticipant>> getParticipants(InteractiveMethod method, long initialMarker, Comparator<InteractiveParticipant> comparator) {
 
         if (method != InteractiveMethod.GET_ALL_PARTICIPANTS && method != InteractiveMethod.GET_ACTIVE_PARTICIPANTS) {
             LOG.fatal("Illegal method specified (may only be one of 'getAllParticipants' or 'getActiveParticipants')");
             throw new IllegalArgumentException("Illegal method specified (may only be one of 'getAllParticipants' or 'getActiveParticipants')");
         }
 
-        Set<InteractiveParticipant> participants = new TreeSet<>(comparator);
-        boolean hasMore = true;
-        long marker = initialMarker;
-        String property = (method == InteractiveMethod.GET_ALL_PARTICIPANTS ? PARAM_KEY_FROM : PARAM_KEY_THRESHOLD);
+        return supply(() -> requestParticipants(method, initialMarker))
+                .thenCompose(firstPage -> getParticipants(method, firstPage, new TreeSet<>(comparator)));
+    }
+
+    /**
+     * Sends the request for a page of participants.
+     *
+     * @param   method
+     *          The method request to send to the Interactive service
+     * @param   marker
+     *          Marker the page starts from
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the <code>ReplyPacket</code> for the page
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<ReplyPacket> requestParticipants(InteractiveMethod method, long marker) {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty(method == InteractiveMethod.GET_ALL_PARTICIPANTS ? PARAM_KEY_FROM : PARAM_KEY_THRESHOLD, marker);
+        int nextPacketId = gameClient.using(GameClient.RPC_SERVICE_PROVIDER).claimNextPacketId();
+        return rpc().send(new MethodPacket(nextPacketId, method, jsonObject));
+    }
 
-        while (hasMore) {
-            JsonObject jsonObject = new JsonObject();
-            jsonObject.addProperty(property, marker);
-            int nextPacketId = gameClient.using(GameClient.RPC_SERVICE_PROVIDER).claimNextPacketId();
-            MethodPacket requestPacket = new MethodPacket(nextPacketId, method, jsonObject);
-            ReplyPacket replyPacket = gameClient.using(GameClient.RPC_SERVICE_PROVIDER).send(requestPacket).join();
+    /**
+     * Adds the participants of a page to those retrieved so far, and requests the next page if there is one.
+     *
+     * @param   method
+     *          The method request to send to the Interactive service
+     * @param   page
+     *          Promise for the reply containing the page
+     * @param   participants
+     *          The participants retrieved so far
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the participants of this page and all the
+     *          pages following it, added to those retrieved so far
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<Set<InteractiveParticipant>> getParticipants(InteractiveMethod method, CompletableFuture<ReplyPacket> page, Set<InteractiveParticipant> participants) {
+        return page.thenCompose(replyPacket -> {
             if (replyPacket.hasError()) {
-                throw new InteractiveReplyWithErrorException(requestPacket, replyPacket.getError());
+                return CompletableFuture.completedFuture(Collections.emptySet());
+            }
+            if (!replyPacket.getResult().isJsonObject()) {
+                return CompletableFuture.completedFuture(participants);
             }
 
-            if (replyPacket.getResult().isJsonObject()) {
-                JsonObject jsonResultObject = (JsonObject) replyPacket.getResult();
-                InteractiveParticipant[] partialParticipants = GameClient.GSON.fromJson(jsonResultObject.get(PARAM_KEY_PARTICIPANTS), InteractiveParticipant[].class);
-                if (partialParticipants != null && partialParticipants.length > 0) {
+            JsonObject jsonResultObject = (JsonObject) replyPacket.getResult();
+            InteractiveParticipant[] partialParticipants = GameClient.GSON.fromJson(jsonResultObject.get(PARAM_KEY_PARTICIPANTS), InteractiveParticipant[].class);
+            if (partialParticipants == null || partialParticipants.length == 0 || !jsonResultObject.get(PARAM_KEY_HAS_MORE).getAsBoolean()) {
+                if (partialParticipants != null) {
                     Collections.addAll(participants, partialParticipants);
-                    if (method == InteractiveMethod.GET_ALL_PARTICIPANTS) {
-                        marker = partialParticipants[partialParticipants.length - 1].getConnectedAt();
-                    }
-                    else {
-                        marker = partialParticipants[partialParticipants.length - 1].getLastInputAt();
-                    }
                 }
-                hasMore = jsonResultObject.get(PARAM_KEY_HAS_MORE).getAsBoolean();
+                return CompletableFuture.completedFuture(participants);
             }
-        }
 
-        return participants;
+            Collections.addAll(participants, partialParticipants);
+            InteractiveParticipant last = partialParticipants[partialParticipants.length - 1];
+            long marker = method == InteractiveMethod.GET_ALL_PARTICIPANTS ? last.getConnectedAt() : last.getLastInputAt();
+            return getParticipants(method, requestParticipants(method, marker), participants);
+        });
     }
 }
@@ -0,0 +1,455 @@
+package com.mixer.interactive.services;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonElement;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.IEventInterest;
+import com.mixer.interactive.event.connection.ConnectionClosedEvent;
+import com.mixer.interactive.event.connection.SequenceGapEvent;
+import com.mixer.interactive.event.control.ControlEvent;
+import com.mixer.interactive.event.group.GroupEvent;
+import com.mixer.interactive.event.scene.SceneEvent;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Shares the results of read requests, such as retrieving the scenes or groups of an Interactive integration,
+ * between the callers making them at the same time.</p>
+ *
+ * <p>While a read request is awaiting its reply, further calls for the same method wait on it rather than sending
+ * their own request. Each caller is handed its own <code>CompletableFuture</code>, so cancelling it leaves the others
+ * waiting. Only the JSON of the reply is shared: each caller decodes its own result from it, so callers are free to
+ * modify the resources they are handed.</p>
+ *
+ * <p>Results can also be cached for a short time per method, which is off by default. A cached result is dropped as
+ * soon as the client sends a request changing what it holds, or the Interactive service posts a matching
+ * <code>ON_*</code> event, such as <code>onSceneUpdate</code> for scenes. Every cached result is dropped when
+ * packets from the service were never received, as the events among them are lost. A reply to a read request that was in flight
+ * when its result was invalidated is handed to the callers waiting on it, but is not cached, and later callers send a
+ * new request.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.GameClient#getReadRequestCache()
+ *
+ * @since       3.3.0
+ */
+public class ReadRequestCache implements IEventInterest {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * State of the requests for each read method
+     */
+    private final Map<InteractiveMethod, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Time, in nanoseconds, results are cached for, by read method
+     */
+    private final Map<InteractiveMethod, Long> timeToLiveNanos = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the result of a read request, sharing the request in flight or the cached result for the method if there
+     * is one, or sending the request otherwise. The result is decoded for each caller from the JSON of the reply.
+     *
+     * @param   method
+     *          The read method
+     * @param   request
+     *          Sends the request, completing with the JSON of the result
+     * @param   type
+     *          Type the result is decoded as
+     * @param   <T>
+     *          Type of the result
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the result of the request
+     *
+     * @since   3.3.0
+     */
+    public <T> CompletableFuture<T> get(InteractiveMethod method, Supplier<CompletableFuture<JsonElement>> request, Type type) {
+        if (method == null || request == null || type == null) {
+            LOG.fatal("A method, a request and the type of its result are required");
+            throw new IllegalArgumentException("A method, a request and the type of its result are required");
+        }
+
+        Slot slot = slots.computeIfAbsent(method, key -> new Slot());
+        Flight flight;
+        long generation;
+        synchronized (slot) {
+            if (slot.cached && System.nanoTime() - slot.expiresAt < 0) {
+                return CompletableFuture.completedFuture(slot.value).thenApply(json -> decode(json, type));
+            }
+            if (slot.inFlight != null) {
+                return join(slot, slot.inFlight, type);
+            }
+            flight = new Flight();
+            slot.inFlight = flight;
+            generation = slot.generation;
+        }
+
+        // Sends the request outside of the lock, as it may write to the websocket
+        CompletableFuture<JsonElement> sent;
+        try {
+            sent = request.get();
+        }
+        catch (RuntimeException e) {
+            sent = new CompletableFuture<>();
+            sent.completeExceptionally(e);
+        }
+        synchronized (slot) {
+            flight.sent = sent;
+        }
+        sent.whenComplete((result, throwable) -> {
+            synchronized (slot) {
+                if (slot.inFlight == flight) {
+                    slot.inFlight = null;
+                }
+                Long timeToLive = timeToLiveNanos.get(method);
+                if (throwable == null && slot.generation == generation && timeToLive != null) {
+                    slot.value = result;
+                    slot.cached = true;
+                    slot.expiresAt = System.nanoTime() + timeToLive;
+                }
+            }
+            if (throwable != null) {
+                flight.result.completeExceptionally(throwable);
+            }
+            else {
+                flight.result.complete(result);
+            }
+        });
+        synchronized (slot) {
+            return join(slot, flight, type);
+        }
+    }
+
+    /**
+     * Returns a <code>CompletableFuture</code> for a caller waiting on a request in flight. Cancelling it stops the
+     * caller waiting, and cancels the request once no caller is waiting on it. Called while holding the lock of the
+     * slot.
+     *
+     * @param   slot
+     *          The slot of the read method
+     * @param   flight
+     *          The request in flight
+     * @param   type
+     *          Type the result is decoded as for the caller
+     * @param   <T>
+     *          Type of the result
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the result of the request
+     *
+     * @since   3.3.0
+     */
+    private <T> CompletableFuture<T> join(Slot slot, Flight flight, Type type) {
+        flight.waiters++;
+        CompletableFuture<T> waiter = flight.result.thenApply(json -> decode(json, type));
+        waiter.whenComplete((result, throwable) -> {
+            if (!waiter.isCancelled()) {
+                return;
+            }
+            CompletableFuture<?> sent = null;
+            synchronized (slot) {
+                if (--flight.waiters == 0 && !flight.result.isDone()) {
+                    if (slot.inFlight == flight) {
+                        slot.inFlight = null;
+                    }
+                    sent = flight.sent;
+                }
+            }
+            if (sent != null) {
+                sent.cancel(false);
+            }
+        });
+        return waiter;
+    }
+
+    /**
+     * Decodes a result for a caller, so that no two callers are handed the same resources.
+     *
+     * @param   json
+     *          The JSON of the result, or <code>null</code> if the reply held none
+     * @param   type
+     *          Type the result is decoded as
+     * @param   <T>
+     *          Type of the result
+     *
+     * @return  The decoded result, or <code>null</code> if the reply held none
+     *
+     * @since   3.3.0
+     */
+    private static <T> T decode(JsonElement json, Type type) {
+        return json != null ? GameClient.GSON.fromJson(json, type) : null;
+    }
+
+    /**
+     * Sets the time results of a read method are cached for.
+     *
+     * @param   method
+     *          The read method
+     * @param   timeToLive
+     *          Time results are cached for, or <code>0</code> to only share requests in flight
+     * @param   timeUnit
+     *          Unit of the time to live
+     *
+     * @since   3.3.0
+     */
+    public void setTimeToLive(InteractiveMethod method, long timeToLive, TimeUnit timeUnit) {
+        if (method == null || timeUnit == null || timeToLive < 0) {
+            LOG.fatal("A method, a non-negative time to live and its unit are required");
+            throw new IllegalArgumentException("A method, a non-negative time to live and its unit are required");
+        }
+        if (timeToLive == 0) {
+            timeToLiveNanos.remove(method);
+        }
+        else {
+            timeToLiveNanos.put(method, timeUnit.toNanos(timeToLive));
+        }
+        invalidate(method);
+    }
+
+    /**
+     * Returns the time results of a read method are cached for.
+     *
+     * @param   method
+     *          The read method
+     * @param   timeUnit
+     *          Unit to return the time to live in
+     *
+     * @return  The time results are cached for, or <code>0</code> if requests in flight are only shared
+     *
+     * @since   3.3.0
+     */
+    public long getTimeToLive(InteractiveMethod method, TimeUnit timeUnit) {
+        Long timeToLive = timeToLiveNanos.get(method);
+        return timeToLive != null ? timeUnit.convert(timeToLive, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Drops the cached result of a read method, and stops sharing the request in flight for it with later callers.
+     *
+     * @param   method
+     *          The read method
+     *
+     * @since   3.3.0
+     */
+    public void invalidate(InteractiveMethod method) {
+        Slot slot = slots.get(method);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.generation++;
+                slot.inFlight = null;
+                slot.cached = false;
+                slot.value = null;
+            }
+        }
+    }
+
+    /**
+     * Drops every cached result, and stops sharing the requests in flight with later callers.
+     *
+     * @since   3.3.0
+     */
+    public void invalidateAll() {
+        for (InteractiveMethod method : slots.keySet()) {
+            invalidate(method);
+        }
+    }
+
+    /**
+     * Invalidates the read methods whose results a request changes. Called by the
+     * <code>RemoteProcedureCallServiceProvider</code> when a request is sent, and again when it completes.
+     *
+     * @param   method
+     *          The method of the request
+     *
+     * @return  <code>true</code> if the request changes the results of any read method, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean onRequest(InteractiveMethod method) {
+        if (method == null) {
+            return false;
+        }
+        switch (method) {
+            case CREATE_SCENES:
+            case UPDATE_SCENES:
+            case CREATE_CONTROLS:
+            case UPDATE_CONTROLS:
+            case DELETE_CONTROLS:
+                invalidate(InteractiveMethod.GET_SCENES);
+                return true;
+            case DELETE_SCENE:
+            case CREATE_GROUPS:
+            case UPDATE_GROUPS:
+            case DELETE_GROUP:
+                invalidate(InteractiveMethod.GET_SCENES);
+                invalidate(InteractiveMethod.GET_GROUPS);
+                return true;
+            case SET_BANDWIDTH_THROTTLE:
+                invalidate(InteractiveMethod.GET_THROTTLE_STATE);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Scene, control and group events are only of interest while results of the read methods they invalidate are
+     * cached, and sequence gaps while results of any read method are.</p>
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        if (SceneEvent.class.isAssignableFrom(eventType) || ControlEvent.class.isAssignableFrom(eventType) || GroupEvent.class.isAssignableFrom(eventType)) {
+            return timeToLiveNanos.containsKey(InteractiveMethod.GET_SCENES) || timeToLiveNanos.containsKey(InteractiveMethod.GET_GROUPS);
+        }
+        if (SequenceGapEvent.class.isAssignableFrom(eventType)) {
+            return !timeToLiveNanos.isEmpty();
+        }
+        return false;
+    }
+
+    /**
+     * Invalidates the scenes when the Interactive service reports that a scene has changed.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onSceneEvent(SceneEvent event) {
+        invalidate(InteractiveMethod.GET_SCENES);
+        invalidate(InteractiveMethod.GET_GROUPS);
+    }
+
+    /**
+     * Invalidates the scenes when the Interactive service reports that a control has changed.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onControlEvent(ControlEvent event) {
+        invalidate(InteractiveMethod.GET_SCENES);
+    }
+
+    /**
+     * Invalidates the groups and scenes when the Interactive service reports that a group has changed.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onGroupEvent(GroupEvent event) {
+        invalidate(InteractiveMethod.GET_SCENES);
+        invalidate(InteractiveMethod.GET_GROUPS);
+    }
+
+    /**
+     * Drops every cached result when the connection closes, as the next connection may be to another integration.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onConnectionClosed(ConnectionClosedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Drops every cached result when packets from the Interactive service were never received, as the events that
+     * would have invalidated them may be among the missing packets.
+     *
+     * @param   event
+     *          The <code>SequenceGapEvent</code> reporting the missing packets
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    @AllowConcurrentEvents
+    public void onSequenceGap(SequenceGapEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * The requests for one read method.
+     *
+     * @since   3.3.0
+     */
+    private static final class Slot {
+
+        /**
+         * Number of times the method has been invalidated
+         */
+        private long generation;
+
+        /**
+         * The request in flight, or <code>null</code> if none is shared
+         */
+        private Flight inFlight;
+
+        /**
+         * Whether a result is cached
+         */
+        private boolean cached;
+
+        /**
+         * The JSON of the cached result
+         */
+        private JsonElement value;
+
+        /**
+         * Time, in nanoseconds, the cached result expires at
+         */
+        private long expiresAt;
+    }
+
+    /**
+     * A request in flight and the callers waiting on it, guarded by the lock of its slot.
+     *
+     * @since   3.3.0
+     */
+    private static final class Flight {
+
+        /**
+         * JSON of the result of the request, completed once it is
+         */
+        private final CompletableFuture<JsonElement> result = new CompletableFuture<>();
+
+        /**
+         * The request as sent, or <code>null</code> until it is
+         */
+        private CompletableFuture<?> sent;
+
+        /**
+         * Number of callers waiting on the request
+         */
+        private int waiters;
+    }
+}
@@ -1,23 +1,39 @@
 package com.mixer.interactive.services;
 
-import com.google.gson.JsonArray;
+import com.google.common.base.Utf8;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.EchoSuppressor;
+import com.mixer.interactive.exception.InteractiveOutboundBufferFullException;
 import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
 import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
+import com.mixer.interactive.gson.EncodedJsonArray;
+import com.mixer.interactive.memory.MemoryAccountant;
+import com.mixer.interactive.metrics.IMetricsRegistry;
+import com.mixer.interactive.protocol.EncodedMethodPacket;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.protocol.MethodPacket;
 import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.protocol.ReplyPromise;
+import com.mixer.interactive.protocol.RequestPriority;
 import com.mixer.interactive.ws.InteractiveWebSocketClient;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Provides all functionality relating to making requests and interpreting replies from the Interactive service. In the
@@ -35,16 +51,6 @@ import java.util.concurrent.TimeUnit;
  */
 public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider {
 
-    /**
-     * The default time unit for timing out unfulfilled method requests.
-     */
-    private static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.SECONDS;
-
-    /**
-     * The default duration for timing out unfulfilled method requests.
-     */
-    private static final long DEFAULT_DURATION = 15;
-
     /**
      * Initializes a new <code>RemoteProcedureCallServiceProvider</code>.
      *
@@ -57,6 +63,35 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
         super(gameClient);
     }
 
+    /**
+     * Initializes a new <code>RemoteProcedureCallServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    private RemoteProcedureCallServiceProvider(GameClient gameClient, CallOptions callOptions) {
+        super(gameClient, callOptions);
+    }
+
+    /**
+     * Returns a view of this service provider whose requests are made with the provided options, such as a deadline or
+     * a <code>CancellationToken</code>.
+     *
+     * @param   callOptions
+     *          Options applied to the requests made through the returned service provider
+     *
+     * @return  A <code>RemoteProcedureCallServiceProvider</code> bound to the provided options
+     *
+     * @since   3.3.0
+     */
+    public RemoteProcedureCallServiceProvider withOptions(CallOptions callOptions) {
+        return new RemoteProcedureCallServiceProvider(gameClient, callOptions);
+    }
+
     /**
      * Prepares and sends a request to the Interactive service, expecting no reply.
      *
@@ -103,21 +138,45 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      * @since   1.0.0
      */
     public CompletableFuture<Boolean> makeRequest(InteractiveMethod method, JsonElement params) {
-        MethodPacket requestPacket = new MethodPacket(claimNextPacketId(), method, params);
+        return sendForSuccess(new MethodPacket(claimNextPacketId(), method, params));
+    }
 
-        return send(requestPacket).thenCompose(replyPacket -> {
-            CompletableFuture<Boolean> composedFuture = new CompletableFuture<>();
-            if (replyPacket == null) {
-                composedFuture.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket));
-            }
-            else if (replyPacket.hasError()) {
-                composedFuture.completeExceptionally(new InteractiveReplyWithErrorException(requestPacket, replyPacket.getError()));
-            }
-            else {
-                composedFuture.complete(true);
-            }
-            return composedFuture;
-        });
+    /**
+     * <p>Prepares and sends a request to the Interactive service with one parameter whose value is an array that has
+     * already been encoded. The encoded array is written into the frame as it is.</p>
+     *
+     * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
+     * that there was a problem with the reply from the Interactive service. Specifically, two types of checked
+     * exceptions may be thrown:</p>
+     *
+     * <ul>
+     *  <li>{@link InteractiveRequestNoReplyException} may be thrown if no reply is received from the Interactive
+     *  service.</li>
+     *  <li>{@link InteractiveReplyWithErrorException} may be thrown if the reply received from the Interactive service
+     *  contains an <code>InteractiveError</code>.</li>
+     * </ul>
+     *
+     * <p>Considerations should be made for these possibilities when interpreting the results of the returned
+     * <code>CompletableFuture</code>.</p>
+     *
+     * @param   method
+     *          An <code>InteractiveMethod</code> for the request
+     * @param   params
+     *          Json encoded map of the other parameters for the request
+     * @param   encodedParameterName
+     *          Name of the encoded parameter
+     * @param   encodedParameter
+     *          Value of the encoded parameter
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns {@link Boolean#TRUE true} for this request
+     *          if it completes with no errors
+     *
+     * @see     EncodedMethodPacket
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<Boolean> makeRequest(InteractiveMethod method, JsonObject params, String encodedParameterName, EncodedJsonArray encodedParameter) {
+        return sendForSuccess(new EncodedMethodPacket(claimNextPacketId(), method, params, encodedParameterName, encodedParameter));
     }
 
     /**
@@ -195,9 +254,103 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      * @since   1.0.0
      */
     public <T> CompletableFuture<T> makeRequest(InteractiveMethod method, JsonElement params, String memberName, Type type) {
-        MethodPacket requestPacket = new MethodPacket(claimNextPacketId(), method, params);
+        return sendForResult(new MethodPacket(claimNextPacketId(), method, params), memberName, type);
+    }
 
-        return send(requestPacket).thenCompose(replyPacket -> {
+    /**
+     * <p>Prepares and sends a request to the Interactive service with one parameter whose value is an array that has
+     * already been encoded, returning the parsed reply. The encoded array is written into the frame as it is.</p>
+     *
+     * <p>The result of the <code>CompletableFuture</code> may include checked exceptions that were thrown in the event
+     * that there was a problem with the reply from the Interactive service. Specifically, two types of checked
+     * exceptions may be thrown:</p>
+     *
+     * <ul>
+     *  <li>{@link InteractiveRequestNoReplyException} may be thrown if no reply is received from the Interactive
+     *  service.</li>
+     *  <li>{@link InteractiveReplyWithErrorException} may be thrown if the reply received from the Interactive service
+     *  contains an <code>InteractiveError</code>.</li>
+     * </ul>
+     *
+     * <p>Considerations should be made for these possibilities when interpreting the results of the returned
+     * <code>CompletableFuture</code>.</p>
+     *
+     * @param   method
+     *          An <code>InteractiveMethod</code> for the request
+     * @param   params
+     *          Json encoded map of the other parameters for the request
+     * @param   encodedParameterName
+     *          Name of the encoded parameter
+     * @param   encodedParameter
+     *          Value of the encoded parameter
+     * @param   memberName
+     *          Member name of parameter to be parsed from reply
+     * @param   type
+     *          Type of object to be parsed from reply
+     * @param   <T>
+     *          Class of object to be parsed from the reply
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns a <code>T</code> object parsed from the
+     *          <code>ReplyPacket</code> sent back from the Interactive service for this request if it completes with
+     *          no errors
+     *
+     * @see     EncodedMethodPacket
+     *
+     * @since   3.3.0
+     */
+    public <T> CompletableFuture<T> makeRequest(InteractiveMethod method, JsonObject params, String encodedParameterName, EncodedJsonArray encodedParameter, String memberName, Type type) {
+        return sendForResult(new EncodedMethodPacket(claimNextPacketId(), method, params, encodedParameterName, encodedParameter), memberName, type);
+    }
+
+    /**
+     * Sends a request, completing with {@link Boolean#TRUE true} if its reply has no error.
+     *
+     * @param   requestPacket
+     *          A <code>MethodPacket</code> representing the request being sent
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns {@link Boolean#TRUE true} for this request
+     *          if it completes with no errors
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<Boolean> sendForSuccess(MethodPacket requestPacket) {
+        CompletableFuture<ReplyPacket> replyPromise = send(requestPacket);
+        return cancelling(replyPromise, replyPromise.thenCompose(replyPacket -> {
+            CompletableFuture<Boolean> composedFuture = new CompletableFuture<>();
+            if (replyPacket == null) {
+                composedFuture.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket));
+            }
+            else if (replyPacket.hasError()) {
+                composedFuture.completeExceptionally(new InteractiveReplyWithErrorException(requestPacket, replyPacket.getError()));
+            }
+            else {
+                composedFuture.complete(true);
+            }
+            return composedFuture;
+        }));
+    }
+
+    /**
+     * Sends a request, completing with the result parsed from its reply.
+     *
+     * @param   requestPacket
+     *          A <code>MethodPacket</code> representing the request being sent
+     * @param   memberName
+     *          Member name of parameter to be parsed from reply, or <code>null</code> to parse the whole result
+     * @param   type
+     *          Type of object to be parsed from reply
+     * @param   <T>
+     *          Class of object to be parsed from the reply
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns a <code>T</code> object parsed from the
+     *          <code>ReplyPacket</code> sent back from the Interactive service for this request if it completes with
+     *          no errors
+     *
+     * @since   3.3.0
+     */
+    private <T> CompletableFuture<T> sendForResult(MethodPacket requestPacket, String memberName, Type type) {
+        CompletableFuture<ReplyPacket> replyPromise = send(requestPacket);
+        return cancelling(replyPromise, replyPromise.thenCompose(replyPacket -> {
             CompletableFuture<T> composedFuture = new CompletableFuture<>();
             if (replyPacket == null) {
                 composedFuture.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket));
@@ -217,7 +370,31 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
                 composedFuture.complete(null);
             }
             return composedFuture;
+        }));
+    }
+
+    /**
+     * Cancels the promise for the reply to a request when a future derived from it is cancelled, so that cancelling
+     * the future returned to the caller stops waiting for the reply.
+     *
+     * @param   replyPromise
+     *          The promise for the reply to the request
+     * @param   derivedFuture
+     *          A future derived from the promise
+     * @param   <T>
+     *          Type of the result of the derived future
+     *
+     * @return  The derived future
+     *
+     * @since   3.3.0
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<ReplyPacket> replyPromise, CompletableFuture<T> derivedFuture) {
+        derivedFuture.whenComplete((result, throwable) -> {
+            if (derivedFuture.isCancelled()) {
+                replyPromise.cancel(false);
+            }
         });
+        return derivedFuture;
     }
 
     /**
@@ -235,7 +412,7 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      * @since   1.0.0
      */
     public CompletableFuture<ReplyPacket> send(MethodPacket requestPacket) {
-        return send(requestPacket, DEFAULT_DURATION, DEFAULT_TIME_UNIT);
+        return send(requestPacket, callOptions);
     }
 
     /**
@@ -270,8 +447,29 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      * @since   1.0.0
      */
     public CompletableFuture<ReplyPacket> send(MethodPacket requestPacket, long duration, TimeUnit timeUnit) {
+        if (timeUnit == null || duration < 0) {
+            CompletableFuture<ReplyPacket> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket));
+            return failedFuture;
+        }
+        return send(requestPacket, callOptions.withTimeout(duration, timeUnit));
+    }
 
-        Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap = send(Collections.singletonList(requestPacket), duration, timeUnit);
+    /**
+     * Sends a request to the Interactive service with the provided options, returning the reply.
+     *
+     * @param   requestPacket
+     *          A <code>MethodPacket</code> representing the request being sent
+     * @param   options
+     *          Options applied to the request
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the <code>ReplyPacket</code> sent back from
+     *          the Interactive service for the provided method request
+     *
+     * @since   3.3.0
+     */
+    private CompletableFuture<ReplyPacket> send(MethodPacket requestPacket, CallOptions options) {
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap = send(Collections.singletonList(requestPacket), options);
         if (requestPromiseMap.containsKey(requestPacket)) {
             return requestPromiseMap.get(requestPacket);
         }
@@ -307,7 +505,7 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      * @since   1.0.0
      */
     public Map<MethodPacket, CompletableFuture<ReplyPacket>> send(Collection<MethodPacket> requestPackets) {
-        return send(requestPackets, DEFAULT_DURATION, DEFAULT_TIME_UNIT);
+        return send(requestPackets, callOptions);
     }
 
     /**
@@ -322,6 +520,8 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      *  service.</li>
      *  <li>{@link InteractiveReplyWithErrorException} may be thrown if the reply received from the Interactive service
      *  contains an <code>InteractiveError</code>.</li>
+     *  <li>{@link InteractiveOutboundBufferFullException} may be thrown if the requests were not sent because too
+     *  much is already waiting to be written to the Interactive service.</li>
      * </ul>
      *
      * <p>Considerations should be made for these possibilities when interpreting the results of the returned list.</p>
@@ -340,25 +540,87 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
      * @since   1.0.0
      */
     public Map<MethodPacket, CompletableFuture<ReplyPacket>> send(Collection<MethodPacket> requestPackets, long duration, TimeUnit timeUnit) {
-        if (requestPackets == null || requestPackets.isEmpty() || timeUnit == null || duration < 0) {
+        if (timeUnit == null || duration < 0) {
             return Collections.emptyMap();
         }
+        return send(requestPackets, callOptions.withTimeout(duration, timeUnit));
+    }
+
+    /**
+     * <p>Prepares and sends one or many requests to the Interactive service with the provided options, returning a
+     * list of replies that are in the same order as the input collection.</p>
+     *
+     * <p>Requests made with options that have no timeout or deadline of their own wait for the timeout adapted to the
+     * round trips observed for their method, if {@link AdaptiveTimeouts} are on.</p>
+     *
+     * <p>Requests made with the options of a {@link RequestBatch} that has not been sent yet are held by it, and sent
+     * along with the rest of the batch.</p>
+     *
+     * <p>Requests are not sent if the deadline of the options has passed, in which case they fail with an
+     * {@link InteractiveRequestNoReplyException}, or if their cancellation token has been cancelled, in which case
+     * they are cancelled. Requests awaiting a reply stop waiting for it, and release their place in the map of waiting
+     * promises, as soon as they time out or are cancelled.</p>
+     *
+     * @param   requestPackets
+     *          A <code>Collection</code> of <code>MethodPacket</code> representing the requests being sent
+     * @param   options
+     *          Options applied to the requests
+     *
+     * @return  A <code>List</code> of <code>CompletableFutures</code> that when complete return the
+     *          <code>ReplyPacket</code> for the corresponding input <code>MethodPacket</code>. This list is in the same
+     *          order as the input collection.
+     *
+     * @since   3.3.0
+     */
+    private Map<MethodPacket, CompletableFuture<ReplyPacket>> send(Collection<MethodPacket> requestPackets, CallOptions options) {
+        if (requestPackets == null || requestPackets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // Requests made for a batch are held until it is sent, unless it already has been
+        RequestBatch batch = options.getBatch();
+        if (batch != null) {
+            Map<MethodPacket, CompletableFuture<ReplyPacket>> heldPromiseMap = batch.hold(requestPackets);
+            if (heldPromiseMap != null) {
+                return heldPromiseMap;
+            }
+            options = options.withBatch(null);
+        }
 
         InteractiveWebSocketClient webSocketClient = gameClient.getWebSocketClient();
         Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap = new HashMap<>();
-        JsonArray requestArray = new JsonArray();
+        List<MethodPacket> sentPackets = new ArrayList<>(requestPackets.size());
+        boolean expired = options.isExpired();
+        boolean cancelled = options.isCancelled();
+        long timeoutNanos = options.getRemaining(TimeUnit.NANOSECONDS);
+        CancellationToken cancellationToken = options.getCancellationToken();
+        UpdateShadow updateShadow = gameClient.getUpdateShadow();
+        IMetricsRegistry metrics = gameClient.getMetricsRegistry();
+        AdaptiveTimeouts adaptiveTimeouts = gameClient.getAdaptiveTimeouts();
+        boolean adaptTimeouts = adaptiveTimeouts.isEnabled() && options.isTimeoutAdaptable();
 
         for (MethodPacket requestPacket : requestPackets) {
             requestPacket.setSequenceNumber(getSequenceNumber());
-            CompletableFuture<ReplyPacket> replyPromise = new CompletableFuture<>();
-            if (webSocketClient == null) {
+            CompletableFuture<ReplyPacket> replyPromise = new ReplyPromise(requestPacket);
+            if (webSocketClient == null || expired) {
                 replyPromise.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket));
                 requestPromiseMap.put(requestPacket, replyPromise);
                 continue;
             }
+            if (cancelled) {
+                replyPromise.cancel(false);
+                requestPromiseMap.put(requestPacket, replyPromise);
+                continue;
+            }
+
+            // Complete updates that would not change anything without sending them
+            if (updateShadow.isEnabled() && updateShadow.track(requestPacket, replyPromise)) {
+                requestPromiseMap.put(requestPacket, replyPromise);
+                continue;
+            }
 
             // Queue up the request
-            requestArray.add(GameClient.GSON.toJsonTree(requestPacket));
+            sentPackets.add(requestPacket);
 
             // If the request is to be discarded, do not track it. Otherwise, track it and add a listener to time it out
             // in the event a reply is not received within the specified time frame.
@@ -366,27 +628,255 @@ public class RemoteProcedureCallServiceProvider extends AbstractServiceProvider
                 requestPromiseMap.put(requestPacket, CompletableFuture.completedFuture(null));
             }
             else {
-                webSocketClient.getWaitingFuturesMap().put(requestPacket.getPacketID(), replyPromise);
-                gameClient.getExecutorService().schedule(() ->
-                    replyPromise.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket))
-                , duration, timeUnit);
+                // The reply slot is released before a timed out or cancelled promise completes, so that it is free by
+                // the time anything waiting on the promise runs
+                // Requests without a timeout of their own wait for one adapted to the round trips observed for their
+                // method. A request timing out counts as a round trip as long as its timeout.
+                long adaptedNanos = adaptTimeouts ? adaptiveTimeouts.getTimeout(requestPacket.getMethod(), TimeUnit.NANOSECONDS) : -1;
+                long requestTimeoutNanos = adaptedNanos >= 0 ? adaptedNanos : timeoutNanos;
+                if (metrics.isEnabled()) {
+                    metrics.timeoutScheduled(requestPacket.getMethod(), requestTimeoutNanos, adaptedNanos >= 0);
+                }
+                ConcurrentMap<Integer, CompletableFuture<ReplyPacket>> waitingFuturesMap = webSocketClient.getWaitingFuturesMap();
+                waitingFuturesMap.put(requestPacket.getPacketID(), replyPromise);
+                ScheduledFuture<?> timeout = gameClient.getExecutorService().schedule(() -> {
+                    waitingFuturesMap.remove(requestPacket.getPacketID(), replyPromise);
+                    if (replyPromise.completeExceptionally(new InteractiveRequestNoReplyException(requestPacket)) && adaptTimeouts) {
+                        adaptiveTimeouts.record(requestPacket.getMethod(), requestTimeoutNanos);
+                    }
+                }, requestTimeoutNanos, TimeUnit.NANOSECONDS);
+                Runnable cancellation = () -> {
+                    waitingFuturesMap.remove(requestPacket.getPacketID(), replyPromise);
+                    replyPromise.cancel(false);
+                };
+                if (cancellationToken != null) {
+                    cancellationToken.onCancel(cancellation);
+                }
+
+                // However the request completes, release everything held on its behalf straight away
+                replyPromise.whenComplete((replyPacket, throwable) -> {
+                    timeout.cancel(false);
+                    waitingFuturesMap.remove(requestPacket.getPacketID(), replyPromise);
+                    if (cancellationToken != null) {
+                        cancellationToken.remove(cancellation);
+                    }
+                });
                 requestPromiseMap.put(requestPacket, replyPromise);
             }
         }
 
         // If multiple requests are to be sent, send them as an array. Otherwise send the request as an object.
-        if (webSocketClient != null) {
-            if (requestArray.size() > 1) {
-                webSocketClient.send(GameClient.GSON.toJson(requestArray));
+        // Requests carrying encoded parameters are written straight to the UTF-8 bytes of the frame. The frame goes
+        // through the outbound buffer, which may turn it away if too much is already waiting to be written.
+        if (webSocketClient != null && !sentPackets.isEmpty()) {
+            RequestPriority priority = getFramePriority(sentPackets);
+            EchoSuppressor echoSuppressor = gameClient.getEchoSuppressor();
+            if (echoSuppressor.isTracking()) {
+                for (MethodPacket requestPacket : sentPackets) {
+                    echoSuppressor.expect(requestPacket, requestPromiseMap.get(requestPacket));
+                }
+            }
+            // A frame dropped after being admitted to the outbound buffer fails the requests in it
+            List<CompletableFuture<ReplyPacket>> sentPromises = new ArrayList<>(sentPackets.size());
+            for (MethodPacket requestPacket : sentPackets) {
+                sentPromises.add(requestPromiseMap.get(requestPacket));
             }
-            else if (requestArray.size() == 1) {
-                webSocketClient.send(GameClient.GSON.toJson(requestArray.get(0)));
+            Consumer<Throwable> dropped = throwable -> sentPromises.forEach(replyPromise -> replyPromise.completeExceptionally(throwable));
+            try {
+                int frameBytes;
+                if (sentPackets.stream().anyMatch(EncodedMethodPacket.class::isInstance)) {
+                    byte[] frame = encodeFrame(sentPackets);
+                    frameBytes = frame.length;
+                    webSocketClient.getOutboundBuffer().write(frameBytes, priority, () -> webSocketClient.sendText(frame), dropped);
+                }
+                else {
+                    String frame = sentPackets.size() > 1
+                            ? GameClient.GSON.toJson(sentPackets)
+                            : GameClient.GSON.toJson(sentPackets.get(0));
+                    frameBytes = Utf8.encodedLength(frame);
+                    webSocketClient.getOutboundBuffer().write(frameBytes, priority, () -> webSocketClient.sendText(frame), dropped);
+                }
+                if (metrics.isEnabled()) {
+                    recordSent(metrics, frameBytes, sentPackets, requestPromiseMap);
+                }
+                MemoryAccountant memoryAccountant = gameClient.getMemoryAccountant();
+                if (memoryAccountant != null) {
+                    memoryAccountant.track(sentPackets, requestPromiseMap);
+                }
+                invalidateReads(sentPackets, requestPromiseMap);
+                if (adaptTimeouts) {
+                    recordRoundTrips(adaptiveTimeouts, sentPackets, requestPromiseMap);
+                }
+            }
+            catch (InteractiveOutboundBufferFullException e) {
+                for (MethodPacket requestPacket : sentPackets) {
+                    webSocketClient.getWaitingFuturesMap().remove(requestPacket.getPacketID());
+                    CompletableFuture<ReplyPacket> failedFuture = new CompletableFuture<>();
+                    failedFuture.completeExceptionally(e);
+                    CompletableFuture<ReplyPacket> replyPromise = requestPromiseMap.put(requestPacket, failedFuture);
+                    if (replyPromise != null) {
+                        replyPromise.completeExceptionally(e);
+                    }
+                }
             }
         }
 
         return requestPromiseMap;
     }
 
+    /**
+     * Encodes the requests of a frame as UTF-8 bytes, as an array if there are several of them. Encoded parameters are
+     * copied into the frame as they are.
+     *
+     * @param   requestPackets
+     *          The <code>MethodPackets</code> to send in the frame
+     *
+     * @return  The UTF-8 bytes of the frame
+     *
+     * @since   3.3.0
+     */
+    private static byte[] encodeFrame(List<MethodPacket> requestPackets) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (requestPackets.size() > 1) {
+                out.write('[');
+            }
+            for (int i = 0; i < requestPackets.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                MethodPacket requestPacket = requestPackets.get(i);
+                if (requestPacket instanceof EncodedMethodPacket) {
+                    ((EncodedMethodPacket) requestPacket).writeTo(out);
+                }
+                else {
+                    out.write(GameClient.GSON.toJson(requestPacket).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (requestPackets.size() > 1) {
+                out.write(']');
+            }
+        }
+        catch (IOException e) {
+            // Never thrown by ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the priority of a frame, which is the highest priority of the requests in it.
+     *
+     * @param   sentPackets
+     *          The <code>MethodPackets</code> contained in the frame
+     *
+     * @return  The <code>RequestPriority</code> of the frame
+     *
+     * @since   3.3.0
+     */
+    private static RequestPriority getFramePriority(List<MethodPacket> sentPackets) {
+        RequestPriority priority = RequestPriority.LOW;
+        for (MethodPacket requestPacket : sentPackets) {
+            if (requestPacket.getPriority().compareTo(priority) > 0) {
+                priority = requestPacket.getPriority();
+            }
+        }
+        return priority;
+    }
+
+    /**
+     * Invalidates the read requests whose results the sent requests change, both straight away and once each request
+     * completes, so that a read racing with the write is not cached.
+     *
+     * @param   sentPackets
+     *          The <code>MethodPackets</code> that were sent
+     * @param   requestPromiseMap
+     *          <code>Map</code> of the <code>MethodPackets</code> and their reply promises
+     *
+     * @since   3.3.0
+     */
+    private void invalidateReads(List<MethodPacket> sentPackets, Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap) {
+        ReadRequestCache readRequestCache = gameClient.getReadRequestCache();
+        for (MethodPacket requestPacket : sentPackets) {
+            InteractiveMethod method = requestPacket.getMethod();
+            if (!readRequestCache.onRequest(method)) {
+                continue;
+            }
+            CompletableFuture<ReplyPacket> replyPromise = requestPromiseMap.get(requestPacket);
+            if (replyPromise != null && !replyPromise.isDone()) {
+                replyPromise.whenComplete((replyPacket, throwable) -> readRequestCache.onRequest(method));
+            }
+        }
+    }
+
+    /**
+     * Registers listeners that record the round trip of each sent request awaiting a reply once the reply is
+     * received, so that timeouts adapt to them.
+     *
+     * @param   adaptiveTimeouts
+     *          The <code>AdaptiveTimeouts</code> to record round trips with
+     * @param   sentPackets
+     *          The <code>MethodPackets</code> that were sent
+     * @param   requestPromiseMap
+     *          <code>Map</code> of the <code>MethodPackets</code> and their reply promises
+     *
+     * @since   3.3.0
+     */
+    private static void recordRoundTrips(AdaptiveTimeouts adaptiveTimeouts, List<MethodPacket> sentPackets, Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap) {
+        long sentAt = System.nanoTime();
+        for (MethodPacket requestPacket : sentPackets) {
+            if (!requestPacket.getDiscard()) {
+                requestPromiseMap.get(requestPacket).whenComplete((replyPacket, throwable) -> {
+                    if (replyPacket != null) {
+                        adaptiveTimeouts.record(requestPacket.getMethod(), System.nanoTime() - sentAt);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Records the requests in an outbound frame with the provided metrics registry, and registers listeners that
+     * record the outcome of each request awaiting a reply. The bytes of the frame are attributed evenly across the
+     * requests in it.
+     *
+     * @param   metrics
+     *          The <code>IMetricsRegistry</code> to record metrics with
+     * @param   frameBytes
+     *          The size of the outbound frame, in bytes
+     * @param   sentPackets
+     *          The <code>MethodPackets</code> contained in the frame
+     * @param   requestPromiseMap
+     *          <code>Map</code> of the <code>MethodPackets</code> and their reply promises
+     *
+     * @since   3.3.0
+     */
+    private void recordSent(IMetricsRegistry metrics, int frameBytes, List<MethodPacket> sentPackets, Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap) {
+        int bytesPerPacket = frameBytes / sentPackets.size();
+        long sentAt = System.nanoTime();
+        for (MethodPacket requestPacket : sentPackets) {
+            InteractiveMethod method = requestPacket.getMethod();
+            metrics.requestSent(method, bytesPerPacket, sentPackets.size(), !requestPacket.getDiscard());
+            if (!requestPacket.getDiscard()) {
+                CompletableFuture<ReplyPacket> replyPromise = requestPromiseMap.get(requestPacket);
+                replyPromise.whenComplete((replyPacket, throwable) -> {
+                    if (replyPacket != null) {
+                        metrics.replyReceived(method, System.nanoTime() - sentAt, replyPacket.getError());
+                    }
+                    else if (replyPromise.isCancelled()) {
+                        metrics.requestCancelled(method, System.nanoTime() - sentAt);
+                    }
+                    else if (throwable instanceof InteractiveRequestNoReplyException) {
+                        metrics.requestTimedOut(method, System.nanoTime() - sentAt);
+                    }
+                    else {
+                        metrics.requestFailed(method, System.nanoTime() - sentAt, throwable);
+                    }
+                });
+            }
+        }
+    }
+
     /**
      * Claims and returns the next available packet id.
      *
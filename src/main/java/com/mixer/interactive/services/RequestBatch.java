@@ -0,0 +1,302 @@
+package com.mixer.interactive.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.protocol.ReplyPromise;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>Collects requests made through several service providers and sends them together, rather than each in a frame of
+ * its own. Requests are made through the service providers returned by {@link #using(Class)}, which return the same
+ * typed futures as they otherwise would. The requests are held until {@link #send()} is called, for example:</p>
+ *
+ * <pre>
+ *     RequestBatch batch = gameClient.batch();
+ *     CompletableFuture&lt;Boolean&gt; created = batch.using(GROUP_SERVICE_PROVIDER).create(group);
+ *     batch.nextStage();
+ *     CompletableFuture&lt;Set&lt;InteractiveParticipant&gt;&gt; moved = batch.using(PARTICIPANT_SERVICE_PROVIDER).update(participants);
+ *     CompletableFuture&lt;Boolean&gt; captured = batch.using(TRANSACTION_SERVICE_PROVIDER).capture(transactionID);
+ *     batch.send();
+ * </pre>
+ *
+ * <p>The requests of a stage are written in one array frame, in the order they were made. Requests that rely on earlier
+ * requests having succeeded go in a later stage, started with {@link #nextStage()}. A stage is sent once every request
+ * of the stage before it has succeeded. If one fails, the requests of the later stages are not sent and are
+ * cancelled. Cancelling a request only withdraws that request, and does not count as it failing, unless the
+ * cancellation token of the batch was cancelled, in which case the batch is cancelled too.</p>
+ *
+ * <p>Requests a service provider makes only once earlier requests have been replied to, such as the later chunks of a
+ * bulk update, are sent on their own. So are requests made after the batch has been sent. Every request is sent with
+ * the options of the batch.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         GameClient#batch()
+ *
+ * @since       3.3.0
+ */
+public class RequestBatch {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * <code>GameClient</code> the requests are made through
+     */
+    private final GameClient gameClient;
+
+    /**
+     * Options the requests are sent with
+     */
+    private final CallOptions callOptions;
+
+    /**
+     * Requests of each stage and the promises handed out for their replies, guarded by this batch
+     */
+    private final List<Map<MethodPacket, CompletableFuture<ReplyPacket>>> stages = new ArrayList<>();
+
+    /**
+     * Completes once every request of the batch has completed, or is <code>null</code> until the batch is sent
+     */
+    private CompletableFuture<Boolean> completion;
+
+    /**
+     * Initializes a new <code>RequestBatch</code>.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> the requests are made through
+     * @param   callOptions
+     *          Options the requests are sent with
+     *
+     * @since   3.3.0
+     */
+    public RequestBatch(GameClient gameClient, CallOptions callOptions) {
+        if (gameClient == null || callOptions == null) {
+            LOG.fatal("A GameClient and CallOptions are required");
+            throw new IllegalArgumentException("A GameClient and CallOptions are required");
+        }
+        this.gameClient = gameClient;
+        this.callOptions = callOptions.withBatch(null);
+        stages.add(new LinkedHashMap<>());
+    }
+
+    /**
+     * Returns a view of a service provider whose requests are held by this batch until it is sent.
+     *
+     * @param   clazz
+     *          Class of the service provider
+     * @param   <T>
+     *          Type of the service provider
+     *
+     * @return  The service provider bound to this batch
+     *
+     * @since   3.3.0
+     */
+    public <T extends AbstractServiceProvider> T using(Class<T> clazz) {
+        AbstractServiceProvider serviceProvider = gameClient.using(clazz);
+        CallOptions batchOptions = callOptions.withBatch(this);
+        if (serviceProvider instanceof ControlServiceProvider) {
+            return clazz.cast(((ControlServiceProvider) serviceProvider).withOptions(batchOptions));
+        }
+        else if (serviceProvider instanceof GroupServiceProvider) {
+            return clazz.cast(((GroupServiceProvider) serviceProvider).withOptions(batchOptions));
+        }
+        else if (serviceProvider instanceof SceneServiceProvider) {
+            return clazz.cast(((SceneServiceProvider) serviceProvider).withOptions(batchOptions));
+        }
+        else if (serviceProvider instanceof ParticipantServiceProvider) {
+            return clazz.cast(((ParticipantServiceProvider) serviceProvider).withOptions(batchOptions));
+        }
+        else if (serviceProvider instanceof TransactionServiceProvider) {
+            return clazz.cast(((TransactionServiceProvider) serviceProvider).withOptions(batchOptions));
+        }
+        else if (serviceProvider instanceof RemoteProcedureCallServiceProvider) {
+            return clazz.cast(((RemoteProcedureCallServiceProvider) serviceProvider).withOptions(batchOptions));
+        }
+        LOG.fatal(String.format("%s cannot make requests for a batch", clazz));
+        throw new IllegalArgumentException(String.format("%s cannot make requests for a batch", clazz));
+    }
+
+    /**
+     * Starts a new stage. Requests made from now on are sent once every request made before has succeeded.
+     *
+     * @return  This batch
+     *
+     * @since   3.3.0
+     */
+    public synchronized RequestBatch nextStage() {
+        if (completion == null && !stages.get(stages.size() - 1).isEmpty()) {
+            stages.add(new LinkedHashMap<>());
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of requests held by this batch.
+     *
+     * @return  The number of requests held, or <code>0</code> once the batch has been sent
+     *
+     * @since   3.3.0
+     */
+    public synchronized int size() {
+        return completion != null ? 0 : stages.stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Sends the requests held by this batch, a stage at a time. Sending a batch again has no effect.
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns {@link Boolean#TRUE true} once every request
+     *          of the batch not cancelled has succeeded, or completes exceptionally with the first failure
+     *
+     * @since   3.3.0
+     */
+    public CompletableFuture<Boolean> send() {
+        synchronized (this) {
+            if (completion != null) {
+                return completion;
+            }
+            completion = new CompletableFuture<>();
+        }
+        sendStage(0);
+        return completion;
+    }
+
+    /**
+     * Holds requests until this batch is sent. Called by the <code>RemoteProcedureCallServiceProvider</code> for the
+     * requests made with the options of this batch.
+     *
+     * @param   requestPackets
+     *          The requests
+     *
+     * @return  Promises for the replies to the requests, which complete once the batch has been sent and the requests
+     *          replied to, or <code>null</code> if the batch has already been sent
+     *
+     * @since   3.3.0
+     */
+    synchronized Map<MethodPacket, CompletableFuture<ReplyPacket>> hold(Collection<MethodPacket> requestPackets) {
+        if (completion != null) {
+            return null;
+        }
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> stage = stages.get(stages.size() - 1);
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> heldPromiseMap = new HashMap<>();
+        for (MethodPacket requestPacket : requestPackets) {
+            CompletableFuture<ReplyPacket> heldPromise = new ReplyPromise(requestPacket);
+            stage.put(requestPacket, heldPromise);
+            heldPromiseMap.put(requestPacket, heldPromise);
+        }
+        return heldPromiseMap;
+    }
+
+    /**
+     * Sends the requests of a stage in one frame, and the next stage once they have all succeeded.
+     *
+     * @param   index
+     *          Index of the stage
+     *
+     * @since   3.3.0
+     */
+    private void sendStage(int index) {
+        if (index == stages.size()) {
+            completion.complete(true);
+            return;
+        }
+
+        // Requests whose promises were cancelled, or otherwise completed, while held are left out of the frame
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> stage = stages.get(index);
+        List<MethodPacket> requestPackets = new ArrayList<>(stage.size());
+        stage.forEach((requestPacket, heldPromise) -> {
+            if (!heldPromise.isDone()) {
+                requestPackets.add(requestPacket);
+            }
+        });
+        Map<MethodPacket, CompletableFuture<ReplyPacket>> requestPromiseMap = gameClient.using(GameClient.RPC_SERVICE_PROVIDER).withOptions(callOptions).send(requestPackets);
+        requestPromiseMap.forEach((requestPacket, replyPromise) -> {
+            CompletableFuture<ReplyPacket> heldPromise = stage.get(requestPacket);
+            replyPromise.whenComplete((replyPacket, throwable) -> {
+                if (throwable == null) {
+                    heldPromise.complete(replyPacket);
+                }
+                else if (throwable instanceof CancellationException) {
+                    heldPromise.cancel(false);
+                }
+                else {
+                    heldPromise.completeExceptionally(throwable);
+                }
+            });
+            heldPromise.whenComplete((replyPacket, throwable) -> {
+                if (heldPromise.isCancelled()) {
+                    replyPromise.cancel(false);
+                }
+            });
+        });
+
+        CompletableFuture.allOf(stage.values().toArray(new CompletableFuture<?>[stage.size()])).whenComplete((ignored, throwable) -> {
+            Throwable failure = callOptions.isCancelled() ? new CancellationException("Request batch was cancelled") : getFailure(stage);
+            if (failure == null) {
+                sendStage(index + 1);
+                return;
+            }
+            for (int i = index + 1; i < stages.size(); i++) {
+                stages.get(i).values().forEach(heldPromise -> heldPromise.cancel(false));
+            }
+            completion.completeExceptionally(failure);
+        });
+    }
+
+    /**
+     * Returns the first failure among the completed requests of a stage. Cancelled requests were withdrawn rather
+     * than failed, and are skipped.
+     *
+     * @param   stage
+     *          The requests of the stage and the promises for their replies
+     *
+     * @return  Why the first failed request failed, or <code>null</code> if every request not cancelled succeeded
+     *
+     * @since   3.3.0
+     */
+    private static Throwable getFailure(Map<MethodPacket, CompletableFuture<ReplyPacket>> stage) {
+        for (Map.Entry<MethodPacket, CompletableFuture<ReplyPacket>> entry : stage.entrySet()) {
+            try {
+                ReplyPacket replyPacket = entry.getValue().join();
+                if (replyPacket != null && replyPacket.hasError()) {
+                    return new InteractiveReplyWithErrorException(entry.getKey(), replyPacket.getError());
+                }
+            }
+            catch (CancellationException e) {
+                continue;
+            }
+            catch (CompletionException e) {
+                return e.getCause() != null ? e.getCause() : e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public synchronized String toString() {
+        return "RequestBatch{" +
+                "stages=" + stages.size() +
+                ", sent=" + (completion != null) +
+                '}';
+    }
+}
@@ -7,6 +7,7 @@ import com.mixer.interactive.GameClient;
 import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
 import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
 import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.InteractiveResource;
 import com.mixer.interactive.resources.scene.InteractiveScene;
 
 import java.lang.reflect.Type;
@@ -16,8 +17,6 @@ import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
-import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
-
 /**
  * Provides all functionality relating to making requests and interpreting replies from the Interactive service
  * regarding scenes.
@@ -64,6 +63,35 @@ public class SceneServiceProvider extends AbstractServiceProvider {
         super(gameClient);
     }
 
+    /**
+     * Initializes a new <code>SceneServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    private SceneServiceProvider(GameClient gameClient, CallOptions callOptions) {
+        super(gameClient, callOptions);
+    }
+
+    /**
+     * Returns a view of this service provider whose requests are made with the provided options, such as a deadline or
+     * a <code>CancellationToken</code>.
+     *
+     * @param   callOptions
+     *          Options applied to the requests made through the returned service provider
+     *
+     * @return  A <code>SceneServiceProvider</code> bound to the provided options
+     *
+     * @since   3.3.0
+     */
+    public SceneServiceProvider withOptions(CallOptions callOptions) {
+        return new SceneServiceProvider(gameClient, callOptions);
+    }
+
     /**
      * <p>Retrieves all the scenes for the Interactive integration.</p>
      *
@@ -89,7 +117,7 @@ public class SceneServiceProvider extends AbstractServiceProvider {
      * @since   1.0.0
      */
     public CompletableFuture<Set<InteractiveScene>> getScenes() {
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.GET_SCENES, EMPTY_JSON_OBJECT, PARAM_KEY_SCENES, SCENE_SET_TYPE);
+        return read(InteractiveMethod.GET_SCENES, EMPTY_JSON_OBJECT, PARAM_KEY_SCENES, SCENE_SET_TYPE);
     }
 
     /**
@@ -174,8 +202,8 @@ public class SceneServiceProvider extends AbstractServiceProvider {
         }
 
         JsonObject jsonParams = new JsonObject();
-        jsonParams.add(PARAM_KEY_SCENES, GameClient.GSON.toJsonTree(scenes));
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.CREATE_SCENES, jsonParams, PARAM_KEY_SCENES, SCENE_SET_TYPE);
+        jsonParams.add(PARAM_KEY_SCENES, InteractiveResource.toJsonArray(scenes));
+        return rpc().makeRequest(InteractiveMethod.CREATE_SCENES, jsonParams, PARAM_KEY_SCENES, SCENE_SET_TYPE);
     }
 
     /**
@@ -324,9 +352,9 @@ public class SceneServiceProvider extends AbstractServiceProvider {
         }
 
         JsonObject jsonParams = new JsonObject();
-        jsonParams.add(PARAM_KEY_SCENES, GameClient.GSON.toJsonTree(scenes));
+        jsonParams.add(PARAM_KEY_SCENES, InteractiveResource.toJsonArray(scenes));
         jsonParams.addProperty(PARAM_UPDATE_PRIORITY, priority);
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.UPDATE_SCENES, jsonParams, PARAM_KEY_SCENES, SCENE_SET_TYPE);
+        return rpc().makeRequest(InteractiveMethod.UPDATE_SCENES, jsonParams, PARAM_KEY_SCENES, SCENE_SET_TYPE);
     }
 
     /**
@@ -400,6 +428,6 @@ public class SceneServiceProvider extends AbstractServiceProvider {
         JsonObject jsonParams = new JsonObject();
         jsonParams.addProperty(PARAM_KEY_SCENE_ID, sceneID);
         jsonParams.addProperty(PARAM_KEY_REASSIGN_SCENE_ID, reassignSceneID);
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.DELETE_SCENE, jsonParams);
+        return rpc().makeRequest(InteractiveMethod.DELETE_SCENE, jsonParams);
     }
 }
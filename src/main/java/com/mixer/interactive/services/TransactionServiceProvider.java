@@ -10,8 +10,6 @@ import com.mixer.interactive.resources.transaction.InteractiveTransaction;
 
 import java.util.concurrent.CompletableFuture;
 
-import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
-
 /**
  * Provides all functionality relating to making requests and interpreting replies from the Interactive service
  * regarding Spark transactions.
@@ -41,6 +39,35 @@ public class TransactionServiceProvider extends AbstractServiceProvider {
         super(gameClient);
     }
 
+    /**
+     * Initializes a new <code>TransactionServiceProvider</code> whose requests are made with the provided options.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> that owns this service provider
+     * @param   callOptions
+     *          Options applied to the requests made through this service provider
+     *
+     * @since   3.3.0
+     */
+    private TransactionServiceProvider(GameClient gameClient, CallOptions callOptions) {
+        super(gameClient, callOptions);
+    }
+
+    /**
+     * Returns a view of this service provider whose requests are made with the provided options, such as a deadline or
+     * a <code>CancellationToken</code>.
+     *
+     * @param   callOptions
+     *          Options applied to the requests made through the returned service provider
+     *
+     * @return  A <code>TransactionServiceProvider</code> bound to the provided options
+     *
+     * @since   3.3.0
+     */
+    public TransactionServiceProvider withOptions(CallOptions callOptions) {
+        return new TransactionServiceProvider(gameClient, callOptions);
+    }
+
     /**
      * <p>Attempt to complete a spark transaction from the participant that initiated the transaction. The Interactive
      * service makes a best-effort to validate the charge before it’s created, blocking obviously invalid ones outright,
@@ -78,6 +105,6 @@ public class TransactionServiceProvider extends AbstractServiceProvider {
 
         JsonObject jsonParams = new JsonObject();
         jsonParams.addProperty(PARAM_KEY_TRANSACTION_ID, transactionID);
-        return gameClient.using(RPC_SERVICE_PROVIDER).makeRequest(InteractiveMethod.CAPTURE, jsonParams);
+        return rpc().makeRequest(InteractiveMethod.CAPTURE, jsonParams);
     }
 }
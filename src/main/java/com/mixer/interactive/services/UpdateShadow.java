@@ -0,0 +1,837 @@
+package com.mixer.interactive.services;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.connection.ConnectionClosedEvent;
+import com.mixer.interactive.event.connection.SequenceGapEvent;
+import com.mixer.interactive.protocol.EncodedMethodPacket;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * <p>Keeps a shadow of the last state of each control, group and participant the Interactive service acknowledged
+ * updating or creating, so that updates that would not change anything complete without being sent.</p>
+ *
+ * <p>An update request is redundant if, for every resource in it, each property sent other than the etag equals the
+ * state the resource is expected to have. That is the shadowed state, or the state once the requests for the resource
+ * awaiting their reply are applied. A redundant request is not sent, and is counted by the metrics registry of the
+ * client. It completes straight away with the shadowed resources as its result, as if the service had replied, or, if
+ * it repeats requests awaiting their reply, once they complete and with their outcome. A request that is only partly
+ * redundant is sent as it is.</p>
+ *
+ * <p>The shadow learns from the replies to update and create requests, and follows the update and delete events the
+ * service sends for resources it already holds. A request that fails, or whose reply is not awaited, leaves its
+ * resources unknown until they are updated again. Deleting a scene or group forgets the groups or participants that
+ * may have been reassigned. Closing the connection, or missing packets from the service, forgets everything, as the
+ * shadowed state may no longer be the state the service holds. Changes the service does not notify this client of are
+ * not seen, so the shadow is off by default.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         com.mixer.interactive.GameClient#getUpdateShadow()
+ *
+ * @since       3.3.0
+ */
+public class UpdateShadow {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Parameter keys of the resources in requests and events
+     */
+    private static final String PARAM_KEY_CONTROLS = "controls";
+    private static final String PARAM_KEY_GROUPS = "groups";
+    private static final String PARAM_KEY_PARTICIPANTS = "participants";
+    private static final String PARAM_KEY_CONTROL_ID = "controlID";
+    private static final String PARAM_KEY_CONTROL_IDS = "controlIDs";
+    private static final String PARAM_KEY_GROUP_ID = "groupID";
+    private static final String PARAM_KEY_SCENE_ID = "sceneID";
+    private static final String PARAM_KEY_SESSION_ID = "sessionID";
+    private static final String PARAM_KEY_ETAG = "etag";
+
+    /**
+     * Prefixes of the keys of each kind of resource
+     */
+    private static final String CONTROL_KEY_PREFIX = "control:";
+    private static final String GROUP_KEY_PREFIX = "group:";
+    private static final String PARTICIPANT_KEY_PREFIX = "participant:";
+
+    /**
+     * <code>GameClient</code> whose updates are shadowed
+     */
+    private final GameClient gameClient;
+
+    /**
+     * Last acknowledged state of each resource, guarded by this map
+     */
+    private final Map<String, JsonObject> shadows = new HashMap<>();
+
+    /**
+     * Requests awaiting their reply for each resource, guarded by the map of shadows
+     */
+    private final Map<String, PendingUpdates> pending = new HashMap<>();
+
+    /**
+     * Number of resources whose updates were completed without being sent
+     */
+    private final AtomicLong suppressedCount = new AtomicLong();
+
+    /**
+     * Whether updates are shadowed
+     */
+    private volatile boolean enabled;
+
+    /**
+     * Number of times the shadow has been cleared, so that replies to requests sent before then are not learned from.
+     * Guarded by the lock of the map of shadows.
+     */
+    private long generation;
+
+    /**
+     * Initializes a new <code>UpdateShadow</code>.
+     *
+     * @param   gameClient
+     *          <code>GameClient</code> whose updates are shadowed
+     *
+     * @since   3.3.0
+     */
+    public UpdateShadow(GameClient gameClient) {
+        if (gameClient == null) {
+            LOG.fatal("GameClient cannot be null");
+            throw new IllegalArgumentException("GameClient cannot be null");
+        }
+        this.gameClient = gameClient;
+    }
+
+    /**
+     * Returns whether updates are shadowed, and redundant ones completed without being sent.
+     *
+     * @return  <code>true</code> if updates are shadowed, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether updates are shadowed, and redundant ones completed without being sent. Disabling the shadow forgets
+     * everything it holds.
+     *
+     * @param   enabled
+     *          Whether updates are shadowed
+     *
+     * @since   3.3.0
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Returns the number of resources whose updates were completed without being sent.
+     *
+     * @return  The number of resources whose updates were not sent
+     *
+     * @since   3.3.0
+     */
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    /**
+     * Returns the number of resources shadowed.
+     *
+     * @return  The number of resources shadowed
+     *
+     * @since   3.3.0
+     */
+    public int size() {
+        synchronized (shadows) {
+            return shadows.size();
+        }
+    }
+
+    /**
+     * Forgets every shadowed resource.
+     *
+     * @since   3.3.0
+     */
+    public void clear() {
+        synchronized (shadows) {
+            shadows.clear();
+            pending.values().forEach(updates -> updates.expected = null);
+            generation++;
+        }
+    }
+
+    /**
+     * Checks a request about to be sent against the shadow. If it is a redundant update, the shadow completes it and it
+     * should not be sent. Otherwise the resources the request changes are tracked until it completes. Called by the
+     * <code>RemoteProcedureCallServiceProvider</code> before the request is written.
+     *
+     * @param   requestPacket
+     *          The request
+     * @param   replyPromise
+     *          Promise for the reply to the request
+     *
+     * @return  <code>true</code> if the request is redundant and is completed by the shadow, <code>false</code> if it
+     *          is to be sent
+     *
+     * @since   3.3.0
+     */
+    public boolean track(MethodPacket requestPacket, CompletableFuture<ReplyPacket> replyPromise) {
+        InteractiveMethod method = requestPacket.getMethod();
+        String payloadName = getPayloadName(method);
+        if (!enabled || method == null || (payloadName == null && !isDelete(method))) {
+            return false;
+        }
+        JsonObject params = getParams(requestPacket);
+        if (params == null) {
+            return false;
+        }
+
+        if (payloadName == null) {
+            synchronized (shadows) {
+                forgetDeleted(method, params);
+            }
+            return false;
+        }
+        if (!params.has(payloadName) || !params.get(payloadName).isJsonArray()) {
+            return false;
+        }
+
+        String sceneID = getString(params, PARAM_KEY_SCENE_ID);
+        JsonArray resources = params.getAsJsonArray(payloadName);
+        List<String> keys = new ArrayList<>(resources.size());
+        for (JsonElement resource : resources) {
+            keys.add(getKey(method, sceneID, resource));
+        }
+
+        List<CompletableFuture<ReplyPacket>> dependencies = new ArrayList<>();
+        JsonArray expected;
+        long sentGeneration;
+        synchronized (shadows) {
+            sentGeneration = generation;
+            expected = isUpdate(method) ? getExpected(keys, resources, dependencies) : null;
+            if (expected == null) {
+                for (int i = 0; i < keys.size(); i++) {
+                    String key = keys.get(i);
+                    if (key == null) {
+                        continue;
+                    }
+                    if (requestPacket.getDiscard()) {
+                        // No reply will confirm the request, so the resource can no longer be vouched for
+                        forget(key);
+                        continue;
+                    }
+                    PendingUpdates updates = pending.computeIfAbsent(key, k -> new PendingUpdates(shadows.get(k)));
+                    updates.count++;
+                    updates.latest = replyPromise;
+                    if (updates.expected != null || !isUpdate(method)) {
+                        updates.expected = merged(updates.expected, resources.get(i));
+                    }
+                }
+            }
+        }
+
+        if (expected != null) {
+            suppressedCount.addAndGet(expected.size());
+            gameClient.getMetricsRegistry().updatesSuppressed(method, expected.size());
+            JsonObject result = new JsonObject();
+            result.add(payloadName, expected);
+            completeRedundant(requestPacket, replyPromise, result, dependencies);
+            return true;
+        }
+        if (!requestPacket.getDiscard()) {
+            replyPromise.whenComplete((replyPacket, throwable) -> learn(method, sceneID, payloadName, keys, resources, sentGeneration, replyPacket, throwable));
+        }
+        return false;
+    }
+
+    /**
+     * Completes a redundant request, once the requests it repeats complete if there are any.
+     *
+     * @param   requestPacket
+     *          The redundant request
+     * @param   replyPromise
+     *          Promise for the reply to the redundant request
+     * @param   result
+     *          Result of the redundant request if the requests it repeats succeed
+     * @param   dependencies
+     *          Promises for the replies to the requests it repeats
+     *
+     * @since   3.3.0
+     */
+    private static void completeRedundant(MethodPacket requestPacket, CompletableFuture<ReplyPacket> replyPromise, JsonObject result, List<CompletableFuture<ReplyPacket>> dependencies) {
+        if (dependencies.isEmpty()) {
+            replyPromise.complete(new ReplyPacket(requestPacket.getPacketID(), result, null));
+            return;
+        }
+        CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[dependencies.size()])).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                replyPromise.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                return;
+            }
+            for (CompletableFuture<ReplyPacket> dependency : dependencies) {
+                ReplyPacket replyPacket = dependency.join();
+                if (replyPacket != null && replyPacket.hasError()) {
+                    replyPromise.complete(new ReplyPacket(requestPacket.getPacketID(), null, replyPacket.getError()));
+                    return;
+                }
+            }
+            replyPromise.complete(new ReplyPacket(requestPacket.getPacketID(), result, null));
+        });
+    }
+
+    /**
+     * Learns from the outcome of a request that was sent. A reply to a request sent before the shadow was last cleared
+     * is not learned from, as it may predate the changes the shadow was cleared for.
+     *
+     * @param   method
+     *          Method of the request
+     * @param   sceneID
+     *          Identifier of the scene of the controls, if the resources are controls
+     * @param   payloadName
+     *          Name of the parameter holding the resources
+     * @param   keys
+     *          Keys of the resources in the request
+     * @param   resources
+     *          The resources in the request
+     * @param   sentGeneration
+     *          Number of times the shadow had been cleared when the request was sent
+     * @param   replyPacket
+     *          The reply, if one was received
+     * @param   throwable
+     *          Why the request failed, if it did
+     *
+     * @since   3.3.0
+     */
+    private void learn(InteractiveMethod method, String sceneID, String payloadName, List<String> keys, JsonArray resources, long sentGeneration, ReplyPacket replyPacket, Throwable throwable) {
+        boolean succeeded = throwable == null && replyPacket != null && !replyPacket.hasError();
+        synchronized (shadows) {
+            boolean current = sentGeneration == generation;
+            for (int i = 0; i < keys.size(); i++) {
+                String key = keys.get(i);
+                if (key == null) {
+                    continue;
+                }
+                if (succeeded) {
+                    if (current) {
+                        merge(key, resources.get(i), true);
+                    }
+                }
+                else {
+                    // The service may or may not have applied the request, so the resource can no longer be vouched for
+                    forget(key);
+                }
+                PendingUpdates updates = pending.get(key);
+                if (updates != null && --updates.count == 0) {
+                    pending.remove(key);
+                }
+            }
+            JsonElement result = succeeded && current ? replyPacket.getResult() : null;
+            if (result != null && result.isJsonObject() && result.getAsJsonObject().has(payloadName) && result.getAsJsonObject().get(payloadName).isJsonArray()) {
+                for (JsonElement resource : result.getAsJsonObject().getAsJsonArray(payloadName)) {
+                    merge(getKey(method, sceneID, resource), resource, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Follows an event sent by the Interactive service, updating or forgetting the resources it concerns. Only
+     * resources already shadowed are updated, so that the shadow holds no more than the resources this client updates.
+     * Called on the websocket read thread before the event is dispatched.
+     *
+     * @param   method
+     *          Method of the event
+     * @param   params
+     *          Parameters of the event
+     *
+     * @since   3.3.0
+     */
+    public void onEvent(InteractiveMethod method, JsonElement params) {
+        if (!enabled || method == null || params == null || !params.isJsonObject()) {
+            return;
+        }
+        JsonObject paramsObject = params.getAsJsonObject();
+        String payloadName;
+        switch (method) {
+            case ON_CONTROL_UPDATE:
+                payloadName = PARAM_KEY_CONTROLS;
+                break;
+            case ON_GROUP_UPDATE:
+                payloadName = PARAM_KEY_GROUPS;
+                break;
+            case ON_PARTICIPANT_UPDATE:
+                payloadName = PARAM_KEY_PARTICIPANTS;
+                break;
+            case ON_CONTROL_DELETE:
+            case ON_GROUP_DELETE:
+            case ON_SCENE_DELETE:
+            case ON_PARTICIPANT_LEAVE:
+                synchronized (shadows) {
+                    forgetDeleted(method, paramsObject);
+                }
+                return;
+            default:
+                return;
+        }
+        if (!paramsObject.has(payloadName) || !paramsObject.get(payloadName).isJsonArray()) {
+            return;
+        }
+
+        String sceneID = getString(paramsObject, PARAM_KEY_SCENE_ID);
+        synchronized (shadows) {
+            for (JsonElement resource : paramsObject.getAsJsonArray(payloadName)) {
+                merge(getKey(method, sceneID, resource), resource, false);
+            }
+        }
+    }
+
+    /**
+     * Forgets everything when the connection closes, as the next connection may be to another session.
+     *
+     * @param   event
+     *          The posted event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onConnectionClosed(ConnectionClosedEvent event) {
+        clear();
+    }
+
+    /**
+     * Forgets everything when packets from the Interactive service were never received, as the update events they
+     * carried may have changed the state of shadowed resources.
+     *
+     * @param   event
+     *          The <code>SequenceGapEvent</code> reporting the missing packets
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onSequenceGap(SequenceGapEvent event) {
+        clear();
+    }
+
+    /**
+     * Returns the state the resources of an update are expected to have, if the update is redundant. Called while
+     * holding the lock of the map of shadows.
+     *
+     * @param   keys
+     *          Keys of the resources
+     * @param   resources
+     *          The resources as they would be sent
+     * @param   dependencies
+     *          Filled with the promises for the replies to the requests awaiting their reply that the expected state
+     *          relies on
+     *
+     * @return  The expected state of the resources, or <code>null</code> if any resource would be changed by the update
+     *
+     * @since   3.3.0
+     */
+    private JsonArray getExpected(List<String> keys, JsonArray resources, List<CompletableFuture<ReplyPacket>> dependencies) {
+        if (keys.isEmpty()) {
+            return null;
+        }
+        JsonArray expected = new JsonArray();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (key == null) {
+                return null;
+            }
+            PendingUpdates updates = pending.get(key);
+            JsonObject state = updates != null ? updates.expected : shadows.get(key);
+            if (state == null) {
+                return null;
+            }
+            if (updates != null) {
+                // A request that already failed leaves the resource unknown, even if it has not been learned from yet
+                CompletableFuture<ReplyPacket> latest = updates.latest;
+                if (latest.isDone() && (latest.isCompletedExceptionally() || latest.join() == null || latest.join().hasError())) {
+                    return null;
+                }
+                if (!dependencies.contains(latest)) {
+                    dependencies.add(latest);
+                }
+            }
+            for (Map.Entry<String, JsonElement> property : resources.get(i).getAsJsonObject().entrySet()) {
+                if (!PARAM_KEY_ETAG.equals(property.getKey()) && !isSameValue(property.getValue(), state.get(property.getKey()))) {
+                    return null;
+                }
+            }
+            expected.add(state);
+        }
+        return expected;
+    }
+
+    /**
+     * Merges the properties of a resource into its shadow. Called while holding the lock of the map of shadows.
+     *
+     * @param   key
+     *          Key of the resource
+     * @param   resource
+     *          The resource
+     * @param   create
+     *          Whether to shadow the resource if it is not shadowed yet
+     *
+     * @since   3.3.0
+     */
+    private void merge(String key, JsonElement resource, boolean create) {
+        if (key == null) {
+            return;
+        }
+        JsonObject shadow = shadows.get(key);
+        if (shadow != null || create) {
+            shadows.put(key, merged(shadow, resource));
+        }
+    }
+
+    /**
+     * Forgets the state of a resource, including the state expected once the requests for it awaiting their reply are
+     * applied. Called while holding the lock of the map of shadows.
+     *
+     * @param   key
+     *          Key of the resource
+     *
+     * @since   3.3.0
+     */
+    private void forget(String key) {
+        shadows.remove(key);
+        PendingUpdates updates = pending.get(key);
+        if (updates != null) {
+            updates.expected = null;
+        }
+    }
+
+    /**
+     * Returns whether two property values are the same once sent. Values sent from the serialized form of a resource
+     * hold numbers as they were set, while values learned from the service hold them as they were parsed, so numbers
+     * are compared by the text Gson writes for them rather than by their value.
+     *
+     * @param   value
+     *          A property value
+     * @param   other
+     *          Another property value, or <code>null</code> if there is none
+     *
+     * @return  <code>true</code> if both values are written the same way, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private static boolean isSameValue(JsonElement value, JsonElement other) {
+        if (other == null) {
+            return false;
+        }
+        if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber()) {
+            return other.isJsonPrimitive() && other.getAsJsonPrimitive().isNumber()
+                    && value.getAsNumber().toString().equals(other.getAsNumber().toString());
+        }
+        if (value.isJsonArray()) {
+            if (!other.isJsonArray() || value.getAsJsonArray().size() != other.getAsJsonArray().size()) {
+                return false;
+            }
+            for (int i = 0; i < value.getAsJsonArray().size(); i++) {
+                if (!isSameValue(value.getAsJsonArray().get(i), other.getAsJsonArray().get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value.isJsonObject()) {
+            if (!other.isJsonObject() || value.getAsJsonObject().entrySet().size() != other.getAsJsonObject().entrySet().size()) {
+                return false;
+            }
+            for (Map.Entry<String, JsonElement> property : value.getAsJsonObject().entrySet()) {
+                if (!isSameValue(property.getValue(), other.getAsJsonObject().get(property.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value.equals(other);
+    }
+
+    /**
+     * Returns the properties of a resource merged into a state. States are replaced rather than changed, as redundant
+     * requests hand them out as their result.
+     *
+     * @param   state
+     *          The state, or <code>null</code> if there is none
+     * @param   resource
+     *          The resource
+     *
+     * @return  A new state with the properties of the resource
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject merged(JsonObject state, JsonElement resource) {
+        JsonObject merged = new JsonObject();
+        if (state != null) {
+            for (Map.Entry<String, JsonElement> property : state.entrySet()) {
+                merged.add(property.getKey(), property.getValue());
+            }
+        }
+        for (Map.Entry<String, JsonElement> property : resource.getAsJsonObject().entrySet()) {
+            merged.add(property.getKey(), property.getValue());
+        }
+        return merged;
+    }
+
+    /**
+     * Forgets the resources a delete request or event removes, or may change. Called while holding the lock of the map
+     * of shadows.
+     *
+     * @param   method
+     *          Method of the request or event
+     * @param   params
+     *          Parameters of the request or event
+     *
+     * @since   3.3.0
+     */
+    private void forgetDeleted(InteractiveMethod method, JsonObject params) {
+        switch (method) {
+            case DELETE_CONTROLS:
+            case ON_CONTROL_DELETE: {
+                String sceneID = getString(params, PARAM_KEY_SCENE_ID);
+                JsonElement controlIDs = params.get(PARAM_KEY_CONTROL_IDS);
+                if (controlIDs != null && controlIDs.isJsonArray()) {
+                    for (JsonElement controlID : controlIDs.getAsJsonArray()) {
+                        forget(CONTROL_KEY_PREFIX + sceneID + ":" + controlID.getAsString());
+                    }
+                }
+                break;
+            }
+            case DELETE_SCENE:
+            case ON_SCENE_DELETE: {
+                // Groups on the scene are moved to another one
+                String controlPrefix = CONTROL_KEY_PREFIX + getString(params, PARAM_KEY_SCENE_ID) + ":";
+                forgetIf(key -> key.startsWith(controlPrefix) || key.startsWith(GROUP_KEY_PREFIX));
+                break;
+            }
+            case DELETE_GROUP:
+            case ON_GROUP_DELETE: {
+                // Participants in the group are moved to another one
+                String groupKey = GROUP_KEY_PREFIX + getString(params, PARAM_KEY_GROUP_ID);
+                forgetIf(key -> key.startsWith(PARTICIPANT_KEY_PREFIX) || key.equals(groupKey));
+                break;
+            }
+            case ON_PARTICIPANT_LEAVE: {
+                JsonElement participants = params.get(PARAM_KEY_PARTICIPANTS);
+                if (participants != null && participants.isJsonArray()) {
+                    for (JsonElement participant : participants.getAsJsonArray()) {
+                        forget(getKey(method, null, participant));
+                    }
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Forgets the state of the resources whose keys match a predicate. Called while holding the lock of the map of
+     * shadows.
+     *
+     * @param   predicate
+     *          Matches the keys of the resources to forget
+     *
+     * @since   3.3.0
+     */
+    private void forgetIf(Predicate<String> predicate) {
+        shadows.keySet().removeIf(predicate);
+        pending.forEach((key, updates) -> {
+            if (predicate.test(key)) {
+                updates.expected = null;
+            }
+        });
+    }
+
+    /**
+     * Returns whether a method is an update request.
+     *
+     * @param   method
+     *          The method
+     *
+     * @return  <code>true</code> if the method is an update request, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private static boolean isUpdate(InteractiveMethod method) {
+        return method == InteractiveMethod.UPDATE_CONTROLS || method == InteractiveMethod.UPDATE_GROUPS || method == InteractiveMethod.UPDATE_PARTICIPANTS;
+    }
+
+    /**
+     * Returns whether a method is a delete request.
+     *
+     * @param   method
+     *          The method
+     *
+     * @return  <code>true</code> if the method is a delete request, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private static boolean isDelete(InteractiveMethod method) {
+        return method == InteractiveMethod.DELETE_CONTROLS || method == InteractiveMethod.DELETE_SCENE || method == InteractiveMethod.DELETE_GROUP;
+    }
+
+    /**
+     * Returns the name of the parameter holding the resources of an update or create request.
+     *
+     * @param   method
+     *          Method of the request
+     *
+     * @return  The name of the parameter, or <code>null</code> if the method does not update or create resources
+     *
+     * @since   3.3.0
+     */
+    private static String getPayloadName(InteractiveMethod method) {
+        if (method == null) {
+            return null;
+        }
+        switch (method) {
+            case CREATE_CONTROLS:
+            case UPDATE_CONTROLS:
+                return PARAM_KEY_CONTROLS;
+            case CREATE_GROUPS:
+            case UPDATE_GROUPS:
+                return PARAM_KEY_GROUPS;
+            case UPDATE_PARTICIPANTS:
+                return PARAM_KEY_PARTICIPANTS;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the key a resource is shadowed by.
+     *
+     * @param   method
+     *          Method of the request or event the resource is in
+     * @param   sceneID
+     *          Identifier of the scene of the controls, if the resources are controls
+     * @param   resource
+     *          The resource
+     *
+     * @return  The key of the resource, or <code>null</code> if it has no identifier
+     *
+     * @since   3.3.0
+     */
+    private static String getKey(InteractiveMethod method, String sceneID, JsonElement resource) {
+        if (resource == null || !resource.isJsonObject()) {
+            return null;
+        }
+        JsonObject object = resource.getAsJsonObject();
+        switch (method) {
+            case CREATE_CONTROLS:
+            case UPDATE_CONTROLS:
+            case ON_CONTROL_UPDATE: {
+                String controlID = getString(object, PARAM_KEY_CONTROL_ID);
+                return sceneID != null && controlID != null ? CONTROL_KEY_PREFIX + sceneID + ":" + controlID : null;
+            }
+            case CREATE_GROUPS:
+            case UPDATE_GROUPS:
+            case ON_GROUP_UPDATE: {
+                String groupID = getString(object, PARAM_KEY_GROUP_ID);
+                return groupID != null ? GROUP_KEY_PREFIX + groupID : null;
+            }
+            default: {
+                String sessionID = getString(object, PARAM_KEY_SESSION_ID);
+                return sessionID != null ? PARTICIPANT_KEY_PREFIX + sessionID : null;
+            }
+        }
+    }
+
+    /**
+     * Returns the parameters of a request, including an encoded parameter if it has one.
+     *
+     * @param   requestPacket
+     *          The request
+     *
+     * @return  The parameters of the request, or <code>null</code> if it has none
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject getParams(MethodPacket requestPacket) {
+        if (requestPacket instanceof EncodedMethodPacket) {
+            return ((EncodedMethodPacket) requestPacket).getDecodedParameters();
+        }
+        JsonElement params = requestPacket.getRequestParameters();
+        return params != null && params.isJsonObject() ? params.getAsJsonObject() : null;
+    }
+
+    /**
+     * Returns a string property of an object.
+     *
+     * @param   object
+     *          The object
+     * @param   name
+     *          Name of the property
+     *
+     * @return  The value of the property, or <code>null</code> if it is absent or not a string
+     *
+     * @since   3.3.0
+     */
+    private static String getString(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    /**
+     * The requests for a resource awaiting their reply, guarded by the lock of the map of shadows.
+     *
+     * @since   3.3.0
+     */
+    private static final class PendingUpdates {
+
+        /**
+         * State the resource is expected to have once the requests are applied, or <code>null</code> if it is unknown
+         */
+        private JsonObject expected;
+
+        /**
+         * Promise for the reply to the latest request
+         */
+        private CompletableFuture<ReplyPacket> latest;
+
+        /**
+         * Number of requests awaiting their reply
+         */
+        private int count;
+
+        /**
+         * Initializes a new <code>PendingUpdates</code>.
+         *
+         * @param   expected
+         *          State the resource has before the requests are applied, or <code>null</code> if it is unknown
+         *
+         * @since   3.3.0
+         */
+        private PendingUpdates(JsonObject expected) {
+            this.expected = expected;
+        }
+    }
+}
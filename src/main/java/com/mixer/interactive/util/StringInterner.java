@@ -0,0 +1,171 @@
+package com.mixer.interactive.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A bounded, thread-safe pool of canonical <code>String</code> instances. Decoders pass identifiers they read
+ * through {@link #intern(String)} so that the many events naming the same control, scene, group or participant share a
+ * single instance of the identifier, rather than each retaining a copy of it. Because equal identifiers are then
+ * usually the same instance, comparisons and hash lookups on them succeed on the identity check.</p>
+ *
+ * <p>The pool is a direct-mapped table: each <code>String</code> has exactly one slot, chosen by its hash code. A
+ * <code>String</code> hashing to an occupied slot replaces the one held there, so the pool never holds more than its
+ * capacity and identifiers that are no longer seen are eventually displaced by those that are. Identifiers known to
+ * be no longer in use, such as the session identifiers of participants that have left, can be evicted straight away
+ * through {@link #release(String)}. Interning never blocks, and a <code>String</code> that is not returned from the
+ * pool is always equal to the canonical instance it would have been, so the pool affects only identity, never
+ * equality.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public final class StringInterner {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Pool for the identifiers of controls, scenes and groups, and for the names of control input events
+     */
+    public static final StringInterner IDENTIFIERS = new StringInterner(4096);
+
+    /**
+     * Pool for the session identifiers of participants
+     */
+    public static final StringInterner SESSION_IDS = new StringInterner(65536);
+
+    /**
+     * Slots of the pool, each holding the canonical instance of a <code>String</code> hashing to it, or
+     * <code>null</code>
+     */
+    private final AtomicReferenceArray<String> slots;
+
+    /**
+     * Mask selecting a slot from a hash code
+     */
+    private final int mask;
+
+    /**
+     * Initializes a new <code>StringInterner</code>.
+     *
+     * @param   capacity
+     *          Maximum number of <code>Strings</code> held, rounded up to a power of two
+     *
+     * @since   3.3.0
+     */
+    public StringInterner(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            LOG.fatal("Capacity must be between 1 and 2^30");
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the canonical instance of a <code>String</code>, adding the <code>String</code> to the pool if no
+     * equal <code>String</code> is held.
+     *
+     * @param   value
+     *          <code>String</code> to intern
+     *
+     * @return  The canonical instance equal to <code>value</code>, or <code>null</code> if <code>value</code> is
+     *          <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int slot = slotOf(value);
+        String held = slots.get(slot);
+        if (held != null && (held == value || held.equals(value))) {
+            return held;
+        }
+        slots.lazySet(slot, value);
+        return value;
+    }
+
+    /**
+     * Evicts a <code>String</code> from the pool, for example once the participant a session identifier belongs to
+     * has left.
+     *
+     * @param   value
+     *          <code>String</code> to evict
+     *
+     * @return  <code>true</code> if an equal <code>String</code> was held, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean release(String value) {
+        if (value == null) {
+            return false;
+        }
+        int slot = slotOf(value);
+        String held = slots.get(slot);
+        return held != null && held.equals(value) && slots.compareAndSet(slot, held, null);
+    }
+
+    /**
+     * Returns whether or not an equal <code>String</code> is held by the pool.
+     *
+     * @param   value
+     *          <code>String</code> to look for
+     *
+     * @return  <code>true</code> if an equal <code>String</code> is held, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean contains(String value) {
+        return value != null && value.equals(slots.get(slotOf(value)));
+    }
+
+    /**
+     * Evicts every <code>String</code> from the pool.
+     *
+     * @since   3.3.0
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    /**
+     * Returns the maximum number of <code>Strings</code> held by the pool.
+     *
+     * @return  The maximum number of <code>Strings</code> held by the pool
+     *
+     * @since   3.3.0
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Returns the slot of a <code>String</code>, spreading the high bits of its hash code into the low bits so that
+     * identifiers differing only in their last characters do not all share a slot.
+     *
+     * @param   value
+     *          The <code>String</code>
+     *
+     * @return  Index of the slot of the <code>String</code>
+     *
+     * @since   3.3.0
+     */
+    private int slotOf(String value) {
+        int hash = value.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -1,15 +1,23 @@
 package com.mixer.interactive.ws;
 
+import com.google.common.base.Utf8;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.EchoPolicy;
+import com.mixer.interactive.event.EchoSuppressor;
 import com.mixer.interactive.event.InteractiveEvent;
+import com.mixer.interactive.event.InteractiveEventBus;
 import com.mixer.interactive.event.UndefinedInteractiveEvent;
 import com.mixer.interactive.event.connection.ConnectionClosedEvent;
 import com.mixer.interactive.event.connection.ConnectionErrorEvent;
 import com.mixer.interactive.event.connection.ConnectionOpenEvent;
+import com.mixer.interactive.event.connection.OutboundWritabilityEvent;
+import com.mixer.interactive.event.connection.SequenceGapEvent;
 import com.mixer.interactive.event.control.ControlCreateEvent;
 import com.mixer.interactive.event.control.ControlDeleteEvent;
 import com.mixer.interactive.event.control.ControlUpdateEvent;
@@ -28,27 +36,43 @@ import com.mixer.interactive.event.scene.SceneCreateEvent;
 import com.mixer.interactive.event.scene.SceneDeleteEvent;
 import com.mixer.interactive.event.scene.SceneUpdateEvent;
 import com.mixer.interactive.exception.InteractiveConnectionException;
+import com.mixer.interactive.metrics.IMetricsRegistry;
 import com.mixer.interactive.protocol.InteractiveMethod;
 import com.mixer.interactive.protocol.InteractivePacket;
 import com.mixer.interactive.protocol.MethodPacket;
 import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.protocol.ReplyPromise;
+import com.mixer.interactive.recording.FrameDirection;
+import com.mixer.interactive.recording.IWireRecorder;
 import com.mixer.interactive.resources.core.CompressionScheme;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.services.UpdateShadow;
+import com.mixer.interactive.util.StringInterner;
 import com.mixer.interactive.util.compression.CompressionUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.java_websocket.WebSocketImpl;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.TextFrame;
 import org.java_websocket.handshake.ServerHandshake;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.net.Socket;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -77,6 +101,16 @@ public class InteractiveWebSocketClient extends WebSocketClient {
      */
     private static final JsonParser JSON_PARSER = new JsonParser();
 
+    /**
+     * Time, in milliseconds, packets are held waiting for the packets ahead of them before those are declared missing
+     */
+    private static final long REORDER_TIMEOUT_MILLIS = 250;
+
+    /**
+     * Time, in milliseconds, between checks of which frames handed to the socket it has written
+     */
+    private static final long OUTBOUND_DRAIN_MILLIS = 10;
+
     /**
      * <code>ConcurrentMap</code> of waiting <code>CompletableFuture</code> promises and the IDs for the packets that
      * made the request
@@ -99,10 +133,35 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     private AtomicInteger nextPacketId = new AtomicInteger(0);
 
     /**
-     * The last packet sequence number seen from the Interactive service. Read and updated internally as packets are
-     * sent and retrieved.
+     * Orders the packets received from the Interactive service and tracks the last sequence number seen
+     */
+    private final PacketSequencer sequencer = new PacketSequencer(PacketSequencer.DEFAULT_WINDOW, this::onSequenceGap);
+
+    /**
+     * Whether a task releasing the packets held by the sequencer has been scheduled
+     */
+    private final AtomicBoolean heldPacketsFlushScheduled = new AtomicBoolean();
+
+    /**
+     * Packets released by the sequencer, and the <code>SequenceGapEvents</code> for the sequence numbers it gave up
+     * on, in the order they are to be processed
      */
-    private AtomicInteger lastSequenceNumber = new AtomicInteger();
+    private final Queue<Object> readyQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether a thread is processing the ready packets
+     */
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    /**
+     * Bounds the frames waiting to be written to the Interactive service
+     */
+    private final OutboundBuffer outboundBuffer;
+
+    /**
+     * Task checking which frames handed to the socket it has written, while the connection is open
+     */
+    private volatile ScheduledFuture<?> outboundDrain;
 
     /**
      * A <code>CompletableFuture</code> promise holding the result of a connection attempt using this websocket client
@@ -171,6 +230,8 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     private InteractiveWebSocketClient(GameClient gameClient, URI uri, Map<String, String> httpHeaders) {
         super(uri, new Draft_6455(), httpHeaders, (int) TimeUnit.SECONDS.toMillis(15));
         this.gameClient = gameClient;
+        this.outboundBuffer = new OutboundBuffer(gameClient::getOutboundBufferLimits, this::getUnwrittenFrames, this::onWritabilityChanged);
+        setSocket(new Socket());
     }
 
     /**
@@ -236,7 +297,30 @@ public class InteractiveWebSocketClient extends WebSocketClient {
      *
      * @since   1.0.0
      */
-    public int getLastSequenceNumber() { return this.lastSequenceNumber.get(); }
+    public int getLastSequenceNumber() { return sequencer.getLastSequenceNumber(); }
+
+    /**
+     * Returns the <code>PacketSequencer</code> ordering the packets received from the Interactive service, which
+     * counts the packets received out of order and the sequence numbers that were never received.
+     *
+     * @return  The <code>PacketSequencer</code> for this websocket client
+     *
+     * @since   3.3.0
+     */
+    public PacketSequencer getPacketSequencer() {
+        return sequencer;
+    }
+
+    /**
+     * Returns the <code>OutboundBuffer</code> bounding the frames waiting to be written to the Interactive service.
+     *
+     * @return  The <code>OutboundBuffer</code> for this client
+     *
+     * @since   3.3.0
+     */
+    public OutboundBuffer getOutboundBuffer() {
+        return outboundBuffer;
+    }
 
     /**
      * Retrieves the <code>CompressionScheme</code> this <code>InteractiveWebSocketClient</code> is using.
@@ -286,6 +370,7 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     @Override
     public void onOpen(ServerHandshake serverHandshake) {
         LOG.info(String.format("Connected to Interactive integration (project version '%s') on host '%s'", gameClient.getProjectVersionId(), getURI()));
+        outboundDrain = gameClient.getExecutorService().scheduleWithFixedDelay(outboundBuffer::drain, OUTBOUND_DRAIN_MILLIS, OUTBOUND_DRAIN_MILLIS, TimeUnit.MILLISECONDS);
         gameClient.getEventBus().post(new ConnectionOpenEvent(gameClient.getProjectVersionId(), getURI(), serverHandshake.getHttpStatus(), serverHandshake.getHttpStatusMessage()));
     }
 
@@ -302,9 +387,75 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     @Override
     public void send(String message) {
         LOG.debug(String.format("PROJECT_ID[%s] - SEND[RAW]: %s", gameClient.getProjectVersionId(), message));
+        IWireRecorder wireRecorder = gameClient.getWireRecorder();
+        if (wireRecorder != null) {
+            wireRecorder.record(FrameDirection.OUTBOUND, CompressionScheme.NONE, false, message.getBytes(StandardCharsets.UTF_8));
+        }
         super.send(message);
     }
 
+    /**
+     * Queues a text frame to be written to the Interactive service.
+     *
+     * @param   message
+     *          The message to send to the Interactive service
+     *
+     * @return  The <code>ByteBuffer</code> holding the frame in the socket's queue until it is written
+     *
+     * @see     #sendText(byte[])
+     *
+     * @since   3.3.0
+     */
+    public ByteBuffer sendText(String message) {
+        return sendText(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queues a text frame whose payload has already been encoded as UTF-8 to be written to the Interactive service,
+     * without decoding it into a <code>String</code> first. The frame is queued on the socket directly, rather than
+     * through {@link #send(String)}, so that the <code>OutboundBuffer</code> can tell when it has been written.
+     *
+     * @param   utf8Message
+     *          The UTF-8 encoded message to send to the Interactive service
+     *
+     * @return  The <code>ByteBuffer</code> holding the frame in the socket's queue until it is written
+     *
+     * @throws  WebsocketNotConnectedException
+     *          If the connection is not open
+     *
+     * @since   3.3.0
+     */
+    public ByteBuffer sendText(byte[] utf8Message) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("PROJECT_ID[%s] - SEND[RAW]: %s", gameClient.getProjectVersionId(), new String(utf8Message, StandardCharsets.UTF_8)));
+        }
+        WebSocketImpl connection = (WebSocketImpl) getConnection();
+        if (!connection.isOpen()) {
+            throw new WebsocketNotConnectedException();
+        }
+        IWireRecorder wireRecorder = gameClient.getWireRecorder();
+        if (wireRecorder != null) {
+            wireRecorder.record(FrameDirection.OUTBOUND, CompressionScheme.NONE, false, utf8Message);
+        }
+        TextFrame frame = new TextFrame();
+        frame.setPayload(ByteBuffer.wrap(utf8Message));
+        frame.setTransferemasked(true);
+        ByteBuffer frameBuffer = connection.getDraft().createBinaryFrame(frame);
+        connection.outQueue.add(frameBuffer);
+        return frameBuffer;
+    }
+
+    /**
+     * Returns the frames the socket holds but has not yet written, in the order it writes them.
+     *
+     * @return  The frames the socket has not yet written
+     *
+     * @since   3.3.0
+     */
+    private Iterable<ByteBuffer> getUnwrittenFrames() {
+        return ((WebSocketImpl) getConnection()).outQueue;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -318,10 +469,14 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     @Override
     public void onMessage(ByteBuffer bytes) {
         LOG.debug(String.format("PROJECT_ID[%s] - RCVD[bytes]: '%s'", gameClient.getProjectVersionId(), Arrays.toString(bytes.array())));
+        IWireRecorder wireRecorder = gameClient.getWireRecorder();
+        if (wireRecorder != null) {
+            wireRecorder.record(FrameDirection.INBOUND, compressionScheme, true, bytes.array());
+        }
         try {
             String message = CompressionUtil.decode(compressionScheme, bytes.array());
             LOG.debug(String.format("PROJECT_ID[%s] - RCVD[%s]: %s", gameClient.getProjectVersionId(), compressionScheme, message));
-            onMessage(message);
+            processMessage(message, bytes.array().length);
         }
         catch (IOException e) {
             LOG.error(String.format("PROJECT_ID[%s] - RCVD[exception]: %s", gameClient.getProjectVersionId(), e.getMessage()), e);
@@ -341,19 +496,38 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     @Override
     public void onMessage(String message) {
         LOG.debug(String.format("PROJECT_ID[%s] - RCVD[TEXT]: %s", gameClient.getProjectVersionId(), message));
+        IWireRecorder wireRecorder = gameClient.getWireRecorder();
+        if (wireRecorder != null) {
+            wireRecorder.record(FrameDirection.INBOUND, CompressionScheme.NONE, false, message.getBytes(StandardCharsets.UTF_8));
+        }
+        processMessage(message, gameClient.getMetricsRegistry().isEnabled() ? Utf8.encodedLength(message) : 0);
+    }
+
+    /**
+     * Parses and processes all packets contained in a message received from the Interactive service.
+     *
+     * @param   message
+     *          The (decoded) message received from the Interactive service
+     * @param   frameBytes
+     *          The number of bytes the message took up on the wire
+     *
+     * @since   3.3.0
+     */
+    private void processMessage(String message, int frameBytes) {
+        long startNanos = gameClient.getMetricsRegistry().isEnabled() ? System.nanoTime() : 0;
 
         // Parse packets from the message
         List<InteractivePacket> packets = new ArrayList<>();
         JsonElement jsonObject = JSON_PARSER.parse(message);
         if (jsonObject.isJsonArray()) {
-            Collections.addAll(packets, GameClient.GSON.fromJson(jsonObject, INTERACTIVE_PACKET_SET_TYPE));
+            packets.addAll(GameClient.GSON.<Set<InteractivePacket>>fromJson(jsonObject, INTERACTIVE_PACKET_SET_TYPE));
         }
         else {
             Collections.addAll(packets, GameClient.GSON.fromJson(jsonObject, InteractivePacket.class));
         }
 
         // Process all parsed packets
-        processReceivedPackets(packets);
+        processReceivedPackets(packets, frameBytes, startNanos);
     }
 
     /**
@@ -376,6 +550,11 @@ public class InteractiveWebSocketClient extends WebSocketClient {
         if (connectionPromise != null && !connectionPromise.isDone()) {
             connectionPromise.completeExceptionally(new InteractiveConnectionException(getURI(), code, reason));
         }
+        ScheduledFuture<?> drain = outboundDrain;
+        if (drain != null) {
+            drain.cancel(false);
+        }
+        outboundBuffer.clear(new InteractiveConnectionException(getURI(), code, reason));
         gameClient.getEventBus().post(new ConnectionClosedEvent(gameClient.getProjectVersionId(), getURI(), code, reason, closedRemotely));
     }
 
@@ -396,50 +575,266 @@ public class InteractiveWebSocketClient extends WebSocketClient {
     }
 
     /**
-     * Processes all received <code>InteractivePacket</code>. If the packet is a <code>MethodPackets</code>) then the
-     * <code>InteractiveEvent</code> (if any) is posted to the <code>GameClient</code>'s <code>EventBus</code>. If the
-     * packet is a <code>ReplyPacket</code> then the promise waiting for it is fulfilled and released from the promises
-     * map.
+     * Processes all received <code>InteractivePacket</code>. Packets are passed through the
+     * <code>PacketSequencer</code>, which releases them in sequence order and holds back packets received ahead of a
+     * missing one. Packets held for <code>REORDER_TIMEOUT_MILLIS</code> are released even if the missing packets have
+     * not arrived.
      *
      * @param   receivedPackets
      *          <code>Collection</code> of <code>InteractivePacket</code> to be processed
+     * @param   frameBytes
+     *          The number of bytes the packets took up on the wire
+     * @param   startNanos
+     *          Time, in nanoseconds, processing of the frame started, if metrics are recorded
      *
      * @since   1.0.0
      */
-    private void processReceivedPackets(List<InteractivePacket> receivedPackets) {
+    private void processReceivedPackets(List<InteractivePacket> receivedPackets, int frameBytes, long startNanos) {
         if (receivedPackets.isEmpty()) {
             return;
         }
 
-        receivedPackets.sort(Comparator.comparingInt(InteractivePacket::getSequenceNumber));
+        IMetricsRegistry metrics = gameClient.getMetricsRegistry();
+        if (metrics.isEnabled()) {
+            int bytesPerPacket = frameBytes / receivedPackets.size();
+            for (InteractivePacket packet : receivedPackets) {
+                recordReceived(metrics, packet, bytesPerPacket);
+            }
+        }
+
+        synchronized (sequencer) {
+            readyQueue.addAll(sequencer.accept(receivedPackets));
+        }
+        List<Runnable> replyCompletions = new ArrayList<>();
+        int completedInline = dispatchReady(replyCompletions);
+        handOffReplies(replyCompletions);
+        if (sequencer.hasHeldPackets()) {
+            scheduleHeldPacketsRelease();
+        }
 
-        for (InteractivePacket packet : receivedPackets) {
-            if (packet instanceof MethodPacket) {
-                InteractiveEvent interactiveEvent = getEventFromPacket((MethodPacket) packet);
-                if (interactiveEvent != null) {
-                    interactiveEvent.setRequestID(packet.getPacketID());
-                    if (interactiveEvent instanceof SetCompressionEvent) {
-                        SetCompressionEvent compressionEvent = (SetCompressionEvent) interactiveEvent;
-                        if (!compressionEvent.getCompressionSchemes().isEmpty()) {
-                            setCompressionScheme(compressionEvent.getCompressionSchemes().iterator().next());
-                        }
+        if (metrics.isEnabled()) {
+            metrics.frameProcessed(receivedPackets.size(), replyCompletions.size(), completedInline, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Processes the packets ready to be processed, and reports the sequence gaps queued with them, in order. Only one
+     * thread processes them at a time, so that they are processed in the order the sequencer released them, and never
+     * while holding the lock on the sequencer. A thread finding another already processing them leaves its packets to
+     * it.
+     *
+     * @param   replyCompletions
+     *          Tasks fulfilling the promises to be completed on the reply completion executor
+     *
+     * @return  The number of promises fulfilled straight away
+     *
+     * @since   3.3.0
+     */
+    private int dispatchReady(List<Runnable> replyCompletions) {
+        int completedInline = 0;
+        while (!readyQueue.isEmpty() && dispatching.compareAndSet(false, true)) {
+            try {
+                Object ready;
+                while ((ready = readyQueue.poll()) != null) {
+                    if (ready instanceof InteractivePacket) {
+                        completedInline += dispatchPacket((InteractivePacket) ready, replyCompletions);
+                    }
+                    else {
+                        gameClient.getEventBus().post(ready);
                     }
-                    gameClient.getEventBus().post(interactiveEvent);
                 }
             }
-            else if (packet instanceof ReplyPacket && getWaitingFuturesMap().containsKey(packet.getPacketID())) {
-                CompletableFuture<ReplyPacket> sendRequest = getWaitingFuturesMap().remove(packet.getPacketID());
-                if (!sendRequest.isDone()) {
-                    sendRequest.complete((ReplyPacket) packet);
+            finally {
+                dispatching.set(false);
+            }
+        }
+        return completedInline;
+    }
+
+    /**
+     * Processes a packet. If the packet is a <code>MethodPackets</code>) then the <code>InteractiveEvent</code> (if
+     * any) is posted to the <code>GameClient</code>'s <code>EventBus</code>. If the packet is a
+     * <code>ReplyPacket</code> then the promise waiting for it is released from the promises map, and is either
+     * fulfilled straight away, if its request asked for inline completion, or queued to be fulfilled on the reply
+     * completion executor.
+     *
+     * @param   packet
+     *          Packet ready to be processed
+     * @param   replyCompletions
+     *          Tasks fulfilling the promises to be completed on the reply completion executor
+     *
+     * @return  <code>1</code> if a promise was fulfilled straight away, <code>0</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private int dispatchPacket(InteractivePacket packet, List<Runnable> replyCompletions) {
+        if (packet instanceof MethodPacket) {
+            UpdateShadow updateShadow = gameClient.getUpdateShadow();
+            if (updateShadow.isEnabled()) {
+                updateShadow.onEvent(((MethodPacket) packet).getMethod(), ((MethodPacket) packet).getRequestParameters());
+            }
+            InteractiveEvent interactiveEvent = getEventFromPacket((MethodPacket) packet);
+            if (interactiveEvent != null) {
+                interactiveEvent.setRequestID(packet.getPacketID());
+                if (interactiveEvent instanceof SetCompressionEvent) {
+                    SetCompressionEvent compressionEvent = (SetCompressionEvent) interactiveEvent;
+                    if (!compressionEvent.getCompressionSchemes().isEmpty()) {
+                        setCompressionScheme(compressionEvent.getCompressionSchemes().iterator().next());
+                    }
+                }
+                gameClient.getEventBus().post(interactiveEvent);
+                if (interactiveEvent instanceof ParticipantLeaveEvent) {
+                    releaseSessionIDs((ParticipantLeaveEvent) interactiveEvent);
                 }
             }
         }
+        else if (packet instanceof ReplyPacket) {
+            CompletableFuture<ReplyPacket> sendRequest = getWaitingFuturesMap().remove(packet.getPacketID());
+            if (sendRequest == null || sendRequest.isDone()) {
+                return 0;
+            }
+            if (sendRequest instanceof ReplyPromise && ((ReplyPromise) sendRequest).getRequest().isCompleteInline()) {
+                sendRequest.complete((ReplyPacket) packet);
+                return 1;
+            }
+            replyCompletions.add(() -> sendRequest.complete((ReplyPacket) packet));
+        }
+        return 0;
+    }
+
+    /**
+     * Hands the fulfilment of reply promises off to the reply completion executor of the <code>GameClient</code> as a
+     * single task. If the executor rejects the task, the promises are fulfilled on the calling thread instead.
+     *
+     * @param   replyCompletions
+     *          Tasks fulfilling reply promises, in the order the replies were received
+     *
+     * @since   3.3.0
+     */
+    private void handOffReplies(List<Runnable> replyCompletions) {
+        if (replyCompletions.isEmpty()) {
+            return;
+        }
+        try {
+            gameClient.getReplyCompletionExecutor().execute(() -> replyCompletions.forEach(Runnable::run));
+        }
+        catch (RejectedExecutionException e) {
+            LOG.warn(String.format("PROJECT_ID[%s] - Reply completion executor rejected %d replies, completing them on the read thread", gameClient.getProjectVersionId(), replyCompletions.size()), e);
+            replyCompletions.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Schedules a task releasing the packets held by the sequencer once the packet held the longest has been held for
+     * the reorder timeout, unless one is already scheduled.
+     *
+     * @since   3.3.0
+     */
+    private void scheduleHeldPacketsRelease() {
+        if (heldPacketsFlushScheduled.compareAndSet(false, true)) {
+            long delayNanos = sequencer.getOldestHeldNanos() + TimeUnit.MILLISECONDS.toNanos(REORDER_TIMEOUT_MILLIS) - System.nanoTime();
+            gameClient.getExecutorService().schedule(this::releaseHeldPackets, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops waiting for packets that have not arrived ahead of packets held for the reorder timeout, and processes the
+     * packets that were held behind them. Packets held more recently are waited for by another task.
+     *
+     * @since   3.3.0
+     */
+    private void releaseHeldPackets() {
+        heldPacketsFlushScheduled.set(false);
+        synchronized (sequencer) {
+            readyQueue.addAll(sequencer.flush(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(REORDER_TIMEOUT_MILLIS)));
+        }
+        List<Runnable> replyCompletions = new ArrayList<>();
+        dispatchReady(replyCompletions);
+        handOffReplies(replyCompletions);
+        if (sequencer.hasHeldPackets()) {
+            scheduleHeldPacketsRelease();
+        }
+    }
+
+    /**
+     * Reports sequence numbers that were never received from the Interactive service, queueing a
+     * <code>SequenceGapEvent</code> to be posted ahead of the packets released with it, so that state kept in step
+     * through events can be retrieved again. Called by the sequencer while holding its lock.
+     *
+     * @param   firstMissing
+     *          First sequence number that was never received
+     * @param   lastMissing
+     *          Last sequence number that was never received
+     *
+     * @since   3.3.0
+     */
+    private void onSequenceGap(int firstMissing, int lastMissing) {
+        LOG.warn(String.format("PROJECT_ID[%s] - Packets with sequence numbers %d to %d were never received", gameClient.getProjectVersionId(), firstMissing, lastMissing));
+        readyQueue.add(new SequenceGapEvent(gameClient.getProjectVersionId(), getURI(), firstMissing, lastMissing));
+    }
+
+    /**
+     * Posts an <code>OutboundWritabilityEvent</code> when the outbound buffer stops or starts being writable.
+     *
+     * @param   writable
+     *          Whether the outbound buffer is writable
+     * @param   pendingBytes
+     *          Number of bytes waiting to be written
+     *
+     * @since   3.3.0
+     */
+    private void onWritabilityChanged(boolean writable, long pendingBytes) {
+        LOG.debug(String.format("PROJECT_ID[%s] - Outbound buffer %s writable (%d bytes waiting)", gameClient.getProjectVersionId(), writable ? "is" : "is not", pendingBytes));
+        gameClient.getEventBus().post(new OutboundWritabilityEvent(gameClient.getProjectVersionId(), getURI(), writable, pendingBytes));
+    }
+
+    /**
+     * Evicts the session identifiers of participants that have left from the pool they were interned in when decoded,
+     * as they will not be seen again.
+     *
+     * @param   leaveEvent
+     *          The <code>ParticipantLeaveEvent</code> for the participants that have left
+     *
+     * @since   3.3.0
+     */
+    private void releaseSessionIDs(ParticipantLeaveEvent leaveEvent) {
+        if (leaveEvent.getParticipants() != null) {
+            for (InteractiveParticipant participant : leaveEvent.getParticipants()) {
+                StringInterner.SESSION_IDS.release(participant.getSessionID());
+            }
+        }
+    }
 
-        lastSequenceNumber.set(receivedPackets.get(receivedPackets.size() - 1).getSequenceNumber());
+    /**
+     * Attributes the bytes of a received packet to the method it is for. Method packets are attributed to their own
+     * method, while reply packets are attributed to the method of the request they are a reply to.
+     *
+     * @param   metrics
+     *          The <code>IMetricsRegistry</code> to record metrics with
+     * @param   packet
+     *          The <code>InteractivePacket</code> received from the Interactive service
+     * @param   bytes
+     *          The number of bytes attributed to the packet
+     *
+     * @since   3.3.0
+     */
+    private void recordReceived(IMetricsRegistry metrics, InteractivePacket packet, int bytes) {
+        if (packet instanceof MethodPacket) {
+            metrics.bytesReceived(((MethodPacket) packet).getMethod(), bytes);
+        }
+        else if (packet instanceof ReplyPacket) {
+            CompletableFuture<ReplyPacket> replyPromise = getWaitingFuturesMap().get(packet.getPacketID());
+            if (replyPromise instanceof ReplyPromise) {
+                metrics.bytesReceived(((ReplyPromise) replyPromise).getRequest().getMethod(), bytes);
+            }
+        }
     }
 
     /**
      * Attempts to parse an <code>InteractiveEvent</code> from the packet received from the Interactive service.
+     * Participant, group, scene, control and input events are only parsed if a registered object would receive them.
+     * Core events are always parsed, as are participant leave events, whose participants release their session
+     * identifiers.
      *
      * @param   methodPacket
      *          <code>MethodPacket</code> received from the Interactive service
@@ -467,31 +862,31 @@ public class InteractiveWebSocketClient extends WebSocketClient {
                     case ISSUE_MEMORY_WARNING:
                         return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), MemoryWarningEvent.class);
                     case ON_PARTICIPANT_JOIN:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ParticipantJoinEvent.class);
+                        return decodeIfObserved(methodPacket, ParticipantJoinEvent.class, "participants");
                     case ON_PARTICIPANT_LEAVE:
                         return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ParticipantLeaveEvent.class);
                     case ON_PARTICIPANT_UPDATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ParticipantUpdateEvent.class);
+                        return decodeIfObserved(methodPacket, ParticipantUpdateEvent.class, "participants");
                     case ON_GROUP_CREATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), GroupCreateEvent.class);
+                        return decodeIfObserved(methodPacket, GroupCreateEvent.class, "groups");
                     case ON_GROUP_DELETE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), GroupDeleteEvent.class);
+                        return decodeIfObserved(methodPacket, GroupDeleteEvent.class, null);
                     case ON_GROUP_UPDATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), GroupUpdateEvent.class);
+                        return decodeUpdate(methodPacket, GroupUpdateEvent.class, "groups");
                     case ON_SCENE_CREATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), SceneCreateEvent.class);
+                        return decodeIfObserved(methodPacket, SceneCreateEvent.class, "scenes");
                     case ON_SCENE_DELETE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), SceneDeleteEvent.class);
+                        return decodeIfObserved(methodPacket, SceneDeleteEvent.class, null);
                     case ON_SCENE_UPDATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), SceneUpdateEvent.class);
+                        return decodeUpdate(methodPacket, SceneUpdateEvent.class, "scenes");
                     case ON_CONTROL_CREATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ControlCreateEvent.class);
+                        return decodeIfObserved(methodPacket, ControlCreateEvent.class, "controls");
                     case ON_CONTROL_DELETE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ControlDeleteEvent.class);
+                        return decodeIfObserved(methodPacket, ControlDeleteEvent.class, null);
                     case ON_CONTROL_UPDATE:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ControlUpdateEvent.class);
+                        return decodeUpdate(methodPacket, ControlUpdateEvent.class, "controls");
                     case GIVE_INPUT:
-                        return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), ControlInputEvent.class);
+                        return decodeIfObserved(methodPacket, ControlInputEvent.class, null);
                     default:
                         return GameClient.GSON.fromJson(methodPacket.getRequestParameters(), UndefinedInteractiveEvent.class);
                 }
@@ -499,4 +894,120 @@ public class InteractiveWebSocketClient extends WebSocketClient {
         }
         return null;
     }
+
+    /**
+     * Parses an update event from the packet received from the Interactive service, recognizing the resources in it
+     * that echo updates made by this client. Depending on the <code>EchoPolicy</code>, an event made up only of echoes
+     * is marked as self-originated, or echoes are removed from the event and it is dropped if nothing else is left.
+     *
+     * @param   methodPacket
+     *          <code>MethodPacket</code> received from the Interactive service
+     * @param   eventType
+     *          Type of event to parse
+     * @param   payloadName
+     *          Name of the parameter holding the updated resources
+     * @param   <T>
+     *          Type of event to parse
+     *
+     * @return  The parsed event, or <code>null</code> if nobody would receive it or it was suppressed
+     *
+     * @see     EchoSuppressor
+     *
+     * @since   3.3.0
+     */
+    private <T extends InteractiveEvent> T decodeUpdate(MethodPacket methodPacket, Class<T> eventType, String payloadName) {
+        EchoSuppressor echoSuppressor = gameClient.getEchoSuppressor();
+        JsonElement parameters = methodPacket.getRequestParameters();
+        if (!echoSuppressor.isTracking() || parameters == null || !parameters.isJsonObject()) {
+            return decodeIfObserved(methodPacket, eventType, payloadName);
+        }
+
+        JsonObject parametersObject = parameters.getAsJsonObject();
+        JsonArray resources = parametersObject.get(payloadName) != null && parametersObject.get(payloadName).isJsonArray()
+                ? parametersObject.getAsJsonArray(payloadName)
+                : null;
+        JsonArray remaining = echoSuppressor.withoutEchoes(methodPacket.getMethod(), parametersObject);
+        if (remaining == null || remaining == resources) {
+            return decodeIfObserved(methodPacket, eventType, payloadName);
+        }
+
+        if (echoSuppressor.getPolicy() == EchoPolicy.SUPPRESS) {
+            if (remaining.size() == 0) {
+                return null;
+            }
+            JsonObject otherParameters = new JsonObject();
+            for (Map.Entry<String, JsonElement> parameter : parametersObject.entrySet()) {
+                otherParameters.add(parameter.getKey(), payloadName.equals(parameter.getKey()) ? remaining : parameter.getValue());
+            }
+            return decodeIfObserved(otherParameters, eventType, payloadName);
+        }
+
+        T event = decodeIfObserved(methodPacket, eventType, payloadName);
+        if (event != null && remaining.size() == 0) {
+            event.markSelfOriginated();
+        }
+        return event;
+    }
+
+    /**
+     * Parses an <code>InteractiveEvent</code> from the packet received from the Interactive service, if a registered
+     * object would receive it. The collection payload of the event, if it has one, is left unbound until an accessor
+     * for it is first called.
+     *
+     * @param   methodPacket
+     *          <code>MethodPacket</code> received from the Interactive service
+     * @param   eventType
+     *          Type of event to parse
+     * @param   payloadName
+     *          Name of the parameter holding the payload bound lazily, or <code>null</code> if the event is bound
+     *          straight away
+     * @param   <T>
+     *          Type of event to parse
+     *
+     * @return  The parsed event, or <code>null</code> if nobody would receive it
+     *
+     * @since   3.3.0
+     */
+    private <T extends InteractiveEvent> T decodeIfObserved(MethodPacket methodPacket, Class<T> eventType, String payloadName) {
+        return decodeIfObserved(methodPacket.getRequestParameters(), eventType, payloadName);
+    }
+
+    /**
+     * Parses an <code>InteractiveEvent</code> from the parameters of a packet received from the Interactive service, if
+     * a registered object would receive it.
+     *
+     * @param   parameters
+     *          Parameters of the <code>MethodPacket</code> received from the Interactive service
+     * @param   eventType
+     *          Type of event to parse
+     * @param   payloadName
+     *          Name of the parameter holding the payload bound lazily, or <code>null</code> if the event is bound
+     *          straight away
+     * @param   <T>
+     *          Type of event to parse
+     *
+     * @return  The parsed event, or <code>null</code> if nobody would receive it
+     *
+     * @since   3.3.0
+     */
+    private <T extends InteractiveEvent> T decodeIfObserved(JsonElement parameters, Class<T> eventType, String payloadName) {
+        if (!((InteractiveEventBus) gameClient.getEventBus()).hasSubscribers(eventType)) {
+            return null;
+        }
+
+        if (payloadName == null || parameters == null || !parameters.isJsonObject() || !parameters.getAsJsonObject().has(payloadName)) {
+            return GameClient.GSON.fromJson(parameters, eventType);
+        }
+
+        // Binds the other parameters now, as they are few and cheap, and leaves the payload for the accessor
+        JsonObject otherParameters = new JsonObject();
+        for (Map.Entry<String, JsonElement> parameter : parameters.getAsJsonObject().entrySet()) {
+            if (!payloadName.equals(parameter.getKey())) {
+                otherParameters.add(parameter.getKey(), parameter.getValue());
+            }
+        }
+        T event = GameClient.GSON.fromJson(otherParameters, eventType);
+        event.deferPayload(parameters.getAsJsonObject().get(payloadName));
+        return event;
+    }
 }
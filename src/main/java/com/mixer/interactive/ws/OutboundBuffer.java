@@ -0,0 +1,607 @@
+package com.mixer.interactive.ws;
+
+import com.mixer.interactive.exception.InteractiveOutboundBufferFullException;
+import com.mixer.interactive.protocol.RequestPriority;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * <p>Bounds the frames waiting to be written to the Interactive service, measured in bytes.</p>
+ *
+ * <p>Frames are admitted through {@link #write(int, RequestPriority, Supplier, Consumer)}, which checks the bytes
+ * already waiting against the {@link OutboundBufferLimits} and either hands the frame to the socket or turns it away
+ * according to the {@link OverflowPolicy}. A frame is always admitted when nothing is waiting, however large it is.
+ * Handing a frame to the socket returns a handle identifying it, and the bytes of a frame are waiting from the moment
+ * it is admitted until the handle has left the frames the socket holds, or until the frame is dropped. Frames the
+ * socket writes on its own account, such as pings and pongs, are never counted.</p>
+ *
+ * <p>Frames are handed to the socket in the order they were admitted, one at a time and outside the lock guarding
+ * the buffer, so that a slow socket never holds up admitting frames or releasing written ones.</p>
+ *
+ * <p>Under {@link OverflowPolicy#DROP_BY_PRIORITY}, frames are only handed to the socket while the bytes handed to it
+ * are below the low watermark. The others are queued in the buffer, in order, so that they can still be dropped to
+ * make room for a frame of higher priority.</p>
+ *
+ * <p>The buffer stops being writable once the bytes waiting reach the high watermark, and only becomes writable again
+ * once they have drained to the low watermark, so that senders checking {@link #isWritable()} are not toggled on and
+ * off by every frame. Changes are reported to the {@link WritabilityListener}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveWebSocketClient
+ *
+ * @since       3.3.0
+ */
+public class OutboundBuffer {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Time, in milliseconds, between checks for room in the buffer by a blocked sender
+     */
+    private static final long BLOCK_POLL_MILLIS = 10;
+
+    /**
+     * Supplies the limits the buffer is held to
+     */
+    private final Supplier<OutboundBufferLimits> limits;
+
+    /**
+     * Supplies the handles of the frames the socket holds but has not yet written, in the order it writes them
+     */
+    private final Supplier<? extends Iterable<?>> unwrittenFrames;
+
+    /**
+     * Listener notified when the buffer stops or starts being writable
+     */
+    private final WritabilityListener writabilityListener;
+
+    /**
+     * Lock held while frames are admitted or released, and waited on by blocked senders
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Number of bytes admitted that have not been written or dropped
+     */
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    /**
+     * Frames admitted but held back in the buffer, in order, guarded by the lock
+     */
+    private final Deque<Frame> queuedFrames = new ArrayDeque<>();
+
+    /**
+     * Number of bytes in the queued frames, guarded by the lock
+     */
+    private long queuedBytes;
+
+    /**
+     * Frames admitted to be handed to the socket, in order, guarded by the lock
+     */
+    private final Deque<Frame> outgoingFrames = new ArrayDeque<>();
+
+    /**
+     * Whether a thread is handing the outgoing frames to the socket, guarded by the lock
+     */
+    private boolean handingOff;
+
+    /**
+     * Frames handed to the socket that it has not yet written, in the order it writes them, guarded by the lock
+     */
+    private final Deque<Frame> handedOffFrames = new ArrayDeque<>();
+
+    /**
+     * Frames handed to the socket that it has not yet written, by their handles compared by identity, guarded by the
+     * lock
+     */
+    private final Map<Object, Frame> handedOffHandles = new IdentityHashMap<>();
+
+    /**
+     * Number of times the buffer has been cleared, so that frames in the middle of being handed to the socket when it
+     * is are not accounted for twice, guarded by the lock
+     */
+    private long generation;
+
+    /**
+     * Whether the buffer is writable
+     */
+    private volatile boolean writable = true;
+
+    /**
+     * Number of frames turned away or dropped
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Initializes a new <code>OutboundBuffer</code>.
+     *
+     * @param   limits
+     *          Supplies the limits the buffer is held to
+     * @param   unwrittenFrames
+     *          Supplies the handles of the frames the socket holds but has not yet written, in the order it writes
+     *          them
+     * @param   writabilityListener
+     *          Listener notified when the buffer stops or starts being writable
+     *
+     * @since   3.3.0
+     */
+    public OutboundBuffer(Supplier<OutboundBufferLimits> limits, Supplier<? extends Iterable<?>> unwrittenFrames, WritabilityListener writabilityListener) {
+        if (limits == null || unwrittenFrames == null || writabilityListener == null) {
+            LOG.fatal("A limits supplier, an unwritten frames supplier and a writability listener are required");
+            throw new IllegalArgumentException("A limits supplier, an unwritten frames supplier and a writability listener are required");
+        }
+        this.limits = limits;
+        this.unwrittenFrames = unwrittenFrames;
+        this.writabilityListener = writabilityListener;
+    }
+
+    /**
+     * Admits a frame to the buffer and writes it, or turns it away if the buffer has no room for it. Equivalent to
+     * {@link #write(int, RequestPriority, Supplier, Consumer)} ignoring frames dropped after being admitted.
+     *
+     * @param   frameBytes
+     *          Size, in bytes, of the frame
+     * @param   priority
+     *          Highest priority of the requests in the frame
+     * @param   write
+     *          Hands the frame to the socket, returning the handle identifying it
+     *
+     * @throws  InteractiveOutboundBufferFullException
+     *          If the frame was turned away
+     *
+     * @since   3.3.0
+     */
+    public void write(int frameBytes, RequestPriority priority, Supplier<?> write) throws InteractiveOutboundBufferFullException {
+        write(frameBytes, priority, write, throwable -> { });
+    }
+
+    /**
+     * Admits a frame to the buffer and writes it, or turns it away if the buffer has no room for it. A frame admitted
+     * to the buffer may still be dropped later, to make room for a frame of higher priority or because handing it to
+     * the socket failed, in which case <code>dropped</code> is called with the reason.
+     *
+     * @param   frameBytes
+     *          Size, in bytes, of the frame
+     * @param   priority
+     *          Highest priority of the requests in the frame
+     * @param   write
+     *          Hands the frame to the socket, returning the handle identifying it
+     * @param   dropped
+     *          Called if the frame is dropped after being admitted
+     *
+     * @throws  InteractiveOutboundBufferFullException
+     *          If the frame was turned away
+     *
+     * @since   3.3.0
+     */
+    public void write(int frameBytes, RequestPriority priority, Supplier<?> write, Consumer<Throwable> dropped) throws InteractiveOutboundBufferFullException {
+        OutboundBufferLimits currentLimits = limits.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(currentLimits.getBlockTimeoutMillis());
+        List<Frame> evictedFrames;
+        Boolean changed;
+        long pending;
+        synchronized (lock) {
+            pending = releaseWrittenFrames();
+            while ((evictedFrames = admit(currentLimits, frameBytes, priority, pending)) == null) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (currentLimits.getOverflowPolicy() != OverflowPolicy.BLOCK || remainingNanos <= 0) {
+                    rejectedCount.incrementAndGet();
+                    changed = updateWritability(currentLimits, pending);
+                    notifyListener(changed, pending);
+                    throw new InteractiveOutboundBufferFullException(frameBytes, pending);
+                }
+                try {
+                    lock.wait(Math.min(BLOCK_POLL_MILLIS, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos))));
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejectedCount.incrementAndGet();
+                    throw new InteractiveOutboundBufferFullException(frameBytes, pending);
+                }
+                pending = releaseWrittenFrames();
+            }
+            Frame frame = new Frame(frameBytes, priority, write, dropped);
+            pending = pendingBytes.get();
+            if (!queuedFrames.isEmpty() || (currentLimits.getOverflowPolicy() == OverflowPolicy.DROP_BY_PRIORITY
+                    && pending - queuedBytes >= currentLimits.getLowWatermarkBytes())) {
+                queuedFrames.addLast(frame);
+                queuedBytes += frameBytes;
+            }
+            else {
+                outgoingFrames.addLast(frame);
+            }
+            pending = pendingBytes.addAndGet(frameBytes);
+            changed = updateWritability(currentLimits, pending);
+        }
+        for (Frame evictedFrame : evictedFrames) {
+            evictedFrame.dropped.accept(new InteractiveOutboundBufferFullException(evictedFrame.bytes, pending));
+        }
+        notifyListener(changed, pending);
+        handOffOutgoingFrames();
+    }
+
+    /**
+     * Checks which of the frames handed to the socket it has written. Written frames stop waiting, frames queued in
+     * the buffer are handed to the socket if there is now room for them, and blocked senders are woken. Called
+     * periodically while the connection is open, since the socket does not report written frames by itself.
+     *
+     * @since   3.3.0
+     */
+    public void drain() {
+        OutboundBufferLimits currentLimits = limits.get();
+        Boolean changed;
+        long pending;
+        synchronized (lock) {
+            if (handedOffFrames.isEmpty() && queuedFrames.isEmpty()) {
+                return;
+            }
+            releaseWrittenFrames();
+            while (!queuedFrames.isEmpty() && (currentLimits.getOverflowPolicy() != OverflowPolicy.DROP_BY_PRIORITY
+                    || pendingBytes.get() - queuedBytes < currentLimits.getLowWatermarkBytes())) {
+                Frame frame = queuedFrames.pollFirst();
+                queuedBytes -= frame.bytes;
+                outgoingFrames.addLast(frame);
+            }
+            pending = pendingBytes.get();
+            changed = updateWritability(currentLimits, pending);
+            lock.notifyAll();
+        }
+        notifyListener(changed, pending);
+        handOffOutgoingFrames();
+    }
+
+    /**
+     * Forgets every frame waiting to be written, as when the connection is closed. Frames not yet handed to the socket
+     * are dropped.
+     *
+     * @param   reason
+     *          Why the frames not yet handed to the socket are dropped
+     *
+     * @since   3.3.0
+     */
+    public void clear(Throwable reason) {
+        List<Frame> droppedFrames;
+        Boolean changed;
+        synchronized (lock) {
+            droppedFrames = new ArrayList<>(outgoingFrames);
+            droppedFrames.addAll(queuedFrames);
+            outgoingFrames.clear();
+            queuedFrames.clear();
+            queuedBytes = 0;
+            handedOffFrames.clear();
+            handedOffHandles.clear();
+            generation++;
+            pendingBytes.set(0);
+            changed = updateWritability(limits.get(), 0);
+            lock.notifyAll();
+        }
+        droppedFrames.forEach(frame -> frame.dropped.accept(reason));
+        notifyListener(changed, 0);
+    }
+
+    /**
+     * Returns whether the buffer is writable, that is whether the bytes waiting have not reached the high watermark
+     * or have since drained to the low watermark.
+     *
+     * @return  <code>true</code> if the buffer is writable, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Returns the number of bytes waiting to be written, whether queued in the buffer or handed to the socket.
+     *
+     * @return  The number of bytes waiting to be written
+     *
+     * @since   3.3.0
+     */
+    public long getPendingBytes() {
+        return pendingBytes.get();
+    }
+
+    /**
+     * Returns the number of frames turned away, or dropped after being admitted.
+     *
+     * @return  The number of frames turned away or dropped
+     *
+     * @since   3.3.0
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Returns whether a frame fits in the buffer.
+     *
+     * @param   limits
+     *          The limits the buffer is held to
+     * @param   frameBytes
+     *          Size, in bytes, of the frame
+     * @param   pending
+     *          Number of bytes waiting to be written
+     *
+     * @return  <code>true</code> if the frame fits, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private static boolean fits(OutboundBufferLimits limits, int frameBytes, long pending) {
+        return pending == 0 || frameBytes <= limits.getCapacityBytes() - pending;
+    }
+
+    /**
+     * Admits a frame to the buffer if there is room for it. Under {@link OverflowPolicy#DROP_BY_PRIORITY}, queued
+     * frames of lower priority than the frame are dropped to make room for it, lowest priority and most recent first,
+     * as long as dropping them makes enough room. Must be called holding the lock.
+     *
+     * @param   limits
+     *          The limits the buffer is held to
+     * @param   frameBytes
+     *          Size, in bytes, of the frame
+     * @param   priority
+     *          Highest priority of the requests in the frame
+     * @param   pending
+     *          Number of bytes waiting to be written
+     *
+     * @return  The queued frames dropped to make room, or <code>null</code> if the frame is not admitted
+     *
+     * @since   3.3.0
+     */
+    private List<Frame> admit(OutboundBufferLimits limits, int frameBytes, RequestPriority priority, long pending) {
+        boolean fits = fits(limits, frameBytes, pending);
+        if (limits.getOverflowPolicy() != OverflowPolicy.DROP_BY_PRIORITY) {
+            return fits ? Collections.emptyList() : null;
+        }
+        if (priority == RequestPriority.LOW) {
+            return fits && writable && pending < limits.getHighWatermarkBytes() ? Collections.emptyList() : null;
+        }
+        if (fits) {
+            return Collections.emptyList();
+        }
+
+        List<Frame> evictedFrames = new ArrayList<>();
+        long evictedBytes = 0;
+        for (RequestPriority evictedPriority : RequestPriority.values()) {
+            if (evictedPriority.compareTo(priority) >= 0) {
+                break;
+            }
+            Iterator<Frame> iterator = queuedFrames.descendingIterator();
+            while (iterator.hasNext()) {
+                Frame frame = iterator.next();
+                if (frame.priority != evictedPriority) {
+                    continue;
+                }
+                evictedFrames.add(frame);
+                evictedBytes += frame.bytes;
+                if (fits(limits, frameBytes, pending - evictedBytes)) {
+                    queuedFrames.removeAll(evictedFrames);
+                    queuedBytes -= evictedBytes;
+                    pendingBytes.addAndGet(-evictedBytes);
+                    rejectedCount.addAndGet(evictedFrames.size());
+                    return evictedFrames;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Releases the frames handed to the socket that it has written. The socket writes frames in the order it was
+     * handed them, so every frame handed to it before the oldest one it still holds has been written. Must be called
+     * holding the lock.
+     *
+     * @return  Number of bytes still waiting to be written
+     *
+     * @since   3.3.0
+     */
+    private long releaseWrittenFrames() {
+        if (handedOffFrames.isEmpty()) {
+            return pendingBytes.get();
+        }
+        Frame oldestUnwritten = null;
+        for (Object unwritten : unwrittenFrames.get()) {
+            oldestUnwritten = handedOffHandles.get(unwritten);
+            if (oldestUnwritten != null) {
+                break;
+            }
+        }
+        long releasedBytes = 0;
+        while (!handedOffFrames.isEmpty() && handedOffFrames.peekFirst() != oldestUnwritten) {
+            Frame frame = handedOffFrames.pollFirst();
+            handedOffHandles.remove(frame.handle);
+            releasedBytes += frame.bytes;
+        }
+        return pendingBytes.addAndGet(-releasedBytes);
+    }
+
+    /**
+     * Hands the outgoing frames to the socket, in order, outside the lock. Only one thread hands frames off at a time,
+     * so that they reach the socket in the order they were admitted. A thread finding another already doing so leaves
+     * its frames to it.
+     *
+     * @since   3.3.0
+     */
+    private void handOffOutgoingFrames() {
+        synchronized (lock) {
+            if (handingOff || outgoingFrames.isEmpty()) {
+                return;
+            }
+            handingOff = true;
+        }
+        boolean drained = false;
+        try {
+            while (true) {
+                Frame frame;
+                long frameGeneration;
+                synchronized (lock) {
+                    frame = outgoingFrames.pollFirst();
+                    if (frame == null) {
+                        handingOff = false;
+                        drained = true;
+                        return;
+                    }
+                    frameGeneration = generation;
+                }
+                try {
+                    frame.handle = frame.write.get();
+                    synchronized (lock) {
+                        if (frameGeneration == generation) {
+                            handedOffFrames.addLast(frame);
+                            handedOffHandles.put(frame.handle, frame);
+                        }
+                    }
+                }
+                catch (RuntimeException e) {
+                    LOG.debug("Frame could not be handed to the socket", e);
+                    Boolean changed = null;
+                    long pending = 0;
+                    synchronized (lock) {
+                        if (frameGeneration == generation) {
+                            pending = pendingBytes.addAndGet(-frame.bytes);
+                            changed = updateWritability(limits.get(), pending);
+                            lock.notifyAll();
+                        }
+                    }
+                    frame.dropped.accept(e);
+                    notifyListener(changed, pending);
+                }
+            }
+        }
+        finally {
+            if (!drained) {
+                synchronized (lock) {
+                    handingOff = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the buffer between writable and not writable according to the watermarks. Must be called holding the lock.
+     *
+     * @param   limits
+     *          The limits the buffer is held to
+     * @param   pending
+     *          Number of bytes waiting to be written
+     *
+     * @return  The new writability if it changed, <code>null</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    private Boolean updateWritability(OutboundBufferLimits limits, long pending) {
+        if (writable && pending >= limits.getHighWatermarkBytes()) {
+            writable = false;
+            return Boolean.FALSE;
+        }
+        if (!writable && pending <= limits.getLowWatermarkBytes()) {
+            writable = true;
+            return Boolean.TRUE;
+        }
+        return null;
+    }
+
+    /**
+     * Notifies the listener of a change in writability, outside the lock.
+     *
+     * @param   changed
+     *          The new writability, or <code>null</code> if it did not change
+     * @param   pending
+     *          Number of bytes waiting to be written
+     *
+     * @since   3.3.0
+     */
+    private void notifyListener(Boolean changed, long pending) {
+        if (changed != null) {
+            writabilityListener.onWritabilityChanged(changed, pending);
+        }
+    }
+
+    /**
+     * A frame admitted to the buffer and not yet written.
+     *
+     * @since   3.3.0
+     */
+    private static final class Frame {
+
+        /**
+         * Size, in bytes, of the frame
+         */
+        private final int bytes;
+
+        /**
+         * Highest priority of the requests in the frame
+         */
+        private final RequestPriority priority;
+
+        /**
+         * Hands the frame to the socket, returning the handle identifying it
+         */
+        private final Supplier<?> write;
+
+        /**
+         * Called if the frame is dropped
+         */
+        private final Consumer<Throwable> dropped;
+
+        /**
+         * Handle identifying the frame to the socket, once handed to it
+         */
+        private Object handle;
+
+        /**
+         * Initializes a new <code>Frame</code>.
+         *
+         * @param   bytes
+         *          Size, in bytes, of the frame
+         * @param   priority
+         *          Highest priority of the requests in the frame
+         * @param   write
+         *          Hands the frame to the socket, returning the handle identifying it
+         * @param   dropped
+         *          Called if the frame is dropped
+         *
+         * @since   3.3.0
+         */
+        private Frame(int bytes, RequestPriority priority, Supplier<?> write, Consumer<Throwable> dropped) {
+            this.bytes = bytes;
+            this.priority = priority;
+            this.write = write;
+            this.dropped = dropped;
+        }
+    }
+
+    /**
+     * Listener notified when the outbound buffer stops or starts being writable.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    @FunctionalInterface
+    public interface WritabilityListener {
+
+        /**
+         * Called when the outbound buffer stops or starts being writable.
+         *
+         * @param   writable
+         *          Whether the buffer is writable
+         * @param   pendingBytes
+         *          Number of bytes waiting to be written
+         *
+         * @since   3.3.0
+         */
+        void onWritabilityChanged(boolean writable, long pendingBytes);
+    }
+}
@@ -0,0 +1,210 @@
+package com.mixer.interactive.ws;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Limits on the frames waiting to be written to the Interactive service. The outbound buffer stops being writable
+ * once the bytes waiting reach the high watermark, and becomes writable again once they drain to the low watermark.
+ * A frame that would take the bytes waiting past the capacity is handled according to the overflow policy.
+ *
+ * <p>Instances are immutable. The limits used by a <code>GameClient</code> are set with
+ * {@link com.mixer.interactive.GameClient#setOutboundBufferLimits(OutboundBufferLimits)}.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         OutboundBuffer
+ *
+ * @since       3.3.0
+ */
+public class OutboundBufferLimits {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default limits: a capacity of 16 MiB, watermarks at 8 MiB and 2 MiB, and frames that do not fit fail
+     */
+    public static final OutboundBufferLimits DEFAULT = new OutboundBufferLimits(16L << 20, 8L << 20, 2L << 20, OverflowPolicy.FAIL, 5000);
+
+    /**
+     * Limits that never hold back a frame, as was done before the outbound buffer was bounded
+     */
+    public static final OutboundBufferLimits UNLIMITED = new OutboundBufferLimits(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, OverflowPolicy.FAIL, 0);
+
+    /**
+     * Maximum number of bytes waiting to be written
+     */
+    private final long capacityBytes;
+
+    /**
+     * Number of bytes waiting at or above which the buffer stops being writable
+     */
+    private final long highWatermarkBytes;
+
+    /**
+     * Number of bytes waiting at or below which the buffer becomes writable again
+     */
+    private final long lowWatermarkBytes;
+
+    /**
+     * What is done with a frame that does not fit in the buffer
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Time, in milliseconds, a sender waits for room in the buffer under {@link OverflowPolicy#BLOCK}
+     */
+    private final long blockTimeoutMillis;
+
+    /**
+     * Initializes a new <code>OutboundBufferLimits</code>.
+     *
+     * @param   capacityBytes
+     *          Maximum number of bytes waiting to be written
+     * @param   highWatermarkBytes
+     *          Number of bytes waiting at or above which the buffer stops being writable
+     * @param   lowWatermarkBytes
+     *          Number of bytes waiting at or below which the buffer becomes writable again
+     * @param   overflowPolicy
+     *          What is done with a frame that does not fit in the buffer
+     * @param   blockTimeoutMillis
+     *          Time, in milliseconds, a sender waits for room in the buffer under {@link OverflowPolicy#BLOCK}
+     *
+     * @since   3.3.0
+     */
+    private OutboundBufferLimits(long capacityBytes, long highWatermarkBytes, long lowWatermarkBytes, OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        if (capacityBytes < 1 || lowWatermarkBytes < 0 || lowWatermarkBytes > highWatermarkBytes || highWatermarkBytes > capacityBytes) {
+            LOG.fatal("Outbound buffer limits must satisfy 0 <= low watermark <= high watermark <= capacity");
+            throw new IllegalArgumentException("Outbound buffer limits must satisfy 0 <= low watermark <= high watermark <= capacity");
+        }
+        if (overflowPolicy == null || blockTimeoutMillis < 0) {
+            LOG.fatal("An overflow policy and a non-negative block timeout are required");
+            throw new IllegalArgumentException("An overflow policy and a non-negative block timeout are required");
+        }
+        this.capacityBytes = capacityBytes;
+        this.highWatermarkBytes = highWatermarkBytes;
+        this.lowWatermarkBytes = lowWatermarkBytes;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    /**
+     * Returns the maximum number of bytes waiting to be written.
+     *
+     * @return  The capacity of the buffer, in bytes
+     *
+     * @since   3.3.0
+     */
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    /**
+     * Returns the number of bytes waiting at or above which the buffer stops being writable.
+     *
+     * @return  The high watermark, in bytes
+     *
+     * @since   3.3.0
+     */
+    public long getHighWatermarkBytes() {
+        return highWatermarkBytes;
+    }
+
+    /**
+     * Returns the number of bytes waiting at or below which the buffer becomes writable again.
+     *
+     * @return  The low watermark, in bytes
+     *
+     * @since   3.3.0
+     */
+    public long getLowWatermarkBytes() {
+        return lowWatermarkBytes;
+    }
+
+    /**
+     * Returns what is done with a frame that does not fit in the buffer.
+     *
+     * @return  The <code>OverflowPolicy</code>
+     *
+     * @since   3.3.0
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Returns the time a sender waits for room in the buffer under {@link OverflowPolicy#BLOCK}.
+     *
+     * @return  The block timeout, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    /**
+     * Returns a copy of these limits with the provided capacity and watermarks.
+     *
+     * @param   capacityBytes
+     *          Maximum number of bytes waiting to be written
+     * @param   highWatermarkBytes
+     *          Number of bytes waiting at or above which the buffer stops being writable
+     * @param   lowWatermarkBytes
+     *          Number of bytes waiting at or below which the buffer becomes writable again
+     *
+     * @return  A copy of these limits with the provided capacity and watermarks
+     *
+     * @since   3.3.0
+     */
+    public OutboundBufferLimits withCapacity(long capacityBytes, long highWatermarkBytes, long lowWatermarkBytes) {
+        return new OutboundBufferLimits(capacityBytes, highWatermarkBytes, lowWatermarkBytes, overflowPolicy, blockTimeoutMillis);
+    }
+
+    /**
+     * Returns a copy of these limits with the provided overflow policy.
+     *
+     * @param   overflowPolicy
+     *          What is done with a frame that does not fit in the buffer
+     *
+     * @return  A copy of these limits with the provided overflow policy
+     *
+     * @since   3.3.0
+     */
+    public OutboundBufferLimits withOverflowPolicy(OverflowPolicy overflowPolicy) {
+        return new OutboundBufferLimits(capacityBytes, highWatermarkBytes, lowWatermarkBytes, overflowPolicy, blockTimeoutMillis);
+    }
+
+    /**
+     * Returns a copy of these limits with the provided block timeout.
+     *
+     * @param   blockTimeoutMillis
+     *          Time, in milliseconds, a sender waits for room in the buffer under {@link OverflowPolicy#BLOCK}
+     *
+     * @return  A copy of these limits with the provided block timeout
+     *
+     * @since   3.3.0
+     */
+    public OutboundBufferLimits withBlockTimeoutMillis(long blockTimeoutMillis) {
+        return new OutboundBufferLimits(capacityBytes, highWatermarkBytes, lowWatermarkBytes, overflowPolicy, blockTimeoutMillis);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since   3.3.0
+     */
+    @Override
+    public String toString() {
+        return "OutboundBufferLimits{" +
+                "capacityBytes=" + capacityBytes +
+                ", highWatermarkBytes=" + highWatermarkBytes +
+                ", lowWatermarkBytes=" + lowWatermarkBytes +
+                ", overflowPolicy=" + overflowPolicy +
+                ", blockTimeoutMillis=" + blockTimeoutMillis +
+                '}';
+    }
+}
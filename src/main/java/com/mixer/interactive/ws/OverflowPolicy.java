@@ -0,0 +1,33 @@
+package com.mixer.interactive.ws;
+
+/**
+ * What is done with a frame sent to the Interactive service when the outbound buffer has no room for it.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         OutboundBufferLimits
+ *
+ * @since       3.3.0
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The frame is not sent, and the requests in it fail straight away
+     */
+    FAIL,
+
+    /**
+     * The sending thread waits for room in the buffer, up to the block timeout, after which the requests in the frame
+     * fail
+     */
+    BLOCK,
+
+    /**
+     * The frame is dropped according to the highest {@link com.mixer.interactive.protocol.RequestPriority} of the
+     * requests in it. Low priority frames are dropped whenever the buffer is above its high watermark. When the buffer
+     * is full, frames still queued in the buffer that are of lower priority than a normal or high priority frame are
+     * dropped to make room for it, and the frame is dropped if that does not make enough room. The requests in a
+     * dropped frame fail.
+     */
+    DROP_BY_PRIORITY
+}
@@ -0,0 +1,442 @@
+package com.mixer.interactive.ws;
+
+import com.mixer.interactive.protocol.InteractivePacket;
+import com.mixer.interactive.protocol.MethodPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Orders the packets received from the Interactive service by their sequence numbers, across the frames they
+ * arrive in, and detects sequence numbers that never arrive.</p>
+ *
+ * <p>Method packets arriving ahead of a missing sequence number are held in a ring of a fixed number of slots until
+ * the missing packets arrive, until the ring overflows, or until {@link #flush()} is called, or
+ * {@link #flush(long)} for the packets that have been held long enough. Once no longer waiting
+ * for the missing sequence numbers, they are reported to the {@link GapListener} and the held packets are released
+ * in order. Reply packets are never held, so that requests waiting on them are not delayed, but they do fill the
+ * sequence numbers they carry. Packets without a sequence number are passed through as they are.</p>
+ *
+ * <p>The last sequence number seen only ever increases, whatever order packets are received in.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @see         InteractiveWebSocketClient
+ *
+ * @since       3.3.0
+ */
+public class PacketSequencer {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Default number of sequence numbers packets can be held ahead of a missing one
+     */
+    public static final int DEFAULT_WINDOW = 64;
+
+    /**
+     * Orders packets by their sequence numbers
+     */
+    private static final Comparator<InteractivePacket> BY_SEQUENCE_NUMBER = Comparator.comparingInt(InteractivePacket::getSequenceNumber);
+
+    /**
+     * Listener notified of sequence numbers that were never received
+     */
+    private final GapListener gapListener;
+
+    /**
+     * Packets held until the packets ahead of them are received, indexed by sequence number
+     */
+    private final InteractivePacket[] held;
+
+    /**
+     * Time, in nanoseconds, each held packet was held at, indexed by sequence number
+     */
+    private final long[] heldSince;
+
+    /**
+     * Whether a packet has been received for a sequence number after the last delivered one, indexed by sequence
+     * number
+     */
+    private final boolean[] received;
+
+    /**
+     * Mask selecting a slot of the ring from a sequence number
+     */
+    private final int mask;
+
+    /**
+     * The last sequence number seen from the Interactive service
+     */
+    private final AtomicInteger lastSequenceNumber = new AtomicInteger();
+
+    /**
+     * Number of packets that were received out of order
+     */
+    private final AtomicLong reorderedCount = new AtomicLong();
+
+    /**
+     * Number of runs of consecutive sequence numbers that were never received
+     */
+    private final AtomicLong gapCount = new AtomicLong();
+
+    /**
+     * Number of sequence numbers that were never received
+     */
+    private final AtomicLong missingCount = new AtomicLong();
+
+    /**
+     * Sequence number up to which every packet has been received or declared missing
+     */
+    private int delivered;
+
+    /**
+     * Highest sequence number received after <code>delivered</code>
+     */
+    private int highestReceived;
+
+    /**
+     * Number of packets being held
+     */
+    private int heldCount;
+
+    /**
+     * Whether a sequenced packet has been received yet
+     */
+    private boolean started;
+
+    /**
+     * Initializes a new <code>PacketSequencer</code>.
+     *
+     * @param   window
+     *          Number of sequence numbers packets can be held ahead of a missing one, rounded up to a power of two
+     * @param   gapListener
+     *          Listener notified of sequence numbers that were never received
+     *
+     * @since   3.3.0
+     */
+    public PacketSequencer(int window, GapListener gapListener) {
+        if (window <= 0 || window > 1 << 16) {
+            LOG.fatal("Window must be between 1 and 65536");
+            throw new IllegalArgumentException("Window must be between 1 and 65536");
+        }
+        if (gapListener == null) {
+            LOG.fatal("A gap listener is required");
+            throw new IllegalArgumentException("A gap listener is required");
+        }
+        int size = Integer.highestOneBit(window);
+        if (size < window) {
+            size <<= 1;
+        }
+        this.held = new InteractivePacket[size];
+        this.heldSince = new long[size];
+        this.received = new boolean[size];
+        this.mask = size - 1;
+        this.gapListener = gapListener;
+    }
+
+    /**
+     * Accepts the packets of a frame received from the Interactive service, returning the packets that are ready to be
+     * processed in order. Packets ahead of a missing sequence number are held back and returned by a later call.
+     *
+     * @param   packets
+     *          Packets received in a frame, in any order. Sorted by sequence number in place.
+     *
+     * @return  Packets ready to be processed, in order
+     *
+     * @since   3.3.0
+     */
+    public synchronized List<InteractivePacket> accept(List<InteractivePacket> packets) {
+        List<InteractivePacket> ready = new ArrayList<>(packets.size() + heldCount);
+        if (packets.size() > 1) {
+            packets.sort(BY_SEQUENCE_NUMBER);
+        }
+        for (InteractivePacket packet : packets) {
+            offer(packet, ready);
+        }
+        return ready;
+    }
+
+    /**
+     * Stops waiting for missing sequence numbers, reporting them to the <code>GapListener</code> and returning every
+     * packet being held, in order.
+     *
+     * @return  Packets that were being held, in order
+     *
+     * @since   3.3.0
+     */
+    public synchronized List<InteractivePacket> flush() {
+        List<InteractivePacket> ready = new ArrayList<>(heldCount);
+        if (started && highestReceived > delivered) {
+            skipTo(highestReceived, ready);
+        }
+        return ready;
+    }
+
+    /**
+     * Stops waiting for the missing sequence numbers ahead of the packets held at or before a time, reporting them to
+     * the <code>GapListener</code> and returning the packets that were being held for them, in order. Missing sequence
+     * numbers only ahead of packets held later are still waited for.
+     *
+     * @param   heldSinceNanos
+     *          Time, in nanoseconds as returned by {@link System#nanoTime()}, packets must have been held at or before
+     *
+     * @return  Packets that were being held, in order
+     *
+     * @since   3.3.0
+     */
+    public synchronized List<InteractivePacket> flush(long heldSinceNanos) {
+        List<InteractivePacket> ready = new ArrayList<>(heldCount);
+        int target = delivered;
+        for (int sequenceNumber = delivered + 1; sequenceNumber <= highestReceived; sequenceNumber++) {
+            int slot = sequenceNumber & mask;
+            if (held[slot] != null && heldSince[slot] - heldSinceNanos <= 0) {
+                target = sequenceNumber;
+            }
+        }
+        if (started && target > delivered) {
+            skipTo(target, ready);
+        }
+        return ready;
+    }
+
+    /**
+     * Returns the time the packet held the longest was held at, or the current time if no packets are held.
+     *
+     * @return  Time, in nanoseconds as returned by {@link System#nanoTime()}, the oldest held packet was held at
+     *
+     * @since   3.3.0
+     */
+    public synchronized long getOldestHeldNanos() {
+        long oldest = System.nanoTime();
+        if (heldCount > 0) {
+            for (int slot = 0; slot < held.length; slot++) {
+                if (held[slot] != null && heldSince[slot] - oldest < 0) {
+                    oldest = heldSince[slot];
+                }
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Returns whether or not packets are being held until missing sequence numbers are received.
+     *
+     * @return  <code>true</code> if packets are being held, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public synchronized boolean hasHeldPackets() {
+        return heldCount > 0;
+    }
+
+    /**
+     * Returns the last sequence number seen from the Interactive service.
+     *
+     * @return  The highest sequence number seen from the Interactive service
+     *
+     * @since   3.3.0
+     */
+    public int getLastSequenceNumber() {
+        return lastSequenceNumber.get();
+    }
+
+    /**
+     * Returns the number of packets that were received out of order.
+     *
+     * @return  The number of packets that were received out of order
+     *
+     * @since   3.3.0
+     */
+    public long getReorderedCount() {
+        return reorderedCount.get();
+    }
+
+    /**
+     * Returns the number of runs of consecutive sequence numbers that were never received.
+     *
+     * @return  The number of gaps detected
+     *
+     * @since   3.3.0
+     */
+    public long getGapCount() {
+        return gapCount.get();
+    }
+
+    /**
+     * Returns the number of sequence numbers that were never received.
+     *
+     * @return  The number of missing sequence numbers
+     *
+     * @since   3.3.0
+     */
+    public long getMissingCount() {
+        return missingCount.get();
+    }
+
+    /**
+     * Accepts a single packet, adding it and any packets it releases to the packets ready to be processed.
+     *
+     * @param   packet
+     *          The packet received
+     * @param   ready
+     *          Packets ready to be processed
+     *
+     * @since   3.3.0
+     */
+    private void offer(InteractivePacket packet, List<InteractivePacket> ready) {
+        int sequenceNumber = packet.getSequenceNumber();
+        if (sequenceNumber <= 0) {
+            ready.add(packet);
+            return;
+        }
+        lastSequenceNumber.accumulateAndGet(sequenceNumber, Math::max);
+
+        if (!started) {
+            started = true;
+            delivered = sequenceNumber - 1;
+            highestReceived = delivered;
+        }
+        if (sequenceNumber <= delivered) {
+            if (sequenceNumber < delivered) {
+                reorderedCount.incrementAndGet();
+            }
+            ready.add(packet);
+            return;
+        }
+        if (sequenceNumber - delivered > held.length) {
+            skipTo(sequenceNumber - held.length, ready);
+        }
+
+        int slot = sequenceNumber & mask;
+        if (received[slot]) {
+            ready.add(packet);
+            return;
+        }
+        received[slot] = true;
+        highestReceived = Math.max(highestReceived, sequenceNumber);
+        if (sequenceNumber == delivered + 1 || !(packet instanceof MethodPacket)) {
+            ready.add(packet);
+        }
+        else {
+            held[slot] = packet;
+            heldSince[slot] = System.nanoTime();
+            heldCount++;
+        }
+        drain(ready);
+    }
+
+    /**
+     * Advances past every consecutive sequence number received after the last delivered one, releasing the packets
+     * held for them.
+     *
+     * @param   ready
+     *          Packets ready to be processed
+     *
+     * @since   3.3.0
+     */
+    private void drain(List<InteractivePacket> ready) {
+        while (received[(delivered + 1) & mask]) {
+            delivered++;
+            release(delivered & mask, ready);
+        }
+    }
+
+    /**
+     * Stops waiting for the sequence numbers up to and including a sequence number, reporting the ones that were never
+     * received and releasing the packets held for the others.
+     *
+     * @param   target
+     *          Sequence number to advance to
+     * @param   ready
+     *          Packets ready to be processed
+     *
+     * @since   3.3.0
+     */
+    private void skipTo(int target, List<InteractivePacket> ready) {
+        int firstMissing = -1;
+        while (delivered < target) {
+            delivered++;
+            int slot = delivered & mask;
+            if (received[slot]) {
+                if (firstMissing != -1) {
+                    reportGap(firstMissing, delivered - 1);
+                    firstMissing = -1;
+                }
+                release(slot, ready);
+            }
+            else if (firstMissing == -1) {
+                firstMissing = delivered;
+            }
+        }
+        if (firstMissing != -1) {
+            reportGap(firstMissing, target);
+        }
+        drain(ready);
+    }
+
+    /**
+     * Clears a slot of the ring, releasing the packet held in it, if any.
+     *
+     * @param   slot
+     *          The slot
+     * @param   ready
+     *          Packets ready to be processed
+     *
+     * @since   3.3.0
+     */
+    private void release(int slot, List<InteractivePacket> ready) {
+        received[slot] = false;
+        if (held[slot] != null) {
+            ready.add(held[slot]);
+            held[slot] = null;
+            heldCount--;
+            reorderedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records and reports a run of sequence numbers that were never received.
+     *
+     * @param   firstMissing
+     *          First sequence number of the run
+     * @param   lastMissing
+     *          Last sequence number of the run
+     *
+     * @since   3.3.0
+     */
+    private void reportGap(int firstMissing, int lastMissing) {
+        gapCount.incrementAndGet();
+        missingCount.addAndGet(lastMissing - firstMissing + 1);
+        gapListener.onGap(firstMissing, lastMissing);
+    }
+
+    /**
+     * Listener notified of sequence numbers that were never received from the Interactive service.
+     *
+     * @since   3.3.0
+     */
+    @FunctionalInterface
+    public interface GapListener {
+
+        /**
+         * Called when a run of consecutive sequence numbers is declared missing.
+         *
+         * @param   firstMissing
+         *          First sequence number that was never received
+         * @param   lastMissing
+         *          Last sequence number that was never received
+         *
+         * @since   3.3.0
+         */
+        void onGap(int firstMissing, int lastMissing);
+    }
+}
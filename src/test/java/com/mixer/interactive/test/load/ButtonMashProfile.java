@@ -0,0 +1,75 @@
+package com.mixer.interactive.test.load;
+
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates participants mashing a button: each press is a <code>mousedown</code> followed by a <code>mouseup</code>,
+ * with presses arriving as a Poisson process.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class ButtonMashProfile implements IInputProfile {
+
+    /**
+     * Identifier of the button
+     */
+    private final String controlID;
+
+    /**
+     * Mean number of presses per second, per participant
+     */
+    private final double pressesPerSecond;
+
+    /**
+     * Initializes a new <code>ButtonMashProfile</code>.
+     *
+     * @param   controlID
+     *          Identifier of the button
+     * @param   pressesPerSecond
+     *          Mean number of presses per second, per participant
+     *
+     * @since   3.3.0
+     */
+    public ButtonMashProfile(String controlID, double pressesPerSecond) {
+        if (pressesPerSecond <= 0) {
+            throw new IllegalArgumentException("Presses per second must be positive");
+        }
+        this.controlID = controlID;
+        this.pressesPerSecond = pressesPerSecond;
+    }
+
+    @Override
+    public long nextDelayNanos(Random random) {
+        return (long) (-Math.log(1 - random.nextDouble()) / pressesPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public List<JsonObject> nextInputs(Random random) {
+        return Arrays.asList(input("mousedown"), input("mouseup"));
+    }
+
+    /**
+     * Builds a button input object.
+     *
+     * @param   event
+     *          Type of input event
+     *
+     * @return  The input object
+     *
+     * @since   3.3.0
+     */
+    private JsonObject input(String event) {
+        JsonObject input = new JsonObject();
+        input.addProperty("controlID", controlID);
+        input.addProperty("event", event);
+        input.addProperty("button", 0);
+        return input;
+    }
+}
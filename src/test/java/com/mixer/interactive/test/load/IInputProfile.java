@@ -0,0 +1,44 @@
+package com.mixer.interactive.test.load;
+
+import com.google.gson.JsonObject;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Describes the input a simulated participant gives. The load generator asks the profile how long to wait before a
+ * participant's next input, and which input objects (the <code>input</code> parameter of <code>giveInput</code>) to
+ * send when it is due.
+ *
+ * <p>Profiles are only called from the load generator's selector thread and must not keep per-participant state.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public interface IInputProfile {
+
+    /**
+     * Returns the delay, in nanoseconds, until a participant's next input.
+     *
+     * @param   random
+     *          Random number generator to draw from
+     *
+     * @return  The delay, in nanoseconds, until a participant's next input
+     *
+     * @since   3.3.0
+     */
+    long nextDelayNanos(Random random);
+
+    /**
+     * Returns the input objects to send, in order, when a participant's input is due.
+     *
+     * @param   random
+     *          Random number generator to draw from
+     *
+     * @return  The input objects to send
+     *
+     * @since   3.3.0
+     */
+    List<JsonObject> nextInputs(Random random);
+}
@@ -0,0 +1,107 @@
+package com.mixer.interactive.test.load;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonElement;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the latency between a <code>ParticipantLoadGenerator</code> sending an input and a
+ * <code>GameClient</code>'s event handlers receiving it.
+ *
+ * <p>Every input sent by the load generator carries a <code>sentAt</code> field holding the value of
+ * {@link System#nanoTime()} when it was queued for sending. The recorder subtracts it from the time the
+ * <code>ControlInputEvent</code> is posted, so latencies are only meaningful when the load generator and the
+ * <code>GameClient</code> run in the same JVM.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class InputLatencyRecorder {
+
+    /**
+     * Name of the input field carrying the send time
+     */
+    public static final String SENT_AT_FIELD = "sentAt";
+
+    /**
+     * Latencies of handled inputs
+     */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Number of handled inputs, including those without a send time
+     */
+    private final LongAdder handled = new LongAdder();
+
+    /**
+     * Registers the recorder with a <code>GameClient</code>'s event bus.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> receiving the input
+     *
+     * @return  The recorder
+     *
+     * @since   3.3.0
+     */
+    public InputLatencyRecorder register(GameClient gameClient) {
+        gameClient.getEventBus().register(this);
+        return this;
+    }
+
+    /**
+     * Unregisters the recorder from a <code>GameClient</code>'s event bus.
+     *
+     * @param   gameClient
+     *          The <code>GameClient</code> receiving the input
+     *
+     * @since   3.3.0
+     */
+    public void unregister(GameClient gameClient) {
+        gameClient.getEventBus().unregister(this);
+    }
+
+    /**
+     * Records the latency of an input.
+     *
+     * @param   event
+     *          The input event
+     *
+     * @since   3.3.0
+     */
+    @Subscribe
+    public void onInput(ControlInputEvent event) {
+        long now = System.nanoTime();
+        handled.increment();
+        JsonElement sentAt = event.getControlInput().getRawInput().get(SENT_AT_FIELD);
+        if (sentAt != null && sentAt.isJsonPrimitive()) {
+            latencies.record(now - sentAt.getAsLong());
+        }
+    }
+
+    /**
+     * Returns the latencies of handled inputs.
+     *
+     * @return  The latencies of handled inputs
+     *
+     * @since   3.3.0
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the number of handled inputs.
+     *
+     * @return  The number of handled inputs
+     *
+     * @since   3.3.0
+     */
+    public long getHandledCount() {
+        return handled.sum();
+    }
+}
@@ -0,0 +1,62 @@
+package com.mixer.interactive.test.load;
+
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates participants continuously moving a joystick: <code>move</code> events with random coordinates, sent at a
+ * fixed rate as the Mixer joystick does while it is held.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class JoystickStreamProfile implements IInputProfile {
+
+    /**
+     * Identifier of the joystick
+     */
+    private final String controlID;
+
+    /**
+     * Interval between updates, in nanoseconds
+     */
+    private final long intervalNanos;
+
+    /**
+     * Initializes a new <code>JoystickStreamProfile</code>.
+     *
+     * @param   controlID
+     *          Identifier of the joystick
+     * @param   updatesPerSecond
+     *          Number of updates per second, per participant
+     *
+     * @since   3.3.0
+     */
+    public JoystickStreamProfile(String controlID, double updatesPerSecond) {
+        if (updatesPerSecond <= 0) {
+            throw new IllegalArgumentException("Updates per second must be positive");
+        }
+        this.controlID = controlID;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / updatesPerSecond);
+    }
+
+    @Override
+    public long nextDelayNanos(Random random) {
+        return intervalNanos;
+    }
+
+    @Override
+    public List<JsonObject> nextInputs(Random random) {
+        JsonObject input = new JsonObject();
+        input.addProperty("controlID", controlID);
+        input.addProperty("event", "move");
+        input.addProperty("x", random.nextDouble() * 2 - 1);
+        input.addProperty("y", random.nextDouble() * 2 - 1);
+        return Collections.singletonList(input);
+    }
+}
@@ -0,0 +1,269 @@
+package com.mixer.interactive.test.load;
+
+import com.mixer.interactive.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable summary of a load run, produced by {@link ParticipantLoadGenerator#getReport(InputLatencyRecorder)}.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class LoadReport {
+
+    /**
+     * Number of participants that completed the websocket handshake
+     */
+    private final int participantsConnected;
+
+    /**
+     * Number of participants that failed to connect or were disconnected
+     */
+    private final int participantsFailed;
+
+    /**
+     * Number of inputs written to sockets
+     */
+    private final long inputsSent;
+
+    /**
+     * Number of inputs dropped because a participant's outbound queue was full
+     */
+    private final long inputsDropped;
+
+    /**
+     * Number of data frames received by participants
+     */
+    private final long framesReceived;
+
+    /**
+     * Number of inputs handled by the game client
+     */
+    private final long inputsHandled;
+
+    /**
+     * Duration of the run, in nanoseconds
+     */
+    private final long elapsedNanos;
+
+    /**
+     * 50th percentile input-to-handler latency, in milliseconds
+     */
+    private final double latencyP50;
+
+    /**
+     * 90th percentile input-to-handler latency, in milliseconds
+     */
+    private final double latencyP90;
+
+    /**
+     * 99th percentile input-to-handler latency, in milliseconds
+     */
+    private final double latencyP99;
+
+    /**
+     * Maximum input-to-handler latency, in milliseconds
+     */
+    private final double latencyMax;
+
+    /**
+     * Initializes a new <code>LoadReport</code>.
+     *
+     * @param   participantsConnected
+     *          Number of participants that completed the websocket handshake
+     * @param   participantsFailed
+     *          Number of participants that failed to connect or were disconnected
+     * @param   inputsSent
+     *          Number of inputs written to sockets
+     * @param   inputsDropped
+     *          Number of inputs dropped because a participant's outbound queue was full
+     * @param   framesReceived
+     *          Number of data frames received by participants
+     * @param   elapsedNanos
+     *          Duration of the run, in nanoseconds
+     * @param   recorder
+     *          Recorder of the inputs handled by the game client, may be <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    LoadReport(int participantsConnected, int participantsFailed, long inputsSent, long inputsDropped, long framesReceived, long elapsedNanos, InputLatencyRecorder recorder) {
+        this.participantsConnected = participantsConnected;
+        this.participantsFailed = participantsFailed;
+        this.inputsSent = inputsSent;
+        this.inputsDropped = inputsDropped;
+        this.framesReceived = framesReceived;
+        this.elapsedNanos = elapsedNanos;
+        LatencyHistogram latencies = recorder != null ? recorder.getLatencies() : new LatencyHistogram();
+        this.inputsHandled = recorder != null ? recorder.getHandledCount() : 0;
+        this.latencyP50 = latencies.getValueAtPercentile(50, TimeUnit.MILLISECONDS);
+        this.latencyP90 = latencies.getValueAtPercentile(90, TimeUnit.MILLISECONDS);
+        this.latencyP99 = latencies.getValueAtPercentile(99, TimeUnit.MILLISECONDS);
+        this.latencyMax = latencies.getMax() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the number of participants that completed the websocket handshake.
+     *
+     * @return  The number of participants that completed the websocket handshake
+     *
+     * @since   3.3.0
+     */
+    public int getParticipantsConnected() {
+        return participantsConnected;
+    }
+
+    /**
+     * Returns the number of participants that failed to connect or were disconnected.
+     *
+     * @return  The number of participants that failed to connect or were disconnected
+     *
+     * @since   3.3.0
+     */
+    public int getParticipantsFailed() {
+        return participantsFailed;
+    }
+
+    /**
+     * Returns the number of inputs written to sockets.
+     *
+     * @return  The number of inputs written to sockets
+     *
+     * @since   3.3.0
+     */
+    public long getInputsSent() {
+        return inputsSent;
+    }
+
+    /**
+     * Returns the number of inputs dropped because a participant's outbound queue was full.
+     *
+     * @return  The number of inputs dropped
+     *
+     * @since   3.3.0
+     */
+    public long getInputsDropped() {
+        return inputsDropped;
+    }
+
+    /**
+     * Returns the number of data frames received by participants.
+     *
+     * @return  The number of data frames received by participants
+     *
+     * @since   3.3.0
+     */
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    /**
+     * Returns the number of inputs handled by the game client.
+     *
+     * @return  The number of inputs handled by the game client
+     *
+     * @since   3.3.0
+     */
+    public long getInputsHandled() {
+        return inputsHandled;
+    }
+
+    /**
+     * Returns the duration of the run.
+     *
+     * @param   timeUnit
+     *          Unit to return the duration in
+     *
+     * @return  The duration of the run
+     *
+     * @since   3.3.0
+     */
+    public long getElapsed(TimeUnit timeUnit) {
+        return timeUnit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the achieved rate of inputs written to sockets, per second.
+     *
+     * @return  The achieved send rate
+     *
+     * @since   3.3.0
+     */
+    public double getSendRate() {
+        return ratePerSecond(inputsSent);
+    }
+
+    /**
+     * Returns the achieved rate of inputs handled by the game client, per second.
+     *
+     * @return  The achieved handled rate
+     *
+     * @since   3.3.0
+     */
+    public double getHandledRate() {
+        return ratePerSecond(inputsHandled);
+    }
+
+    /**
+     * Returns an input-to-handler latency percentile, in milliseconds.
+     *
+     * @param   percentile
+     *          One of <code>50</code>, <code>90</code> or <code>99</code>
+     *
+     * @return  The latency at the percentile, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    public double getLatencyPercentile(int percentile) {
+        switch (percentile) {
+            case 50:
+                return latencyP50;
+            case 90:
+                return latencyP90;
+            case 99:
+                return latencyP99;
+            default:
+                throw new IllegalArgumentException("Only the 50th, 90th and 99th percentiles are reported");
+        }
+    }
+
+    /**
+     * Returns the maximum input-to-handler latency, in milliseconds.
+     *
+     * @return  The maximum latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    public double getLatencyMax() {
+        return latencyMax;
+    }
+
+    /**
+     * Returns a count as a rate per second over the run.
+     *
+     * @param   count
+     *          The count
+     *
+     * @return  The rate per second
+     *
+     * @since   3.3.0
+     */
+    private double ratePerSecond(long count) {
+        return elapsedNanos > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("participants: %d connected, %d failed%n"
+                + "inputs:       %d sent (%.1f/s), %d dropped, %d handled (%.1f/s)%n"
+                + "frames:       %d received%n"
+                + "latency (ms): p50 %.3f, p90 %.3f, p99 %.3f, max %.3f%n"
+                + "elapsed:      %d ms",
+                participantsConnected, participantsFailed,
+                inputsSent, getSendRate(), inputsDropped, inputsHandled, getHandledRate(),
+                framesReceived,
+                latencyP50, latencyP90, latencyP99, latencyMax,
+                getElapsed(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,1109 @@
+package com.mixer.interactive.test.load;
+
+import com.google.gson.JsonObject;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Simulates large numbers of participants giving input to an Interactive participant endpoint (normally an
+ * <code>InteractiveStandInServer</code>) from a single process.</p>
+ *
+ * <p>Participants are not backed by threads or full websocket clients. A single selector thread drives one
+ * non-blocking <code>SocketChannel</code> per participant, performs the websocket upgrade by hand, and only parses
+ * frame headers of inbound traffic, counting data frames and skipping their payloads. This keeps the per-participant
+ * cost to a socket and a few hundred bytes of heap, so tens of thousands of participants can be simulated.</p>
+ *
+ * <p>Each participant gives input as described by an {@link IInputProfile}. Every input carries a
+ * <code>sentAt</code> field holding the value of {@link System#nanoTime()} when it was queued, which an
+ * {@link InputLatencyRecorder} registered on the <code>GameClient</code> turns into input-to-handler latency.</p>
+ *
+ * <p>Each connection to the same destination consumes an ephemeral port on the local address, so a single local
+ * address is limited to roughly 28,000 participants on a default Linux configuration. Use
+ * {@link #setLocalAddresses(InetAddress...)} with several loopback addresses (for example <code>127.0.0.2</code>,
+ * <code>127.0.0.3</code>) to go beyond that.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class ParticipantLoadGenerator {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * GUID appended to the websocket key when computing the accept header (RFC 6455, section 1.3)
+     */
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    /**
+     * First user ID assigned to simulated participants
+     */
+    private static final int FIRST_USER_ID = 1_000_000;
+
+    /**
+     * Opcode of a text frame
+     */
+    private static final int OPCODE_TEXT = 0x1;
+
+    /**
+     * Opcode of a binary frame
+     */
+    private static final int OPCODE_BINARY = 0x2;
+
+    /**
+     * Opcode of a close frame. Opcodes from this value up are control frames.
+     */
+    private static final int OPCODE_CLOSE = 0x8;
+
+    /**
+     * Opcode of a ping frame
+     */
+    private static final int OPCODE_PING = 0x9;
+
+    /**
+     * Opcode of a pong frame
+     */
+    private static final int OPCODE_PONG = 0xA;
+
+    /**
+     * Largest frame header (2 bytes, 8 byte extended length) plus largest control frame payload
+     */
+    private static final int MAX_PENDING_BYTES = 10 + 125;
+
+    /**
+     * Largest handshake response accepted
+     */
+    private static final int MAX_HANDSHAKE_BYTES = 8192;
+
+    /**
+     * Payload of a close frame with the normal closure status code (RFC 6455, section 7.4.1)
+     */
+    private static final byte[] NORMAL_CLOSURE = { 0x03, (byte) 0xE8 };
+
+    /**
+     * Time to wait for the server to close connections when stopping, in milliseconds
+     */
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+    /**
+     * Participant endpoint to connect to
+     */
+    private final URI participantURI;
+
+    /**
+     * Input profile of every participant
+     */
+    private final IInputProfile inputProfile;
+
+    /**
+     * Number of participants to connect
+     */
+    private int participantCount = 1000;
+
+    /**
+     * Number of participants connected per second
+     */
+    private int connectRate = 5000;
+
+    /**
+     * Maximum number of participants connecting at the same time. Connecting faster than the server accepts
+     * connections overflows its listen backlog, and dropped connection attempts are only retried after a second.
+     */
+    private int maxPendingConnections = 64;
+
+    /**
+     * Number of participants that are connecting. Only accessed from the selector thread.
+     */
+    private int pendingConnections;
+
+    /**
+     * Maximum number of frames queued for a participant before further input is dropped
+     */
+    private int maxQueuedFrames = 64;
+
+    /**
+     * Seed of the random number generator driving input timing and content
+     */
+    private long seed = 0;
+
+    /**
+     * Local addresses connections are bound to, in rotation
+     */
+    private InetAddress[] localAddresses = new InetAddress[0];
+
+    /**
+     * Number of participants that completed the websocket handshake
+     */
+    private final LongAdder connected = new LongAdder();
+
+    /**
+     * Number of participants that failed to connect or were disconnected
+     */
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Number of inputs written to sockets
+     */
+    private final LongAdder inputsSent = new LongAdder();
+
+    /**
+     * Number of inputs dropped because a participant's outbound queue was full
+     */
+    private final LongAdder inputsDropped = new LongAdder();
+
+    /**
+     * Number of data frames received by participants
+     */
+    private final LongAdder framesReceived = new LongAdder();
+
+    /**
+     * Selector multiplexing every participant's channel
+     */
+    private Selector selector;
+
+    /**
+     * Thread running the selector loop
+     */
+    private Thread thread;
+
+    /**
+     * Whether the selector loop is running
+     */
+    private volatile boolean running;
+
+    /**
+     * Value of {@link System#nanoTime()} when the run started
+     */
+    private volatile long startedAt;
+
+    /**
+     * Value of {@link System#nanoTime()} when the run stopped, or <code>0</code> while running
+     */
+    private volatile long stoppedAt;
+
+    /**
+     * Initializes a new <code>ParticipantLoadGenerator</code>.
+     *
+     * @param   participantURI
+     *          Participant endpoint to connect to
+     * @param   inputProfile
+     *          Input profile of every participant
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator(URI participantURI, IInputProfile inputProfile) {
+        if (participantURI == null || inputProfile == null) {
+            LOG.fatal("A participant URI and input profile are required");
+            throw new IllegalArgumentException("A participant URI and input profile are required");
+        }
+        this.participantURI = participantURI;
+        this.inputProfile = inputProfile;
+    }
+
+    /**
+     * Sets the number of participants to connect.
+     *
+     * @param   participantCount
+     *          Number of participants to connect
+     *
+     * @return  The load generator
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator setParticipantCount(int participantCount) {
+        this.participantCount = participantCount;
+        return this;
+    }
+
+    /**
+     * Sets the number of participants connected per second while ramping up.
+     *
+     * @param   connectRate
+     *          Number of participants connected per second
+     *
+     * @return  The load generator
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator setConnectRate(int connectRate) {
+        if (connectRate <= 0) {
+            LOG.fatal("Connect rate must be positive");
+            throw new IllegalArgumentException("Connect rate must be positive");
+        }
+        this.connectRate = connectRate;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of participants connecting at the same time.
+     *
+     * @param   maxPendingConnections
+     *          Maximum number of participants connecting at the same time
+     *
+     * @return  The load generator
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator setMaxPendingConnections(int maxPendingConnections) {
+        if (maxPendingConnections <= 0) {
+            LOG.fatal("Maximum pending connections must be positive");
+            throw new IllegalArgumentException("Maximum pending connections must be positive");
+        }
+        this.maxPendingConnections = maxPendingConnections;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of frames queued for a participant before further input is dropped.
+     *
+     * @param   maxQueuedFrames
+     *          Maximum number of queued frames
+     *
+     * @return  The load generator
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator setMaxQueuedFrames(int maxQueuedFrames) {
+        this.maxQueuedFrames = maxQueuedFrames;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the random number generator driving input timing and content.
+     *
+     * @param   seed
+     *          The seed
+     *
+     * @return  The load generator
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets the local addresses connections are bound to, in rotation.
+     *
+     * @param   localAddresses
+     *          Local addresses to bind to
+     *
+     * @return  The load generator
+     *
+     * @since   3.3.0
+     */
+    public ParticipantLoadGenerator setLocalAddresses(InetAddress ... localAddresses) {
+        this.localAddresses = localAddresses.clone();
+        return this;
+    }
+
+    /**
+     * Starts connecting participants and giving input.
+     *
+     * @return  The load generator
+     *
+     * @throws  IOException
+     *          If the selector cannot be opened
+     *
+     * @since   3.3.0
+     */
+    public synchronized ParticipantLoadGenerator start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Load generator is already running");
+        }
+        selector = Selector.open();
+        running = true;
+        startedAt = System.nanoTime();
+        stoppedAt = 0;
+        thread = new Thread(this::run, "participant-load-generator");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Stops giving input and disconnects every participant.
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting for the selector thread to finish
+     *
+     * @since   3.3.0
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        stoppedAt = System.nanoTime();
+        selector.wakeup();
+        thread.join();
+    }
+
+    /**
+     * Returns a report of the run so far, or of the whole run once stopped.
+     *
+     * @param   recorder
+     *          Recorder registered on the <code>GameClient</code> receiving the input, may be <code>null</code>
+     *
+     * @return  The report
+     *
+     * @since   3.3.0
+     */
+    public LoadReport getReport(InputLatencyRecorder recorder) {
+        long end = stoppedAt != 0 ? stoppedAt : System.nanoTime();
+        return new LoadReport(connected.intValue(), failed.intValue(), inputsSent.sum(), inputsDropped.sum(), framesReceived.sum(), end - startedAt, recorder);
+    }
+
+    /**
+     * Runs the selector loop until stopped.
+     *
+     * @since   3.3.0
+     */
+    private void run() {
+        Random random = new Random(seed);
+        PriorityQueue<Participant> schedule = new PriorityQueue<>(Comparator.comparingLong(p -> p.nextInputAt));
+        List<Participant> participants = new ArrayList<>(participantCount);
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(64 * 1024);
+        long connectIntervalNanos = TimeUnit.SECONDS.toNanos(1) / connectRate;
+        long nextConnectAt = System.nanoTime();
+
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (now - nextConnectAt > TimeUnit.MILLISECONDS.toNanos(100)) {
+                    nextConnectAt = now - TimeUnit.MILLISECONDS.toNanos(100);
+                }
+                while (participants.size() < participantCount && pendingConnections < maxPendingConnections && now - nextConnectAt >= 0) {
+                    participants.add(connect(participants.size()));
+                    nextConnectAt += connectIntervalNanos;
+                }
+
+                while (!schedule.isEmpty() && now - schedule.peek().nextInputAt >= 0) {
+                    Participant participant = schedule.poll();
+                    if (participant.state != Participant.OPEN) {
+                        continue;
+                    }
+                    for (JsonObject input : inputProfile.nextInputs(random)) {
+                        giveInput(participant, input, random);
+                    }
+                    participant.nextInputAt += inputProfile.nextDelayNanos(random);
+                    schedule.add(participant);
+                }
+
+                long wakeAt = schedule.isEmpty() ? now + TimeUnit.MILLISECONDS.toNanos(100) : schedule.peek().nextInputAt;
+                if (participants.size() < participantCount && pendingConnections < maxPendingConnections && wakeAt - nextConnectAt > 0) {
+                    wakeAt = nextConnectAt;
+                }
+                long timeoutMillis = TimeUnit.NANOSECONDS.toMillis(wakeAt - System.nanoTime());
+                if (timeoutMillis > 0) {
+                    selector.select(timeoutMillis);
+                }
+                else {
+                    selector.selectNow();
+                }
+
+                processSelectedKeys(readBuffer, random, schedule);
+            }
+            closeGracefully(participants, readBuffer, random, schedule);
+        }
+        catch (IOException e) {
+            LOG.error("Load generator selector failed", e);
+        }
+        finally {
+            for (Participant participant : participants) {
+                if (participant.state != Participant.CLOSED) {
+                    participant.state = Participant.CLOSED;
+                    closeQuietly(participant.channel);
+                }
+            }
+            try {
+                selector.close();
+            }
+            catch (IOException e) {
+                // NO-OP
+            }
+        }
+    }
+
+    /**
+     * Handles the channels selected by the last select operation.
+     *
+     * @param   readBuffer
+     *          Buffer shared by every participant
+     * @param   random
+     *          Random number generator
+     * @param   schedule
+     *          Participants ordered by the time of their next input
+     *
+     * @since   3.3.0
+     */
+    private void processSelectedKeys(ByteBuffer readBuffer, Random random, PriorityQueue<Participant> schedule) {
+        for (SelectionKey key : selector.selectedKeys()) {
+            Participant participant = (Participant) key.attachment();
+            try {
+                if (key.isConnectable()) {
+                    finishConnect(participant);
+                }
+                if (key.isValid() && key.isReadable()) {
+                    read(participant, readBuffer, random, schedule);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(participant);
+                }
+            }
+            catch (IOException e) {
+                LOG.debug(String.format("Participant %s failed: %s", participant.index, e.getMessage()));
+                close(participant);
+            }
+        }
+        selector.selectedKeys().clear();
+    }
+
+    /**
+     * Sends a close frame to every open participant and waits, for up to <code>CLOSE_TIMEOUT_MILLIS</code>, for the
+     * server to close each connection. Closing sockets abruptly could reset connections that still have input in
+     * flight.
+     *
+     * @param   participants
+     *          Every participant
+     * @param   readBuffer
+     *          Buffer shared by every participant
+     * @param   random
+     *          Random number generator
+     * @param   schedule
+     *          Participants ordered by the time of their next input
+     *
+     * @throws  IOException
+     *          If the selector fails
+     *
+     * @since   3.3.0
+     */
+    private void closeGracefully(List<Participant> participants, ByteBuffer readBuffer, Random random, PriorityQueue<Participant> schedule) throws IOException {
+        int remaining = 0;
+        for (Participant participant : participants) {
+            if (participant.state == Participant.OPEN) {
+                try {
+                    enqueue(participant, frame(OPCODE_CLOSE, NORMAL_CLOSURE, 0, NORMAL_CLOSURE.length, participant.maskRandom), false);
+                    participant.state = Participant.CLOSE_SENT;
+                    remaining++;
+                }
+                catch (IOException e) {
+                    close(participant);
+                }
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        while (remaining > 0 && System.nanoTime() < deadline) {
+            selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            processSelectedKeys(readBuffer, random, schedule);
+            remaining = 0;
+            for (Participant participant : participants) {
+                if (participant.state == Participant.CLOSE_SENT) {
+                    remaining++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a non-blocking connection for a new participant.
+     *
+     * @param   index
+     *          Index of the participant
+     *
+     * @return  The participant
+     *
+     * @since   3.3.0
+     */
+    private Participant connect(int index) {
+        Participant participant = new Participant(index);
+        pendingConnections++;
+        try {
+            participant.channel = SocketChannel.open();
+            participant.channel.configureBlocking(false);
+            participant.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            if (localAddresses.length > 0) {
+                participant.channel.bind(new InetSocketAddress(localAddresses[index % localAddresses.length], 0));
+            }
+            participant.key = participant.channel.register(selector, SelectionKey.OP_CONNECT, participant);
+            if (participant.channel.connect(new InetSocketAddress(participantURI.getHost(), participantURI.getPort()))) {
+                finishConnect(participant);
+            }
+        }
+        catch (IOException e) {
+            LOG.debug(String.format("Participant %s failed to connect: %s", index, e.getMessage()));
+            close(participant);
+        }
+        return participant;
+    }
+
+    /**
+     * Completes a connection and sends the websocket upgrade request.
+     *
+     * @param   participant
+     *          The participant
+     *
+     * @throws  IOException
+     *          If the connection fails
+     *
+     * @since   3.3.0
+     */
+    private void finishConnect(Participant participant) throws IOException {
+        if (!participant.channel.finishConnect()) {
+            return;
+        }
+        byte[] nonce = new byte[16];
+        participant.maskRandom.nextBytes(nonce);
+        participant.websocketKey = Base64.getEncoder().encodeToString(nonce);
+
+        JsonObject authUser = new JsonObject();
+        authUser.addProperty("userID", FIRST_USER_ID + participant.index);
+        authUser.addProperty("username", "load-" + participant.index);
+        authUser.addProperty("level", 1);
+
+        String path = participantURI.getRawPath() != null && !participantURI.getRawPath().isEmpty() ? participantURI.getRawPath() : "/";
+        if (participantURI.getRawQuery() != null) {
+            path += "?" + participantURI.getRawQuery();
+        }
+        String request = "GET " + path + " HTTP/1.1\r\n"
+                + "Host: " + participantURI.getHost() + ":" + participantURI.getPort() + "\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: " + participant.websocketKey + "\r\n"
+                + "Sec-WebSocket-Version: 13\r\n"
+                + "X-Protocol-Version: 2.0\r\n"
+                + "X-Auth-User: " + authUser + "\r\n"
+                + "\r\n";
+        participant.state = Participant.HANDSHAKING;
+        participant.handshake = new byte[MAX_HANDSHAKE_BYTES];
+        participant.key.interestOps(SelectionKey.OP_READ);
+        enqueue(participant, ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII)), false);
+    }
+
+    /**
+     * Reads and processes everything available on a participant's channel.
+     *
+     * @param   participant
+     *          The participant
+     * @param   readBuffer
+     *          Buffer shared by every participant
+     * @param   random
+     *          Random number generator
+     * @param   schedule
+     *          Participants ordered by the time of their next input
+     *
+     * @throws  IOException
+     *          If the connection fails
+     *
+     * @since   3.3.0
+     */
+    private void read(Participant participant, ByteBuffer readBuffer, Random random, PriorityQueue<Participant> schedule) throws IOException {
+        while (participant.state != Participant.CLOSED) {
+            readBuffer.clear();
+            int read = participant.channel.read(readBuffer);
+            if (read < 0) {
+                close(participant);
+                return;
+            }
+            if (read == 0) {
+                return;
+            }
+            readBuffer.flip();
+
+            if (participant.state == Participant.HANDSHAKING && !readHandshake(participant, readBuffer)) {
+                continue;
+            }
+            if (participant.state == Participant.OPEN && participant.nextInputAt == 0) {
+                connected.increment();
+                participant.nextInputAt = System.nanoTime() + (long) (random.nextDouble() * inputProfile.nextDelayNanos(random)) + 1;
+                schedule.add(participant);
+            }
+            readFrames(participant, readBuffer);
+        }
+    }
+
+    /**
+     * Accumulates the websocket upgrade response, validating it once complete.
+     *
+     * @param   participant
+     *          The participant
+     * @param   buffer
+     *          Bytes read from the channel. On return, positioned after the end of the response.
+     *
+     * @return  <code>true</code> if the response is complete, <code>false</code> otherwise
+     *
+     * @throws  IOException
+     *          If the response is invalid
+     *
+     * @since   3.3.0
+     */
+    private boolean readHandshake(Participant participant, ByteBuffer buffer) throws IOException {
+        byte[] handshake = participant.handshake;
+        while (buffer.hasRemaining()) {
+            if (participant.pendingLength == handshake.length) {
+                throw new IOException("Handshake response is too large");
+            }
+            handshake[participant.pendingLength++] = buffer.get();
+            int length = participant.pendingLength;
+            if (length >= 4 && handshake[length - 4] == '\r' && handshake[length - 3] == '\n' && handshake[length - 2] == '\r' && handshake[length - 1] == '\n') {
+                String response = new String(handshake, 0, length, StandardCharsets.US_ASCII);
+                if (!response.startsWith("HTTP/1.1 101")) {
+                    throw new IOException("Upgrade refused: " + response.substring(0, response.indexOf('\r')));
+                }
+                if (!response.contains(expectedAccept(participant.websocketKey))) {
+                    throw new IOException("Upgrade response has an invalid Sec-WebSocket-Accept header");
+                }
+                participant.handshake = null;
+                participant.pendingLength = 0;
+                participant.state = Participant.OPEN;
+                pendingConnections--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses inbound frames, counting data frames and answering control frames. Only frame headers and control frame
+     * payloads are retained between reads; data frame payloads are skipped.
+     *
+     * @param   participant
+     *          The participant
+     * @param   buffer
+     *          Bytes read from the channel
+     *
+     * @throws  IOException
+     *          If a frame is invalid
+     *
+     * @since   3.3.0
+     */
+    private void readFrames(Participant participant, ByteBuffer buffer) throws IOException {
+        byte[] pending = participant.pending;
+        while (buffer.hasRemaining() && (participant.state == Participant.OPEN || participant.state == Participant.CLOSE_SENT)) {
+            if (participant.skip > 0) {
+                int skipped = (int) Math.min(participant.skip, buffer.remaining());
+                buffer.position(buffer.position() + skipped);
+                participant.skip -= skipped;
+                continue;
+            }
+
+            pending[participant.pendingLength++] = buffer.get();
+            if (participant.pendingLength < 2) {
+                continue;
+            }
+            int lengthByte = pending[1] & 0x7F;
+            int headerLength = lengthByte == 127 ? 10 : lengthByte == 126 ? 4 : 2;
+            if (participant.pendingLength < headerLength) {
+                continue;
+            }
+            long payloadLength = lengthByte;
+            if (lengthByte == 126) {
+                payloadLength = ((pending[2] & 0xFF) << 8) | (pending[3] & 0xFF);
+            }
+            else if (lengthByte == 127) {
+                payloadLength = 0;
+                for (int i = 2; i < 10; i++) {
+                    payloadLength = (payloadLength << 8) | (pending[i] & 0xFF);
+                }
+            }
+
+            int opcode = pending[0] & 0x0F;
+            if (opcode < OPCODE_CLOSE) {
+                if (opcode == OPCODE_TEXT || opcode == OPCODE_BINARY) {
+                    framesReceived.increment();
+                }
+                participant.skip = payloadLength;
+                participant.pendingLength = 0;
+            }
+            else if (payloadLength > MAX_PENDING_BYTES - headerLength) {
+                throw new IOException("Control frame is too large");
+            }
+            else if (participant.pendingLength == headerLength + payloadLength) {
+                participant.pendingLength = 0;
+                if (opcode == OPCODE_PING) {
+                    enqueue(participant, frame(OPCODE_PONG, pending, headerLength, (int) payloadLength, participant.maskRandom), false);
+                }
+                else if (opcode == OPCODE_CLOSE && participant.state == Participant.CLOSE_SENT) {
+                    close(participant);
+                }
+                else if (opcode == OPCODE_CLOSE) {
+                    enqueue(participant, frame(OPCODE_CLOSE, pending, headerLength, (int) payloadLength, participant.maskRandom), false);
+                    participant.state = Participant.CLOSING;
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a <code>giveInput</code> method for a participant, dropping it if the participant's outbound queue is
+     * full.
+     *
+     * @param   participant
+     *          The participant
+     * @param   input
+     *          The input object
+     * @param   random
+     *          Random number generator
+     *
+     * @since   3.3.0
+     */
+    private void giveInput(Participant participant, JsonObject input, Random random) {
+        if (participant.outbound.size() >= maxQueuedFrames) {
+            inputsDropped.increment();
+            return;
+        }
+        input.addProperty(InputLatencyRecorder.SENT_AT_FIELD, System.nanoTime());
+        JsonObject params = new JsonObject();
+        params.add("input", input);
+        byte[] payload = GameClient.GSON.toJson(new MethodPacket(participant.nextPacketID++, InteractiveMethod.GIVE_INPUT, params, true)).getBytes(StandardCharsets.UTF_8);
+        try {
+            enqueue(participant, frame(OPCODE_TEXT, payload, 0, payload.length, random), true);
+        }
+        catch (IOException e) {
+            LOG.debug(String.format("Participant %s failed: %s", participant.index, e.getMessage()));
+            close(participant);
+        }
+    }
+
+    /**
+     * Queues bytes for a participant and attempts to write them immediately.
+     *
+     * @param   participant
+     *          The participant
+     * @param   data
+     *          The bytes to write
+     * @param   input
+     *          <code>true</code> if the bytes are an input frame, <code>false</code> otherwise
+     *
+     * @throws  IOException
+     *          If the connection fails
+     *
+     * @since   3.3.0
+     */
+    private void enqueue(Participant participant, ByteBuffer data, boolean input) throws IOException {
+        participant.outbound.add(new OutboundFrame(data, input));
+        if (participant.outbound.size() == 1) {
+            flush(participant);
+        }
+    }
+
+    /**
+     * Writes as much of a participant's outbound queue as the channel accepts, registering for write readiness if
+     * anything remains.
+     *
+     * @param   participant
+     *          The participant
+     *
+     * @throws  IOException
+     *          If the connection fails
+     *
+     * @since   3.3.0
+     */
+    private void flush(Participant participant) throws IOException {
+        OutboundFrame frame;
+        while ((frame = participant.outbound.peek()) != null) {
+            participant.channel.write(frame.data);
+            if (frame.data.hasRemaining()) {
+                participant.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            participant.outbound.poll();
+            if (frame.input) {
+                inputsSent.increment();
+            }
+        }
+        if (participant.state == Participant.CLOSING) {
+            close(participant);
+        }
+        else if (participant.key.isValid()) {
+            participant.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Closes a participant's connection, counting it as failed unless the load generator is stopping.
+     *
+     * @param   participant
+     *          The participant
+     *
+     * @since   3.3.0
+     */
+    private void close(Participant participant) {
+        if (participant.state == Participant.CLOSED) {
+            return;
+        }
+        if (participant.state == Participant.CONNECTING || participant.state == Participant.HANDSHAKING) {
+            pendingConnections--;
+        }
+        participant.state = Participant.CLOSED;
+        participant.outbound.clear();
+        closeQuietly(participant.channel);
+        if (running) {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Closes a channel, ignoring any exception.
+     *
+     * @param   channel
+     *          The channel, may be <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    private static void closeQuietly(SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            }
+            catch (IOException e) {
+                // NO-OP
+            }
+        }
+    }
+
+    /**
+     * Builds a masked client-to-server frame (RFC 6455, section 5.2).
+     *
+     * @param   opcode
+     *          Opcode of the frame
+     * @param   source
+     *          Array holding the payload
+     * @param   offset
+     *          Offset of the payload in the array
+     * @param   length
+     *          Length of the payload
+     * @param   random
+     *          Random number generator used for the masking key
+     *
+     * @return  The frame, ready to be written
+     *
+     * @since   3.3.0
+     */
+    private static ByteBuffer frame(int opcode, byte[] source, int offset, int length, Random random) {
+        int headerLength = length < 126 ? 2 : length <= 0xFFFF ? 4 : 10;
+        ByteBuffer frame = ByteBuffer.allocate(headerLength + 4 + length);
+        frame.put((byte) (0x80 | opcode));
+        if (length < 126) {
+            frame.put((byte) (0x80 | length));
+        }
+        else if (length <= 0xFFFF) {
+            frame.put((byte) (0x80 | 126));
+            frame.putShort((short) length);
+        }
+        else {
+            frame.put((byte) (0x80 | 127));
+            frame.putLong(length);
+        }
+        int mask = random.nextInt();
+        frame.putInt(mask);
+        for (int i = 0; i < length; i++) {
+            frame.put((byte) (source[offset + i] ^ (mask >>> (24 - 8 * (i & 3)))));
+        }
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Computes the <code>Sec-WebSocket-Accept</code> header expected for a websocket key.
+     *
+     * @param   websocketKey
+     *          The websocket key sent in the upgrade request
+     *
+     * @return  The expected header value
+     *
+     * @since   3.3.0
+     */
+    private static String expectedAccept(String websocketKey) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            return Base64.getEncoder().encodeToString(sha1.digest((websocketKey + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * A frame queued for writing.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    private static final class OutboundFrame {
+
+        /**
+         * Bytes of the frame
+         */
+        private final ByteBuffer data;
+
+        /**
+         * Whether the frame is an input
+         */
+        private final boolean input;
+
+        /**
+         * Initializes a new <code>OutboundFrame</code>.
+         *
+         * @param   data
+         *          Bytes of the frame
+         * @param   input
+         *          <code>true</code> if the frame is an input, <code>false</code> otherwise
+         *
+         * @since   3.3.0
+         */
+        private OutboundFrame(ByteBuffer data, boolean input) {
+            this.data = data;
+            this.input = input;
+        }
+    }
+
+    /**
+     * Connection state of a simulated participant. Only accessed from the selector thread.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    private static final class Participant {
+
+        /**
+         * The TCP connection is being established
+         */
+        private static final int CONNECTING = 0;
+
+        /**
+         * The websocket upgrade request has been sent
+         */
+        private static final int HANDSHAKING = 1;
+
+        /**
+         * The websocket connection is open
+         */
+        private static final int OPEN = 2;
+
+        /**
+         * A close frame has been received and the reply is being written
+         */
+        private static final int CLOSING = 3;
+
+        /**
+         * The connection is closed
+         */
+        private static final int CLOSED = 4;
+
+        /**
+         * A close frame has been sent and the server's reply is awaited
+         */
+        private static final int CLOSE_SENT = 5;
+
+        /**
+         * Index of the participant
+         */
+        private final int index;
+
+        /**
+         * Random number generator for handshake nonces and control frame masks
+         */
+        private final Random maskRandom;
+
+        /**
+         * Bytes of a partially read frame header or control frame
+         */
+        private final byte[] pending = new byte[MAX_PENDING_BYTES];
+
+        /**
+         * Frames queued for writing
+         */
+        private final ArrayDeque<OutboundFrame> outbound = new ArrayDeque<>(4);
+
+        /**
+         * Channel of the connection
+         */
+        private SocketChannel channel;
+
+        /**
+         * Selection key of the channel
+         */
+        private SelectionKey key;
+
+        /**
+         * Connection state
+         */
+        private int state = CONNECTING;
+
+        /**
+         * Websocket key sent in the upgrade request
+         */
+        private String websocketKey;
+
+        /**
+         * Bytes of a partially read upgrade response, released once the connection is open
+         */
+        private byte[] handshake;
+
+        /**
+         * Number of bytes in <code>pending</code> or <code>handshake</code>
+         */
+        private int pendingLength;
+
+        /**
+         * Number of payload bytes of the current data frame still to be skipped
+         */
+        private long skip;
+
+        /**
+         * Value of {@link System#nanoTime()} when the next input is due, or <code>0</code> before the first is scheduled
+         */
+        private long nextInputAt;
+
+        /**
+         * Identifier of the next packet sent
+         */
+        private int nextPacketID;
+
+        /**
+         * Initializes a new <code>Participant</code>.
+         *
+         * @param   index
+         *          Index of the participant
+         *
+         * @since   3.3.0
+         */
+        private Participant(int index) {
+            this.index = index;
+            this.maskRandom = new Random(index);
+        }
+    }
+}
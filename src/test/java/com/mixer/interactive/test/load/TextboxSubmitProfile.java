@@ -0,0 +1,69 @@
+package com.mixer.interactive.test.load;
+
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates participants submitting text to a textbox: <code>submit</code> events carrying one of a set of phrases,
+ * arriving as a Poisson process.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class TextboxSubmitProfile implements IInputProfile {
+
+    /**
+     * Identifier of the textbox
+     */
+    private final String controlID;
+
+    /**
+     * Mean number of submissions per second, per participant
+     */
+    private final double submissionsPerSecond;
+
+    /**
+     * Phrases to choose from
+     */
+    private final String[] phrases;
+
+    /**
+     * Initializes a new <code>TextboxSubmitProfile</code>.
+     *
+     * @param   controlID
+     *          Identifier of the textbox
+     * @param   submissionsPerSecond
+     *          Mean number of submissions per second, per participant
+     * @param   phrases
+     *          Phrases to choose from
+     *
+     * @since   3.3.0
+     */
+    public TextboxSubmitProfile(String controlID, double submissionsPerSecond, String ... phrases) {
+        if (submissionsPerSecond <= 0 || phrases.length == 0) {
+            throw new IllegalArgumentException("Submissions per second must be positive and at least one phrase is required");
+        }
+        this.controlID = controlID;
+        this.submissionsPerSecond = submissionsPerSecond;
+        this.phrases = phrases.clone();
+    }
+
+    @Override
+    public long nextDelayNanos(Random random) {
+        return (long) (-Math.log(1 - random.nextDouble()) / submissionsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public List<JsonObject> nextInputs(Random random) {
+        JsonObject input = new JsonObject();
+        input.addProperty("controlID", controlID);
+        input.addProperty("event", "submit");
+        input.addProperty("value", phrases[random.nextInt(phrases.length)]);
+        return Collections.singletonList(input);
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Provides a load generator that simulates large numbers of participants giving input over multiplexed NIO.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.test.load;
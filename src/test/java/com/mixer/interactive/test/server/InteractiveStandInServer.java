@@ -0,0 +1,1114 @@
+package com.mixer.interactive.test.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.protocol.InteractiveError;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.test.server.StandInState.stringOrNull;
+
+/**
+ * <p>An in-process stand-in for the Interactive service. It accepts a game client on <code>/gameClient</code> and any
+ * number of participants on <code>/participant</code>, and implements the protocol methods in
+ * {@link InteractiveMethod}: hello, ready, scenes, groups, controls, participants, giveInput, capture, getTime,
+ * bandwidth throttling and memory warnings.</p>
+ *
+ * <p>Every frame received or sent is subject to the configured {@link NetworkConditions}. Frames travelling in the same
+ * direction on the same connection are never reordered, as they would not be over TCP. All protocol handling happens
+ * on a single event loop thread, so state changes are applied in the order their frames are delivered.</p>
+ *
+ * <p>Bandwidth throttles apply to method packets sent to the game client, as they do on the Interactive service.
+ * Packets that do not fit in the throttle are dropped and counted as rejected. A memory warning is sent to the game
+ * client when the size of its scenes, controls and groups first exceeds 80% of the memory limit.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class InteractiveStandInServer extends WebSocketServer {
+
+    /**
+     * Logger
+     */
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * Path that game clients connect to
+     */
+    public static final String GAME_CLIENT_PATH = "/gameClient";
+
+    /**
+     * Path that participants connect to
+     */
+    public static final String PARTICIPANT_PATH = "/participant";
+
+    /**
+     * Default memory limit reported to the game client, in bytes
+     */
+    public static final int DEFAULT_MEMORY_LIMIT = 16 * 1024 * 1024;
+
+    /**
+     * Fraction of the memory limit that triggers a memory warning
+     */
+    private static final double MEMORY_WARNING_THRESHOLD = 0.8;
+
+    /**
+     * Close code sent when a connection is refused
+     */
+    private static final int CLOSE_REFUSED = 4000;
+
+    /**
+     * Compression scheme supported by the stand-in
+     */
+    private static final String COMPRESSION_SCHEME = "text";
+
+    /**
+     * Json parser for inbound frames
+     */
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    /**
+     * Event loop on which all frames are delivered and handled
+     */
+    private final ScheduledExecutorService eventLoop;
+
+    /**
+     * Connections, by socket
+     */
+    private final Map<WebSocket, Connection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Throttles for methods sent to the game client
+     */
+    private final Map<InteractiveMethod, LeakyBucket> throttles = new EnumMap<>(InteractiveMethod.class);
+
+    /**
+     * Completes when the server is listening
+     */
+    private final CountDownLatch startLatch = new CountDownLatch(1);
+
+    /**
+     * Network conditions applied to every frame
+     */
+    private volatile NetworkConditions networkConditions = NetworkConditions.NONE;
+
+    /**
+     * Random number generator for network conditions and identifiers. Only used on the event loop.
+     */
+    private Random random = NetworkConditions.NONE.newRandom();
+
+    /**
+     * Scenes, groups, controls and participants. Only used on the event loop.
+     */
+    private StandInState state = new StandInState(random);
+
+    /**
+     * The connected game client, if any. Only used on the event loop.
+     */
+    private Connection gameClient;
+
+    /**
+     * Sequence number of the state, incremented on every change. Only used on the event loop.
+     */
+    private int sequenceNumber;
+
+    /**
+     * Whether the game client has reported that it is ready
+     */
+    private volatile boolean ready;
+
+    /**
+     * Memory limit reported to the game client, in bytes
+     */
+    private volatile int memoryLimit = DEFAULT_MEMORY_LIMIT;
+
+    /**
+     * Whether a memory warning was sent since usage last dropped below the threshold. Only used on the event loop.
+     */
+    private boolean memoryWarningIssued;
+
+    /**
+     * Whether update notifications are also sent to the game client, as the Interactive service does
+     */
+    private volatile boolean echoUpdates;
+
+    /**
+     * Initializes a new <code>InteractiveStandInServer</code> that listens on an ephemeral port of the loopback
+     * interface.
+     *
+     * @since   3.3.0
+     */
+    public InteractiveStandInServer() {
+        this(new InetSocketAddress("localhost", 0));
+    }
+
+    /**
+     * Initializes a new <code>InteractiveStandInServer</code>.
+     *
+     * @param   address
+     *          Address to listen on
+     *
+     * @since   3.3.0
+     */
+    public InteractiveStandInServer(InetSocketAddress address) {
+        super(address);
+        eventLoop = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "interactive-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the server and waits until it is listening.
+     *
+     * @return  This server
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting for the server to start
+     *
+     * @since   3.3.0
+     */
+    public InteractiveStandInServer startAndWait() throws InterruptedException {
+        start();
+        if (!startLatch.await(15, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Stand-in server did not start within 15 seconds");
+        }
+        return this;
+    }
+
+    /**
+     * Stops the server, closing all connections.
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting for the server to stop
+     *
+     * @since   3.3.0
+     */
+    public void shutdown() throws InterruptedException {
+        stop(1000);
+        eventLoop.shutdownNow();
+    }
+
+    /**
+     * Returns the <code>URI</code> game clients connect to.
+     *
+     * @return  The <code>URI</code> game clients connect to
+     *
+     * @since   3.3.0
+     */
+    public URI getGameClientURI() {
+        return URI.create(String.format("ws://%s:%s%s", getAddress().getHostString(), getPort(), GAME_CLIENT_PATH));
+    }
+
+    /**
+     * Returns the <code>URI</code> participants connect to.
+     *
+     * @return  The <code>URI</code> participants connect to
+     *
+     * @since   3.3.0
+     */
+    public URI getParticipantURI() {
+        return URI.create(String.format("ws://%s:%s%s", getAddress().getHostString(), getPort(), PARTICIPANT_PATH));
+    }
+
+    /**
+     * Returns the network conditions applied to every frame.
+     *
+     * @return  The network conditions applied to every frame
+     *
+     * @since   3.3.0
+     */
+    public NetworkConditions getNetworkConditions() {
+        return networkConditions;
+    }
+
+    /**
+     * Sets the network conditions applied to every frame, and reseeds the random number generator with their seed.
+     *
+     * @param   networkConditions
+     *          The network conditions applied to every frame
+     *
+     * @return  This server
+     *
+     * @since   3.3.0
+     */
+    public InteractiveStandInServer setNetworkConditions(NetworkConditions networkConditions) {
+        if (networkConditions == null) {
+            LOG.fatal("Network conditions must not be null");
+            throw new IllegalArgumentException("Network conditions must not be null");
+        }
+        this.networkConditions = networkConditions;
+        eventLoop.execute(() -> random = networkConditions.newRandom());
+        return this;
+    }
+
+    /**
+     * Sets the memory limit reported to the game client.
+     *
+     * @param   memoryLimit
+     *          Memory limit, in bytes
+     *
+     * @return  This server
+     *
+     * @since   3.3.0
+     */
+    public InteractiveStandInServer setMemoryLimit(int memoryLimit) {
+        if (memoryLimit <= 0) {
+            LOG.fatal("Memory limit must be positive");
+            throw new IllegalArgumentException("Memory limit must be positive");
+        }
+        this.memoryLimit = memoryLimit;
+        return this;
+    }
+
+    /**
+     * Sets whether notifications of updated controls, groups and scenes are also sent to the game client that made the
+     * updates, as the Interactive service does. By default they are only sent to participants.
+     *
+     * @param   echoUpdates
+     *          Whether update notifications are also sent to the game client
+     *
+     * @return  This server
+     *
+     * @since   3.3.0
+     */
+    public InteractiveStandInServer setEchoUpdates(boolean echoUpdates) {
+        this.echoUpdates = echoUpdates;
+        return this;
+    }
+
+    /**
+     * Returns <code>true</code> if the game client has reported that it is ready.
+     *
+     * @return  <code>true</code> if the game client has reported that it is ready, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the number of connected participants.
+     *
+     * @return  The number of connected participants
+     *
+     * @since   3.3.0
+     */
+    public int getParticipantCount() {
+        return call(() -> state.getParticipantCount());
+    }
+
+    /**
+     * Sends a memory warning to the game client, regardless of its memory usage.
+     *
+     * @since   3.3.0
+     */
+    public void issueMemoryWarning() {
+        eventLoop.execute(() -> sendToGameClient(InteractiveMethod.ISSUE_MEMORY_WARNING, state.getMemoryStats(memoryLimit)));
+    }
+
+    /**
+     * Discards all scenes, groups, controls and throttles, as if the game client had just connected for the first
+     * time.
+     *
+     * @since   3.3.0
+     */
+    public void reset() {
+        call(() -> {
+            state = new StandInState(random);
+            throttles.clear();
+            memoryWarningIssued = false;
+            ready = false;
+            return null;
+        });
+    }
+
+    @Override
+    public void onStart() {
+        LOG.info(String.format("Interactive stand-in server listening on port %s", getPort()));
+        startLatch.countDown();
+    }
+
+    @Override
+    public void onOpen(WebSocket socket, ClientHandshake handshake) {
+        String path = handshake.getResourceDescriptor();
+        if (!"2.0".equals(handshake.getFieldValue("X-Protocol-Version")) && !path.contains("x-protocol-version=2.0")) {
+            socket.close(CLOSE_REFUSED, "Unsupported protocol version");
+            return;
+        }
+
+        if (path.startsWith(GAME_CLIENT_PATH)) {
+            Connection connection = new Connection(socket, null);
+            connections.put(socket, connection);
+            eventLoop.execute(() -> openGameClient(connection));
+        }
+        else if (path.startsWith(PARTICIPANT_PATH)) {
+            JsonObject participant;
+            try {
+                JsonElement authUser = JSON_PARSER.parse(handshake.getFieldValue("X-Auth-User"));
+                participant = authUser.isJsonObject() ? authUser.getAsJsonObject() : new JsonObject();
+            }
+            catch (JsonParseException e) {
+                participant = new JsonObject();
+            }
+            Connection connection = new Connection(socket, participant);
+            connections.put(socket, connection);
+            eventLoop.execute(() -> openParticipant(connection));
+        }
+        else {
+            socket.close(CLOSE_REFUSED, "Unknown endpoint " + path);
+        }
+    }
+
+    @Override
+    public void onClose(WebSocket socket, int code, String reason, boolean remote) {
+        Connection connection = connections.remove(socket);
+        if (connection != null) {
+            eventLoop.execute(() -> close(connection));
+        }
+    }
+
+    @Override
+    public void onMessage(WebSocket socket, String message) {
+        Connection connection = connections.get(socket);
+        if (connection != null) {
+            eventLoop.execute(() -> deliverInbound(connection, message));
+        }
+    }
+
+    @Override
+    public void onMessage(WebSocket socket, ByteBuffer message) {
+        onMessage(socket, StandardCharsets.UTF_8.decode(message).toString());
+    }
+
+    @Override
+    public void onError(WebSocket socket, Exception ex) {
+        LOG.error("Interactive stand-in server encountered an error", ex);
+    }
+
+    /**
+     * Registers a newly connected game client, replacing any previous game client, and greets it.
+     *
+     * @param   connection
+     *          The game client connection
+     *
+     * @since   3.3.0
+     */
+    private void openGameClient(Connection connection) {
+        if (gameClient != null && gameClient.socket.isOpen()) {
+            gameClient.socket.close(CLOSE_REFUSED, "Another game client connected");
+        }
+        gameClient = connection;
+        ready = false;
+        sendMethod(connection, InteractiveMethod.HELLO, new JsonObject());
+    }
+
+    /**
+     * Registers a newly connected participant, greets it with the current scenes and groups, and notifies the game
+     * client that it joined.
+     *
+     * @param   connection
+     *          The participant connection
+     *
+     * @since   3.3.0
+     */
+    private void openParticipant(Connection connection) {
+        JsonObject participant = state.addParticipant(connection.participant);
+        connection.sessionID = participant.get("sessionID").getAsString();
+        sequenceNumber++;
+
+        sendMethod(connection, InteractiveMethod.HELLO, new JsonObject());
+        sendMethod(connection, InteractiveMethod.ON_PARTICIPANT_JOIN, single("participants", participant));
+        sendMethod(connection, InteractiveMethod.ON_GROUP_CREATE, params("groups", state.getGroups()));
+        sendMethod(connection, InteractiveMethod.ON_SCENE_CREATE, params("scenes", state.getScenes()));
+        sendMethod(connection, InteractiveMethod.ON_READY, readyParams());
+        sendToGameClient(InteractiveMethod.ON_PARTICIPANT_JOIN, single("participants", participant));
+    }
+
+    /**
+     * Cleans up after a connection closed.
+     *
+     * @param   connection
+     *          The connection that closed
+     *
+     * @since   3.3.0
+     */
+    private void close(Connection connection) {
+        if (connection == gameClient) {
+            gameClient = null;
+            ready = false;
+        }
+        else if (connection.sessionID != null) {
+            JsonObject participant = state.removeParticipant(connection.sessionID);
+            if (participant != null) {
+                sequenceNumber++;
+                sendToGameClient(InteractiveMethod.ON_PARTICIPANT_LEAVE, single("participants", participant));
+            }
+        }
+    }
+
+    /**
+     * Applies the network conditions to an inbound frame, then handles it once it is delivered.
+     *
+     * @param   connection
+     *          The connection the frame was received on
+     * @param   frame
+     *          The frame
+     *
+     * @since   3.3.0
+     */
+    private void deliverInbound(Connection connection, String frame) {
+        long delay = schedule(connection, true);
+        if (delay == 0) {
+            handleFrame(connection, frame);
+        }
+        else if (delay > 0) {
+            eventLoop.schedule(() -> handleFrame(connection, frame), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Applies the network conditions to an outbound frame, then sends it once it is due.
+     *
+     * @param   connection
+     *          The connection to send the frame on
+     * @param   frame
+     *          The frame
+     *
+     * @since   3.3.0
+     */
+    private void deliverOutbound(Connection connection, String frame) {
+        long delay = schedule(connection, false);
+        if (delay == 0) {
+            sendFrame(connection, frame);
+        }
+        else if (delay > 0) {
+            eventLoop.schedule(() -> sendFrame(connection, frame), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Decides the fate of a frame according to the network conditions. Frames are never delivered before an earlier
+     * frame travelling in the same direction on the same connection.
+     *
+     * @param   connection
+     *          The connection the frame travels on
+     * @param   inbound
+     *          <code>true</code> if the frame was received, <code>false</code> if it is being sent
+     *
+     * @return  Delay in nanoseconds until the frame is delivered, or <code>-1</code> if it is dropped
+     *
+     * @since   3.3.0
+     */
+    private long schedule(Connection connection, boolean inbound) {
+        NetworkConditions conditions = networkConditions;
+        if (conditions.shouldDrop(random)) {
+            LOG.debug(String.format("Stand-in dropped %s frame", inbound ? "inbound" : "outbound"));
+            return -1;
+        }
+
+        long now = System.nanoTime();
+        long due = now + TimeUnit.MILLISECONDS.toNanos(conditions.nextDelayMillis(random));
+        if (inbound) {
+            due = Math.max(due, connection.lastInboundDue);
+            connection.lastInboundDue = due;
+        }
+        else {
+            due = Math.max(due, connection.lastOutboundDue);
+            connection.lastOutboundDue = due;
+        }
+        return Math.max(0, due - now);
+    }
+
+    /**
+     * Writes a frame to a connection, if it is still open.
+     *
+     * @param   connection
+     *          The connection
+     * @param   frame
+     *          The frame
+     *
+     * @since   3.3.0
+     */
+    private void sendFrame(Connection connection, String frame) {
+        if (connection.socket.isOpen()) {
+            connection.socket.send(frame);
+        }
+    }
+
+    /**
+     * Handles a delivered frame, which may contain a single packet or an array of packets.
+     *
+     * @param   connection
+     *          The connection the frame was received on
+     * @param   frame
+     *          The frame
+     *
+     * @since   3.3.0
+     */
+    private void handleFrame(Connection connection, String frame) {
+        JsonElement element;
+        try {
+            element = JSON_PARSER.parse(frame);
+        }
+        catch (JsonParseException e) {
+            LOG.warn("Stand-in received malformed frame: " + frame);
+            return;
+        }
+
+        if (element.isJsonArray()) {
+            for (JsonElement packet : element.getAsJsonArray()) {
+                handlePacket(connection, packet);
+            }
+        }
+        else {
+            handlePacket(connection, element);
+        }
+    }
+
+    /**
+     * Handles a single method packet. Reply packets from clients are ignored, as the stand-in never waits for them.
+     *
+     * @param   connection
+     *          The connection the packet was received on
+     * @param   element
+     *          The packet
+     *
+     * @since   3.3.0
+     */
+    private void handlePacket(Connection connection, JsonElement element) {
+        if (!element.isJsonObject() || !"method".equals(stringOrNull(element.getAsJsonObject(), "type"))) {
+            return;
+        }
+
+        JsonObject packet = element.getAsJsonObject();
+        int id = packet.has("id") ? packet.get("id").getAsInt() : 0;
+        boolean discard = packet.has("discard") && !packet.get("discard").isJsonNull() && packet.get("discard").getAsBoolean();
+        JsonElement params = packet.has("params") ? packet.get("params") : JsonNull.INSTANCE;
+
+        JsonElement result;
+        InteractiveError error = null;
+        try {
+            InteractiveMethod method = methodFor(stringOrNull(packet, "method"));
+            result = connection == gameClient
+                    ? handleGameClientMethod(method, params)
+                    : handleParticipantMethod(connection, method, params);
+        }
+        catch (StandInRequestException e) {
+            result = JsonNull.INSTANCE;
+            error = e.toError();
+        }
+        catch (RuntimeException e) {
+            result = JsonNull.INSTANCE;
+            error = new InteractiveError(StandInRequestException.INVALID_PAYLOAD, String.valueOf(e.getMessage()), null);
+        }
+
+        if (!discard) {
+            ReplyPacket reply = new ReplyPacket(id, result, error);
+            reply.setSequenceNumber(sequenceNumber);
+            deliverOutbound(connection, GameClient.GSON.toJson(reply));
+        }
+    }
+
+    /**
+     * Handles a method called by the game client.
+     *
+     * @param   method
+     *          The method
+     * @param   params
+     *          Parameters of the method
+     *
+     * @return  Result of the method
+     *
+     * @throws  StandInRequestException
+     *          If the method cannot be fulfilled
+     *
+     * @since   3.3.0
+     */
+    private JsonElement handleGameClientMethod(InteractiveMethod method, JsonElement params) throws StandInRequestException {
+        JsonObject paramsObject = params.isJsonObject() ? params.getAsJsonObject() : new JsonObject();
+        switch (method) {
+            case READY: {
+                ready = paramsObject.has("isReady") && paramsObject.get("isReady").getAsBoolean();
+                broadcast(InteractiveMethod.ON_READY, readyParams());
+                return JsonNull.INSTANCE;
+            }
+            case SET_COMPRESSION: {
+                JsonObject result = new JsonObject();
+                result.addProperty("scheme", COMPRESSION_SCHEME);
+                return result;
+            }
+            case GET_TIME: {
+                JsonObject result = new JsonObject();
+                result.addProperty("time", System.currentTimeMillis());
+                return result;
+            }
+            case GET_MEMORY_STATS:
+                return state.getMemoryStats(memoryLimit);
+            case GET_THROTTLE_STATE: {
+                JsonObject result = new JsonObject();
+                for (Map.Entry<InteractiveMethod, LeakyBucket> throttle : throttles.entrySet()) {
+                    JsonObject throttleState = new JsonObject();
+                    throttleState.addProperty("inserted", throttle.getValue().getInserted());
+                    throttleState.addProperty("rejected", throttle.getValue().getRejected());
+                    result.add(throttle.getKey().toString(), throttleState);
+                }
+                return result;
+            }
+            case SET_BANDWIDTH_THROTTLE: {
+                for (Map.Entry<String, JsonElement> entry : paramsObject.entrySet()) {
+                    InteractiveMethod throttledMethod = methodFor(entry.getKey());
+                    if (entry.getValue().isJsonObject()) {
+                        JsonObject throttle = entry.getValue().getAsJsonObject();
+                        throttles.put(throttledMethod, new LeakyBucket(throttle.get("capacity").getAsInt(), throttle.get("drainRate").getAsInt()));
+                    }
+                    else {
+                        throttles.remove(throttledMethod);
+                    }
+                }
+                return JsonNull.INSTANCE;
+            }
+            case GET_SCENES:
+                return params("scenes", state.getScenes());
+            case CREATE_SCENES: {
+                JsonArray scenes = state.createScenes(requireArray(paramsObject, "scenes"));
+                changed(InteractiveMethod.ON_SCENE_CREATE, params("scenes", scenes));
+                return params("scenes", scenes);
+            }
+            case UPDATE_SCENES: {
+                JsonArray scenes = state.updateScenes(requireArray(paramsObject, "scenes"));
+                changed(InteractiveMethod.ON_SCENE_UPDATE, params("scenes", scenes));
+                return params("scenes", scenes);
+            }
+            case DELETE_SCENE: {
+                state.deleteScene(stringOrNull(paramsObject, "sceneID"), stringOrNull(paramsObject, "reassignSceneID"));
+                changed(InteractiveMethod.ON_SCENE_DELETE, paramsObject);
+                return JsonNull.INSTANCE;
+            }
+            case GET_GROUPS:
+                return params("groups", state.getGroups());
+            case CREATE_GROUPS: {
+                JsonArray groups = state.createGroups(requireArray(paramsObject, "groups"));
+                changed(InteractiveMethod.ON_GROUP_CREATE, params("groups", groups));
+                return JsonNull.INSTANCE;
+            }
+            case UPDATE_GROUPS: {
+                JsonArray groups = state.updateGroups(requireArray(paramsObject, "groups"));
+                changed(InteractiveMethod.ON_GROUP_UPDATE, params("groups", groups));
+                return params("groups", groups);
+            }
+            case DELETE_GROUP: {
+                JsonArray moved = state.deleteGroup(stringOrNull(paramsObject, "groupID"), stringOrNull(paramsObject, "reassignGroupID"));
+                changed(InteractiveMethod.ON_GROUP_DELETE, paramsObject);
+                if (moved.size() > 0) {
+                    notifyParticipants(moved);
+                }
+                return JsonNull.INSTANCE;
+            }
+            case CREATE_CONTROLS: {
+                String sceneID = stringOrNull(paramsObject, "sceneID");
+                JsonArray controls = state.createControls(sceneID, requireArray(paramsObject, "controls"));
+                changed(InteractiveMethod.ON_CONTROL_CREATE, controlParams(sceneID, controls));
+                return JsonNull.INSTANCE;
+            }
+            case UPDATE_CONTROLS: {
+                String sceneID = stringOrNull(paramsObject, "sceneID");
+                JsonArray controls = state.updateControls(sceneID, requireArray(paramsObject, "controls"));
+                changed(InteractiveMethod.ON_CONTROL_UPDATE, controlParams(sceneID, controls));
+                return params("controls", controls);
+            }
+            case DELETE_CONTROLS: {
+                state.deleteControls(stringOrNull(paramsObject, "sceneID"), requireArray(paramsObject, "controlIDs"));
+                changed(InteractiveMethod.ON_CONTROL_DELETE, paramsObject);
+                return JsonNull.INSTANCE;
+            }
+            case GET_ALL_PARTICIPANTS:
+                return state.getParticipants("connectedAt", paramsObject.has("from") ? paramsObject.get("from").getAsLong() : 0);
+            case GET_ACTIVE_PARTICIPANTS:
+                return state.getParticipants("lastInputAt", paramsObject.has("threshold") ? paramsObject.get("threshold").getAsLong() : 0);
+            case UPDATE_PARTICIPANTS: {
+                JsonArray participants = state.updateParticipants(requireArray(paramsObject, "participants"));
+                sequenceNumber++;
+                notifyParticipants(participants);
+                return params("participants", participants);
+            }
+            case CAPTURE: {
+                state.capture(stringOrNull(paramsObject, "transactionID"));
+                return JsonNull.INSTANCE;
+            }
+            default:
+                throw new StandInRequestException(StandInRequestException.UNKNOWN_METHOD, "Unknown method " + method);
+        }
+    }
+
+    /**
+     * Handles a method called by a participant.
+     *
+     * @param   connection
+     *          The participant connection
+     * @param   method
+     *          The method
+     * @param   params
+     *          Parameters of the method
+     *
+     * @return  Result of the method
+     *
+     * @throws  StandInRequestException
+     *          If the method cannot be fulfilled
+     *
+     * @since   3.3.0
+     */
+    private JsonElement handleParticipantMethod(Connection connection, InteractiveMethod method, JsonElement params) throws StandInRequestException {
+        if (method != InteractiveMethod.GIVE_INPUT || connection.sessionID == null) {
+            throw new StandInRequestException(StandInRequestException.UNKNOWN_METHOD, "Unknown method " + method);
+        }
+        if (!params.isJsonObject()) {
+            throw new StandInRequestException(StandInRequestException.INVALID_PARAMS, "Input must be an object");
+        }
+        sendToGameClient(InteractiveMethod.GIVE_INPUT, state.giveInput(connection.sessionID, params.getAsJsonObject()));
+        return JsonNull.INSTANCE;
+    }
+
+    /**
+     * Records a change to the state, notifies participants of it, and checks memory usage.
+     *
+     * @param   event
+     *          Method of the notification sent to participants
+     * @param   params
+     *          Parameters of the notification
+     *
+     * @since   3.3.0
+     */
+    private void changed(InteractiveMethod event, JsonObject params) {
+        sequenceNumber++;
+        broadcast(event, params);
+        if (echoUpdates && (event == InteractiveMethod.ON_CONTROL_UPDATE || event == InteractiveMethod.ON_GROUP_UPDATE || event == InteractiveMethod.ON_SCENE_UPDATE)) {
+            sendToGameClient(event, params);
+        }
+
+        JsonObject stats = state.getMemoryStats(memoryLimit);
+        boolean overThreshold = stats.get("usedBytes").getAsInt() > memoryLimit * MEMORY_WARNING_THRESHOLD;
+        if (overThreshold && !memoryWarningIssued) {
+            sendToGameClient(InteractiveMethod.ISSUE_MEMORY_WARNING, stats);
+        }
+        memoryWarningIssued = overThreshold;
+    }
+
+    /**
+     * Sends each updated participant an <code>onParticipantUpdate</code> notification about itself.
+     *
+     * @param   participants
+     *          The updated participants
+     *
+     * @since   3.3.0
+     */
+    private void notifyParticipants(JsonArray participants) {
+        for (JsonElement participant : participants) {
+            String sessionID = stringOrNull(participant.getAsJsonObject(), "sessionID");
+            for (Connection connection : connections.values()) {
+                if (sessionID != null && sessionID.equals(connection.sessionID)) {
+                    sendMethod(connection, InteractiveMethod.ON_PARTICIPANT_UPDATE, single("participants", participant.getAsJsonObject()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a method packet to every connected participant.
+     *
+     * @param   method
+     *          The method
+     * @param   params
+     *          Parameters of the method
+     *
+     * @since   3.3.0
+     */
+    private void broadcast(InteractiveMethod method, JsonObject params) {
+        for (Connection connection : connections.values()) {
+            if (connection.sessionID != null) {
+                sendMethod(connection, method, params);
+            }
+        }
+    }
+
+    /**
+     * Sends a method packet to the game client, subject to any bandwidth throttle for the method.
+     *
+     * @param   method
+     *          The method
+     * @param   params
+     *          Parameters of the method
+     *
+     * @since   3.3.0
+     */
+    private void sendToGameClient(InteractiveMethod method, JsonObject params) {
+        if (gameClient == null) {
+            return;
+        }
+
+        String frame = methodFrame(gameClient, method, params);
+        LeakyBucket throttle = throttles.get(method);
+        if (throttle != null && !throttle.offer(frame.getBytes(StandardCharsets.UTF_8).length)) {
+            LOG.debug(String.format("Stand-in throttled %s to the game client", method));
+            return;
+        }
+        deliverOutbound(gameClient, frame);
+    }
+
+    /**
+     * Sends a method packet to a connection.
+     *
+     * @param   connection
+     *          The connection
+     * @param   method
+     *          The method
+     * @param   params
+     *          Parameters of the method
+     *
+     * @since   3.3.0
+     */
+    private void sendMethod(Connection connection, InteractiveMethod method, JsonObject params) {
+        deliverOutbound(connection, methodFrame(connection, method, params));
+    }
+
+    /**
+     * Serializes a method packet for a connection. Packets sent by the service never expect a reply.
+     *
+     * @param   connection
+     *          The connection
+     * @param   method
+     *          The method
+     * @param   params
+     *          Parameters of the method
+     *
+     * @return  The serialized packet
+     *
+     * @since   3.3.0
+     */
+    private String methodFrame(Connection connection, InteractiveMethod method, JsonObject params) {
+        MethodPacket packet = new MethodPacket(connection.nextPacketID++, method, params, true);
+        packet.setSequenceNumber(sequenceNumber);
+        return GameClient.GSON.toJson(packet);
+    }
+
+    /**
+     * Returns the parameters of an <code>onReady</code> notification.
+     *
+     * @return  The parameters of an <code>onReady</code> notification
+     *
+     * @since   3.3.0
+     */
+    private JsonObject readyParams() {
+        JsonObject params = new JsonObject();
+        params.addProperty("isReady", ready);
+        return params;
+    }
+
+    /**
+     * Runs a task on the event loop and waits for its result.
+     *
+     * @param   task
+     *          The task
+     * @param   <T>
+     *          Type of the result
+     *
+     * @return  The result of the task
+     *
+     * @since   3.3.0
+     */
+    private <T> T call(Callable<T> task) {
+        try {
+            return eventLoop.submit(task).get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the method with the provided name, or <code>UNKNOWN</code>.
+     *
+     * @param   methodName
+     *          Name of the method
+     *
+     * @return  The method with the provided name, or <code>UNKNOWN</code>
+     *
+     * @since   3.3.0
+     */
+    private static InteractiveMethod methodFor(String methodName) {
+        for (InteractiveMethod method : InteractiveMethod.values()) {
+            if (method != InteractiveMethod.UNKNOWN && method.toString().equals(methodName)) {
+                return method;
+            }
+        }
+        return InteractiveMethod.UNKNOWN;
+    }
+
+    /**
+     * Returns an array parameter, throwing if it is missing.
+     *
+     * @param   params
+     *          The parameters
+     * @param   name
+     *          Name of the parameter
+     *
+     * @return  The array parameter
+     *
+     * @throws  StandInRequestException
+     *          If the parameter is missing or is not an array
+     *
+     * @since   3.3.0
+     */
+    private static JsonArray requireArray(JsonObject params, String name) throws StandInRequestException {
+        JsonElement value = params.get(name);
+        if (value == null || !value.isJsonArray()) {
+            throw new StandInRequestException(StandInRequestException.INVALID_PARAMS, "Missing '" + name + "'");
+        }
+        return value.getAsJsonArray();
+    }
+
+    /**
+     * Returns parameters holding a single array.
+     *
+     * @param   name
+     *          Name of the array
+     * @param   array
+     *          The array
+     *
+     * @return  Parameters holding the array
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject params(String name, JsonArray array) {
+        JsonObject params = new JsonObject();
+        params.add(name, array);
+        return params;
+    }
+
+    /**
+     * Returns parameters holding an array with a single resource.
+     *
+     * @param   name
+     *          Name of the array
+     * @param   resource
+     *          The resource
+     *
+     * @return  Parameters holding the array
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject single(String name, JsonObject resource) {
+        JsonArray array = new JsonArray();
+        array.add(resource);
+        return params(name, array);
+    }
+
+    /**
+     * Returns the parameters of a control notification.
+     *
+     * @param   sceneID
+     *          Identifier of the scene the controls are on
+     * @param   controls
+     *          The controls
+     *
+     * @return  The parameters of a control notification
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject controlParams(String sceneID, JsonArray controls) {
+        JsonObject params = params("controls", controls);
+        params.addProperty("sceneID", sceneID);
+        return params;
+    }
+
+    /**
+     * A connection to the stand-in server, either from the game client or from a participant.
+     *
+     * @author      Microsoft Corporation
+     *
+     * @since       3.3.0
+     */
+    private static class Connection {
+
+        /**
+         * The socket of the connection
+         */
+        private final WebSocket socket;
+
+        /**
+         * The participant as supplied when connecting, or <code>null</code> for the game client
+         */
+        private final JsonObject participant;
+
+        /**
+         * Session ID assigned to the participant, or <code>null</code> for the game client
+         */
+        private String sessionID;
+
+        /**
+         * Identifier of the next method packet sent on this connection
+         */
+        private int nextPacketID;
+
+        /**
+         * Time, in nanoseconds, the most recent inbound frame is delivered
+         */
+        private long lastInboundDue;
+
+        /**
+         * Time, in nanoseconds, the most recent outbound frame is sent
+         */
+        private long lastOutboundDue;
+
+        /**
+         * Initializes a new <code>Connection</code>.
+         *
+         * @param   socket
+         *          The socket of the connection
+         * @param   participant
+         *          The participant as supplied when connecting, or <code>null</code> for the game client
+         *
+         * @since   3.3.0
+         */
+        private Connection(WebSocket socket, JsonObject participant) {
+            this.socket = socket;
+            this.participant = participant;
+            long now = System.nanoTime();
+            this.lastInboundDue = now;
+            this.lastOutboundDue = now;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mixer.interactive.test.server;
+
+/**
+ * A leaky bucket used by the <code>InteractiveStandInServer</code> to throttle methods, as configured by
+ * <code>setBandwidthThrottle</code>. The bucket holds up to <code>capacity</code> bytes and drains at
+ * <code>drainRate</code> bytes per second. Messages that do not fit in the bucket are rejected.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+class LeakyBucket {
+
+    /**
+     * Maximum number of bytes the bucket holds
+     */
+    private final int capacity;
+
+    /**
+     * Number of bytes drained per second
+     */
+    private final int drainRate;
+
+    /**
+     * Number of bytes currently in the bucket
+     */
+    private double level;
+
+    /**
+     * Time, in nanoseconds, the level was last drained
+     */
+    private long lastDrainNanos;
+
+    /**
+     * Number of messages accepted by the bucket
+     */
+    private int inserted;
+
+    /**
+     * Number of messages rejected by the bucket
+     */
+    private int rejected;
+
+    /**
+     * Initializes a new <code>LeakyBucket</code>.
+     *
+     * @param   capacity
+     *          Maximum number of bytes the bucket holds
+     * @param   drainRate
+     *          Number of bytes drained per second
+     *
+     * @since   3.3.0
+     */
+    LeakyBucket(int capacity, int drainRate) {
+        this.capacity = capacity;
+        this.drainRate = drainRate;
+        this.lastDrainNanos = System.nanoTime();
+    }
+
+    /**
+     * Attempts to add a message to the bucket.
+     *
+     * @param   bytes
+     *          Size of the message, in bytes
+     *
+     * @return  <code>true</code> if the message was accepted, <code>false</code> if it was rejected
+     *
+     * @since   3.3.0
+     */
+    boolean offer(int bytes) {
+        long now = System.nanoTime();
+        level = Math.max(0, level - (now - lastDrainNanos) / 1e9 * drainRate);
+        lastDrainNanos = now;
+
+        if (level + bytes > capacity) {
+            rejected++;
+            return false;
+        }
+        level += bytes;
+        inserted++;
+        return true;
+    }
+
+    /**
+     * Returns the number of messages accepted by the bucket.
+     *
+     * @return  The number of messages accepted by the bucket
+     *
+     * @since   3.3.0
+     */
+    int getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Returns the number of messages rejected by the bucket.
+     *
+     * @return  The number of messages rejected by the bucket
+     *
+     * @since   3.3.0
+     */
+    int getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,210 @@
+package com.mixer.interactive.test.server;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated network conditions applied by the <code>InteractiveStandInServer</code> to every frame it receives or
+ * sends. All randomness is drawn from a seeded <code>Random</code> so that runs with the same seed and the same
+ * traffic are reproducible.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class NetworkConditions {
+
+    /**
+     * Network conditions with no latency, jitter or loss
+     */
+    public static final NetworkConditions NONE = new NetworkConditions(0, 0, 0, 0);
+
+    /**
+     * One-way latency, in milliseconds
+     */
+    private final long latencyMillis;
+
+    /**
+     * Maximum deviation from the latency, in milliseconds
+     */
+    private final long jitterMillis;
+
+    /**
+     * Probability (between 0 and 1) that a frame is dropped
+     */
+    private final double lossProbability;
+
+    /**
+     * Seed for the random number generator
+     */
+    private final long seed;
+
+    /**
+     * Initializes a new <code>NetworkConditions</code>.
+     *
+     * @param   latencyMillis
+     *          One-way latency, in milliseconds
+     * @param   jitterMillis
+     *          Maximum deviation from the latency, in milliseconds
+     * @param   lossProbability
+     *          Probability (between 0 and 1) that a frame is dropped
+     * @param   seed
+     *          Seed for the random number generator
+     *
+     * @since   3.3.0
+     */
+    private NetworkConditions(long latencyMillis, long jitterMillis, double lossProbability, long seed) {
+        if (latencyMillis < 0 || jitterMillis < 0) {
+            throw new IllegalArgumentException("Latency and jitter must not be negative");
+        }
+        if (lossProbability < 0 || lossProbability > 1) {
+            throw new IllegalArgumentException("Loss probability must be between 0 and 1");
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.lossProbability = lossProbability;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns a copy of these network conditions with the provided one-way latency.
+     *
+     * @param   latency
+     *          One-way latency
+     * @param   timeUnit
+     *          Unit of the latency
+     *
+     * @return  A copy of these network conditions with the provided one-way latency
+     *
+     * @since   3.3.0
+     */
+    public NetworkConditions withLatency(long latency, TimeUnit timeUnit) {
+        return new NetworkConditions(timeUnit.toMillis(latency), jitterMillis, lossProbability, seed);
+    }
+
+    /**
+     * Returns a copy of these network conditions with the provided jitter. Each frame is delayed by the latency plus a
+     * uniformly distributed amount in <code>[-jitter, jitter]</code>, never less than zero.
+     *
+     * @param   jitter
+     *          Maximum deviation from the latency
+     * @param   timeUnit
+     *          Unit of the jitter
+     *
+     * @return  A copy of these network conditions with the provided jitter
+     *
+     * @since   3.3.0
+     */
+    public NetworkConditions withJitter(long jitter, TimeUnit timeUnit) {
+        return new NetworkConditions(latencyMillis, timeUnit.toMillis(jitter), lossProbability, seed);
+    }
+
+    /**
+     * Returns a copy of these network conditions with the provided packet loss.
+     *
+     * @param   lossProbability
+     *          Probability (between 0 and 1) that a frame is dropped
+     *
+     * @return  A copy of these network conditions with the provided packet loss
+     *
+     * @since   3.3.0
+     */
+    public NetworkConditions withLoss(double lossProbability) {
+        return new NetworkConditions(latencyMillis, jitterMillis, lossProbability, seed);
+    }
+
+    /**
+     * Returns a copy of these network conditions with the provided random seed.
+     *
+     * @param   seed
+     *          Seed for the random number generator
+     *
+     * @return  A copy of these network conditions with the provided random seed
+     *
+     * @since   3.3.0
+     */
+    public NetworkConditions withSeed(long seed) {
+        return new NetworkConditions(latencyMillis, jitterMillis, lossProbability, seed);
+    }
+
+    /**
+     * Returns the one-way latency, in milliseconds.
+     *
+     * @return  The one-way latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Returns the maximum deviation from the latency, in milliseconds.
+     *
+     * @return  The maximum deviation from the latency, in milliseconds
+     *
+     * @since   3.3.0
+     */
+    public long getJitterMillis() {
+        return jitterMillis;
+    }
+
+    /**
+     * Returns the probability (between 0 and 1) that a frame is dropped.
+     *
+     * @return  The probability (between 0 and 1) that a frame is dropped
+     *
+     * @since   3.3.0
+     */
+    public double getLossProbability() {
+        return lossProbability;
+    }
+
+    /**
+     * Returns a new random number generator seeded with the seed of these network conditions.
+     *
+     * @return  A new random number generator
+     *
+     * @since   3.3.0
+     */
+    Random newRandom() {
+        return new Random(seed);
+    }
+
+    /**
+     * Returns <code>true</code> if the next frame should be dropped.
+     *
+     * @param   random
+     *          Random number generator to draw from
+     *
+     * @return  <code>true</code> if the next frame should be dropped, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    boolean shouldDrop(Random random) {
+        return lossProbability > 0 && random.nextDouble() < lossProbability;
+    }
+
+    /**
+     * Returns the delay, in milliseconds, to apply to the next frame.
+     *
+     * @param   random
+     *          Random number generator to draw from
+     *
+     * @return  The delay, in milliseconds, to apply to the next frame
+     *
+     * @since   3.3.0
+     */
+    long nextDelayMillis(Random random) {
+        if (jitterMillis == 0) {
+            return latencyMillis;
+        }
+        long deviation = (long) ((random.nextDouble() * 2 - 1) * jitterMillis);
+        return Math.max(0, latencyMillis + deviation);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NetworkConditions{latency=%sms, jitter=%sms, loss=%s, seed=%s}", latencyMillis, jitterMillis, lossProbability, seed);
+    }
+}
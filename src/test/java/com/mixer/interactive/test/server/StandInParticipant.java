@@ -0,0 +1,134 @@
+package com.mixer.interactive.test.server;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal participant that connects to an <code>InteractiveStandInServer</code> and gives input.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class StandInParticipant extends WebSocketClient {
+
+    /**
+     * Frames received from the stand-in server
+     */
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+    /**
+     * Identifier of the next packet sent
+     */
+    private final AtomicInteger nextPacketID = new AtomicInteger();
+
+    /**
+     * Initializes a new <code>StandInParticipant</code>.
+     *
+     * @param   server
+     *          The stand-in server to connect to
+     * @param   userID
+     *          User ID of the participant
+     * @param   username
+     *          Username of the participant
+     *
+     * @since   3.3.0
+     */
+    public StandInParticipant(InteractiveStandInServer server, int userID, String username) {
+        super(server.getParticipantURI(), new Draft_6455(), ImmutableMap.<String, String>builder()
+                .put("X-Protocol-Version", "2.0")
+                .put("X-Auth-User", authUser(userID, username))
+                .build(), (int) TimeUnit.SECONDS.toMillis(15));
+    }
+
+    /**
+     * Gives input to a control.
+     *
+     * @param   controlID
+     *          Identifier of the control
+     * @param   event
+     *          Type of input event
+     * @param   discard
+     *          <code>true</code> if no reply should be sent, <code>false</code> otherwise
+     *
+     * @since   3.3.0
+     */
+    public void giveInput(String controlID, String event, boolean discard) {
+        JsonObject input = new JsonObject();
+        input.addProperty("controlID", controlID);
+        input.addProperty("event", event);
+        JsonObject params = new JsonObject();
+        params.add("input", input);
+        send(GameClient.GSON.toJson(new MethodPacket(nextPacketID.getAndIncrement(), InteractiveMethod.GIVE_INPUT, params, discard)));
+    }
+
+    /**
+     * Waits for the next frame received from the stand-in server.
+     *
+     * @param   timeout
+     *          Maximum time to wait
+     * @param   timeUnit
+     *          Unit of the timeout
+     *
+     * @return  The next frame, or <code>null</code> if none was received in time
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting
+     *
+     * @since   3.3.0
+     */
+    public String poll(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        return received.poll(timeout, timeUnit);
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+        // NO-OP
+    }
+
+    @Override
+    public void onMessage(String message) {
+        received.add(message);
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        // NO-OP
+    }
+
+    @Override
+    public void onError(Exception ex) {
+        // NO-OP
+    }
+
+    /**
+     * Returns the <code>X-Auth-User</code> header identifying a participant.
+     *
+     * @param   userID
+     *          User ID of the participant
+     * @param   username
+     *          Username of the participant
+     *
+     * @return  The <code>X-Auth-User</code> header
+     *
+     * @since   3.3.0
+     */
+    private static String authUser(int userID, String username) {
+        JsonObject user = new JsonObject();
+        user.addProperty("userID", userID);
+        user.addProperty("username", username);
+        user.addProperty("level", 1);
+        return user.toString();
+    }
+}
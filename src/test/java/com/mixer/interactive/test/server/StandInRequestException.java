@@ -0,0 +1,100 @@
+package com.mixer.interactive.test.server;
+
+import com.mixer.interactive.protocol.InteractiveError;
+
+/**
+ * Thrown by the <code>InteractiveStandInServer</code> when a request cannot be fulfilled. Carries the error that is
+ * sent back to the client in the reply.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+class StandInRequestException extends Exception {
+
+    /**
+     * The payload of the request was invalid
+     */
+    static final int INVALID_PAYLOAD = 4000;
+
+    /**
+     * The method is not known to the service
+     */
+    static final int UNKNOWN_METHOD = 4003;
+
+    /**
+     * The parameters of the method were invalid
+     */
+    static final int INVALID_PARAMS = 4004;
+
+    /**
+     * The transaction is unknown or has already been captured
+     */
+    static final int INVALID_TRANSACTION = 4006;
+
+    /**
+     * The group is not known to the service
+     */
+    static final int UNKNOWN_GROUP = 4008;
+
+    /**
+     * A group with the same identifier already exists
+     */
+    static final int GROUP_EXISTS = 4009;
+
+    /**
+     * The scene is not known to the service
+     */
+    static final int UNKNOWN_SCENE = 4010;
+
+    /**
+     * A scene with the same identifier already exists
+     */
+    static final int SCENE_EXISTS = 4011;
+
+    /**
+     * The participant is not known to the service
+     */
+    static final int UNKNOWN_PARTICIPANT = 4012;
+
+    /**
+     * The control is not known to the service
+     */
+    static final int UNKNOWN_CONTROL = 4013;
+
+    /**
+     * A control with the same identifier already exists
+     */
+    static final int CONTROL_EXISTS = 4014;
+
+    /**
+     * Error code sent back to the client
+     */
+    private final int code;
+
+    /**
+     * Initializes a new <code>StandInRequestException</code>.
+     *
+     * @param   code
+     *          Error code sent back to the client
+     * @param   message
+     *          Error message sent back to the client
+     *
+     * @since   3.3.0
+     */
+    StandInRequestException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    /**
+     * Returns the error sent back to the client.
+     *
+     * @return  The error sent back to the client
+     *
+     * @since   3.3.0
+     */
+    InteractiveError toError() {
+        return new InteractiveError(code, getMessage(), null);
+    }
+}
@@ -0,0 +1,836 @@
+package com.mixer.interactive.test.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.mixer.interactive.test.server.StandInRequestException.*;
+
+/**
+ * The scenes, groups, controls, participants and transactions held by the <code>InteractiveStandInServer</code>.
+ * Resources are kept as the JSON the game client sent, so that any property the SDK serializes round-trips unchanged.
+ *
+ * <p>Instances are not thread-safe. The server only accesses its state from its own event loop.</p>
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+class StandInState {
+
+    /**
+     * Identifier of the default scene and group
+     */
+    static final String DEFAULT_ID = "default";
+
+    /**
+     * Maximum number of participants returned in one page of <code>getAllParticipants</code> or
+     * <code>getActiveParticipants</code>
+     */
+    static final int PARTICIPANT_PAGE_SIZE = 100;
+
+    /**
+     * Scenes (without their controls), by scene ID
+     */
+    private final Map<String, JsonObject> scenes = new LinkedHashMap<>();
+
+    /**
+     * Controls by control ID, by scene ID
+     */
+    private final Map<String, Map<String, JsonObject>> controls = new HashMap<>();
+
+    /**
+     * Groups, by group ID
+     */
+    private final Map<String, JsonObject> groups = new LinkedHashMap<>();
+
+    /**
+     * Participants, by session ID
+     */
+    private final Map<String, JsonObject> participants = new LinkedHashMap<>();
+
+    /**
+     * Session IDs of the participants that created uncaptured transactions, by transaction ID
+     */
+    private final Map<String, String> transactions = new HashMap<>();
+
+    /**
+     * Random number generator used for session and transaction IDs
+     */
+    private final Random random;
+
+    /**
+     * Initializes a new <code>StandInState</code> holding the default scene and group.
+     *
+     * @param   random
+     *          Random number generator used for session and transaction IDs
+     *
+     * @since   3.3.0
+     */
+    StandInState(Random random) {
+        this.random = random;
+
+        JsonObject defaultScene = new JsonObject();
+        defaultScene.addProperty("sceneID", DEFAULT_ID);
+        defaultScene.add("meta", new JsonObject());
+        scenes.put(DEFAULT_ID, defaultScene);
+        controls.put(DEFAULT_ID, new LinkedHashMap<>());
+
+        JsonObject defaultGroup = new JsonObject();
+        defaultGroup.addProperty("groupID", DEFAULT_ID);
+        defaultGroup.addProperty("sceneID", DEFAULT_ID);
+        defaultGroup.add("meta", new JsonObject());
+        groups.put(DEFAULT_ID, defaultGroup);
+    }
+
+    /**
+     * Returns all scenes, including their controls.
+     *
+     * @return  All scenes, including their controls
+     *
+     * @since   3.3.0
+     */
+    JsonArray getScenes() {
+        JsonArray array = new JsonArray();
+        for (String sceneID : scenes.keySet()) {
+            array.add(sceneWithControls(sceneID));
+        }
+        return array;
+    }
+
+    /**
+     * Creates scenes, including any controls they contain.
+     *
+     * @param   newScenes
+     *          Scenes to create
+     *
+     * @return  The created scenes
+     *
+     * @throws  StandInRequestException
+     *          If a scene already exists, or a scene is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray createScenes(JsonArray newScenes) throws StandInRequestException {
+        for (JsonElement element : newScenes) {
+            String sceneID = requireString(element, "sceneID");
+            if (scenes.containsKey(sceneID)) {
+                throw new StandInRequestException(SCENE_EXISTS, "Scene '" + sceneID + "' already exists");
+            }
+        }
+
+        JsonArray created = new JsonArray();
+        for (JsonElement element : newScenes) {
+            JsonObject scene = copyWithout(element.getAsJsonObject(), "controls");
+            String sceneID = scene.get("sceneID").getAsString();
+            scenes.put(sceneID, scene);
+
+            Map<String, JsonObject> sceneControls = new LinkedHashMap<>();
+            JsonElement controlsElement = element.getAsJsonObject().get("controls");
+            if (controlsElement != null && controlsElement.isJsonArray()) {
+                for (JsonElement control : controlsElement.getAsJsonArray()) {
+                    sceneControls.put(requireString(control, "controlID"), control.getAsJsonObject());
+                }
+            }
+            controls.put(sceneID, sceneControls);
+            created.add(sceneWithControls(sceneID));
+        }
+        return created;
+    }
+
+    /**
+     * Updates the properties of scenes. Controls are left untouched.
+     *
+     * @param   updatedScenes
+     *          Scenes to update
+     *
+     * @return  The updated scenes
+     *
+     * @throws  StandInRequestException
+     *          If a scene is unknown, or a scene is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray updateScenes(JsonArray updatedScenes) throws StandInRequestException {
+        for (JsonElement element : updatedScenes) {
+            requireScene(requireString(element, "sceneID"));
+        }
+
+        JsonArray updated = new JsonArray();
+        for (JsonElement element : updatedScenes) {
+            String sceneID = element.getAsJsonObject().get("sceneID").getAsString();
+            merge(scenes.get(sceneID), copyWithout(element.getAsJsonObject(), "controls"));
+            updated.add(sceneWithControls(sceneID));
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes a scene, moving any groups on it to another scene.
+     *
+     * @param   sceneID
+     *          Identifier of the scene to delete
+     * @param   reassignSceneID
+     *          Identifier of the scene groups are moved to
+     *
+     * @return  Groups that were moved
+     *
+     * @throws  StandInRequestException
+     *          If either scene is unknown, or the default scene is being deleted
+     *
+     * @since   3.3.0
+     */
+    JsonArray deleteScene(String sceneID, String reassignSceneID) throws StandInRequestException {
+        requireScene(sceneID);
+        requireScene(reassignSceneID);
+        if (DEFAULT_ID.equals(sceneID) || sceneID.equals(reassignSceneID)) {
+            throw new StandInRequestException(INVALID_PARAMS, "Scene '" + sceneID + "' cannot be deleted");
+        }
+
+        JsonArray moved = new JsonArray();
+        for (JsonObject group : groups.values()) {
+            if (sceneID.equals(stringOrNull(group, "sceneID"))) {
+                group.addProperty("sceneID", reassignSceneID);
+                moved.add(group);
+            }
+        }
+        scenes.remove(sceneID);
+        controls.remove(sceneID);
+        return moved;
+    }
+
+    /**
+     * Returns all groups.
+     *
+     * @return  All groups
+     *
+     * @since   3.3.0
+     */
+    JsonArray getGroups() {
+        return toArray(groups.values());
+    }
+
+    /**
+     * Creates groups.
+     *
+     * @param   newGroups
+     *          Groups to create
+     *
+     * @return  The created groups
+     *
+     * @throws  StandInRequestException
+     *          If a group already exists, a group's scene is unknown, or a group is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray createGroups(JsonArray newGroups) throws StandInRequestException {
+        for (JsonElement element : newGroups) {
+            String groupID = requireString(element, "groupID");
+            if (groups.containsKey(groupID)) {
+                throw new StandInRequestException(GROUP_EXISTS, "Group '" + groupID + "' already exists");
+            }
+            String sceneID = stringOrNull(element.getAsJsonObject(), "sceneID");
+            if (sceneID != null) {
+                requireScene(sceneID);
+            }
+        }
+
+        JsonArray created = new JsonArray();
+        for (JsonElement element : newGroups) {
+            JsonObject group = element.getAsJsonObject();
+            if (stringOrNull(group, "sceneID") == null) {
+                group.addProperty("sceneID", DEFAULT_ID);
+            }
+            groups.put(group.get("groupID").getAsString(), group);
+            created.add(group);
+        }
+        return created;
+    }
+
+    /**
+     * Updates the properties of groups.
+     *
+     * @param   updatedGroups
+     *          Groups to update
+     *
+     * @return  The updated groups
+     *
+     * @throws  StandInRequestException
+     *          If a group or its scene is unknown, or a group is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray updateGroups(JsonArray updatedGroups) throws StandInRequestException {
+        for (JsonElement element : updatedGroups) {
+            requireGroup(requireString(element, "groupID"));
+            String sceneID = stringOrNull(element.getAsJsonObject(), "sceneID");
+            if (sceneID != null) {
+                requireScene(sceneID);
+            }
+        }
+
+        JsonArray updated = new JsonArray();
+        for (JsonElement element : updatedGroups) {
+            JsonObject group = groups.get(element.getAsJsonObject().get("groupID").getAsString());
+            merge(group, element.getAsJsonObject());
+            updated.add(group);
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes a group, moving any participants in it to another group.
+     *
+     * @param   groupID
+     *          Identifier of the group to delete
+     * @param   reassignGroupID
+     *          Identifier of the group participants are moved to
+     *
+     * @return  Participants that were moved
+     *
+     * @throws  StandInRequestException
+     *          If either group is unknown, or the default group is being deleted
+     *
+     * @since   3.3.0
+     */
+    JsonArray deleteGroup(String groupID, String reassignGroupID) throws StandInRequestException {
+        requireGroup(groupID);
+        requireGroup(reassignGroupID);
+        if (DEFAULT_ID.equals(groupID) || groupID.equals(reassignGroupID)) {
+            throw new StandInRequestException(INVALID_PARAMS, "Group '" + groupID + "' cannot be deleted");
+        }
+
+        JsonArray moved = new JsonArray();
+        for (JsonObject participant : participants.values()) {
+            if (groupID.equals(stringOrNull(participant, "groupID"))) {
+                participant.addProperty("groupID", reassignGroupID);
+                moved.add(participant);
+            }
+        }
+        groups.remove(groupID);
+        return moved;
+    }
+
+    /**
+     * Creates controls on a scene.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     * @param   newControls
+     *          Controls to create
+     *
+     * @return  The created controls
+     *
+     * @throws  StandInRequestException
+     *          If the scene is unknown, a control already exists, or a control is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray createControls(String sceneID, JsonArray newControls) throws StandInRequestException {
+        Map<String, JsonObject> sceneControls = requireScene(sceneID);
+        for (JsonElement element : newControls) {
+            String controlID = requireString(element, "controlID");
+            if (sceneControls.containsKey(controlID)) {
+                throw new StandInRequestException(CONTROL_EXISTS, "Control '" + controlID + "' already exists");
+            }
+        }
+
+        for (JsonElement element : newControls) {
+            sceneControls.put(element.getAsJsonObject().get("controlID").getAsString(), element.getAsJsonObject());
+        }
+        return newControls;
+    }
+
+    /**
+     * Updates the properties of controls on a scene.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     * @param   updatedControls
+     *          Controls to update
+     *
+     * @return  The updated controls
+     *
+     * @throws  StandInRequestException
+     *          If the scene or a control is unknown, or a control is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray updateControls(String sceneID, JsonArray updatedControls) throws StandInRequestException {
+        Map<String, JsonObject> sceneControls = requireScene(sceneID);
+        for (JsonElement element : updatedControls) {
+            String controlID = requireString(element, "controlID");
+            if (!sceneControls.containsKey(controlID)) {
+                throw new StandInRequestException(UNKNOWN_CONTROL, "Control '" + controlID + "' does not exist");
+            }
+        }
+
+        JsonArray updated = new JsonArray();
+        for (JsonElement element : updatedControls) {
+            JsonObject control = sceneControls.get(element.getAsJsonObject().get("controlID").getAsString());
+            merge(control, element.getAsJsonObject());
+            updated.add(control);
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes controls from a scene.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     * @param   controlIDs
+     *          Identifiers of the controls to delete
+     *
+     * @throws  StandInRequestException
+     *          If the scene or a control is unknown
+     *
+     * @since   3.3.0
+     */
+    void deleteControls(String sceneID, JsonArray controlIDs) throws StandInRequestException {
+        Map<String, JsonObject> sceneControls = requireScene(sceneID);
+        for (JsonElement controlID : controlIDs) {
+            if (!sceneControls.containsKey(controlID.getAsString())) {
+                throw new StandInRequestException(UNKNOWN_CONTROL, "Control '" + controlID.getAsString() + "' does not exist");
+            }
+        }
+        for (JsonElement controlID : controlIDs) {
+            sceneControls.remove(controlID.getAsString());
+        }
+    }
+
+    /**
+     * Adds a newly connected participant to the default group.
+     *
+     * @param   participant
+     *          The participant, as supplied by the participant when connecting
+     *
+     * @return  The participant as stored, including its assigned session ID
+     *
+     * @since   3.3.0
+     */
+    JsonObject addParticipant(JsonObject participant) {
+        long now = System.currentTimeMillis();
+        participant.addProperty("sessionID", new UUID(random.nextLong(), random.nextLong()).toString());
+        participant.addProperty("connectedAt", now);
+        participant.addProperty("lastInputAt", now);
+        participant.addProperty("groupID", DEFAULT_ID);
+        if (!participant.has("disabled") || participant.get("disabled").isJsonNull()) {
+            participant.addProperty("disabled", false);
+        }
+        participants.put(participant.get("sessionID").getAsString(), participant);
+        return participant;
+    }
+
+    /**
+     * Removes a participant that disconnected.
+     *
+     * @param   sessionID
+     *          Session ID of the participant
+     *
+     * @return  The removed participant, or <code>null</code> if it was unknown
+     *
+     * @since   3.3.0
+     */
+    JsonObject removeParticipant(String sessionID) {
+        transactions.values().removeIf(sessionID::equals);
+        return participants.remove(sessionID);
+    }
+
+    /**
+     * Returns a participant.
+     *
+     * @param   sessionID
+     *          Session ID of the participant
+     *
+     * @return  The participant, or <code>null</code> if it is unknown
+     *
+     * @since   3.3.0
+     */
+    JsonObject getParticipant(String sessionID) {
+        return participants.get(sessionID);
+    }
+
+    /**
+     * Returns the number of connected participants.
+     *
+     * @return  The number of connected participants
+     *
+     * @since   3.3.0
+     */
+    int getParticipantCount() {
+        return participants.size();
+    }
+
+    /**
+     * Returns one page of participants whose timestamp property is strictly after a marker, ordered by that property.
+     *
+     * @param   property
+     *          Timestamp property to page by (<code>connectedAt</code> or <code>lastInputAt</code>)
+     * @param   marker
+     *          Exclusive lower bound of the property
+     *
+     * @return  The page of participants and whether more pages follow
+     *
+     * @since   3.3.0
+     */
+    JsonObject getParticipants(String property, long marker) {
+        List<JsonObject> matching = new ArrayList<>();
+        for (JsonObject participant : participants.values()) {
+            if (participant.get(property).getAsLong() > marker) {
+                matching.add(participant);
+            }
+        }
+        matching.sort(Comparator.comparingLong(participant -> participant.get(property).getAsLong()));
+
+        JsonObject result = new JsonObject();
+        result.add("participants", toArray(matching.subList(0, Math.min(PARTICIPANT_PAGE_SIZE, matching.size()))));
+        result.addProperty("hasMore", matching.size() > PARTICIPANT_PAGE_SIZE);
+        return result;
+    }
+
+    /**
+     * Updates the properties of participants.
+     *
+     * @param   updatedParticipants
+     *          Participants to update
+     *
+     * @return  The updated participants
+     *
+     * @throws  StandInRequestException
+     *          If a participant or its group is unknown, or a participant is malformed
+     *
+     * @since   3.3.0
+     */
+    JsonArray updateParticipants(JsonArray updatedParticipants) throws StandInRequestException {
+        for (JsonElement element : updatedParticipants) {
+            String sessionID = requireString(element, "sessionID");
+            if (!participants.containsKey(sessionID)) {
+                throw new StandInRequestException(UNKNOWN_PARTICIPANT, "Participant '" + sessionID + "' does not exist");
+            }
+            String groupID = stringOrNull(element.getAsJsonObject(), "groupID");
+            if (groupID != null) {
+                requireGroup(groupID);
+            }
+        }
+
+        JsonArray updated = new JsonArray();
+        for (JsonElement element : updatedParticipants) {
+            JsonObject participant = participants.get(element.getAsJsonObject().get("sessionID").getAsString());
+            merge(participant, copyWithout(element.getAsJsonObject(), "connectedAt", "lastInputAt"));
+            updated.add(participant);
+        }
+        return updated;
+    }
+
+    /**
+     * Validates input from a participant and builds the <code>giveInput</code> parameters forwarded to the game client.
+     * A transaction is created for <code>mousedown</code> input on controls that have a cost.
+     *
+     * @param   sessionID
+     *          Session ID of the participant giving input
+     * @param   params
+     *          Parameters of the participant's <code>giveInput</code> request
+     *
+     * @return  Parameters of the <code>giveInput</code> request forwarded to the game client
+     *
+     * @throws  StandInRequestException
+     *          If the participant is disabled, or the control is not on the participant's scene
+     *
+     * @since   3.3.0
+     */
+    JsonObject giveInput(String sessionID, JsonObject params) throws StandInRequestException {
+        JsonObject participant = participants.get(sessionID);
+        if (participant == null) {
+            throw new StandInRequestException(UNKNOWN_PARTICIPANT, "Participant '" + sessionID + "' does not exist");
+        }
+        if (participant.has("disabled") && !participant.get("disabled").isJsonNull() && participant.get("disabled").getAsBoolean()) {
+            throw new StandInRequestException(INVALID_PARAMS, "Participant '" + sessionID + "' is disabled");
+        }
+
+        JsonElement inputElement = params.get("input");
+        String controlID = inputElement != null && inputElement.isJsonObject() ? stringOrNull(inputElement.getAsJsonObject(), "controlID") : null;
+        if (controlID == null) {
+            throw new StandInRequestException(INVALID_PARAMS, "Input must specify a control");
+        }
+        JsonObject group = groups.get(stringOrNull(participant, "groupID"));
+        Map<String, JsonObject> sceneControls = group != null ? controls.get(stringOrNull(group, "sceneID")) : null;
+        JsonObject control = sceneControls != null ? sceneControls.get(controlID) : null;
+        if (control == null) {
+            throw new StandInRequestException(UNKNOWN_CONTROL, "Control '" + controlID + "' does not exist");
+        }
+
+        participant.addProperty("lastInputAt", System.currentTimeMillis());
+
+        JsonObject forwarded = new JsonObject();
+        forwarded.addProperty("participantID", sessionID);
+        if ("mousedown".equals(stringOrNull(inputElement.getAsJsonObject(), "event"))
+                && control.has("cost") && !control.get("cost").isJsonNull() && control.get("cost").getAsInt() > 0) {
+            String transactionID = new UUID(random.nextLong(), random.nextLong()).toString();
+            transactions.put(transactionID, sessionID);
+            forwarded.addProperty("transactionID", transactionID);
+        }
+        forwarded.add("input", inputElement);
+        return forwarded;
+    }
+
+    /**
+     * Captures a transaction.
+     *
+     * @param   transactionID
+     *          Identifier of the transaction
+     *
+     * @throws  StandInRequestException
+     *          If the transaction is unknown or was already captured
+     *
+     * @since   3.3.0
+     */
+    void capture(String transactionID) throws StandInRequestException {
+        if (transactionID == null || transactions.remove(transactionID) == null) {
+            throw new StandInRequestException(INVALID_TRANSACTION, "Transaction '" + transactionID + "' is invalid");
+        }
+    }
+
+    /**
+     * Returns memory statistics for the resources held, measured as the size of their serialized form. Each scene is
+     * reported with its controls as child resources.
+     *
+     * @param   totalBytes
+     *          The memory limit reported to the game client
+     *
+     * @return  Memory statistics for the resources held
+     *
+     * @since   3.3.0
+     */
+    JsonObject getMemoryStats(int totalBytes) {
+        JsonArray resources = new JsonArray();
+        int usedBytes = 0;
+        for (String sceneID : scenes.keySet()) {
+            int ownBytes = sizeOf(scenes.get(sceneID));
+            JsonArray children = new JsonArray();
+            int cumulativeBytes = ownBytes;
+            for (JsonObject control : controls.get(sceneID).values()) {
+                int controlBytes = sizeOf(control);
+                children.add(memoryStatistic(control.get("controlID").getAsString(), controlBytes, controlBytes, new JsonArray()));
+                cumulativeBytes += controlBytes;
+            }
+            resources.add(memoryStatistic(sceneID, ownBytes, cumulativeBytes, children));
+            usedBytes += cumulativeBytes;
+        }
+        for (JsonObject group : groups.values()) {
+            int groupBytes = sizeOf(group);
+            resources.add(memoryStatistic(group.get("groupID").getAsString(), groupBytes, groupBytes, new JsonArray()));
+            usedBytes += groupBytes;
+        }
+
+        JsonObject stats = new JsonObject();
+        stats.addProperty("usedBytes", usedBytes);
+        stats.addProperty("totalBytes", totalBytes);
+        stats.add("resources", resources);
+        return stats;
+    }
+
+    /**
+     * Returns a scene including its controls.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @return  The scene including its controls
+     *
+     * @since   3.3.0
+     */
+    private JsonObject sceneWithControls(String sceneID) {
+        JsonObject scene = copyWithout(scenes.get(sceneID));
+        scene.add("controls", toArray(controls.get(sceneID).values()));
+        return scene;
+    }
+
+    /**
+     * Returns the controls of a scene, throwing if the scene is unknown.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @return  The controls of the scene
+     *
+     * @throws  StandInRequestException
+     *          If the scene is unknown
+     *
+     * @since   3.3.0
+     */
+    private Map<String, JsonObject> requireScene(String sceneID) throws StandInRequestException {
+        Map<String, JsonObject> sceneControls = sceneID != null ? controls.get(sceneID) : null;
+        if (sceneControls == null) {
+            throw new StandInRequestException(UNKNOWN_SCENE, "Scene '" + sceneID + "' does not exist");
+        }
+        return sceneControls;
+    }
+
+    /**
+     * Throws if a group is unknown.
+     *
+     * @param   groupID
+     *          Identifier of the group
+     *
+     * @throws  StandInRequestException
+     *          If the group is unknown
+     *
+     * @since   3.3.0
+     */
+    private void requireGroup(String groupID) throws StandInRequestException {
+        if (groupID == null || !groups.containsKey(groupID)) {
+            throw new StandInRequestException(UNKNOWN_GROUP, "Group '" + groupID + "' does not exist");
+        }
+    }
+
+    /**
+     * Returns a string property of a resource, throwing if the resource is not an object or the property is missing.
+     *
+     * @param   element
+     *          The resource
+     * @param   property
+     *          Name of the property
+     *
+     * @return  The value of the property
+     *
+     * @throws  StandInRequestException
+     *          If the resource is not an object or the property is missing
+     *
+     * @since   3.3.0
+     */
+    private static String requireString(JsonElement element, String property) throws StandInRequestException {
+        String value = element != null && element.isJsonObject() ? stringOrNull(element.getAsJsonObject(), property) : null;
+        if (value == null) {
+            throw new StandInRequestException(INVALID_PARAMS, "Resource is missing '" + property + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Returns a string property of an object, or <code>null</code> if it is missing or null.
+     *
+     * @param   object
+     *          The object
+     * @param   property
+     *          Name of the property
+     *
+     * @return  The value of the property, or <code>null</code>
+     *
+     * @since   3.3.0
+     */
+    static String stringOrNull(JsonObject object, String property) {
+        JsonElement value = object.get(property);
+        return value != null && !value.isJsonNull() ? value.getAsString() : null;
+    }
+
+    /**
+     * Copies the properties of an update onto a resource.
+     *
+     * @param   target
+     *          The resource
+     * @param   update
+     *          The update
+     *
+     * @since   3.3.0
+     */
+    private static void merge(JsonObject target, JsonObject update) {
+        for (Map.Entry<String, JsonElement> entry : update.entrySet()) {
+            target.add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns a shallow copy of an object without some of its properties.
+     *
+     * @param   object
+     *          The object
+     * @param   excluded
+     *          Names of the properties to leave out
+     *
+     * @return  The copy
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject copyWithout(JsonObject object, String ... excluded) {
+        JsonObject copy = new JsonObject();
+        outer:
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            for (String name : excluded) {
+                if (name.equals(entry.getKey())) {
+                    continue outer;
+                }
+            }
+            copy.add(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
+    /**
+     * Returns an array of resources.
+     *
+     * @param   resources
+     *          The resources
+     *
+     * @return  An array of the resources
+     *
+     * @since   3.3.0
+     */
+    private static JsonArray toArray(Iterable<JsonObject> resources) {
+        JsonArray array = new JsonArray();
+        for (JsonObject resource : resources) {
+            array.add(resource);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the size, in bytes, of the serialized form of a resource.
+     *
+     * @param   resource
+     *          The resource
+     *
+     * @return  The size of the serialized form of the resource
+     *
+     * @since   3.3.0
+     */
+    private static int sizeOf(JsonElement resource) {
+        return resource == null || resource instanceof JsonNull ? 0 : resource.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Builds the memory statistic of a resource.
+     *
+     * @param   id
+     *          Identifier of the resource
+     * @param   ownBytes
+     *          Size of the resource itself
+     * @param   cumulativeBytes
+     *          Size of the resource and its children
+     * @param   children
+     *          Memory statistics of the children of the resource
+     *
+     * @return  The memory statistic of the resource
+     *
+     * @since   3.3.0
+     */
+    private static JsonObject memoryStatistic(String id, int ownBytes, int cumulativeBytes, JsonArray children) {
+        JsonObject statistic = new JsonObject();
+        statistic.addProperty("id", id);
+        statistic.addProperty("ownBytes", ownBytes);
+        statistic.addProperty("cumulativeBytes", cumulativeBytes);
+        statistic.add("resources", children);
+        return statistic;
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Provides an in-process stand-in for the Interactive service, used to exercise the SDK without an external service.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.test.server;
@@ -0,0 +1,139 @@
+package com.mixer.interactive.test.unit.event;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.EchoPolicy;
+import com.mixer.interactive.event.EchoSuppressor;
+import com.mixer.interactive.event.control.ControlUpdateEvent;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for recognizing the update events that echo updates made by the game client.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class EchoSuppressorUnitTest {
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Control update events delivered to the game client
+     */
+    private final List<ControlUpdateEvent> updateEvents = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait().setEchoUpdates(true);
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        gameClient.getEventBus().register(this);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("fight", "default").setText("Fight")).get(5, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Subscribe
+    public void onControlUpdate(ControlUpdateEvent event) {
+        updateEvents.add(event);
+    }
+
+    @Test
+    public void recognizes_echo_by_identifier_and_content() {
+        EchoSuppressor echoSuppressor = new EchoSuppressor();
+        echoSuppressor.setPolicy(EchoPolicy.SUPPRESS);
+        JsonObject request = new JsonParser().parse("{\"sceneID\":\"default\",\"controls\":[{\"controlID\":\"fight\",\"etag\":\"1\",\"text\":\"Run\",\"meta\":{\"a\":1,\"b\":2}}]}").getAsJsonObject();
+        echoSuppressor.expect(new MethodPacket(1, InteractiveMethod.UPDATE_CONTROLS, request), CompletableFuture.completedFuture(new ReplyPacket(1, null, null)));
+
+        JsonObject otherChange = new JsonParser().parse("{\"sceneID\":\"default\",\"controls\":[{\"controlID\":\"fight\",\"etag\":\"2\",\"text\":\"Walk\",\"meta\":{\"b\":2,\"a\":1}}]}").getAsJsonObject();
+        Assert.assertEquals("Different content is not an echo", 1, echoSuppressor.withoutEchoes(InteractiveMethod.ON_CONTROL_UPDATE, otherChange).size());
+
+        JsonObject echo = new JsonParser().parse("{\"sceneID\":\"default\",\"controls\":[{\"controlID\":\"fight\",\"etag\":\"3\",\"kind\":\"button\",\"text\":\"Run\",\"meta\":{\"b\":2,\"a\":1}},{\"controlID\":\"flee\",\"text\":\"Run\"}]}").getAsJsonObject();
+        JsonArray remaining = echoSuppressor.withoutEchoes(InteractiveMethod.ON_CONTROL_UPDATE, echo);
+        Assert.assertEquals("Echoed control is removed", 1, remaining.size());
+        Assert.assertEquals("Other control remains", "flee", remaining.get(0).getAsJsonObject().get("controlID").getAsString());
+        Assert.assertEquals("Each update is echoed once", 2, echoSuppressor.withoutEchoes(InteractiveMethod.ON_CONTROL_UPDATE, echo).size());
+        Assert.assertEquals("Echo is counted", 1, echoSuppressor.getEchoCount());
+    }
+
+    @Test
+    public void suppresses_echo_of_own_update() throws Exception {
+        gameClient.getEchoSuppressor().setPolicy(EchoPolicy.SUPPRESS);
+        updateControl("Run");
+        awaitEchoes(1);
+        Assert.assertTrue("Echo is not delivered", updateEvents.isEmpty());
+    }
+
+    @Test
+    public void marks_echo_of_own_update() throws Exception {
+        gameClient.getEchoSuppressor().setPolicy(EchoPolicy.MARK);
+        updateControl("Run");
+        awaitEchoes(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (updateEvents.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("Echo is delivered", 1, updateEvents.size());
+        Assert.assertTrue("Echo is marked as self-originated", updateEvents.get(0).isSelfOriginated());
+    }
+
+    /**
+     * Updates the text of the control and waits for the update to complete.
+     *
+     * @param   text
+     *          The new text of the control
+     */
+    private void updateControl(String text) throws Exception {
+        for (CompletableFuture<Set<InteractiveControl>> update : gameClient.using(CONTROL_SERVICE_PROVIDER).update(new ButtonControl("fight", "default").setText(text)).get(5, TimeUnit.SECONDS).values()) {
+            update.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Waits for the game client to recognize echoes.
+     *
+     * @param   count
+     *          Number of echoes to wait for
+     */
+    private void awaitEchoes(long count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gameClient.getEchoSuppressor().getEchoCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("Echo is recognized", count, gameClient.getEchoSuppressor().getEchoCount());
+    }
+}
@@ -0,0 +1,162 @@
+package com.mixer.interactive.test.unit.event;
+
+import com.google.common.eventbus.Subscribe;
+import com.google.gson.JsonParser;
+import com.mixer.interactive.event.InteractiveEventBus;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.group.GroupCreateEvent;
+import com.mixer.interactive.event.participant.ParticipantEvent;
+import com.mixer.interactive.event.participant.ParticipantJoinEvent;
+import com.mixer.interactive.event.stream.EventStreams;
+import com.mixer.interactive.event.stream.IEventSubscriber;
+import com.mixer.interactive.event.stream.IEventSubscription;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for skipping the decoding of events nobody subscribes to, and binding event payloads lazily.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class EventInterestUnitTest {
+
+    @Test
+    public void tracks_subscribed_event_types() {
+        InteractiveEventBus eventBus = new InteractiveEventBus("test");
+        Assert.assertFalse("Nobody subscribes to participant events", eventBus.hasSubscribers(ParticipantJoinEvent.class));
+
+        ParticipantListener listener = new ParticipantListener();
+        eventBus.register(listener);
+        Assert.assertTrue("Subscriber to a superclass receives the event", eventBus.hasSubscribers(ParticipantJoinEvent.class));
+        Assert.assertFalse("Nobody subscribes to group events", eventBus.hasSubscribers(GroupCreateEvent.class));
+
+        eventBus.unregister(listener);
+        Assert.assertFalse("Unregistered subscriber no longer counts", eventBus.hasSubscribers(ParticipantJoinEvent.class));
+    }
+
+    @Test
+    public void tracks_event_types_subscribed_through_interfaces() {
+        InteractiveEventBus eventBus = new InteractiveEventBus("test");
+        GroupListenerImpl listener = new GroupListenerImpl();
+        eventBus.register(listener);
+        Assert.assertTrue("Subscriber declared by an interface receives the event", eventBus.hasSubscribers(GroupCreateEvent.class));
+
+        eventBus.post(new GroupCreateEvent(null));
+        Assert.assertEquals("Event bus delivers to the subscriber declared by an interface", 1, listener.received);
+
+        eventBus.unregister(listener);
+        Assert.assertFalse("Unregistered subscriber no longer counts", eventBus.hasSubscribers(GroupCreateEvent.class));
+    }
+
+    @Test
+    public void streams_are_interested_while_subscribed() {
+        InteractiveEventBus eventBus = new InteractiveEventBus("test");
+        EventStreams eventStreams = new EventStreams(Runnable::run);
+        eventBus.register(eventStreams);
+        Assert.assertFalse("Streams without subscribers are not interested", eventBus.hasSubscribers(ControlInputEvent.class));
+
+        eventStreams.getInputEvents().subscribe(new IEventSubscriber<ControlInputEvent>() {
+            @Override
+            public void onSubscribe(IEventSubscription subscription) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onNext(ControlInputEvent event) {
+                // NO-OP
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                // NO-OP
+            }
+
+            @Override
+            public void onComplete() {
+                // NO-OP
+            }
+        });
+        Assert.assertFalse("Cancelled subscriber no longer counts", eventBus.hasSubscribers(ControlInputEvent.class));
+
+        eventStreams.getInputEvents().subscribe(new CountingSubscriber());
+        Assert.assertTrue("Stream with a subscriber is interested", eventBus.hasSubscribers(ControlInputEvent.class));
+        Assert.assertFalse("Other streams are not interested", eventBus.hasSubscribers(ParticipantJoinEvent.class));
+    }
+
+    @Test
+    public void binds_payload_on_first_access() {
+        ParticipantJoinEvent event = new ParticipantJoinEvent(null);
+        event.deferPayload(new JsonParser().parse("[{\"sessionID\":\"session-1\",\"userID\":1,\"username\":\"user\",\"level\":1,\"lastInputAt\":0,\"connectedAt\":0,\"disabled\":false,\"groupID\":\"default\"}]"));
+        Assert.assertFalse("Payload is not bound before it is accessed", event.isPayloadBound());
+
+        Assert.assertEquals("Payload is bound on access", 1, event.getParticipants().size());
+        InteractiveParticipant participant = event.getParticipants().iterator().next();
+        Assert.assertEquals("Participant is bound", "session-1", participant.getSessionID());
+        Assert.assertTrue("Payload is bound after it is accessed", event.isPayloadBound());
+    }
+
+    /**
+     * Subscribes to every participant event.
+     */
+    public static class ParticipantListener {
+
+        @Subscribe
+        public void onParticipantEvent(ParticipantEvent event) {
+            // NO-OP
+        }
+    }
+
+    /**
+     * Declares a subscriber to group creation events.
+     */
+    public interface GroupListener {
+
+        @Subscribe
+        void onGroupCreate(GroupCreateEvent event);
+    }
+
+    /**
+     * Counts the group creation events it receives, subscribing through the interface it implements.
+     */
+    public static class GroupListenerImpl implements GroupListener {
+
+        /**
+         * Number of events received
+         */
+        private int received;
+
+        @Override
+        public void onGroupCreate(GroupCreateEvent event) {
+            received++;
+        }
+    }
+
+    /**
+     * Subscriber that keeps its subscription.
+     */
+    private static class CountingSubscriber implements IEventSubscriber<ControlInputEvent> {
+
+        @Override
+        public void onSubscribe(IEventSubscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ControlInputEvent event) {
+            // NO-OP
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // NO-OP
+        }
+
+        @Override
+        public void onComplete() {
+            // NO-OP
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mixer.interactive.test.unit.event;
+
+import com.google.common.eventbus.EventBus;
+import com.mixer.interactive.event.core.HelloEvent;
+import com.mixer.interactive.event.core.InteractiveCoreEvent;
+import com.mixer.interactive.event.participant.ParticipantEvent;
+import com.mixer.interactive.event.participant.ParticipantJoinEvent;
+import com.mixer.interactive.event.stream.EventOverflowStrategy;
+import com.mixer.interactive.event.stream.EventPublisher;
+import com.mixer.interactive.event.stream.EventStreams;
+import com.mixer.interactive.event.stream.IEventSubscriber;
+import com.mixer.interactive.event.stream.IEventSubscription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for streaming events to subscribers as fast as they request them.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class EventPublisherUnitTest {
+
+    @Test
+    public void delivers_only_requested_events() {
+        EventPublisher<Integer> publisher = new EventPublisher<>("numbers", Runnable::run);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        publish(publisher, 1, 2, 3, 4, 5);
+        Assert.assertEquals("Requested events are delivered", Arrays.asList(1, 2), subscriber.events);
+
+        subscriber.subscription.request(3);
+        Assert.assertEquals("Buffered events are delivered once requested", Arrays.asList(1, 2, 3, 4, 5), subscriber.events);
+    }
+
+    @Test
+    public void applies_overflow_strategy() {
+        EventPublisher<Integer> publisher = new EventPublisher<>("numbers", Runnable::run);
+        RecordingSubscriber<Integer> oldestDropped = new RecordingSubscriber<>();
+        RecordingSubscriber<Integer> latestDropped = new RecordingSubscriber<>();
+        RecordingSubscriber<Integer> failed = new RecordingSubscriber<>();
+        publisher.subscribe(oldestDropped, 2, EventOverflowStrategy.DROP_OLDEST);
+        publisher.subscribe(latestDropped, 2, EventOverflowStrategy.DROP_LATEST);
+        publisher.subscribe(failed, 2, EventOverflowStrategy.ERROR);
+
+        publish(publisher, 1, 2, 3, 4);
+        oldestDropped.subscription.request(10);
+        latestDropped.subscription.request(10);
+        Assert.assertEquals("Oldest events are dropped", Arrays.asList(3, 4), oldestDropped.events);
+        Assert.assertEquals("Latest events are dropped", Arrays.asList(1, 2), latestDropped.events);
+        Assert.assertTrue("Overflow fails the subscriber", failed.error instanceof IllegalStateException);
+        Assert.assertEquals("Failed subscriber is removed", 2, publisher.getSubscriberCount());
+        Assert.assertEquals("Dropped events are counted", 4, publisher.getDroppedCount());
+    }
+
+    @Test
+    public void completes_after_buffered_events() {
+        EventPublisher<Integer> publisher = new EventPublisher<>("numbers", Runnable::run);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+        publish(publisher, 1, 2);
+        publisher.close();
+        Assert.assertFalse("Not completed while events are buffered", subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assert.assertEquals("Buffered events are delivered", Arrays.asList(1, 2), subscriber.events);
+        Assert.assertTrue("Completed once drained", subscriber.completed);
+    }
+
+    @Test
+    public void streams_events_posted_to_event_bus() {
+        EventBus eventBus = new EventBus();
+        EventStreams streams = new EventStreams(Runnable::run);
+        eventBus.register(streams);
+        RecordingSubscriber<ParticipantEvent> participants = new RecordingSubscriber<>();
+        RecordingSubscriber<InteractiveCoreEvent> core = new RecordingSubscriber<>();
+        streams.getParticipantEvents().subscribe(participants);
+        streams.getCoreEvents().subscribe(core);
+        participants.subscription.request(Long.MAX_VALUE);
+        core.subscription.request(Long.MAX_VALUE);
+
+        eventBus.post(new ParticipantJoinEvent(Collections.emptyList()));
+        eventBus.post(new HelloEvent());
+        Assert.assertEquals("Participant event is streamed", 1, participants.events.size());
+        Assert.assertEquals("Core event is streamed", 1, core.events.size());
+    }
+
+    /**
+     * Publishes numbers in order.
+     *
+     * @param   publisher
+     *          The publisher
+     * @param   numbers
+     *          The numbers to publish
+     */
+    private static void publish(EventPublisher<Integer> publisher, Integer... numbers) {
+        for (Integer number : numbers) {
+            publisher.publish(number);
+        }
+    }
+
+    /**
+     * Subscriber recording what it is delivered.
+     *
+     * @param   <T>
+     *          Type of the events
+     */
+    private static class RecordingSubscriber<T> implements IEventSubscriber<T> {
+
+        /**
+         * The subscription
+         */
+        private IEventSubscription subscription;
+
+        /**
+         * Events delivered
+         */
+        private final List<T> events = new ArrayList<>();
+
+        /**
+         * Failure delivered, if any
+         */
+        private Throwable error;
+
+        /**
+         * Whether the subscriber was completed
+         */
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(IEventSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.mixer.interactive.test.unit.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.control.ControlCreateEvent;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.control.input.ControlMoveInputEvent;
+import com.mixer.interactive.event.core.MemoryWarningEvent;
+import com.mixer.interactive.event.core.ReadyEvent;
+import com.mixer.interactive.event.group.GroupDeleteEvent;
+import com.mixer.interactive.event.participant.ParticipantJoinEvent;
+import com.mixer.interactive.gson.*;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.InteractivePacket;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.resources.control.*;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Unit tests for the type adapters generated for resources and events, checking that they read and write the same
+ * JSON as Gson's reflective adapters.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+@SuppressWarnings("deprecation")
+public class GeneratedTypeAdapterUnitTest {
+
+    /**
+     * <code>Gson</code> configured as <code>GameClient.GSON</code> was before adapters were generated, binding
+     * resources and events through reflection
+     */
+    private static final Gson REFLECTIVE_GSON = new GsonBuilder()
+            .registerTypeAdapter(InteractivePacket.class, new InteractivePacketAdapter())
+            .registerTypeAdapter(InteractiveScene.class, new InteractiveSceneAdapter())
+            .registerTypeAdapter(InteractiveControl.class, new InteractiveControlAdapter())
+            .registerTypeAdapter(InteractiveCanvasSize.class, new InteractiveCanvasSizeAdapter())
+            .registerTypeAdapter(InteractiveControlType.class, new InteractiveControlTypeAdapter())
+            .registerTypeAdapter(InteractiveMethod.class, new InteractiveMethodAdapter())
+            .registerTypeAdapter(InteractiveControlInput.class, new InteractiveControlInputAdapter())
+            .registerTypeAdapter(ControlInputEvent.class, new ControlInputEventAdapter())
+            .serializeNulls()
+            .create();
+
+    @Test
+    public void writes_controls_like_reflective_adapter() {
+        ButtonControl button = new ButtonControl("button", "scene", new InteractiveControlPosition(InteractiveCanvasSize.LARGE, 10, 9, 1, 2))
+                .setText("Press").setCost(100).setProgress(0.25f).setCooldown(1500L).setTextSize(12).setKeyCode(32)
+                .addMetaProperty("glow", true);
+        JoystickControl joystick = new JoystickControl("joystick").setSampleRate(50).setAngle(1.5).setIntensity(1);
+        LabelControl label = new LabelControl("label").setText("Score").setBold(true);
+        TextboxControl textbox = new TextboxControl("textbox").setPlaceholder("Say something").setHasSubmit(true);
+
+        for (InteractiveControl control : Arrays.<InteractiveControl>asList(button, joystick, label, textbox)) {
+            Assert.assertEquals("Generated adapter is used", control.getClass().getName() + "_GsonAdapter", GameClient.GSON.getAdapter(control.getClass()).getClass().getName());
+            Assert.assertEquals("Control is written like the reflective adapter", REFLECTIVE_GSON.toJson(control), GameClient.GSON.toJson(control));
+            Assert.assertEquals("Control is written like the reflective adapter as its superclass", REFLECTIVE_GSON.toJson(control, InteractiveControl.class), GameClient.GSON.toJson(control, InteractiveControl.class));
+        }
+    }
+
+    @Test
+    public void writes_participants_and_groups_like_reflective_adapter() {
+        InteractiveParticipant participant = new InteractiveParticipant("session", 1234, "user", 10, 1500L, 1000L, true, "default");
+        InteractiveGroup group = new InteractiveGroup("group", "scene").addMetaProperty("team", "red");
+
+        Assert.assertEquals("Participant is written like the reflective adapter", REFLECTIVE_GSON.toJson(participant), GameClient.GSON.toJson(participant));
+        Assert.assertEquals("Group is written like the reflective adapter", REFLECTIVE_GSON.toJson(group), GameClient.GSON.toJson(group));
+    }
+
+    @Test
+    public void reads_controls_with_kind_in_any_position() {
+        String json = "{\"controlID\":\"button\",\"position\":[{\"size\":\"large\",\"width\":10,\"height\":9,\"x\":1,\"y\":2}],"
+                + "\"unknown\":{\"nested\":[1,2]},\"text\":\"Press\",\"kind\":\"button\",\"cost\":100,\"disabled\":true}";
+
+        InteractiveControl expected = REFLECTIVE_GSON.fromJson(json, InteractiveControl.class);
+        InteractiveControl actual = GameClient.GSON.fromJson(json, InteractiveControl.class);
+        Assert.assertEquals("Control is read as its subclass", ButtonControl.class, actual.getClass());
+        Assert.assertEquals("Control is read like the reflective adapter", REFLECTIVE_GSON.toJson(expected), REFLECTIVE_GSON.toJson(actual));
+        Assert.assertEquals("Properties preceding the kind are read", "Press", ((ButtonControl) actual).getText());
+
+        Assert.assertEquals("Control of unknown kind is read as null", null, GameClient.GSON.fromJson("{\"kind\":\"slider\",\"controlID\":\"slider\"}", InteractiveControl.class));
+        Assert.assertEquals("Control without kind is read as null", null, GameClient.GSON.fromJson("{\"controlID\":\"button\"}", InteractiveControl.class));
+    }
+
+    @Test
+    public void reads_events_like_reflective_adapter() {
+        String participantJoin = "{\"participants\":[{\"sessionID\":\"session\",\"userID\":1234,\"username\":\"user\",\"level\":10,"
+                + "\"lastInputAt\":1500,\"connectedAt\":1000,\"disabled\":false,\"groupID\":\"default\",\"meta\":{}}]}";
+        String controlCreate = "{\"sceneID\":\"scene\",\"controls\":[{\"controlID\":\"label\",\"kind\":\"label\",\"text\":\"Score\","
+                + "\"position\":[]},{\"kind\":\"joystick\",\"controlID\":\"joystick\",\"sampleRate\":50,\"position\":[]}]}";
+        String memoryWarning = "{\"usedBytes\":100,\"totalBytes\":200,\"resourceMemoryStatistics\":[{\"id\":\"scene\",\"ownBytes\":10,\"cumulativeBytes\":20,"
+                + "\"resources\":[]}]}";
+
+        assertReadLikeReflectiveAdapter(participantJoin, ParticipantJoinEvent.class);
+        assertReadLikeReflectiveAdapter(controlCreate, ControlCreateEvent.class);
+        assertReadLikeReflectiveAdapter(memoryWarning, MemoryWarningEvent.class);
+        assertReadLikeReflectiveAdapter("{\"groupID\":\"group\",\"reassignGroupID\":\"default\"}", GroupDeleteEvent.class);
+        assertReadLikeReflectiveAdapter("{\"isReady\":true}", ReadyEvent.class);
+
+        Collection<InteractiveControl> controls = GameClient.GSON.fromJson(controlCreate, ControlCreateEvent.class).getControls();
+        Assert.assertEquals("Both controls are read", 2, controls.size());
+    }
+
+    @Test
+    public void reads_controls_through_their_constructors() {
+        InteractiveControl control = GameClient.GSON.fromJson("{\"controlID\":\"button\",\"kind\":\"button\",\"cost\":5,\"cooldown\":null}", InteractiveControl.class);
+        Assert.assertEquals("Control is read as its subclass", ButtonControl.class, control.getClass());
+        Assert.assertEquals("Cost is read", 5, (int) ((ButtonControl) control).getCost());
+        Assert.assertNotNull("Missing positions are left empty rather than null", control.getPositions());
+        Assert.assertTrue("Missing positions are left empty rather than null", control.getPositions().isEmpty());
+    }
+
+    @Test
+    public void binds_fields_through_named_accessors() {
+        GroupDeleteEvent groupDelete = GameClient.GSON.fromJson("{\"id\":42,\"groupID\":\"group\",\"reassignGroupID\":\"default\"}", GroupDeleteEvent.class);
+        Assert.assertEquals("Event id is read through its setter", 42, groupDelete.getRequestID());
+        Assert.assertEquals("Event id is written through its getter", REFLECTIVE_GSON.toJson(groupDelete), GameClient.GSON.toJson(groupDelete));
+
+        ReadyEvent ready = GameClient.GSON.fromJson("{\"id\":7}", ReadyEvent.class);
+        Assert.assertEquals("Missing ready state is written as received", REFLECTIVE_GSON.toJson(ready), GameClient.GSON.toJson(ready));
+
+        MemoryWarningEvent memoryWarning = GameClient.GSON.fromJson("{\"usedBytes\":100,\"totalBytes\":200,\"resourceMemoryStatistics\":[{\"id\":\"scene\","
+                + "\"ownBytes\":10,\"cumulativeBytes\":20,\"resources\":[{\"id\":\"control\",\"ownBytes\":5,\"cumulativeBytes\":5,\"resources\":[]}]}]}", MemoryWarningEvent.class);
+        Assert.assertEquals("Memory statistics are written through their getters", REFLECTIVE_GSON.toJson(memoryWarning), GameClient.GSON.toJson(memoryWarning));
+    }
+
+    @Test
+    public void round_trips_input_frames() {
+        JsonObject input = new JsonObject();
+        input.addProperty("controlID", "joystick");
+        input.addProperty("event", "move");
+        input.addProperty("x", 0.5);
+        input.addProperty("y", -1);
+        JsonObject params = new JsonObject();
+        params.addProperty("participantID", "session");
+        params.addProperty("transactionID", "transaction");
+        params.add("input", input);
+        String frame = GameClient.GSON.toJson(new MethodPacket(1, InteractiveMethod.GIVE_INPUT, params));
+
+        MethodPacket packet = (MethodPacket) GameClient.GSON.fromJson(frame, InteractivePacket.class);
+        ControlInputEvent event = GameClient.GSON.fromJson(packet.getRequestParameters(), ControlInputEvent.class);
+        Assert.assertEquals("Input event is read as its subclass", ControlMoveInputEvent.class, event.getClass());
+        Assert.assertEquals("Participant is read", "session", event.getParticipantID());
+        Assert.assertEquals("Transaction is read", "transaction", event.getTransaction().getTransactionID());
+        Assert.assertEquals("Raw input is read", input.get("x"), event.getControlInput().getRawInput().get("x"));
+        Assert.assertEquals("Input event is written as it was received", params, new JsonParser().parse(GameClient.GSON.toJson(event, ControlInputEvent.class)));
+    }
+
+    @Test
+    public void round_trips_collections_of_resources() {
+        Collection<InteractiveParticipant> participants = Collections.singletonList(new InteractiveParticipant("session", 1234, "user", 10, 1500L, 1000L, false, "default"));
+        String json = GameClient.GSON.toJson(participants);
+        Assert.assertEquals("Participants are written like the reflective adapter", REFLECTIVE_GSON.toJson(participants), json);
+        Assert.assertEquals("Participants are read back", json, GameClient.GSON.toJson(GameClient.GSON.fromJson(json, InteractiveParticipant[].class)));
+    }
+
+    /**
+     * Asserts that the generated adapter of an event reads the same event as the reflective adapter.
+     *
+     * @param   json
+     *          JSON of the event
+     * @param   eventType
+     *          Type of the event
+     */
+    private static void assertReadLikeReflectiveAdapter(String json, Class<?> eventType) {
+        Object expected = REFLECTIVE_GSON.fromJson(json, eventType);
+        Object actual = GameClient.GSON.fromJson(json, eventType);
+        Assert.assertEquals(String.format("%s is read like the reflective adapter", eventType.getSimpleName()), REFLECTIVE_GSON.toJson(expected), REFLECTIVE_GSON.toJson(actual));
+    }
+}
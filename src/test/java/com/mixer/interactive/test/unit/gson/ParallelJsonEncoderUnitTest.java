@@ -0,0 +1,136 @@
+package com.mixer.interactive.test.unit.gson;
+
+import com.google.common.base.Utf8;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.gson.EncodedJsonArray;
+import com.mixer.interactive.gson.ParallelJsonEncoder;
+import com.mixer.interactive.protocol.EncodedMethodPacket;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.resources.InteractiveResource;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for encoding collections as JSON arrays in parallel, checking that the encoded bytes match what Gson
+ * writes for the same collection on a single thread.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class ParallelJsonEncoderUnitTest {
+
+    /**
+     * The pool the encoder under test encodes its slices on
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /**
+     * An encoder using small slices, so that even modest collections are encoded in parallel
+     */
+    private static final ParallelJsonEncoder ENCODER = new ParallelJsonEncoder(GameClient.GSON, POOL, 37);
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void encodes_same_json_as_gson() {
+        List<InteractiveParticipant> participants = participants(5000);
+
+        EncodedJsonArray encoded = ENCODER.encode(participants);
+
+        String expected = GameClient.GSON.toJson(participants);
+        Assert.assertEquals("Encoded array matches Gson", expected, encoded.toString());
+        Assert.assertEquals("Byte length matches", Utf8.encodedLength(expected), encoded.getByteLength());
+        Assert.assertEquals("Size matches", participants.size(), encoded.size());
+    }
+
+    @Test
+    public void slices_match_subsets() {
+        List<InteractiveParticipant> participants = participants(500);
+        EncodedJsonArray encoded = ENCODER.encode(participants);
+
+        for (int[] range : new int[][] { {0, 0}, {0, 1}, {36, 38}, {37, 74}, {10, 499}, {0, 500} }) {
+            EncodedJsonArray slice = encoded.slice(range[0], range[1]);
+            String expected = GameClient.GSON.toJson(participants.subList(range[0], range[1]));
+            Assert.assertEquals("Slice matches subset", expected, slice.toString());
+            Assert.assertEquals("Slice byte length matches", Utf8.encodedLength(expected), slice.getByteLength());
+        }
+
+        EncodedJsonArray nested = encoded.slice(100, 200).slice(30, 40);
+        Assert.assertEquals("Nested slice matches subset", GameClient.GSON.toJson(participants.subList(130, 140)), nested.toString());
+        Assert.assertEquals("Element byte length matches", Utf8.encodedLength(GameClient.GSON.toJson(participants.get(135))), nested.getElementByteLength(5));
+    }
+
+    @Test
+    public void encodes_empty_collection() {
+        EncodedJsonArray encoded = ENCODER.encode(Collections.emptyList());
+
+        Assert.assertEquals("Empty array", "[]", encoded.toString());
+        Assert.assertEquals("Empty array is two bytes", 2, encoded.getByteLength());
+    }
+
+    @Test
+    public void writes_encoded_parameter_into_packet() throws Exception {
+        List<InteractiveParticipant> participants = participants(100);
+        JsonObject params = new JsonObject();
+        params.addProperty("priority", 1);
+        EncodedMethodPacket encodedPacket = new EncodedMethodPacket(7, InteractiveMethod.UPDATE_PARTICIPANTS, params, "participants", ENCODER.encode(participants));
+        encodedPacket.setSequenceNumber(3);
+
+        JsonObject expectedParams = new JsonObject();
+        expectedParams.addProperty("priority", 1);
+        expectedParams.add("participants", GameClient.GSON.toJsonTree(participants));
+        MethodPacket expectedPacket = new MethodPacket(7, InteractiveMethod.UPDATE_PARTICIPANTS, expectedParams);
+        expectedPacket.setSequenceNumber(3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encodedPacket.writeTo(out);
+        Assert.assertEquals("Packet parses to the same JSON",
+                GameClient.GSON.toJsonTree(expectedPacket),
+                GameClient.GSON.fromJson(new String(out.toByteArray(), StandardCharsets.UTF_8), JsonObject.class));
+    }
+
+    @Test
+    public void decodes_encoded_parameter_from_its_sources() {
+        List<InteractiveParticipant> participants = participants(500);
+        EncodedJsonArray encoded = ENCODER.encode(participants, InteractiveResource::toCachedJsonTree).slice(100, 300);
+        EncodedMethodPacket encodedPacket = new EncodedMethodPacket(7, InteractiveMethod.UPDATE_PARTICIPANTS, null, "participants", encoded);
+
+        JsonArray decoded = encodedPacket.getDecodedParameters().getAsJsonArray("participants");
+        Assert.assertEquals("Decoded parameter matches Gson", GameClient.GSON.toJsonTree(participants.subList(100, 300)), decoded);
+        for (int i = 0; i < decoded.size(); i++) {
+            Assert.assertTrue("Decoded element is the cached serialized form", decoded.get(i) == InteractiveResource.toCachedJsonTree(participants.get(100 + i)));
+        }
+    }
+
+    /**
+     * Creates participants with distinct, partly non-ASCII names.
+     *
+     * @param   count
+     *          Number of participants to create
+     *
+     * @return  The participants
+     */
+    private static List<InteractiveParticipant> participants(int count) {
+        List<InteractiveParticipant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(new InteractiveParticipant("session-" + i, i, (i % 7 == 0 ? "üsér☃" : "user") + i, i % 50, 1000L * i, 2000L * i, i % 3 == 0, "default"));
+        }
+        return participants;
+    }
+}
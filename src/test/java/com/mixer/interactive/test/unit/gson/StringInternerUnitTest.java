@@ -0,0 +1,71 @@
+package com.mixer.interactive.test.unit.gson;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.participant.ParticipantJoinEvent;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.util.StringInterner;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+/**
+ * Unit tests for interning identifiers read by the decoders.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class StringInternerUnitTest {
+
+    @Test
+    public void returns_canonical_instance() {
+        StringInterner interner = new StringInterner(16);
+        String first = new String("button-1");
+        String second = new String("button-1");
+
+        Assert.assertSame("First instance becomes canonical", first, interner.intern(first));
+        Assert.assertSame("Equal instance is replaced by the canonical one", first, interner.intern(second));
+        Assert.assertNull("Null is not interned", interner.intern(null));
+    }
+
+    @Test
+    public void stays_bounded_and_releases() {
+        StringInterner interner = new StringInterner(10);
+        Assert.assertEquals("Capacity is rounded up to a power of two", 16, interner.getCapacity());
+
+        for (int i = 0; i < 10000; i++) {
+            String value = "session-" + i;
+            Assert.assertEquals("Interned value is equal", value, interner.intern(value));
+        }
+        int held = 0;
+        for (int i = 0; i < 10000; i++) {
+            held += interner.contains("session-" + i) ? 1 : 0;
+        }
+        Assert.assertTrue("Never holds more than its capacity", held <= interner.getCapacity());
+
+        String session = interner.intern("departed");
+        Assert.assertTrue("Release evicts a held value", interner.release(new String("departed")));
+        Assert.assertFalse("Released value is no longer held", interner.contains(session));
+        Assert.assertFalse("Releasing an absent value reports nothing", interner.release("departed"));
+    }
+
+    @Test
+    public void decoders_share_identifier_instances() {
+        String json = "{\"participantID\":\"%s\",\"input\":{\"controlID\":\"%s\",\"event\":\"mousedown\",\"button\":0}}";
+        ControlInputEvent first = GameClient.GSON.fromJson(String.format(json, "interned-session", "interned-control"), ControlInputEvent.class);
+        ControlInputEvent second = GameClient.GSON.fromJson(String.format(json, "interned-session", "interned-control"), ControlInputEvent.class);
+
+        Assert.assertSame("Participant identifiers are shared", first.getParticipantID(), second.getParticipantID());
+        Assert.assertSame("Control identifiers are shared", first.getControlInput().getControlID(), second.getControlInput().getControlID());
+        Assert.assertSame("Event names are shared", first.getControlInput().getEvent(), second.getControlInput().getEvent());
+
+        String participants = "{\"participants\":[{\"sessionID\":\"interned-session\",\"userID\":1,\"username\":\"viewer\",\"level\":1,\"lastInputAt\":1,\"connectedAt\":1,\"disabled\":false,\"groupID\":\"interned-group\"}]}";
+        Iterator<InteractiveParticipant> joined = GameClient.GSON.fromJson(participants, ParticipantJoinEvent.class).getParticipants().iterator();
+        InteractiveParticipant participant = joined.next();
+        Assert.assertSame("Generated adapters intern session identifiers", first.getParticipantID(), participant.getSessionID());
+        Assert.assertSame("Generated adapters intern group identifiers",
+                StringInterner.IDENTIFIERS.intern(new String("interned-group")), participant.getGroupID());
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Contains all unit tests related to testing Gson type adapters.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.test.unit.gson;
@@ -0,0 +1,136 @@
+package com.mixer.interactive.test.unit.load;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.JoystickControl;
+import com.mixer.interactive.test.load.ButtonMashProfile;
+import com.mixer.interactive.test.load.InputLatencyRecorder;
+import com.mixer.interactive.test.load.JoystickStreamProfile;
+import com.mixer.interactive.test.load.LoadReport;
+import com.mixer.interactive.test.load.ParticipantLoadGenerator;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for <code>ParticipantLoadGenerator</code>, driven against an <code>InteractiveStandInServer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class ParticipantLoadGeneratorUnitTest {
+
+    /**
+     * The project version ID used by the game client
+     */
+    private static final int PROJECT_VERSION_ID = 1234;
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Records input latency seen by the game client
+     */
+    private InputLatencyRecorder recorder;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(PROJECT_VERSION_ID, TestUtils.CLIENT_ID);
+        recorder = new InputLatencyRecorder().register(gameClient);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("button", "default"), new JoystickControl("joystick", "default")).get(5, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void delivers_button_input_to_the_game_client() throws Exception {
+        ParticipantLoadGenerator generator = new ParticipantLoadGenerator(server.getParticipantURI(), new ButtonMashProfile("button", 5))
+                .setParticipantCount(200)
+                .setSeed(42)
+                .start();
+        awaitParticipants(200);
+        Thread.sleep(1000);
+        generator.stop();
+        LoadReport report = awaitHandled(generator);
+
+        Assert.assertEquals("Every participant connects", 200, report.getParticipantsConnected());
+        Assert.assertEquals("No participant fails", 0, report.getParticipantsFailed());
+        Assert.assertTrue("Input is sent", report.getInputsSent() > 0);
+        Assert.assertEquals("Every input is handled", report.getInputsSent(), report.getInputsHandled());
+        Assert.assertTrue("Participants receive frames", report.getFramesReceived() >= 200);
+        Assert.assertTrue("Latency is measured", report.getLatencyMax() > 0);
+    }
+
+    @Test
+    public void streams_joystick_input() throws Exception {
+        ParticipantLoadGenerator generator = new ParticipantLoadGenerator(server.getParticipantURI(), new JoystickStreamProfile("joystick", 20))
+                .setParticipantCount(50)
+                .start();
+        awaitParticipants(50);
+        Thread.sleep(500);
+        generator.stop();
+        LoadReport report = awaitHandled(generator);
+
+        Assert.assertTrue("Joystick input arrives at roughly the configured rate", report.getInputsSent() >= 50 * 20 / 4);
+        Assert.assertEquals("Every input is handled", report.getInputsSent(), report.getInputsHandled());
+    }
+
+    /**
+     * Waits for a number of participants to join the stand-in server.
+     *
+     * @param   count
+     *          Number of participants
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting
+     */
+    private void awaitParticipants(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getParticipantCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("Participants join", count, server.getParticipantCount());
+    }
+
+    /**
+     * Waits for the game client to handle every input sent by a stopped load generator.
+     *
+     * @param   generator
+     *          The stopped load generator
+     *
+     * @return  The final report
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting
+     */
+    private LoadReport awaitHandled(ParticipantLoadGenerator generator) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        LoadReport report = generator.getReport(recorder);
+        while (report.getInputsHandled() < report.getInputsSent() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            report = generator.getReport(recorder);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mixer.interactive.test.unit.memory;
+
+import com.google.common.eventbus.Subscribe;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.connection.MemoryBudgetEvent;
+import com.mixer.interactive.memory.MemoryAccountant;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for <code>MemoryAccountant</code>, estimating the memory used on an <code>InteractiveStandInServer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class MemoryAccountantUnitTest {
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Memory budget events posted by the game client
+     */
+    private final BlockingQueue<MemoryBudgetEvent> budgetEvents = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+        gameClient.getEventBus().register(this);
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Subscribe
+    public void onMemoryBudget(MemoryBudgetEvent event) {
+        budgetEvents.add(event);
+    }
+
+    @Test
+    public void estimates_usage_between_calibrations() throws Exception {
+        MemoryAccountant accountant = new MemoryAccountant(gameClient, 1 << 20, 0.5, 0);
+        accountant.start();
+        long calibratedBytes = accountant.calibrate().get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Calibration adopts the reported usage", gameClient.getMemoryStats().get(5, TimeUnit.SECONDS).getUsedBytes(), calibratedBytes);
+
+        gameClient.using(SCENE_SERVICE_PROVIDER).create(new InteractiveScene("arena")).get(5, TimeUnit.SECONDS);
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("fight", "arena").setText("A button with a long label")).get(5, TimeUnit.SECONDS);
+        long reportedBytes = gameClient.getMemoryStats().get(5, TimeUnit.SECONDS).getUsedBytes();
+        long estimatedBytes = accountant.getEstimatedBytes();
+        Assert.assertTrue("Created resources are accounted for", estimatedBytes > calibratedBytes);
+        Assert.assertTrue("Estimate is close to the reported usage, was " + estimatedBytes + " for " + reportedBytes, Math.abs(estimatedBytes - reportedBytes) <= reportedBytes / 4);
+
+        gameClient.using(SCENE_SERVICE_PROVIDER).delete("arena").get(5, TimeUnit.SECONDS);
+        // The estimate is updated once the reply is handled, which may be just after the caller sees it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (accountant.getEstimatedBytes() != calibratedBytes && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("Deleted resources are no longer accounted for", calibratedBytes, accountant.getEstimatedBytes());
+        accountant.stop();
+        Assert.assertNull("Stopped accountant is removed", gameClient.getMemoryAccountant());
+    }
+
+    @Test
+    public void posts_event_near_budget() throws Exception {
+        long baselineBytes = gameClient.getMemoryStats().get(5, TimeUnit.SECONDS).getUsedBytes();
+        MemoryAccountant accountant = new MemoryAccountant(gameClient, 2 * baselineBytes + 100, 0.5, 0);
+        accountant.start();
+        accountant.calibrate().get(5, TimeUnit.SECONDS);
+        Assert.assertFalse("Usage starts below the budget", accountant.isNearBudget());
+
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("fight", "default").setText("A button with a label well over fifty bytes long")).get(5, TimeUnit.SECONDS);
+        MemoryBudgetEvent nearEvent = budgetEvents.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull("Event is posted near the budget", nearEvent);
+        Assert.assertTrue("Event reports usage near the budget", nearEvent.isNearBudget());
+
+        gameClient.using(CONTROL_SERVICE_PROVIDER).delete(new ButtonControl("fight", "default")).get(5, TimeUnit.SECONDS);
+        MemoryBudgetEvent belowEvent = budgetEvents.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull("Event is posted back below the budget", belowEvent);
+        Assert.assertFalse("Event reports usage below the budget", belowEvent.isNearBudget());
+    }
+}
@@ -0,0 +1,101 @@
+package com.mixer.interactive.test.unit.memory;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.memory.MemoryGovernor;
+import com.mixer.interactive.memory.MemoryTrimPolicies;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.core.InteractiveMemoryStatistic;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for <code>MemoryGovernor</code>, trimming the memory used on an <code>InteractiveStandInServer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class MemoryGovernorUnitTest {
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void deletes_largest_stale_scenes_down_to_target() throws Exception {
+        gameClient.using(SCENE_SERVICE_PROVIDER).create(new InteractiveScene("arena"), new InteractiveScene("lobby"), new InteractiveScene("shop")).get(5, TimeUnit.SECONDS);
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("fight", "arena").setText("A button with a long label")).get(5, TimeUnit.SECONDS);
+        gameClient.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("shoppers", "shop")).get(5, TimeUnit.SECONDS);
+
+        // Sets the target so that deleting the arena, the largest stale scene, is enough
+        InteractiveMemoryStatistic stats = gameClient.getMemoryStats().get(5, TimeUnit.SECONDS);
+        int arenaBytes = stats.getResourceMemoryStats().stream().filter(resource -> resource.getResourceID().equals("arena")).findFirst().get().getCumulativeBytes();
+        server.setMemoryLimit(2 * (stats.getUsedBytes() - arenaBytes / 2));
+        MemoryGovernor governor = new MemoryGovernor(gameClient, 0.5, 50, 3, Collections.singletonList(MemoryTrimPolicies.deleteStaleScenes()));
+        Assert.assertTrue("Usage is trimmed down to the target", governor.trim().get(5, TimeUnit.SECONDS));
+
+        Set<String> sceneIDs = gameClient.using(SCENE_SERVICE_PROVIDER).getScenes().get(5, TimeUnit.SECONDS).stream()
+                .map(InteractiveScene::getSceneID)
+                .collect(Collectors.toSet());
+        Assert.assertEquals("Only the largest stale scene is deleted", new HashSet<>(Arrays.asList("default", "lobby", "shop")), sceneIDs);
+        Assert.assertFalse("Governor stops trimming", governor.isTrimming());
+    }
+
+    @Test
+    public void collapses_groups_on_memory_warning() throws Exception {
+        int baselineBytes = gameClient.getMemoryStats().get(5, TimeUnit.SECONDS).getUsedBytes();
+        gameClient.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("red"), new InteractiveGroup("blue")).get(5, TimeUnit.SECONDS);
+
+        MemoryGovernor governor = new MemoryGovernor(gameClient, 0.5, 50, 3, Collections.singletonList(MemoryTrimPolicies.collapseGroups()));
+        gameClient.getEventBus().register(governor);
+        server.setMemoryLimit(2 * (baselineBytes + 1));
+        server.issueMemoryWarning();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        Set<String> groupIDs;
+        do {
+            Thread.sleep(20);
+            groupIDs = gameClient.using(GROUP_SERVICE_PROVIDER).getGroups().get(5, TimeUnit.SECONDS).stream()
+                    .map(InteractiveGroup::getGroupID)
+                    .collect(Collectors.toSet());
+        }
+        while (groupIDs.size() > 1 && System.nanoTime() < deadline);
+        Assert.assertEquals("Groups are collapsed into the default group", Collections.singleton("default"), groupIDs);
+    }
+}
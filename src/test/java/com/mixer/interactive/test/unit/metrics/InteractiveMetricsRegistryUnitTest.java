@@ -0,0 +1,95 @@
+package com.mixer.interactive.test.unit.metrics;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.metrics.LatencyHistogram;
+import com.mixer.interactive.metrics.MethodMetrics;
+import com.mixer.interactive.metrics.NoOpMetricsRegistry;
+import com.mixer.interactive.protocol.InteractiveError;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for <code>InteractiveMetricsRegistry</code> and <code>LatencyHistogram</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class InteractiveMetricsRegistryUnitTest {
+
+    @Test
+    public void game_client_defaults_to_no_op_registry() {
+        GameClient gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        Assert.assertEquals("Default registry is the no-op registry", NoOpMetricsRegistry.INSTANCE, gameClient.getMetricsRegistry());
+        Assert.assertEquals("No-op registry is disabled", false, gameClient.getMetricsRegistry().isEnabled());
+
+        gameClient.setMetricsRegistry(null);
+        Assert.assertEquals("Null registry falls back to the no-op registry", NoOpMetricsRegistry.INSTANCE, gameClient.getMetricsRegistry());
+    }
+
+    @Test
+    public void records_requests_replies_and_timeouts() {
+        InteractiveMetricsRegistry registry = new InteractiveMetricsRegistry();
+        registry.requestSent(InteractiveMethod.UPDATE_CONTROLS, 100, 2, true);
+        registry.requestSent(InteractiveMethod.UPDATE_CONTROLS, 100, 2, true);
+        registry.requestSent(InteractiveMethod.UPDATE_CONTROLS, 50, 1, true);
+        registry.replyReceived(InteractiveMethod.UPDATE_CONTROLS, TimeUnit.MILLISECONDS.toNanos(10), null);
+        registry.replyReceived(InteractiveMethod.UPDATE_CONTROLS, TimeUnit.MILLISECONDS.toNanos(20), new InteractiveError(4019, "Unknown control", null));
+        registry.bytesReceived(InteractiveMethod.UPDATE_CONTROLS, 75);
+
+        MethodMetrics metrics = registry.getMethodMetrics(InteractiveMethod.UPDATE_CONTROLS);
+        Assert.assertEquals("Request count", 3, metrics.getRequestCount());
+        Assert.assertEquals("Bytes sent", 250, metrics.getBytesSent());
+        Assert.assertEquals("Bytes received", 75, metrics.getBytesReceived());
+        Assert.assertEquals("Mean batch size", 5.0 / 3, metrics.getMeanBatchSize(), 0.0001);
+        Assert.assertEquals("One request in flight", 1, metrics.getInFlight());
+        Assert.assertEquals("Error count", 1, metrics.getErrorCount());
+        Assert.assertEquals("Error count by code", Long.valueOf(1), metrics.getErrorCountsByCode().get("4019"));
+
+        registry.requestTimedOut(InteractiveMethod.UPDATE_CONTROLS, TimeUnit.SECONDS.toNanos(15));
+        Assert.assertEquals("Timeout count", 1, metrics.getTimeoutCount());
+        Assert.assertEquals("No requests in flight", 0, metrics.getInFlight());
+        Assert.assertEquals("Only replied requests count towards latency", 2, metrics.getLatencyHistogram().getCount());
+    }
+
+    @Test
+    public void histogram_percentiles_are_within_error_bound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        Assert.assertEquals("Count", 1000, histogram.getCount());
+        Assert.assertEquals("Median", 500, histogram.getValueAtPercentile(50, TimeUnit.MICROSECONDS), 500 * 0.04);
+        Assert.assertEquals("99th percentile", 990, histogram.getValueAtPercentile(99, TimeUnit.MICROSECONDS), 990 * 0.04);
+        Assert.assertEquals("Max", TimeUnit.MICROSECONDS.toNanos(1000), histogram.getMax());
+        Assert.assertEquals("Mean", TimeUnit.MICROSECONDS.toNanos(1) * 500.5, histogram.getMean(), 0.0001);
+
+        histogram.reset();
+        Assert.assertEquals("Reset clears the histogram", 0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void can_register_with_jmx() throws Exception {
+        InteractiveMetricsRegistry registry = new InteractiveMetricsRegistry();
+        registry.requestSent(InteractiveMethod.GET_TIME, 10, 1, true);
+        registry.registerMBeans("unit-test");
+        registry.requestSent(InteractiveMethod.GET_SCENES, 10, 1, true);
+
+        ObjectName getTime = new ObjectName("com.mixer.interactive:type=RpcMetrics,client=\"unit-test\",method=GET_TIME");
+        ObjectName getScenes = new ObjectName("com.mixer.interactive:type=RpcMetrics,client=\"unit-test\",method=GET_SCENES");
+        Assert.assertEquals("Existing metrics are registered", true, ManagementFactory.getPlatformMBeanServer().isRegistered(getTime));
+        Assert.assertEquals("New metrics are registered", true, ManagementFactory.getPlatformMBeanServer().isRegistered(getScenes));
+        Assert.assertEquals("Attributes are readable", 1L, ManagementFactory.getPlatformMBeanServer().getAttribute(getTime, "RequestCount"));
+
+        registry.unregisterMBeans();
+        Assert.assertEquals("Metrics are unregistered", false, ManagementFactory.getPlatformMBeanServer().isRegistered(getTime));
+    }
+}
@@ -0,0 +1,169 @@
+package com.mixer.interactive.test.unit.reconcile;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.reconcile.ReconciliationPlan;
+import com.mixer.interactive.reconcile.SceneReconciler;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveCanvasSize;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.control.InteractiveControlPosition;
+import com.mixer.interactive.resources.control.LabelControl;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for <code>SceneReconciler</code>, reconciling layouts with an <code>InteractiveStandInServer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class SceneReconcilerUnitTest {
+
+    /**
+     * The project version ID used by the game client
+     */
+    private static final int PROJECT_VERSION_ID = 1234;
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(PROJECT_VERSION_ID, TestUtils.CLIENT_ID);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void creates_layout_in_a_single_frame_per_step() throws Exception {
+        ReconciliationPlan plan = new SceneReconciler(gameClient).reconcile(layout("Play")).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Scene is created", Collections.singleton("lobby"), plan.getCreatedScenes());
+        Assert.assertEquals("Controls are created with the scene", 3, plan.getCreatedControls().get("lobby").size());
+        Assert.assertEquals("Group is created", Collections.singleton("players"), plan.getCreatedGroups());
+        Assert.assertEquals("Scenes and groups are created with one request each", 2, plan.getRequestCount());
+
+        InteractiveScene lobby = getScene("lobby");
+        Assert.assertEquals("Controls are on the scene", 3, lobby.getControls().size());
+        Assert.assertEquals("Control properties are applied", "Play", ((ButtonControl) lobby.getControl("play")).getText());
+        Set<InteractiveGroup> groups = gameClient.using(GROUP_SERVICE_PROVIDER).getGroups().get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Group is placed on the scene containing it", "lobby", groups.stream().filter(group -> group.getGroupID().equals("players")).findFirst().get().getSceneID());
+    }
+
+    @Test
+    public void sends_nothing_when_layout_is_unchanged() throws Exception {
+        SceneReconciler reconciler = new SceneReconciler(gameClient);
+        reconciler.reconcile(layout("Play")).get(5, TimeUnit.SECONDS);
+
+        ReconciliationPlan cached = reconciler.reconcile(layout("Play")).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Cached state matches the layout", true, cached.isEmpty());
+        Assert.assertEquals("Unchanged controls are skipped", 3, cached.getUnchangedControlCount());
+
+        ReconciliationPlan retrieved = new SceneReconciler(gameClient).reconcile(layout("Play")).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Retrieved state matches the layout", true, retrieved.isEmpty());
+        Assert.assertEquals("No requests are sent", 0, retrieved.getRequestCount());
+    }
+
+    @Test
+    public void sends_only_changed_controls() throws Exception {
+        SceneReconciler reconciler = new SceneReconciler(gameClient);
+        reconciler.reconcile(layout("Play")).get(5, TimeUnit.SECONDS);
+
+        List<InteractiveScene> changed = layout("Start");
+        InteractiveScene lobby = changed.get(0);
+        lobby.getControls().removeIf(control -> control.getControlID().equals("title"));
+        lobby.getControls().add(new LabelControl("subtitle", "lobby").setText("Choose a team"));
+
+        ReconciliationPlan plan = reconciler.reconcile(changed).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Changed control is updated", Collections.singleton("play"), plan.getUpdatedControls().get("lobby"));
+        Assert.assertEquals("New control is created", Collections.singleton("subtitle"), plan.getCreatedControls().get("lobby"));
+        Assert.assertEquals("Removed control is deleted", Collections.singleton("title"), plan.getDeletedControls().get("lobby"));
+        Assert.assertEquals("Unchanged control is skipped", 1, plan.getUnchangedControlCount());
+        Assert.assertEquals("Changes are sent in a single frame", 1, plan.getStepCount());
+
+        InteractiveScene reconciled = getScene("lobby");
+        Assert.assertEquals("Server holds the desired controls", Arrays.asList("play", "quit", "subtitle"),
+                reconciled.getControls().stream().map(InteractiveControl::getControlID).sorted().collect(Collectors.toList()));
+        Assert.assertEquals("Control update is applied", "Start", ((ButtonControl) reconciled.getControl("play")).getText());
+        Assert.assertEquals("Server state matches the layout", true, new SceneReconciler(gameClient).plan(changed).get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    public void deletes_scenes_and_groups_no_longer_desired() throws Exception {
+        SceneReconciler reconciler = new SceneReconciler(gameClient);
+        reconciler.reconcile(layout("Play")).get(5, TimeUnit.SECONDS);
+
+        ReconciliationPlan plan = reconciler.reconcile(Collections.singletonList(new InteractiveScene("arena"))).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("New scene is created", Collections.singleton("arena"), plan.getCreatedScenes());
+        Assert.assertEquals("Old scene is deleted", Collections.singleton("lobby"), plan.getDeletedScenes());
+        Assert.assertEquals("Old group is deleted", Collections.singleton("players"), plan.getDeletedGroups());
+
+        Set<String> sceneIDs = gameClient.using(SCENE_SERVICE_PROVIDER).getScenes().get(5, TimeUnit.SECONDS).stream().map(InteractiveScene::getSceneID).collect(Collectors.toSet());
+        Assert.assertEquals("Default scene is kept", true, sceneIDs.contains("default"));
+        Assert.assertEquals("Old scene is gone", false, sceneIDs.contains("lobby"));
+        Assert.assertEquals("Default group is kept", Collections.singleton("default"), gameClient.using(GROUP_SERVICE_PROVIDER).getGroups().get(5, TimeUnit.SECONDS).stream().map(InteractiveGroup::getGroupID).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Builds a layout with a lobby scene holding three controls and a group.
+     *
+     * @param   playText
+     *          Text of the play button
+     *
+     * @return  The layout
+     */
+    private static List<InteractiveScene> layout(String playText) {
+        InteractiveControlPosition position = new InteractiveControlPosition(InteractiveCanvasSize.LARGE, 10, 5, 0, 0);
+        return Collections.singletonList(new InteractiveScene("lobby",
+                Collections.singletonList(new InteractiveGroup("players", "lobby").addMetaProperty("team", "red")),
+                Arrays.asList(
+                        new ButtonControl("play", "lobby", position).setText(playText).setCost(10),
+                        new ButtonControl("quit", "lobby").setText("Quit"),
+                        new LabelControl("title", "lobby").setText("Welcome"))));
+    }
+
+    /**
+     * Retrieves a scene from the stand-in server.
+     *
+     * @param   sceneID
+     *          Identifier of the scene
+     *
+     * @return  The scene
+     *
+     * @throws  Exception
+     *          If the scenes cannot be retrieved
+     */
+    private InteractiveScene getScene(String sceneID) throws Exception {
+        return gameClient.using(SCENE_SERVICE_PROVIDER).getScenes().get(5, TimeUnit.SECONDS).stream()
+                .filter(scene -> scene.getSceneID().equals(sceneID)).findFirst().get();
+    }
+}
@@ -0,0 +1,146 @@
+package com.mixer.interactive.test.unit.recording;
+
+import com.google.common.eventbus.Subscribe;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.InteractiveEvent;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.core.HelloEvent;
+import com.mixer.interactive.recording.FrameDirection;
+import com.mixer.interactive.recording.RecordedFrame;
+import com.mixer.interactive.recording.SegmentedWireRecorder;
+import com.mixer.interactive.recording.WireRecording;
+import com.mixer.interactive.recording.WireReplayer;
+import com.mixer.interactive.resources.core.CompressionScheme;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import com.mixer.interactive.ws.InteractiveWebSocketClient;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for <code>SegmentedWireRecorder</code>, <code>WireRecording</code> and <code>WireReplayer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class WireRecordingUnitTest {
+
+    /**
+     * The project version ID used by game clients
+     */
+    private static final int PROJECT_VERSION_ID = 1234;
+
+    /**
+     * A <code>hello</code> method frame
+     */
+    private static final String HELLO_FRAME = "{\"type\":\"method\",\"id\":0,\"method\":\"hello\",\"params\":{},\"seq\":1}";
+
+    /**
+     * A <code>giveInput</code> method frame
+     */
+    private static final String GIVE_INPUT_FRAME = "{\"type\":\"method\",\"id\":1,\"method\":\"giveInput\",\"params\":{\"participantID\":\"p\",\"input\":{\"controlID\":\"button\",\"event\":\"mousedown\",\"button\":0}},\"seq\":2}";
+
+    /**
+     * Directory recordings are written to
+     */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Events posted to the game client's event bus
+     */
+    private final List<InteractiveEvent> events = new ArrayList<>();
+
+    @Subscribe
+    public void onInteractiveEvent(InteractiveEvent event) {
+        events.add(event);
+    }
+
+    @Test
+    public void reads_back_frames_across_segments() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("recording");
+        try (SegmentedWireRecorder recorder = new SegmentedWireRecorder(directory, 256)) {
+            for (int i = 0; i < 20; i++) {
+                recorder.record(i % 2 == 0 ? FrameDirection.INBOUND : FrameDirection.OUTBOUND, CompressionScheme.NONE, i % 3 == 0, ("frame-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            recorder.record(FrameDirection.INBOUND, CompressionScheme.NONE, false, new byte[1024]);
+            Assert.assertEquals("Every frame is recorded", 21, recorder.getFrameCount());
+        }
+
+        File[] segments = directory.toFile().listFiles();
+        Assert.assertTrue("Recording spans several segments", segments != null && segments.length > 1);
+
+        WireRecording recording = WireRecording.load(directory);
+        Assert.assertEquals("Every frame is read back", 21, recording.getFrames().size());
+        Assert.assertEquals("Inbound frames are selected", 11, recording.getFrames(FrameDirection.INBOUND).size());
+        long previousTimestamp = 0;
+        for (int i = 0; i < 20; i++) {
+            RecordedFrame frame = recording.getFrames().get(i);
+            Assert.assertEquals("Payload is preserved", "frame-" + i, frame.getText());
+            Assert.assertEquals("Direction is preserved", i % 2 == 0 ? FrameDirection.INBOUND : FrameDirection.OUTBOUND, frame.getDirection());
+            Assert.assertEquals("Frame type is preserved", i % 3 == 0, frame.isBinary());
+            Assert.assertTrue("Timestamps are ordered", frame.getTimestamp(TimeUnit.NANOSECONDS) >= previousTimestamp);
+            previousTimestamp = frame.getTimestamp(TimeUnit.NANOSECONDS);
+        }
+        Assert.assertEquals("Frames larger than a segment are preserved", 1024, recording.getFrames().get(20).getPayload().length);
+    }
+
+    @Test
+    public void records_traffic_with_the_service() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("recording");
+        InteractiveStandInServer server = new InteractiveStandInServer().startAndWait();
+        GameClient gameClient = new GameClient(PROJECT_VERSION_ID, TestUtils.CLIENT_ID);
+        try (SegmentedWireRecorder recorder = new SegmentedWireRecorder(directory)) {
+            gameClient.setWireRecorder(recorder);
+            gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS);
+            gameClient.getTime().get(5, TimeUnit.SECONDS);
+            gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        }
+        finally {
+            server.shutdown();
+        }
+
+        WireRecording recording = WireRecording.load(directory);
+        Assert.assertTrue("Hello is recorded", recording.getFrames(FrameDirection.INBOUND).get(0).getText().contains("\"hello\""));
+        Assert.assertTrue("Request is recorded", recording.getFrames(FrameDirection.OUTBOUND).stream().anyMatch(frame -> frame.getText().contains("\"getTime\"")));
+    }
+
+    @Test
+    public void replays_inbound_frames() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("recording");
+        try (SegmentedWireRecorder recorder = new SegmentedWireRecorder(directory)) {
+            recorder.record(FrameDirection.INBOUND, CompressionScheme.NONE, false, HELLO_FRAME.getBytes(StandardCharsets.UTF_8));
+            recorder.record(FrameDirection.OUTBOUND, CompressionScheme.NONE, false, "{}".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(200);
+            recorder.record(FrameDirection.INBOUND, CompressionScheme.NONE, false, GIVE_INPUT_FRAME.getBytes(StandardCharsets.UTF_8));
+        }
+
+        GameClient gameClient = new GameClient(PROJECT_VERSION_ID, TestUtils.CLIENT_ID);
+        gameClient.getEventBus().register(this);
+        InteractiveWebSocketClient webSocketClient = new InteractiveWebSocketClient(gameClient, URI.create("ws://localhost:3000/gameClient"), "token", PROJECT_VERSION_ID);
+        WireReplayer replayer = new WireReplayer(WireRecording.load(directory));
+
+        long start = System.nanoTime();
+        Assert.assertEquals("Inbound frames are replayed", 2, replayer.replay(webSocketClient, 2.0));
+        Assert.assertTrue("Scaled replay keeps the scaled pace", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals("Events are dispatched", HelloEvent.class, events.get(0).getClass());
+        Assert.assertTrue("Input events are dispatched", events.get(1) instanceof ControlInputEvent);
+
+        events.clear();
+        start = System.nanoTime();
+        replayer.replay(webSocketClient, WireReplayer.MAXIMUM_SPEED);
+        Assert.assertTrue("Maximum speed replay does not wait", System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+        Assert.assertEquals("Events are dispatched again", 2, events.size());
+    }
+}
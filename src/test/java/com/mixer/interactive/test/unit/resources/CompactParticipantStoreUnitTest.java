@@ -0,0 +1,141 @@
+package com.mixer.interactive.test.unit.resources;
+
+import com.mixer.interactive.resources.participant.CompactParticipantStore;
+import com.mixer.interactive.resources.participant.IInteractiveParticipant;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for the compact participant store.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class CompactParticipantStoreUnitTest {
+
+    @Test
+    public void views_read_participant_state() {
+        CompactParticipantStore store = new CompactParticipantStore();
+        InteractiveParticipant participant = new InteractiveParticipant("session", 42, "viewer", 7, 1000L, 2000L, true, "red");
+        participant.addMetaProperty("score", 10);
+        store.put(participant);
+
+        IInteractiveParticipant view = store.get("session");
+        Assert.assertEquals("User id", Integer.valueOf(42), view.getUserID());
+        Assert.assertEquals("Username", "viewer", view.getUsername());
+        Assert.assertEquals("Level", Integer.valueOf(7), view.getLevel());
+        Assert.assertEquals("Last input", Long.valueOf(1000L), view.getLastInputAt());
+        Assert.assertEquals("Connected at", Long.valueOf(2000L), view.getConnectedAt());
+        Assert.assertEquals("Disabled", true, view.isDisabled());
+        Assert.assertEquals("Group", "red", view.getGroupID());
+        Assert.assertEquals("Meta", participant.getMeta(), view.getMeta());
+
+        InteractiveParticipant materialized = store.toParticipant("session");
+        Assert.assertEquals("Materialized participant equals original", participant.hashCode(), materialized.hashCode());
+    }
+
+    @Test
+    public void absent_fields_stay_absent() {
+        CompactParticipantStore store = new CompactParticipantStore();
+        store.put(new InteractiveParticipant("session", null, "viewer", null, null, null, false, null));
+
+        IInteractiveParticipant view = store.get("session");
+        Assert.assertNull("No user id", view.getUserID());
+        Assert.assertNull("No level", view.getLevel());
+        Assert.assertNull("No last input", view.getLastInputAt());
+        Assert.assertNull("No connected at", view.getConnectedAt());
+        Assert.assertNull("No group", view.getGroupID());
+        Assert.assertNull("No meta", view.getMeta());
+    }
+
+    @Test
+    public void session_ids_round_trip() {
+        CompactParticipantStore store = new CompactParticipantStore();
+        String uuid = "0f8e7d6c-5b4a-4392-8170-a1b2c3d4e5f6";
+        String upperCaseUuid = uuid.toUpperCase();
+        store.put(new InteractiveParticipant(uuid, 1, "üsér☃", 1, 1L, 1L, false, "default"));
+        store.put(new InteractiveParticipant(upperCaseUuid, 2, "other", 1, 1L, 1L, false, "default"));
+
+        Assert.assertEquals("Canonical and non-canonical forms are distinct", 2, store.size());
+        Assert.assertEquals("Canonical UUID round trips", uuid, store.get(uuid).getSessionID());
+        Assert.assertEquals("Non-canonical UUID round trips", upperCaseUuid, store.toParticipant(upperCaseUuid).getSessionID());
+        Assert.assertEquals("Non-ASCII username round trips", "üsér☃", store.get(uuid).getUsername());
+        Assert.assertEquals("User id of non-canonical form", Integer.valueOf(2), store.get(upperCaseUuid).getUserID());
+    }
+
+    @Test
+    public void views_follow_updates_and_removals() {
+        CompactParticipantStore store = new CompactParticipantStore(2);
+        for (int i = 0; i < 10; i++) {
+            store.put(participant(i, "default"));
+        }
+
+        IInteractiveParticipant last = store.get("session-9");
+        store.remove("session-0");
+        Assert.assertEquals("View follows its participant when it moves", "viewer-9", last.getUsername());
+
+        store.put(participant(9, "blue"));
+        Assert.assertEquals("View reads the latest state", "blue", last.getGroupID());
+        Assert.assertEquals("Group sizes", 8, (int) store.getGroupSizes().get("default"));
+
+        store.remove("session-9");
+        try {
+            last.getUsername();
+            Assert.fail("Reading a removed participant throws");
+        }
+        catch (IllegalStateException e) {
+            Assert.assertEquals("Removed participant is no longer held", false, store.contains("session-9"));
+        }
+    }
+
+    @Test
+    public void matches_map_under_random_operations() {
+        CompactParticipantStore store = new CompactParticipantStore();
+        Map<String, InteractiveParticipant> expected = new HashMap<>();
+        Random random = new Random(1234);
+        String[] groups = { "default", "red", "blue" };
+
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals("Remove reports presence", expected.remove("session-" + id) != null, store.remove("session-" + id));
+            }
+            else {
+                InteractiveParticipant participant = participant(id, groups[random.nextInt(groups.length)]);
+                expected.put(participant.getSessionID(), participant);
+                store.put(participant);
+            }
+        }
+
+        Assert.assertEquals("Size", expected.size(), store.size());
+        for (InteractiveParticipant participant : expected.values()) {
+            Assert.assertEquals("Group of " + participant.getSessionID(), participant.getGroupID(), store.get(participant.getSessionID()).getGroupID());
+        }
+        List<String> visited = new ArrayList<>();
+        store.forEach(view -> visited.add(view.getSessionID()));
+        Assert.assertEquals("Every participant is visited", expected.keySet(), new HashSet<>(visited));
+    }
+
+    /**
+     * Creates a participant.
+     *
+     * @param   id
+     *          Numeric identifier of the participant
+     * @param   groupID
+     *          Group of the participant
+     *
+     * @return  The participant
+     */
+    private static InteractiveParticipant participant(int id, String groupID) {
+        return new InteractiveParticipant("session-" + id, id, "viewer-" + id, id % 100, (long) id, (long) id * 2, false, groupID);
+    }
+}
@@ -0,0 +1,118 @@
+package com.mixer.interactive.test.unit.resources;
+
+import com.google.gson.JsonElement;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.resources.InteractiveResource;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveCanvasSize;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.control.InteractiveControlPosition;
+import com.mixer.interactive.resources.control.LabelControl;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for the cached serialized form of resources.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class SerializedFormCacheUnitTest {
+
+    @Test
+    public void unchanged_control_reuses_serialized_form() {
+        ButtonControl button = new ButtonControl("button").setText("Press").addMetaProperty("glow", true);
+
+        JsonElement serializedForm = cached(button);
+        Assert.assertEquals("Serialized form matches Gson", GameClient.GSON.toJsonTree(button), serializedForm);
+        Assert.assertTrue("Unchanged control reuses its serialized form", serializedForm == cached(button));
+        Assert.assertTrue("Json arrays hold the cached serialized form", serializedForm == InteractiveResource.toJsonArray(Collections.singletonList(button)).get(0));
+    }
+
+    @Test
+    public void json_tree_is_a_copy_of_serialized_form() {
+        ButtonControl button = new ButtonControl("button").setText("Press");
+
+        JsonElement jsonTree = button.toJsonTree();
+        Assert.assertTrue("Json tree is not the cached serialized form", jsonTree != cached(button));
+        jsonTree.getAsJsonObject().addProperty("text", "Changed");
+        Assert.assertEquals("Changing the json tree leaves the serialized form alone", "Press", cached(button).getAsJsonObject().get("text").getAsString());
+    }
+
+    @Test
+    public void setters_invalidate_serialized_form() {
+        ButtonControl button = new ButtonControl("button").setText("Press");
+        JsonElement serializedForm = cached(button);
+        int modificationCount = button.getModificationCount();
+
+        button.setText("Release");
+        Assert.assertEquals("Setter counts as a modification", modificationCount + 1, button.getModificationCount());
+        Assert.assertTrue("Setter invalidates the serialized form", serializedForm != cached(button));
+        Assert.assertEquals("New serialized form reflects the change", "Release", button.toJsonTree().getAsJsonObject().get("text").getAsString());
+
+        serializedForm = cached(button);
+        button.addMetaProperty("glow", true);
+        Assert.assertTrue("Meta property invalidates the serialized form", serializedForm != cached(button));
+
+        serializedForm = cached(button);
+        button.getMeta().addProperty("raw", 1);
+        Assert.assertEquals("Changes through the meta object are serialized", GameClient.GSON.toJsonTree(button), button.toJsonTree());
+        Assert.assertTrue("Returning the meta object invalidates the serialized form", serializedForm != cached(button));
+    }
+
+    @Test
+    public void position_changes_invalidate_serialized_form() {
+        InteractiveControlPosition position = new InteractiveControlPosition(InteractiveCanvasSize.LARGE, 10, 9, 1, 2);
+        ButtonControl button = new ButtonControl("button", "default", position);
+        JsonElement serializedForm = cached(button);
+
+        button.getPositionFor(InteractiveCanvasSize.LARGE).moveTo(5, 6);
+        Assert.assertTrue("Moving a position invalidates the serialized form", serializedForm != cached(button));
+        Assert.assertEquals("New serialized form reflects the change", GameClient.GSON.toJsonTree(button), button.toJsonTree());
+
+        serializedForm = cached(button);
+        button.getPositions().add(new InteractiveControlPosition(InteractiveCanvasSize.SMALL));
+        Assert.assertTrue("Adding a position through the set invalidates the serialized form", serializedForm != cached(button));
+    }
+
+    @Test
+    public void scene_is_serialized_from_cached_children() {
+        ButtonControl button = new ButtonControl("button").setText("Press");
+        LabelControl label = new LabelControl("label").setText("Score");
+        InteractiveScene scene = new InteractiveScene("scene", Collections.singletonList(new InteractiveGroup("group", "scene")), Arrays.<InteractiveControl>asList(button, label));
+
+        JsonElement serializedForm = cached(scene);
+        Assert.assertEquals("Serialized form matches Gson", GameClient.GSON.toJsonTree(scene), serializedForm);
+        Assert.assertTrue("Unchanged scene reuses its serialized form", serializedForm == cached(scene));
+        JsonElement labelForm = cached(label);
+
+        button.setText("Release");
+        Assert.assertTrue("Changing a control invalidates the scene", serializedForm != cached(scene));
+        Assert.assertEquals("New serialized form reflects the change", GameClient.GSON.toJsonTree(scene), scene.toJsonTree());
+        Assert.assertTrue("Unchanged control keeps its serialized form", labelForm == cached(label));
+
+        serializedForm = cached(scene);
+        scene.getControls().remove(label);
+        scene.getControls().add(new LabelControl("label").setText("Lives"));
+        Assert.assertTrue("Replacing a control with an equal one invalidates the scene", serializedForm != cached(scene));
+        Assert.assertEquals("New serialized form reflects the change", GameClient.GSON.toJsonTree(scene), scene.toJsonTree());
+    }
+
+    /**
+     * Returns the cached serialized form of a resource, as sent to the Interactive service.
+     *
+     * @param   resource
+     *          The resource
+     *
+     * @return  The cached serialized form of the resource
+     */
+    private static JsonElement cached(InteractiveResource<?> resource) {
+        return InteractiveResource.toCachedJsonTree(resource);
+    }
+}
@@ -0,0 +1,208 @@
+package com.mixer.interactive.test.unit.server;
+
+import com.google.common.eventbus.Subscribe;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.InteractiveEvent;
+import com.mixer.interactive.event.control.input.ControlInputEvent;
+import com.mixer.interactive.event.core.MemoryWarningEvent;
+import com.mixer.interactive.event.participant.ParticipantJoinEvent;
+import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
+import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.core.BandwidthThrottle;
+import com.mixer.interactive.resources.core.ThrottleState;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.services.RemoteProcedureCallServiceProvider;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.NetworkConditions;
+import com.mixer.interactive.test.server.StandInParticipant;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.*;
+
+/**
+ * Unit tests for <code>InteractiveStandInServer</code>, driven through a real <code>GameClient</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class InteractiveStandInServerUnitTest {
+
+    /**
+     * The project version ID used by the game client
+     */
+    private static final int PROJECT_VERSION_ID = 1234;
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Events posted to the game client's event bus
+     */
+    private final BlockingQueue<InteractiveEvent> events = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(PROJECT_VERSION_ID, TestUtils.CLIENT_ID);
+        gameClient.getEventBus().register(this);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Subscribe
+    public void onInteractiveEvent(InteractiveEvent event) {
+        events.add(event);
+    }
+
+    @Test
+    public void handles_ready_and_time() throws Exception {
+        long time = gameClient.getTime().get(5, TimeUnit.SECONDS);
+        Assert.assertTrue("Time is current", Math.abs(System.currentTimeMillis() - time) < TimeUnit.SECONDS.toMillis(5));
+
+        gameClient.ready(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!server.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("Game client is ready", true, server.isReady());
+    }
+
+    @Test
+    public void manages_scenes_and_controls() throws Exception {
+        InteractiveControl button = new ButtonControl("button", "default").setText("Press").setCost(10);
+        Map<InteractiveControl, CompletableFuture<Boolean>> created = gameClient.using(CONTROL_SERVICE_PROVIDER).create(button).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Control is created", true, created.get(button).get(5, TimeUnit.SECONDS));
+
+        Set<InteractiveScene> scenes = gameClient.using(SCENE_SERVICE_PROVIDER).getScenes().get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Default scene holds the control", 1, scenes.iterator().next().getControls().size());
+
+        Map<InteractiveControl, CompletableFuture<Boolean>> duplicate = gameClient.using(CONTROL_SERVICE_PROVIDER).create(button).get(5, TimeUnit.SECONDS);
+        try {
+            duplicate.get(button).get(5, TimeUnit.SECONDS);
+            Assert.fail("Creating a duplicate control fails");
+        }
+        catch (ExecutionException e) {
+            Assert.assertEquals("Duplicate control is rejected", InteractiveReplyWithErrorException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void forwards_participant_input() throws Exception {
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("button", "default").setCost(10)).get(5, TimeUnit.SECONDS);
+
+        StandInParticipant participant = new StandInParticipant(server, 42, "participant");
+        Assert.assertEquals("Participant connects", true, participant.connectBlocking());
+        Assert.assertEquals("Game client is notified of the participant", ParticipantJoinEvent.class, nextEvent(ParticipantJoinEvent.class).getClass());
+
+        participant.giveInput("button", "mousedown", true);
+        ControlInputEvent input = nextEvent(ControlInputEvent.class);
+        Assert.assertEquals("Input is for the button", "button", input.getControlInput().getControlID());
+        Assert.assertEquals("Transaction can be captured", true, gameClient.using(TRANSACTION_SERVICE_PROVIDER).capture(input.getTransaction().getTransactionID()).get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Participant is listed", 1, gameClient.using(PARTICIPANT_SERVICE_PROVIDER).getAllParticipants().get(5, TimeUnit.SECONDS).size());
+        participant.closeBlocking();
+    }
+
+    @Test
+    public void throttles_input_to_the_game_client() throws Exception {
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("button", "default")).get(5, TimeUnit.SECONDS);
+        gameClient.setBandwidthThrottle(Collections.singletonMap(InteractiveMethod.GIVE_INPUT, new BandwidthThrottle(1000, 1))).get(5, TimeUnit.SECONDS);
+
+        StandInParticipant participant = new StandInParticipant(server, 42, "participant");
+        participant.connectBlocking();
+        for (int i = 0; i < 50; i++) {
+            participant.giveInput("button", "mousedown", true);
+        }
+        participant.giveInput("button", "mousedown", false);
+        String frame;
+        do {
+            frame = participant.poll(5, TimeUnit.SECONDS);
+        } while (frame != null && !frame.contains("\"type\":\"reply\""));
+
+        ThrottleState throttleState = gameClient.getThrottleState().get(5, TimeUnit.SECONDS).get(InteractiveMethod.GIVE_INPUT);
+        Assert.assertTrue("Some input is accepted", throttleState.getInsertedPacketCount() > 0);
+        Assert.assertTrue("Excess input is rejected", throttleState.getRejectedPacketCount() > 0);
+        participant.closeBlocking();
+    }
+
+    @Test
+    public void issues_memory_warnings() throws Exception {
+        server.setMemoryLimit(200);
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("button", "default").setText("A button with a long label")).get(5, TimeUnit.SECONDS);
+
+        MemoryWarningEvent warning = nextEvent(MemoryWarningEvent.class);
+        Assert.assertEquals("Warning reports the limit", 200, warning.getTotalBytes());
+        Assert.assertTrue("Warning reports usage over the threshold", warning.getUsedBytes() > 160);
+    }
+
+    @Test
+    public void applies_latency_and_loss() throws Exception {
+        server.setNetworkConditions(NetworkConditions.NONE.withLatency(50, TimeUnit.MILLISECONDS));
+        long start = System.nanoTime();
+        gameClient.getTime().get(5, TimeUnit.SECONDS);
+        Assert.assertTrue("Round trip includes latency in both directions", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        server.setNetworkConditions(NetworkConditions.NONE.withLoss(1.0));
+        RemoteProcedureCallServiceProvider rpc = gameClient.using(RPC_SERVICE_PROVIDER);
+        try {
+            rpc.send(new MethodPacket(rpc.claimNextPacketId(), InteractiveMethod.GET_TIME, null), 200, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+            Assert.fail("Request times out when every frame is lost");
+        }
+        catch (ExecutionException e) {
+            Assert.assertEquals("No reply is received", InteractiveRequestNoReplyException.class, e.getCause().getClass());
+        }
+    }
+
+    /**
+     * Waits for the next event of a type, skipping events of other types.
+     *
+     * @param   type
+     *          Type of the event
+     * @param   <T>
+     *          Type of the event
+     *
+     * @return  The event
+     *
+     * @throws  InterruptedException
+     *          If interrupted while waiting
+     */
+    private <T extends InteractiveEvent> T nextEvent(Class<T> type) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            InteractiveEvent event = events.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (type.isInstance(event)) {
+                return type.cast(event);
+            }
+        }
+        throw new AssertionError("No " + type.getSimpleName() + " was received");
+    }
+}
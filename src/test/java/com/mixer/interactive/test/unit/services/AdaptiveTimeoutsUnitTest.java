@@ -0,0 +1,145 @@
+package com.mixer.interactive.test.unit.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.metrics.MethodMetrics;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.services.AdaptiveTimeoutPolicy;
+import com.mixer.interactive.services.AdaptiveTimeouts;
+import com.mixer.interactive.services.CallOptions;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.NetworkConditions;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for adapting the timeouts of requests to the round trips observed for each method.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class AdaptiveTimeoutsUnitTest {
+
+    /**
+     * Policy used by the tests: twice the 90th percentile once 5 round trips are observed, between 50 milliseconds
+     * and 2 seconds
+     */
+    private static final AdaptiveTimeoutPolicy POLICY = AdaptiveTimeoutPolicy.DEFAULT
+            .withPercentile(90, 2)
+            .withBounds(50, 2000, TimeUnit.MILLISECONDS)
+            .withSamples(5, 10);
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Registry recording metrics for the game client
+     */
+    private InteractiveMetricsRegistry metrics;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        metrics = new InteractiveMetricsRegistry();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        gameClient.setMetricsRegistry(metrics);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void adapts_timeout_to_percentile_of_round_trips() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts();
+        timeouts.setPolicy(POLICY);
+        for (int i = 1; i <= 4; i++) {
+            timeouts.record(InteractiveMethod.GET_TIME, TimeUnit.MILLISECONDS.toNanos(100 * i));
+        }
+        Assert.assertEquals("Timeout is not adapted before enough round trips", -1, timeouts.getTimeout(InteractiveMethod.GET_TIME, TimeUnit.MILLISECONDS));
+
+        for (int i = 5; i <= 10; i++) {
+            timeouts.record(InteractiveMethod.GET_TIME, TimeUnit.MILLISECONDS.toNanos(100 * i));
+        }
+        Assert.assertEquals("Timeout is the percentile times the multiplier", 1800, timeouts.getTimeout(InteractiveMethod.GET_TIME, TimeUnit.MILLISECONDS));
+
+        timeouts.record(InteractiveMethod.GET_TIME, TimeUnit.SECONDS.toNanos(10));
+        Assert.assertEquals("Timeout is kept under the ceiling", 2000, timeouts.getTimeout(InteractiveMethod.GET_TIME, TimeUnit.MILLISECONDS));
+        Assert.assertEquals("Window keeps the most recent round trips", 10, timeouts.getSampleCount(InteractiveMethod.GET_TIME));
+        Assert.assertEquals("Other methods are not adapted", -1, timeouts.getTimeout(InteractiveMethod.GET_GROUPS, TimeUnit.MILLISECONDS));
+
+        for (int i = 0; i < 10; i++) {
+            timeouts.record(InteractiveMethod.GET_TIME, TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        Assert.assertEquals("Timeout is kept over the floor", 50, timeouts.getTimeout(InteractiveMethod.GET_TIME, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void gives_up_on_lost_reply_after_adapted_timeout() throws Exception {
+        gameClient.getAdaptiveTimeouts().setPolicy(POLICY);
+        for (int i = 0; i < 5; i++) {
+            gameClient.using(RPC_SERVICE_PROVIDER).send(getTimePacket()).get(5, TimeUnit.SECONDS);
+        }
+        MethodMetrics getTimeMetrics = metrics.getMethodMetrics(InteractiveMethod.GET_TIME);
+        Assert.assertEquals("Timeout is not adapted before enough round trips", 0, getTimeMetrics.getAdaptedTimeoutCount());
+
+        server.setNetworkConditions(NetworkConditions.NONE.withLatency(1, TimeUnit.SECONDS));
+        long startedAt = System.nanoTime();
+        try {
+            gameClient.using(RPC_SERVICE_PROVIDER).send(getTimePacket()).get(5, TimeUnit.SECONDS);
+            Assert.fail("Delayed reply times out");
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue("Request fails for lack of a reply", e.getCause() instanceof InteractiveRequestNoReplyException);
+        }
+        Assert.assertTrue("Request gives up before the reply arrives", System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals("Adapted timeout is recorded", 1, getTimeMetrics.getAdaptedTimeoutCount());
+        Assert.assertTrue("Timeout of the request is recorded", getTimeMetrics.getTimeoutMillis() < 1000);
+    }
+
+    @Test
+    public void explicit_timeout_overrides_adapted_timeout() throws Exception {
+        gameClient.getAdaptiveTimeouts().setPolicy(POLICY);
+        for (int i = 0; i < 5; i++) {
+            gameClient.using(RPC_SERVICE_PROVIDER).send(getTimePacket()).get(5, TimeUnit.SECONDS);
+        }
+
+        server.setNetworkConditions(NetworkConditions.NONE.withLatency(1, TimeUnit.SECONDS));
+        CompletableFuture<Long> time = gameClient.using(RPC_SERVICE_PROVIDER)
+                .withOptions(CallOptions.DEFAULT.withTimeout(5, TimeUnit.SECONDS))
+                .makeRequest(InteractiveMethod.GET_TIME, null, "time", Long.class);
+        Assert.assertNotNull("Request waits for its own timeout", time.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Timeout of the request is recorded", 5000, metrics.getMethodMetrics(InteractiveMethod.GET_TIME).getTimeoutMillis(), 0.0001);
+    }
+
+    /**
+     * Returns a new request for the time of the Interactive service.
+     *
+     * @return  A <code>MethodPacket</code> for a {@link InteractiveMethod#GET_TIME} request
+     */
+    private MethodPacket getTimePacket() {
+        return new MethodPacket(gameClient.using(RPC_SERVICE_PROVIDER).claimNextPacketId(), InteractiveMethod.GET_TIME, null);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mixer.interactive.test.unit.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.services.BulkRequestLimits;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.StandInParticipant;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.PARTICIPANT_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for splitting bulk operations into chunks, driven through a <code>GameClient</code> connected to an
+ * <code>InteractiveStandInServer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class BulkRequestChunkingUnitTest {
+
+    /**
+     * The project version ID used by the game client
+     */
+    private static final int PROJECT_VERSION_ID = 1234;
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Registry the requests of the game client are recorded with
+     */
+    private InteractiveMetricsRegistry metrics;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(PROJECT_VERSION_ID, TestUtils.CLIENT_ID);
+        metrics = new InteractiveMetricsRegistry();
+        gameClient.setMetricsRegistry(metrics);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void splits_controls_by_count() throws Exception {
+        gameClient.setBulkRequestLimits(BulkRequestLimits.DEFAULT.withMaxChunkSize(2).withMaxChunksInFlight(1));
+        List<InteractiveControl> controls = buttons(5);
+
+        Map<InteractiveControl, CompletableFuture<Boolean>> created = gameClient.using(CONTROL_SERVICE_PROVIDER).create(controls).get(5, TimeUnit.SECONDS);
+        for (InteractiveControl control : controls) {
+            Assert.assertEquals("Control is created", true, created.get(control).get(5, TimeUnit.SECONDS));
+        }
+        Assert.assertEquals("Controls are sent in three requests", 3, metrics.getMethodMetrics(InteractiveMethod.CREATE_CONTROLS).getRequestCount());
+        Assert.assertEquals("Every control is on the scene", 5, gameClient.using(SCENE_SERVICE_PROVIDER).getScenes().get(5, TimeUnit.SECONDS).iterator().next().getControls().size());
+    }
+
+    @Test
+    public void splits_controls_by_serialized_size() throws Exception {
+        gameClient.setBulkRequestLimits(BulkRequestLimits.DEFAULT.withMaxChunkBytes(1));
+        List<InteractiveControl> controls = buttons(4);
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(controls).get(5, TimeUnit.SECONDS).get(controls.get(3)).get(5, TimeUnit.SECONDS);
+
+        controls.forEach(control -> ((ButtonControl) control).setText("Updated"));
+        Map<InteractiveControl, CompletableFuture<Set<InteractiveControl>>> updated = gameClient.using(CONTROL_SERVICE_PROVIDER).update(controls).get(5, TimeUnit.SECONDS);
+        for (InteractiveControl control : controls) {
+            Set<InteractiveControl> reply = updated.get(control).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals("Each control larger than the limit is sent alone", 1, reply.size());
+            Assert.assertEquals("Reply holds the updated control", "Updated", ((ButtonControl) reply.iterator().next()).getText());
+        }
+        Assert.assertEquals("A request is sent per control", 4, metrics.getMethodMetrics(InteractiveMethod.UPDATE_CONTROLS).getRequestCount());
+    }
+
+    @Test
+    public void combines_participant_updates() throws Exception {
+        List<StandInParticipant> participants = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            StandInParticipant participant = new StandInParticipant(server, 100 + i, "participant" + i);
+            Assert.assertEquals("Participant connects", true, participant.connectBlocking());
+            participants.add(participant);
+        }
+        // The server registers participants on its event loop, after their handshake completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getParticipantCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Set<InteractiveParticipant> connected = gameClient.using(PARTICIPANT_SERVICE_PROVIDER).getAllParticipants().get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Participants are listed", 3, connected.size());
+
+        gameClient.setBulkRequestLimits(BulkRequestLimits.DEFAULT.withMaxChunkSize(1).withMaxChunksInFlight(2));
+        connected.forEach(participant -> participant.setDisabled(true));
+        Set<InteractiveParticipant> updated = gameClient.using(PARTICIPANT_SERVICE_PROVIDER).update(connected).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Replies of every chunk are combined", 3, updated.size());
+        Assert.assertEquals("Updates are applied", true, updated.stream().allMatch(InteractiveParticipant::isDisabled));
+        Assert.assertEquals("A request is sent per participant", 3, metrics.getMethodMetrics(InteractiveMethod.UPDATE_PARTICIPANTS).getRequestCount());
+
+        for (StandInParticipant participant : participants) {
+            participant.closeBlocking();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_non_positive_limits() {
+        BulkRequestLimits.DEFAULT.withMaxChunksInFlight(0);
+    }
+
+    /**
+     * Creates buttons on the default scene.
+     *
+     * @param   count
+     *          Number of buttons
+     *
+     * @return  The buttons
+     */
+    private static List<InteractiveControl> buttons(int count) {
+        List<InteractiveControl> controls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            controls.add(new ButtonControl("button" + i, "default").setText("Button " + i));
+        }
+        return controls;
+    }
+}
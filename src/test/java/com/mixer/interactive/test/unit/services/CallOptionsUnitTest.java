@@ -0,0 +1,157 @@
+package com.mixer.interactive.test.unit.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.exception.InteractiveOutboundBufferFullException;
+import com.mixer.interactive.exception.InteractiveRequestNoReplyException;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.metrics.MethodMetrics;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.services.CallOptions;
+import com.mixer.interactive.services.CancellationToken;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.NetworkConditions;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for the deadlines and cancellation of requests made with <code>CallOptions</code>, driven through a
+ * <code>GameClient</code> connected to an <code>InteractiveStandInServer</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class CallOptionsUnitTest {
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+        server.setNetworkConditions(NetworkConditions.NONE.withLatency(500, TimeUnit.MILLISECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void cancelling_future_releases_reply_slot() {
+        CompletableFuture<Set<InteractiveGroup>> groups = gameClient.using(GROUP_SERVICE_PROVIDER).getGroups();
+        Assert.assertEquals("Request awaits a reply", 1, gameClient.getWebSocketClient().getWaitingFuturesMap().size());
+
+        groups.cancel(false);
+        Assert.assertTrue("Reply slot is released", gameClient.getWebSocketClient().getWaitingFuturesMap().isEmpty());
+    }
+
+    @Test
+    public void cancelling_token_cancels_sent_requests() throws Exception {
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<Set<InteractiveGroup>> groups = gameClient.using(GROUP_SERVICE_PROVIDER)
+                .withOptions(CallOptions.DEFAULT.withCancellationToken(token))
+                .getGroups();
+
+        token.cancel();
+        Assert.assertTrue("Reply slot is released", gameClient.getWebSocketClient().getWaitingFuturesMap().isEmpty());
+        try {
+            groups.get(1, TimeUnit.SECONDS);
+            Assert.fail("Request is cancelled");
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue("Request is cancelled", e.getCause() instanceof CancellationException);
+        }
+    }
+
+    @Test
+    public void cancelled_requests_leave_flight() {
+        InteractiveMetricsRegistry registry = new InteractiveMetricsRegistry();
+        gameClient.setMetricsRegistry(registry);
+        MethodMetrics metrics = registry.getMethodMetrics(InteractiveMethod.GET_GROUPS);
+
+        CompletableFuture<Set<InteractiveGroup>> groups = gameClient.using(GROUP_SERVICE_PROVIDER).getGroups();
+        Assert.assertEquals("Request is in flight", 1, metrics.getInFlight());
+        groups.cancel(false);
+        Assert.assertEquals("Cancelled request is no longer in flight", 0, metrics.getInFlight());
+
+        CancellationToken token = new CancellationToken();
+        gameClient.using(GROUP_SERVICE_PROVIDER).withOptions(CallOptions.DEFAULT.withCancellationToken(token)).getGroups();
+        Assert.assertEquals("Request is in flight", 1, metrics.getInFlight());
+        token.cancel();
+        Assert.assertEquals("Request cancelled by its token is no longer in flight", 0, metrics.getInFlight());
+        Assert.assertEquals("Cancellations are counted", 2, metrics.getCancelledCount());
+        Assert.assertEquals("Cancellations are not timeouts", 0, metrics.getTimeoutCount());
+    }
+
+    @Test
+    public void failed_requests_are_not_timeouts() {
+        InteractiveMetricsRegistry registry = new InteractiveMetricsRegistry();
+        gameClient.setMetricsRegistry(registry);
+        MethodMetrics metrics = registry.getMethodMetrics(InteractiveMethod.GET_GROUPS);
+
+        gameClient.using(GROUP_SERVICE_PROVIDER).getGroups();
+        Assert.assertEquals("Request is in flight", 1, metrics.getInFlight());
+        gameClient.getWebSocketClient().getWaitingFuturesMap().values().forEach(replyPromise -> replyPromise.completeExceptionally(new InteractiveOutboundBufferFullException(10, 100)));
+        Assert.assertEquals("Failed request is no longer in flight", 0, metrics.getInFlight());
+        Assert.assertEquals("Failures are counted", 1, metrics.getFailedCount());
+        Assert.assertEquals("Failures are errors", 1, metrics.getErrorCount());
+        Assert.assertEquals("Failures are not timeouts", 0, metrics.getTimeoutCount());
+    }
+
+    @Test
+    public void cancelled_token_keeps_requests_from_being_sent() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        CompletableFuture<Boolean> created = gameClient.using(GROUP_SERVICE_PROVIDER)
+                .withOptions(CallOptions.DEFAULT.withCancellationToken(token))
+                .create(new InteractiveGroup("cancelled"));
+
+        Assert.assertTrue("Request is cancelled", created.isCompletedExceptionally());
+        Assert.assertTrue("Request is not sent", gameClient.getWebSocketClient().getWaitingFuturesMap().isEmpty());
+    }
+
+    @Test
+    public void deadline_times_out_requests() throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<Set<InteractiveGroup>> groups = gameClient.using(GROUP_SERVICE_PROVIDER)
+                .withOptions(CallOptions.DEFAULT.withDeadline(50, TimeUnit.MILLISECONDS))
+                .getGroups();
+        try {
+            groups.get(5, TimeUnit.SECONDS);
+            Assert.fail("Request times out");
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue("Request times out", e.getCause() instanceof InteractiveRequestNoReplyException);
+        }
+        Assert.assertTrue("Request times out at the deadline", System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(450));
+        Assert.assertTrue("Reply slot is released", gameClient.getWebSocketClient().getWaitingFuturesMap().isEmpty());
+
+        CompletableFuture<Set<InteractiveGroup>> late = gameClient.using(GROUP_SERVICE_PROVIDER)
+                .withOptions(CallOptions.DEFAULT.withDeadline(0, TimeUnit.MILLISECONDS))
+                .getGroups();
+        Assert.assertTrue("Request past its deadline fails without being sent", late.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,205 @@
+package com.mixer.interactive.test.unit.services;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.reflect.TypeToken;
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.connection.SequenceGapEvent;
+import com.mixer.interactive.event.scene.SceneUpdateEvent;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.services.ReadRequestCache;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.NetworkConditions;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.mixer.interactive.GameClient.GROUP_SERVICE_PROVIDER;
+import static com.mixer.interactive.GameClient.SCENE_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for sharing and caching the results of read requests.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class ReadRequestCacheUnitTest {
+
+    /**
+     * Type of the result of a <code>getGroups</code> request
+     */
+    private static final Type GROUP_SET_TYPE = new TypeToken<Set<InteractiveGroup>>(){}.getType();
+
+    @Test
+    public void shares_request_in_flight() throws Exception {
+        ReadRequestCache cache = new ReadRequestCache();
+        CountingRequest request = new CountingRequest();
+
+        CompletableFuture<String> first = cache.get(InteractiveMethod.GET_SCENES, request, String.class);
+        CompletableFuture<String> second = cache.get(InteractiveMethod.GET_SCENES, request, String.class);
+        Assert.assertEquals("One request is sent", 1, request.count.get());
+
+        request.pending.complete(new JsonPrimitive("scenes"));
+        Assert.assertEquals("First caller gets the result", "scenes", first.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals("Second caller gets the result", "scenes", second.get(1, TimeUnit.SECONDS));
+
+        cache.get(InteractiveMethod.GET_SCENES, request, String.class);
+        Assert.assertEquals("Result is not cached without a time to live", 2, request.count.get());
+    }
+
+    @Test
+    public void decodes_result_for_each_caller() throws Exception {
+        ReadRequestCache cache = new ReadRequestCache();
+        cache.setTimeToLive(InteractiveMethod.GET_GROUPS, 1, TimeUnit.MINUTES);
+        CountingRequest request = new CountingRequest();
+
+        CompletableFuture<Set<InteractiveGroup>> first = cache.get(InteractiveMethod.GET_GROUPS, request, GROUP_SET_TYPE);
+        CompletableFuture<Set<InteractiveGroup>> second = cache.get(InteractiveMethod.GET_GROUPS, request, GROUP_SET_TYPE);
+        request.pending.complete(new JsonParser().parse("[{\"groupID\":\"default\",\"sceneID\":\"default\"}]"));
+        Set<InteractiveGroup> firstGroups = first.get(1, TimeUnit.SECONDS);
+        Set<InteractiveGroup> secondGroups = second.get(1, TimeUnit.SECONDS);
+        Assert.assertEquals("Callers get equal results", firstGroups, secondGroups);
+        Assert.assertNotSame("Callers sharing a request get their own results", firstGroups, secondGroups);
+        Assert.assertNotSame("Callers sharing a request get their own resources", firstGroups.iterator().next(), secondGroups.iterator().next());
+
+        firstGroups.clear();
+        Set<InteractiveGroup> cachedGroups = cache.<Set<InteractiveGroup>>get(InteractiveMethod.GET_GROUPS, request, GROUP_SET_TYPE).get(1, TimeUnit.SECONDS);
+        Assert.assertEquals("Cached result is returned without a request", 1, request.count.get());
+        Assert.assertEquals("Changes made by a caller do not reach the cached result", secondGroups, cachedGroups);
+        Assert.assertNotSame("Callers of a cached result get their own resources", secondGroups.iterator().next(), cachedGroups.iterator().next());
+    }
+
+    @Test
+    public void cancelling_one_caller_leaves_others_waiting() throws Exception {
+        ReadRequestCache cache = new ReadRequestCache();
+        CountingRequest request = new CountingRequest();
+
+        CompletableFuture<String> first = cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        CompletableFuture<String> second = cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        first.cancel(false);
+        Assert.assertFalse("Request is not cancelled while a caller waits on it", request.pending.isCancelled());
+
+        request.pending.complete(new JsonPrimitive("groups"));
+        Assert.assertEquals("Remaining caller gets the result", "groups", second.get(1, TimeUnit.SECONDS));
+
+        CompletableFuture<String> third = cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        third.cancel(false);
+        Assert.assertTrue("Request is cancelled once no caller waits on it", request.pending.isCancelled());
+    }
+
+    @Test
+    public void caches_until_invalidated() throws Exception {
+        ReadRequestCache cache = new ReadRequestCache();
+        cache.setTimeToLive(InteractiveMethod.GET_SCENES, 1, TimeUnit.MINUTES);
+        CountingRequest request = new CountingRequest();
+
+        CompletableFuture<String> first = cache.get(InteractiveMethod.GET_SCENES, request, String.class);
+        request.pending.complete(new JsonPrimitive("scenes"));
+        first.get(1, TimeUnit.SECONDS);
+        Assert.assertEquals("Cached result is returned", "scenes", cache.get(InteractiveMethod.GET_SCENES, request, String.class).get(1, TimeUnit.SECONDS));
+        Assert.assertEquals("Cached result is returned without a request", 1, request.count.get());
+
+        Assert.assertTrue("Updating controls changes the scenes", cache.onRequest(InteractiveMethod.UPDATE_CONTROLS));
+        cache.get(InteractiveMethod.GET_SCENES, request, String.class);
+        Assert.assertEquals("Request is sent after a write", 2, request.count.get());
+        request.pending.complete(new JsonPrimitive("scenes"));
+
+        Assert.assertTrue("Cache is interested in scene events while scenes are cached", cache.isInterestedIn(SceneUpdateEvent.class));
+        cache.onSceneEvent(new SceneUpdateEvent(Collections.emptySet()));
+        cache.get(InteractiveMethod.GET_SCENES, request, String.class);
+        Assert.assertEquals("Request is sent after a scene event", 3, request.count.get());
+    }
+
+    @Test
+    public void drops_cached_results_on_sequence_gap() throws Exception {
+        ReadRequestCache cache = new ReadRequestCache();
+        Assert.assertFalse("Cache is not interested in gaps while nothing is cached", cache.isInterestedIn(SequenceGapEvent.class));
+        cache.setTimeToLive(InteractiveMethod.GET_GROUPS, 1, TimeUnit.MINUTES);
+        Assert.assertTrue("Cache is interested in gaps while results are cached", cache.isInterestedIn(SequenceGapEvent.class));
+        CountingRequest request = new CountingRequest();
+
+        CompletableFuture<String> first = cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        request.pending.complete(new JsonPrimitive("groups"));
+        first.get(1, TimeUnit.SECONDS);
+        cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        Assert.assertEquals("Cached result is returned without a request", 1, request.count.get());
+
+        cache.onSequenceGap(new SequenceGapEvent(1234, null, 5, 7));
+        cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        Assert.assertEquals("Request is sent after a sequence gap", 2, request.count.get());
+    }
+
+    @Test
+    public void does_not_cache_result_invalidated_in_flight() throws Exception {
+        ReadRequestCache cache = new ReadRequestCache();
+        cache.setTimeToLive(InteractiveMethod.GET_GROUPS, 1, TimeUnit.MINUTES);
+        CountingRequest request = new CountingRequest();
+
+        CompletableFuture<String> first = cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        cache.onRequest(InteractiveMethod.CREATE_GROUPS);
+        request.pending.complete(new JsonPrimitive("stale groups"));
+        Assert.assertEquals("Caller gets the result", "stale groups", first.get(1, TimeUnit.SECONDS));
+
+        cache.get(InteractiveMethod.GET_GROUPS, request, String.class);
+        Assert.assertEquals("Stale result is not cached", 2, request.count.get());
+    }
+
+    @Test
+    public void game_client_shares_concurrent_reads() throws Exception {
+        InteractiveStandInServer server = new InteractiveStandInServer().startAndWait();
+        GameClient gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        try {
+            Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+            server.setNetworkConditions(NetworkConditions.NONE.withLatency(200, TimeUnit.MILLISECONDS));
+
+            CompletableFuture<Set<InteractiveScene>> firstScenes = gameClient.using(SCENE_SERVICE_PROVIDER).getScenes();
+            CompletableFuture<Set<InteractiveScene>> secondScenes = gameClient.using(SCENE_SERVICE_PROVIDER).getScenes();
+            CompletableFuture<Set<InteractiveGroup>> groups = gameClient.using(GROUP_SERVICE_PROVIDER).getGroups();
+            Assert.assertEquals("Concurrent scene reads share a request", 2, gameClient.getWebSocketClient().getWaitingFuturesMap().size());
+
+            Assert.assertEquals("Both callers get the scenes", firstScenes.get(5, TimeUnit.SECONDS), secondScenes.get(5, TimeUnit.SECONDS));
+            Assert.assertNotSame("Each caller gets its own scenes", firstScenes.get(), secondScenes.get());
+            Assert.assertFalse("Groups are returned", groups.get(5, TimeUnit.SECONDS).isEmpty());
+        }
+        finally {
+            gameClient.disconnect().get(5, TimeUnit.SECONDS);
+            server.shutdown();
+        }
+    }
+
+    /**
+     * A read request counting the number of times it is sent, leaving each one pending until completed by the test with
+     * the JSON of its result.
+     */
+    private static class CountingRequest implements Supplier<CompletableFuture<JsonElement>> {
+
+        /**
+         * Number of times the request was sent
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * The request most recently sent
+         */
+        private CompletableFuture<JsonElement> pending;
+
+        @Override
+        public CompletableFuture<JsonElement> get() {
+            count.incrementAndGet();
+            pending = new CompletableFuture<>();
+            return pending;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.mixer.interactive.test.unit.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.exception.InteractiveReplyWithErrorException;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.resources.group.InteractiveGroup;
+import com.mixer.interactive.resources.participant.InteractiveParticipant;
+import com.mixer.interactive.resources.scene.InteractiveScene;
+import com.mixer.interactive.services.RequestBatch;
+import com.mixer.interactive.test.load.ButtonMashProfile;
+import com.mixer.interactive.test.load.ParticipantLoadGenerator;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.*;
+
+/**
+ * Unit tests for sending requests made through several service providers together with a <code>RequestBatch</code>.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class RequestBatchUnitTest {
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Registry recording metrics for the game client
+     */
+    private InteractiveMetricsRegistry metrics;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        metrics = new InteractiveMetricsRegistry();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        gameClient.setMetricsRegistry(metrics);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void sends_requests_of_stage_in_one_frame() throws Exception {
+        RequestBatch batch = gameClient.batch();
+        CompletableFuture<Set<InteractiveScene>> scenes = batch.using(SCENE_SERVICE_PROVIDER).create(new InteractiveScene("arena"));
+        CompletableFuture<Boolean> groups = batch.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("red"));
+        Assert.assertEquals("Requests are held", 2, batch.size());
+        Assert.assertTrue("Nothing is sent before the batch", gameClient.getWebSocketClient().getWaitingFuturesMap().isEmpty());
+
+        Assert.assertEquals("Batch succeeds", true, batch.send().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Scene is created", 1, scenes.get(5, TimeUnit.SECONDS).size());
+        Assert.assertEquals("Group is created", true, groups.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Requests share a frame", 2, metrics.getMethodMetrics(InteractiveMethod.CREATE_GROUPS).getMeanBatchSize(), 0.0001);
+    }
+
+    @Test
+    public void sends_stage_once_previous_stage_succeeds() throws Exception {
+        RequestBatch batch = gameClient.batch();
+        batch.using(SCENE_SERVICE_PROVIDER).create(new InteractiveScene("arena"));
+        batch.nextStage();
+        Map<InteractiveControl, CompletableFuture<Boolean>> controls = batch.using(CONTROL_SERVICE_PROVIDER)
+                .create(new ButtonControl("fight", "arena").setText("Fight"))
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals("Batch succeeds", true, batch.send().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Control is created in the new scene", true, controls.values().iterator().next().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Stages are sent in separate frames", 1, metrics.getMethodMetrics(InteractiveMethod.CREATE_CONTROLS).getMeanBatchSize(), 0.0001);
+    }
+
+    @Test
+    public void cancels_later_stages_when_stage_fails() throws Exception {
+        RequestBatch batch = gameClient.batch();
+        CompletableFuture<Boolean> captured = batch.using(TRANSACTION_SERVICE_PROVIDER).capture("unknown");
+        batch.nextStage();
+        CompletableFuture<Boolean> groups = batch.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("red"));
+
+        try {
+            batch.send().get(5, TimeUnit.SECONDS);
+            Assert.fail("Batch fails");
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue("Batch fails with the reply error", e.getCause() instanceof InteractiveReplyWithErrorException);
+        }
+        try {
+            captured.get(5, TimeUnit.SECONDS);
+            Assert.fail("Failed request fails");
+        }
+        catch (ExecutionException e) {
+            Assert.assertTrue("Failed request fails with the reply error", e.getCause() instanceof InteractiveReplyWithErrorException);
+        }
+        try {
+            groups.get(5, TimeUnit.SECONDS);
+            Assert.fail("Later stage fails");
+        }
+        catch (CancellationException | ExecutionException e) {
+            Assert.assertTrue("Later stage is cancelled", e instanceof CancellationException || e.getCause() instanceof CancellationException);
+        }
+        Assert.assertEquals("Later stage is not sent", 0, metrics.getMethodMetrics(InteractiveMethod.CREATE_GROUPS).getRequestCount());
+    }
+
+    @Test
+    public void cancelled_request_does_not_fail_batch() throws Exception {
+        RequestBatch batch = gameClient.batch();
+        CompletableFuture<Boolean> red = batch.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("red"));
+        CompletableFuture<Boolean> blue = batch.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("blue"));
+        batch.nextStage();
+        CompletableFuture<Set<InteractiveScene>> scenes = batch.using(SCENE_SERVICE_PROVIDER).create(new InteractiveScene("arena"));
+        red.cancel(false);
+
+        Assert.assertEquals("Batch succeeds", true, batch.send().get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Rest of the stage is sent", true, blue.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Later stage is sent", 1, scenes.get(5, TimeUnit.SECONDS).size());
+        Assert.assertEquals("Cancelled request is not sent", 1, metrics.getMethodMetrics(InteractiveMethod.CREATE_GROUPS).getRequestCount());
+    }
+
+    @Test
+    public void pages_participants_after_first_page_is_sent_with_batch() throws Exception {
+        ParticipantLoadGenerator generator = new ParticipantLoadGenerator(server.getParticipantURI(), new ButtonMashProfile("button", 0.1))
+                .setParticipantCount(150)
+                .start();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.getParticipantCount() < 150 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals("Participants join", 150, server.getParticipantCount());
+
+            RequestBatch batch = gameClient.batch();
+            CompletableFuture<Set<InteractiveParticipant>> participants = batch.using(PARTICIPANT_SERVICE_PROVIDER).getAllParticipants();
+            batch.using(GROUP_SERVICE_PROVIDER).create(new InteractiveGroup("red"));
+            Assert.assertEquals("First page is held", 2, batch.size());
+            Assert.assertFalse("Participants are not retrieved before the batch", participants.isDone());
+
+            Assert.assertEquals("Batch succeeds", true, batch.send().get(5, TimeUnit.SECONDS));
+            participants.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals("Later pages are requested on their own", 2, metrics.getMethodMetrics(InteractiveMethod.GET_ALL_PARTICIPANTS).getRequestCount());
+            Assert.assertEquals("Every page of participants is retrieved", gameClient.using(PARTICIPANT_SERVICE_PROVIDER).getAllParticipants().get(5, TimeUnit.SECONDS), participants.get(5, TimeUnit.SECONDS));
+        }
+        finally {
+            generator.stop();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mixer.interactive.test.unit.services;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.event.connection.SequenceGapEvent;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.metrics.MethodMetrics;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.resources.control.ButtonControl;
+import com.mixer.interactive.resources.control.InteractiveControl;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.CONTROL_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for completing redundant updates against the shadow of the last acknowledged state.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class UpdateShadowUnitTest {
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Registry recording metrics for the game client
+     */
+    private InteractiveMetricsRegistry metrics;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        metrics = new InteractiveMetricsRegistry();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        gameClient.setMetricsRegistry(metrics);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+    }
+
+    @Test
+    public void sends_every_update_by_default() throws Exception {
+        createControl();
+        updateProgress(0.5f);
+        updateProgress(0.5f);
+        Assert.assertEquals("Both updates are sent", 2, metrics.getMethodMetrics(InteractiveMethod.UPDATE_CONTROLS).getRequestCount());
+    }
+
+    @Test
+    public void completes_redundant_update_without_sending() throws Exception {
+        gameClient.getUpdateShadow().setEnabled(true);
+        createControl();
+        updateProgress(0.2f);
+        MethodMetrics updateMetrics = metrics.getMethodMetrics(InteractiveMethod.UPDATE_CONTROLS);
+        Assert.assertEquals("Changing update is sent", 1, updateMetrics.getRequestCount());
+
+        Set<InteractiveControl> updated = updateProgress(0.2f);
+        Assert.assertEquals("Redundant update is not sent", 1, updateMetrics.getRequestCount());
+        Assert.assertEquals("Redundant update is counted", 1, updateMetrics.getSuppressedCount());
+        Assert.assertEquals("Redundant update returns the shadowed control", 0.2f, ((ButtonControl) updated.iterator().next()).getProgress(), 0.0001f);
+
+        updateProgress(0.5f);
+        Assert.assertEquals("Update back to an earlier value is sent", 2, updateMetrics.getRequestCount());
+    }
+
+    @Test
+    public void sends_matching_update_after_sequence_gap() throws Exception {
+        gameClient.getUpdateShadow().setEnabled(true);
+        createControl();
+        updateProgress(0.2f);
+        MethodMetrics updateMetrics = metrics.getMethodMetrics(InteractiveMethod.UPDATE_CONTROLS);
+        Assert.assertEquals("Changing update is sent", 1, updateMetrics.getRequestCount());
+
+        gameClient.getEventBus().post(new SequenceGapEvent(gameClient.getProjectVersionId(), server.getGameClientURI(), 5, 7));
+        Assert.assertEquals("Gap forgets the shadowed resources", 0, gameClient.getUpdateShadow().size());
+
+        updateProgress(0.2f);
+        Assert.assertEquals("Update matching the stale shadow is sent", 2, updateMetrics.getRequestCount());
+        Assert.assertEquals("Nothing is suppressed", 0, updateMetrics.getSuppressedCount());
+    }
+
+    @Test
+    public void shares_outcome_of_identical_update_in_flight() throws Exception {
+        gameClient.getUpdateShadow().setEnabled(true);
+        createControl();
+        updateProgress(0.5f);
+        MethodMetrics updateMetrics = metrics.getMethodMetrics(InteractiveMethod.UPDATE_CONTROLS);
+        Assert.assertEquals("Update matching the created control is not sent", 0, updateMetrics.getRequestCount());
+
+        // The later updates are checked while the first is awaiting its reply
+        CompletableFuture<Set<InteractiveControl>> first = startUpdate(0.9f);
+        CompletableFuture<Set<InteractiveControl>> repeated = startUpdate(0.9f);
+        CompletableFuture<Set<InteractiveControl>> reverted = startUpdate(0.5f);
+        first.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Repeated update completes with the first", 0.9f, ((ButtonControl) repeated.get(5, TimeUnit.SECONDS).iterator().next()).getProgress(), 0.0001f);
+        reverted.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals("Changing updates are sent", 2, updateMetrics.getRequestCount());
+        Assert.assertEquals("Redundant updates are counted", 2, updateMetrics.getSuppressedCount());
+    }
+
+    /**
+     * Creates the control updated by the tests.
+     */
+    private void createControl() throws Exception {
+        gameClient.using(CONTROL_SERVICE_PROVIDER).create(new ButtonControl("fight", "default").setText("Fight").setProgress(0.5f)).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Updates the progress of the control and waits for the update to complete.
+     *
+     * @param   progress
+     *          The new progress of the control
+     *
+     * @return  The controls returned by the update
+     */
+    private Set<InteractiveControl> updateProgress(float progress) throws Exception {
+        return startUpdate(progress).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts updating the progress of the control, once the request for it has been sent.
+     *
+     * @param   progress
+     *          The new progress of the control
+     *
+     * @return  A <code>CompletableFuture</code> that when complete returns the controls returned by the update
+     */
+    private CompletableFuture<Set<InteractiveControl>> startUpdate(float progress) throws Exception {
+        Set<CompletableFuture<Set<InteractiveControl>>> updates = new HashSet<>(gameClient.using(CONTROL_SERVICE_PROVIDER)
+                .update(new ButtonControl("fight", "default").setText("Fight").setProgress(progress))
+                .get(5, TimeUnit.SECONDS)
+                .values());
+        Assert.assertEquals("Control is updated in one request", 1, updates.size());
+        return updates.iterator().next();
+    }
+}
@@ -0,0 +1,244 @@
+package com.mixer.interactive.test.unit.ws;
+
+import com.mixer.interactive.exception.InteractiveOutboundBufferFullException;
+import com.mixer.interactive.protocol.RequestPriority;
+import com.mixer.interactive.ws.OutboundBuffer;
+import com.mixer.interactive.ws.OutboundBufferLimits;
+import com.mixer.interactive.ws.OverflowPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for bounding the frames waiting to be written to the Interactive service.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class OutboundBufferUnitTest {
+
+    /**
+     * Limits with a capacity of 100 bytes and watermarks at 80 and 20 bytes
+     */
+    private static final OutboundBufferLimits LIMITS = OutboundBufferLimits.DEFAULT.withCapacity(100, 80, 20);
+
+    /**
+     * Sizes of the frames handed to the stand-in socket
+     */
+    private final List<Integer> written = new ArrayList<>();
+
+    /**
+     * Handles of the frames the stand-in socket holds but has not yet written, in order
+     */
+    private final Deque<Object> socket = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Sizes of the frames dropped after being admitted
+     */
+    private final List<Integer> dropped = new ArrayList<>();
+
+    /**
+     * Writability changes reported by the buffer
+     */
+    private final List<Boolean> changes = new ArrayList<>();
+
+    @Test
+    public void writability_follows_watermarks() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS);
+
+        write(buffer, 50, RequestPriority.NORMAL);
+        Assert.assertTrue("Writable below the high watermark", buffer.isWritable());
+        write(buffer, 30, RequestPriority.NORMAL);
+        Assert.assertFalse("Not writable at the high watermark", buffer.isWritable());
+
+        writeNext(buffer);
+        Assert.assertFalse("Not writable until drained to the low watermark", buffer.isWritable());
+        write(buffer, 20, RequestPriority.NORMAL);
+        writeNext(buffer);
+        Assert.assertEquals("Written frames stop waiting", 20, buffer.getPendingBytes());
+        Assert.assertTrue("Writable at the low watermark", buffer.isWritable());
+        Assert.assertEquals("Changes are reported once each", Arrays.asList(false, true), changes);
+    }
+
+    @Test
+    public void fail_policy_rejects_frames_that_do_not_fit() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS);
+
+        write(buffer, 150, RequestPriority.NORMAL);
+        Assert.assertEquals("Oversized frame is admitted when nothing is waiting", 150, buffer.getPendingBytes());
+        try {
+            write(buffer, 1, RequestPriority.HIGH);
+            Assert.fail("Frame is rejected when the buffer is full");
+        }
+        catch (InteractiveOutboundBufferFullException e) {
+            Assert.assertEquals("Pending bytes are reported", 150, e.getPendingBytes());
+        }
+        Assert.assertEquals("Rejections are counted", 1, buffer.getRejectedCount());
+    }
+
+    @Test
+    public void drop_policy_drops_by_priority() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS.withOverflowPolicy(OverflowPolicy.DROP_BY_PRIORITY));
+
+        write(buffer, 85, RequestPriority.NORMAL);
+        Assert.assertFalse("Low priority frame is dropped above the high watermark", tryWrite(buffer, 5, RequestPriority.LOW));
+        Assert.assertTrue("Normal priority frame is queued while it fits", tryWrite(buffer, 10, RequestPriority.NORMAL));
+        Assert.assertFalse("Normal priority frame is dropped when it does not fit", tryWrite(buffer, 10, RequestPriority.NORMAL));
+        Assert.assertEquals("Frames are queued once the socket holds the low watermark", Collections.singletonList(85), written);
+        Assert.assertEquals("Bytes of admitted frames are waiting", 95, buffer.getPendingBytes());
+
+        writeNext(buffer);
+        Assert.assertEquals("Queued frame is handed to the socket once it drains", Arrays.asList(85, 10), written);
+        Assert.assertEquals("Bytes of written frames stop waiting", 10, buffer.getPendingBytes());
+    }
+
+    @Test
+    public void drop_policy_evicts_lower_priority_frames_for_high_priority_frames() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS.withOverflowPolicy(OverflowPolicy.DROP_BY_PRIORITY));
+
+        write(buffer, 15, RequestPriority.NORMAL);
+        write(buffer, 15, RequestPriority.NORMAL);
+        write(buffer, 30, RequestPriority.LOW);
+        write(buffer, 30, RequestPriority.NORMAL);
+        Assert.assertEquals("Frames are queued once the socket holds the low watermark", Arrays.asList(15, 15), written);
+
+        write(buffer, 40, RequestPriority.HIGH);
+        Assert.assertEquals("Queued low priority frame is dropped to make room", Collections.singletonList(30), dropped);
+        Assert.assertEquals("High priority frame takes its place", 100, buffer.getPendingBytes());
+
+        Assert.assertFalse("High priority frame is dropped when no more room can be made", tryWrite(buffer, 50, RequestPriority.HIGH));
+        Assert.assertEquals("Frames are not dropped in vain", Collections.singletonList(30), dropped);
+        Assert.assertEquals("Capacity is never exceeded", 100, buffer.getPendingBytes());
+        Assert.assertEquals("Rejections and drops are counted", 2, buffer.getRejectedCount());
+
+        writeNext(buffer);
+        writeNext(buffer);
+        Assert.assertEquals("Queued frames are handed to the socket in order", Arrays.asList(15, 15, 30), written);
+        writeNext(buffer);
+        Assert.assertEquals("Queued frames are handed to the socket in order", Arrays.asList(15, 15, 30, 40), written);
+        Assert.assertEquals("Only frames handed to the socket are waiting", 40, buffer.getPendingBytes());
+    }
+
+    @Test
+    public void block_policy_waits_for_room() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS.withOverflowPolicy(OverflowPolicy.BLOCK).withBlockTimeoutMillis(5000));
+        write(buffer, 90, RequestPriority.NORMAL);
+
+        ScheduledExecutorService drain = Executors.newSingleThreadScheduledExecutor();
+        try {
+            drain.schedule(() -> writeNext(buffer), 50, TimeUnit.MILLISECONDS);
+            write(buffer, 50, RequestPriority.NORMAL);
+            Assert.assertEquals("Frame is written once there is room", Arrays.asList(90, 50), written);
+        }
+        finally {
+            drain.shutdown();
+        }
+
+        OutboundBuffer timingOut = buffer(LIMITS.withOverflowPolicy(OverflowPolicy.BLOCK).withBlockTimeoutMillis(20));
+        write(timingOut, 90, RequestPriority.NORMAL);
+        Assert.assertFalse("Frame is rejected once the block timeout passes", tryWrite(timingOut, 60, RequestPriority.NORMAL));
+    }
+
+    @Test
+    public void frames_written_by_the_socket_itself_are_not_counted() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS);
+        socket.addLast(new Object());
+
+        write(buffer, 30, RequestPriority.NORMAL);
+        writeNext(buffer);
+        Assert.assertEquals("Frame stays waiting while the socket writes its own", 30, buffer.getPendingBytes());
+        writeNext(buffer);
+        Assert.assertEquals("Frame stops waiting once the socket writes it", 0, buffer.getPendingBytes());
+    }
+
+    @Test
+    public void frames_that_cannot_be_handed_off_are_dropped() throws Exception {
+        OutboundBuffer buffer = buffer(LIMITS);
+
+        buffer.write(30, RequestPriority.NORMAL, () -> { throw new IllegalStateException("closed"); }, throwable -> dropped.add(30));
+        Assert.assertEquals("Frame is dropped", Collections.singletonList(30), dropped);
+        Assert.assertEquals("Dropped frame stops waiting", 0, buffer.getPendingBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_watermarks_out_of_order() {
+        OutboundBufferLimits.DEFAULT.withCapacity(100, 20, 80);
+    }
+
+    /**
+     * Creates a buffer recording the frames handed to the stand-in socket.
+     *
+     * @param   limits
+     *          The limits the buffer is held to
+     *
+     * @return  The buffer
+     */
+    private OutboundBuffer buffer(OutboundBufferLimits limits) {
+        return new OutboundBuffer(() -> limits, () -> socket, (writable, pendingBytes) -> changes.add(writable));
+    }
+
+    /**
+     * Has the stand-in socket write the oldest frame it holds, then lets the buffer check for written frames.
+     *
+     * @param   buffer
+     *          The buffer
+     */
+    private void writeNext(OutboundBuffer buffer) {
+        socket.pollFirst();
+        buffer.drain();
+    }
+
+    /**
+     * Writes a frame, recording it when it is handed to the socket or dropped.
+     *
+     * @param   buffer
+     *          The buffer
+     * @param   frameBytes
+     *          Size, in bytes, of the frame
+     * @param   priority
+     *          Priority of the frame
+     *
+     * @throws  InteractiveOutboundBufferFullException
+     *          If the frame was turned away
+     */
+    private void write(OutboundBuffer buffer, int frameBytes, RequestPriority priority) throws InteractiveOutboundBufferFullException {
+        buffer.write(frameBytes, priority, () -> {
+            written.add(frameBytes);
+            Object handle = new Object();
+            socket.addLast(handle);
+            return handle;
+        }, throwable -> dropped.add(frameBytes));
+    }
+
+    /**
+     * Writes a frame, returning whether it was admitted.
+     *
+     * @param   buffer
+     *          The buffer
+     * @param   frameBytes
+     *          Size, in bytes, of the frame
+     * @param   priority
+     *          Priority of the frame
+     *
+     * @return  <code>true</code> if the frame was written, <code>false</code> otherwise
+     */
+    private boolean tryWrite(OutboundBuffer buffer, int frameBytes, RequestPriority priority) {
+        try {
+            write(buffer, frameBytes, priority);
+            return true;
+        }
+        catch (InteractiveOutboundBufferFullException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mixer.interactive.test.unit.ws;
+
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.InteractivePacket;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.protocol.ReplyPacket;
+import com.mixer.interactive.ws.PacketSequencer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for ordering received packets and detecting missing sequence numbers.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class PacketSequencerUnitTest {
+
+    @Test
+    public void reorders_packets_across_frames() {
+        List<int[]> gaps = new ArrayList<>();
+        PacketSequencer sequencer = new PacketSequencer(8, (first, last) -> gaps.add(new int[] { first, last }));
+
+        Assert.assertEquals("First frame is in order", Arrays.asList(1, 2), sequences(sequencer.accept(frame(method(2), method(1)))));
+        Assert.assertEquals("Packets ahead of a missing one are held", Arrays.asList(), sequences(sequencer.accept(frame(method(4), method(5)))));
+        Assert.assertTrue("Packets are held", sequencer.hasHeldPackets());
+        Assert.assertEquals("Last sequence number includes held packets", 5, sequencer.getLastSequenceNumber());
+
+        Assert.assertEquals("Missing packet releases held ones", Arrays.asList(3, 4, 5), sequences(sequencer.accept(frame(method(3)))));
+        Assert.assertFalse("No packets are held", sequencer.hasHeldPackets());
+        Assert.assertEquals("Reordered packets are counted", 2, sequencer.getReorderedCount());
+        Assert.assertEquals("No gaps", 0, gaps.size());
+    }
+
+    @Test
+    public void last_sequence_number_is_monotonic() {
+        PacketSequencer sequencer = new PacketSequencer(8, (first, last) -> { });
+
+        sequencer.accept(frame(method(10)));
+        sequencer.accept(frame(method(9)));
+        sequencer.accept(frame(method(0)));
+        Assert.assertEquals("Late packets do not lower the last sequence number", 10, sequencer.getLastSequenceNumber());
+    }
+
+    @Test
+    public void replies_are_never_held() {
+        PacketSequencer sequencer = new PacketSequencer(8, (first, last) -> { });
+        sequencer.accept(frame(method(1)));
+
+        Assert.assertEquals("Reply ahead of a missing packet is released", Arrays.asList(3), sequences(sequencer.accept(frame(reply(3)))));
+        Assert.assertEquals("Missing packet releases the sequence", Arrays.asList(2, 4), sequences(sequencer.accept(frame(method(4), method(2)))));
+    }
+
+    @Test
+    public void detects_gaps() {
+        List<int[]> gaps = new ArrayList<>();
+        PacketSequencer sequencer = new PacketSequencer(8, (first, last) -> gaps.add(new int[] { first, last }));
+        sequencer.accept(frame(method(1)));
+        sequencer.accept(frame(method(4), method(6)));
+
+        Assert.assertEquals("Flush releases held packets", Arrays.asList(4, 6), sequences(sequencer.flush()));
+        Assert.assertEquals("Two gaps", 2, gaps.size());
+        Assert.assertArrayEquals("First gap", new int[] { 2, 3 }, gaps.get(0));
+        Assert.assertArrayEquals("Second gap", new int[] { 5, 5 }, gaps.get(1));
+        Assert.assertEquals("Missing count", 3, sequencer.getMissingCount());
+
+        Assert.assertEquals("Packet beyond the window overflows it", Arrays.asList(8), sequences(sequencer.accept(frame(method(8), method(16)))));
+        Assert.assertEquals("Overflow declares a gap", 3, sequencer.getGapCount());
+        Assert.assertEquals("Flush releases the rest", Arrays.asList(16), sequences(sequencer.flush()));
+        Assert.assertEquals("Gaps are counted", 4, sequencer.getGapCount());
+        Assert.assertEquals("Missing sequence numbers are counted", 11, sequencer.getMissingCount());
+    }
+
+    @Test
+    public void flushes_only_packets_held_long_enough() throws Exception {
+        List<int[]> gaps = new ArrayList<>();
+        PacketSequencer sequencer = new PacketSequencer(8, (first, last) -> gaps.add(new int[] { first, last }));
+        sequencer.accept(frame(method(1)));
+        sequencer.accept(frame(method(3)));
+        Thread.sleep(2);
+        long cutoff = System.nanoTime();
+        Thread.sleep(2);
+        sequencer.accept(frame(method(5)));
+
+        Assert.assertEquals("Packets held long enough are released", Arrays.asList(3), sequences(sequencer.flush(cutoff)));
+        Assert.assertEquals("Only the gap ahead of them is reported", 1, gaps.size());
+        Assert.assertArrayEquals("Gap ahead of them", new int[] { 2, 2 }, gaps.get(0));
+        Assert.assertTrue("Packets held more recently are still held", sequencer.hasHeldPackets());
+        Assert.assertTrue("Oldest held packet was held after the cutoff", sequencer.getOldestHeldNanos() - cutoff > 0);
+    }
+
+    /**
+     * Creates a frame of packets.
+     *
+     * @param   packets
+     *          The packets
+     *
+     * @return  A mutable list of the packets
+     */
+    private static List<InteractivePacket> frame(InteractivePacket... packets) {
+        return new ArrayList<>(Arrays.asList(packets));
+    }
+
+    /**
+     * Creates a method packet.
+     *
+     * @param   sequenceNumber
+     *          Sequence number of the packet
+     *
+     * @return  The packet
+     */
+    private static InteractivePacket method(int sequenceNumber) {
+        MethodPacket packet = new MethodPacket(sequenceNumber, InteractiveMethod.ON_PARTICIPANT_UPDATE, null);
+        packet.setSequenceNumber(sequenceNumber);
+        return packet;
+    }
+
+    /**
+     * Creates a reply packet.
+     *
+     * @param   sequenceNumber
+     *          Sequence number of the packet
+     *
+     * @return  The packet
+     */
+    private static InteractivePacket reply(int sequenceNumber) {
+        ReplyPacket packet = new ReplyPacket(sequenceNumber, null, null);
+        packet.setSequenceNumber(sequenceNumber);
+        return packet;
+    }
+
+    /**
+     * Returns the sequence numbers of packets.
+     *
+     * @param   packets
+     *          The packets
+     *
+     * @return  The sequence numbers of the packets, in order
+     */
+    private static List<Integer> sequences(List<InteractivePacket> packets) {
+        return packets.stream().map(InteractivePacket::getSequenceNumber).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,150 @@
+package com.mixer.interactive.test.unit.ws;
+
+import com.mixer.interactive.GameClient;
+import com.mixer.interactive.metrics.InteractiveMetricsRegistry;
+import com.mixer.interactive.metrics.ReadThreadMetrics;
+import com.mixer.interactive.protocol.InteractiveMethod;
+import com.mixer.interactive.protocol.MethodPacket;
+import com.mixer.interactive.test.server.InteractiveStandInServer;
+import com.mixer.interactive.test.server.NetworkConditions;
+import com.mixer.interactive.test.util.TestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.mixer.interactive.GameClient.RPC_SERVICE_PROVIDER;
+
+/**
+ * Unit tests for completing the promises for replies off the websocket read thread.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+public class ReplyCompletionUnitTest {
+
+    /**
+     * Name of the thread replies are completed on
+     */
+    private static final String COMPLETION_THREAD = "reply-completion";
+
+    /**
+     * The stand-in server
+     */
+    private InteractiveStandInServer server;
+
+    /**
+     * The game client connected to the stand-in server
+     */
+    private GameClient gameClient;
+
+    /**
+     * Executor replies are completed on
+     */
+    private ExecutorService completionExecutor;
+
+    /**
+     * Registry recording metrics for the game client
+     */
+    private InteractiveMetricsRegistry metrics;
+
+    @Before
+    public void setupGameClient() throws Exception {
+        server = new InteractiveStandInServer().startAndWait();
+        completionExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, COMPLETION_THREAD));
+        metrics = new InteractiveMetricsRegistry();
+        gameClient = new GameClient(1234, TestUtils.CLIENT_ID);
+        gameClient.setReplyCompletionExecutor(completionExecutor);
+        gameClient.setMetricsRegistry(metrics);
+        Assert.assertEquals("Game client connects", true, gameClient.connectTo("token", server.getGameClientURI()).get(5, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void teardownGameClient() throws Exception {
+        gameClient.disconnect().get(5, TimeUnit.SECONDS);
+        server.shutdown();
+        completionExecutor.shutdown();
+    }
+
+    @Test
+    public void completes_replies_on_completion_executor() throws Exception {
+        // Holds the completion executor until the continuation is attached, so the reply cannot complete before it
+        CountDownLatch gate = new CountDownLatch(1);
+        completionExecutor.execute(() -> {
+            try {
+                gate.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<String> thread = gameClient.using(RPC_SERVICE_PROVIDER)
+                .send(new MethodPacket(gameClient.using(RPC_SERVICE_PROVIDER).claimNextPacketId(), InteractiveMethod.GET_TIME, null))
+                .thenApply(reply -> Thread.currentThread().getName());
+        gate.countDown();
+        Assert.assertEquals("Continuation runs on the completion executor", COMPLETION_THREAD, thread.get(5, TimeUnit.SECONDS));
+
+        ReadThreadMetrics readThread = metrics.getReadThreadMetrics();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (readThread.getRepliesHandedOff() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue("Frames are recorded", readThread.getFrameCount() > 0);
+        Assert.assertTrue("Reply was handed off", readThread.getRepliesHandedOff() > 0);
+    }
+
+    @Test
+    public void completes_inline_replies_on_read_thread() throws Exception {
+        MethodPacket request = new MethodPacket(gameClient.using(RPC_SERVICE_PROVIDER).claimNextPacketId(), InteractiveMethod.GET_TIME, null).setCompleteInline(true);
+        String thread = gameClient.using(RPC_SERVICE_PROVIDER)
+                .send(request)
+                .thenApply(reply -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+        Assert.assertNotEquals("Continuation does not run on the completion executor", COMPLETION_THREAD, thread);
+
+        // The frame is recorded once the read thread finishes with it, after the promise is completed
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metrics.getReadThreadMetrics().getRepliesCompletedInline() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals("Reply was completed inline", 1, metrics.getReadThreadMetrics().getRepliesCompletedInline());
+    }
+
+    @Test
+    public void completes_replies_in_order_on_dedicated_thread_by_default() throws Exception {
+        gameClient.setReplyCompletionExecutor(null);
+        // Delays the replies until the continuations are attached, so none completes on the calling thread
+        server.setNetworkConditions(NetworkConditions.NONE.withLatency(200, TimeUnit.MILLISECONDS));
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<String>> threads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int index = i;
+            threads.add(gameClient.using(RPC_SERVICE_PROVIDER)
+                    .send(new MethodPacket(gameClient.using(RPC_SERVICE_PROVIDER).claimNextPacketId(), InteractiveMethod.GET_TIME, null))
+                    .thenApply(reply -> {
+                        completed.add(index);
+                        return Thread.currentThread().getName();
+                    }));
+        }
+        CompletableFuture.allOf(threads.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        for (CompletableFuture<String> thread : threads) {
+            Assert.assertTrue("Continuation runs on the dedicated thread", thread.get().contains("-replies-"));
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            expected.add(i);
+        }
+        Assert.assertEquals("Replies are completed in the order they were received", expected, completed);
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Contains all unit tests related to the websocket connection to the Interactive service.
+ *
+ * @author      Microsoft Corporation
+ *
+ * @since       3.3.0
+ */
+package com.mixer.interactive.test.unit.ws;